@@ -0,0 +1,71 @@
+package vacademy.io.admin_core_service.features.audience.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Executors for background bulk lead imports (BulkLeadIngestionService) and the
+ * dedup pre-filter builds behind them (LeadDedupIndexService).
+ * Named-executor convention per TelephonyAsyncConfig / EngagementConfig.
+ */
+@Configuration
+public class LeadImportConfig {
+
+    /**
+     * Runs whole import jobs, one thread each. Small on purpose: a 20k-row import is
+     * mostly auth_service and database work, and a handful in parallel is all either
+     * should take. The default abort policy throws when the queue is full, which
+     * BulkLeadIngestionService turns into a "try again shortly" error.
+     */
+    @Bean(name = "leadImportExecutor")
+    public Executor leadImportExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(20);
+        executor.setThreadNamePrefix("lead-import-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Per-lead follow-up of an import (custom fields, scoring, counsellor assignment,
+     * workflow trigger) once the chunk's rows are inserted. Caller-runs on saturation,
+     * so a burst slows the importing job down instead of dropping a lead's side effects.
+     */
+    @Bean(name = "leadImportFanoutExecutor")
+    public Executor leadImportFanoutExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("lead-import-fanout-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Builds and periodically rebuilds the per-institute dedup Bloom filters. A build
+     * pages through one institute's keys, so two threads are plenty; the queue is
+     * sized past the filter cache's institute limit so a cold start never rejects.
+     */
+    @Bean(name = "leadDedupIndexExecutor")
+    public Executor leadDedupIndexExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("lead-dedup-index-");
+        executor.initialize();
+        return executor;
+    }
+}
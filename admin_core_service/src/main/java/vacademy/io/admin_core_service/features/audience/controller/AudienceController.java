@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import vacademy.io.admin_core_service.features.audience.dto.*;
 import vacademy.io.admin_core_service.features.audience.service.AudienceService;
+import vacademy.io.admin_core_service.features.audience.service.BulkLeadIngestionService;
 import vacademy.io.admin_core_service.features.audience.service.LeadAssignmentNotifier;
 import vacademy.io.admin_core_service.features.audience.service.LeadCreatorAttributionService;
 import vacademy.io.admin_core_service.features.audience.service.UserLeadProfileService;
@@ -28,6 +29,9 @@ public class AudienceController {
     @Autowired
     private AudienceService audienceService;
 
+    @Autowired
+    private BulkLeadIngestionService bulkLeadIngestionService;
+
     @Autowired
     private UserLeadProfileService userLeadProfileService;
 
@@ -162,7 +166,37 @@ public class AudienceController {
             @RequestAttribute("user") CustomUserDetails user) {
 
         leadCreatorAttributionService.applyCreatorAsCounsellor(request, user);
-        return ResponseEntity.ok(audienceService.bulkSubmitLead(request));
+        return ResponseEntity.ok(bulkLeadIngestionService.bulkSubmitLead(request));
+    }
+
+    /**
+     * Background variant of {@link #bulkSubmitLead} for large CSVs: returns the import
+     * job at once; poll {@code GET /lead/bulk-submit/jobs/{jobId}} for progress and the
+     * per-row report.
+     */
+    @PostMapping("/lead/bulk-submit/jobs")
+    public ResponseEntity<LeadImportJobDTO> startBulkSubmitLead(
+            @RequestBody BulkSubmitLeadRequestDTO request,
+            @RequestAttribute("user") CustomUserDetails user) {
+
+        leadCreatorAttributionService.applyCreatorAsCounsellor(request, user);
+        return ResponseEntity.ok(bulkLeadIngestionService.startBulkSubmitLead(request, user.getUserId()));
+    }
+
+    /**
+     * Background variant of {@code /open/v1/audience/lead/bulk-submit-with-enquiry}.
+     */
+    @PostMapping("/lead/bulk-submit-with-enquiry/jobs")
+    public ResponseEntity<LeadImportJobDTO> startBulkSubmitLeadWithEnquiry(
+            @RequestBody BulkSubmitLeadWithEnquiryRequestDTO request,
+            @RequestAttribute("user") CustomUserDetails user) {
+        return ResponseEntity.ok(bulkLeadIngestionService.startBulkSubmitLeadWithEnquiry(request, user.getUserId()));
+    }
+
+    @GetMapping("/lead/bulk-submit/jobs/{jobId}")
+    public ResponseEntity<LeadImportJobDTO> getBulkSubmitJob(@PathVariable String jobId,
+            @RequestAttribute("user") CustomUserDetails user) {
+        return ResponseEntity.ok(bulkLeadIngestionService.getJob(jobId, user));
     }
 
     @PostMapping("/leads")
@@ -18,6 +18,7 @@ import vacademy.io.admin_core_service.features.audience.dto.SubmitLeadWithEnquir
 import vacademy.io.admin_core_service.features.audience.dto.UpdateLeadWithEnquiryRequestDTO;
 import vacademy.io.admin_core_service.features.audience.dto.UpdateLeadWithEnquiryResponseDTO;
 import vacademy.io.admin_core_service.features.audience.service.AudienceService;
+import vacademy.io.admin_core_service.features.audience.service.BulkLeadIngestionService;
 import vacademy.io.admin_core_service.features.audience.service.PublicLeadRateLimiter;
 import vacademy.io.admin_core_service.features.common.service.InstituteCustomFiledService;
 
@@ -32,6 +33,9 @@ public class PublicAudienceController {
     @Autowired
     private AudienceService audienceService;
 
+    @Autowired
+    private BulkLeadIngestionService bulkLeadIngestionService;
+
     @Autowired
     private InstituteCustomFiledService instituteCustomFiledService;
 
@@ -118,7 +122,7 @@ public class PublicAudienceController {
     public ResponseEntity<BulkSubmitLeadWithEnquiryResponseDTO> bulkSubmitLeadWithEnquiry(
             @RequestBody BulkSubmitLeadWithEnquiryRequestDTO request) {
         BulkSubmitLeadWithEnquiryResponseDTO response =
-                audienceService.bulkSubmitLeadWithEnquiry(request);
+                bulkLeadIngestionService.bulkSubmitLeadWithEnquiry(request);
         return ResponseEntity.ok(response);
     }
 
@@ -129,7 +133,7 @@ public class PublicAudienceController {
     @PostMapping("/lead/bulk-submit")
     public ResponseEntity<BulkSubmitLeadResponseDTO> bulkSubmitLead(
             @RequestBody BulkSubmitLeadRequestDTO request) {
-        BulkSubmitLeadResponseDTO response = audienceService.bulkSubmitLead(request);
+        BulkSubmitLeadResponseDTO response = bulkLeadIngestionService.bulkSubmitLead(request);
         return ResponseEntity.ok(response);
     }
 
@@ -117,6 +117,11 @@ public class LeadFilterDTO {
     // Pagination
     private Integer page;
     private Integer size;
+    // Keyset paging: response_id of the last lead on the previous page. In the default
+    // newest-first order (sort_by null / SUBMITTED_AT, sort_direction not ASC) the page
+    // after that lead is returned and `page` only labels the result — a deep page then
+    // costs the same as the first. Any other sort keeps OFFSET paging by `page`.
+    private String afterResponseId;
     private String sortBy;                  // SUBMITTED_AT, LEAD_SCORE, LEAD_TIER, STATUS, PARENT_NAME, CUSTOM_FIELD
     private String sortDirection;           // ASC, DESC
     // When sortBy = CUSTOM_FIELD: the custom_field_id to sort by. The latest
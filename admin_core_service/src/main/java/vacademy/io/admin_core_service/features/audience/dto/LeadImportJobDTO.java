@@ -0,0 +1,59 @@
+package vacademy.io.admin_core_service.features.audience.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.sql.Timestamp;
+
+/**
+ * Status of a background bulk lead import, as returned when the import is started
+ * and on every progress poll.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class LeadImportJobDTO {
+
+    private String jobId;
+
+    /**
+     * LEAD or LEAD_WITH_ENQUIRY
+     */
+    private String jobType;
+
+    /**
+     * QUEUED / RUNNING / COMPLETED / FAILED
+     */
+    private String status;
+
+    private String audienceId;
+
+    private int totalRows;
+
+    private int processedRows;
+
+    private int successful;
+
+    private int failed;
+
+    private int skipped;
+
+    /**
+     * Per-row report, same items as the synchronous bulk-submit response. Only set
+     * once the job is COMPLETED.
+     */
+    private JsonNode results;
+
+    private String errorMessage;
+
+    private Timestamp createdAt;
+
+    private Timestamp completedAt;
+}
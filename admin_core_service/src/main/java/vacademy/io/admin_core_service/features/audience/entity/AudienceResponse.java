@@ -106,6 +106,14 @@ public class AudienceResponse {
     @Column(name = "primary_response_id")
     private String primaryResponseId;
 
+    /** Last 10 digits of parentMobile — maintained by trg_audience_response_dedup_keys (V468) */
+    @Column(name = "phone_last10", insertable = false, updatable = false)
+    private String phoneLast10;
+
+    /** LOWER(TRIM(parentEmail)) — maintained by trg_audience_response_dedup_keys (V468) */
+    @Column(name = "email_lower", insertable = false, updatable = false)
+    private String emailLower;
+
     // ── TAT / Follow-up SLA reminder dedup state ──────────────
     // Linear stage machine: BEFORE_* -> OVERDUE -> FOLLOW_UP_DUE -> FOLLOW_UP_OVERDUE.
     // The scheduler only EMITS workflow triggers; these columns guarantee one emit per stage.
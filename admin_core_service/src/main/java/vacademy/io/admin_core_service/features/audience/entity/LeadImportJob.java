@@ -0,0 +1,81 @@
+package vacademy.io.admin_core_service.features.audience.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.sql.Timestamp;
+
+/**
+ * One background bulk lead import (BulkLeadIngestionService). Progress counters are
+ * updated per chunk; {@link #results} carries the per-row report once the job is done.
+ */
+@Entity
+@Table(name = "lead_import_job")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeadImportJob {
+
+    @Id
+    @UuidGenerator
+    @Column(name = "id", nullable = false, unique = true)
+    private String id;
+
+    @Column(name = "institute_id")
+    private String instituteId;
+
+    @Column(name = "audience_id")
+    private String audienceId;
+
+    /**
+     * LEAD or LEAD_WITH_ENQUIRY
+     */
+    @Column(name = "job_type", nullable = false, length = 30)
+    private String jobType;
+
+    /**
+     * QUEUED, RUNNING, COMPLETED or FAILED
+     */
+    @Column(name = "status", nullable = false, length = 20)
+    private String status;
+
+    @Column(name = "total_rows", nullable = false)
+    @Builder.Default
+    private int totalRows = 0;
+
+    @Column(name = "processed_rows", nullable = false)
+    @Builder.Default
+    private int processedRows = 0;
+
+    @Column(name = "successful", nullable = false)
+    @Builder.Default
+    private int successful = 0;
+
+    @Column(name = "failed", nullable = false)
+    @Builder.Default
+    private int failed = 0;
+
+    @Column(name = "skipped", nullable = false)
+    @Builder.Default
+    private int skipped = 0;
+
+    @Column(name = "results", columnDefinition = "TEXT")
+    private String results;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "created_by")
+    private String createdBy;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private Timestamp createdAt;
+
+    @Column(name = "updated_at")
+    private Timestamp updatedAt;
+
+    @Column(name = "completed_at")
+    private Timestamp completedAt;
+}
@@ -10,7 +10,8 @@ import java.sql.Timestamp;
 /**
  * Stores computed lead score for each AudienceResponse.
  * raw_score is updated in real-time on every lead event.
- * percentile_rank is recalculated in batch every 15 minutes.
+ * percentile_rank is rewritten by LeadScorePercentileService for campaigns whose
+ * scores changed; reads should prefer its live percentileRanks().
  */
 @Entity
 @Table(name = "lead_score")
@@ -38,7 +39,8 @@ public class LeadScore {
     @Builder.Default
     private Integer rawScore = 0;
 
-    @Column(name = "percentile_rank")
+    /** Owned by the percentile sync (updatable = false), so a score save never writes back a stale rank. */
+    @Column(name = "percentile_rank", updatable = false)
     @Builder.Default
     private BigDecimal percentileRank = new BigDecimal("50.00");
 
@@ -2,6 +2,7 @@ package vacademy.io.admin_core_service.features.audience.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -60,8 +61,7 @@ public interface AudienceResponseRepository extends JpaRepository<AudienceRespon
                 FROM audience_response ar
                 JOIN audience a ON a.id = ar.audience_id
                 WHERE a.institute_id = :instituteId
-                  AND ar.parent_mobile IS NOT NULL
-                  AND RIGHT(regexp_replace(ar.parent_mobile, '[^0-9]', '', 'g'), 10) = :last10
+                  AND ar.phone_last10 = :last10
                 ORDER BY ar.created_at DESC
                 LIMIT 1
                 """, nativeQuery = true)
@@ -171,593 +171,13 @@ public interface AudienceResponseRepository extends JpaRepository<AudienceRespon
         List<AudienceResponse> findByAudienceIdAndSourceType(String audienceId, String sourceType);
 
         /**
-         * Find leads with filters and pagination.
-         * Supports: source, date range, score range, tier, counselor, unassigned, dedup, search, dynamic sort.
+         * FROM / WHERE of the per-campaign lead list, shared by {@link #findLeadsWithFilters},
+         * {@link #findLeadsWithFiltersAfter} and {@link #countLeadsWithFilters} so the three
+         * can never disagree on which leads match.
+         * Supports: source, date range, score range, tier, counselor, unassigned, dedup, search.
+         * Multi-value filters bind as text[] and an empty array means "filter off".
          */
-        @Query(value = """
-                            SELECT ar.*
-                            FROM audience_response ar
-                            JOIN audience a ON a.id = ar.audience_id
-                            LEFT JOIN lead_score ls ON ls.audience_response_id = ar.id
-                            LEFT JOIN LATERAL (
-                                SELECT lu.user_id
-                                FROM linked_users lu
-                                WHERE lu.source = 'ENQUIRY' AND lu.source_id = ar.enquiry_id
-                                ORDER BY lu.created_at DESC
-                                LIMIT 1
-                            ) lu ON true
-                            LEFT JOIN user_lead_profile ulp
-                                ON ulp.user_id = ar.user_id AND ulp.institute_id = a.institute_id
-                            WHERE ar.audience_id = :audienceId
-                              AND (COALESCE(:leadStatusId, '') = '' OR COALESCE((SELECT lst.status_key FROM lead_status lst WHERE lst.id = ar.lead_status_id), ulp.conversion_status) = ANY(STRING_TO_ARRAY(:leadStatusId, ',')) OR ('__NO_STATUS__' = ANY(STRING_TO_ARRAY(:leadStatusId, ',')) AND ar.lead_status_id IS NULL AND ulp.conversion_status IS NULL))
-                              AND (COALESCE(:sourceType, '') = '' OR ar.source_type = :sourceType)
-                              AND (COALESCE(:sourceId, '') = '' OR ar.source_id = :sourceId)
-                              AND (CAST(:submittedFrom AS timestamp) IS NULL OR ar.submitted_at >= CAST(:submittedFrom AS timestamp))
-                              AND (CAST(:submittedTo AS timestamp) IS NULL OR ar.submitted_at <= CAST(:submittedTo AS timestamp))
-                              AND (:excludeDuplicates IS NULL OR :excludeDuplicates = FALSE OR COALESCE(ar.is_duplicate, FALSE) = FALSE)
-                              AND (COALESCE(:searchQuery, '') = '' OR
-                                   LOWER(ar.parent_name) LIKE LOWER(CONCAT('%', :searchQuery, '%')) OR
-                                   LOWER(ar.parent_email) LIKE LOWER(CONCAT('%', :searchQuery, '%')) OR
-                                   ar.parent_mobile LIKE CONCAT('%', :searchQuery, '%') OR
-                                   (COALESCE(:searchUserIdsCsv, '') != ''
-                                    AND ar.user_id = ANY(STRING_TO_ARRAY(:searchUserIdsCsv, ','))))
-                              AND (:minLeadScore IS NULL OR COALESCE(ls.raw_score, 0) >= :minLeadScore)
-                              AND (:maxLeadScore IS NULL OR COALESCE(ls.raw_score, 0) <= :maxLeadScore)
-                              AND (COALESCE(:leadTier, '') = '' OR
-                                   (ulp.user_id IS NOT NULL AND COALESCE(NULLIF(ulp.lead_tier, ''),
-                                       CASE WHEN ulp.best_score >= 80 THEN 'HOT'
-                                            WHEN ulp.best_score >= 50 THEN 'WARM'
-                                            ELSE 'COLD' END) = ANY(STRING_TO_ARRAY(:leadTier, ','))))
-                              AND (COALESCE(:assignedCounselorId, '') = ''
-                                   OR lu.user_id = ANY(STRING_TO_ARRAY(:assignedCounselorId, ','))
-                                   OR ulp.assigned_counselor_id = ANY(STRING_TO_ARRAY(:assignedCounselorId, ',')))
-                              -- RBAC scope (CounsellorScopeService.descendantUserIdsForCaller):
-                              -- caller + everyone reporting up to them through parent_user_id
-                              -- chains in the leads-team subtree.
-                              -- Unassigned leads (no counsellor on either linked_users or
-                              -- user_lead_profile) stay visible to everyone — the "pool" of
-                              -- leads anyone in scope can pick up.
-                              AND (COALESCE(:assignedCounselorIdsCsv, '') = ''
-                                   OR lu.user_id = ANY(STRING_TO_ARRAY(:assignedCounselorIdsCsv, ','))
-                                   OR ulp.assigned_counselor_id = ANY(STRING_TO_ARRAY(:assignedCounselorIdsCsv, ','))
-                                   OR ((:includeUnassigned IS NULL OR :includeUnassigned = TRUE) AND lu.user_id IS NULL AND ulp.assigned_counselor_id IS NULL))
-                              AND (:isUnassigned IS NULL OR :isUnassigned = FALSE
-                                   OR (lu.user_id IS NULL AND ulp.assigned_counselor_id IS NULL))
-                              AND (
-                                (COALESCE(:overallStatusStr, '') = '' AND (ar.overall_status IS NULL OR ar.overall_status != 'OPTED_OUT'))
-                                OR (COALESCE(:overallStatusStr, '') != '' AND ar.overall_status = ANY(STRING_TO_ARRAY(:overallStatusStr, ',')))
-                              )
-                              AND (
-                                COALESCE(:conversionStatusFilter, 'EXCLUDE_CONVERTED') = 'ALL'
-                                OR (
-                                  COALESCE(:conversionStatusFilter, 'EXCLUDE_CONVERTED') = 'EXCLUDE_CONVERTED'
-                                  AND (ulp.conversion_status IS NULL OR ulp.conversion_status != 'CONVERTED')
-                                )
-                                OR (
-                                  :conversionStatusFilter = 'ONLY_CONVERTED'
-                                  AND ulp.conversion_status = 'CONVERTED'
-                                )
-                              )
-                              -- Soft-delete filter. Mirrors conversionStatusFilter above:
-                              -- EXCLUDE_DELETED (default) / ONLY_DELETED / ALL, so the UI can
-                              -- offer a "show deleted leads" view without a second query.
-                              -- Kept as its OWN unconditional AND rather than folded into the
-                              -- overall_status OR block above: that block disables its own
-                              -- OPTED_OUT guard whenever :overallStatusStr is set, and a
-                              -- soft-deleted lead must stay hidden regardless of what else the
-                              -- caller filters by.
-                              AND (
-                                COALESCE(:audienceStatusFilter, 'EXCLUDE_DELETED') = 'ALL'
-                                OR (
-                                  COALESCE(:audienceStatusFilter, 'EXCLUDE_DELETED') = 'EXCLUDE_DELETED'
-                                  AND ar.audience_status = 'ACTIVE'
-                                )
-                                OR (
-                                  :audienceStatusFilter = 'ONLY_DELETED'
-                                  AND ar.audience_status = 'INACTIVE'
-                                )
-                              )
-                              -- SLA-state filter. Aligned with the row-level badges + the new
-                              -- column semantics:
-                              --   * Reach-out buckets use submitted_at + tatHours AND a NOT EXISTS
-                              --     check on timeline_event (category = ACTIVITY) so leads the
-                              --     counsellor already contacted are excluded, matching the badge.
-                              --   * Follow-up buckets read the lead_followup table (open rows
-                              --     only), matching the Follow up at column which is now purely
-                              --     counsellor-scheduled callbacks.
-                              AND (COALESCE(:slaFilter, '') = ''
-                                   OR ('TAT_OVERDUE' = ANY(STRING_TO_ARRAY(:slaFilter, ','))
-                                       AND :tatHours IS NOT NULL
-                                       AND ar.submitted_at IS NOT NULL
-                                       AND ar.submitted_at + make_interval(hours => CAST(:tatHours AS integer)) < NOW()
-                                       AND NOT EXISTS (
-                                           SELECT 1 FROM timeline_event te
-                                           WHERE te.category = 'ACTIVITY'
-                                             AND ( (te.type = 'AUDIENCE_RESPONSE' AND te.type_id = ar.id)
-                                                   OR (ar.user_id IS NOT NULL AND te.student_user_id = ar.user_id)
-                                                   OR (ar.student_user_id IS NOT NULL AND te.student_user_id = ar.student_user_id) )))
-                                   OR ('TAT_BEFORE' = ANY(STRING_TO_ARRAY(:slaFilter, ','))
-                                       AND :tatHours IS NOT NULL
-                                       AND ar.submitted_at IS NOT NULL
-                                       AND ar.submitted_at + make_interval(hours => CAST(:tatHours AS integer)) > NOW()
-                                       AND ar.submitted_at + make_interval(hours => CAST(:tatHours AS integer)) <= NOW() + INTERVAL '30 minutes'
-                                       AND NOT EXISTS (
-                                           SELECT 1 FROM timeline_event te
-                                           WHERE te.category = 'ACTIVITY'
-                                             AND ( (te.type = 'AUDIENCE_RESPONSE' AND te.type_id = ar.id)
-                                                   OR (ar.user_id IS NOT NULL AND te.student_user_id = ar.user_id)
-                                                   OR (ar.student_user_id IS NOT NULL AND te.student_user_id = ar.student_user_id) )))
-                                   OR ('FOLLOW_UP_DUE' = ANY(STRING_TO_ARRAY(:slaFilter, ','))
-                                       AND EXISTS (
-                                           SELECT 1 FROM lead_followup lf
-                                           WHERE lf.audience_response_id = ar.id
-                                             AND lf.is_closed = false
-                                             AND lf.schedule_time IS NOT NULL
-                                             AND lf.schedule_time > NOW()
-                                             AND lf.schedule_time <= NOW() + INTERVAL '30 minutes'))
-                                   OR ('FOLLOW_UP_OVERDUE' = ANY(STRING_TO_ARRAY(:slaFilter, ','))
-                                       AND EXISTS (
-                                           SELECT 1 FROM lead_followup lf
-                                           WHERE lf.audience_response_id = ar.id
-                                             AND lf.is_closed = false
-                                             AND lf.schedule_time IS NOT NULL
-                                             AND lf.schedule_time < NOW()))
-                                   OR ('ANY_OVERDUE' = ANY(STRING_TO_ARRAY(:slaFilter, ','))
-                                       AND (
-                                           (:tatHours IS NOT NULL
-                                            AND ar.submitted_at IS NOT NULL
-                                            AND ar.submitted_at + make_interval(hours => CAST(:tatHours AS integer)) < NOW()
-                                            AND NOT EXISTS (
-                                                SELECT 1 FROM timeline_event te
-                                                WHERE te.category = 'ACTIVITY'
-                                                  AND ( (te.type = 'AUDIENCE_RESPONSE' AND te.type_id = ar.id)
-                                                        OR (ar.user_id IS NOT NULL AND te.student_user_id = ar.user_id)
-                                                        OR (ar.student_user_id IS NOT NULL AND te.student_user_id = ar.student_user_id) )))
-                                           OR EXISTS (
-                                               SELECT 1 FROM lead_followup lf
-                                               WHERE lf.audience_response_id = ar.id
-                                                 AND lf.is_closed = false
-                                                 AND lf.schedule_time IS NOT NULL
-                                                 AND lf.schedule_time < NOW()))))
-                              AND (COALESCE(:customFieldMatchedIdsCsv, '') = ''
-                                   OR ar.id = ANY(STRING_TO_ARRAY(:customFieldMatchedIdsCsv, ',')))
-                              AND (COALESCE(:customFieldExcludedIdsCsv, '') = ''
-                                   OR NOT (ar.id = ANY(STRING_TO_ARRAY(:customFieldExcludedIdsCsv, ','))))
-                              -- NOTE never put a semicolon anywhere in this query's comments --
-                              -- Hibernate's limit handler treats the first semicolon as end of
-                              -- statement and injects "fetch first ? rows only" there, which
-                              -- desyncs JDBC parameter binding (column index out of range).
-                              -- Call-history matching. A call log links to a lead THREE ways:
-                              -- response_id (manual dialer + CDR import), subject_id+LEAD (AI
-                              -- campaigns), or just user_id (about a quarter of Airtel CDR rows
-                              -- have no response link, while the lead side-panel lists calls by
-                              -- user_id + institute, so the filter must match the same or called
-                              -- leads land in NOT_CALLED).
-                              -- Keep each column in its OWN EXISTS block: one EXISTS with an OR
-                              -- across columns defeats every index and seq-scans the whole call
-                              -- log per candidate lead (statement timeout).
-                              AND (COALESCE(:callHistoryFilter, '') = ''
-                                   OR (:callHistoryFilter = 'NOT_CALLED'
-                                       AND NOT EXISTS (
-                                             SELECT 1 FROM telephony_call_log tcl
-                                              WHERE tcl.response_id = ar.id)
-                                       AND NOT EXISTS (
-                                             SELECT 1 FROM telephony_call_log tcl
-                                              WHERE tcl.subject_id = ar.id AND tcl.subject_type = 'LEAD')
-                                       AND NOT EXISTS (
-                                             SELECT 1 FROM telephony_call_log tcl
-                                              WHERE tcl.user_id = ar.user_id
-                                                AND tcl.institute_id = a.institute_id))
-                                   OR (:callHistoryFilter = 'CALLED'
-                                       AND (EXISTS (
-                                             SELECT 1 FROM telephony_call_log tcl
-                                              WHERE tcl.response_id = ar.id)
-                                         OR EXISTS (
-                                             SELECT 1 FROM telephony_call_log tcl
-                                              WHERE tcl.subject_id = ar.id AND tcl.subject_type = 'LEAD')
-                                         OR EXISTS (
-                                             SELECT 1 FROM telephony_call_log tcl
-                                              WHERE tcl.user_id = ar.user_id
-                                                AND tcl.institute_id = a.institute_id)))
-                                   OR (:callHistoryFilter = 'CALLED_ONCE' AND (
-                                         SELECT COUNT(*) FROM telephony_call_log tcl
-                                          WHERE tcl.response_id = ar.id
-                                             OR (tcl.subject_id = ar.id AND tcl.subject_type = 'LEAD')
-                                             OR (tcl.user_id = ar.user_id
-                                                 AND tcl.institute_id = a.institute_id)) = 1)
-                                   OR (:callHistoryFilter = 'CALLED_TWICE_PLUS' AND (
-                                         SELECT COUNT(*) FROM telephony_call_log tcl
-                                          WHERE tcl.response_id = ar.id
-                                             OR (tcl.subject_id = ar.id AND tcl.subject_type = 'LEAD')
-                                             OR (tcl.user_id = ar.user_id
-                                                 AND tcl.institute_id = a.institute_id)) >= 2)
-                                   -- Arbitrary-N variants of the two options above: "called
-                                   -- exactly N times" and "called N or more times". N comes from
-                                   -- :callCountValue, floored at 1 so a missing/zero value
-                                   -- degrades to the CALLED_ONCE / CALLED semantics rather than
-                                   -- matching nothing.
-                                   OR (:callHistoryFilter = 'CALLED_N_TIMES' AND (
-                                         SELECT COUNT(*) FROM telephony_call_log tcl
-                                          WHERE tcl.response_id = ar.id
-                                             OR (tcl.subject_id = ar.id AND tcl.subject_type = 'LEAD')
-                                             OR (tcl.user_id = ar.user_id
-                                                 AND tcl.institute_id = a.institute_id))
-                                       = GREATEST(COALESCE(CAST(:callCountValue AS integer), 1), 1))
-                                   OR (:callHistoryFilter = 'CALLED_N_PLUS_TIMES' AND (
-                                         SELECT COUNT(*) FROM telephony_call_log tcl
-                                          WHERE tcl.response_id = ar.id
-                                             OR (tcl.subject_id = ar.id AND tcl.subject_type = 'LEAD')
-                                             OR (tcl.user_id = ar.user_id
-                                                 AND tcl.institute_id = a.institute_id))
-                                       >= GREATEST(COALESCE(CAST(:callCountValue AS integer), 1), 1))
-                                   OR (:callHistoryFilter = 'AI_CALLED'
-                                       AND (EXISTS (
-                                             SELECT 1 FROM telephony_call_log tcl
-                                              WHERE tcl.response_id = ar.id
-                                                AND tcl.provider_type IN ('VACADEMY_AI', 'AAVTAAR'))
-                                         OR EXISTS (
-                                             SELECT 1 FROM telephony_call_log tcl
-                                              WHERE tcl.subject_id = ar.id AND tcl.subject_type = 'LEAD'
-                                                AND tcl.provider_type IN ('VACADEMY_AI', 'AAVTAAR'))
-                                         OR EXISTS (
-                                             SELECT 1 FROM telephony_call_log tcl
-                                              WHERE tcl.user_id = ar.user_id
-                                                AND tcl.institute_id = a.institute_id
-                                                AND tcl.provider_type IN ('VACADEMY_AI', 'AAVTAAR'))))
-                                   OR (:callHistoryFilter = 'MANUAL_CALLED'
-                                       AND (EXISTS (
-                                             SELECT 1 FROM telephony_call_log tcl
-                                              WHERE tcl.response_id = ar.id
-                                                AND tcl.provider_type NOT IN ('VACADEMY_AI', 'AAVTAAR', 'MOCK'))
-                                         OR EXISTS (
-                                             SELECT 1 FROM telephony_call_log tcl
-                                              WHERE tcl.subject_id = ar.id AND tcl.subject_type = 'LEAD'
-                                                AND tcl.provider_type NOT IN ('VACADEMY_AI', 'AAVTAAR', 'MOCK'))
-                                         OR EXISTS (
-                                             SELECT 1 FROM telephony_call_log tcl
-                                              WHERE tcl.user_id = ar.user_id
-                                                AND tcl.institute_id = a.institute_id
-                                                AND tcl.provider_type NOT IN ('VACADEMY_AI', 'AAVTAAR', 'MOCK')))))
-                            ORDER BY
-                              CASE WHEN :sortBy = 'SUBMITTED_AT' AND :sortDirection = 'ASC'
-                                   THEN ar.submitted_at END ASC,
-                              CASE WHEN :sortBy = 'SUBMITTED_AT' AND (:sortDirection IS NULL OR :sortDirection = 'DESC')
-                                   THEN ar.submitted_at END DESC,
-                              CASE WHEN :sortBy = 'LEAD_SCORE' AND (:sortDirection IS NULL OR :sortDirection = 'DESC')
-                                   THEN COALESCE(ls.raw_score, 0) END DESC,
-                              CASE WHEN :sortBy = 'LEAD_SCORE' AND :sortDirection = 'ASC'
-                                   THEN COALESCE(ls.raw_score, 0) END ASC,
-                              CASE WHEN :sortBy = 'LEAD_TIER' AND :sortDirection = 'ASC'
-                                   THEN CASE COALESCE(NULLIF(ulp.lead_tier, ''),
-                                            CASE WHEN ulp.best_score >= 80 THEN 'HOT'
-                                                 WHEN ulp.best_score >= 50 THEN 'WARM'
-                                                 WHEN ulp.best_score IS NOT NULL THEN 'COLD'
-                                                 ELSE NULL END)
-                                        WHEN 'HOT' THEN 3 WHEN 'WARM' THEN 2 WHEN 'COLD' THEN 1 ELSE 0 END END ASC,
-                              CASE WHEN :sortBy = 'LEAD_TIER' AND (:sortDirection IS NULL OR :sortDirection = 'DESC')
-                                   THEN CASE COALESCE(NULLIF(ulp.lead_tier, ''),
-                                            CASE WHEN ulp.best_score >= 80 THEN 'HOT'
-                                                 WHEN ulp.best_score >= 50 THEN 'WARM'
-                                                 WHEN ulp.best_score IS NOT NULL THEN 'COLD'
-                                                 ELSE NULL END)
-                                        WHEN 'HOT' THEN 3 WHEN 'WARM' THEN 2 WHEN 'COLD' THEN 1 ELSE 0 END END DESC,
-                              CASE WHEN :sortBy = 'STATUS' AND :sortDirection = 'ASC'
-                                   THEN COALESCE((SELECT lst.status_key FROM lead_status lst WHERE lst.id = ar.lead_status_id), ulp.conversion_status) END ASC,
-                              CASE WHEN :sortBy = 'STATUS' AND (:sortDirection IS NULL OR :sortDirection = 'DESC')
-                                   THEN COALESCE((SELECT lst.status_key FROM lead_status lst WHERE lst.id = ar.lead_status_id), ulp.conversion_status) END DESC,
-                              CASE WHEN :sortBy = 'PARENT_NAME' AND (:sortDirection IS NULL OR :sortDirection = 'ASC')
-                                   THEN ar.parent_name END ASC,
-                              CASE WHEN :sortBy = 'PARENT_NAME' AND :sortDirection = 'DESC'
-                                   THEN ar.parent_name END DESC,
-                              CASE WHEN :sortBy = 'CUSTOM_FIELD' AND :sortCustomFieldId IS NOT NULL AND :sortDirection = 'ASC'
-                                   THEN CASE WHEN (SELECT scf.value FROM custom_field_values scf WHERE scf.source_type = 'AUDIENCE_RESPONSE' AND scf.source_id = ar.id AND scf.custom_field_id = :sortCustomFieldId ORDER BY scf.updated_at DESC NULLS LAST LIMIT 1) ~ '^-?[0-9]+([.][0-9]+)?$' THEN CAST((SELECT scf.value FROM custom_field_values scf WHERE scf.source_type = 'AUDIENCE_RESPONSE' AND scf.source_id = ar.id AND scf.custom_field_id = :sortCustomFieldId ORDER BY scf.updated_at DESC NULLS LAST LIMIT 1) AS numeric) END END ASC NULLS LAST,
-                              CASE WHEN :sortBy = 'CUSTOM_FIELD' AND :sortCustomFieldId IS NOT NULL AND (:sortDirection IS NULL OR :sortDirection = 'DESC')
-                                   THEN CASE WHEN (SELECT scf.value FROM custom_field_values scf WHERE scf.source_type = 'AUDIENCE_RESPONSE' AND scf.source_id = ar.id AND scf.custom_field_id = :sortCustomFieldId ORDER BY scf.updated_at DESC NULLS LAST LIMIT 1) ~ '^-?[0-9]+([.][0-9]+)?$' THEN CAST((SELECT scf.value FROM custom_field_values scf WHERE scf.source_type = 'AUDIENCE_RESPONSE' AND scf.source_id = ar.id AND scf.custom_field_id = :sortCustomFieldId ORDER BY scf.updated_at DESC NULLS LAST LIMIT 1) AS numeric) END END DESC NULLS LAST,
-                              CASE WHEN :sortBy = 'CUSTOM_FIELD' AND :sortCustomFieldId IS NOT NULL AND :sortDirection = 'ASC'
-                                   THEN (SELECT scf.value FROM custom_field_values scf WHERE scf.source_type = 'AUDIENCE_RESPONSE' AND scf.source_id = ar.id AND scf.custom_field_id = :sortCustomFieldId ORDER BY scf.updated_at DESC NULLS LAST LIMIT 1) END ASC NULLS LAST,
-                              CASE WHEN :sortBy = 'CUSTOM_FIELD' AND :sortCustomFieldId IS NOT NULL AND (:sortDirection IS NULL OR :sortDirection = 'DESC')
-                                   THEN (SELECT scf.value FROM custom_field_values scf WHERE scf.source_type = 'AUDIENCE_RESPONSE' AND scf.source_id = ar.id AND scf.custom_field_id = :sortCustomFieldId ORDER BY scf.updated_at DESC NULLS LAST LIMIT 1) END DESC NULLS LAST,
-                              ar.submitted_at DESC
-                        """, countQuery = """
-                            SELECT COUNT(*)
-                            FROM audience_response ar
-                            JOIN audience a ON a.id = ar.audience_id
-                            LEFT JOIN lead_score ls ON ls.audience_response_id = ar.id
-                            LEFT JOIN LATERAL (
-                                SELECT lu.user_id
-                                FROM linked_users lu
-                                WHERE lu.source = 'ENQUIRY' AND lu.source_id = ar.enquiry_id
-                                ORDER BY lu.created_at DESC
-                                LIMIT 1
-                            ) lu ON true
-                            LEFT JOIN user_lead_profile ulp
-                                ON ulp.user_id = ar.user_id AND ulp.institute_id = a.institute_id
-                            WHERE ar.audience_id = :audienceId
-                              AND (COALESCE(:leadStatusId, '') = '' OR COALESCE((SELECT lst.status_key FROM lead_status lst WHERE lst.id = ar.lead_status_id), ulp.conversion_status) = ANY(STRING_TO_ARRAY(:leadStatusId, ',')) OR ('__NO_STATUS__' = ANY(STRING_TO_ARRAY(:leadStatusId, ',')) AND ar.lead_status_id IS NULL AND ulp.conversion_status IS NULL))
-                              AND (COALESCE(:sourceType, '') = '' OR ar.source_type = :sourceType)
-                              AND (COALESCE(:sourceId, '') = '' OR ar.source_id = :sourceId)
-                              AND (CAST(:submittedFrom AS timestamp) IS NULL OR ar.submitted_at >= CAST(:submittedFrom AS timestamp))
-                              AND (CAST(:submittedTo AS timestamp) IS NULL OR ar.submitted_at <= CAST(:submittedTo AS timestamp))
-                              AND (:excludeDuplicates IS NULL OR :excludeDuplicates = FALSE OR COALESCE(ar.is_duplicate, FALSE) = FALSE)
-                              AND (COALESCE(:searchQuery, '') = '' OR
-                                   LOWER(ar.parent_name) LIKE LOWER(CONCAT('%', :searchQuery, '%')) OR
-                                   LOWER(ar.parent_email) LIKE LOWER(CONCAT('%', :searchQuery, '%')) OR
-                                   ar.parent_mobile LIKE CONCAT('%', :searchQuery, '%') OR
-                                   (COALESCE(:searchUserIdsCsv, '') != ''
-                                    AND ar.user_id = ANY(STRING_TO_ARRAY(:searchUserIdsCsv, ','))))
-                              AND (:minLeadScore IS NULL OR COALESCE(ls.raw_score, 0) >= :minLeadScore)
-                              AND (:maxLeadScore IS NULL OR COALESCE(ls.raw_score, 0) <= :maxLeadScore)
-                              AND (COALESCE(:leadTier, '') = '' OR
-                                   (ulp.user_id IS NOT NULL AND COALESCE(NULLIF(ulp.lead_tier, ''),
-                                       CASE WHEN ulp.best_score >= 80 THEN 'HOT'
-                                            WHEN ulp.best_score >= 50 THEN 'WARM'
-                                            ELSE 'COLD' END) = ANY(STRING_TO_ARRAY(:leadTier, ','))))
-                              AND (COALESCE(:assignedCounselorId, '') = ''
-                                   OR lu.user_id = ANY(STRING_TO_ARRAY(:assignedCounselorId, ','))
-                                   OR ulp.assigned_counselor_id = ANY(STRING_TO_ARRAY(:assignedCounselorId, ',')))
-                              -- RBAC scope (CounsellorScopeService.descendantUserIdsForCaller):
-                              -- caller + everyone reporting up to them through parent_user_id
-                              -- chains in the leads-team subtree.
-                              -- Unassigned leads (no counsellor on either linked_users or
-                              -- user_lead_profile) stay visible to everyone — the "pool" of
-                              -- leads anyone in scope can pick up.
-                              AND (COALESCE(:assignedCounselorIdsCsv, '') = ''
-                                   OR lu.user_id = ANY(STRING_TO_ARRAY(:assignedCounselorIdsCsv, ','))
-                                   OR ulp.assigned_counselor_id = ANY(STRING_TO_ARRAY(:assignedCounselorIdsCsv, ','))
-                                   OR ((:includeUnassigned IS NULL OR :includeUnassigned = TRUE) AND lu.user_id IS NULL AND ulp.assigned_counselor_id IS NULL))
-                              AND (:isUnassigned IS NULL OR :isUnassigned = FALSE
-                                   OR (lu.user_id IS NULL AND ulp.assigned_counselor_id IS NULL))
-                              AND (
-                                (COALESCE(:overallStatusStr, '') = '' AND (ar.overall_status IS NULL OR ar.overall_status != 'OPTED_OUT'))
-                                OR (COALESCE(:overallStatusStr, '') != '' AND ar.overall_status = ANY(STRING_TO_ARRAY(:overallStatusStr, ',')))
-                              )
-                              AND (
-                                COALESCE(:conversionStatusFilter, 'EXCLUDE_CONVERTED') = 'ALL'
-                                OR (
-                                  COALESCE(:conversionStatusFilter, 'EXCLUDE_CONVERTED') = 'EXCLUDE_CONVERTED'
-                                  AND (ulp.conversion_status IS NULL OR ulp.conversion_status != 'CONVERTED')
-                                )
-                                OR (
-                                  :conversionStatusFilter = 'ONLY_CONVERTED'
-                                  AND ulp.conversion_status = 'CONVERTED'
-                                )
-                              )
-                              -- Soft-delete filter. Mirrors conversionStatusFilter above:
-                              -- EXCLUDE_DELETED (default) / ONLY_DELETED / ALL, so the UI can
-                              -- offer a "show deleted leads" view without a second query.
-                              -- Kept as its OWN unconditional AND rather than folded into the
-                              -- overall_status OR block above: that block disables its own
-                              -- OPTED_OUT guard whenever :overallStatusStr is set, and a
-                              -- soft-deleted lead must stay hidden regardless of what else the
-                              -- caller filters by.
-                              AND (
-                                COALESCE(:audienceStatusFilter, 'EXCLUDE_DELETED') = 'ALL'
-                                OR (
-                                  COALESCE(:audienceStatusFilter, 'EXCLUDE_DELETED') = 'EXCLUDE_DELETED'
-                                  AND ar.audience_status = 'ACTIVE'
-                                )
-                                OR (
-                                  :audienceStatusFilter = 'ONLY_DELETED'
-                                  AND ar.audience_status = 'INACTIVE'
-                                )
-                              )
-                              -- SLA-state filter. Aligned with the row-level badges + the new
-                              -- column semantics:
-                              --   * Reach-out buckets use submitted_at + tatHours AND a NOT EXISTS
-                              --     check on timeline_event (category = ACTIVITY) so leads the
-                              --     counsellor already contacted are excluded, matching the badge.
-                              --   * Follow-up buckets read the lead_followup table (open rows
-                              --     only), matching the Follow up at column which is now purely
-                              --     counsellor-scheduled callbacks.
-                              AND (COALESCE(:slaFilter, '') = ''
-                                   OR ('TAT_OVERDUE' = ANY(STRING_TO_ARRAY(:slaFilter, ','))
-                                       AND :tatHours IS NOT NULL
-                                       AND ar.submitted_at IS NOT NULL
-                                       AND ar.submitted_at + make_interval(hours => CAST(:tatHours AS integer)) < NOW()
-                                       AND NOT EXISTS (
-                                           SELECT 1 FROM timeline_event te
-                                           WHERE te.category = 'ACTIVITY'
-                                             AND ( (te.type = 'AUDIENCE_RESPONSE' AND te.type_id = ar.id)
-                                                   OR (ar.user_id IS NOT NULL AND te.student_user_id = ar.user_id)
-                                                   OR (ar.student_user_id IS NOT NULL AND te.student_user_id = ar.student_user_id) )))
-                                   OR ('TAT_BEFORE' = ANY(STRING_TO_ARRAY(:slaFilter, ','))
-                                       AND :tatHours IS NOT NULL
-                                       AND ar.submitted_at IS NOT NULL
-                                       AND ar.submitted_at + make_interval(hours => CAST(:tatHours AS integer)) > NOW()
-                                       AND ar.submitted_at + make_interval(hours => CAST(:tatHours AS integer)) <= NOW() + INTERVAL '30 minutes'
-                                       AND NOT EXISTS (
-                                           SELECT 1 FROM timeline_event te
-                                           WHERE te.category = 'ACTIVITY'
-                                             AND ( (te.type = 'AUDIENCE_RESPONSE' AND te.type_id = ar.id)
-                                                   OR (ar.user_id IS NOT NULL AND te.student_user_id = ar.user_id)
-                                                   OR (ar.student_user_id IS NOT NULL AND te.student_user_id = ar.student_user_id) )))
-                                   OR ('FOLLOW_UP_DUE' = ANY(STRING_TO_ARRAY(:slaFilter, ','))
-                                       AND EXISTS (
-                                           SELECT 1 FROM lead_followup lf
-                                           WHERE lf.audience_response_id = ar.id
-                                             AND lf.is_closed = false
-                                             AND lf.schedule_time IS NOT NULL
-                                             AND lf.schedule_time > NOW()
-                                             AND lf.schedule_time <= NOW() + INTERVAL '30 minutes'))
-                                   OR ('FOLLOW_UP_OVERDUE' = ANY(STRING_TO_ARRAY(:slaFilter, ','))
-                                       AND EXISTS (
-                                           SELECT 1 FROM lead_followup lf
-                                           WHERE lf.audience_response_id = ar.id
-                                             AND lf.is_closed = false
-                                             AND lf.schedule_time IS NOT NULL
-                                             AND lf.schedule_time < NOW()))
-                                   OR ('ANY_OVERDUE' = ANY(STRING_TO_ARRAY(:slaFilter, ','))
-                                       AND (
-                                           (:tatHours IS NOT NULL
-                                            AND ar.submitted_at IS NOT NULL
-                                            AND ar.submitted_at + make_interval(hours => CAST(:tatHours AS integer)) < NOW()
-                                            AND NOT EXISTS (
-                                                SELECT 1 FROM timeline_event te
-                                                WHERE te.category = 'ACTIVITY'
-                                                  AND ( (te.type = 'AUDIENCE_RESPONSE' AND te.type_id = ar.id)
-                                                        OR (ar.user_id IS NOT NULL AND te.student_user_id = ar.user_id)
-                                                        OR (ar.student_user_id IS NOT NULL AND te.student_user_id = ar.student_user_id) )))
-                                           OR EXISTS (
-                                               SELECT 1 FROM lead_followup lf
-                                               WHERE lf.audience_response_id = ar.id
-                                                 AND lf.is_closed = false
-                                                 AND lf.schedule_time IS NOT NULL
-                                                 AND lf.schedule_time < NOW()))))
-                              AND (COALESCE(:customFieldMatchedIdsCsv, '') = ''
-                                   OR ar.id = ANY(STRING_TO_ARRAY(:customFieldMatchedIdsCsv, ',')))
-                              AND (COALESCE(:customFieldExcludedIdsCsv, '') = ''
-                                   OR NOT (ar.id = ANY(STRING_TO_ARRAY(:customFieldExcludedIdsCsv, ','))))
-                              -- NOTE never put a semicolon anywhere in this query's comments --
-                              -- Hibernate's limit handler treats the first semicolon as end of
-                              -- statement and injects "fetch first ? rows only" there, which
-                              -- desyncs JDBC parameter binding (column index out of range).
-                              -- Call-history matching. A call log links to a lead THREE ways:
-                              -- response_id (manual dialer + CDR import), subject_id+LEAD (AI
-                              -- campaigns), or just user_id (about a quarter of Airtel CDR rows
-                              -- have no response link, while the lead side-panel lists calls by
-                              -- user_id + institute, so the filter must match the same or called
-                              -- leads land in NOT_CALLED).
-                              -- Keep each column in its OWN EXISTS block: one EXISTS with an OR
-                              -- across columns defeats every index and seq-scans the whole call
-                              -- log per candidate lead (statement timeout).
-                              AND (COALESCE(:callHistoryFilter, '') = ''
-                                   OR (:callHistoryFilter = 'NOT_CALLED'
-                                       AND NOT EXISTS (
-                                             SELECT 1 FROM telephony_call_log tcl
-                                              WHERE tcl.response_id = ar.id)
-                                       AND NOT EXISTS (
-                                             SELECT 1 FROM telephony_call_log tcl
-                                              WHERE tcl.subject_id = ar.id AND tcl.subject_type = 'LEAD')
-                                       AND NOT EXISTS (
-                                             SELECT 1 FROM telephony_call_log tcl
-                                              WHERE tcl.user_id = ar.user_id
-                                                AND tcl.institute_id = a.institute_id))
-                                   OR (:callHistoryFilter = 'CALLED'
-                                       AND (EXISTS (
-                                             SELECT 1 FROM telephony_call_log tcl
-                                              WHERE tcl.response_id = ar.id)
-                                         OR EXISTS (
-                                             SELECT 1 FROM telephony_call_log tcl
-                                              WHERE tcl.subject_id = ar.id AND tcl.subject_type = 'LEAD')
-                                         OR EXISTS (
-                                             SELECT 1 FROM telephony_call_log tcl
-                                              WHERE tcl.user_id = ar.user_id
-                                                AND tcl.institute_id = a.institute_id)))
-                                   OR (:callHistoryFilter = 'CALLED_ONCE' AND (
-                                         SELECT COUNT(*) FROM telephony_call_log tcl
-                                          WHERE tcl.response_id = ar.id
-                                             OR (tcl.subject_id = ar.id AND tcl.subject_type = 'LEAD')
-                                             OR (tcl.user_id = ar.user_id
-                                                 AND tcl.institute_id = a.institute_id)) = 1)
-                                   OR (:callHistoryFilter = 'CALLED_TWICE_PLUS' AND (
-                                         SELECT COUNT(*) FROM telephony_call_log tcl
-                                          WHERE tcl.response_id = ar.id
-                                             OR (tcl.subject_id = ar.id AND tcl.subject_type = 'LEAD')
-                                             OR (tcl.user_id = ar.user_id
-                                                 AND tcl.institute_id = a.institute_id)) >= 2)
-                                   -- Arbitrary-N variants of the two options above: "called
-                                   -- exactly N times" and "called N or more times". N comes from
-                                   -- :callCountValue, floored at 1 so a missing/zero value
-                                   -- degrades to the CALLED_ONCE / CALLED semantics rather than
-                                   -- matching nothing.
-                                   OR (:callHistoryFilter = 'CALLED_N_TIMES' AND (
-                                         SELECT COUNT(*) FROM telephony_call_log tcl
-                                          WHERE tcl.response_id = ar.id
-                                             OR (tcl.subject_id = ar.id AND tcl.subject_type = 'LEAD')
-                                             OR (tcl.user_id = ar.user_id
-                                                 AND tcl.institute_id = a.institute_id))
-                                       = GREATEST(COALESCE(CAST(:callCountValue AS integer), 1), 1))
-                                   OR (:callHistoryFilter = 'CALLED_N_PLUS_TIMES' AND (
-                                         SELECT COUNT(*) FROM telephony_call_log tcl
-                                          WHERE tcl.response_id = ar.id
-                                             OR (tcl.subject_id = ar.id AND tcl.subject_type = 'LEAD')
-                                             OR (tcl.user_id = ar.user_id
-                                                 AND tcl.institute_id = a.institute_id))
-                                       >= GREATEST(COALESCE(CAST(:callCountValue AS integer), 1), 1))
-                                   OR (:callHistoryFilter = 'AI_CALLED'
-                                       AND (EXISTS (
-                                             SELECT 1 FROM telephony_call_log tcl
-                                              WHERE tcl.response_id = ar.id
-                                                AND tcl.provider_type IN ('VACADEMY_AI', 'AAVTAAR'))
-                                         OR EXISTS (
-                                             SELECT 1 FROM telephony_call_log tcl
-                                              WHERE tcl.subject_id = ar.id AND tcl.subject_type = 'LEAD'
-                                                AND tcl.provider_type IN ('VACADEMY_AI', 'AAVTAAR'))
-                                         OR EXISTS (
-                                             SELECT 1 FROM telephony_call_log tcl
-                                              WHERE tcl.user_id = ar.user_id
-                                                AND tcl.institute_id = a.institute_id
-                                                AND tcl.provider_type IN ('VACADEMY_AI', 'AAVTAAR'))))
-                                   OR (:callHistoryFilter = 'MANUAL_CALLED'
-                                       AND (EXISTS (
-                                             SELECT 1 FROM telephony_call_log tcl
-                                              WHERE tcl.response_id = ar.id
-                                                AND tcl.provider_type NOT IN ('VACADEMY_AI', 'AAVTAAR', 'MOCK'))
-                                         OR EXISTS (
-                                             SELECT 1 FROM telephony_call_log tcl
-                                              WHERE tcl.subject_id = ar.id AND tcl.subject_type = 'LEAD'
-                                                AND tcl.provider_type NOT IN ('VACADEMY_AI', 'AAVTAAR', 'MOCK'))
-                                         OR EXISTS (
-                                             SELECT 1 FROM telephony_call_log tcl
-                                              WHERE tcl.user_id = ar.user_id
-                                                AND tcl.institute_id = a.institute_id
-                                                AND tcl.provider_type NOT IN ('VACADEMY_AI', 'AAVTAAR', 'MOCK')))))
-                        """, nativeQuery = true)
-        Page<AudienceResponse> findLeadsWithFilters(
-                        @Param("audienceId") String audienceId,
-                        @Param("leadStatusId") String leadStatusId,
-                        @Param("sourceType") String sourceType,
-                        @Param("sourceId") String sourceId,
-                        @Param("submittedFrom") Timestamp submittedFrom,
-                        @Param("submittedTo") Timestamp submittedTo,
-                        @Param("excludeDuplicates") Boolean excludeDuplicates,
-                        @Param("searchQuery") String searchQuery,
-                        @Param("searchUserIdsCsv") String searchUserIdsCsv,
-                        @Param("minLeadScore") Integer minLeadScore,
-                        @Param("maxLeadScore") Integer maxLeadScore,
-                        @Param("leadTier") String leadTier,
-                        @Param("assignedCounselorId") String assignedCounselorId,
-                        @Param("assignedCounselorIdsCsv") String assignedCounselorIdsCsv,
-                        @Param("includeUnassigned") Boolean includeUnassigned,
-                        @Param("isUnassigned") Boolean isUnassigned,
-                        @Param("overallStatusStr") String overallStatusStr,
-                        @Param("customFieldMatchedIdsCsv") String customFieldMatchedIdsCsv,
-                        @Param("customFieldExcludedIdsCsv") String customFieldExcludedIdsCsv,
-                        @Param("callHistoryFilter") String callHistoryFilter,
-                        @Param("callCountValue") Integer callCountValue,
-                        @Param("conversionStatusFilter") String conversionStatusFilter,
-                        @Param("audienceStatusFilter") String audienceStatusFilter,
-                        @Param("slaFilter") String slaFilter,
-                        @Param("tatHours") Integer tatHours,
-                        @Param("sortBy") String sortBy,
-                        @Param("sortDirection") String sortDirection,
-                        @Param("sortCustomFieldId") String sortCustomFieldId,
-                        Pageable pageable);
-
-        /**
-         * Find all leads for an institute (across all campaigns)
-         */
-        @Query("""
-                            SELECT ar FROM AudienceResponse ar
-                            JOIN Audience a ON a.id = ar.audienceId
-                            WHERE a.instituteId = :instituteId
-                            AND (ar.overallStatus IS NULL OR ar.overallStatus != 'OPTED_OUT')
-                            AND ar.audienceStatus = 'ACTIVE'
-                            ORDER BY ar.submittedAt DESC
-                        """)
-        Page<AudienceResponse> findAllLeadsForInstitute(
-                        @Param("instituteId") String instituteId,
-                        Pageable pageable);
-
-        /**
-         * Find leads across all campaigns for an institute with optional date range,
-         * search, lead-tier and assigned-counselor filters. Used by the
-         * cross-audience "Recent Leads" view. Mirrors the joins / predicates of
-         * {@link #findLeadsWithFilters} so tier and counselor scoping behave
-         * identically across the per-campaign and cross-campaign paths.
-         */
-        @Query(value = """
-                            SELECT ar.*
+        String LEADS_WITH_FILTERS_FROM = """
                             FROM audience_response ar
                             JOIN audience a ON a.id = ar.audience_id
                             LEFT JOIN lead_score ls ON ls.audience_response_id = ar.id
@@ -770,44 +190,45 @@ public interface AudienceResponseRepository extends JpaRepository<AudienceRespon
                             ) lu ON true
                             LEFT JOIN user_lead_profile ulp
                                 ON ulp.user_id = ar.user_id AND ulp.institute_id = a.institute_id
-                            WHERE a.institute_id = :instituteId
-                              AND (COALESCE(:leadStatusId, '') = '' OR COALESCE((SELECT lst.status_key FROM lead_status lst WHERE lst.id = ar.lead_status_id), ulp.conversion_status) = ANY(STRING_TO_ARRAY(:leadStatusId, ',')) OR ('__NO_STATUS__' = ANY(STRING_TO_ARRAY(:leadStatusId, ',')) AND ar.lead_status_id IS NULL AND ulp.conversion_status IS NULL))
+                            WHERE ar.audience_id = :audienceId
+                              AND (cardinality(CAST(:leadStatusKeys AS text[])) = 0 OR COALESCE((SELECT lst.status_key FROM lead_status lst WHERE lst.id = ar.lead_status_id), ulp.conversion_status) = ANY(CAST(:leadStatusKeys AS text[])) OR ('__NO_STATUS__' = ANY(CAST(:leadStatusKeys AS text[])) AND ar.lead_status_id IS NULL AND ulp.conversion_status IS NULL))
+                              AND (COALESCE(:sourceType, '') = '' OR ar.source_type = :sourceType)
+                              AND (COALESCE(:sourceId, '') = '' OR ar.source_id = :sourceId)
                               AND (CAST(:submittedFrom AS timestamp) IS NULL OR ar.submitted_at >= CAST(:submittedFrom AS timestamp))
                               AND (CAST(:submittedTo AS timestamp) IS NULL OR ar.submitted_at <= CAST(:submittedTo AS timestamp))
+                              AND (:excludeDuplicates IS NULL OR :excludeDuplicates = FALSE OR COALESCE(ar.is_duplicate, FALSE) = FALSE)
                               AND (COALESCE(:searchQuery, '') = '' OR
                                    LOWER(ar.parent_name) LIKE LOWER(CONCAT('%', :searchQuery, '%')) OR
                                    LOWER(ar.parent_email) LIKE LOWER(CONCAT('%', :searchQuery, '%')) OR
                                    ar.parent_mobile LIKE CONCAT('%', :searchQuery, '%') OR
-                                   (COALESCE(:searchUserIdsCsv, '') != ''
-                                    AND ar.user_id = ANY(STRING_TO_ARRAY(:searchUserIdsCsv, ','))))
-                              AND (COALESCE(:leadTier, '') = '' OR
+                                   (cardinality(CAST(:searchUserIds AS text[])) > 0
+                                    AND ar.user_id = ANY(CAST(:searchUserIds AS text[]))))
+                              AND (:minLeadScore IS NULL OR COALESCE(ls.raw_score, 0) >= :minLeadScore)
+                              AND (:maxLeadScore IS NULL OR COALESCE(ls.raw_score, 0) <= :maxLeadScore)
+                              AND (cardinality(CAST(:leadTiers AS text[])) = 0 OR
                                    (ulp.user_id IS NOT NULL AND COALESCE(NULLIF(ulp.lead_tier, ''),
                                        CASE WHEN ulp.best_score >= 80 THEN 'HOT'
                                             WHEN ulp.best_score >= 50 THEN 'WARM'
-                                            ELSE 'COLD' END) = ANY(STRING_TO_ARRAY(:leadTier, ','))))
-                              AND (COALESCE(:assignedCounselorId, '') = ''
-                                   OR lu.user_id = ANY(STRING_TO_ARRAY(:assignedCounselorId, ','))
-                                   OR ulp.assigned_counselor_id = ANY(STRING_TO_ARRAY(:assignedCounselorId, ',')))
+                                            ELSE 'COLD' END) = ANY(CAST(:leadTiers AS text[]))))
+                              AND (cardinality(CAST(:assignedCounselorIds AS text[])) = 0
+                                   OR lu.user_id = ANY(CAST(:assignedCounselorIds AS text[]))
+                                   OR ulp.assigned_counselor_id = ANY(CAST(:assignedCounselorIds AS text[])))
                               -- RBAC scope (CounsellorScopeService.descendantUserIdsForCaller):
                               -- caller + everyone reporting up to them through parent_user_id
-                              -- chains inside the leads-team subtree. ANDed with the single-id
-                              -- narrow above so a manager can still drill into one report.
+                              -- chains in the leads-team subtree.
                               -- Unassigned leads (no counsellor on either linked_users or
-                              -- user_lead_profile) stay visible to everyone — anyone in
-                              -- scope can pick them up.
-                              AND (COALESCE(:assignedCounselorIdsCsv, '') = ''
-                                   OR lu.user_id = ANY(STRING_TO_ARRAY(:assignedCounselorIdsCsv, ','))
-                                   OR ulp.assigned_counselor_id = ANY(STRING_TO_ARRAY(:assignedCounselorIdsCsv, ','))
+                              -- user_lead_profile) stay visible to everyone — the "pool" of
+                              -- leads anyone in scope can pick up.
+                              AND (cardinality(CAST(:scopeCounselorIds AS text[])) = 0
+                                   OR lu.user_id = ANY(CAST(:scopeCounselorIds AS text[]))
+                                   OR ulp.assigned_counselor_id = ANY(CAST(:scopeCounselorIds AS text[]))
                                    OR ((:includeUnassigned IS NULL OR :includeUnassigned = TRUE) AND lu.user_id IS NULL AND ulp.assigned_counselor_id IS NULL))
-                              -- isUnassigned = TRUE narrows to leads with no owner at all
-                              -- (both the ENQUIRY-linked counsellor and the profile owner are null).
                               AND (:isUnassigned IS NULL OR :isUnassigned = FALSE
                                    OR (lu.user_id IS NULL AND ulp.assigned_counselor_id IS NULL))
-                              AND (COALESCE(:allowedAudienceIdsCsv, '') = '' OR ar.audience_id = ANY(STRING_TO_ARRAY(:allowedAudienceIdsCsv, ',')))
-                              -- Caller-requested audience multi-select (Recent Leads "All audiences"
-                              -- dropdown). Independent of the RBAC :allowedAudienceIdsCsv above, which
-                              -- stays ANDed so a user can never widen past what they were granted.
-                              AND (COALESCE(:audienceIdsCsv, '') = '' OR ar.audience_id = ANY(STRING_TO_ARRAY(:audienceIdsCsv, ',')))
+                              AND (
+                                (cardinality(CAST(:overallStatuses AS text[])) = 0 AND (ar.overall_status IS NULL OR ar.overall_status != 'OPTED_OUT'))
+                                OR (cardinality(CAST(:overallStatuses AS text[])) > 0 AND ar.overall_status = ANY(CAST(:overallStatuses AS text[])))
+                              )
                               AND (
                                 COALESCE(:conversionStatusFilter, 'EXCLUDE_CONVERTED') = 'ALL'
                                 OR (
@@ -824,7 +245,7 @@ public interface AudienceResponseRepository extends JpaRepository<AudienceRespon
                               -- offer a "show deleted leads" view without a second query.
                               -- Kept as its OWN unconditional AND rather than folded into the
                               -- overall_status OR block above: that block disables its own
-                              -- OPTED_OUT guard whenever :overallStatusStr is set, and a
+                              -- OPTED_OUT guard whenever :overallStatuses is set, and a
                               -- soft-deleted lead must stay hidden regardless of what else the
                               -- caller filters by.
                               AND (
@@ -838,7 +259,6 @@ public interface AudienceResponseRepository extends JpaRepository<AudienceRespon
                                   AND ar.audience_status = 'INACTIVE'
                                 )
                               )
-                              AND (ar.overall_status IS NULL OR ar.overall_status != 'OPTED_OUT')
                               -- SLA-state filter. Aligned with the row-level badges + the new
                               -- column semantics:
                               --   * Reach-out buckets use submitted_at + tatHours AND a NOT EXISTS
@@ -847,8 +267,8 @@ public interface AudienceResponseRepository extends JpaRepository<AudienceRespon
                               --   * Follow-up buckets read the lead_followup table (open rows
                               --     only), matching the Follow up at column which is now purely
                               --     counsellor-scheduled callbacks.
-                              AND (COALESCE(:slaFilter, '') = ''
-                                   OR ('TAT_OVERDUE' = ANY(STRING_TO_ARRAY(:slaFilter, ','))
+                              AND (cardinality(CAST(:slaFilters AS text[])) = 0
+                                   OR ('TAT_OVERDUE' = ANY(CAST(:slaFilters AS text[]))
                                        AND :tatHours IS NOT NULL
                                        AND ar.submitted_at IS NOT NULL
                                        AND ar.submitted_at + make_interval(hours => CAST(:tatHours AS integer)) < NOW()
@@ -858,7 +278,7 @@ public interface AudienceResponseRepository extends JpaRepository<AudienceRespon
                                              AND ( (te.type = 'AUDIENCE_RESPONSE' AND te.type_id = ar.id)
                                                    OR (ar.user_id IS NOT NULL AND te.student_user_id = ar.user_id)
                                                    OR (ar.student_user_id IS NOT NULL AND te.student_user_id = ar.student_user_id) )))
-                                   OR ('TAT_BEFORE' = ANY(STRING_TO_ARRAY(:slaFilter, ','))
+                                   OR ('TAT_BEFORE' = ANY(CAST(:slaFilters AS text[]))
                                        AND :tatHours IS NOT NULL
                                        AND ar.submitted_at IS NOT NULL
                                        AND ar.submitted_at + make_interval(hours => CAST(:tatHours AS integer)) > NOW()
@@ -869,7 +289,7 @@ public interface AudienceResponseRepository extends JpaRepository<AudienceRespon
                                              AND ( (te.type = 'AUDIENCE_RESPONSE' AND te.type_id = ar.id)
                                                    OR (ar.user_id IS NOT NULL AND te.student_user_id = ar.user_id)
                                                    OR (ar.student_user_id IS NOT NULL AND te.student_user_id = ar.student_user_id) )))
-                                   OR ('FOLLOW_UP_DUE' = ANY(STRING_TO_ARRAY(:slaFilter, ','))
+                                   OR ('FOLLOW_UP_DUE' = ANY(CAST(:slaFilters AS text[]))
                                        AND EXISTS (
                                            SELECT 1 FROM lead_followup lf
                                            WHERE lf.audience_response_id = ar.id
@@ -877,14 +297,14 @@ public interface AudienceResponseRepository extends JpaRepository<AudienceRespon
                                              AND lf.schedule_time IS NOT NULL
                                              AND lf.schedule_time > NOW()
                                              AND lf.schedule_time <= NOW() + INTERVAL '30 minutes'))
-                                   OR ('FOLLOW_UP_OVERDUE' = ANY(STRING_TO_ARRAY(:slaFilter, ','))
+                                   OR ('FOLLOW_UP_OVERDUE' = ANY(CAST(:slaFilters AS text[]))
                                        AND EXISTS (
                                            SELECT 1 FROM lead_followup lf
                                            WHERE lf.audience_response_id = ar.id
                                              AND lf.is_closed = false
                                              AND lf.schedule_time IS NOT NULL
                                              AND lf.schedule_time < NOW()))
-                                   OR ('ANY_OVERDUE' = ANY(STRING_TO_ARRAY(:slaFilter, ','))
+                                   OR ('ANY_OVERDUE' = ANY(CAST(:slaFilters AS text[]))
                                        AND (
                                            (:tatHours IS NOT NULL
                                             AND ar.submitted_at IS NOT NULL
@@ -901,10 +321,10 @@ public interface AudienceResponseRepository extends JpaRepository<AudienceRespon
                                                  AND lf.is_closed = false
                                                  AND lf.schedule_time IS NOT NULL
                                                  AND lf.schedule_time < NOW()))))
-                              AND (COALESCE(:customFieldMatchedIdsCsv, '') = ''
-                                   OR ar.id = ANY(STRING_TO_ARRAY(:customFieldMatchedIdsCsv, ',')))
-                              AND (COALESCE(:customFieldExcludedIdsCsv, '') = ''
-                                   OR NOT (ar.id = ANY(STRING_TO_ARRAY(:customFieldExcludedIdsCsv, ','))))
+                              AND (cardinality(CAST(:customFieldMatchedIds AS text[])) = 0
+                                   OR ar.id = ANY(CAST(:customFieldMatchedIds AS text[])))
+                              AND (cardinality(CAST(:customFieldExcludedIds AS text[])) = 0
+                                   OR NOT (ar.id = ANY(CAST(:customFieldExcludedIds AS text[]))))
                               -- NOTE never put a semicolon anywhere in this query's comments --
                               -- Hibernate's limit handler treats the first semicolon as end of
                               -- statement and injects "fetch first ? rows only" there, which
@@ -1000,6 +420,10 @@ public interface AudienceResponseRepository extends JpaRepository<AudienceRespon
                                               WHERE tcl.user_id = ar.user_id
                                                 AND tcl.institute_id = a.institute_id
                                                 AND tcl.provider_type NOT IN ('VACADEMY_AI', 'AAVTAAR', 'MOCK')))))
+                        """;
+
+        /** Dynamic sort of the OFFSET-paged list, with ar.id as the final tie-break so pages never overlap. */
+        String LEADS_WITH_FILTERS_ORDER = """
                             ORDER BY
                               CASE WHEN :sortBy = 'SUBMITTED_AT' AND :sortDirection = 'ASC'
                                    THEN ar.submitted_at END ASC,
@@ -1039,9 +463,141 @@ public interface AudienceResponseRepository extends JpaRepository<AudienceRespon
                                    THEN (SELECT scf.value FROM custom_field_values scf WHERE scf.source_type = 'AUDIENCE_RESPONSE' AND scf.source_id = ar.id AND scf.custom_field_id = :sortCustomFieldId ORDER BY scf.updated_at DESC NULLS LAST LIMIT 1) END ASC NULLS LAST,
                               CASE WHEN :sortBy = 'CUSTOM_FIELD' AND :sortCustomFieldId IS NOT NULL AND (:sortDirection IS NULL OR :sortDirection = 'DESC')
                                    THEN (SELECT scf.value FROM custom_field_values scf WHERE scf.source_type = 'AUDIENCE_RESPONSE' AND scf.source_id = ar.id AND scf.custom_field_id = :sortCustomFieldId ORDER BY scf.updated_at DESC NULLS LAST LIMIT 1) END DESC NULLS LAST,
-                              ar.submitted_at DESC
-                        """, countQuery = """
-                            SELECT COUNT(*)
+                              ar.submitted_at DESC,
+                              ar.id DESC
+                        """;
+
+        /**
+         * Seek step of the newest-first list, shared by the per-campaign and institute
+         * queries: the page after the lead at (afterSubmittedAt, afterId). Walks the
+         * submitted_at indexes and stops after :limit matches instead of sorting and
+         * skipping every earlier row the way a deep OFFSET does.
+         */
+        String LEADS_AFTER_CURSOR = """
+                              AND (ar.submitted_at, ar.id) < (CAST(:afterSubmittedAt AS timestamp), :afterId)
+                            ORDER BY ar.submitted_at DESC, ar.id DESC
+                            LIMIT :limit
+                        """;
+
+        /**
+         * Find leads with filters, OFFSET-paged with any sort. Returns a slice (no count
+         * query) — the total comes from {@link #countLeadsWithFilters}, which the caller caches.
+         */
+        @Query(value = "SELECT ar.*" + LEADS_WITH_FILTERS_FROM + LEADS_WITH_FILTERS_ORDER, nativeQuery = true)
+        Slice<AudienceResponse> findLeadsWithFilters(
+                        @Param("audienceId") String audienceId,
+                        @Param("leadStatusKeys") String[] leadStatusKeys,
+                        @Param("sourceType") String sourceType,
+                        @Param("sourceId") String sourceId,
+                        @Param("submittedFrom") Timestamp submittedFrom,
+                        @Param("submittedTo") Timestamp submittedTo,
+                        @Param("excludeDuplicates") Boolean excludeDuplicates,
+                        @Param("searchQuery") String searchQuery,
+                        @Param("searchUserIds") String[] searchUserIds,
+                        @Param("minLeadScore") Integer minLeadScore,
+                        @Param("maxLeadScore") Integer maxLeadScore,
+                        @Param("leadTiers") String[] leadTiers,
+                        @Param("assignedCounselorIds") String[] assignedCounselorIds,
+                        @Param("scopeCounselorIds") String[] scopeCounselorIds,
+                        @Param("includeUnassigned") Boolean includeUnassigned,
+                        @Param("isUnassigned") Boolean isUnassigned,
+                        @Param("overallStatuses") String[] overallStatuses,
+                        @Param("customFieldMatchedIds") String[] customFieldMatchedIds,
+                        @Param("customFieldExcludedIds") String[] customFieldExcludedIds,
+                        @Param("callHistoryFilter") String callHistoryFilter,
+                        @Param("callCountValue") Integer callCountValue,
+                        @Param("conversionStatusFilter") String conversionStatusFilter,
+                        @Param("audienceStatusFilter") String audienceStatusFilter,
+                        @Param("slaFilters") String[] slaFilters,
+                        @Param("tatHours") Integer tatHours,
+                        @Param("sortBy") String sortBy,
+                        @Param("sortDirection") String sortDirection,
+                        @Param("sortCustomFieldId") String sortCustomFieldId,
+                        Pageable pageable);
+
+        /** Newest-first page of {@link #findLeadsWithFilters} after the given lead. */
+        @Query(value = "SELECT ar.*" + LEADS_WITH_FILTERS_FROM + LEADS_AFTER_CURSOR, nativeQuery = true)
+        List<AudienceResponse> findLeadsWithFiltersAfter(
+                        @Param("audienceId") String audienceId,
+                        @Param("leadStatusKeys") String[] leadStatusKeys,
+                        @Param("sourceType") String sourceType,
+                        @Param("sourceId") String sourceId,
+                        @Param("submittedFrom") Timestamp submittedFrom,
+                        @Param("submittedTo") Timestamp submittedTo,
+                        @Param("excludeDuplicates") Boolean excludeDuplicates,
+                        @Param("searchQuery") String searchQuery,
+                        @Param("searchUserIds") String[] searchUserIds,
+                        @Param("minLeadScore") Integer minLeadScore,
+                        @Param("maxLeadScore") Integer maxLeadScore,
+                        @Param("leadTiers") String[] leadTiers,
+                        @Param("assignedCounselorIds") String[] assignedCounselorIds,
+                        @Param("scopeCounselorIds") String[] scopeCounselorIds,
+                        @Param("includeUnassigned") Boolean includeUnassigned,
+                        @Param("isUnassigned") Boolean isUnassigned,
+                        @Param("overallStatuses") String[] overallStatuses,
+                        @Param("customFieldMatchedIds") String[] customFieldMatchedIds,
+                        @Param("customFieldExcludedIds") String[] customFieldExcludedIds,
+                        @Param("callHistoryFilter") String callHistoryFilter,
+                        @Param("callCountValue") Integer callCountValue,
+                        @Param("conversionStatusFilter") String conversionStatusFilter,
+                        @Param("audienceStatusFilter") String audienceStatusFilter,
+                        @Param("slaFilters") String[] slaFilters,
+                        @Param("tatHours") Integer tatHours,
+                        @Param("afterSubmittedAt") Timestamp afterSubmittedAt,
+                        @Param("afterId") String afterId,
+                        @Param("limit") int limit);
+
+        @Query(value = "SELECT COUNT(*)" + LEADS_WITH_FILTERS_FROM, nativeQuery = true)
+        long countLeadsWithFilters(
+                        @Param("audienceId") String audienceId,
+                        @Param("leadStatusKeys") String[] leadStatusKeys,
+                        @Param("sourceType") String sourceType,
+                        @Param("sourceId") String sourceId,
+                        @Param("submittedFrom") Timestamp submittedFrom,
+                        @Param("submittedTo") Timestamp submittedTo,
+                        @Param("excludeDuplicates") Boolean excludeDuplicates,
+                        @Param("searchQuery") String searchQuery,
+                        @Param("searchUserIds") String[] searchUserIds,
+                        @Param("minLeadScore") Integer minLeadScore,
+                        @Param("maxLeadScore") Integer maxLeadScore,
+                        @Param("leadTiers") String[] leadTiers,
+                        @Param("assignedCounselorIds") String[] assignedCounselorIds,
+                        @Param("scopeCounselorIds") String[] scopeCounselorIds,
+                        @Param("includeUnassigned") Boolean includeUnassigned,
+                        @Param("isUnassigned") Boolean isUnassigned,
+                        @Param("overallStatuses") String[] overallStatuses,
+                        @Param("customFieldMatchedIds") String[] customFieldMatchedIds,
+                        @Param("customFieldExcludedIds") String[] customFieldExcludedIds,
+                        @Param("callHistoryFilter") String callHistoryFilter,
+                        @Param("callCountValue") Integer callCountValue,
+                        @Param("conversionStatusFilter") String conversionStatusFilter,
+                        @Param("audienceStatusFilter") String audienceStatusFilter,
+                        @Param("slaFilters") String[] slaFilters,
+                        @Param("tatHours") Integer tatHours);
+
+        /**
+         * Find all leads for an institute (across all campaigns)
+         */
+        @Query("""
+                            SELECT ar FROM AudienceResponse ar
+                            JOIN Audience a ON a.id = ar.audienceId
+                            WHERE a.instituteId = :instituteId
+                            AND (ar.overallStatus IS NULL OR ar.overallStatus != 'OPTED_OUT')
+                            AND ar.audienceStatus = 'ACTIVE'
+                            ORDER BY ar.submittedAt DESC
+                        """)
+        Page<AudienceResponse> findAllLeadsForInstitute(
+                        @Param("instituteId") String instituteId,
+                        Pageable pageable);
+
+        /**
+         * FROM / WHERE of the cross-campaign lead list for an institute, with optional
+         * date range, search, lead-tier and assigned-counselor filters. Used by the
+         * cross-audience "Recent Leads" view. Mirrors the joins / predicates of
+         * {@link #LEADS_WITH_FILTERS_FROM} so tier and counselor scoping behave
+         * identically across the per-campaign and cross-campaign paths.
+         */
+        String INSTITUTE_LEADS_WITH_FILTERS_FROM = """
                             FROM audience_response ar
                             JOIN audience a ON a.id = ar.audience_id
                             LEFT JOIN lead_score ls ON ls.audience_response_id = ar.id
@@ -1055,23 +611,23 @@ public interface AudienceResponseRepository extends JpaRepository<AudienceRespon
                             LEFT JOIN user_lead_profile ulp
                                 ON ulp.user_id = ar.user_id AND ulp.institute_id = a.institute_id
                             WHERE a.institute_id = :instituteId
-                              AND (COALESCE(:leadStatusId, '') = '' OR COALESCE((SELECT lst.status_key FROM lead_status lst WHERE lst.id = ar.lead_status_id), ulp.conversion_status) = ANY(STRING_TO_ARRAY(:leadStatusId, ',')) OR ('__NO_STATUS__' = ANY(STRING_TO_ARRAY(:leadStatusId, ',')) AND ar.lead_status_id IS NULL AND ulp.conversion_status IS NULL))
+                              AND (cardinality(CAST(:leadStatusKeys AS text[])) = 0 OR COALESCE((SELECT lst.status_key FROM lead_status lst WHERE lst.id = ar.lead_status_id), ulp.conversion_status) = ANY(CAST(:leadStatusKeys AS text[])) OR ('__NO_STATUS__' = ANY(CAST(:leadStatusKeys AS text[])) AND ar.lead_status_id IS NULL AND ulp.conversion_status IS NULL))
                               AND (CAST(:submittedFrom AS timestamp) IS NULL OR ar.submitted_at >= CAST(:submittedFrom AS timestamp))
                               AND (CAST(:submittedTo AS timestamp) IS NULL OR ar.submitted_at <= CAST(:submittedTo AS timestamp))
                               AND (COALESCE(:searchQuery, '') = '' OR
                                    LOWER(ar.parent_name) LIKE LOWER(CONCAT('%', :searchQuery, '%')) OR
                                    LOWER(ar.parent_email) LIKE LOWER(CONCAT('%', :searchQuery, '%')) OR
                                    ar.parent_mobile LIKE CONCAT('%', :searchQuery, '%') OR
-                                   (COALESCE(:searchUserIdsCsv, '') != ''
-                                    AND ar.user_id = ANY(STRING_TO_ARRAY(:searchUserIdsCsv, ','))))
-                              AND (COALESCE(:leadTier, '') = '' OR
+                                   (cardinality(CAST(:searchUserIds AS text[])) > 0
+                                    AND ar.user_id = ANY(CAST(:searchUserIds AS text[]))))
+                              AND (cardinality(CAST(:leadTiers AS text[])) = 0 OR
                                    (ulp.user_id IS NOT NULL AND COALESCE(NULLIF(ulp.lead_tier, ''),
                                        CASE WHEN ulp.best_score >= 80 THEN 'HOT'
                                             WHEN ulp.best_score >= 50 THEN 'WARM'
-                                            ELSE 'COLD' END) = ANY(STRING_TO_ARRAY(:leadTier, ','))))
-                              AND (COALESCE(:assignedCounselorId, '') = ''
-                                   OR lu.user_id = ANY(STRING_TO_ARRAY(:assignedCounselorId, ','))
-                                   OR ulp.assigned_counselor_id = ANY(STRING_TO_ARRAY(:assignedCounselorId, ',')))
+                                            ELSE 'COLD' END) = ANY(CAST(:leadTiers AS text[]))))
+                              AND (cardinality(CAST(:assignedCounselorIds AS text[])) = 0
+                                   OR lu.user_id = ANY(CAST(:assignedCounselorIds AS text[]))
+                                   OR ulp.assigned_counselor_id = ANY(CAST(:assignedCounselorIds AS text[])))
                               -- RBAC scope (CounsellorScopeService.descendantUserIdsForCaller):
                               -- caller + everyone reporting up to them through parent_user_id
                               -- chains inside the leads-team subtree. ANDed with the single-id
@@ -1079,19 +635,19 @@ public interface AudienceResponseRepository extends JpaRepository<AudienceRespon
                               -- Unassigned leads (no counsellor on either linked_users or
                               -- user_lead_profile) stay visible to everyone — anyone in
                               -- scope can pick them up.
-                              AND (COALESCE(:assignedCounselorIdsCsv, '') = ''
-                                   OR lu.user_id = ANY(STRING_TO_ARRAY(:assignedCounselorIdsCsv, ','))
-                                   OR ulp.assigned_counselor_id = ANY(STRING_TO_ARRAY(:assignedCounselorIdsCsv, ','))
+                              AND (cardinality(CAST(:scopeCounselorIds AS text[])) = 0
+                                   OR lu.user_id = ANY(CAST(:scopeCounselorIds AS text[]))
+                                   OR ulp.assigned_counselor_id = ANY(CAST(:scopeCounselorIds AS text[]))
                                    OR ((:includeUnassigned IS NULL OR :includeUnassigned = TRUE) AND lu.user_id IS NULL AND ulp.assigned_counselor_id IS NULL))
                               -- isUnassigned = TRUE narrows to leads with no owner at all
                               -- (both the ENQUIRY-linked counsellor and the profile owner are null).
                               AND (:isUnassigned IS NULL OR :isUnassigned = FALSE
                                    OR (lu.user_id IS NULL AND ulp.assigned_counselor_id IS NULL))
-                              AND (COALESCE(:allowedAudienceIdsCsv, '') = '' OR ar.audience_id = ANY(STRING_TO_ARRAY(:allowedAudienceIdsCsv, ',')))
+                              AND (cardinality(CAST(:allowedAudienceIds AS text[])) = 0 OR ar.audience_id = ANY(CAST(:allowedAudienceIds AS text[])))
                               -- Caller-requested audience multi-select (Recent Leads "All audiences"
-                              -- dropdown). Independent of the RBAC :allowedAudienceIdsCsv above, which
+                              -- dropdown). Independent of the RBAC :allowedAudienceIds above, which
                               -- stays ANDed so a user can never widen past what they were granted.
-                              AND (COALESCE(:audienceIdsCsv, '') = '' OR ar.audience_id = ANY(STRING_TO_ARRAY(:audienceIdsCsv, ',')))
+                              AND (cardinality(CAST(:audienceIds AS text[])) = 0 OR ar.audience_id = ANY(CAST(:audienceIds AS text[])))
                               AND (
                                 COALESCE(:conversionStatusFilter, 'EXCLUDE_CONVERTED') = 'ALL'
                                 OR (
@@ -1108,7 +664,7 @@ public interface AudienceResponseRepository extends JpaRepository<AudienceRespon
                               -- offer a "show deleted leads" view without a second query.
                               -- Kept as its OWN unconditional AND rather than folded into the
                               -- overall_status OR block above: that block disables its own
-                              -- OPTED_OUT guard whenever :overallStatusStr is set, and a
+                              -- OPTED_OUT guard whenever :overallStatuses is set, and a
                               -- soft-deleted lead must stay hidden regardless of what else the
                               -- caller filters by.
                               AND (
@@ -1131,8 +687,8 @@ public interface AudienceResponseRepository extends JpaRepository<AudienceRespon
                               --   * Follow-up buckets read the lead_followup table (open rows
                               --     only), matching the Follow up at column which is now purely
                               --     counsellor-scheduled callbacks.
-                              AND (COALESCE(:slaFilter, '') = ''
-                                   OR ('TAT_OVERDUE' = ANY(STRING_TO_ARRAY(:slaFilter, ','))
+                              AND (cardinality(CAST(:slaFilters AS text[])) = 0
+                                   OR ('TAT_OVERDUE' = ANY(CAST(:slaFilters AS text[]))
                                        AND :tatHours IS NOT NULL
                                        AND ar.submitted_at IS NOT NULL
                                        AND ar.submitted_at + make_interval(hours => CAST(:tatHours AS integer)) < NOW()
@@ -1142,7 +698,7 @@ public interface AudienceResponseRepository extends JpaRepository<AudienceRespon
                                              AND ( (te.type = 'AUDIENCE_RESPONSE' AND te.type_id = ar.id)
                                                    OR (ar.user_id IS NOT NULL AND te.student_user_id = ar.user_id)
                                                    OR (ar.student_user_id IS NOT NULL AND te.student_user_id = ar.student_user_id) )))
-                                   OR ('TAT_BEFORE' = ANY(STRING_TO_ARRAY(:slaFilter, ','))
+                                   OR ('TAT_BEFORE' = ANY(CAST(:slaFilters AS text[]))
                                        AND :tatHours IS NOT NULL
                                        AND ar.submitted_at IS NOT NULL
                                        AND ar.submitted_at + make_interval(hours => CAST(:tatHours AS integer)) > NOW()
@@ -1153,7 +709,7 @@ public interface AudienceResponseRepository extends JpaRepository<AudienceRespon
                                              AND ( (te.type = 'AUDIENCE_RESPONSE' AND te.type_id = ar.id)
                                                    OR (ar.user_id IS NOT NULL AND te.student_user_id = ar.user_id)
                                                    OR (ar.student_user_id IS NOT NULL AND te.student_user_id = ar.student_user_id) )))
-                                   OR ('FOLLOW_UP_DUE' = ANY(STRING_TO_ARRAY(:slaFilter, ','))
+                                   OR ('FOLLOW_UP_DUE' = ANY(CAST(:slaFilters AS text[]))
                                        AND EXISTS (
                                            SELECT 1 FROM lead_followup lf
                                            WHERE lf.audience_response_id = ar.id
@@ -1161,14 +717,14 @@ public interface AudienceResponseRepository extends JpaRepository<AudienceRespon
                                              AND lf.schedule_time IS NOT NULL
                                              AND lf.schedule_time > NOW()
                                              AND lf.schedule_time <= NOW() + INTERVAL '30 minutes'))
-                                   OR ('FOLLOW_UP_OVERDUE' = ANY(STRING_TO_ARRAY(:slaFilter, ','))
+                                   OR ('FOLLOW_UP_OVERDUE' = ANY(CAST(:slaFilters AS text[]))
                                        AND EXISTS (
                                            SELECT 1 FROM lead_followup lf
                                            WHERE lf.audience_response_id = ar.id
                                              AND lf.is_closed = false
                                              AND lf.schedule_time IS NOT NULL
                                              AND lf.schedule_time < NOW()))
-                                   OR ('ANY_OVERDUE' = ANY(STRING_TO_ARRAY(:slaFilter, ','))
+                                   OR ('ANY_OVERDUE' = ANY(CAST(:slaFilters AS text[]))
                                        AND (
                                            (:tatHours IS NOT NULL
                                             AND ar.submitted_at IS NOT NULL
@@ -1185,10 +741,10 @@ public interface AudienceResponseRepository extends JpaRepository<AudienceRespon
                                                  AND lf.is_closed = false
                                                  AND lf.schedule_time IS NOT NULL
                                                  AND lf.schedule_time < NOW()))))
-                              AND (COALESCE(:customFieldMatchedIdsCsv, '') = ''
-                                   OR ar.id = ANY(STRING_TO_ARRAY(:customFieldMatchedIdsCsv, ',')))
-                              AND (COALESCE(:customFieldExcludedIdsCsv, '') = ''
-                                   OR NOT (ar.id = ANY(STRING_TO_ARRAY(:customFieldExcludedIdsCsv, ','))))
+                              AND (cardinality(CAST(:customFieldMatchedIds AS text[])) = 0
+                                   OR ar.id = ANY(CAST(:customFieldMatchedIds AS text[])))
+                              AND (cardinality(CAST(:customFieldExcludedIds AS text[])) = 0
+                                   OR NOT (ar.id = ANY(CAST(:customFieldExcludedIds AS text[]))))
                               -- NOTE never put a semicolon anywhere in this query's comments --
                               -- Hibernate's limit handler treats the first semicolon as end of
                               -- statement and injects "fetch first ? rows only" there, which
@@ -1284,27 +840,74 @@ public interface AudienceResponseRepository extends JpaRepository<AudienceRespon
                                               WHERE tcl.user_id = ar.user_id
                                                 AND tcl.institute_id = a.institute_id
                                                 AND tcl.provider_type NOT IN ('VACADEMY_AI', 'AAVTAAR', 'MOCK')))))
-                        """, nativeQuery = true)
-        Page<AudienceResponse> findInstituteLeadsWithFilters(
+                        """;
+
+        String INSTITUTE_LEADS_WITH_FILTERS_ORDER = """
+                            ORDER BY
+                              CASE WHEN :sortBy = 'SUBMITTED_AT' AND :sortDirection = 'ASC'
+                                   THEN ar.submitted_at END ASC,
+                              CASE WHEN :sortBy = 'SUBMITTED_AT' AND (:sortDirection IS NULL OR :sortDirection = 'DESC')
+                                   THEN ar.submitted_at END DESC,
+                              CASE WHEN :sortBy = 'LEAD_SCORE' AND (:sortDirection IS NULL OR :sortDirection = 'DESC')
+                                   THEN COALESCE(ls.raw_score, 0) END DESC,
+                              CASE WHEN :sortBy = 'LEAD_SCORE' AND :sortDirection = 'ASC'
+                                   THEN COALESCE(ls.raw_score, 0) END ASC,
+                              CASE WHEN :sortBy = 'LEAD_TIER' AND :sortDirection = 'ASC'
+                                   THEN CASE COALESCE(NULLIF(ulp.lead_tier, ''),
+                                            CASE WHEN ulp.best_score >= 80 THEN 'HOT'
+                                                 WHEN ulp.best_score >= 50 THEN 'WARM'
+                                                 WHEN ulp.best_score IS NOT NULL THEN 'COLD'
+                                                 ELSE NULL END)
+                                        WHEN 'HOT' THEN 3 WHEN 'WARM' THEN 2 WHEN 'COLD' THEN 1 ELSE 0 END END ASC,
+                              CASE WHEN :sortBy = 'LEAD_TIER' AND (:sortDirection IS NULL OR :sortDirection = 'DESC')
+                                   THEN CASE COALESCE(NULLIF(ulp.lead_tier, ''),
+                                            CASE WHEN ulp.best_score >= 80 THEN 'HOT'
+                                                 WHEN ulp.best_score >= 50 THEN 'WARM'
+                                                 WHEN ulp.best_score IS NOT NULL THEN 'COLD'
+                                                 ELSE NULL END)
+                                        WHEN 'HOT' THEN 3 WHEN 'WARM' THEN 2 WHEN 'COLD' THEN 1 ELSE 0 END END DESC,
+                              CASE WHEN :sortBy = 'STATUS' AND :sortDirection = 'ASC'
+                                   THEN COALESCE((SELECT lst.status_key FROM lead_status lst WHERE lst.id = ar.lead_status_id), ulp.conversion_status) END ASC,
+                              CASE WHEN :sortBy = 'STATUS' AND (:sortDirection IS NULL OR :sortDirection = 'DESC')
+                                   THEN COALESCE((SELECT lst.status_key FROM lead_status lst WHERE lst.id = ar.lead_status_id), ulp.conversion_status) END DESC,
+                              CASE WHEN :sortBy = 'PARENT_NAME' AND (:sortDirection IS NULL OR :sortDirection = 'ASC')
+                                   THEN ar.parent_name END ASC,
+                              CASE WHEN :sortBy = 'PARENT_NAME' AND :sortDirection = 'DESC'
+                                   THEN ar.parent_name END DESC,
+                              CASE WHEN :sortBy = 'CUSTOM_FIELD' AND :sortCustomFieldId IS NOT NULL AND :sortDirection = 'ASC'
+                                   THEN CASE WHEN (SELECT scf.value FROM custom_field_values scf WHERE scf.source_type = 'AUDIENCE_RESPONSE' AND scf.source_id = ar.id AND scf.custom_field_id = :sortCustomFieldId ORDER BY scf.updated_at DESC NULLS LAST LIMIT 1) ~ '^-?[0-9]+([.][0-9]+)?$' THEN CAST((SELECT scf.value FROM custom_field_values scf WHERE scf.source_type = 'AUDIENCE_RESPONSE' AND scf.source_id = ar.id AND scf.custom_field_id = :sortCustomFieldId ORDER BY scf.updated_at DESC NULLS LAST LIMIT 1) AS numeric) END END ASC NULLS LAST,
+                              CASE WHEN :sortBy = 'CUSTOM_FIELD' AND :sortCustomFieldId IS NOT NULL AND (:sortDirection IS NULL OR :sortDirection = 'DESC')
+                                   THEN CASE WHEN (SELECT scf.value FROM custom_field_values scf WHERE scf.source_type = 'AUDIENCE_RESPONSE' AND scf.source_id = ar.id AND scf.custom_field_id = :sortCustomFieldId ORDER BY scf.updated_at DESC NULLS LAST LIMIT 1) ~ '^-?[0-9]+([.][0-9]+)?$' THEN CAST((SELECT scf.value FROM custom_field_values scf WHERE scf.source_type = 'AUDIENCE_RESPONSE' AND scf.source_id = ar.id AND scf.custom_field_id = :sortCustomFieldId ORDER BY scf.updated_at DESC NULLS LAST LIMIT 1) AS numeric) END END DESC NULLS LAST,
+                              CASE WHEN :sortBy = 'CUSTOM_FIELD' AND :sortCustomFieldId IS NOT NULL AND :sortDirection = 'ASC'
+                                   THEN (SELECT scf.value FROM custom_field_values scf WHERE scf.source_type = 'AUDIENCE_RESPONSE' AND scf.source_id = ar.id AND scf.custom_field_id = :sortCustomFieldId ORDER BY scf.updated_at DESC NULLS LAST LIMIT 1) END ASC NULLS LAST,
+                              CASE WHEN :sortBy = 'CUSTOM_FIELD' AND :sortCustomFieldId IS NOT NULL AND (:sortDirection IS NULL OR :sortDirection = 'DESC')
+                                   THEN (SELECT scf.value FROM custom_field_values scf WHERE scf.source_type = 'AUDIENCE_RESPONSE' AND scf.source_id = ar.id AND scf.custom_field_id = :sortCustomFieldId ORDER BY scf.updated_at DESC NULLS LAST LIMIT 1) END DESC NULLS LAST,
+                              ar.submitted_at DESC,
+                              ar.id DESC
+                        """;
+
+        @Query(value = "SELECT ar.*" + INSTITUTE_LEADS_WITH_FILTERS_FROM + INSTITUTE_LEADS_WITH_FILTERS_ORDER,
+                        nativeQuery = true)
+        Slice<AudienceResponse> findInstituteLeadsWithFilters(
                         @Param("instituteId") String instituteId,
-                        @Param("leadStatusId") String leadStatusId,
+                        @Param("leadStatusKeys") String[] leadStatusKeys,
                         @Param("submittedFrom") Timestamp submittedFrom,
                         @Param("submittedTo") Timestamp submittedTo,
                         @Param("searchQuery") String searchQuery,
-                        @Param("searchUserIdsCsv") String searchUserIdsCsv,
-                        @Param("leadTier") String leadTier,
-                        @Param("assignedCounselorId") String assignedCounselorId,
-                        @Param("assignedCounselorIdsCsv") String assignedCounselorIdsCsv,
+                        @Param("searchUserIds") String[] searchUserIds,
+                        @Param("leadTiers") String[] leadTiers,
+                        @Param("assignedCounselorIds") String[] assignedCounselorIds,
+                        @Param("scopeCounselorIds") String[] scopeCounselorIds,
                         @Param("includeUnassigned") Boolean includeUnassigned,
                         @Param("isUnassigned") Boolean isUnassigned,
-                        @Param("allowedAudienceIdsCsv") String allowedAudienceIdsCsv,
-                        @Param("audienceIdsCsv") String audienceIdsCsv,
+                        @Param("allowedAudienceIds") String[] allowedAudienceIds,
+                        @Param("audienceIds") String[] audienceIds,
                         @Param("conversionStatusFilter") String conversionStatusFilter,
                         @Param("audienceStatusFilter") String audienceStatusFilter,
-                        @Param("slaFilter") String slaFilter,
+                        @Param("slaFilters") String[] slaFilters,
                         @Param("tatHours") Integer tatHours,
-                        @Param("customFieldMatchedIdsCsv") String customFieldMatchedIdsCsv,
-                        @Param("customFieldExcludedIdsCsv") String customFieldExcludedIdsCsv,
+                        @Param("customFieldMatchedIds") String[] customFieldMatchedIds,
+                        @Param("customFieldExcludedIds") String[] customFieldExcludedIds,
                         @Param("callHistoryFilter") String callHistoryFilter,
                         @Param("callCountValue") Integer callCountValue,
                         @Param("sortBy") String sortBy,
@@ -1312,6 +915,57 @@ public interface AudienceResponseRepository extends JpaRepository<AudienceRespon
                         @Param("sortCustomFieldId") String sortCustomFieldId,
                         Pageable pageable);
 
+        @Query(value = "SELECT ar.*" + INSTITUTE_LEADS_WITH_FILTERS_FROM + LEADS_AFTER_CURSOR, nativeQuery = true)
+        List<AudienceResponse> findInstituteLeadsWithFiltersAfter(
+                        @Param("instituteId") String instituteId,
+                        @Param("leadStatusKeys") String[] leadStatusKeys,
+                        @Param("submittedFrom") Timestamp submittedFrom,
+                        @Param("submittedTo") Timestamp submittedTo,
+                        @Param("searchQuery") String searchQuery,
+                        @Param("searchUserIds") String[] searchUserIds,
+                        @Param("leadTiers") String[] leadTiers,
+                        @Param("assignedCounselorIds") String[] assignedCounselorIds,
+                        @Param("scopeCounselorIds") String[] scopeCounselorIds,
+                        @Param("includeUnassigned") Boolean includeUnassigned,
+                        @Param("isUnassigned") Boolean isUnassigned,
+                        @Param("allowedAudienceIds") String[] allowedAudienceIds,
+                        @Param("audienceIds") String[] audienceIds,
+                        @Param("conversionStatusFilter") String conversionStatusFilter,
+                        @Param("audienceStatusFilter") String audienceStatusFilter,
+                        @Param("slaFilters") String[] slaFilters,
+                        @Param("tatHours") Integer tatHours,
+                        @Param("customFieldMatchedIds") String[] customFieldMatchedIds,
+                        @Param("customFieldExcludedIds") String[] customFieldExcludedIds,
+                        @Param("callHistoryFilter") String callHistoryFilter,
+                        @Param("callCountValue") Integer callCountValue,
+                        @Param("afterSubmittedAt") Timestamp afterSubmittedAt,
+                        @Param("afterId") String afterId,
+                        @Param("limit") int limit);
+
+        @Query(value = "SELECT COUNT(*)" + INSTITUTE_LEADS_WITH_FILTERS_FROM, nativeQuery = true)
+        long countInstituteLeadsWithFilters(
+                        @Param("instituteId") String instituteId,
+                        @Param("leadStatusKeys") String[] leadStatusKeys,
+                        @Param("submittedFrom") Timestamp submittedFrom,
+                        @Param("submittedTo") Timestamp submittedTo,
+                        @Param("searchQuery") String searchQuery,
+                        @Param("searchUserIds") String[] searchUserIds,
+                        @Param("leadTiers") String[] leadTiers,
+                        @Param("assignedCounselorIds") String[] assignedCounselorIds,
+                        @Param("scopeCounselorIds") String[] scopeCounselorIds,
+                        @Param("includeUnassigned") Boolean includeUnassigned,
+                        @Param("isUnassigned") Boolean isUnassigned,
+                        @Param("allowedAudienceIds") String[] allowedAudienceIds,
+                        @Param("audienceIds") String[] audienceIds,
+                        @Param("conversionStatusFilter") String conversionStatusFilter,
+                        @Param("audienceStatusFilter") String audienceStatusFilter,
+                        @Param("slaFilters") String[] slaFilters,
+                        @Param("tatHours") Integer tatHours,
+                        @Param("customFieldMatchedIds") String[] customFieldMatchedIds,
+                        @Param("customFieldExcludedIds") String[] customFieldExcludedIds,
+                        @Param("callHistoryFilter") String callHistoryFilter,
+                        @Param("callCountValue") Integer callCountValue);
+
         /**
          * Distinct values a custom field holds across an institute's leads —
          * powers the searchable, paginated multi-select dropdowns in the leads
@@ -1376,6 +1030,14 @@ public interface AudienceResponseRepository extends JpaRepository<AudienceRespon
          */
         boolean existsByAudienceIdAndUserId(String audienceId, String userId);
 
+        /**
+         * Set form of {@link #existsByAudienceIdAndUserId} for the bulk import pipeline:
+         * which of these users already hold a response in the campaign.
+         */
+        @Query("SELECT DISTINCT ar.userId FROM AudienceResponse ar WHERE ar.audienceId = :audienceId AND ar.userId IN (:userIds)")
+        List<String> findUserIdsByAudienceIdAndUserIdIn(@Param("audienceId") String audienceId,
+                        @Param("userIds") java.util.Collection<String> userIds);
+
         /**
          * This person's leads in this campaign with the given audience_status. Backs
          * reactivate-on-resubmit: {@link #existsByAudienceIdAndUserId} above is derived and so
@@ -1648,11 +1310,13 @@ public interface AudienceResponseRepository extends JpaRepository<AudienceRespon
          * lets an in-place lead edit (updateLeadProfile) check "does this new value
          * collide with some OTHER lead" without matching its own not-yet-saved row —
          * pass null from creation-flow callers, where there is no self to exclude.
+         * Matching runs on the trigger-maintained phone_last10 / email_lower keys (V468),
+         * which carry the same normalisation the expressions here used to apply per row.
          */
         @Query("""
                             SELECT COUNT(ar) > 0 FROM AudienceResponse ar
                             WHERE ar.audienceId = :audienceId
-                            AND LOWER(TRIM(ar.parentEmail)) = LOWER(TRIM(:email))
+                            AND ar.emailLower = LOWER(TRIM(:email))
                             AND (ar.isDuplicate IS NULL OR ar.isDuplicate = false)
                             AND (ar.overallStatus IS NULL OR ar.overallStatus != 'OPTED_OUT')
                             AND (:excludeResponseId IS NULL OR ar.id <> :excludeResponseId)
@@ -1666,7 +1330,7 @@ public interface AudienceResponseRepository extends JpaRepository<AudienceRespon
                             SELECT COUNT(ar) > 0 FROM AudienceResponse ar
                             JOIN Audience a ON a.id = ar.audienceId
                             WHERE a.instituteId = :instituteId
-                            AND LOWER(TRIM(ar.parentEmail)) = LOWER(TRIM(:email))
+                            AND ar.emailLower = LOWER(TRIM(:email))
                             AND (ar.isDuplicate IS NULL OR ar.isDuplicate = false)
                             AND (ar.overallStatus IS NULL OR ar.overallStatus != 'OPTED_OUT')
                             AND (:excludeResponseId IS NULL OR ar.id <> :excludeResponseId)
@@ -1679,8 +1343,7 @@ public interface AudienceResponseRepository extends JpaRepository<AudienceRespon
         @Query(value = """
                             SELECT COUNT(*) > 0 FROM audience_response ar
                             WHERE ar.audience_id = :audienceId
-                            AND ar.parent_mobile IS NOT NULL
-                            AND RIGHT(regexp_replace(ar.parent_mobile, '[^0-9]', '', 'g'), 10) = :last10
+                            AND ar.phone_last10 = :last10
                             AND (ar.is_duplicate IS NULL OR ar.is_duplicate = false)
                             AND (ar.overall_status IS NULL OR ar.overall_status != 'OPTED_OUT')
                             AND (COALESCE(:excludeResponseId, '') = '' OR ar.id <> :excludeResponseId)
@@ -1694,8 +1357,7 @@ public interface AudienceResponseRepository extends JpaRepository<AudienceRespon
                             SELECT COUNT(*) > 0 FROM audience_response ar
                             JOIN audience a ON a.id = ar.audience_id
                             WHERE a.institute_id = :instituteId
-                            AND ar.parent_mobile IS NOT NULL
-                            AND RIGHT(regexp_replace(ar.parent_mobile, '[^0-9]', '', 'g'), 10) = :last10
+                            AND ar.phone_last10 = :last10
                             AND (ar.is_duplicate IS NULL OR ar.is_duplicate = false)
                             AND (ar.overall_status IS NULL OR ar.overall_status != 'OPTED_OUT')
                             AND (COALESCE(:excludeResponseId, '') = '' OR ar.id <> :excludeResponseId)
@@ -1713,7 +1375,7 @@ public interface AudienceResponseRepository extends JpaRepository<AudienceRespon
         @Query("""
                             SELECT COUNT(ar) > 0 FROM AudienceResponse ar
                             WHERE ar.audienceId IN (:audienceIds)
-                            AND LOWER(TRIM(ar.parentEmail)) = LOWER(TRIM(:email))
+                            AND ar.emailLower = LOWER(TRIM(:email))
                             AND (ar.isDuplicate IS NULL OR ar.isDuplicate = false)
                             AND (ar.overallStatus IS NULL OR ar.overallStatus != 'OPTED_OUT')
                             AND (:excludeResponseId IS NULL OR ar.id <> :excludeResponseId)
@@ -1726,8 +1388,7 @@ public interface AudienceResponseRepository extends JpaRepository<AudienceRespon
         @Query(value = """
                             SELECT COUNT(*) > 0 FROM audience_response ar
                             WHERE ar.audience_id IN (:audienceIds)
-                            AND ar.parent_mobile IS NOT NULL
-                            AND RIGHT(regexp_replace(ar.parent_mobile, '[^0-9]', '', 'g'), 10) = :last10
+                            AND ar.phone_last10 = :last10
                             AND (ar.is_duplicate IS NULL OR ar.is_duplicate = false)
                             AND (ar.overall_status IS NULL OR ar.overall_status != 'OPTED_OUT')
                             AND (COALESCE(:excludeResponseId, '') = '' OR ar.id <> :excludeResponseId)
@@ -1737,6 +1398,135 @@ public interface AudienceResponseRepository extends JpaRepository<AudienceRespon
                         @Param("last10") String last10,
                         @Param("excludeResponseId") String excludeResponseId);
 
+        /**
+         * Set forms of the six dedup probes above, for the bulk import pipeline: given a
+         * chunk's normalised keys (LOWER(TRIM(email)) / last 10 phone digits), return the
+         * ones that already match a lead in scope. Same eligibility rules as the
+         * single-key probes.
+         */
+        @Query(value = """
+                            SELECT DISTINCT ar.email_lower FROM audience_response ar
+                            WHERE ar.audience_id = :audienceId
+                            AND ar.email_lower IN (:emails)
+                            AND (ar.is_duplicate IS NULL OR ar.is_duplicate = false)
+                            AND (ar.overall_status IS NULL OR ar.overall_status != 'OPTED_OUT')
+                        """, nativeQuery = true)
+        List<String> findExistingEmailKeysInAudience(
+                        @Param("audienceId") String audienceId,
+                        @Param("emails") java.util.Collection<String> emails);
+
+        @Query(value = """
+                            SELECT DISTINCT ar.email_lower FROM audience_response ar
+                            JOIN audience a ON a.id = ar.audience_id
+                            WHERE a.institute_id = :instituteId
+                            AND ar.email_lower IN (:emails)
+                            AND (ar.is_duplicate IS NULL OR ar.is_duplicate = false)
+                            AND (ar.overall_status IS NULL OR ar.overall_status != 'OPTED_OUT')
+                        """, nativeQuery = true)
+        List<String> findExistingEmailKeysInInstitute(
+                        @Param("instituteId") String instituteId,
+                        @Param("emails") java.util.Collection<String> emails);
+
+        @Query(value = """
+                            SELECT DISTINCT ar.email_lower FROM audience_response ar
+                            WHERE ar.audience_id IN (:audienceIds)
+                            AND ar.email_lower IN (:emails)
+                            AND (ar.is_duplicate IS NULL OR ar.is_duplicate = false)
+                            AND (ar.overall_status IS NULL OR ar.overall_status != 'OPTED_OUT')
+                        """, nativeQuery = true)
+        List<String> findExistingEmailKeysInAudiences(
+                        @Param("audienceIds") java.util.List<String> audienceIds,
+                        @Param("emails") java.util.Collection<String> emails);
+
+        @Query(value = """
+                            SELECT DISTINCT ar.phone_last10
+                            FROM audience_response ar
+                            WHERE ar.audience_id = :audienceId
+                            AND ar.phone_last10 IN (:phones)
+                            AND (ar.is_duplicate IS NULL OR ar.is_duplicate = false)
+                            AND (ar.overall_status IS NULL OR ar.overall_status != 'OPTED_OUT')
+                        """, nativeQuery = true)
+        List<String> findExistingPhoneKeysInAudience(
+                        @Param("audienceId") String audienceId,
+                        @Param("phones") java.util.Collection<String> phones);
+
+        @Query(value = """
+                            SELECT DISTINCT ar.phone_last10
+                            FROM audience_response ar
+                            JOIN audience a ON a.id = ar.audience_id
+                            WHERE a.institute_id = :instituteId
+                            AND ar.phone_last10 IN (:phones)
+                            AND (ar.is_duplicate IS NULL OR ar.is_duplicate = false)
+                            AND (ar.overall_status IS NULL OR ar.overall_status != 'OPTED_OUT')
+                        """, nativeQuery = true)
+        List<String> findExistingPhoneKeysInInstitute(
+                        @Param("instituteId") String instituteId,
+                        @Param("phones") java.util.Collection<String> phones);
+
+        @Query(value = """
+                            SELECT DISTINCT ar.phone_last10
+                            FROM audience_response ar
+                            WHERE ar.audience_id IN (:audienceIds)
+                            AND ar.phone_last10 IN (:phones)
+                            AND (ar.is_duplicate IS NULL OR ar.is_duplicate = false)
+                            AND (ar.overall_status IS NULL OR ar.overall_status != 'OPTED_OUT')
+                        """, nativeQuery = true)
+        List<String> findExistingPhoneKeysInAudiences(
+                        @Param("audienceIds") java.util.List<String> audienceIds,
+                        @Param("phones") java.util.Collection<String> phones);
+
+        /**
+         * Feeds LeadDedupIndexService, the in-memory pre-filter in front of the probes
+         * above. Deliberately wider than the probes — every keyed row of the institute,
+         * duplicates and opted-out leads included — so the filter stays a superset of
+         * whatever any scope or later status change could match.
+         */
+        @Query(value = """
+                            SELECT COUNT(*) FROM audience_response ar
+                            JOIN audience a ON a.id = ar.audience_id
+                            WHERE a.institute_id = :instituteId
+                            AND (ar.phone_last10 IS NOT NULL OR ar.email_lower IS NOT NULL)
+                        """, nativeQuery = true)
+        long countDedupKeysForInstitute(@Param("instituteId") String instituteId);
+
+        /** {id, phone_last10, email_lower} of the institute's keyed rows, keyset-paged by id. */
+        @Query(value = """
+                            SELECT ar.id, ar.phone_last10, ar.email_lower FROM audience_response ar
+                            JOIN audience a ON a.id = ar.audience_id
+                            WHERE a.institute_id = :instituteId
+                            AND (ar.phone_last10 IS NOT NULL OR ar.email_lower IS NOT NULL)
+                            AND ar.id > :afterId
+                            ORDER BY ar.id
+                            LIMIT :limit
+                        """, nativeQuery = true)
+        List<Object[]> findDedupKeysForInstituteAfterId(
+                        @Param("instituteId") String instituteId,
+                        @Param("afterId") String afterId,
+                        @Param("limit") int limit);
+
+        /**
+         * {dedup_key_xid, id, phone_last10, email_lower} of rows whose keys were written by
+         * transaction afterXid or later, keyset-paged by (dedup_key_xid, id).
+         */
+        @Query(value = """
+                            SELECT ar.dedup_key_xid, ar.id, ar.phone_last10, ar.email_lower FROM audience_response ar
+                            JOIN audience a ON a.id = ar.audience_id
+                            WHERE ar.dedup_key_xid >= :afterXid
+                            AND (ar.dedup_key_xid, ar.id) > (:afterXid, :afterId)
+                            AND a.institute_id = :instituteId
+                            ORDER BY ar.dedup_key_xid, ar.id
+                            LIMIT :limit
+                        """, nativeQuery = true)
+        List<Object[]> findDedupKeysForInstituteAfterXid(
+                        @Param("instituteId") String instituteId,
+                        @Param("afterXid") long afterXid,
+                        @Param("afterId") String afterId,
+                        @Param("limit") int limit);
+
+        /** Oldest transaction still running: every dedup_key_xid below it has committed or rolled back. */
+        @Query(value = "SELECT txid_snapshot_xmin(txid_current_snapshot())", nativeQuery = true)
+        long findOldestRunningXid();
+
         // ── TAT / Follow-up SLA scan (emit-only scheduler) ────────────────────────
 
         /**
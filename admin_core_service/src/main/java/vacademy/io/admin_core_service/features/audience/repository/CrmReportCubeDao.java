@@ -0,0 +1,224 @@
+package vacademy.io.admin_core_service.features.audience.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Maintenance statements for crm_report_cube / crm_report_cube_state (V471). The
+ * per-event deltas are written by the V471 triggers; this side only rebuilds and
+ * compacts. Every method expects the caller's transaction to hold
+ * {@link #lockInstitute} first.
+ *
+ * <p>The rebuild SELECTs must bucket and filter exactly as the triggers do, or the
+ * nightly rebuild would shift counts the live deltas wrote.
+ */
+@Repository
+public class CrmReportCubeDao {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /** Institutes with a CRM status catalog, i.e. every institute that can have report data. */
+    @SuppressWarnings("unchecked")
+    public List<String> findCrmInstituteIds() {
+        return entityManager.createNativeQuery("SELECT DISTINCT institute_id FROM lead_status")
+                .getResultList();
+    }
+
+    /**
+     * Exclusive counterpart of the shared lock every cube trigger takes, held until
+     * the transaction ends: waits for in-flight lead writes of the institute to
+     * commit and holds new ones off until the rebuild is committed.
+     */
+    public void lockInstitute(String instituteId) {
+        entityManager.createNativeQuery(
+                        "SELECT 1 FROM pg_advisory_xact_lock(hashtext(CAST(:key AS text)))")
+                .setParameter("key", "crm_report_cube:" + instituteId)
+                .getSingleResult();
+    }
+
+    /**
+     * Timezone the institute's cube is fully built in, or null when it was never
+     * built or a history build is still running.
+     */
+    @SuppressWarnings("unchecked")
+    public String findBuiltTimezone(String instituteId) {
+        List<String> rows = entityManager.createNativeQuery(
+                        "SELECT timezone FROM crm_report_cube_state WHERE institute_id = :instituteId AND built")
+                .setParameter("instituteId", instituteId)
+                .getResultList();
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * Starts a history build in {@code timezone}: from here on the triggers write
+     * deltas in its day buckets, while reports keep reading the raw tables.
+     */
+    public void startBuild(String instituteId, String timezone) {
+        upsertState(instituteId, timezone, false);
+    }
+
+    public void markBuilt(String instituteId, String timezone) {
+        upsertState(instituteId, timezone, true);
+    }
+
+    private void upsertState(String instituteId, String timezone, boolean built) {
+        entityManager.createNativeQuery("""
+                        INSERT INTO crm_report_cube_state (institute_id, timezone, built, rebuilt_at)
+                        VALUES (:instituteId, :timezone, :built, NOW())
+                        ON CONFLICT (institute_id)
+                        DO UPDATE SET timezone = EXCLUDED.timezone, built = EXCLUDED.built,
+                                      rebuilt_at = EXCLUDED.rebuilt_at
+                        """)
+                .setParameter("instituteId", instituteId)
+                .setParameter("timezone", timezone)
+                .setParameter("built", built)
+                .executeUpdate();
+    }
+
+    /**
+     * Day in {@code timezone} of the institute's earliest status change or
+     * follow-up, or null when it has none.
+     */
+    public LocalDate findFirstEventDay(String instituteId, String timezone) {
+        Object day = entityManager.createNativeQuery("""
+                        SELECT CAST(LEAST(
+                                   (SELECT MIN(lsh.changed_at) FROM lead_status_history lsh
+                                    WHERE lsh.institute_id = :instituteId),
+                                   (SELECT MIN(lf.created_at) FROM lead_followup lf
+                                    WHERE lf.institute_id = :instituteId),
+                                   (SELECT MIN(COALESCE(lf.closed_at, lf.updated_at)) FROM lead_followup lf
+                                    WHERE lf.institute_id = :instituteId AND lf.is_closed = true)
+                               ) AT TIME ZONE 'UTC' AT TIME ZONE :timezone AS date)
+                        """)
+                .setParameter("instituteId", instituteId)
+                .setParameter("timezone", timezone)
+                .getSingleResult();
+        if (day instanceof Date date) return date.toLocalDate();
+        return (LocalDate) day;
+    }
+
+    /**
+     * Replaces the institute's cube rows of days [{@code fromDay}, {@code toDay}) with
+     * a fresh aggregate of the raw tables. {@code fromUtc} / {@code toUtc} are 00:00
+     * of those days in {@code timezone} as UTC wall clock, so the raw scans use the
+     * timestamp indexes.
+     *
+     * @return rows written
+     */
+    public int rebuildRange(String instituteId, String timezone, Date fromDay, Date toDay,
+                            Timestamp fromUtc, Timestamp toUtc) {
+        entityManager.createNativeQuery("""
+                        DELETE FROM crm_report_cube
+                        WHERE institute_id = :instituteId AND day >= :fromDay AND day < :toDay
+                        """)
+                .setParameter("instituteId", instituteId)
+                .setParameter("fromDay", fromDay)
+                .setParameter("toDay", toDay)
+                .executeUpdate();
+
+        int written = entityManager.createNativeQuery("""
+                        INSERT INTO crm_report_cube (institute_id, day, metric, counsellor_user_id,
+                                                     audience_id, source_type, status_id, n, compacted)
+                        SELECT lsh.institute_id,
+                               CAST(lsh.changed_at AT TIME ZONE 'UTC' AT TIME ZONE :timezone AS date),
+                               'STATUS_CHANGE', lsh.changed_by_user_id,
+                               ar.audience_id, ar.source_type, lsh.to_status_id, COUNT(*), true
+                        FROM lead_status_history lsh
+                        JOIN audience_response ar ON ar.id = lsh.audience_response_id
+                        WHERE lsh.institute_id = :instituteId
+                          AND lsh.changed_at >= :fromUtc
+                          AND lsh.changed_at < :toUtc
+                          AND (ar.overall_status IS NULL OR ar.overall_status != 'OPTED_OUT')
+                        GROUP BY 1, 2, 4, 5, 6, 7
+                        """)
+                .setParameter("instituteId", instituteId)
+                .setParameter("timezone", timezone)
+                .setParameter("fromUtc", fromUtc)
+                .setParameter("toUtc", toUtc)
+                .executeUpdate();
+
+        written += entityManager.createNativeQuery("""
+                        INSERT INTO crm_report_cube (institute_id, day, metric, counsellor_user_id,
+                                                     audience_id, source_type, n, compacted)
+                        SELECT lf.institute_id,
+                               CAST(lf.created_at AT TIME ZONE 'UTC' AT TIME ZONE :timezone AS date),
+                               'FOLLOWUP_CREATED', lf.created_by,
+                               ar.audience_id, ar.source_type, COUNT(*), true
+                        FROM lead_followup lf
+                        JOIN audience_response ar ON ar.id = lf.audience_response_id
+                        WHERE lf.institute_id = :instituteId
+                          AND lf.created_at >= :fromUtc
+                          AND lf.created_at < :toUtc
+                          AND (ar.overall_status IS NULL OR ar.overall_status != 'OPTED_OUT')
+                        GROUP BY 1, 2, 4, 5, 6
+                        """)
+                .setParameter("instituteId", instituteId)
+                .setParameter("timezone", timezone)
+                .setParameter("fromUtc", fromUtc)
+                .setParameter("toUtc", toUtc)
+                .executeUpdate();
+
+        written += entityManager.createNativeQuery("""
+                        INSERT INTO crm_report_cube (institute_id, day, metric, counsellor_user_id,
+                                                     audience_id, source_type, n, compacted)
+                        SELECT lf.institute_id,
+                               CAST(COALESCE(lf.closed_at, lf.updated_at) AT TIME ZONE 'UTC' AT TIME ZONE :timezone AS date),
+                               'FOLLOWUP_CLOSED', lf.closed_by,
+                               ar.audience_id, ar.source_type, COUNT(*), true
+                        FROM lead_followup lf
+                        JOIN audience_response ar ON ar.id = lf.audience_response_id
+                        WHERE lf.institute_id = :instituteId
+                          AND lf.is_closed = true
+                          AND COALESCE(lf.closed_at, lf.updated_at) >= :fromUtc
+                          AND COALESCE(lf.closed_at, lf.updated_at) < :toUtc
+                          AND (ar.overall_status IS NULL OR ar.overall_status != 'OPTED_OUT')
+                        GROUP BY 1, 2, 4, 5, 6
+                        """)
+                .setParameter("instituteId", instituteId)
+                .setParameter("timezone", timezone)
+                .setParameter("fromUtc", fromUtc)
+                .setParameter("toUtc", toUtc)
+                .executeUpdate();
+        return written;
+    }
+
+    /**
+     * Folds every day before {@code beforeDay} that has picked up deltas since the
+     * last run (opt-out withdrawals land on old days) into one compacted row per key,
+     * dropping keys that net to zero.
+     *
+     * @return compacted rows written
+     */
+    public int foldDeltasBefore(String instituteId, Date beforeDay) {
+        return entityManager.createNativeQuery("""
+                        WITH moved AS (
+                            DELETE FROM crm_report_cube c
+                            WHERE c.institute_id = :instituteId
+                              AND c.day < :beforeDay
+                              AND c.day IN (SELECT d.day FROM crm_report_cube d
+                                            WHERE d.institute_id = :instituteId
+                                              AND d.day < :beforeDay
+                                              AND NOT d.compacted)
+                            RETURNING c.institute_id, c.day, c.metric, c.counsellor_user_id,
+                                      c.audience_id, c.source_type, c.status_id, c.n
+                        )
+                        INSERT INTO crm_report_cube (institute_id, day, metric, counsellor_user_id,
+                                                     audience_id, source_type, status_id, n, compacted)
+                        SELECT institute_id, day, metric, counsellor_user_id,
+                               audience_id, source_type, status_id, SUM(n), true
+                        FROM moved
+                        GROUP BY 1, 2, 3, 4, 5, 6, 7
+                        HAVING SUM(n) <> 0
+                        """)
+                .setParameter("instituteId", instituteId)
+                .setParameter("beforeDay", beforeDay)
+                .executeUpdate();
+    }
+}
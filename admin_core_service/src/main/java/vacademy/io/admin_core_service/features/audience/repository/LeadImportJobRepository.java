@@ -0,0 +1,72 @@
+package vacademy.io.admin_core_service.features.audience.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import vacademy.io.admin_core_service.features.audience.entity.LeadImportJob;
+
+import java.sql.Timestamp;
+
+@Repository
+public interface LeadImportJobRepository extends JpaRepository<LeadImportJob, String> {
+
+    /**
+     * Publishes a job's running totals after each chunk. Only the counters are
+     * touched, so a poll never waits on (or overwrites) the results column.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE lead_import_job
+            SET status = :status,
+                processed_rows = :processed,
+                successful = :successful,
+                failed = :failed,
+                skipped = :skipped,
+                updated_at = now()
+            WHERE id = :jobId
+            """, nativeQuery = true)
+    int updateProgress(@Param("jobId") String jobId,
+                       @Param("status") String status,
+                       @Param("processed") int processed,
+                       @Param("successful") int successful,
+                       @Param("failed") int failed,
+                       @Param("skipped") int skipped);
+
+    /**
+     * Moves a QUEUED job to RUNNING. Returns 0 if it is no longer queued — e.g. the
+     * stale-job sweep already failed it while it sat in the executor queue — in which
+     * case the runner must not start it.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE lead_import_job
+            SET status = 'RUNNING',
+                updated_at = now()
+            WHERE id = :jobId
+              AND status = 'QUEUED'
+            """, nativeQuery = true)
+    int claim(@Param("jobId") String jobId);
+
+    /**
+     * Fails jobs that stopped reporting progress: their replica restarted (or died)
+     * mid-import, so nothing is left to finish them. Live jobs bump updated_at after
+     * every chunk.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE lead_import_job
+            SET status = 'FAILED',
+                error_message = :message,
+                updated_at = now(),
+                completed_at = now()
+            WHERE status IN ('QUEUED', 'RUNNING')
+              AND updated_at < :cutoff
+            """, nativeQuery = true)
+    int failStaleJobs(@Param("cutoff") Timestamp cutoff, @Param("message") String message);
+}
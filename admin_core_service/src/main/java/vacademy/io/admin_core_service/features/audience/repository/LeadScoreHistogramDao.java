@@ -0,0 +1,120 @@
+package vacademy.io.admin_core_service.features.audience.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Queries over lead_score_histogram and lead_score_histogram_delta (V470).
+ * trg_lead_score_histogram only appends ±1 delta rows; a bucket's count is its base
+ * lead_count plus the deltas not yet folded in by {@link #foldDeltas}.
+ */
+@Repository
+public class LeadScoreHistogramDao {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /** {audience_id, raw_score, lead_count} of the non-empty buckets of the given campaigns, deltas included. */
+    @SuppressWarnings("unchecked")
+    public List<Object[]> findBuckets(Collection<String> audienceIds) {
+        return entityManager.createNativeQuery("""
+                        SELECT audience_id, raw_score, SUM(n) AS lead_count
+                        FROM (
+                            SELECT audience_id, raw_score, lead_count AS n
+                            FROM lead_score_histogram
+                            WHERE audience_id IN (:audienceIds)
+                            UNION ALL
+                            SELECT audience_id, raw_score, delta AS n
+                            FROM lead_score_histogram_delta
+                            WHERE audience_id IN (:audienceIds)
+                        ) buckets
+                        GROUP BY audience_id, raw_score
+                        HAVING SUM(n) > 0
+                        """)
+                .setParameter("audienceIds", audienceIds)
+                .getResultList();
+    }
+
+    /** Campaigns with deltas not yet folded in, i.e. whose scores changed since the last sync. */
+    @SuppressWarnings("unchecked")
+    public List<String> findChangedAudiences() {
+        return entityManager.createNativeQuery("""
+                        SELECT DISTINCT audience_id
+                        FROM lead_score_histogram_delta
+                        """)
+                .getResultList();
+    }
+
+    /**
+     * Moves one campaign's deltas into its base bucket rows. The DELETE and the upsert
+     * commit together, so a concurrent reader sees either the deltas or the updated
+     * base, never both or neither. Deltas committed after the statement starts are left
+     * for the next sync. Only the sync job writes the base rows, so this never waits on
+     * a score writer.
+     *
+     * @return delta rows folded
+     */
+    public int foldDeltas(String audienceId) {
+        Object folded = entityManager.createNativeQuery("""
+                        WITH folded AS (
+                            DELETE FROM lead_score_histogram_delta
+                            WHERE audience_id = :audienceId
+                            RETURNING raw_score, delta
+                        ), summed AS (
+                            SELECT raw_score, SUM(delta) AS delta, COUNT(*) AS rows_folded
+                            FROM folded
+                            GROUP BY raw_score
+                        ), upserted AS (
+                            INSERT INTO lead_score_histogram (audience_id, raw_score, lead_count)
+                            SELECT :audienceId, raw_score, delta
+                            FROM summed
+                            WHERE delta <> 0
+                            ON CONFLICT (audience_id, raw_score)
+                            DO UPDATE SET lead_count = lead_score_histogram.lead_count + EXCLUDED.lead_count
+                        )
+                        SELECT CAST(COALESCE(SUM(rows_folded), 0) AS INTEGER) FROM summed
+                        """)
+                .setParameter("audienceId", audienceId)
+                .getSingleResult();
+        return ((Number) folded).intValue();
+    }
+
+    /**
+     * Rewrites lead_score.percentile_rank for one campaign from its base histogram
+     * (call after {@link #foldDeltas} in the same transaction) —
+     * the same value PERCENT_RANK() OVER (ORDER BY raw_score) * 100 gives, cast to
+     * the DECIMAL(5,2) column the same way. Rows already holding the right value
+     * are left alone.
+     *
+     * @return rows rewritten
+     */
+    public int rewritePercentiles(String audienceId) {
+        return entityManager.createNativeQuery("""
+                        UPDATE lead_score ls
+                        SET percentile_rank = h.pct, updated_at = NOW()
+                        FROM (
+                            SELECT raw_score,
+                                   CAST(CASE WHEN total > 1
+                                             THEN (below * 100.0) / (total - 1)
+                                             ELSE 0 END AS DECIMAL(5,2)) AS pct
+                            FROM (
+                                SELECT raw_score,
+                                       SUM(lead_count) OVER (ORDER BY raw_score) - lead_count AS below,
+                                       SUM(lead_count) OVER () AS total
+                                FROM lead_score_histogram
+                                WHERE audience_id = :audienceId
+                                  AND lead_count > 0
+                            ) buckets
+                        ) h
+                        WHERE ls.audience_id = :audienceId
+                          AND ls.raw_score = h.raw_score
+                          AND ls.percentile_rank IS DISTINCT FROM h.pct
+                        """)
+                .setParameter("audienceId", audienceId)
+                .executeUpdate();
+    }
+}
@@ -53,10 +53,4 @@ public interface LeadScoreRepository extends JpaRepository<LeadScore, String> {
         AND ls.institute_id = :instituteId
         """, nativeQuery = true)
     void recalculatePercentilesForInstitute(@Param("instituteId") String instituteId);
-
-    /**
-     * Get all distinct audience IDs that have lead scores (for batch job).
-     */
-    @Query("SELECT DISTINCT ls.audienceId FROM LeadScore ls")
-    List<String> findDistinctAudienceIds();
 }
@@ -0,0 +1,46 @@
+package vacademy.io.admin_core_service.features.audience.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import vacademy.io.admin_core_service.features.audience.repository.CrmReportCubeDao;
+import vacademy.io.admin_core_service.features.audience.service.CrmReportCubeService;
+
+import java.util.List;
+
+/**
+ * Nightly rebuild + compaction of the CRM report cube, one institute at a time
+ * (see {@link CrmReportCubeService#compact}). The first run after deploy builds
+ * every institute's history in day-range chunks; until then the reports keep
+ * reading the raw tables.
+ *
+ * <p>Off-peak because each institute's lead status and follow-up writes wait on
+ * the chunk being rebuilt. {@code @SchedulerLock} keeps it to one replica.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CrmReportCubeCompactionJob {
+
+    private final CrmReportCubeDao crmReportCubeDao;
+    private final CrmReportCubeService crmReportCubeService;
+
+    @Scheduled(cron = "${crm.report-cube.compaction-cron:0 15 3 * * *}")
+    @SchedulerLock(name = "CrmReportCubeCompaction", lockAtMostFor = "PT2H", lockAtLeastFor = "PT1M")
+    public void compact() {
+        List<String> instituteIds = crmReportCubeDao.findCrmInstituteIds();
+        int failed = 0;
+        for (String instituteId : instituteIds) {
+            try {
+                crmReportCubeService.compact(instituteId);
+            } catch (Exception e) {
+                // one institute's failure must not stop the sweep
+                failed++;
+                log.error("[CrmReportCube] compaction failed for institute {}", instituteId, e);
+            }
+        }
+        log.info("[CrmReportCube] compacted {} institutes ({} failed)", instituteIds.size() - failed, failed);
+    }
+}
@@ -0,0 +1,36 @@
+package vacademy.io.admin_core_service.features.audience.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import vacademy.io.admin_core_service.features.audience.service.BulkLeadIngestionService;
+
+/**
+ * Moves bulk lead imports that stopped reporting progress to FAILED. Import jobs run
+ * in memory on the replica that accepted the upload; if it restarts mid-import the
+ * job row would otherwise stay QUEUED / RUNNING forever and the import dialog would
+ * poll it indefinitely. A running job bumps updated_at after every chunk, so the
+ * threshold only has to cover one slow chunk (or a long wait in the import queue).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LeadImportJobSweeper {
+
+    private final BulkLeadIngestionService bulkLeadIngestionService;
+
+    @Value("${lead.import.stale-after-minutes:60}")
+    private long staleAfterMinutes;
+
+    @Scheduled(fixedDelayString = "${lead.import.stale-sweep-interval-ms:300000}")
+    @SchedulerLock(name = "LeadImportJobSweeper", lockAtMostFor = "PT4M", lockAtLeastFor = "PT30S")
+    public void sweep() {
+        int failed = bulkLeadIngestionService.failStaleJobs(staleAfterMinutes);
+        if (failed > 0) {
+            log.warn("[LeadImport] marked {} stale import jobs as FAILED", failed);
+        }
+    }
+}
@@ -49,6 +49,7 @@ public class ActivityReportService {
     private final ReportScopeResolver reportScopeResolver;
     private final LeadReportSettingService leadReportSettingService;
     private final AuthService authService;
+    private final CrmReportCubeService crmReportCubeService;
 
     /** Mirrors CallingReportService — last 30 days when from/to omitted. */
     private static final int DEFAULT_RANGE_DAYS = 30;
@@ -160,6 +161,29 @@ public class ActivityReportService {
             GROUP BY lf.closed_by, 2
             """;
 
+    /**
+     * The three lead-linked sources above in one read of crm_report_cube (V471),
+     * whose day column is already the institute-TZ date and which already leaves
+     * OPTED_OUT leads out. Used once the institute's cube is built in the current
+     * report timezone ({@link CrmReportCubeService#isBuilt}).
+     */
+    private static final String CUBE_LEAD_ACTIVITY_SQL = """
+            SELECT c.counsellor_user_id AS user_id,
+                   c.day,
+                   c.metric,
+                   SUM(c.n) AS n
+            FROM crm_report_cube c
+            WHERE c.institute_id = :instituteId
+              AND c.day >= :fromDay
+              AND c.day <= :toDay
+              AND c.metric IN ('STATUS_CHANGE', 'FOLLOWUP_CREATED', 'FOLLOWUP_CLOSED')
+              AND c.counsellor_user_id IS NOT NULL
+              AND (:scopeCsv IS NULL OR c.counsellor_user_id = ANY(STRING_TO_ARRAY(:scopeCsv, ',')))
+              AND (:audienceId IS NULL OR c.audience_id = :audienceId)
+            GROUP BY c.counsellor_user_id, c.day, c.metric
+            HAVING SUM(c.n) <> 0
+            """;
+
     // ─────────────────────────────────────────────────────────────────────
     // activity-timeline
     // ─────────────────────────────────────────────────────────────────────
@@ -183,9 +207,13 @@ public class ActivityReportService {
 
         accumulate(NOTES_SQL, params, byUser, dailyTotals, Field.NOTES);
         accumulate(CALLS_SQL, params, byUser, dailyTotals, Field.CALLS);
-        accumulate(STATUS_CHANGES_SQL, params, byUser, dailyTotals, Field.STATUS_CHANGES);
-        accumulate(FOLLOWUPS_CREATED_SQL, params, byUser, dailyTotals, Field.FOLLOWUPS_CREATED);
-        accumulate(FOLLOWUPS_CLOSED_SQL, params, byUser, dailyTotals, Field.FOLLOWUPS_CLOSED);
+        if (crmReportCubeService.isBuilt(instituteId, tz.getId())) {
+            accumulateCube(params, byUser, dailyTotals);
+        } else {
+            accumulate(STATUS_CHANGES_SQL, params, byUser, dailyTotals, Field.STATUS_CHANGES);
+            accumulate(FOLLOWUPS_CREATED_SQL, params, byUser, dailyTotals, Field.FOLLOWUPS_CREATED);
+            accumulate(FOLLOWUPS_CLOSED_SQL, params, byUser, dailyTotals, Field.FOLLOWUPS_CLOSED);
+        }
 
         List<ActivityTimelineReportDTO.CounsellorRow> byCounsellor = new ArrayList<>(byUser.values());
         byCounsellor.forEach(r -> r.setTotal(
@@ -228,24 +256,43 @@ public class ActivityReportService {
                             Map<String, ActivityTimelineReportDTO.CounsellorRow> byUser,
                             Map<String, Long> dailyTotals, Field field) {
         jdbc.query(sql, params, rs -> {
-            String userId = rs.getString("user_id");
-            if (userId == null) return; // no counsellor to attribute — drop
-            long n = rs.getLong("n");
-            ActivityTimelineReportDTO.CounsellorRow row = byUser.computeIfAbsent(userId,
-                    id -> ActivityTimelineReportDTO.CounsellorRow.builder().userId(id).build());
-            switch (field) {
-                case NOTES -> row.setNotes(row.getNotes() + n);
-                case CALLS -> row.setCalls(row.getCalls() + n);
-                case STATUS_CHANGES -> row.setStatusChanges(row.getStatusChanges() + n);
-                case FOLLOWUPS_CREATED -> row.setFollowupsCreated(row.getFollowupsCreated() + n);
-                case FOLLOWUPS_CLOSED -> row.setFollowupsClosed(row.getFollowupsClosed() + n);
-            }
-            String day = rs.getDate("day").toLocalDate().toString();
-            dailyTotals.merge(day, n, Long::sum);
+            add(byUser, dailyTotals, rs.getString("user_id"), rs.getDate("day").toLocalDate(),
+                    rs.getLong("n"), field);
         });
     }
 
-    /** Common bind set for the five activity-source queries. */
+    /** {@link #accumulate} for the cube read, whose rows carry their source as {@code metric}. */
+    private void accumulateCube(MapSqlParameterSource params,
+                                Map<String, ActivityTimelineReportDTO.CounsellorRow> byUser,
+                                Map<String, Long> dailyTotals) {
+        jdbc.query(CUBE_LEAD_ACTIVITY_SQL, params, rs -> {
+            Field field = switch (rs.getString("metric")) {
+                case "STATUS_CHANGE" -> Field.STATUS_CHANGES;
+                case "FOLLOWUP_CREATED" -> Field.FOLLOWUPS_CREATED;
+                default -> Field.FOLLOWUPS_CLOSED;
+            };
+            add(byUser, dailyTotals, rs.getString("user_id"), rs.getDate("day").toLocalDate(),
+                    rs.getLong("n"), field);
+        });
+    }
+
+    private static void add(Map<String, ActivityTimelineReportDTO.CounsellorRow> byUser,
+                            Map<String, Long> dailyTotals,
+                            String userId, LocalDate day, long n, Field field) {
+        if (userId == null) return; // no counsellor to attribute — drop
+        ActivityTimelineReportDTO.CounsellorRow row = byUser.computeIfAbsent(userId,
+                id -> ActivityTimelineReportDTO.CounsellorRow.builder().userId(id).build());
+        switch (field) {
+            case NOTES -> row.setNotes(row.getNotes() + n);
+            case CALLS -> row.setCalls(row.getCalls() + n);
+            case STATUS_CHANGES -> row.setStatusChanges(row.getStatusChanges() + n);
+            case FOLLOWUPS_CREATED -> row.setFollowupsCreated(row.getFollowupsCreated() + n);
+            case FOLLOWUPS_CLOSED -> row.setFollowupsClosed(row.getFollowupsClosed() + n);
+        }
+        dailyTotals.merge(day.toString(), n, Long::sum);
+    }
+
+    /** Common bind set for the activity-source queries and the cube read. */
     private MapSqlParameterSource activityParams(String instituteId, String fromDate, String toDate,
                                                  ZoneId tz, String scopeCsv, String audienceId) {
         Window w = resolveWindow(fromDate, toDate, tz);
@@ -255,7 +302,9 @@ public class ActivityReportService {
                 .addValue("scopeCsv", scopeCsv, java.sql.Types.VARCHAR)
                 .addValue("audienceId", trimToNull(audienceId), java.sql.Types.VARCHAR)
                 .addValue("fromUtc", w.fromUtc(), java.sql.Types.TIMESTAMP)
-                .addValue("toUtc", w.toUtc(), java.sql.Types.TIMESTAMP);
+                .addValue("toUtc", w.toUtc(), java.sql.Types.TIMESTAMP)
+                .addValue("fromDay", w.fromDay(), java.sql.Types.DATE)
+                .addValue("toDay", w.toDay(), java.sql.Types.DATE);
     }
 
     /**
@@ -272,10 +321,12 @@ public class ActivityReportService {
         LocalDate from = parseOr(fromDate, to.minusDays(DEFAULT_RANGE_DAYS - 1L));
         return new Window(
                 from.atStartOfDay(tz).withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime(),
-                to.plusDays(1).atStartOfDay(tz).withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime());
+                to.plusDays(1).atStartOfDay(tz).withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime(),
+                from, to);
     }
 
-    private record Window(LocalDateTime fromUtc, LocalDateTime toUtc) {
+    /** UTC bounds [fromUtc, toUtc) for the raw sources, the same window as institute-TZ days [fromDay, toDay]. */
+    private record Window(LocalDateTime fromUtc, LocalDateTime toUtc, LocalDate fromDay, LocalDate toDay) {
     }
 
     /** Bad/missing timezone config must degrade, not 500 the report. */
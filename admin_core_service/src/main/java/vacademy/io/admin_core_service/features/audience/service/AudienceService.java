@@ -136,10 +136,28 @@ public class AudienceService {
     @Autowired
     private vacademy.io.admin_core_service.features.counsellor_workbench.service.CounsellorScopeService counsellorScopeService;
 
-    /** Resolves a sub-org admin's lead scope (their sub-org's members) — see getLeads. */
+    /** Resolves a sub-org admin's lead scope (their sub-org's members) — see leadCounsellorOptions. */
     @Autowired
     private vacademy.io.admin_core_service.features.suborg.service.SubOrgLeadScopeService subOrgLeadScopeService;
 
+    /** Per-caller lead scope (access mode + counsellor / sub-org ids), cached across pages — see getLeads. */
+    @Autowired
+    private LeadListingScopeService leadListingScopeService;
+
+    private static final String[] NO_FILTER_VALUES = new String[0];
+
+    /**
+     * Lead-list totals keyed by every filter bound into the count. Counting a
+     * 200k-lead institute costs as much as the old OFFSET page did, so paging
+     * through a list reuses its total for up to a minute instead of recounting —
+     * totalElements can trail a lead created meanwhile by that long.
+     */
+    private final com.github.benmanes.caffeine.cache.Cache<List<Object>, Long> leadCountCache =
+            com.github.benmanes.caffeine.cache.Caffeine.newBuilder()
+                    .maximumSize(10_000)
+                    .expireAfterWrite(java.time.Duration.ofMinutes(1))
+                    .build();
+
     @Autowired
     private InstituteCustomFieldRepository instituteCustomFieldRepository;
 
@@ -176,6 +194,9 @@ public class AudienceService {
     @Autowired
     private vacademy.io.admin_core_service.features.audience.repository.LeadScoreRepository leadScoreRepository;
 
+    @Autowired
+    private LeadScorePercentileService leadScorePercentileService;
+
     @Autowired
     private vacademy.io.admin_core_service.features.audience.repository.UserLeadProfileRepository userLeadProfileRepository;
 
@@ -1145,10 +1166,6 @@ public class AudienceService {
                         false // Don't send credentials email
                 );
                 userId = createdUser.getId();
-                // Prepare effectively final variables for lambda
-                final UserDTO userForNotification = createdUser;
-                final String instituteIdForNotification = instituteId;
-                final String audienceInstituteId = audience.getInstituteId();
 
                 // Duplicate submission guard: same audience + same user
                 if (StringUtils.hasText(userId) &&
@@ -1159,310 +1176,340 @@ public class AudienceService {
                 }
 
                 // 2. Create audience response with user_id.
-                // Optional CSV/bulk-supplied pipeline status -> lead_status_id (the status
-                // chip). Null when not supplied or unrecognised, preserving prior behaviour.
-                String resolvedLeadStatusId = resolveLeadStatusId(
-                        instituteId, requestDTO.getLeadStatusKey());
-                AudienceResponse response = AudienceResponse.builder()
-                        .audienceId(requestDTO.getAudienceId())
-                        .sourceType(requestDTO.getSourceType())
-                        .sourceId(requestDTO.getSourceId())
-                        .userId(userId) // Set user_id if created successfully
-                        .leadStatusId(resolvedLeadStatusId)
-                        .parentEmail(userDTO.getEmail())
-                        .parentMobile(truncateForParentMobileColumn(userDTO.getMobileNumber()))
-                        .workflowActivateDayAt(calculateWorkflowActivateDayAt(audience))
-                        .initialScore(audience.getDefaultInitialScore())
-                        .build();
-
-                AudienceResponse savedResponse = audienceResponseRepository.save(response);
+                AudienceResponse savedResponse = audienceResponseRepository.save(
+                        buildLeadResponse(requestDTO, audience, instituteId, userId, userDTO));
                 logger.info("Saved audience response with ID: {} and user_id: {}",
                         savedResponse.getId(), userId != null ? userId : "null");
-                logLeadSubmitted(savedResponse);
 
-                // 3. Save custom field values
-                if (!CollectionUtils.isEmpty(requestDTO.getCustomFieldValues())) {
-                    saveCustomFieldValues(
-                            savedResponse.getId(),
-                            requestDTO.getCustomFieldValues(),
-                            audience.getInstituteId(),
-                            audience.getId());
-                }
+                return completeLeadSubmission(savedResponse, requestDTO, audience, createdUser,
+                        emailSynthesized, repeatLeadSettings);
 
-                // 3b. Calculate initial lead score (real-time).
-                // Custom fields are saved first so the completeness factor sees them.
-                // Without this call no LeadScore row is ever created — campaign_count
-                // and best_score on UserLeadProfile would stay at 0 forever for every
-                // lead that comes through this endpoint.
-                try {
-                    leadScoringService.calculateAndSaveScore(
-                            savedResponse.getId(),
-                            savedResponse.getAudienceId(),
-                            instituteId,
-                            savedResponse.getSourceType(),
-                            savedResponse.getEnquiryId());
-                } catch (Exception e) {
-                    logger.error("Failed to calculate initial lead score for response {}: {}",
-                            savedResponse.getId(), e.getMessage());
-                    // Non-blocking — lead is still saved even if scoring fails
-                }
+            }
+        } catch (Exception e) {
+            logger.error("Error creating user in auth_service: {}", e.getMessage());
 
-                // 3c. Counsellor assignment — manual owner wins (e.g. a CSV bulk import that
-                // carries a lead owner per row), otherwise pool auto-assignment or the
-                // repeat-lead policy. Centralised in applyCounsellorAssignment. Non-blocking —
-                // submission still succeeds if routing fails.
-                applyCounsellorAssignment(repeatLeadSettings, savedResponse, userId, instituteId,
-                        requestDTO.getCounsellorId(), requestDTO.getCounsellorName(),
-                        userForNotification.getFullName(), audience.getCampaignName());
-                applyRepeatLeadStatus(repeatLeadSettings, userId, instituteId);
+        }
+        return "Error in submitting the response";
 
-                // 4. Build custom field map for email
-                Map<String, String> customFieldsForEmail = buildCustomFieldMapForEmail(savedResponse.getId());
+    }
 
-                // 4a. Workflow-aware path: if an active workflow trigger exists for this
-                // (institute, audience, AUDIENCE_LEAD_SUBMISSION), delegate to the workflow
-                // engine — mirroring the Zoho webhook path. This ensures audience-side and
-                // admin-manual lead submissions fire the same workflows that Zoho leads do.
-                // If no trigger is configured for the audience, we fall through to the
-                // existing direct-email blocks below (no behavior change for those cases).
-                boolean workflowTriggerExists = workflowTriggerService
-                        .findByInstituteIdEventNameAndEventId(
-                                instituteId,
-                                WorkflowTriggerEvent.AUDIENCE_LEAD_SUBMISSION.name(),
-                                requestDTO.getAudienceId())
-                        .isPresent();
-
-                if (workflowTriggerExists) {
-                    logger.info(
-                            "Workflow trigger found for audience {}. Delegating lead submission to workflow engine (skipping direct email send).",
-                            requestDTO.getAudienceId());
-
-                    // Current submission time (matches V2 / Zoho path formatting)
-                    java.time.ZonedDateTime now = java.time.ZonedDateTime.now();
-                    java.time.format.DateTimeFormatter formatter = java.time.format.DateTimeFormatter
-                            .ofPattern("MMM dd, yyyy hh:mm a z");
-                    String submissionTime = now.format(formatter);
-
-                    // Build default email bodies so workflow nodes that consume
-                    // respondentEmailRequests / adminEmailRequests have content to send.
-                    // Workflows that build their own emails from #user / #customFields
-                    // will simply ignore these — same contract as the Zoho path.
-                    String respondentEmailBody = buildDefaultEmailBody(
-                            audience.getCampaignName(),
-                            userForNotification.getFullName(),
-                            userForNotification.getEmail(),
-                            customFieldsForEmail);
-                    String respondentEmailSubject = "Thank You for Submitting Your Response for Campaign - "
-                            + audience.getCampaignName();
-
-                    String adminEmailBody = buildAdminNotificationBody(
-                            audience.getCampaignName(),
-                            userForNotification.getFullName(),
-                            userForNotification.getEmail(),
-                            customFieldsForEmail);
-                    String adminEmailSubject = "New Lead Submitted - " + audience.getCampaignName();
-
-                    // Parse admin notification recipients (toNotify)
-                    List<String> adminEmails = new ArrayList<>();
-                    if (StringUtils.hasText(audience.getToNotify())) {
-                        for (String email : audience.getToNotify().split(",")) {
-                            String trimmedEmail = email.trim();
-                            if (StringUtils.hasText(trimmedEmail)) {
-                                adminEmails.add(trimmedEmail);
-                            }
-                        }
-                    }
+    /**
+     * The audience_response row for a submitted lead, before it is saved. Shared by
+     * {@link #submitLead} and the bulk import pipeline (BulkLeadIngestionService), which
+     * saves many of these in one batch.
+     */
+    public AudienceResponse buildLeadResponse(SubmitLeadRequestDTO requestDTO, Audience audience, String instituteId,
+            String userId, UserDTO userDTO) {
+        // Optional CSV/bulk-supplied pipeline status -> lead_status_id (the status
+        // chip). Null when not supplied or unrecognised, preserving prior behaviour.
+        String resolvedLeadStatusId = resolveLeadStatusId(
+                instituteId, requestDTO.getLeadStatusKey());
+        return AudienceResponse.builder()
+                .audienceId(requestDTO.getAudienceId())
+                .sourceType(requestDTO.getSourceType())
+                .sourceId(requestDTO.getSourceId())
+                .userId(userId) // Set user_id if created successfully
+                .leadStatusId(resolvedLeadStatusId)
+                .parentEmail(userDTO.getEmail())
+                .parentMobile(truncateForParentMobileColumn(userDTO.getMobileNumber()))
+                .workflowActivateDayAt(calculateWorkflowActivateDayAt(audience))
+                .initialScore(audience.getDefaultInitialScore())
+                .build();
+    }
 
-                    // Build audience DTO for workflow context
-                    AudienceDTO audienceDTO = AudienceDTO.builder()
-                            .id(audience.getId())
-                            .campaignName(audience.getCampaignName())
-                            .instituteId(audience.getInstituteId())
-                            .status(audience.getStatus())
-                            .toNotify(audience.getToNotify())
-                            .sendRespondentEmail(audience.getSendRespondentEmail())
-                            .build();
+    /**
+     * Everything {@link #submitLead} does once the audience_response row exists: journey
+     * event, custom field values, initial score, counsellor assignment, and the workflow
+     * trigger or direct emails. The bulk import pipeline runs this per saved row on its
+     * fan-out pool, each call in its own transaction.
+     *
+     * @return the response id
+     */
+    public String completeLeadSubmission(AudienceResponse savedResponse, SubmitLeadRequestDTO requestDTO,
+            Audience audience, UserDTO createdUser, boolean emailSynthesized,
+            LeadDedupSettingService.RepeatLeadSettings repeatLeadSettings) {
+        String userId = savedResponse.getUserId();
+        String instituteId = audience.getInstituteId();
+        final UserDTO userForNotification = createdUser;
+        final String instituteIdForNotification = instituteId;
+        final String audienceInstituteId = audience.getInstituteId();
+        logLeadSubmitted(savedResponse);
 
-                    // Build context data — shape mirrors submitLeadV2 / Zoho path so
-                    // existing workflow node configs work without modification.
-                    Map<String, Object> contextData = new HashMap<>();
-                    contextData.put("user", userForNotification);
-                    contextData.put("audience", audienceDTO);
-                    contextData.put("audienceId", requestDTO.getAudienceId());
-                    contextData.put("instituteId", instituteId);
-                    contextData.put("instituteName",
-                            instituteRepository.findById(instituteId).map(Institute::getInstituteName).orElse(""));
-                    contextData.put("customFields", customFieldsForEmail);
-                    contextData.put("submissionTime", submissionTime);
-                    contextData.put("responseId", savedResponse.getId());
-                    // Lead-grain identity the CALL_AI / SEND_WHATSAPP nodes read directly
-                    // (phone/parentMobile + userId/leadUserId).
-                    contextData.put("userId", savedResponse.getUserId());
-                    contextData.put("leadUserId", savedResponse.getUserId());
-                    contextData.put("phone", savedResponse.getParentMobile());
-                    contextData.put("parentMobile", savedResponse.getParentMobile());
-                    contextData.put("campaignName", audience.getCampaignName());
-                    // The SEND_EMAIL node sends one email per respondentEmailRequests
-                    // entry (the flag alone doesn't gate it) — suppress the entry for
-                    // synthesized placeholder addresses, which are non-deliverable and
-                    // would bounce. Same contract as the form-webhook path.
-                    boolean wantRespondentEmail = audience.getSendRespondentEmail() == null
-                            || audience.getSendRespondentEmail();
-                    contextData.put("sendRespondentEmail", !emailSynthesized && wantRespondentEmail);
-
-                    List<Map<String, Object>> respondentEmailRequests = new ArrayList<>();
-                    if (!emailSynthesized) {
-                        Map<String, Object> respondentEmailRequest = new HashMap<>();
-                        respondentEmailRequest.put("to", userForNotification.getEmail());
-                        respondentEmailRequest.put("subject", respondentEmailSubject);
-                        respondentEmailRequest.put("body", respondentEmailBody);
-                        respondentEmailRequests.add(respondentEmailRequest);
-                    }
-                    contextData.put("respondentEmailRequests", respondentEmailRequests);
-
-                    List<Map<String, Object>> adminEmailRequests = new ArrayList<>();
-                    for (String adminEmail : adminEmails) {
-                        Map<String, Object> adminEmailRequest = new HashMap<>();
-                        adminEmailRequest.put("to", adminEmail);
-                        adminEmailRequest.put("subject", adminEmailSubject);
-                        adminEmailRequest.put("body", adminEmailBody);
-                        adminEmailRequests.add(adminEmailRequest);
-                    }
-                    contextData.put("adminEmailRequests", adminEmailRequests);
+        // 3. Save custom field values
+        if (!CollectionUtils.isEmpty(requestDTO.getCustomFieldValues())) {
+            saveCustomFieldValues(
+                    savedResponse.getId(),
+                    requestDTO.getCustomFieldValues(),
+                    audience.getInstituteId(),
+                    audience.getId());
+        }
 
-                    workflowTriggerService.handleTriggerEvents(
-                            WorkflowTriggerEvent.AUDIENCE_LEAD_SUBMISSION.name(),
-                            requestDTO.getAudienceId(),
-                            instituteId,
-                            contextData);
-
-                    // The workflow context carries adminEmailRequests, but a workflow that only
-                    // emails the respondent has no consumer for it — the to_notify admin alert
-                    // would be silently dropped. Send it directly unless the workflow itself
-                    // already includes an admin-notify node (guarded to avoid double-sending).
-                    notifyToNotifyAdminsIfWorkflowDoesNot(
-                            requestDTO.getAudienceId(), instituteId, audience,
-                            userForNotification.getFullName(), userForNotification.getEmail(),
-                            customFieldsForEmail, contextData);
-
-                    return savedResponse.getId();
-                }
+        // 3b. Calculate initial lead score (real-time).
+        // Custom fields are saved first so the completeness factor sees them.
+        // Without this call no LeadScore row is ever created — campaign_count
+        // and best_score on UserLeadProfile would stay at 0 forever for every
+        // lead that comes through this endpoint.
+        try {
+            leadScoringService.calculateAndSaveScore(
+                    savedResponse.getId(),
+                    savedResponse.getAudienceId(),
+                    instituteId,
+                    savedResponse.getSourceType(),
+                    savedResponse.getEnquiryId());
+        } catch (Exception e) {
+            logger.error("Failed to calculate initial lead score for response {}: {}",
+                    savedResponse.getId(), e.getMessage());
+            // Non-blocking — lead is still saved even if scoring fails
+        }
 
-                // No workflow trigger configured for this audience — preserve the
-                // original direct-email behavior below.
-
-                // 5. Send notification to respondent (if enabled; never to a synthesized
-                // placeholder address — non-deliverable by design, would bounce on SES)
-                if (!emailSynthesized
-                        && (audience.getSendRespondentEmail() == null || audience.getSendRespondentEmail())) {
-                    logger.info("Sending notification to respondent: {}", userForNotification.getEmail());
-
-                    // Fetch the most recent EMAIL template config for this institute and event
-                    Optional<NotificationEventConfig> configOpt = notificationEventConfigRepository
-                            .findFirstByEventNameAndSourceTypeAndSourceIdAndTemplateTypeAndIsActiveTrueOrderByUpdatedAtDesc(
-                                    NotificationEventType.AUDIENCE_FORM_SUBMISSION,
-                                    NotificationSourceType.AUDIENCE,
-                                    requestDTO.getAudienceId(),
-                                    NotificationTemplateType.EMAIL);
-
-                    if (configOpt.isPresent()) {
-                        // Get current time with timezone
-                        java.time.ZonedDateTime now = java.time.ZonedDateTime.now();
-                        java.time.format.DateTimeFormatter formatter = java.time.format.DateTimeFormatter
-                                .ofPattern("MMM dd, yyyy hh:mm a z");
-                        String submissionTime = now.format(formatter);
-
-                        // Send email using template with dynamic parameters
-                        NotificationTemplateVariables templateVars = NotificationTemplateVariables.builder()
-                                .userFullName(userForNotification.getFullName())
-                                .userEmail(userForNotification.getEmail())
-                                .instituteId(audienceInstituteId)
-                                .campaignName(audience.getCampaignName())
-                                .customFields(customFieldsForEmail)
-                                .submissionTime(submissionTime)
-                                .build();
+        // 3c. Counsellor assignment — manual owner wins (e.g. a CSV bulk import that
+        // carries a lead owner per row), otherwise pool auto-assignment or the
+        // repeat-lead policy. Centralised in applyCounsellorAssignment. Non-blocking —
+        // submission still succeeds if routing fails.
+        applyCounsellorAssignment(repeatLeadSettings, savedResponse, userId, instituteId,
+                requestDTO.getCounsellorId(), requestDTO.getCounsellorName(),
+                userForNotification.getFullName(), audience.getCampaignName());
+        applyRepeatLeadStatus(repeatLeadSettings, userId, instituteId);
 
-                        sendUniqueLinkService.sendUniqueLinkByEmailByEnrollInvite(
-                                instituteIdForNotification,
-                                userForNotification,
-                                configOpt.get().getTemplateId(),
-                                null,
-                                templateVars);
-                        logger.info("Sent templated email to respondent: {}", userForNotification.getEmail());
-                    } else {
-                        // Send default plain email
-                        String defaultEmailBody = buildDefaultEmailBody(
-                                audience.getCampaignName(),
-                                userForNotification.getFullName(),
-                                userForNotification.getEmail(),
-                                customFieldsForEmail);
-
-                        logger.info("No template found, sending default email to: {}", userForNotification.getEmail());
-                        logger.info("Default email body: {}", defaultEmailBody);
-
-                        // Send default HTML email
-                        GenericEmailRequest emailRequest = new GenericEmailRequest();
-                        emailRequest.setTo(userForNotification.getEmail());
-                        emailRequest.setSubject(
-                                "Thank You for Submitting Your Response for Campaign -" + audience.getCampaignName());
-                        emailRequest.setBody(defaultEmailBody);
+        // 4. Build custom field map for email
+        Map<String, String> customFieldsForEmail = buildCustomFieldMapForEmail(savedResponse.getId());
 
-                        try {
-                            notificationService.sendGenericHtmlMailViaUnified(emailRequest, instituteIdForNotification);
-                            logger.info("Sent default email to respondent: {}", userForNotification.getEmail());
-                        } catch (Exception ex) {
-                            logger.error("Failed to send default email to {}: {}", userForNotification.getEmail(),
-                                    ex.getMessage());
-                        }
+        // 4a. Workflow-aware path: if an active workflow trigger exists for this
+        // (institute, audience, AUDIENCE_LEAD_SUBMISSION), delegate to the workflow
+        // engine — mirroring the Zoho webhook path. This ensures audience-side and
+        // admin-manual lead submissions fire the same workflows that Zoho leads do.
+        // If no trigger is configured for the audience, we fall through to the
+        // existing direct-email blocks below (no behavior change for those cases).
+        boolean workflowTriggerExists = workflowTriggerService
+                .findByInstituteIdEventNameAndEventId(
+                        instituteId,
+                        WorkflowTriggerEvent.AUDIENCE_LEAD_SUBMISSION.name(),
+                        requestDTO.getAudienceId())
+                .isPresent();
+
+        if (workflowTriggerExists) {
+            logger.info(
+                    "Workflow trigger found for audience {}. Delegating lead submission to workflow engine (skipping direct email send).",
+                    requestDTO.getAudienceId());
+
+            // Current submission time (matches V2 / Zoho path formatting)
+            java.time.ZonedDateTime now = java.time.ZonedDateTime.now();
+            java.time.format.DateTimeFormatter formatter = java.time.format.DateTimeFormatter
+                    .ofPattern("MMM dd, yyyy hh:mm a z");
+            String submissionTime = now.format(formatter);
+
+            // Build default email bodies so workflow nodes that consume
+            // respondentEmailRequests / adminEmailRequests have content to send.
+            // Workflows that build their own emails from #user / #customFields
+            // will simply ignore these — same contract as the Zoho path.
+            String respondentEmailBody = buildDefaultEmailBody(
+                    audience.getCampaignName(),
+                    userForNotification.getFullName(),
+                    userForNotification.getEmail(),
+                    customFieldsForEmail);
+            String respondentEmailSubject = "Thank You for Submitting Your Response for Campaign - "
+                    + audience.getCampaignName();
+
+            String adminEmailBody = buildAdminNotificationBody(
+                    audience.getCampaignName(),
+                    userForNotification.getFullName(),
+                    userForNotification.getEmail(),
+                    customFieldsForEmail);
+            String adminEmailSubject = "New Lead Submitted - " + audience.getCampaignName();
+
+            // Parse admin notification recipients (toNotify)
+            List<String> adminEmails = new ArrayList<>();
+            if (StringUtils.hasText(audience.getToNotify())) {
+                for (String email : audience.getToNotify().split(",")) {
+                    String trimmedEmail = email.trim();
+                    if (StringUtils.hasText(trimmedEmail)) {
+                        adminEmails.add(trimmedEmail);
                     }
                 }
+            }
 
-                // 6. Send notifications to additional recipients (to_notify)
-                if (StringUtils.hasText(audience.getToNotify())) {
-                    String[] additionalEmails = audience.getToNotify().split(",");
-                    logger.info("Sending notifications to {} additional recipients", additionalEmails.length);
+            // Build audience DTO for workflow context
+            AudienceDTO audienceDTO = AudienceDTO.builder()
+                    .id(audience.getId())
+                    .campaignName(audience.getCampaignName())
+                    .instituteId(audience.getInstituteId())
+                    .status(audience.getStatus())
+                    .toNotify(audience.getToNotify())
+                    .sendRespondentEmail(audience.getSendRespondentEmail())
+                    .build();
 
-                    for (String email : additionalEmails) {
-                        String trimmedEmail = email.trim();
-                        if (!StringUtils.hasText(trimmedEmail)) {
-                            continue;
-                        }
+            // Build context data — shape mirrors submitLeadV2 / Zoho path so
+            // existing workflow node configs work without modification.
+            Map<String, Object> contextData = new HashMap<>();
+            contextData.put("user", userForNotification);
+            contextData.put("audience", audienceDTO);
+            contextData.put("audienceId", requestDTO.getAudienceId());
+            contextData.put("instituteId", instituteId);
+            contextData.put("instituteName",
+                    instituteRepository.findById(instituteId).map(Institute::getInstituteName).orElse(""));
+            contextData.put("customFields", customFieldsForEmail);
+            contextData.put("submissionTime", submissionTime);
+            contextData.put("responseId", savedResponse.getId());
+            // Lead-grain identity the CALL_AI / SEND_WHATSAPP nodes read directly
+            // (phone/parentMobile + userId/leadUserId).
+            contextData.put("userId", savedResponse.getUserId());
+            contextData.put("leadUserId", savedResponse.getUserId());
+            contextData.put("phone", savedResponse.getParentMobile());
+            contextData.put("parentMobile", savedResponse.getParentMobile());
+            contextData.put("campaignName", audience.getCampaignName());
+            // The SEND_EMAIL node sends one email per respondentEmailRequests
+            // entry (the flag alone doesn't gate it) — suppress the entry for
+            // synthesized placeholder addresses, which are non-deliverable and
+            // would bounce. Same contract as the form-webhook path.
+            boolean wantRespondentEmail = audience.getSendRespondentEmail() == null
+                    || audience.getSendRespondentEmail();
+            contextData.put("sendRespondentEmail", !emailSynthesized && wantRespondentEmail);
+
+            List<Map<String, Object>> respondentEmailRequests = new ArrayList<>();
+            if (!emailSynthesized) {
+                Map<String, Object> respondentEmailRequest = new HashMap<>();
+                respondentEmailRequest.put("to", userForNotification.getEmail());
+                respondentEmailRequest.put("subject", respondentEmailSubject);
+                respondentEmailRequest.put("body", respondentEmailBody);
+                respondentEmailRequests.add(respondentEmailRequest);
+            }
+            contextData.put("respondentEmailRequests", respondentEmailRequests);
+
+            List<Map<String, Object>> adminEmailRequests = new ArrayList<>();
+            for (String adminEmail : adminEmails) {
+                Map<String, Object> adminEmailRequest = new HashMap<>();
+                adminEmailRequest.put("to", adminEmail);
+                adminEmailRequest.put("subject", adminEmailSubject);
+                adminEmailRequest.put("body", adminEmailBody);
+                adminEmailRequests.add(adminEmailRequest);
+            }
+            contextData.put("adminEmailRequests", adminEmailRequests);
 
-                        logger.info("Sending notification to additional recipient: {}", trimmedEmail);
-                        String adminEmailBody = buildAdminNotificationBody(
-                                audience.getCampaignName(),
-                                userForNotification.getFullName(),
-                                userForNotification.getEmail(),
-                                customFieldsForEmail);
+            workflowTriggerService.handleTriggerEvents(
+                    WorkflowTriggerEvent.AUDIENCE_LEAD_SUBMISSION.name(),
+                    requestDTO.getAudienceId(),
+                    instituteId,
+                    contextData);
 
-                        logger.info("No template found, sending default admin notification to: {}", trimmedEmail);
-                        logger.info("Default admin email body: {}", adminEmailBody);
+            // The workflow context carries adminEmailRequests, but a workflow that only
+            // emails the respondent has no consumer for it — the to_notify admin alert
+            // would be silently dropped. Send it directly unless the workflow itself
+            // already includes an admin-notify node (guarded to avoid double-sending).
+            notifyToNotifyAdminsIfWorkflowDoesNot(
+                    requestDTO.getAudienceId(), instituteId, audience,
+                    userForNotification.getFullName(), userForNotification.getEmail(),
+                    customFieldsForEmail, contextData);
 
-                        // Send default HTML email for admin
-                        GenericEmailRequest adminEmailRequest = new GenericEmailRequest();
-                        adminEmailRequest.setTo(trimmedEmail);
-                        adminEmailRequest.setSubject("New Lead Submitted - " + audience.getCampaignName());
-                        adminEmailRequest.setBody(adminEmailBody);
+            return savedResponse.getId();
+        }
 
-                        try {
-                            notificationService.sendGenericHtmlMailViaUnified(adminEmailRequest,
-                                    instituteIdForNotification);
-                            logger.info("Sent default admin notification to: {}", trimmedEmail);
-                        } catch (Exception ex) {
-                            logger.error("Failed to send admin notification to {}: {}", trimmedEmail, ex.getMessage());
-                        }
-                    }
-                }
+        // No workflow trigger configured for this audience — preserve the
+        // original direct-email behavior below.
 
-                return savedResponse.getId();
+        // 5. Send notification to respondent (if enabled; never to a synthesized
+        // placeholder address — non-deliverable by design, would bounce on SES)
+        if (!emailSynthesized
+                && (audience.getSendRespondentEmail() == null || audience.getSendRespondentEmail())) {
+            logger.info("Sending notification to respondent: {}", userForNotification.getEmail());
+
+            // Fetch the most recent EMAIL template config for this institute and event
+            Optional<NotificationEventConfig> configOpt = notificationEventConfigRepository
+                    .findFirstByEventNameAndSourceTypeAndSourceIdAndTemplateTypeAndIsActiveTrueOrderByUpdatedAtDesc(
+                            NotificationEventType.AUDIENCE_FORM_SUBMISSION,
+                            NotificationSourceType.AUDIENCE,
+                            requestDTO.getAudienceId(),
+                            NotificationTemplateType.EMAIL);
+
+            if (configOpt.isPresent()) {
+                // Get current time with timezone
+                java.time.ZonedDateTime now = java.time.ZonedDateTime.now();
+                java.time.format.DateTimeFormatter formatter = java.time.format.DateTimeFormatter
+                        .ofPattern("MMM dd, yyyy hh:mm a z");
+                String submissionTime = now.format(formatter);
 
+                // Send email using template with dynamic parameters
+                NotificationTemplateVariables templateVars = NotificationTemplateVariables.builder()
+                        .userFullName(userForNotification.getFullName())
+                        .userEmail(userForNotification.getEmail())
+                        .instituteId(audienceInstituteId)
+                        .campaignName(audience.getCampaignName())
+                        .customFields(customFieldsForEmail)
+                        .submissionTime(submissionTime)
+                        .build();
+
+                sendUniqueLinkService.sendUniqueLinkByEmailByEnrollInvite(
+                        instituteIdForNotification,
+                        userForNotification,
+                        configOpt.get().getTemplateId(),
+                        null,
+                        templateVars);
+                logger.info("Sent templated email to respondent: {}", userForNotification.getEmail());
+            } else {
+                // Send default plain email
+                String defaultEmailBody = buildDefaultEmailBody(
+                        audience.getCampaignName(),
+                        userForNotification.getFullName(),
+                        userForNotification.getEmail(),
+                        customFieldsForEmail);
+
+                logger.info("No template found, sending default email to: {}", userForNotification.getEmail());
+                logger.info("Default email body: {}", defaultEmailBody);
+
+                // Send default HTML email
+                GenericEmailRequest emailRequest = new GenericEmailRequest();
+                emailRequest.setTo(userForNotification.getEmail());
+                emailRequest.setSubject(
+                        "Thank You for Submitting Your Response for Campaign -" + audience.getCampaignName());
+                emailRequest.setBody(defaultEmailBody);
+
+                try {
+                    notificationService.sendGenericHtmlMailViaUnified(emailRequest, instituteIdForNotification);
+                    logger.info("Sent default email to respondent: {}", userForNotification.getEmail());
+                } catch (Exception ex) {
+                    logger.error("Failed to send default email to {}: {}", userForNotification.getEmail(),
+                            ex.getMessage());
+                }
             }
-        } catch (Exception e) {
-            logger.error("Error creating user in auth_service: {}", e.getMessage());
+        }
+
+        // 6. Send notifications to additional recipients (to_notify)
+        if (StringUtils.hasText(audience.getToNotify())) {
+            String[] additionalEmails = audience.getToNotify().split(",");
+            logger.info("Sending notifications to {} additional recipients", additionalEmails.length);
+
+            for (String email : additionalEmails) {
+                String trimmedEmail = email.trim();
+                if (!StringUtils.hasText(trimmedEmail)) {
+                    continue;
+                }
+
+                logger.info("Sending notification to additional recipient: {}", trimmedEmail);
+                String adminEmailBody = buildAdminNotificationBody(
+                        audience.getCampaignName(),
+                        userForNotification.getFullName(),
+                        userForNotification.getEmail(),
+                        customFieldsForEmail);
+
+                logger.info("No template found, sending default admin notification to: {}", trimmedEmail);
+                logger.info("Default admin email body: {}", adminEmailBody);
+
+                // Send default HTML email for admin
+                GenericEmailRequest adminEmailRequest = new GenericEmailRequest();
+                adminEmailRequest.setTo(trimmedEmail);
+                adminEmailRequest.setSubject("New Lead Submitted - " + audience.getCampaignName());
+                adminEmailRequest.setBody(adminEmailBody);
 
+                try {
+                    notificationService.sendGenericHtmlMailViaUnified(adminEmailRequest,
+                            instituteIdForNotification);
+                    logger.info("Sent default admin notification to: {}", trimmedEmail);
+                } catch (Exception ex) {
+                    logger.error("Failed to send admin notification to {}: {}", trimmedEmail, ex.getMessage());
+                }
+            }
         }
-        return "Error in submitting the response";
 
+        return savedResponse.getId();
     }
 
     /**
@@ -1959,7 +2006,7 @@ public class AudienceService {
                             .audienceResponseId(responseId)
                             .rawScore(score.getRawScore())
                             .tier(score.getTier())
-                            .percentileRank(score.getPercentileRank())
+                            .percentileRank(leadScorePercentileService.percentileRank(score))
                             .scoringFactors(factors)
                             .lastCalculatedAt(score.getLastCalculatedAt())
                             .isManualOverride(Boolean.TRUE.equals(score.getIsManualOverride()))
@@ -2749,17 +2796,15 @@ public class AudienceService {
                 filterDTO.getPage() != null ? filterDTO.getPage() : 0,
                 filterDTO.getSize() != null ? filterDTO.getSize() : 50);
 
-        // Convert list filters to comma-separated strings for native query
-        String overallStatusStr = filterDTO.getOverallStatuses() != null && !filterDTO.getOverallStatuses().isEmpty()
-                ? String.join(",", filterDTO.getOverallStatuses())
-                : null;
+        // List filters bind as text[] (empty = filter off) — see filterValues.
+        String[] overallStatuses = filterValues(filterDTO.getOverallStatuses());
 
         // Audience multi-select (Recent Leads "All audiences" dropdown). The list can
         // carry any number of campaign ids:
         //   0 ids  -> untouched, the caller sees every audience they're allowed to
         //   1 id   -> collapsed onto audienceId so the request takes the existing
         //             per-campaign query (which also honours source/dedup filters)
-        //   2+ ids -> left as a CSV that narrows the institute-wide query below
+        //   2+ ids -> left as an array that narrows the institute-wide query below
         // An explicit audienceId always wins, so per-campaign callers are unaffected.
         List<String> requestedAudienceIds = filterDTO.getAudienceIds() == null
                 ? List.of()
@@ -2772,11 +2817,11 @@ public class AudienceService {
                 && requestedAudienceIds.size() == 1) {
             filterDTO.setAudienceId(requestedAudienceIds.get(0));
         }
-        String requestedAudienceIdsCsv = (filterDTO.getAudienceId() == null
+        String[] narrowedAudienceIds = (filterDTO.getAudienceId() == null
                 || filterDTO.getAudienceId().isBlank())
                         && requestedAudienceIds.size() > 1
-                                ? String.join(",", requestedAudienceIds)
-                                : null;
+                                ? requestedAudienceIds.toArray(String[]::new)
+                                : NO_FILTER_VALUES;
 
         // SECURITY: the campaign-users client sends only audienceId (no instituteId),
         // and every RBAC block below gates on a non-blank instituteId — so the
@@ -2794,18 +2839,21 @@ public class AudienceService {
         // routes to gates on a non-blank instituteId, and all selected campaigns
         // belong to one institute.
         if ((filterDTO.getInstituteId() == null || filterDTO.getInstituteId().isBlank())
-                && requestedAudienceIdsCsv != null) {
+                && narrowedAudienceIds.length > 0) {
             audienceRepository.findById(requestedAudienceIds.get(0))
                     .map(Audience::getInstituteId)
                     .ifPresent(filterDTO::setInstituteId);
         }
 
-        // Caller-level access scoping driven by the institute's
-        // AUDIENCE_ROLE_ACCESS setting. Admin / root resolve to DEFAULT;
-        // pure counselors are auto-scoped; AUDIENCE_LIST roles are restricted
-        // to their granted audience ids.
-        EffectiveAccess access = audienceRoleAccessService.resolveForCaller(
-                user, filterDTO.getInstituteId());
+        // Caller-level scope, resolved once per caller and cached across pages by
+        // LeadListingScopeService:
+        //   * the access mode from the institute's AUDIENCE_ROLE_ACCESS setting.
+        //     Admin / root resolve to DEFAULT; pure counselors are auto-scoped;
+        //     AUDIENCE_LIST roles are restricted to their granted audience ids.
+        //   * the counsellors whose leads the caller is limited to, if any.
+        LeadListingScopeService.LeadListingScope scope =
+                leadListingScopeService.scopeFor(user, filterDTO.getInstituteId());
+        EffectiveAccess access = scope.access();
 
         // RBAC narrowing for the CRM Leads tab. When the caller holds the
         // COUNSELLOR role and NOT the ADMIN role, we restrict the visible
@@ -2814,53 +2862,23 @@ public class AudienceService {
         // team they belong to. A team head sees their whole downstream; a
         // mid-level manager sees their reports; a leaf member sees only their
         // own leads. ADMIN outranks COUNSELLOR — a dual-role caller stays
-        // institute-wide (isScopedCaller(instituteId, user) below resolves
-        // this via the caller's authenticated authorities, not a raw JWT
-        // decode, so it can't miss ADMIN for a dual-role account). Computed
-        // as a CSV that the native query plugs into a
-        // `STRING_TO_ARRAY(...) = ANY` predicate alongside the single-id
-        // filter — so a manager can still drill into a specific report by
-        // sending assignedCounselorId.
-        String assignedCounselorIdsCsv = null;
-        boolean rbacApplied = false;
-
-        // Sub-org admin scoping (highest precedence). A sub-org admin is ALSO
-        // granted the parent institute's ADMIN role, so without this they'd
+        // institute-wide (isScopedCaller(instituteId, user) resolves this via
+        // the caller's authenticated authorities, not a raw JWT decode, so it
+        // can't miss ADMIN for a dual-role account). Bound as the :scopeCounselorIds
+        // array alongside the single-id filter — so a manager can still drill
+        // into a specific report by sending assignedCounselorId.
+        //
+        // Sub-org admin scoping takes precedence. A sub-org admin is ALSO
+        // granted the parent institute's ADMIN role, so without it they'd
         // resolve to DEFAULT above and see the entire parent lead pool. Detection
         // is by ACTIVE SUB_ORG FSPSSM linkage (SubOrgLeadScopeService) — the only
         // reliable fingerprint, since by role they're indistinguishable from a
-        // true institute admin. We hard-scope their visible leads to the members
-        // of the sub-org(s) they administer, reusing the same assignedCounselorIdsCsv
-        // filter the counsellor-hierarchy RBAC below uses. The member set always
-        // includes the admin themselves, so a non-empty result also means "is a
-        // sub-org admin"; an empty result means a normal admin/user and this
-        // branch is a no-op that preserves the pre-existing behaviour exactly.
-        boolean subOrgScopeApplied = false;
-        if (user != null && user.getUserId() != null
-                && filterDTO.getInstituteId() != null
-                && !filterDTO.getInstituteId().isBlank()) {
-            List<String> subOrgScope = subOrgLeadScopeService
-                    .subOrgScopedCounsellorUserIds(user.getUserId());
-            if (!subOrgScope.isEmpty()) {
-                assignedCounselorIdsCsv = String.join(",", subOrgScope);
-                rbacApplied = true;
-                subOrgScopeApplied = true;
-            }
-        }
-
-        if (!subOrgScopeApplied && user != null && user.getUserId() != null
-                && filterDTO.getInstituteId() != null
-                && !filterDTO.getInstituteId().isBlank()) {
-            String instituteId = filterDTO.getInstituteId();
-            if (counsellorScopeService.isScopedCaller(instituteId, user)) {
-                List<String> scope = counsellorScopeService
-                        .scopedCounsellorUserIds(instituteId, user.getUserId());
-                if (!scope.isEmpty()) {
-                    assignedCounselorIdsCsv = String.join(",", scope);
-                    rbacApplied = true;
-                }
-            }
-        }
+        // true institute admin. Their visible leads are hard-scoped to the members
+        // of the sub-org(s) they administer through the same :scopeCounselorIds
+        // filter. The member set always includes the admin themselves.
+        String[] scopeCounselorIds = scope.counsellorUserIds().toArray(String[]::new);
+        boolean rbacApplied = scope.counsellorScoped();
+        boolean subOrgScopeApplied = scope.subOrgScoped();
 
         if (access.getMode() == Mode.COUNSELOR && user != null && user.getUserId() != null
                 && !rbacApplied) {
@@ -2875,7 +2893,7 @@ public class AudienceService {
         }
 
         // AUDIENCE_LIST + "only my assigned leads": the granted lists still bound
-        // WHICH campaigns are readable (allowedAudienceIdsCsv below); this narrows
+        // WHICH campaigns are readable (allowedAudienceIds below); this narrows
         // the rows inside them to the leads the caller owns. access.isAssignedOnly()
         // is already pool-gated by AudienceRoleAccessService — it can only be true
         // when the institute has no counsellor pool.
@@ -2915,14 +2933,14 @@ public class AudienceService {
         boolean includeUnassigned = access.getMode() != Mode.COUNSELOR && !subOrgScopeApplied
                 && !assignedOnlyApplied;
 
-        String allowedAudienceIdsCsv = null;
+        String[] allowedAudienceIds = NO_FILTER_VALUES;
         if (access.getMode() == Mode.AUDIENCE_LIST) {
             List<String> allowed = access.getAllowedAudienceIds();
             if (allowed == null || allowed.isEmpty()) {
                 // Admin granted no lists → user sees nothing (intentional lock-out).
                 return Page.empty(pageable);
             }
-            allowedAudienceIdsCsv = String.join(",", allowed);
+            allowedAudienceIds = allowed.toArray(String[]::new);
             String requestedAudienceId = filterDTO.getAudienceId();
             if (requestedAudienceId != null && !requestedAudienceId.isBlank()
                     && !allowed.contains(requestedAudienceId)) {
@@ -2945,8 +2963,8 @@ public class AudienceService {
         // on audience_response.parent_*. So a substring search like "cold" against
         // ar.parent_* misses those users entirely. We resolve the gap by asking
         // auth_service for matching user IDs first, then OR'ing them into the
-        // audience-response filter via :searchUserIdsCsv. Empty/blank search → null
-        // CSV → predicate behaves exactly as before for non-search queries.
+        // audience-response filter via :searchUserIds. Empty/blank search → empty
+        // array → predicate behaves exactly as before for non-search queries.
         //
         // We intentionally pass instituteId = null here. searchUserIdsByQuery scopes
         // matches to users that hold a user_role for the institute, but lead/enquiry
@@ -2956,14 +2974,11 @@ public class AudienceService {
         // the returned IDs are intersected with ar.user_id, and audience_response is
         // already institute-scoped (JOIN audience a ON a.institute_id = :instituteId),
         // so no cross-institute lead can leak in.
-        String searchUserIdsCsv = null;
+        String[] searchUserIds = NO_FILTER_VALUES;
         String rawSearch = filterDTO.getSearchQuery();
         if (rawSearch != null && !rawSearch.isBlank()) {
             try {
-                List<String> ids = authService.searchUserIdsByQuery(rawSearch, null);
-                if (ids != null && !ids.isEmpty()) {
-                    searchUserIdsCsv = String.join(",", ids);
-                }
+                searchUserIds = filterValues(authService.searchUserIdsByQuery(rawSearch, null));
             } catch (Exception e) {
                 logger.warn("auth-service user search failed for query='{}': {}", rawSearch, e.getMessage());
             }
@@ -2993,8 +3008,30 @@ public class AudienceService {
         if (cfResolution.shortCircuitsToEmpty()) {
             return Page.empty(pageable);
         }
-        String customFieldMatchedIdsCsv = cfResolution.matchedIdsCsv();
-        String customFieldExcludedIdsCsv = cfResolution.excludedIdsCsv();
+        String[] customFieldMatchedIds = filterValues(cfResolution.matchedIds);
+        String[] customFieldExcludedIds = filterValues(cfResolution.excludedIds);
+
+        String[] leadStatusKeys = filterValues(filterDTO.getLeadStatusId());
+        String[] leadTiers = filterValues(filterDTO.getLeadTier());
+        String[] assignedCounselorIds = filterValues(filterDTO.getAssignedCounselorId());
+        String[] slaFilters = filterValues(filterDTO.getSlaFilter());
+
+        // Keyset pagination: a newest-first page after a known lead seeks straight to
+        // it instead of making Postgres sort and skip every earlier row. The anchor's
+        // timestamp is read here rather than taken from the client so it keeps its
+        // full microsecond precision. An anchor that no longer exists falls back to
+        // OFFSET paging by page number.
+        Timestamp afterSubmittedAt = null;
+        String afterId = null;
+        if (filterDTO.getAfterResponseId() != null && !filterDTO.getAfterResponseId().isBlank()
+                && isNewestFirst(filterDTO)) {
+            AudienceResponse anchor = audienceResponseRepository.findById(filterDTO.getAfterResponseId())
+                    .orElse(null);
+            if (anchor != null && anchor.getSubmittedAt() != null) {
+                afterSubmittedAt = anchor.getSubmittedAt();
+                afterId = anchor.getId();
+            }
+        }
 
         // Cross-audience path: when no audienceId is supplied, return leads
         // across every campaign in the institute. Used by the "Recent Leads"
@@ -3003,65 +3040,103 @@ public class AudienceService {
                 || filterDTO.getAudienceId().isBlank();
         if (crossAudience && filterDTO.getInstituteId() != null
                 && !filterDTO.getInstituteId().isBlank()) {
-            Page<AudienceResponse> all = audienceResponseRepository.findInstituteLeadsWithFilters(
-                    filterDTO.getInstituteId(),
-                    filterDTO.getLeadStatusId(),
-                    filterDTO.getSubmittedFromLocal(),
-                    filterDTO.getSubmittedToLocal(),
-                    filterDTO.getSearchQuery(),
-                    searchUserIdsCsv,
-                    filterDTO.getLeadTier(),
-                    filterDTO.getAssignedCounselorId(),
-                    assignedCounselorIdsCsv,
-                    includeUnassigned,
-                    filterDTO.getIsUnassigned(),
-                    allowedAudienceIdsCsv,
-                    requestedAudienceIdsCsv,
-                    conversionStatusFilter,
-                    audienceStatusFilter,
-                    filterDTO.getSlaFilter(),
-                    filterTatHours,
-                    customFieldMatchedIdsCsv,
-                    customFieldExcludedIdsCsv,
-                    filterDTO.getCallHistoryFilter(),
-                    filterDTO.getCallCountValue(),
-                    filterDTO.getSortBy(),
-                    filterDTO.getSortDirection(),
-                    filterDTO.getSortCustomFieldId(),
-                    pageable);
-            return mapResponsesToLeadDetails(all, filterDTO.getInstituteId());
-        }
-
-        Page<AudienceResponse> responses = audienceResponseRepository.findLeadsWithFilters(
-                filterDTO.getAudienceId(),
-                filterDTO.getLeadStatusId(),
-                filterDTO.getSourceType(),
-                filterDTO.getSourceId(),
-                filterDTO.getSubmittedFromLocal(),
-                filterDTO.getSubmittedToLocal(),
-                filterDTO.getExcludeDuplicates(),
-                filterDTO.getSearchQuery(),
-                searchUserIdsCsv,
-                filterDTO.getMinLeadScore(),
-                filterDTO.getMaxLeadScore(),
-                filterDTO.getLeadTier(),
-                filterDTO.getAssignedCounselorId(),
-                assignedCounselorIdsCsv,
-                includeUnassigned,
-                filterDTO.getIsUnassigned(),
-                overallStatusStr,
-                customFieldMatchedIdsCsv,
-                customFieldExcludedIdsCsv,
-                filterDTO.getCallHistoryFilter(),
-                filterDTO.getCallCountValue(),
-                conversionStatusFilter,
-                audienceStatusFilter,
-                filterDTO.getSlaFilter(),
-                filterTatHours,
-                filterDTO.getSortBy(),
-                filterDTO.getSortDirection(),
-                filterDTO.getSortCustomFieldId(),
-                pageable);
+            List<AudienceResponse> rows = afterSubmittedAt != null
+                    ? audienceResponseRepository.findInstituteLeadsWithFiltersAfter(
+                            filterDTO.getInstituteId(), leadStatusKeys,
+                            filterDTO.getSubmittedFromLocal(), filterDTO.getSubmittedToLocal(),
+                            filterDTO.getSearchQuery(), searchUserIds, leadTiers,
+                            assignedCounselorIds, scopeCounselorIds, includeUnassigned,
+                            filterDTO.getIsUnassigned(), allowedAudienceIds, narrowedAudienceIds,
+                            conversionStatusFilter, audienceStatusFilter, slaFilters, filterTatHours,
+                            customFieldMatchedIds, customFieldExcludedIds,
+                            filterDTO.getCallHistoryFilter(), filterDTO.getCallCountValue(),
+                            afterSubmittedAt, afterId, pageable.getPageSize())
+                    : audienceResponseRepository.findInstituteLeadsWithFilters(
+                            filterDTO.getInstituteId(), leadStatusKeys,
+                            filterDTO.getSubmittedFromLocal(), filterDTO.getSubmittedToLocal(),
+                            filterDTO.getSearchQuery(), searchUserIds, leadTiers,
+                            assignedCounselorIds, scopeCounselorIds, includeUnassigned,
+                            filterDTO.getIsUnassigned(), allowedAudienceIds, narrowedAudienceIds,
+                            conversionStatusFilter, audienceStatusFilter, slaFilters, filterTatHours,
+                            customFieldMatchedIds, customFieldExcludedIds,
+                            filterDTO.getCallHistoryFilter(), filterDTO.getCallCountValue(),
+                            filterDTO.getSortBy(), filterDTO.getSortDirection(),
+                            filterDTO.getSortCustomFieldId(), pageable).getContent();
+            List<Object> countKey = leadCountKey("INSTITUTE", filterDTO.getInstituteId(), leadStatusKeys,
+                    filterDTO.getSubmittedFromLocal(), filterDTO.getSubmittedToLocal(),
+                    filterDTO.getSearchQuery(), searchUserIds, leadTiers,
+                    assignedCounselorIds, scopeCounselorIds, includeUnassigned,
+                    filterDTO.getIsUnassigned(), allowedAudienceIds, narrowedAudienceIds,
+                    conversionStatusFilter, audienceStatusFilter, slaFilters, filterTatHours,
+                    customFieldMatchedIds, customFieldExcludedIds,
+                    filterDTO.getCallHistoryFilter(), filterDTO.getCallCountValue());
+            Long total = leadCountCache.getIfPresent(countKey);
+            if (total == null) {
+                total = audienceResponseRepository.countInstituteLeadsWithFilters(
+                        filterDTO.getInstituteId(), leadStatusKeys,
+                        filterDTO.getSubmittedFromLocal(), filterDTO.getSubmittedToLocal(),
+                        filterDTO.getSearchQuery(), searchUserIds, leadTiers,
+                        assignedCounselorIds, scopeCounselorIds, includeUnassigned,
+                        filterDTO.getIsUnassigned(), allowedAudienceIds, narrowedAudienceIds,
+                        conversionStatusFilter, audienceStatusFilter, slaFilters, filterTatHours,
+                        customFieldMatchedIds, customFieldExcludedIds,
+                        filterDTO.getCallHistoryFilter(), filterDTO.getCallCountValue());
+                leadCountCache.put(countKey, total);
+            }
+            return mapResponsesToLeadDetails(new PageImpl<>(rows, pageable, total), filterDTO.getInstituteId());
+        }
+
+        List<AudienceResponse> rows = afterSubmittedAt != null
+                ? audienceResponseRepository.findLeadsWithFiltersAfter(
+                        filterDTO.getAudienceId(), leadStatusKeys,
+                        filterDTO.getSourceType(), filterDTO.getSourceId(),
+                        filterDTO.getSubmittedFromLocal(), filterDTO.getSubmittedToLocal(),
+                        filterDTO.getExcludeDuplicates(), filterDTO.getSearchQuery(), searchUserIds,
+                        filterDTO.getMinLeadScore(), filterDTO.getMaxLeadScore(), leadTiers,
+                        assignedCounselorIds, scopeCounselorIds, includeUnassigned,
+                        filterDTO.getIsUnassigned(), overallStatuses,
+                        customFieldMatchedIds, customFieldExcludedIds,
+                        filterDTO.getCallHistoryFilter(), filterDTO.getCallCountValue(),
+                        conversionStatusFilter, audienceStatusFilter, slaFilters, filterTatHours,
+                        afterSubmittedAt, afterId, pageable.getPageSize())
+                : audienceResponseRepository.findLeadsWithFilters(
+                        filterDTO.getAudienceId(), leadStatusKeys,
+                        filterDTO.getSourceType(), filterDTO.getSourceId(),
+                        filterDTO.getSubmittedFromLocal(), filterDTO.getSubmittedToLocal(),
+                        filterDTO.getExcludeDuplicates(), filterDTO.getSearchQuery(), searchUserIds,
+                        filterDTO.getMinLeadScore(), filterDTO.getMaxLeadScore(), leadTiers,
+                        assignedCounselorIds, scopeCounselorIds, includeUnassigned,
+                        filterDTO.getIsUnassigned(), overallStatuses,
+                        customFieldMatchedIds, customFieldExcludedIds,
+                        filterDTO.getCallHistoryFilter(), filterDTO.getCallCountValue(),
+                        conversionStatusFilter, audienceStatusFilter, slaFilters, filterTatHours,
+                        filterDTO.getSortBy(), filterDTO.getSortDirection(),
+                        filterDTO.getSortCustomFieldId(), pageable).getContent();
+        List<Object> countKey = leadCountKey("AUDIENCE", filterDTO.getAudienceId(), leadStatusKeys,
+                filterDTO.getSourceType(), filterDTO.getSourceId(),
+                filterDTO.getSubmittedFromLocal(), filterDTO.getSubmittedToLocal(),
+                filterDTO.getExcludeDuplicates(), filterDTO.getSearchQuery(), searchUserIds,
+                filterDTO.getMinLeadScore(), filterDTO.getMaxLeadScore(), leadTiers,
+                assignedCounselorIds, scopeCounselorIds, includeUnassigned,
+                filterDTO.getIsUnassigned(), overallStatuses,
+                customFieldMatchedIds, customFieldExcludedIds,
+                filterDTO.getCallHistoryFilter(), filterDTO.getCallCountValue(),
+                conversionStatusFilter, audienceStatusFilter, slaFilters, filterTatHours);
+        Long total = leadCountCache.getIfPresent(countKey);
+        if (total == null) {
+            total = audienceResponseRepository.countLeadsWithFilters(
+                    filterDTO.getAudienceId(), leadStatusKeys,
+                    filterDTO.getSourceType(), filterDTO.getSourceId(),
+                    filterDTO.getSubmittedFromLocal(), filterDTO.getSubmittedToLocal(),
+                    filterDTO.getExcludeDuplicates(), filterDTO.getSearchQuery(), searchUserIds,
+                    filterDTO.getMinLeadScore(), filterDTO.getMaxLeadScore(), leadTiers,
+                    assignedCounselorIds, scopeCounselorIds, includeUnassigned,
+                    filterDTO.getIsUnassigned(), overallStatuses,
+                    customFieldMatchedIds, customFieldExcludedIds,
+                    filterDTO.getCallHistoryFilter(), filterDTO.getCallCountValue(),
+                    conversionStatusFilter, audienceStatusFilter, slaFilters, filterTatHours);
+            leadCountCache.put(countKey, total);
+        }
 
         // Resolve the institute for SLA-deadline computation: the filter usually
         // carries it, else
@@ -3073,7 +3148,44 @@ public class AudienceService {
             campaignInstituteId = audienceRepository.findById(filterDTO.getAudienceId())
                     .map(Audience::getInstituteId).orElse(null);
         }
-        return mapResponsesToLeadDetails(responses, campaignInstituteId);
+        return mapResponsesToLeadDetails(new PageImpl<>(rows, pageable, total), campaignInstituteId);
+    }
+
+    /**
+     * True when the list is in the default newest-first order (submitted_at DESC, id
+     * DESC), the only order {@code after_response_id} keyset paging walks.
+     */
+    private static boolean isNewestFirst(LeadFilterDTO filterDTO) {
+        String sortBy = filterDTO.getSortBy();
+        return (sortBy == null || sortBy.isBlank() || "SUBMITTED_AT".equals(sortBy))
+                && !"ASC".equals(filterDTO.getSortDirection());
+    }
+
+    /**
+     * A multi-value lead-list filter as the text[] the listing queries bind — an empty
+     * array switches the filter off. Client-facing filters still arrive comma-separated.
+     */
+    private static String[] filterValues(String csv) {
+        return csv == null || csv.isBlank() ? NO_FILTER_VALUES : filterValues(Arrays.asList(csv.split(",")));
+    }
+
+    private static String[] filterValues(Collection<String> values) {
+        if (values == null || values.isEmpty()) return NO_FILTER_VALUES;
+        return values.stream()
+                .filter(Objects::nonNull)
+                .map(String::trim)
+                .filter(v -> !v.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    /** Cache key over every filter bound into a lead count; arrays compare by content. */
+    private static List<Object> leadCountKey(Object... filters) {
+        List<Object> key = new ArrayList<>(filters.length);
+        for (Object filter : filters) {
+            key.add(filter instanceof String[] values ? Arrays.asList(values) : filter);
+        }
+        return key;
     }
 
     /**
@@ -3153,6 +3265,8 @@ public class AudienceService {
         List<String> responseIds = content.stream().map(AudienceResponse::getId).collect(Collectors.toList());
         Map<String, LeadScore> scoreByResponseId = leadScoreRepository.findByAudienceResponseIdIn(responseIds).stream()
                 .collect(Collectors.toMap(LeadScore::getAudienceResponseId, s -> s, (a, b) -> a));
+        Map<String, java.math.BigDecimal> percentileByResponseId = leadScorePercentileService
+                .percentileRanks(scoreByResponseId.values());
 
         // SLA deadlines: read the institute's TAT / follow-up config once. tatHours /
         // followUpSlaHours
@@ -3392,8 +3506,8 @@ public class AudienceService {
                     .parentMobile(response.getParentMobile())
                     .leadScore(score != null ? score.getRawScore() : null)
                     .leadTier(score != null ? score.getTier() : null)
-                    .percentileRank(score != null && score.getPercentileRank() != null
-                            ? score.getPercentileRank().doubleValue()
+                    .percentileRank(percentileByResponseId.get(response.getId()) != null
+                            ? percentileByResponseId.get(response.getId()).doubleValue()
                             : null)
                     .assignedCounselorId(counselorId)
                     .sourceAudienceName("OPT_OUT".equals(response.getSourceType())
@@ -3580,7 +3694,7 @@ public class AudienceService {
      *
      * @return true if at least one row was revived (for logging only; the caller returns either way).
      */
-    private boolean reactivateSoftDeletedLeads(String audienceId, String userId) {
+    public boolean reactivateSoftDeletedLeads(String audienceId, String userId) {
         if (!StringUtils.hasText(audienceId) || !StringUtils.hasText(userId)) {
             return false;
         }
@@ -4833,6 +4947,8 @@ public class AudienceService {
         Map<String, LeadScore> leadScoreMap = responseIds.isEmpty() ? Collections.emptyMap()
                 : leadScoreRepository.findByAudienceResponseIdIn(responseIds).stream()
                         .collect(Collectors.toMap(LeadScore::getAudienceResponseId, ls -> ls, (a, b) -> a));
+        Map<String, java.math.BigDecimal> leadPercentileMap = leadScorePercentileService
+                .percentileRanks(leadScoreMap.values());
 
         // Batch fetch assigned counsellors from linked_users table
         Map<String, String> enquiryToCounsellorMap = enquiryIds.isEmpty() ? Collections.emptyMap()
@@ -4916,8 +5032,8 @@ public class AudienceService {
                             // Lead score
                             .leadScore(leadScore != null ? leadScore.getRawScore() : null)
                             .leadTier(leadScore != null ? leadScore.getTier() : null)
-                            .percentileRank(leadScore != null && leadScore.getPercentileRank() != null
-                                    ? leadScore.getPercentileRank().doubleValue()
+                            .percentileRank(leadPercentileMap.get(audienceResponse.getId()) != null
+                                    ? leadPercentileMap.get(audienceResponse.getId()).doubleValue()
                                     : null)
                             .build();
                 })
@@ -5505,179 +5621,6 @@ public class AudienceService {
         }
     }
 
-    /**
-     * Bulk submit leads with enquiry (CSV import-friendly).
-     * <p>
-     * This endpoint loops through rows and delegates the actual persistence to the
-     * existing
-     * single-row {@link #submitLeadWithEnquiry(SubmitLeadWithEnquiryRequestDTO)}
-     * method.
-     * It returns per-row results so that one failing row does not block the others.
-     */
-    public BulkSubmitLeadWithEnquiryResponseDTO bulkSubmitLeadWithEnquiry(
-            BulkSubmitLeadWithEnquiryRequestDTO request) {
-
-        if (request == null || CollectionUtils.isEmpty(request.getRows())) {
-            throw new VacademyException("rows cannot be empty");
-        }
-
-        String rootAudienceId = request.getAudienceId();
-
-        List<BulkSubmitLeadWithEnquiryResultItemDTO> results = new ArrayList<>(
-                request.getRows().size());
-        Set<String> dedupeKeys = new HashSet<>();
-
-        int success = 0;
-        int failed = 0;
-        int skipped = 0;
-
-        for (int i = 0; i < request.getRows().size(); i++) {
-            SubmitLeadWithEnquiryRequestDTO row = request.getRows().get(i);
-
-            if (row == null) {
-                failed++;
-                results.add(BulkSubmitLeadWithEnquiryResultItemDTO.builder()
-                        .index(i)
-                        .status("FAILED")
-                        .message("Row is null")
-                        .build());
-                continue;
-            }
-
-            // Support payloads where audience_id exists at the root only.
-            if (!StringUtils.hasText(row.getAudienceId())
-                    && StringUtils.hasText(rootAudienceId)) {
-                row.setAudienceId(rootAudienceId);
-            }
-
-            if (!StringUtils.hasText(row.getAudienceId())) {
-                failed++;
-                results.add(BulkSubmitLeadWithEnquiryResultItemDTO.builder()
-                        .index(i)
-                        .status("FAILED")
-                        .message("audience_id is required (root or row)")
-                        .build());
-                continue;
-            }
-
-            // Map optional CSV-friendly aliases:
-            // - `status` -> enquiry.enquiry_status
-            // - `source` -> source_type
-            if (row.getEnquiry() == null && StringUtils.hasText(row.getStatus())) {
-                row.setEnquiry(EnquiryDTO.builder()
-                        .enquiryStatus(row.getStatus().trim())
-                        .build());
-            } else if (row.getEnquiry() != null
-                    && !StringUtils.hasText(row.getEnquiry().getEnquiryStatus())
-                    && StringUtils.hasText(row.getStatus())) {
-                row.getEnquiry().setEnquiryStatus(row.getStatus().trim());
-            }
-
-            if (!StringUtils.hasText(row.getSourceType())
-                    && StringUtils.hasText(row.getSource())) {
-                row.setSourceType(row.getSource().trim());
-            }
-
-            // Lightweight normalization only (no extra required-field checks).
-            // Mandatory fields (ensured by frontend team):
-            // - child_user_dto.full_name, child_user_dto.gender,
-            // child_user_dto.date_of_birth
-            // - parent_name, parent_email, parent_mobile
-            row.setParentName(row.getParentName().trim());
-            row.setParentEmail(row.getParentEmail().trim().toLowerCase());
-            row.setParentMobile(row.getParentMobile().trim());
-
-            // Normalization for student name + optional email.
-            row.getChildUserDTO().setFullName(row.getChildUserDTO()
-                    .getFullName().trim());
-            if (StringUtils.hasText(row.getChildUserDTO().getEmail())) {
-                row.getChildUserDTO().setEmail(
-                        row.getChildUserDTO().getEmail().trim().toLowerCase());
-            }
-            // gender is mandatory; normalize without validating its allowed values
-            row.getChildUserDTO().setGender(
-                    row.getChildUserDTO().getGender().trim());
-
-            // Best-effort dedupe inside the upload payload.
-            String parentEmailKey = row.getParentEmail().trim().toLowerCase();
-            String childNameKey = row.getChildUserDTO().getFullName().trim().toLowerCase();
-            String destinationKey = StringUtils.hasText(row.getDestinationPackageSessionId())
-                    ? row.getDestinationPackageSessionId().trim()
-                    : "";
-
-            String dedupeKey = row.getAudienceId().trim()
-                    + "|" + parentEmailKey
-                    + "|" + childNameKey
-                    + "|" + destinationKey;
-
-            if (dedupeKeys.contains(dedupeKey)) {
-                skipped++;
-                results.add(BulkSubmitLeadWithEnquiryResultItemDTO.builder()
-                        .index(i)
-                        .status("SKIPPED")
-                        .message("Duplicate in upload payload")
-                        .build());
-                continue;
-            }
-            dedupeKeys.add(dedupeKey);
-
-            try {
-                SubmitLeadWithEnquiryResponseDTO response = submitLeadWithEnquiry(row);
-
-                success++;
-                results.add(BulkSubmitLeadWithEnquiryResultItemDTO.builder()
-                        .index(i)
-                        .status("SUCCESS")
-                        .message(response.getMessage())
-                        .enquiryId(response.getEnquiryId())
-                        .audienceResponseId(response.getAudienceResponseId())
-                        .parentUserId(response.getParentUserId())
-                        .counsellorId(response.getCounsellorId())
-                        .build());
-            } catch (VacademyException ve) {
-                String msg = ve.getMessage();
-                String normalizedMsg = msg != null ? msg.toLowerCase() : "";
-                boolean alreadySubmitted = normalizedMsg.contains("already submitted");
-
-                if (alreadySubmitted) {
-                    skipped++;
-                    results.add(BulkSubmitLeadWithEnquiryResultItemDTO.builder()
-                            .index(i)
-                            .status("SKIPPED")
-                            .message(msg)
-                            .build());
-                } else {
-                    failed++;
-                    results.add(BulkSubmitLeadWithEnquiryResultItemDTO.builder()
-                            .index(i)
-                            .status("FAILED")
-                            .message(msg)
-                            .build());
-                }
-            } catch (Exception e) {
-                failed++;
-                results.add(BulkSubmitLeadWithEnquiryResultItemDTO.builder()
-                        .index(i)
-                        .status("FAILED")
-                        .message(e.getMessage())
-                        .build());
-            }
-        }
-
-        BulkSubmitLeadWithEnquiryResponseDTO.SummaryDTO summary = BulkSubmitLeadWithEnquiryResponseDTO.SummaryDTO
-                .builder()
-                .totalRequested(results.size())
-                .successful(success)
-                .failed(failed)
-                .skipped(skipped)
-                .build();
-
-        return BulkSubmitLeadWithEnquiryResponseDTO.builder()
-                .summary(summary)
-                .results(results)
-                .build();
-    }
-
     /**
      * Send a message (WhatsApp, Email, Push, or System Alert) to leads in an
      * audience campaign.
@@ -6046,164 +5989,6 @@ public class AudienceService {
                 .build());
     }
 
-    /**
-     * Bulk submit simple leads (CSV import-friendly).
-     * <p>
-     * Loops through rows and delegates persistence to the existing single-row
-     * {@link #submitLead(SubmitLeadRequestDTO)} method.
-     * Returns per-row results so that one failing row does not block the others.
-     */
-    public BulkSubmitLeadResponseDTO bulkSubmitLead(BulkSubmitLeadRequestDTO request) {
-
-        if (request == null || CollectionUtils.isEmpty(request.getRows())) {
-            throw new VacademyException("rows cannot be empty");
-        }
-
-        String rootAudienceId = request.getAudienceId();
-
-        List<BulkSubmitLeadResultItemDTO> results = new ArrayList<>(request.getRows().size());
-        Set<String> dedupeKeys = new HashSet<>();
-
-        int success = 0;
-        int failed = 0;
-        int skipped = 0;
-
-        for (int i = 0; i < request.getRows().size(); i++) {
-            SubmitLeadRequestDTO row = request.getRows().get(i);
-
-            if (row == null) {
-                failed++;
-                results.add(BulkSubmitLeadResultItemDTO.builder()
-                        .index(i)
-                        .status("FAILED")
-                        .message("Row is null")
-                        .build());
-                continue;
-            }
-
-            // Support payloads where audience_id exists at the root only.
-            if (!StringUtils.hasText(row.getAudienceId())
-                    && StringUtils.hasText(rootAudienceId)) {
-                row.setAudienceId(rootAudienceId);
-            }
-
-            if (!StringUtils.hasText(row.getAudienceId())) {
-                failed++;
-                results.add(BulkSubmitLeadResultItemDTO.builder()
-                        .index(i)
-                        .status("FAILED")
-                        .message("audience_id is required (root or row)")
-                        .build());
-                continue;
-            }
-
-            // Best-effort dedupe by email within the upload payload.
-            String emailKey = "";
-            if (row.getUserDTO() != null && StringUtils.hasText(row.getUserDTO().getEmail())) {
-                emailKey = row.getUserDTO().getEmail().trim().toLowerCase();
-            }
-
-            String dedupeKey = row.getAudienceId().trim() + "|" + emailKey;
-
-            if (StringUtils.hasText(emailKey) && dedupeKeys.contains(dedupeKey)) {
-                skipped++;
-                results.add(BulkSubmitLeadResultItemDTO.builder()
-                        .index(i)
-                        .status("SKIPPED")
-                        .message("Duplicate email in upload payload")
-                        .build());
-                continue;
-            }
-            if (StringUtils.hasText(emailKey)) {
-                dedupeKeys.add(dedupeKey);
-            }
-
-            try {
-                String responseId = submitLead(row);
-
-                // submitLead is stringly-typed: it returns either the new response ID or a
-                // human-readable outcome message. Any message must be classified as
-                // SKIPPED/FAILED — reporting one as SUCCESS puts prose in audienceResponseId
-                // and tells the caller a lead was saved when none was.
-                String outcome = responseId != null ? responseId.toLowerCase() : "";
-                boolean alreadySubmitted = outcome.contains("already submitted");
-                // Institute dedup (LEAD_SETTING.data.dedup) hard-rejects the row before
-                // anything is persisted ("A lead with this phone number/email already
-                // exists ..."), so it is a skip, not a success.
-                boolean dedupRejected = outcome.contains("already exists");
-
-                boolean isSuccess = responseId != null
-                        && !responseId.startsWith("Error")
-                        && !alreadySubmitted
-                        && !dedupRejected;
-
-                if (alreadySubmitted || dedupRejected) {
-                    skipped++;
-                    results.add(BulkSubmitLeadResultItemDTO.builder()
-                            .index(i)
-                            .status("SKIPPED")
-                            .message(responseId)
-                            .build());
-                } else if (isSuccess) {
-                    success++;
-                    results.add(BulkSubmitLeadResultItemDTO.builder()
-                            .index(i)
-                            .status("SUCCESS")
-                            .message("Lead submitted successfully")
-                            .audienceResponseId(responseId)
-                            .userId(row.getUserDTO() != null ? row.getUserDTO().getEmail() : null)
-                            .build());
-                } else {
-                    failed++;
-                    results.add(BulkSubmitLeadResultItemDTO.builder()
-                            .index(i)
-                            .status("FAILED")
-                            .message(responseId != null ? responseId : "Unknown error")
-                            .build());
-                }
-            } catch (VacademyException ve) {
-                String msg = ve.getMessage();
-                String normalizedMsg = msg != null ? msg.toLowerCase() : "";
-                boolean alreadySubmitted = normalizedMsg.contains("already submitted");
-
-                if (alreadySubmitted) {
-                    skipped++;
-                    results.add(BulkSubmitLeadResultItemDTO.builder()
-                            .index(i)
-                            .status("SKIPPED")
-                            .message(msg)
-                            .build());
-                } else {
-                    failed++;
-                    results.add(BulkSubmitLeadResultItemDTO.builder()
-                            .index(i)
-                            .status("FAILED")
-                            .message(msg)
-                            .build());
-                }
-            } catch (Exception e) {
-                failed++;
-                results.add(BulkSubmitLeadResultItemDTO.builder()
-                        .index(i)
-                        .status("FAILED")
-                        .message(e.getMessage())
-                        .build());
-            }
-        }
-
-        BulkSubmitLeadResponseDTO.SummaryDTO summary = BulkSubmitLeadResponseDTO.SummaryDTO.builder()
-                .totalRequested(results.size())
-                .successful(success)
-                .failed(failed)
-                .skipped(skipped)
-                .build();
-
-        return BulkSubmitLeadResponseDTO.builder()
-                .summary(summary)
-                .results(results)
-                .build();
-    }
-
     private String buildDefaultEnquiryEmailBody(String parentName, String studentName, String sessionName,
             String trackingId, String submissionTime, String username, String password, String portalUrl,
             String campaignName) {
@@ -0,0 +1,756 @@
+package vacademy.io.admin_core_service.features.audience.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
+import vacademy.io.admin_core_service.features.audience.dto.*;
+import vacademy.io.admin_core_service.features.audience.entity.Audience;
+import vacademy.io.admin_core_service.features.audience.entity.AudienceResponse;
+import vacademy.io.admin_core_service.features.audience.entity.LeadImportJob;
+import vacademy.io.admin_core_service.features.audience.repository.AudienceRepository;
+import vacademy.io.admin_core_service.features.audience.repository.AudienceResponseRepository;
+import vacademy.io.admin_core_service.features.audience.repository.LeadImportJobRepository;
+import vacademy.io.admin_core_service.core.security.InstituteAccessValidator;
+import vacademy.io.admin_core_service.features.auth_service.service.AuthService;
+import vacademy.io.admin_core_service.features.enquiry.dto.EnquiryDTO;
+import vacademy.io.common.auth.dto.UserDTO;
+import vacademy.io.common.auth.model.CustomUserDetails;
+import vacademy.io.common.exceptions.VacademyException;
+
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Bulk lead import — CSV uploads from the campaign card, education fairs and ad exports.
+ *
+ * <p>Simple leads run through a chunked pipeline instead of one full
+ * {@link AudienceService#submitLead} per row:
+ * <ol>
+ * <li>validate and normalise the chunk's rows (same rules as submitLead);</li>
+ * <li>institute dedup (LEAD_SETTING.data.dedup) with one set query per campaign;</li>
+ * <li>create or fetch the users with one auth_service call per {@value #AUTH_BATCH_SIZE} rows;</li>
+ * <li>drop users already in the campaign with one set query, then insert the chunk's
+ * audience_response rows in one batch;</li>
+ * <li>hand each new lead's follow-up — custom fields, scoring, counsellor, workflow or
+ * emails, see {@link AudienceService#completeLeadSubmission} — to the fan-out pool.</li>
+ * </ol>
+ * The next chunk is validated and sent to auth_service while the previous chunk's
+ * follow-ups run; at most one chunk of follow-ups is in flight at a time.
+ *
+ * <p>A lead counts as SUCCESS once its row is inserted. Its follow-up runs in its own
+ * transaction, so a failure there is logged against the lead rather than undoing it.
+ *
+ * <p>Imports with enquiry still go row by row through
+ * {@link AudienceService#submitLeadWithEnquiry}: every row creates a linked parent/child
+ * pair, and auth_service creates those one pair per call.
+ *
+ * <p>Both kinds run either inline (the original bulk-submit endpoints) or as a background
+ * job whose progress is polled from lead_import_job.
+ */
+@Service
+public class BulkLeadIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkLeadIngestionService.class);
+
+    public static final String JOB_TYPE_LEAD = "LEAD";
+    public static final String JOB_TYPE_LEAD_WITH_ENQUIRY = "LEAD_WITH_ENQUIRY";
+
+    static final String STATUS_QUEUED = "QUEUED";
+    static final String STATUS_RUNNING = "RUNNING";
+    static final String STATUS_COMPLETED = "COMPLETED";
+    static final String STATUS_FAILED = "FAILED";
+
+    static final int CHUNK_SIZE = 500;
+    static final int AUTH_BATCH_SIZE = 100;
+
+    // Outcome messages of the single-row path, kept so import reports read the same.
+    private static final String SUBMIT_ERROR = "Error in submitting the response";
+    private static final String NO_IDENTITY = SUBMIT_ERROR + ": user email, mobile number or name is required";
+    private static final String ALREADY_SUBMITTED = "You have already submitted your response for this campaign";
+
+    /** Running totals published while an import is in progress. */
+    private interface Progress {
+        void report(int processed, int successful, int failed, int skipped);
+    }
+
+    private static final Progress NO_PROGRESS = (processed, successful, failed, skipped) -> {
+    };
+
+    private record JobOutcome(int successful, int failed, int skipped, List<?> results) {
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private AudienceService audienceService;
+
+    @Autowired
+    private AudienceRepository audienceRepository;
+
+    @Autowired
+    private AudienceResponseRepository audienceResponseRepository;
+
+    @Autowired
+    private LeadDeduplicationService leadDeduplicationService;
+
+    @Autowired
+    private PlaceholderEmailService placeholderEmailService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private LeadImportJobRepository leadImportJobRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("leadImportExecutor")
+    private Executor leadImportExecutor;
+
+    @Autowired
+    @Qualifier("leadImportFanoutExecutor")
+    private Executor leadImportFanoutExecutor;
+
+    @Autowired
+    private InstituteAccessValidator instituteAccessValidator;
+
+    /**
+     * Imports simple leads and returns the per-row report once every row is done.
+     */
+    public BulkSubmitLeadResponseDTO bulkSubmitLead(BulkSubmitLeadRequestDTO request) {
+        if (request == null || CollectionUtils.isEmpty(request.getRows())) {
+            throw new VacademyException("rows cannot be empty");
+        }
+        return ingestLeads(request, NO_PROGRESS);
+    }
+
+    /**
+     * Starts a background import of simple leads and returns its job straight away;
+     * poll {@link #getJob} for progress and, once COMPLETED, the per-row report.
+     */
+    public LeadImportJobDTO startBulkSubmitLead(BulkSubmitLeadRequestDTO request, String createdBy) {
+        if (request == null || CollectionUtils.isEmpty(request.getRows())) {
+            throw new VacademyException("rows cannot be empty");
+        }
+        LeadImportJob job = createJob(JOB_TYPE_LEAD, request.getAudienceId(), request.getRows().size(), createdBy);
+        return submitJob(job, () -> {
+            BulkSubmitLeadResponseDTO response = ingestLeads(request, progressOf(job.getId()));
+            BulkSubmitLeadResponseDTO.SummaryDTO summary = response.getSummary();
+            return new JobOutcome(summary.getSuccessful(), summary.getFailed(), summary.getSkipped(),
+                    response.getResults());
+        });
+    }
+
+    /**
+     * Background twin of {@link #bulkSubmitLeadWithEnquiry}.
+     */
+    public LeadImportJobDTO startBulkSubmitLeadWithEnquiry(BulkSubmitLeadWithEnquiryRequestDTO request,
+            String createdBy) {
+        if (request == null || CollectionUtils.isEmpty(request.getRows())) {
+            throw new VacademyException("rows cannot be empty");
+        }
+        LeadImportJob job = createJob(JOB_TYPE_LEAD_WITH_ENQUIRY, request.getAudienceId(),
+                request.getRows().size(), createdBy);
+        return submitJob(job, () -> {
+            BulkSubmitLeadWithEnquiryResponseDTO response = ingestLeadsWithEnquiry(request,
+                    progressOf(job.getId()));
+            BulkSubmitLeadWithEnquiryResponseDTO.SummaryDTO summary = response.getSummary();
+            return new JobOutcome(summary.getSuccessful(), summary.getFailed(), summary.getSkipped(),
+                    response.getResults());
+        });
+    }
+
+    /**
+     * The job's report carries lead emails and phone numbers, so it is only returned to
+     * whoever started the import or a member of the job's institute. Anyone else gets the
+     * same 404 as for an unknown id.
+     */
+    public LeadImportJobDTO getJob(String jobId, CustomUserDetails user) {
+        LeadImportJob job = leadImportJobRepository.findById(jobId)
+                .filter(j -> canRead(j, user))
+                .orElseThrow(() -> new VacademyException(HttpStatus.NOT_FOUND, "Lead import job not found: " + jobId));
+        return toDto(job);
+    }
+
+    private boolean canRead(LeadImportJob job, CustomUserDetails user) {
+        if (user == null) {
+            return false;
+        }
+        if (user.getUserId() != null && user.getUserId().equals(job.getCreatedBy())) {
+            return true;
+        }
+        if (!StringUtils.hasText(job.getInstituteId())) {
+            return false;
+        }
+        try {
+            instituteAccessValidator.validateUserAccess(user, job.getInstituteId());
+            return true;
+        } catch (VacademyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Fails jobs whose replica went away mid-import (see
+     * {@link LeadImportJobRepository#failStaleJobs}). Called by LeadImportJobSweeper.
+     */
+    public int failStaleJobs(long staleAfterMinutes) {
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis() - staleAfterMinutes * 60_000L);
+        return leadImportJobRepository.failStaleJobs(cutoff,
+                "Import was interrupted (no progress for " + staleAfterMinutes + " minutes) — please upload the file again");
+    }
+
+    // ── Simple leads ─────────────────────────────────────────────────────────
+
+    /** A row that passed validation, carried through the later stages of its chunk. */
+    private static final class PendingLead {
+        final int index;
+        final SubmitLeadRequestDTO row;
+        final Audience audience;
+        final boolean emailSynthesized;
+        LeadDedupSettingService.RepeatLeadSettings repeatLeadSettings;
+        UserDTO createdUser;
+
+        PendingLead(int index, SubmitLeadRequestDTO row, Audience audience, boolean emailSynthesized) {
+            this.index = index;
+            this.row = row;
+            this.audience = audience;
+            this.emailSynthesized = emailSynthesized;
+        }
+    }
+
+    /** Per-row report of a simple-lead import, filled in row index order. */
+    private static final class LeadOutcomes {
+        final BulkSubmitLeadResultItemDTO[] items;
+        int successful;
+        int failed;
+        int skipped;
+
+        LeadOutcomes(int size) {
+            items = new BulkSubmitLeadResultItemDTO[size];
+        }
+
+        void success(int index, String audienceResponseId, String userId) {
+            successful++;
+            items[index] = BulkSubmitLeadResultItemDTO.builder()
+                    .index(index)
+                    .status("SUCCESS")
+                    .message("Lead submitted successfully")
+                    .audienceResponseId(audienceResponseId)
+                    .userId(userId)
+                    .build();
+        }
+
+        void failed(int index, String message) {
+            failed++;
+            items[index] = BulkSubmitLeadResultItemDTO.builder().index(index).status("FAILED").message(message).build();
+        }
+
+        void skipped(int index, String message) {
+            skipped++;
+            items[index] = BulkSubmitLeadResultItemDTO.builder().index(index).status("SKIPPED").message(message).build();
+        }
+    }
+
+    private BulkSubmitLeadResponseDTO ingestLeads(BulkSubmitLeadRequestDTO request, Progress progress) {
+        List<SubmitLeadRequestDTO> rows = request.getRows();
+        LeadOutcomes outcomes = new LeadOutcomes(rows.size());
+        Set<String> payloadKeys = new HashSet<>();
+        Set<String> claimedUsers = new HashSet<>();
+        Map<String, Optional<Audience>> audiences = new HashMap<>();
+        List<CompletableFuture<Void>> inFlight = List.of();
+
+        for (int from = 0; from < rows.size(); from += CHUNK_SIZE) {
+            int to = Math.min(rows.size(), from + CHUNK_SIZE);
+
+            Map<String, List<PendingLead>> byAudience = new LinkedHashMap<>();
+            for (int i = from; i < to; i++) {
+                PendingLead lead = prepare(i, rows.get(i), request.getAudienceId(), payloadKeys, audiences, outcomes);
+                if (lead != null) {
+                    byAudience.computeIfAbsent(lead.audience.getId(), k -> new ArrayList<>()).add(lead);
+                }
+            }
+
+            List<CompletableFuture<Void>> fanOut = new ArrayList<>();
+            for (List<PendingLead> group : byAudience.values()) {
+                fanOut.addAll(ingestGroup(group, claimedUsers, outcomes));
+            }
+
+            // Bound the pipeline: the previous chunk's follow-ups must finish before this
+            // chunk's are left running on their own.
+            awaitAll(inFlight);
+            inFlight = fanOut;
+            progress.report(to, outcomes.successful, outcomes.failed, outcomes.skipped);
+        }
+        awaitAll(inFlight);
+
+        return BulkSubmitLeadResponseDTO.builder()
+                .summary(BulkSubmitLeadResponseDTO.SummaryDTO.builder()
+                        .totalRequested(rows.size())
+                        .successful(outcomes.successful)
+                        .failed(outcomes.failed)
+                        .skipped(outcomes.skipped)
+                        .build())
+                .results(Arrays.asList(outcomes.items))
+                .build();
+    }
+
+    /**
+     * Row checks of submitLead that need no round trip per row. Returns null when the
+     * row's outcome is already decided.
+     */
+    private PendingLead prepare(int index, SubmitLeadRequestDTO row, String rootAudienceId, Set<String> payloadKeys,
+            Map<String, Optional<Audience>> audiences, LeadOutcomes outcomes) {
+        if (row == null) {
+            outcomes.failed(index, "Row is null");
+            return null;
+        }
+
+        // Support payloads where audience_id exists at the root only.
+        if (!StringUtils.hasText(row.getAudienceId()) && StringUtils.hasText(rootAudienceId)) {
+            row.setAudienceId(rootAudienceId);
+        }
+        if (!StringUtils.hasText(row.getAudienceId())) {
+            outcomes.failed(index, "audience_id is required (root or row)");
+            return null;
+        }
+
+        // Best-effort dedupe by email within the upload payload.
+        UserDTO userDTO = row.getUserDTO();
+        String emailKey = userDTO != null && StringUtils.hasText(userDTO.getEmail())
+                ? userDTO.getEmail().trim().toLowerCase()
+                : "";
+        if (StringUtils.hasText(emailKey) && !payloadKeys.add(row.getAudienceId().trim() + "|" + emailKey)) {
+            outcomes.skipped(index, "Duplicate email in upload payload");
+            return null;
+        }
+
+        Optional<Audience> audience = audiences.computeIfAbsent(row.getAudienceId(), audienceRepository::findById);
+        if (audience.isEmpty()) {
+            outcomes.failed(index, "Audience not found");
+            return null;
+        }
+        if (!"ACTIVE".equals(audience.get().getStatus())) {
+            outcomes.failed(index, "Audience campaign is not active");
+            return null;
+        }
+
+        // Phone-only rows get the same non-deliverable placeholder address submitLead gives them.
+        boolean emailSynthesized = false;
+        if (userDTO != null && !StringUtils.hasText(userDTO.getEmail())
+                && (StringUtils.hasText(userDTO.getMobileNumber()) || StringUtils.hasText(userDTO.getFullName()))) {
+            userDTO.setEmail(placeholderEmailService.synthesize(userDTO.getFullName(), userDTO.getMobileNumber(), null));
+            emailSynthesized = true;
+        }
+        if (userDTO == null || !StringUtils.hasText(userDTO.getEmail())) {
+            outcomes.failed(index, NO_IDENTITY);
+            return null;
+        }
+        return new PendingLead(index, row, audience.get(), emailSynthesized);
+    }
+
+    /**
+     * Dedup, users, insert and fan-out for one chunk's rows of one campaign. Returns the
+     * follow-up futures of the leads it inserted.
+     */
+    private List<CompletableFuture<Void>> ingestGroup(List<PendingLead> group, Set<String> claimedUsers,
+            LeadOutcomes outcomes) {
+        Audience audience = group.get(0).audience;
+        String instituteId = audience.getInstituteId();
+
+        // Institute dedup — before any auth user is created, so a rejected row leaves no orphan account.
+        Map<Integer, LeadDeduplicationService.DuplicateMatch> duplicates = leadDeduplicationService.checkDuplicates(
+                instituteId, audience.getId(),
+                group.stream().map(lead -> lead.row.getUserDTO().getEmail()).toList(),
+                group.stream().map(lead -> lead.row.getUserDTO().getMobileNumber()).toList());
+        List<PendingLead> admitted = new ArrayList<>(group.size());
+        for (int k = 0; k < group.size(); k++) {
+            PendingLead lead = group.get(k);
+            LeadDeduplicationService.DuplicateMatch match = duplicates.get(k);
+            if (match != null && match.action() == LeadDedupSettingService.DedupAction.REJECT) {
+                outcomes.skipped(lead.index, match.rejectionMessage());
+                continue;
+            }
+            lead.repeatLeadSettings = match != null ? match.repeatLeadSettings() : null;
+            admitted.add(lead);
+        }
+
+        for (int from = 0; from < admitted.size(); from += AUTH_BATCH_SIZE) {
+            createUsers(admitted.subList(from, Math.min(admitted.size(), from + AUTH_BATCH_SIZE)), instituteId,
+                    outcomes);
+        }
+        List<PendingLead> withUser = admitted.stream().filter(lead -> lead.createdUser != null).toList();
+        if (withUser.isEmpty()) {
+            return List.of();
+        }
+
+        // Duplicate submission guard: same campaign + same user, already stored or earlier in this import.
+        Set<String> alreadyInCampaign = new HashSet<>(audienceResponseRepository.findUserIdsByAudienceIdAndUserIdIn(
+                audience.getId(), withUser.stream().map(lead -> lead.createdUser.getId()).toList()));
+        List<PendingLead> fresh = new ArrayList<>(withUser.size());
+        for (PendingLead lead : withUser) {
+            String userId = lead.createdUser.getId();
+            if (alreadyInCampaign.contains(userId)) {
+                // Revive a soft-deleted lead instead of blackholing the resubmission.
+                audienceService.reactivateSoftDeletedLeads(audience.getId(), userId);
+                outcomes.skipped(lead.index, ALREADY_SUBMITTED);
+            } else if (!claimedUsers.add(audience.getId() + "|" + userId)) {
+                outcomes.skipped(lead.index, ALREADY_SUBMITTED);
+            } else {
+                fresh.add(lead);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return List.of();
+        }
+
+        List<AudienceResponse> saved;
+        try {
+            List<AudienceResponse> built = fresh.stream()
+                    .map(lead -> audienceService.buildLeadResponse(lead.row, audience, instituteId,
+                            lead.createdUser.getId(), lead.row.getUserDTO()))
+                    .toList();
+            saved = new TransactionTemplate(transactionManager)
+                    .execute(status -> audienceResponseRepository.saveAll(built));
+        } catch (Exception e) {
+            logger.error("Bulk lead import: inserting {} leads into audience {} failed: {}",
+                    fresh.size(), audience.getId(), e.getMessage(), e);
+            fresh.forEach(lead -> outcomes.failed(lead.index, SUBMIT_ERROR));
+            return List.of();
+        }
+
+        List<CompletableFuture<Void>> followUps = new ArrayList<>(saved.size());
+        for (int k = 0; k < saved.size(); k++) {
+            PendingLead lead = fresh.get(k);
+            AudienceResponse response = saved.get(k);
+            outcomes.success(lead.index, response.getId(), lead.row.getUserDTO().getEmail());
+            followUps.add(CompletableFuture.runAsync(() -> completeLead(lead, response), leadImportFanoutExecutor));
+        }
+        return followUps;
+    }
+
+    private void createUsers(List<PendingLead> batch, String instituteId, LeadOutcomes outcomes) {
+        List<UserDTO> users;
+        try {
+            users = authService.createUsersOrGetExisting(
+                    batch.stream().map(lead -> lead.row.getUserDTO()).toList(), instituteId, false);
+        } catch (Exception e) {
+            logger.error("Bulk lead import: auth_service batch of {} users failed: {}", batch.size(), e.getMessage());
+            batch.forEach(lead -> outcomes.failed(lead.index, SUBMIT_ERROR));
+            return;
+        }
+        for (int k = 0; k < batch.size(); k++) {
+            UserDTO user = users != null && k < users.size() ? users.get(k) : null;
+            if (user == null || !StringUtils.hasText(user.getId())) {
+                outcomes.failed(batch.get(k).index, SUBMIT_ERROR);
+            } else {
+                batch.get(k).createdUser = user;
+            }
+        }
+    }
+
+    private void completeLead(PendingLead lead, AudienceResponse response) {
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    audienceService.completeLeadSubmission(response, lead.row, lead.audience, lead.createdUser,
+                            lead.emailSynthesized, lead.repeatLeadSettings));
+        } catch (Exception e) {
+            logger.error("Bulk lead import: follow-up for lead {} failed: {}", response.getId(), e.getMessage(), e);
+        }
+    }
+
+    private static void awaitAll(List<CompletableFuture<Void>> futures) {
+        if (!futures.isEmpty()) {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        }
+    }
+
+    // ── Leads with enquiry ───────────────────────────────────────────────────
+
+    /**
+     * Imports leads with enquiry and returns the per-row report once every row is done.
+     * Each row is delegated to {@link AudienceService#submitLeadWithEnquiry} in its own
+     * transaction, so one failing row does not block the others.
+     */
+    public BulkSubmitLeadWithEnquiryResponseDTO bulkSubmitLeadWithEnquiry(
+            BulkSubmitLeadWithEnquiryRequestDTO request) {
+
+        if (request == null || CollectionUtils.isEmpty(request.getRows())) {
+            throw new VacademyException("rows cannot be empty");
+        }
+        return ingestLeadsWithEnquiry(request, NO_PROGRESS);
+    }
+
+    private BulkSubmitLeadWithEnquiryResponseDTO ingestLeadsWithEnquiry(
+            BulkSubmitLeadWithEnquiryRequestDTO request, Progress progress) {
+
+        String rootAudienceId = request.getAudienceId();
+
+        List<BulkSubmitLeadWithEnquiryResultItemDTO> results = new ArrayList<>(
+                request.getRows().size());
+        Set<String> dedupeKeys = new HashSet<>();
+
+        int success = 0;
+        int failed = 0;
+        int skipped = 0;
+
+        for (int i = 0; i < request.getRows().size(); i++) {
+            if (i > 0 && i % CHUNK_SIZE == 0) {
+                progress.report(i, success, failed, skipped);
+            }
+            SubmitLeadWithEnquiryRequestDTO row = request.getRows().get(i);
+
+            if (row == null) {
+                failed++;
+                results.add(BulkSubmitLeadWithEnquiryResultItemDTO.builder()
+                        .index(i)
+                        .status("FAILED")
+                        .message("Row is null")
+                        .build());
+                continue;
+            }
+
+            // Support payloads where audience_id exists at the root only.
+            if (!StringUtils.hasText(row.getAudienceId())
+                    && StringUtils.hasText(rootAudienceId)) {
+                row.setAudienceId(rootAudienceId);
+            }
+
+            if (!StringUtils.hasText(row.getAudienceId())) {
+                failed++;
+                results.add(BulkSubmitLeadWithEnquiryResultItemDTO.builder()
+                        .index(i)
+                        .status("FAILED")
+                        .message("audience_id is required (root or row)")
+                        .build());
+                continue;
+            }
+
+            // Map optional CSV-friendly aliases:
+            // - `status` -> enquiry.enquiry_status
+            // - `source` -> source_type
+            if (row.getEnquiry() == null && StringUtils.hasText(row.getStatus())) {
+                row.setEnquiry(EnquiryDTO.builder()
+                        .enquiryStatus(row.getStatus().trim())
+                        .build());
+            } else if (row.getEnquiry() != null
+                    && !StringUtils.hasText(row.getEnquiry().getEnquiryStatus())
+                    && StringUtils.hasText(row.getStatus())) {
+                row.getEnquiry().setEnquiryStatus(row.getStatus().trim());
+            }
+
+            if (!StringUtils.hasText(row.getSourceType())
+                    && StringUtils.hasText(row.getSource())) {
+                row.setSourceType(row.getSource().trim());
+            }
+
+            // Lightweight normalization only (no extra required-field checks).
+            // Mandatory fields (ensured by frontend team):
+            // - child_user_dto.full_name, child_user_dto.gender,
+            // child_user_dto.date_of_birth
+            // - parent_name, parent_email, parent_mobile
+            row.setParentName(row.getParentName().trim());
+            row.setParentEmail(row.getParentEmail().trim().toLowerCase());
+            row.setParentMobile(row.getParentMobile().trim());
+
+            // Normalization for student name + optional email.
+            row.getChildUserDTO().setFullName(row.getChildUserDTO()
+                    .getFullName().trim());
+            if (StringUtils.hasText(row.getChildUserDTO().getEmail())) {
+                row.getChildUserDTO().setEmail(
+                        row.getChildUserDTO().getEmail().trim().toLowerCase());
+            }
+            // gender is mandatory; normalize without validating its allowed values
+            row.getChildUserDTO().setGender(
+                    row.getChildUserDTO().getGender().trim());
+
+            // Best-effort dedupe inside the upload payload.
+            String parentEmailKey = row.getParentEmail().trim().toLowerCase();
+            String childNameKey = row.getChildUserDTO().getFullName().trim().toLowerCase();
+            String destinationKey = StringUtils.hasText(row.getDestinationPackageSessionId())
+                    ? row.getDestinationPackageSessionId().trim()
+                    : "";
+
+            String dedupeKey = row.getAudienceId().trim()
+                    + "|" + parentEmailKey
+                    + "|" + childNameKey
+                    + "|" + destinationKey;
+
+            if (dedupeKeys.contains(dedupeKey)) {
+                skipped++;
+                results.add(BulkSubmitLeadWithEnquiryResultItemDTO.builder()
+                        .index(i)
+                        .status("SKIPPED")
+                        .message("Duplicate in upload payload")
+                        .build());
+                continue;
+            }
+            dedupeKeys.add(dedupeKey);
+
+            try {
+                SubmitLeadWithEnquiryResponseDTO response = audienceService.submitLeadWithEnquiry(row);
+
+                success++;
+                results.add(BulkSubmitLeadWithEnquiryResultItemDTO.builder()
+                        .index(i)
+                        .status("SUCCESS")
+                        .message(response.getMessage())
+                        .enquiryId(response.getEnquiryId())
+                        .audienceResponseId(response.getAudienceResponseId())
+                        .parentUserId(response.getParentUserId())
+                        .counsellorId(response.getCounsellorId())
+                        .build());
+            } catch (VacademyException ve) {
+                String msg = ve.getMessage();
+                String normalizedMsg = msg != null ? msg.toLowerCase() : "";
+                boolean alreadySubmitted = normalizedMsg.contains("already submitted");
+
+                if (alreadySubmitted) {
+                    skipped++;
+                    results.add(BulkSubmitLeadWithEnquiryResultItemDTO.builder()
+                            .index(i)
+                            .status("SKIPPED")
+                            .message(msg)
+                            .build());
+                } else {
+                    failed++;
+                    results.add(BulkSubmitLeadWithEnquiryResultItemDTO.builder()
+                            .index(i)
+                            .status("FAILED")
+                            .message(msg)
+                            .build());
+                }
+            } catch (Exception e) {
+                failed++;
+                results.add(BulkSubmitLeadWithEnquiryResultItemDTO.builder()
+                        .index(i)
+                        .status("FAILED")
+                        .message(e.getMessage())
+                        .build());
+            }
+        }
+
+        BulkSubmitLeadWithEnquiryResponseDTO.SummaryDTO summary = BulkSubmitLeadWithEnquiryResponseDTO.SummaryDTO
+                .builder()
+                .totalRequested(results.size())
+                .successful(success)
+                .failed(failed)
+                .skipped(skipped)
+                .build();
+
+        return BulkSubmitLeadWithEnquiryResponseDTO.builder()
+                .summary(summary)
+                .results(results)
+                .build();
+    }
+
+    // ── Jobs ─────────────────────────────────────────────────────────────────
+
+    private LeadImportJob createJob(String jobType, String audienceId, int totalRows, String createdBy) {
+        String instituteId = StringUtils.hasText(audienceId)
+                ? audienceRepository.findById(audienceId).map(Audience::getInstituteId).orElse(null)
+                : null;
+        return leadImportJobRepository.save(LeadImportJob.builder()
+                .jobType(jobType)
+                .status(STATUS_QUEUED)
+                .audienceId(audienceId)
+                .instituteId(instituteId)
+                .totalRows(totalRows)
+                .createdBy(createdBy)
+                .updatedAt(new Timestamp(System.currentTimeMillis()))
+                .build());
+    }
+
+    private LeadImportJobDTO submitJob(LeadImportJob job, Supplier<JobOutcome> work) {
+        try {
+            leadImportExecutor.execute(() -> runJob(job.getId(), work));
+        } catch (RejectedExecutionException e) {
+            job.setStatus(STATUS_FAILED);
+            job.setErrorMessage("Import queue is full");
+            job.setUpdatedAt(new Timestamp(System.currentTimeMillis()));
+            leadImportJobRepository.save(job);
+            throw new VacademyException("Too many lead imports are running right now — please try again shortly");
+        }
+        return toDto(job);
+    }
+
+    private void runJob(String jobId, Supplier<JobOutcome> work) {
+        if (leadImportJobRepository.claim(jobId) == 0) {
+            logger.warn("Lead import job {} is no longer queued; not starting it", jobId);
+            return;
+        }
+        JobOutcome outcome = null;
+        String error = null;
+        String results = null;
+        try {
+            outcome = work.get();
+            results = objectMapper.writeValueAsString(outcome.results());
+        } catch (Exception e) {
+            logger.error("Lead import job {} failed: {}", jobId, e.getMessage(), e);
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+
+        LeadImportJob job = leadImportJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        if (error == null) {
+            job.setStatus(STATUS_COMPLETED);
+            job.setProcessedRows(job.getTotalRows());
+            job.setSuccessful(outcome.successful());
+            job.setFailed(outcome.failed());
+            job.setSkipped(outcome.skipped());
+            job.setResults(results);
+        } else {
+            job.setStatus(STATUS_FAILED);
+            job.setErrorMessage(error);
+        }
+        job.setUpdatedAt(now);
+        job.setCompletedAt(now);
+        leadImportJobRepository.save(job);
+    }
+
+    private Progress progressOf(String jobId) {
+        return (processed, successful, failed, skipped) -> leadImportJobRepository.updateProgress(
+                jobId, STATUS_RUNNING, processed, successful, failed, skipped);
+    }
+
+    private LeadImportJobDTO toDto(LeadImportJob job) {
+        LeadImportJobDTO.LeadImportJobDTOBuilder dto = LeadImportJobDTO.builder()
+                .jobId(job.getId())
+                .jobType(job.getJobType())
+                .status(job.getStatus())
+                .audienceId(job.getAudienceId())
+                .totalRows(job.getTotalRows())
+                .processedRows(job.getProcessedRows())
+                .successful(job.getSuccessful())
+                .failed(job.getFailed())
+                .skipped(job.getSkipped())
+                .errorMessage(job.getErrorMessage())
+                .createdAt(job.getCreatedAt())
+                .completedAt(job.getCompletedAt());
+        if (StringUtils.hasText(job.getResults())) {
+            try {
+                dto.results(objectMapper.readTree(job.getResults()));
+            } catch (Exception e) {
+                logger.warn("Lead import job {} has unreadable results: {}", job.getId(), e.getMessage());
+            }
+        }
+        return dto.build();
+    }
+}
@@ -0,0 +1,127 @@
+package vacademy.io.admin_core_service.features.audience.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import vacademy.io.admin_core_service.features.audience.repository.CrmReportCubeDao;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * The crm_report_cube (V471): daily counts per counsellor, campaign, lead source and
+ * to-status of status changes and follow-ups created / closed, kept current by
+ * triggers on the event tables. Reports ask {@link #isBuilt} before reading it and
+ * fall back to their raw queries otherwise.
+ *
+ * <p>{@link #compact} is the nightly half: it recomputes the trailing
+ * {@code crm.report-cube.rebuild-days} from the raw tables, which is where late
+ * corrections land (a lead moving campaign, a deleted history row), and folds any
+ * older deltas into compacted rows. An institute whose report timezone changed, or
+ * that was never built, gets its whole history rebuilt in the new day buckets,
+ * {@code crm.report-cube.rebuild-chunk-days} at a time.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CrmReportCubeService {
+
+    /** Start of the full rebuild, before any CRM data. */
+    private static final LocalDate EPOCH_DAY = LocalDate.of(1970, 1, 1);
+    /** Open end of the last history chunk, so events stamped in the future are rebuilt too. */
+    private static final LocalDate END_DAY = LocalDate.of(9999, 1, 1);
+
+    private final CrmReportCubeDao crmReportCubeDao;
+    private final LeadReportSettingService leadReportSettingService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${crm.report-cube.rebuild-days:35}")
+    private int rebuildDays;
+
+    @Value("${crm.report-cube.rebuild-chunk-days:31}")
+    private int rebuildChunkDays;
+
+    /** True when the institute's cube exists and is bucketed in {@code timezone}. */
+    @Transactional(readOnly = true)
+    public boolean isBuilt(String instituteId, String timezone) {
+        if (instituteId == null || timezone == null) return false;
+        return timezone.equals(crmReportCubeDao.findBuiltTimezone(instituteId));
+    }
+
+    /**
+     * Rebuilds and compacts one institute. A built institute is refreshed in one short
+     * transaction. Otherwise its history is rebuilt one day range per transaction, each
+     * holding the cube lock only while it replaces its range, so the institute's lead
+     * status and follow-up writes wait for one chunk at most. The triggers write deltas
+     * in the new buckets from the first transaction on: an event is counted by the
+     * rebuild of its range if it committed before that range was rebuilt, by its own
+     * delta otherwise. The institute is marked built with the last chunk.
+     */
+    public void compact(String instituteId) {
+        String timezone = leadReportSettingService.get(instituteId).timezone();
+        ZoneId zone = ZoneId.of(timezone);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        LocalDate firstDay = tx.execute(status -> {
+            crmReportCubeDao.lockInstitute(instituteId);
+            if (!timezone.equals(crmReportCubeDao.findBuiltTimezone(instituteId))) {
+                crmReportCubeDao.startBuild(instituteId, timezone);
+                LocalDate first = crmReportCubeDao.findFirstEventDay(instituteId, timezone);
+                return first != null ? first : LocalDate.now(zone);
+            }
+            LocalDate fromDay = LocalDate.now(zone).minusDays(rebuildDays);
+            int rebuilt = rebuildRange(instituteId, zone, fromDay, END_DAY);
+            crmReportCubeDao.markBuilt(instituteId, timezone);
+            int folded = crmReportCubeDao.foldDeltasBefore(instituteId, Date.valueOf(fromDay));
+            log.debug("[CrmReportCube] institute={} tz={} rebuiltRows={} foldedRows={}",
+                    instituteId, timezone, rebuilt, folded);
+            return null;
+        });
+        if (firstDay == null) return;
+
+        // The first chunk starts at EPOCH_DAY so rows bucketed in an earlier timezone
+        // before the first event are cleared too.
+        LocalDate fromDay = EPOCH_DAY;
+        LocalDate toDay = firstDay.plusDays(rebuildChunkDays);
+        int chunks = 0;
+        int rebuilt = 0;
+        while (true) {
+            boolean last = !toDay.isBefore(LocalDate.now(zone).plusDays(1));
+            LocalDate chunkFrom = fromDay;
+            LocalDate chunkTo = last ? END_DAY : toDay;
+            Integer written = tx.execute(status -> {
+                crmReportCubeDao.lockInstitute(instituteId);
+                int n = rebuildRange(instituteId, zone, chunkFrom, chunkTo);
+                if (last) {
+                    crmReportCubeDao.markBuilt(instituteId, timezone);
+                }
+                return n;
+            });
+            chunks++;
+            rebuilt += written != null ? written : 0;
+            if (last) break;
+            fromDay = toDay;
+            toDay = toDay.plusDays(rebuildChunkDays);
+        }
+
+        log.info("[CrmReportCube] built history of institute={} tz={} from {} in {} chunks, {} rows",
+                instituteId, timezone, firstDay, chunks, rebuilt);
+    }
+
+    private int rebuildRange(String instituteId, ZoneId zone, LocalDate fromDay, LocalDate toDay) {
+        return crmReportCubeDao.rebuildRange(instituteId, zone.getId(),
+                Date.valueOf(fromDay), Date.valueOf(toDay), startOfDayUtc(fromDay, zone), startOfDayUtc(toDay, zone));
+    }
+
+    /** 00:00 of {@code day} in {@code zone} as UTC wall clock, the way the event columns are stored. */
+    private static Timestamp startOfDayUtc(LocalDate day, ZoneId zone) {
+        return Timestamp.valueOf(day.atStartOfDay(zone).withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime());
+    }
+}
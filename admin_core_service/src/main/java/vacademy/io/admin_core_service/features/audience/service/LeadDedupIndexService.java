@@ -0,0 +1,298 @@
+package vacademy.io.admin_core_service.features.audience.service;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import vacademy.io.admin_core_service.features.audience.repository.AudienceResponseRepository;
+import vacademy.io.admin_core_service.features.audience.util.KeyBloomFilter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-institute in-memory pre-filter for LeadDeduplicationService's bulk path
+ * (checkDuplicates, used by lead imports).
+ *
+ * Holds a Bloom filter of every phone_last10 / email_lower key the institute has
+ * (V468), so the keys of an import chunk that are definitely new are left out of
+ * the set query. Only "might exist" keys — real duplicates, or ~1% false positives
+ * — go on to the database, which still makes the actual decision with the
+ * configured scope and status exclusions. The filter is institute-wide and ignores
+ * those rules, so it is a superset of every scope: absent here means absent in any
+ * campaign or lead-list selection of the institute too. Single-lead checks do not
+ * use it: one indexed exists probe costs less than the catch-up a miss needs.
+ *
+ * Keeping it in sync:
+ * <ul>
+ *   <li>Keys an import was just asked about are added straight away by
+ *       {@link #record} — the caller is about to insert them, and adding one that
+ *       never gets inserted only costs a false positive.</li>
+ *   <li>Keys written by other replicas or other paths are read back through
+ *       audience_response.dedup_key_xid, the id of the transaction that wrote them
+ *       (V468). A batch's misses are only trusted after one synchronous catch-up
+ *       that started after the batch was asked about, so a key committed anywhere
+ *       before it is never reported new. Concurrent batches share one catch-up.</li>
+ *   <li>Each catch-up first reads the oldest transaction still running, then
+ *       scans from the previous catch-up's value. Everything stamped below that
+ *       value had finished before the previous scan began, so a writer that holds
+ *       its transaction open for any length of time is re-read until it commits.</li>
+ *   <li>Deletes and key changes leave the old key behind as a false positive. The
+ *       whole filter is rebuilt in the background every {@code rebuild-minutes},
+ *       and sooner once it fills past the size it was built for.</li>
+ * </ul>
+ *
+ * Until an institute's filter has finished building, and whenever a catch-up
+ * fails, cannot finish ({@code max-catch-up-rows} behind a long-running writer)
+ * or would run on the read replica, every key "might exist" and callers fall
+ * back to querying as before.
+ */
+@Service
+public class LeadDedupIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeadDedupIndexService.class);
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final long MIN_CAPACITY = 10_000;
+    private static final int PAGE_SIZE = 5_000;
+    /** How long misses skip straight to the database after a catch-up could not finish. */
+    private static final long STALLED_BACKOFF_MS = 5_000;
+
+    @Autowired
+    private AudienceResponseRepository audienceResponseRepository;
+
+    @Autowired
+    @Qualifier("leadDedupIndexExecutor")
+    private Executor leadDedupIndexExecutor;
+
+    @Value("${lead.dedup.prefilter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${lead.dedup.prefilter.max-catch-up-rows:20000}")
+    private int maxCatchUpRows;
+
+    @Value("${lead.dedup.prefilter.rebuild-minutes:60}")
+    private long rebuildMinutes;
+
+    private AsyncLoadingCache<String, InstituteIndex> indexes;
+
+    @PostConstruct
+    void init() {
+        indexes = Caffeine.newBuilder()
+                .maximumSize(500)
+                .expireAfterAccess(Duration.ofHours(2))
+                .refreshAfterWrite(Duration.ofMinutes(rebuildMinutes))
+                .executor(leadDedupIndexExecutor)
+                .buildAsync(this::build);
+    }
+
+    /**
+     * The subset of {@code keys} that might already be held by a lead of the institute;
+     * the rest are definitely new. Keys are the normalised forms LeadDeduplicationService
+     * queries with: last 10 phone digits, or the trimmed email. Runs at most one
+     * catch-up for the whole batch.
+     */
+    public Set<String> filterMightExist(String instituteId, LeadDedupSettingService.DedupField field,
+            Collection<String> keys) {
+        long askedAt = System.nanoTime();
+        InstituteIndex index = built(instituteId);
+        if (index == null) return new HashSet<>(keys);
+        Set<String> candidates = new HashSet<>();
+        List<String> misses = new ArrayList<>();
+        for (String key : keys) {
+            String filterKey = filterKey(field, key);
+            if (filterKey == null || index.filter.mightContain(filterKey)) {
+                candidates.add(key);
+            } else {
+                misses.add(key);
+            }
+        }
+        if (misses.isEmpty()) return candidates;
+        if (!caughtUp(instituteId, index, askedAt)) {
+            candidates.addAll(misses);
+            return candidates;
+        }
+        for (String key : misses) {
+            if (index.filter.mightContain(filterKey(field, key))) {
+                candidates.add(key);
+            }
+        }
+        return candidates;
+    }
+
+    /** Adds keys a lead of the institute is about to be written with. */
+    public void record(String instituteId, LeadDedupSettingService.DedupField field, Collection<String> keys) {
+        if (!enabled) return;
+        CompletableFuture<InstituteIndex> future = indexes.getIfPresent(instituteId);
+        if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+            // Not built yet: the build reads these keys from the table once they are inserted.
+            return;
+        }
+        InstituteIndex index = future.join();
+        for (String key : keys) {
+            String filterKey = filterKey(field, key);
+            if (filterKey != null) {
+                add(index, filterKey);
+            }
+        }
+    }
+
+    /** The institute's filter, or null when it has not finished building. */
+    private InstituteIndex built(String instituteId) {
+        if (!enabled || instituteId == null) return null;
+        CompletableFuture<InstituteIndex> future = indexes.get(instituteId);
+        if (!future.isDone() || future.isCompletedExceptionally()) return null;
+        return future.join();
+    }
+
+    private InstituteIndex build(String instituteId) {
+        long startedAt = System.currentTimeMillis();
+        long snapshotAt = System.nanoTime();
+        // Taken before the scan: the scan sees every row stamped below it.
+        long fromXid = audienceResponseRepository.findOldestRunningXid();
+        long keyedRows = audienceResponseRepository.countDedupKeysForInstitute(instituteId);
+        InstituteIndex index = new InstituteIndex(
+                KeyBloomFilter.create(Math.max(MIN_CAPACITY, keyedRows * 2), FALSE_POSITIVE_RATE),
+                fromXid, snapshotAt);
+
+        String afterId = "";
+        while (true) {
+            List<Object[]> page = audienceResponseRepository.findDedupKeysForInstituteAfterId(
+                    instituteId, afterId, PAGE_SIZE);
+            for (Object[] row : page) {
+                addRow(index, (String) row[1], (String) row[2]);
+            }
+            if (page.size() < PAGE_SIZE) break;
+            afterId = (String) page.get(page.size() - 1)[0];
+        }
+
+        logger.info("Built dedup pre-filter for institute {}: {} keyed leads, {} KB, {} ms",
+                instituteId, keyedRows, index.filter.sizeInBytes() / 1024,
+                System.currentTimeMillis() - startedAt);
+        return index;
+    }
+
+    /**
+     * Brings the filter up to every key committed before {@code askedAt}. False when
+     * that cannot be guaranteed right now; the caller must then query.
+     */
+    private boolean caughtUp(String instituteId, InstituteIndex index, long askedAt) {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            // Routed to the read replica, which may not have the primary's latest rows.
+            return false;
+        }
+        index.catchUpLock.lock();
+        try {
+            if (index.lastSnapshotAt - askedAt >= 0) {
+                // A catch-up that started after this question has already run.
+                return true;
+            }
+            if (System.currentTimeMillis() < index.stalledUntil) return false;
+
+            long snapshotAt = System.nanoTime();
+            long oldestRunning = audienceResponseRepository.findOldestRunningXid();
+            long afterXid = index.fromXid;
+            String afterId = "";
+            int rows = 0;
+            while (true) {
+                List<Object[]> page = audienceResponseRepository.findDedupKeysForInstituteAfterXid(
+                        instituteId, afterXid, afterId, PAGE_SIZE);
+                for (Object[] row : page) {
+                    addRow(index, (String) row[2], (String) row[3]);
+                }
+                if (page.size() < PAGE_SIZE) break;
+                rows += page.size();
+                if (rows >= maxCatchUpRows) {
+                    // A long-running writer is holding the range open; stop re-reading it on every miss.
+                    index.stalledUntil = System.currentTimeMillis() + STALLED_BACKOFF_MS;
+                    logger.warn("Dedup pre-filter catch-up for institute {} is {}+ rows behind, querying directly",
+                            instituteId, rows);
+                    return false;
+                }
+                Object[] last = page.get(page.size() - 1);
+                afterXid = ((Number) last[0]).longValue();
+                afterId = (String) last[1];
+            }
+
+            index.fromXid = Math.max(index.fromXid, oldestRunning);
+            index.lastSnapshotAt = snapshotAt;
+        } catch (Exception e) {
+            logger.warn("Dedup pre-filter catch-up failed for institute {}, querying directly: {}",
+                    instituteId, e.getMessage());
+            return false;
+        } finally {
+            index.catchUpLock.unlock();
+        }
+
+        if (index.keysAdded.get() > index.filter.expectedKeys() && index.rebuildRequested.compareAndSet(false, true)) {
+            // Past its sizing the false-positive rate climbs; swap in a bigger filter.
+            indexes.synchronous().refresh(instituteId);
+        }
+        return true;
+    }
+
+    private void addRow(InstituteIndex index, String phoneLast10, String emailLower) {
+        String phoneKey = filterKey(LeadDedupSettingService.DedupField.PHONE, phoneLast10);
+        if (phoneKey != null) add(index, phoneKey);
+        String emailKey = filterKey(LeadDedupSettingService.DedupField.EMAIL, emailLower);
+        if (emailKey != null) add(index, emailKey);
+    }
+
+    private void add(InstituteIndex index, String filterKey) {
+        if (index.filter.put(filterKey)) {
+            index.keysAdded.incrementAndGet();
+        }
+    }
+
+    /**
+     * Filter entry for a key, or null when the key must always go to the database.
+     * Emails outside ASCII are left out: Java and Postgres lower-case some of those
+     * characters differently, and a mismatch here would hide a real duplicate.
+     */
+    private static String filterKey(LeadDedupSettingService.DedupField field, String key) {
+        if (key == null) return null;
+        if (field == LeadDedupSettingService.DedupField.PHONE) {
+            return key.isEmpty() ? null : "P:" + key;
+        }
+        String email = key.trim().toLowerCase(Locale.ROOT);
+        if (email.isEmpty()) return null;
+        for (int i = 0; i < email.length(); i++) {
+            if (email.charAt(i) > 127) return null;
+        }
+        return "E:" + email;
+    }
+
+    private static final class InstituteIndex {
+        final KeyBloomFilter filter;
+        final AtomicLong keysAdded = new AtomicLong();
+        final AtomicBoolean rebuildRequested = new AtomicBoolean();
+        final ReentrantLock catchUpLock = new ReentrantLock();
+        /** Every key stamped by a transaction below this is in the filter. Guarded by catchUpLock. */
+        long fromXid;
+        /** System.nanoTime() just before the last completed scan's snapshot. Guarded by catchUpLock. */
+        long lastSnapshotAt;
+        long stalledUntil;
+
+        InstituteIndex(KeyBloomFilter filter, long fromXid, long snapshotAt) {
+            this.filter = filter;
+            this.fromXid = fromXid;
+            this.lastSnapshotAt = snapshotAt;
+        }
+    }
+}
@@ -12,8 +12,14 @@ import vacademy.io.admin_core_service.features.timeline.service.TimelineEventSer
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Lead deduplication service scoped within a single Audience/Campaign.
@@ -33,6 +39,9 @@ public class LeadDeduplicationService {
     @Autowired
     private LeadDedupSettingService leadDedupSettingService;
 
+    @Autowired
+    private LeadDedupIndexService leadDedupIndexService;
+
     /**
      * Generate a dedupe key from email and phone.
      * Normalizes: lowercase email, strip non-digit chars from phone.
@@ -186,6 +195,86 @@ public class LeadDeduplicationService {
                 null));
     }
 
+    /**
+     * Batch form of {@link #checkDuplicate(String, String, String, String)} for bulk imports:
+     * one set query per chunk instead of one probe per row. {@code emails} and {@code phones}
+     * are aligned by row; the result maps a row's position to its match (rows without a
+     * match are absent).
+     *
+     * <p>A row whose key already appeared earlier in the same call counts as a match too —
+     * the single-row path would have seen that earlier row's lead by then.
+     */
+    public Map<Integer, DuplicateMatch> checkDuplicates(String instituteId, String audienceId,
+            List<String> emails, List<String> phones) {
+        LeadDedupSettingService.DedupSettings settings = leadDedupSettingService.get(instituteId);
+        if (!settings.enabled()) return Map.of();
+
+        LeadDedupSettingService.DedupScope scope = settings.scope();
+        if (scope == LeadDedupSettingService.DedupScope.SELECTED
+                && (settings.audienceIds() == null || settings.audienceIds().isEmpty())) {
+            return Map.of();
+        }
+
+        String scopeLabel = switch (scope) {
+            case INSTITUTE -> "in this institute";
+            case SELECTED -> "in one of the selected lead lists";
+            case CAMPAIGN -> "in this lead list";
+        };
+        boolean phoneField = settings.field() == LeadDedupSettingService.DedupField.PHONE;
+
+        List<String> keys = new ArrayList<>(emails.size());
+        for (int i = 0; i < emails.size(); i++) {
+            if (phoneField) {
+                keys.add(lastNDigits(phones.get(i), 10));
+            } else {
+                String email = emails.get(i) != null ? emails.get(i).trim().toLowerCase(Locale.ROOT) : "";
+                keys.add(email.isEmpty() ? null : email);
+            }
+        }
+        Set<String> distinctKeys = new HashSet<>(keys);
+        distinctKeys.remove(null);
+        if (distinctKeys.isEmpty()) return Map.of();
+
+        // Only keys the pre-filter cannot rule out go to the database. A single lead
+        // skips the filter: its indexed exists probe is cheaper than a catch-up.
+        Set<String> candidates = leadDedupIndexService.filterMightExist(instituteId, settings.field(), distinctKeys);
+        Set<String> existing = candidates.isEmpty() ? Set.of() : new HashSet<>(phoneField
+                ? switch (scope) {
+                    case INSTITUTE -> audienceResponseRepository.findExistingPhoneKeysInInstitute(instituteId, candidates);
+                    case SELECTED -> audienceResponseRepository.findExistingPhoneKeysInAudiences(settings.audienceIds(), candidates);
+                    case CAMPAIGN -> audienceResponseRepository.findExistingPhoneKeysInAudience(audienceId, candidates);
+                }
+                : switch (scope) {
+                    case INSTITUTE -> audienceResponseRepository.findExistingEmailKeysInInstitute(instituteId, candidates);
+                    case SELECTED -> audienceResponseRepository.findExistingEmailKeysInAudiences(settings.audienceIds(), candidates);
+                    case CAMPAIGN -> audienceResponseRepository.findExistingEmailKeysInAudience(audienceId, candidates);
+                });
+        leadDedupIndexService.record(instituteId, settings.field(), distinctKeys);
+        // Rows of this import land in audienceId, so they only collide with each other when
+        // that campaign is inside the configured scope.
+        boolean batchInScope = scope != LeadDedupSettingService.DedupScope.SELECTED
+                || settings.audienceIds().contains(audienceId);
+
+        DuplicateMatch match = settings.action() == LeadDedupSettingService.DedupAction.ALLOW_REASSIGN
+                ? new DuplicateMatch(LeadDedupSettingService.DedupAction.ALLOW_REASSIGN, null, settings.repeatLead())
+                : new DuplicateMatch(LeadDedupSettingService.DedupAction.REJECT,
+                        "A lead with this " + (phoneField ? "phone number" : "email") + " already exists "
+                                + scopeLabel + ".",
+                        null);
+
+        Map<Integer, DuplicateMatch> matches = new HashMap<>();
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < keys.size(); i++) {
+            String key = keys.get(i);
+            if (key == null) continue;
+            boolean repeated = !seen.add(key) && batchInScope;
+            if (repeated || existing.contains(key)) {
+                matches.put(i, match);
+            }
+        }
+        return matches;
+    }
+
     /**
      * Strip non-digits and return the last n digits (tolerates country-code prefixes),
      * or null if there aren't enough digits to compare.
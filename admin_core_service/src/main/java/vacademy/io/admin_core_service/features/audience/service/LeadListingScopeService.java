@@ -0,0 +1,122 @@
+package vacademy.io.admin_core_service.features.audience.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import vacademy.io.admin_core_service.features.audience.service.AudienceRoleAccessService.EffectiveAccess;
+import vacademy.io.admin_core_service.features.counsellor_workbench.service.CounsellorScopeService;
+import vacademy.io.admin_core_service.features.suborg.service.SubOrgLeadScopeService;
+import vacademy.io.common.auth.model.CustomUserDetails;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * The caller-level half of the CRM lead listing's RBAC, resolved once per caller
+ * and reused for every page and filter change they make (see
+ * {@code AudienceService.getLeads} for how each part narrows the list).
+ *
+ * <p>Resolving it costs an institute-setting read, two FSPSSM lookups and — for a
+ * hierarchy-scoped counsellor — one auth_service round trip per team they belong
+ * to, which used to be paid again on every page of the leads table.
+ *
+ * <p>Keyed by institute, user and the caller's resolved roles, so a role grant or
+ * revoke that reaches the JWT is picked up on the next request. The team hierarchy
+ * itself lives in auth_service, which does not notify us, so it is bounded by the
+ * TTL — the same two minutes {@link CounsellorScopeService} already caches the
+ * counsellor roster for. Changes made through admin_core (sub-org members, pools,
+ * the audience-access setting) evict explicitly via {@link #evictInstitute} /
+ * {@link #evictAll}.
+ */
+@Service
+@RequiredArgsConstructor
+public class LeadListingScopeService {
+
+    private static final Duration SCOPE_TTL = Duration.ofMinutes(2);
+
+    private final AudienceRoleAccessService audienceRoleAccessService;
+    private final CounsellorScopeService counsellorScopeService;
+    private final SubOrgLeadScopeService subOrgLeadScopeService;
+
+    private final Cache<String, LeadListingScope> scopes = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(SCOPE_TTL)
+            .build();
+
+    /**
+     * @param access            the caller's AUDIENCE_ROLE_ACCESS mode
+     * @param counsellorUserIds counsellors whose leads the caller is limited to; empty = no
+     *                          counsellor scoping (admins, unscoped roles)
+     * @param subOrgScoped      the ids are a sub-org admin's members rather than a
+     *                          counsellor hierarchy — the shared unassigned pool is hidden too
+     */
+    public record LeadListingScope(EffectiveAccess access, List<String> counsellorUserIds, boolean subOrgScoped) {
+
+        /** True when {@link #counsellorUserIds} must be applied to the listing. */
+        public boolean counsellorScoped() {
+            return !counsellorUserIds.isEmpty();
+        }
+    }
+
+    public LeadListingScope scopeFor(CustomUserDetails user, String instituteId) {
+        if (user == null || user.getUserId() == null || instituteId == null || instituteId.isBlank()) {
+            // Nothing to key on, and nothing expensive to resolve either.
+            return resolve(user, instituteId);
+        }
+        String key = instituteId + '|' + user.getUserId() + '|'
+                + new TreeSet<>(audienceRoleAccessService.resolvedCallerRoles(user, instituteId));
+        return scopes.get(key, k -> resolve(user, instituteId));
+    }
+
+    /** Drops every cached scope of the institute, after the current transaction commits. */
+    public void evictInstitute(String instituteId) {
+        if (instituteId == null) return;
+        String prefix = instituteId + '|';
+        afterCommit(() -> scopes.asMap().keySet().removeIf(key -> key.startsWith(prefix)));
+    }
+
+    /**
+     * Drops every cached scope, after the current transaction commits. For changes that
+     * are not tied to one institute key, e.g. sub-org membership: the affected sub-org
+     * admin is cached under the parent institute.
+     */
+    public void evictAll() {
+        afterCommit(scopes::invalidateAll);
+    }
+
+    private LeadListingScope resolve(CustomUserDetails user, String instituteId) {
+        EffectiveAccess access = audienceRoleAccessService.resolveForCaller(user, instituteId);
+        if (user == null || user.getUserId() == null || instituteId == null || instituteId.isBlank()) {
+            return new LeadListingScope(access, List.of(), false);
+        }
+
+        // Sub-org admin first: they also hold the parent ADMIN role, so the counsellor
+        // check below would treat them as an institute-wide admin.
+        List<String> subOrgMembers = subOrgLeadScopeService.subOrgScopedCounsellorUserIds(user.getUserId());
+        if (!subOrgMembers.isEmpty()) {
+            return new LeadListingScope(access, List.copyOf(subOrgMembers), true);
+        }
+
+        if (counsellorScopeService.isScopedCaller(instituteId, user)) {
+            List<String> hierarchy = counsellorScopeService.scopedCounsellorUserIds(instituteId, user.getUserId());
+            return new LeadListingScope(access, List.copyOf(hierarchy), false);
+        }
+        return new LeadListingScope(access, List.of(), false);
+    }
+
+    // Evicting before commit leaves a window where a concurrent listing re-caches the
+    // old scope, as TelephonyConfigController notes for its own cache.
+    private static void afterCommit(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override public void afterCommit() { eviction.run(); }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+}
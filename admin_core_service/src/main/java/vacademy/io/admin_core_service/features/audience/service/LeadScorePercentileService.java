@@ -0,0 +1,138 @@
+package vacademy.io.admin_core_service.features.audience.service;
+
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import vacademy.io.admin_core_service.features.audience.entity.LeadScore;
+import vacademy.io.admin_core_service.features.audience.repository.LeadScoreHistogramDao;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Lead score percentile ranks from the per-campaign score histogram (V470).
+ *
+ * raw_score is an integer 0-100 and trg_lead_score_histogram keeps the number of
+ * leads at each score per campaign (as append-only deltas on top of a base count,
+ * so score writers never lock a shared row), so a lead's rank is answered on read —
+ * (leads scoring below it) / (leads in campaign - 1), the PERCENT_RANK the batch
+ * job used to write — and is current as of the last committed score write rather
+ * than up to 15 minutes old.
+ *
+ * The stored lead_score.percentile_rank column is still kept for anything reading
+ * it directly, but only campaigns whose histogram moved are rewritten, and only
+ * their rows whose rank actually changed. The same sync folds those campaigns'
+ * deltas into the base counts.
+ */
+@Service
+public class LeadScorePercentileService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeadScorePercentileService.class);
+
+    @Autowired
+    private LeadScoreHistogramDao leadScoreHistogramDao;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /** Live percentile rank of one score, falling back to the stored value. */
+    public BigDecimal percentileRank(LeadScore score) {
+        return percentileRanks(List.of(score)).get(score.getAudienceResponseId());
+    }
+
+    /**
+     * Live percentile ranks keyed by audience_response_id, with one histogram read
+     * for all the campaigns involved. A campaign without histogram rows (nothing to
+     * rank against yet) keeps the stored value.
+     */
+    public Map<String, BigDecimal> percentileRanks(Collection<LeadScore> scores) {
+        Map<String, BigDecimal> ranks = new HashMap<>();
+        if (scores.isEmpty()) return ranks;
+
+        Set<String> audienceIds = new HashSet<>();
+        for (LeadScore score : scores) {
+            audienceIds.add(score.getAudienceId());
+        }
+        Map<String, ScoreHistogram> histograms = new HashMap<>();
+        for (Object[] row : leadScoreHistogramDao.findBuckets(audienceIds)) {
+            histograms.computeIfAbsent((String) row[0], id -> new ScoreHistogram())
+                    .add(((Number) row[1]).intValue(), ((Number) row[2]).longValue());
+        }
+
+        for (LeadScore score : scores) {
+            ScoreHistogram histogram = histograms.get(score.getAudienceId());
+            ranks.put(score.getAudienceResponseId(), histogram != null && score.getRawScore() != null
+                    ? histogram.percentileRank(score.getRawScore())
+                    : score.getPercentileRank());
+        }
+        return ranks;
+    }
+
+    /**
+     * Folds the deltas of campaigns whose scores changed and rewrites their stored
+     * percentile ranks, one campaign per transaction. Replaces the 15-minute full
+     * recompute of every campaign; a quiet campaign now costs nothing. A failed
+     * campaign rolls back with its deltas intact and is retried next run.
+     */
+    @Scheduled(fixedDelayString = "${lead.score.percentile.sync-interval-ms:60000}")
+    @SchedulerLock(name = "LeadScorePercentileService_syncChangedAudiences", lockAtMostFor = "PT10M", lockAtLeastFor = "PT30S")
+    public void syncChangedAudiences() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        int audiences = 0;
+        int rows = 0;
+        List<String> changed = tx.execute(status -> leadScoreHistogramDao.findChangedAudiences());
+        if (changed == null) return;
+        for (String audienceId : changed) {
+            try {
+                Integer rewritten = tx.execute(status -> {
+                    leadScoreHistogramDao.foldDeltas(audienceId);
+                    return leadScoreHistogramDao.rewritePercentiles(audienceId);
+                });
+                rows += rewritten != null ? rewritten : 0;
+                audiences++;
+            } catch (Exception e) {
+                logger.error("Failed to rewrite percentiles for audience: {}", audienceId, e);
+            }
+        }
+
+        if (audiences > 0) {
+            logger.info("Lead score percentiles synced for {} changed audiences ({} rows rewritten)", audiences, rows);
+        }
+    }
+
+    /** Lead counts per raw score of one campaign. */
+    static final class ScoreHistogram {
+        private final TreeMap<Integer, Long> counts = new TreeMap<>();
+        private long total;
+
+        void add(int rawScore, long leads) {
+            counts.merge(rawScore, leads, Long::sum);
+            total += leads;
+        }
+
+        /** PERCENT_RANK() * 100 of a lead at {@code rawScore}, rounded like the DECIMAL(5,2) column. */
+        BigDecimal percentileRank(int rawScore) {
+            if (total <= 1) return new BigDecimal("0.00");
+            long below = 0;
+            for (long leads : counts.headMap(rawScore, false).values()) {
+                below += leads;
+            }
+            // a lead read a moment before its own score write committed could otherwise overshoot 100
+            below = Math.min(below, total - 1);
+            return BigDecimal.valueOf(below * 100)
+                    .divide(BigDecimal.valueOf(total - 1), 2, RoundingMode.HALF_UP);
+        }
+    }
+}
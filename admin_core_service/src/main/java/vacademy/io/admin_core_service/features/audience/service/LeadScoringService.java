@@ -6,8 +6,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
-import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -30,7 +28,8 @@ import java.util.*;
 /**
  * Real-time lead scoring engine.
  * Calculates raw_score (0-100) immediately on every lead event.
- * Percentile ranks are recalculated in batch every 15 minutes.
+ * Percentile ranks are answered on read from the per-campaign score histogram
+ * ({@link LeadScorePercentileService}).
  *
  * Scoring factors (default weights — per-institute overrides come from
  * LEAD_SETTING.data.scoringWeights via {@link LeadScoringSettingService}):
@@ -288,30 +287,6 @@ public class LeadScoringService {
         );
     }
 
-    /**
-     * Batch recalculate percentile ranks every 15 minutes.
-     * Percentile is an expensive operation (touches all rows) so it runs as batch.
-     */
-    @Scheduled(fixedRate = 15 * 60 * 1000) // 15 minutes
-    @SchedulerLock(name = "LeadScoringService_batchRecalculatePercentiles", lockAtMostFor = "PT14M", lockAtLeastFor = "PT30S")
-    @Transactional
-    public void batchRecalculatePercentiles() {
-        logger.info("Starting batch percentile recalculation...");
-        List<String> audienceIds = leadScoreRepository.findDistinctAudienceIds();
-
-        int total = 0;
-        for (String audienceId : audienceIds) {
-            try {
-                leadScoreRepository.recalculatePercentilesForAudience(audienceId);
-                total++;
-            } catch (Exception e) {
-                logger.error("Failed to recalculate percentiles for audience: {}", audienceId, e);
-            }
-        }
-
-        logger.info("Batch percentile recalculation complete. Processed {} audiences.", total);
-    }
-
     // ─────────────────────────────────────────────────────────
     // Factor Calculation Methods
     // ─────────────────────────────────────────────────────────
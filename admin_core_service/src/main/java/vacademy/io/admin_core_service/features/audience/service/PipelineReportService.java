@@ -58,6 +58,7 @@ public class PipelineReportService {
     private final LeadReportSettingService settingService;
     private final AuthService authService;
     private final vacademy.io.admin_core_service.features.counsellor_workbench.service.CounsellorScopeService counsellorScopeService;
+    private final CrmReportCubeService crmReportCubeService;
 
     private static final int DEFAULT_RANGE_DAYS = 30;
     private static final String SYSTEM_ACTOR_ID = "SYSTEM";
@@ -247,6 +248,27 @@ public class PipelineReportService {
             GROUP BY 1, 2
             """;
 
+    /**
+     * {@link #STATUS_CHANGES_SQL} read from crm_report_cube (V471) once the institute's cube
+     * is built in the report timezone — its institute-TZ days cover exactly the
+     * [fromTs, toTs) window, and OPTED_OUT leads are already left out.
+     */
+    private static final String CUBE_STATUS_CHANGES_SQL = """
+            SELECT COALESCE(c.counsellor_user_id, 'SYSTEM') AS actor_id,
+                   ls.status_key,
+                   SUM(c.n) AS n
+            FROM crm_report_cube c
+            JOIN lead_status ls ON ls.id = c.status_id AND ls.is_active = true
+            WHERE c.institute_id = :instituteId
+              AND c.metric = 'STATUS_CHANGE'
+              AND c.day >= :fromDay
+              AND c.day <= :toDay
+              AND (:scopeCsv IS NULL OR c.counsellor_user_id = ANY(STRING_TO_ARRAY(:scopeCsv, ',')))
+              AND (:audienceId IS NULL OR c.audience_id = :audienceId)
+            GROUP BY 1, 2
+            HAVING SUM(c.n) <> 0
+            """;
+
     /**
      * Leads assigned to each counsellor that have never had a status change recorded — i.e.
      * zero rows in lead_status_history across any of their audience_responses in this institute.
@@ -356,7 +378,8 @@ public class PipelineReportService {
         RowCallbackHandler changesCollector = rs -> changesByActor
                 .computeIfAbsent(rs.getString("actor_id"), k -> new LinkedHashMap<>())
                 .merge(rs.getString("status_key"), rs.getLong("n"), Long::sum);
-        jdbc.query(STATUS_CHANGES_SQL, p, changesCollector);
+        jdbc.query(crmReportCubeService.isBuilt(instituteId, settings.timezone())
+                ? CUBE_STATUS_CHANGES_SQL : STATUS_CHANGES_SQL, p, changesCollector);
 
         // counsellor → pending count (assigned leads with no history at all)
         Map<String, Long> pendingByActor = new LinkedHashMap<>();
@@ -630,7 +653,9 @@ public class PipelineReportService {
         LocalDate from = parseOr(fromDate, to.minusDays(DEFAULT_RANGE_DAYS - 1L));
         return new Window(
                 Timestamp.valueOf(from.atStartOfDay(zone).withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime()),
-                Timestamp.valueOf(to.plusDays(1).atStartOfDay(zone).withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime()));
+                Timestamp.valueOf(to.plusDays(1).atStartOfDay(zone).withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime()),
+                java.sql.Date.valueOf(from),
+                java.sql.Date.valueOf(to));
     }
 
     private static LocalDate parseOr(String iso, LocalDate fallback) {
@@ -651,6 +676,8 @@ public class PipelineReportService {
                 .addValue("instituteId", instituteId)
                 .addValue("fromTs", w.fromUtc(), Types.TIMESTAMP)
                 .addValue("toTs", w.toUtc(), Types.TIMESTAMP)
+                .addValue("fromDay", w.fromDay(), Types.DATE)
+                .addValue("toDay", w.toDay(), Types.DATE)
                 .addValue("scopeCsv", scopeCsv, Types.VARCHAR)
                 .addValue("audienceId", trimToNull(audienceId), Types.VARCHAR);
     }
@@ -727,7 +754,7 @@ public class PipelineReportService {
         return rs.wasNull() ? null : v;
     }
 
-    /** UTC wall-clock window bounds: [fromUtc, toUtc). */
-    private record Window(Timestamp fromUtc, Timestamp toUtc) {
+    /** UTC wall-clock window bounds: [fromUtc, toUtc), plus the institute-TZ days [fromDay, toDay] they span. */
+    private record Window(Timestamp fromUtc, Timestamp toUtc, java.sql.Date fromDay, java.sql.Date toDay) {
     }
 }
@@ -0,0 +1,170 @@
+package vacademy.io.admin_core_service.features.audience.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over string keys, safe for concurrent {@link #put} and
+ * {@link #mightContain} without locking.
+ *
+ * {@link #mightContain} never answers false for a key that was put; it answers
+ * true for a key that was not with roughly the false-positive rate the filter was
+ * sized for, as long as no more than {@code expectedKeys} are added. Keys cannot
+ * be removed — a deleted key just stays a false positive until the filter is
+ * rebuilt.
+ *
+ * Bit positions come from one 128-bit MurmurHash3 (x64) of the key's UTF-8 bytes,
+ * split into two 64-bit halves and combined by double hashing.
+ */
+public class KeyBloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final long expectedKeys;
+
+    private KeyBloomFilter(long bitCount, int hashCount, long expectedKeys) {
+        this.words = new AtomicLongArray((int) ((bitCount + 63) / 64));
+        this.bitCount = (long) words.length() * 64;
+        this.hashCount = hashCount;
+        this.expectedKeys = expectedKeys;
+    }
+
+    /**
+     * @param expectedKeys      keys the filter should hold before its error rate degrades
+     * @param falsePositiveRate target rate at {@code expectedKeys}, e.g. 0.01
+     */
+    public static KeyBloomFilter create(long expectedKeys, double falsePositiveRate) {
+        long n = Math.max(1, expectedKeys);
+        long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int hashes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+        return new KeyBloomFilter(Math.max(64, bits), hashes, n);
+    }
+
+    /**
+     * Adds the key.
+     *
+     * @return true if any bit changed, i.e. the key was definitely not in the filter
+     *         before; false means it was (or collided with keys that were)
+     */
+    public boolean put(String key) {
+        long[] hash = murmur3(key.getBytes(StandardCharsets.UTF_8));
+        long combined = hash[0];
+        boolean changed = false;
+        for (int i = 0; i < hashCount; i++) {
+            changed |= setBit((combined & Long.MAX_VALUE) % bitCount);
+            combined += hash[1];
+        }
+        return changed;
+    }
+
+    public boolean mightContain(String key) {
+        long[] hash = murmur3(key.getBytes(StandardCharsets.UTF_8));
+        long combined = hash[0];
+        for (int i = 0; i < hashCount; i++) {
+            if (!getBit((combined & Long.MAX_VALUE) % bitCount)) {
+                return false;
+            }
+            combined += hash[1];
+        }
+        return true;
+    }
+
+    public long expectedKeys() {
+        return expectedKeys;
+    }
+
+    /** Memory held by the bit array. */
+    public long sizeInBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    private boolean setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        long current;
+        do {
+            current = words.get(word);
+            if ((current & mask) != 0) {
+                return false;
+            }
+        } while (!words.compareAndSet(word, current, current | mask));
+        return true;
+    }
+
+    private boolean getBit(long index) {
+        return (words.get((int) (index >>> 6)) & (1L << index)) != 0;
+    }
+
+    private static long[] murmur3(byte[] data) {
+        final long c1 = 0x87c37b91114253d5L;
+        final long c2 = 0x4cf5ad432745937fL;
+        long h1 = 0;
+        long h2 = 0;
+        int blocks = data.length / 16;
+
+        for (int i = 0; i < blocks; i++) {
+            long k1 = littleEndianLong(data, i * 16);
+            long k2 = littleEndianLong(data, i * 16 + 8);
+
+            k1 *= c1; k1 = Long.rotateLeft(k1, 31); k1 *= c2; h1 ^= k1;
+            h1 = Long.rotateLeft(h1, 27); h1 += h2; h1 = h1 * 5 + 0x52dce729;
+            k2 *= c2; k2 = Long.rotateLeft(k2, 33); k2 *= c1; h2 ^= k2;
+            h2 = Long.rotateLeft(h2, 31); h2 += h1; h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        long k1 = 0;
+        long k2 = 0;
+        int tail = blocks * 16;
+        switch (data.length & 15) {
+            case 15: k2 ^= (long) (data[tail + 14] & 0xff) << 48;
+            case 14: k2 ^= (long) (data[tail + 13] & 0xff) << 40;
+            case 13: k2 ^= (long) (data[tail + 12] & 0xff) << 32;
+            case 12: k2 ^= (long) (data[tail + 11] & 0xff) << 24;
+            case 11: k2 ^= (long) (data[tail + 10] & 0xff) << 16;
+            case 10: k2 ^= (long) (data[tail + 9] & 0xff) << 8;
+            case 9:
+                k2 ^= data[tail + 8] & 0xff;
+                k2 *= c2; k2 = Long.rotateLeft(k2, 33); k2 *= c1; h2 ^= k2;
+            case 8: k1 ^= (long) (data[tail + 7] & 0xff) << 56;
+            case 7: k1 ^= (long) (data[tail + 6] & 0xff) << 48;
+            case 6: k1 ^= (long) (data[tail + 5] & 0xff) << 40;
+            case 5: k1 ^= (long) (data[tail + 4] & 0xff) << 32;
+            case 4: k1 ^= (long) (data[tail + 3] & 0xff) << 24;
+            case 3: k1 ^= (long) (data[tail + 2] & 0xff) << 16;
+            case 2: k1 ^= (long) (data[tail + 1] & 0xff) << 8;
+            case 1:
+                k1 ^= data[tail] & 0xff;
+                k1 *= c1; k1 = Long.rotateLeft(k1, 31); k1 *= c2; h1 ^= k1;
+            default:
+                break;
+        }
+
+        h1 ^= data.length;
+        h2 ^= data.length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        h2 += h1;
+        return new long[] { h1, h2 };
+    }
+
+    private static long littleEndianLong(byte[] data, int offset) {
+        long value = 0;
+        for (int i = 7; i >= 0; i--) {
+            value = (value << 8) | (data[offset + i] & 0xff);
+        }
+        return value;
+    }
+
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
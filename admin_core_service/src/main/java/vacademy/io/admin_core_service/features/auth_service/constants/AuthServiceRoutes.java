@@ -18,6 +18,7 @@ public class AuthServiceRoutes {
     public static final String CREATE_OR_GET_EXISTING_BY_ID = "/auth-service/internal/user/create-or-get-existing-by-id";
     public static final String GET_STUDENT_LOGIN_STATS = "/auth-service/analytics/student-login-stats";
     public static final String CREATE_MULTIPLE_USERS = "/auth-service/v1/user/internal/create-multiple-users";
+    public static final String CREATE_USERS_OR_GET_EXISTING = "/auth-service/v1/user/internal/create-users-or-get-existing";
     public static final String GET_USERS_WITH_CHILDREN = "/auth-service/v1/user/internal/users-with-children";
     public static final String GET_USER_BY_MOBILE = "/auth-service/v1/user/internal/user-by-mobile";
     public static final String UPDATE_INSTITUTE_SETTINGS = "/auth-service/internal/institute-settings";
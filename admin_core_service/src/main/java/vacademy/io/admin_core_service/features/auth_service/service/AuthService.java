@@ -195,6 +195,34 @@ public class AuthService {
         }
     }
 
+    /**
+     * Batch form of {@link #createUserFromAuthService} — one round trip for a whole chunk
+     * of a bulk lead import. The result is aligned with the input; a user auth_service
+     * could not create comes back as null in its slot.
+     */
+    public List<UserDTO> createUsersOrGetExisting(List<UserDTO> userDTOs, String instituteId, boolean sendCred) {
+        try {
+            String url = AuthServiceRoutes.CREATE_USERS_OR_GET_EXISTING
+                    + "?instituteId=" + instituteId
+                    + "&isNotify=" + sendCred;
+
+            userDTOs.forEach(userDTO -> userDTO.setRootUser(true));
+            ObjectMapper objectMapper = new ObjectMapper();
+
+            ResponseEntity<String> response = hmacClientUtils.makeHmacRequest(
+                    clientName,
+                    HttpMethod.POST.name(),
+                    authServerBaseUrl,
+                    url,
+                    userDTOs);
+
+            return objectMapper.readValue(response.getBody(), new TypeReference<List<UserDTO>>() {
+            });
+        } catch (Exception e) {
+            throw new VacademyException(e.getMessage());
+        }
+    }
+
     public UserDTO createUserFromAuthServiceForLearnerEnrollment(UserDTO userDTO, String instituteId,
             boolean sendCred) {
         return createUserFromAuthServiceForLearnerEnrollment(userDTO, instituteId, sendCred, null);
@@ -6,6 +6,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import vacademy.io.admin_core_service.features.audience.repository.UserLeadProfileRepository;
 import vacademy.io.admin_core_service.features.audience.service.LeadAssignmentNotifier;
+import vacademy.io.admin_core_service.features.audience.service.LeadListingScopeService;
 import vacademy.io.admin_core_service.features.audience.service.UserLeadProfileService;
 import vacademy.io.admin_core_service.features.auth_service.service.AuthService;
 import vacademy.io.admin_core_service.features.counselor_pool.dto.*;
@@ -43,6 +44,8 @@ public class CounselorPoolService {
     private final TimelineEventService timelineEventService;
     private final AuthService authService;
     private final LeadAssignmentNotifier leadAssignmentNotifier;
+    /** Whether an institute runs a pool gates AUDIENCE_LIST assigned-only in the cached lead scope. */
+    private final LeadListingScopeService leadListingScopeService;
 
     // ────────────────────────────────────────────────────────────────
     // Pool CRUD
@@ -86,6 +89,7 @@ public class CounselorPoolService {
                 createMemberRow(pool.getId(), audienceId, counselorId, displayOrder, createdByUserId);
             }
         }
+        leadListingScopeService.evictInstitute(pool.getInstituteId());
 
         return getPool(pool.getId());
     }
@@ -125,9 +129,8 @@ public class CounselorPoolService {
 
     @Transactional
     public void deletePool(String poolId) {
-        if (!poolRepository.existsById(poolId)) {
-            throw new VacademyException("Pool not found: " + poolId);
-        }
+        CounselorPool pool = poolRepository.findById(poolId)
+                .orElseThrow(() -> new VacademyException("Pool not found: " + poolId));
         if (poolAudienceRepository.existsByPoolId(poolId)) {
             throw new VacademyException("Pool has audiences linked. Remove all audiences before deleting the pool.");
         }
@@ -140,6 +143,7 @@ public class CounselorPoolService {
         }
         poolMemberRepository.deleteByPoolId(poolId);
         poolRepository.deleteById(poolId);
+        leadListingScopeService.evictInstitute(pool.getInstituteId());
     }
 
     @Transactional(readOnly = true)
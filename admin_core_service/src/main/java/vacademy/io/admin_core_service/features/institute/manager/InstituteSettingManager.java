@@ -5,6 +5,7 @@ import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
+import vacademy.io.admin_core_service.features.audience.service.LeadListingScopeService;
 import vacademy.io.admin_core_service.features.common.dto.CustomFieldDTO;
 import vacademy.io.admin_core_service.features.common.entity.CustomFields;
 import vacademy.io.admin_core_service.features.common.entity.InstituteCustomField;
@@ -16,6 +17,7 @@ import vacademy.io.admin_core_service.features.institute.dto.settings.SettingDto
 import vacademy.io.admin_core_service.features.institute.dto.settings.custom_field.CustomFieldDto;
 import vacademy.io.admin_core_service.features.institute.dto.settings.custom_field.CustomFieldSettingRequest;
 import vacademy.io.admin_core_service.features.institute.dto.settings.naming.NameSettingRequest;
+import vacademy.io.admin_core_service.features.institute.enums.SettingKeyEnums;
 import vacademy.io.admin_core_service.features.institute.repository.InstituteRepository;
 import vacademy.io.admin_core_service.features.institute.service.setting.InstituteSettingService;
 import vacademy.io.common.auth.model.CustomUserDetails;
@@ -40,6 +42,9 @@ public class InstituteSettingManager {
     @Autowired
     private InstituteCustomFiledService instituteCustomFiledService;
 
+    @Autowired
+    private LeadListingScopeService leadListingScopeService;
+
     // Cache-evict the public openInstituteDetails snapshot so naming changes
     // are visible to the learner-side terminology on next page load.
     @CacheEvict(value = "openInstituteDetails", key = "#instituteId")
@@ -73,6 +78,7 @@ public class InstituteSettingManager {
             throw new VacademyException("Institute Not Found");
 
         instituteSettingService.createNewGenericSetting(institute.get(), settingKey, request.getSettingData());
+        evictLeadScopesIfAccessSetting(instituteId, settingKey);
         return ResponseEntity.ok("Done");
     }
 
@@ -86,6 +92,7 @@ public class InstituteSettingManager {
             throw new VacademyException("Institute Not Found");
 
         instituteSettingService.updateGenericSetting(institute.get(), settingKey, request.getSettingData());
+        evictLeadScopesIfAccessSetting(instituteId, settingKey);
         return ResponseEntity.ok("Done");
     }
 
@@ -102,6 +109,7 @@ public class InstituteSettingManager {
             throw new VacademyException("Institute Not Found");
 
         instituteSettingService.saveGenericSetting(institute.get(), settingKey, request);
+        evictLeadScopesIfAccessSetting(instituteId, settingKey);
 
         if ("USER_IDENTIFIER".equals(settingKey)) {
             try {
@@ -130,6 +138,15 @@ public class InstituteSettingManager {
         return ResponseEntity.ok("Setting saved successfully");
     }
 
+    // The audience-role-access rules (ROLE_DISPLAY_SETTINGS.audienceRoleAccess, or the
+    // legacy AUDIENCE_ROLE_ACCESS key) are part of every cached lead-listing scope.
+    private void evictLeadScopesIfAccessSetting(String instituteId, String settingKey) {
+        if ("ROLE_DISPLAY_SETTINGS".equals(settingKey)
+                || SettingKeyEnums.AUDIENCE_ROLE_ACCESS.name().equals(settingKey)) {
+            leadListingScopeService.evictInstitute(instituteId);
+        }
+    }
+
     // GET methods for retrieving settings
     public ResponseEntity<InstituteSettingDto> getAllSettings(CustomUserDetails userDetails, String instituteId) {
         Optional<Institute> institute = instituteRepository.findById(instituteId);
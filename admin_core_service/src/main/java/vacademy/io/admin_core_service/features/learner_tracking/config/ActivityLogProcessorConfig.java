@@ -0,0 +1,34 @@
+package vacademy.io.admin_core_service.features.learner_tracking.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Executor for the activity-log LLM calls made by ActivityLogProcessorService. The calls are
+ * I/O-bound HTTPS waits of several seconds each, so they must not run on the scheduler pool
+ * (spring.task.scheduling.pool.size is 4 for the whole service). The service already caps
+ * in-flight calls with a semaphore sized from the same property, so the queue never really
+ * fills; CallerRuns is only a safety net that throttles the claiming thread if it does.
+ */
+@Configuration
+public class ActivityLogProcessorConfig {
+
+    @Bean(name = "activityLogLlmExecutor")
+    public Executor activityLogLlmExecutor(
+            @Value("${activity.log.processor.max-in-flight:8}") int maxInFlight) {
+        int threads = Math.max(1, maxInFlight);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads * 2);
+        executor.setThreadNamePrefix("activity-llm-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,34 @@
+package vacademy.io.admin_core_service.features.learner_tracking.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Executor for ProgressRollupService's coalesced rollups. Each flush is a short transaction
+ * of a few updates, but during class hours there are thousands due per second; running them
+ * on the scheduler pool (spring.task.scheduling.pool.size is 4 for the whole service) held
+ * one of its threads for the whole drain. The queue is bounded and the default abort policy
+ * applies: a rejected rollup just stays pending for the next tick.
+ */
+@Configuration
+public class ProgressRollupConfig {
+
+    @Bean(name = "progressRollupExecutor")
+    public Executor progressRollupExecutor(
+            @Value("${learner.progress.rollup.flush-threads:4}") int threads,
+            @Value("${learner.progress.rollup.flush-queue-capacity:5000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Math.max(1, threads));
+        executor.setMaxPoolSize(Math.max(1, threads));
+        executor.setQueueCapacity(Math.max(1, queueCapacity));
+        executor.setThreadNamePrefix("progress-rollup-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,50 @@
+package vacademy.io.admin_core_service.features.learner_tracking.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.sql.Timestamp;
+
+/**
+ * Merged watch coverage of one learner on one video or audio slide, kept up to
+ * date on every heartbeat so the watched percentage never has to re-read the
+ * learner's full breadcrumb history. See {@code WatchCoverage} for the encoding
+ * of {@link #segments}.
+ */
+@Entity
+@Table(name = "media_watch_coverage")
+@Getter
+@Setter
+@NoArgsConstructor
+public class MediaWatchCoverage {
+
+    @Id
+    @Column(name = "id", length = 255, nullable = false)
+    private String id;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Column(name = "slide_id", nullable = false)
+    private String slideId;
+
+    /**
+     * VIDEO (video and HTML video slides) or AUDIO
+     */
+    @Column(name = "media_type", nullable = false)
+    private String mediaType;
+
+    @Column(name = "segments", nullable = false, columnDefinition = "TEXT")
+    private String segments;
+
+    @Column(name = "covered_ms", nullable = false)
+    private Long coveredMs;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private Timestamp createdAt;
+
+    @Column(name = "updated_at")
+    private Timestamp updatedAt;
+}
@@ -0,0 +1,40 @@
+package vacademy.io.admin_core_service.features.learner_tracking.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import vacademy.io.admin_core_service.features.learner_tracking.entity.MediaWatchCoverage;
+
+import java.util.Optional;
+
+public interface MediaWatchCoverageRepository extends JpaRepository<MediaWatchCoverage, String> {
+
+    /**
+     * Creates the empty coverage row unless one exists. Returns 1 when this call
+     * created it — the caller then seeds it from the learner's breadcrumb
+     * history — and 0 when another heartbeat already had.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO media_watch_coverage (id, user_id, slide_id, media_type, segments, covered_ms) " +
+            "VALUES (:id, :userId, :slideId, :mediaType, '', 0) " +
+            "ON CONFLICT (user_id, slide_id, media_type) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("id") String id,
+                       @Param("userId") String userId,
+                       @Param("slideId") String slideId,
+                       @Param("mediaType") String mediaType);
+
+    /**
+     * Locked read, so two heartbeats of the same learner on the same slide
+     * (multiple tabs, offline replay) merge one after the other instead of
+     * overwriting each other's intervals.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM MediaWatchCoverage c " +
+            "WHERE c.userId = :userId AND c.slideId = :slideId AND c.mediaType = :mediaType")
+    Optional<MediaWatchCoverage> findForUpdate(@Param("userId") String userId,
+                                               @Param("slideId") String slideId,
+                                               @Param("mediaType") String mediaType);
+}
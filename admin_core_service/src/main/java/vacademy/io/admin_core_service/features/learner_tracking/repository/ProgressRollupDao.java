@@ -0,0 +1,267 @@
+package vacademy.io.admin_core_service.features.learner_tracking.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Queries behind the incremental progress rollup (ProgressRollupService).
+ *
+ * <p>The four {@code count*} queries are the denominators of
+ * ActivityLogRepository.get{Chapter,Module,Subject,PackageSession}CompletionPercentage
+ * with the learner_operation side removed. They depend only on course structure,
+ * never on the learner, which is what lets the rollup cache them and turn each
+ * level's recompute into one {@code value += delta / count} update. Keep their
+ * eligibility rules identical to those queries, or the incremental value drifts
+ * from what the reconciliation recompute writes back.
+ *
+ * <p>{@link #applyPercentageDelta} returns rows, so it runs through
+ * {@link EntityManager#createNativeQuery} for the reason explained on
+ * CertificateNumberSequenceDao.
+ */
+@Repository
+public class ProgressRollupDao {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Atomically adds {@code delta} to a stored percentage, clamped to [0, 100].
+     * The sub-select takes the row lock first, so two concurrent rollups for the
+     * same learner apply one after the other instead of losing an update.
+     *
+     * @return {old, new}, or null when the learner has no numeric value stored
+     *         for this operation yet (the caller then seeds it with a full recompute)
+     */
+    // ROUND through NUMERIC so the stored text never comes out in exponent form
+    // (1e-05), which the numeric regex every rollup query filters on would reject.
+    public double[] applyPercentageDelta(String userId, String source, String sourceId, String operation,
+                                         double delta) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery("""
+                        UPDATE learner_operation lo
+                        SET value = CAST(ROUND(CAST(LEAST(100.0, GREATEST(0.0, prev.old_value + CAST(:delta AS DOUBLE PRECISION)))
+                                                    AS NUMERIC), 6) AS VARCHAR)
+                        FROM (
+                            SELECT id, CAST(value AS DOUBLE PRECISION) AS old_value
+                            FROM learner_operation
+                            WHERE user_id = :userId
+                              AND source = :source
+                              AND source_id = :sourceId
+                              AND operation = :operation
+                              AND value ~ '^-?\\d+(\\.\\d+)?$'
+                            FOR UPDATE
+                        ) prev
+                        WHERE lo.id = prev.id
+                        RETURNING prev.old_value, CAST(lo.value AS DOUBLE PRECISION)
+                        """)
+                .setParameter("userId", userId)
+                .setParameter("source", source)
+                .setParameter("sourceId", sourceId)
+                .setParameter("operation", operation)
+                .setParameter("delta", delta)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Object[] row = rows.get(0);
+        return new double[] { ((Number) row[0]).doubleValue(), ((Number) row[1]).doubleValue() };
+    }
+
+    /**
+     * Raises a slide's stored percentage to {@code value} if it is below it, and returns
+     * by how much it rose (0 when the stored value was already at or above it). This is
+     * the delta the rollup propagates, so it has to be read and written under one row
+     * lock: with a plain read followed by an upsert, two concurrent events for the same
+     * slide both saw the same old value and both propagated their rise.
+     *
+     * <p>The row is locked with {@code SELECT ... FOR UPDATE}; a learner's first event
+     * for a slide inserts with {@code ON CONFLICT DO NOTHING}, and if another event
+     * inserted first the lock-and-compare is simply retried against its row. A stored
+     * value that is not numeric counts as 0 and is overwritten, as before.
+     */
+    public double raisePercentage(String userId, String source, String sourceId, String operation, double value) {
+        String stored = String.valueOf(value);
+        for (int attempt = 0; attempt < 2; attempt++) {
+            @SuppressWarnings("unchecked")
+            List<Object[]> rows = entityManager.createNativeQuery("""
+                            SELECT id,
+                                   CASE WHEN value ~ '^-?\\d+(\\.\\d+)?$'
+                                        THEN CAST(value AS DOUBLE PRECISION) ELSE 0 END
+                            FROM learner_operation
+                            WHERE user_id = :userId
+                              AND source = :source
+                              AND source_id = :sourceId
+                              AND operation = :operation
+                            FOR UPDATE
+                            """)
+                    .setParameter("userId", userId)
+                    .setParameter("source", source)
+                    .setParameter("sourceId", sourceId)
+                    .setParameter("operation", operation)
+                    .getResultList();
+            if (!rows.isEmpty()) {
+                double previous = ((Number) rows.get(0)[1]).doubleValue();
+                if (previous >= value) {
+                    return 0;
+                }
+                entityManager.createNativeQuery("UPDATE learner_operation SET value = :value WHERE id = :id")
+                        .setParameter("value", stored)
+                        .setParameter("id", rows.get(0)[0])
+                        .executeUpdate();
+                return value - previous;
+            }
+            int inserted = entityManager.createNativeQuery("""
+                            INSERT INTO learner_operation (id, user_id, source, source_id, operation, value)
+                            VALUES (:id, :userId, :source, :sourceId, :operation, :value)
+                            ON CONFLICT (user_id, source, source_id, operation) DO NOTHING
+                            """)
+                    .setParameter("id", UUID.randomUUID().toString())
+                    .setParameter("userId", userId)
+                    .setParameter("source", source)
+                    .setParameter("sourceId", sourceId)
+                    .setParameter("operation", operation)
+                    .setParameter("value", stored)
+                    .executeUpdate();
+            if (inserted == 1) {
+                return value;
+            }
+            // A concurrent first event inserted the row (the conflict waited for it to
+            // commit); go round again and compare against it under its lock.
+        }
+        return 0;
+    }
+
+    /** Learner-visible slides of a chapter — the getChapterCompletionPercentage denominator. */
+    public int countChapterSlides(String chapterId) {
+        return count("""
+                SELECT COUNT(DISTINCT cs.slide_id)
+                FROM chapter_to_slides cs
+                JOIN slide s ON cs.slide_id = s.id
+                WHERE cs.chapter_id = :id
+                  AND cs.status IN ('PUBLISHED', 'UNSYNC')
+                  AND s.source_type IN ('VIDEO', 'DOCUMENT', 'ASSIGNMENT', 'QUESTION',
+                                        'QUIZ', 'HTML_VIDEO', 'AUDIO', 'SCORM', 'ASSESSMENT')
+                """, chapterId);
+    }
+
+    /** Chapters of a module that can produce a percentage — the getModuleCompletionPercentage denominator. */
+    public int countModuleChapters(String moduleId) {
+        return count("""
+                SELECT COUNT(DISTINCT mcm.chapter_id)
+                FROM module_chapter_mapping mcm
+                JOIN chapter c ON c.id = mcm.chapter_id
+                JOIN chapter_package_session_mapping cpm ON cpm.chapter_id = c.id
+                WHERE mcm.module_id = :id
+                  AND cpm.status = 'ACTIVE'
+                  AND c.status = 'ACTIVE'
+                  AND EXISTS (
+                      SELECT 1
+                      FROM chapter_to_slides cts
+                      JOIN slide s ON s.id = cts.slide_id
+                      WHERE cts.chapter_id = c.id
+                        AND cts.status IN ('PUBLISHED', 'UNSYNC')
+                        AND s.source_type IN ('VIDEO', 'DOCUMENT', 'ASSIGNMENT', 'QUESTION',
+                                              'QUIZ', 'HTML_VIDEO', 'AUDIO', 'SCORM', 'ASSESSMENT')
+                  )
+                """, moduleId);
+    }
+
+    /** Modules of a subject that can produce a percentage — the getSubjectCompletionPercentage denominator. */
+    public int countSubjectModules(String subjectId) {
+        return count("""
+                SELECT COUNT(DISTINCT smm.module_id)
+                FROM subject_module_mapping smm
+                JOIN modules m ON m.id = smm.module_id
+                WHERE smm.subject_id = :id
+                  AND m.status = 'ACTIVE'
+                  AND EXISTS (
+                      SELECT 1
+                      FROM module_chapter_mapping mcm2
+                      JOIN chapter c2 ON c2.id = mcm2.chapter_id
+                      JOIN chapter_package_session_mapping cpm2 ON cpm2.chapter_id = c2.id
+                      WHERE mcm2.module_id = m.id
+                        AND c2.status = 'ACTIVE'
+                        AND cpm2.status = 'ACTIVE'
+                        AND EXISTS (
+                            SELECT 1
+                            FROM chapter_to_slides cts2
+                            JOIN slide s2 ON s2.id = cts2.slide_id
+                            WHERE cts2.chapter_id = c2.id
+                              AND cts2.status IN ('PUBLISHED', 'UNSYNC')
+                              AND s2.source_type IN ('VIDEO', 'DOCUMENT', 'ASSIGNMENT', 'QUESTION',
+                                                     'QUIZ', 'HTML_VIDEO', 'AUDIO', 'SCORM', 'ASSESSMENT')
+                        )
+                  )
+                """, subjectId);
+    }
+
+    /** Subjects of a package session that can produce a percentage — the getPackageSessionCompletionPercentage denominator. */
+    public int countPackageSessionSubjects(String packageSessionId) {
+        return count("""
+                SELECT COUNT(DISTINCT sps.subject_id)
+                FROM subject_session sps
+                JOIN subject s ON s.id = sps.subject_id
+                WHERE sps.session_id = :id
+                  AND s.status = 'ACTIVE'
+                  AND EXISTS (
+                      SELECT 1
+                      FROM subject_module_mapping smm2
+                      JOIN modules m2 ON m2.id = smm2.module_id
+                      WHERE smm2.subject_id = s.id
+                        AND m2.status = 'ACTIVE'
+                        AND EXISTS (
+                            SELECT 1
+                            FROM module_chapter_mapping mcm2
+                            JOIN chapter c2 ON c2.id = mcm2.chapter_id
+                            JOIN chapter_package_session_mapping cpm2 ON cpm2.chapter_id = c2.id
+                            WHERE mcm2.module_id = m2.id
+                              AND c2.status = 'ACTIVE'
+                              AND cpm2.status = 'ACTIVE'
+                              AND EXISTS (
+                                  SELECT 1
+                                  FROM chapter_to_slides cts2
+                                  JOIN slide s2 ON s2.id = cts2.slide_id
+                                  WHERE cts2.chapter_id = c2.id
+                                    AND cts2.status IN ('PUBLISHED', 'UNSYNC')
+                                    AND s2.source_type IN ('VIDEO', 'DOCUMENT', 'ASSIGNMENT', 'QUESTION',
+                                                           'QUIZ', 'HTML_VIDEO', 'AUDIO', 'SCORM', 'ASSESSMENT')
+                              )
+                        )
+                  )
+                """, packageSessionId);
+    }
+
+    /**
+     * (user, chapter) pairs with learner activity since {@code since}, in key order
+     * after the given cursor — the reconciliation job's work list. Driven off the
+     * server-stamped last_seen_at (idx_activity_log_last_seen).
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object[]> findActiveUserChapters(Timestamp since, String afterUserId, String afterChapterId,
+                                                 int limit) {
+        return entityManager.createNativeQuery("""
+                        SELECT DISTINCT al.user_id, cts.chapter_id
+                        FROM activity_log al
+                        JOIN chapter_to_slides cts ON cts.slide_id = al.slide_id
+                        WHERE al.last_seen_at >= :since
+                          AND (al.user_id, cts.chapter_id) > (:afterUserId, :afterChapterId)
+                        ORDER BY al.user_id, cts.chapter_id
+                        LIMIT :limit
+                        """)
+                .setParameter("since", since)
+                .setParameter("afterUserId", afterUserId)
+                .setParameter("afterChapterId", afterChapterId)
+                .setParameter("limit", limit)
+                .getResultList();
+    }
+
+    private int count(String sql, String id) {
+        Object result = entityManager.createNativeQuery(sql).setParameter("id", id).getSingleResult();
+        return result instanceof Number number ? number.intValue() : 0;
+    }
+}
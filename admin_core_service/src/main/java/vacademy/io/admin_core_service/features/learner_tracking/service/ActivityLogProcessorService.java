@@ -2,12 +2,15 @@ package vacademy.io.admin_core_service.features.learner_tracking.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import vacademy.io.admin_core_service.features.ai_usage.enums.RequestType;
 import vacademy.io.admin_core_service.features.credits.client.CreditClient;
 import vacademy.io.admin_core_service.features.learner_tracking.entity.ActivityLog;
@@ -16,20 +19,45 @@ import vacademy.io.admin_core_service.features.learner_tracking.repository.Activ
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * Service to process raw activity logs with LLM and generate insights
- * Runs on scheduled basis to process entries with status='raw' and 'failed'
+ * Service to process raw activity logs with LLM and generate insights.
+ *
+ * Two modes, both claiming through {@link ActivityLogQueueClaimService}:
+ * - hourly (default): one claim of {@code ENTRIES_PER_RUN} logs per hour.
+ * - continuous ({@code activity.log.processor.continuous.enabled=true}): a fixed-delay worker
+ *   that claims in adaptive batch sizes - doubling while claims come back full, halving when
+ *   the queue runs dry - and keeps draining until the backlog is gone. The hourly run stands
+ *   down while it is on.
+ *
+ * Either way the LLM calls of a claimed batch run concurrently on {@code activityLogLlmExecutor},
+ * capped globally ({@code max-in-flight}) and per institute ({@code max-in-flight-per-institute}),
+ * and are submitted round-robin across institutes so one institute's burst of submissions cannot
+ * hold every slot while others wait. Results are written back in JDBC batches instead of one
+ * UPDATE per log.
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class ActivityLogProcessorService {
 
         private final ActivityLogRepository activityLogRepository;
@@ -37,8 +65,9 @@ public class ActivityLogProcessorService {
         private final ObjectMapper objectMapper;
         private final CreditClient creditClient;
         private final ActivityLogQueueClaimService activityLogQueueClaimService;
+        private final JdbcTemplate jdbcTemplate;
+        private final Executor llmExecutor;
 
-        private static final int BATCH_SIZE = 10;
         private static final int ENTRIES_PER_RUN = 20;
         private static final String STATUS_RAW = "raw";
         private static final String STATUS_PROCESSED = "processed";
@@ -56,8 +85,9 @@ public class ActivityLogProcessorService {
 
         /**
          * A claim older than this is assumed to belong to a replica that died mid-batch and
-         * is handed back. Comfortably longer than the worst-case batch: BATCH_SIZE logs x
-         * the LLM response timeout.
+         * is handed back. Comfortably longer than the worst-case batch: the largest claim
+         * divided by the in-flight limit, times the LLM response timeout (100 / 8 x 2m with
+         * the defaults). Raise it if claim.max is raised or max-in-flight lowered.
          */
         private static final int STALE_CLAIM_MINUTES = 30;
 
@@ -77,17 +107,110 @@ public class ActivityLogProcessorService {
         /** Mirrors StudentAnalyticsLLMService.MAX_COMPLETION_TOKENS for the estimate. */
         private static final int ESTIMATED_COMPLETION_TOKENS = 2000;
 
+        /** Fairness bucket for logs whose institute could not be resolved. */
+        private static final String UNATTRIBUTED = "";
+
+        /**
+         * A continuous tick keeps re-claiming while claims come back full, but hands the
+         * scheduler thread back after this long so the other jobs sharing the pool get a turn.
+         */
+        private static final Duration CONTINUOUS_TICK_BUDGET = Duration.ofMinutes(5);
+
+        /** Stale-claim release and the backlog count are cheap but not free; don't run them every tick. */
+        private static final Duration HOUSEKEEPING_INTERVAL = Duration.ofMinutes(1);
+
+        private static final String RESULT_UPDATE_SQL = "UPDATE activity_log SET processed_json = ?, status = ? "
+                        + "WHERE id = ?";
+
+        private final boolean continuousEnabled;
+        private final int minClaimSize;
+        private final int maxClaimSize;
+        private final int maxInFlightPerInstitute;
+        private final int writeBatchSize;
+
+        private final Semaphore inFlightSlots;
+        private final Map<String, Semaphore> instituteSlots = new ConcurrentHashMap<>();
+        private final AtomicInteger claimSize;
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+        private final AtomicLong lastHousekeepingNanos = new AtomicLong(0);
+
         // Scheduler tracking
         private final AtomicReference<LocalDateTime> lastRunTime = new AtomicReference<>();
         private final AtomicReference<LocalDateTime> nextRunTime = new AtomicReference<>();
-        private final AtomicInteger totalProcessedCount = new AtomicInteger(0);
-        private final AtomicInteger totalFailedCount = new AtomicInteger(0);
+
+        // Metrics: throughput per outcome, LLM latency, in-flight calls and backlog depth.
+        private final Counter processedCounter;
+        private final Counter failedCounter;
+        private final Counter skippedCounter;
+        private final Timer llmTimer;
+        private final AtomicInteger inFlight = new AtomicInteger(0);
+        private final AtomicLong backlogDepth = new AtomicLong(0);
+
+        public ActivityLogProcessorService(ActivityLogRepository activityLogRepository,
+                        StudentAnalyticsLLMService studentAnalyticsLLMService,
+                        ObjectMapper objectMapper,
+                        CreditClient creditClient,
+                        ActivityLogQueueClaimService activityLogQueueClaimService,
+                        JdbcTemplate jdbcTemplate,
+                        MeterRegistry meterRegistry,
+                        @Qualifier("activityLogLlmExecutor") Executor llmExecutor,
+                        @Value("${activity.log.processor.continuous.enabled:false}") boolean continuousEnabled,
+                        @Value("${activity.log.processor.max-in-flight:8}") int maxInFlight,
+                        @Value("${activity.log.processor.max-in-flight-per-institute:3}") int maxInFlightPerInstitute,
+                        @Value("${activity.log.processor.claim.min:10}") int minClaimSize,
+                        @Value("${activity.log.processor.claim.max:100}") int maxClaimSize,
+                        @Value("${activity.log.processor.write-batch-size:25}") int writeBatchSize) {
+                this.activityLogRepository = activityLogRepository;
+                this.studentAnalyticsLLMService = studentAnalyticsLLMService;
+                this.objectMapper = objectMapper;
+                this.creditClient = creditClient;
+                this.activityLogQueueClaimService = activityLogQueueClaimService;
+                this.jdbcTemplate = jdbcTemplate;
+                this.llmExecutor = llmExecutor;
+                this.continuousEnabled = continuousEnabled;
+                this.inFlightSlots = new Semaphore(Math.max(1, maxInFlight));
+                this.maxInFlightPerInstitute = Math.max(1, maxInFlightPerInstitute);
+                this.minClaimSize = Math.max(1, minClaimSize);
+                this.maxClaimSize = Math.max(this.minClaimSize, maxClaimSize);
+                this.writeBatchSize = Math.max(1, writeBatchSize);
+                this.claimSize = new AtomicInteger(this.minClaimSize);
+
+                this.processedCounter = outcomeCounter(meterRegistry, STATUS_PROCESSED);
+                this.failedCounter = outcomeCounter(meterRegistry, STATUS_FAILED);
+                this.skippedCounter = outcomeCounter(meterRegistry, STATUS_SKIPPED_NO_CREDITS);
+                this.llmTimer = Timer.builder("activity_log.processor.llm.latency")
+                                .description("LLM insight generation time per activity log")
+                                .register(meterRegistry);
+                meterRegistry.gauge("activity_log.processor.in_flight", inFlight);
+                meterRegistry.gauge("activity_log.processor.backlog", backlogDepth);
+                meterRegistry.gauge("activity_log.processor.claim_size", claimSize);
+        }
+
+        private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+                return Counter.builder("activity_log.processor.logs")
+                                .description("Activity logs resolved by the LLM processor")
+                                .tag("outcome", outcome)
+                                .register(meterRegistry);
+        }
 
         /**
          * Scheduled job that runs every hour to process raw activity logs
          * Cron: 0 0 * * * * = every hour at minute 0
+         * Stands down when the continuous worker is enabled - it already drains the queue.
          */
         @Scheduled(cron = "0 0 * * * *")
+        public void scheduledHourlyRun() {
+                if (continuousEnabled) {
+                        log.debug("[LLM-Analytics-Scheduler] Continuous worker enabled, skipping hourly run");
+                        return;
+                }
+                processRawActivityLogs();
+        }
+
+        /**
+         * One hourly-style run: claim up to {@code ENTRIES_PER_RUN} logs and process them.
+         * Also the manual trigger behind the controller.
+         */
         public void processRawActivityLogs() {
                 LocalDateTime startTime = LocalDateTime.now();
                 lastRunTime.set(startTime);
@@ -97,69 +220,252 @@ public class ActivityLogProcessorService {
 
                 try {
                         // Hand back anything a dead replica left in flight before claiming more.
-                        activityLogQueueClaimService.releaseStaleClaims(STALE_CLAIM_MINUTES);
-
-                        // Claim rather than select: this job runs on all four admin-core replicas,
-                        // and an unclaimed select had every replica calling the LLM on the same
-                        // oldest-20 logs - a 4x multiplier on spend for identical work.
-                        List<ActivityLogProcessingProjection> rawLogs = activityLogQueueClaimService.claimBatch(
-                                        Arrays.asList(STATUS_RAW, STATUS_FAILED),
-                                        MAX_PROCESSING_ATTEMPTS,
-                                        ENTRIES_PER_RUN,
-                                        STATUS_PROCESSING);
-
-                        if (rawLogs.isEmpty()) {
+                        releaseStaleClaimsAndRefreshBacklog();
+
+                        int[] results = claimAndProcess(ENTRIES_PER_RUN);
+                        if (results[0] == 0) {
                                 log.info("[LLM-Analytics-Scheduler] No activity logs claimed - queue empty "
                                                 + "or another replica took them");
                                 return;
                         }
 
-                        log.info("[LLM-Analytics-Scheduler] Found {} raw activity logs to process", rawLogs.size());
+                        log.info("[LLM-Analytics-Scheduler] ===== SCHEDULER RUN COMPLETED ===== " +
+                                        "Processed: {}, Failed: {}, Duration: {}s",
+                                        results[1], results[2],
+                                        java.time.Duration.between(startTime, LocalDateTime.now()).getSeconds());
+
+                } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        log.warn("[LLM-Analytics-Scheduler] Interrupted; unfinished claims return via the stale-claim release");
+                } catch (Exception e) {
+                        log.error("[LLM-Analytics-Scheduler] Error in scheduled processing", e);
+                }
+        }
+
+        /**
+         * Continuous worker tick (opt-in). Claims {@link #claimSize} logs, processes them and
+         * adapts the claim size to what came back; while claims come back full it claims again
+         * straight away, up to {@code CONTINUOUS_TICK_BUDGET}.
+         */
+        @Scheduled(fixedDelayString = "${activity.log.processor.continuous.poll-delay-ms:10000}",
+                        initialDelayString = "${activity.log.processor.continuous.initial-delay-ms:60000}")
+        public void drainContinuously() {
+                if (!continuousEnabled || !draining.compareAndSet(false, true)) {
+                        return;
+                }
+                long started = System.nanoTime();
+                lastRunTime.set(LocalDateTime.now());
+                try {
+                        maybeHousekeep();
+                        boolean full;
+                        do {
+                                int requested = claimSize.get();
+                                int[] results = claimAndProcess(requested);
+                                adaptClaimSize(requested, results[0]);
+                                full = results[0] >= requested;
+                                if (results[0] > 0) {
+                                        log.info("[LLM-Analytics-Worker] Claimed {} (asked {}), processed {}, failed {}; "
+                                                        + "next claim size {}",
+                                                        results[0], requested, results[1], results[2], claimSize.get());
+                                }
+                        } while (full && System.nanoTime() - started < CONTINUOUS_TICK_BUDGET.toNanos());
+                } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        log.warn("[LLM-Analytics-Worker] Interrupted; unfinished claims return via the stale-claim release");
+                } catch (Exception e) {
+                        log.error("[LLM-Analytics-Worker] Error in continuous processing", e);
+                } finally {
+                        draining.set(false);
+                }
+        }
+
+        /** Double while the queue keeps filling the claim, halve once it returns less than half. */
+        private void adaptClaimSize(int requested, int claimed) {
+                int next = requested;
+                if (claimed >= requested) {
+                        next = Math.min(maxClaimSize, requested * 2);
+                } else if (claimed < requested / 2) {
+                        next = Math.max(minClaimSize, requested / 2);
+                }
+                claimSize.set(next);
+        }
+
+        private void maybeHousekeep() {
+                long now = System.nanoTime();
+                long last = lastHousekeepingNanos.get();
+                if (last != 0 && now - last < HOUSEKEEPING_INTERVAL.toNanos()) {
+                        return;
+                }
+                if (lastHousekeepingNanos.compareAndSet(last, now)) {
+                        releaseStaleClaimsAndRefreshBacklog();
+                }
+        }
+
+        private void releaseStaleClaimsAndRefreshBacklog() {
+                activityLogQueueClaimService.releaseStaleClaims(STALE_CLAIM_MINUTES);
+                try {
+                        backlogDepth.set(activityLogRepository.countByStatus(STATUS_RAW));
+                } catch (Exception e) {
+                        log.debug("[LLM-Analytics-Scheduler] Could not refresh backlog depth: {}", e.getMessage());
+                }
+        }
+
+        /**
+         * Claim up to {@code limit} logs and run them through the LLM concurrently.
+         *
+         * @return {claimed, processed, failed}
+         */
+        private int[] claimAndProcess(int limit) throws InterruptedException {
+                // Claim rather than select: this job runs on all four admin-core replicas,
+                // and an unclaimed select had every replica calling the LLM on the same
+                // oldest logs - a 4x multiplier on spend for identical work.
+                List<ActivityLogProcessingProjection> claimed = activityLogQueueClaimService.claimBatch(
+                                Arrays.asList(STATUS_RAW, STATUS_FAILED),
+                                MAX_PROCESSING_ATTEMPTS,
+                                limit,
+                                STATUS_PROCESSING);
+                if (claimed.isEmpty()) {
+                        return new int[] { 0, 0, 0 };
+                }
+                log.info("[LLM-Analytics-Scheduler] Found {} raw activity logs to process", claimed.size());
+                int[] outcome = processConcurrently(claimed);
+                return new int[] { claimed.size(), outcome[0], outcome[1] };
+        }
 
-                        int processedInRun = 0;
-                        int failedInRun = 0;
+        /**
+         * Runs a claimed batch through the LLM with bounded concurrency.
+         *
+         * Logs are grouped by institute and submitted round-robin, and each institute holds at
+         * most {@code maxInFlightPerInstitute} of the global slots, so a large tenant's backlog
+         * can't make everyone else's logs wait behind it. Results queue up and are written by
+         * this (claiming) thread in batches of {@code writeBatchSize}; the executor threads
+         * never touch the database.
+         *
+         * @return {processed, failed}; skipped-for-credits logs count as neither
+         */
+        private int[] processConcurrently(List<ActivityLogProcessingProjection> claimed) throws InterruptedException {
+                Map<String, Deque<ClaimedLog>> byInstitute = new LinkedHashMap<>();
+                for (ActivityLogProcessingProjection activityLog : claimed) {
+                        String instituteId = resolveInstituteId(activityLog);
+                        byInstitute.computeIfAbsent(instituteId != null ? instituteId : UNATTRIBUTED,
+                                        k -> new ArrayDeque<>())
+                                        .add(new ClaimedLog(activityLog, instituteId));
+                }
 
-                        // Process in batches to avoid overwhelming the system
-                        for (int i = 0; i < rawLogs.size(); i += BATCH_SIZE) {
-                                int end = Math.min(i + BATCH_SIZE, rawLogs.size());
-                                List<ActivityLogProcessingProjection> batch = rawLogs.subList(i, end);
+                Queue<ProcessingResult> results = new ConcurrentLinkedQueue<>();
+                List<CompletableFuture<Void>> futures = new ArrayList<>(claimed.size());
+                int[] tally = new int[2];
 
-                                log.info("[LLM-Analytics-Scheduler] Processing batch {}/{}", (i / BATCH_SIZE) + 1,
-                                                (rawLogs.size() + BATCH_SIZE - 1) / BATCH_SIZE);
+                for (ClaimedLog next : roundRobin(byInstitute)) {
+                        Semaphore instituteSlot = instituteSlots.computeIfAbsent(
+                                        next.instituteId() != null ? next.instituteId() : UNATTRIBUTED,
+                                        k -> new Semaphore(maxInFlightPerInstitute));
+                        instituteSlot.acquire();
+                        try {
+                                inFlightSlots.acquire();
+                        } catch (InterruptedException e) {
+                                instituteSlot.release();
+                                throw e;
+                        }
+                        inFlight.incrementAndGet();
+                        try {
+                                futures.add(CompletableFuture.runAsync(() -> {
+                                        try {
+                                                results.add(analyse(next.activityLog(), next.instituteId()));
+                                        } finally {
+                                                inFlight.decrementAndGet();
+                                                inFlightSlots.release();
+                                                instituteSlot.release();
+                                        }
+                                }, llmExecutor));
+                        } catch (RuntimeException e) {
+                                inFlight.decrementAndGet();
+                                inFlightSlots.release();
+                                instituteSlot.release();
+                                throw e;
+                        }
 
-                                int[] results = processBatch(batch);
-                                processedInRun += results[0];
-                                failedInRun += results[1];
+                        if (results.size() >= writeBatchSize) {
+                                writeResults(results, tally);
                         }
+                }
 
-                        totalProcessedCount.addAndGet(processedInRun);
-                        totalFailedCount.addAndGet(failedInRun);
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+                writeResults(results, tally);
+                return tally;
+        }
 
-                        log.info("[LLM-Analytics-Scheduler] ===== SCHEDULER RUN COMPLETED ===== " +
-                                        "Processed: {}, Failed: {}, Duration: {}s",
-                                        processedInRun, failedInRun,
-                                        java.time.Duration.between(startTime, LocalDateTime.now()).getSeconds());
+        /** Interleaves the per-institute queues: one log from each institute per round. */
+        private static List<ClaimedLog> roundRobin(Map<String, Deque<ClaimedLog>> byInstitute) {
+                List<ClaimedLog> order = new ArrayList<>();
+                List<Deque<ClaimedLog>> queues = new ArrayList<>(byInstitute.values());
+                while (!queues.isEmpty()) {
+                        Iterator<Deque<ClaimedLog>> it = queues.iterator();
+                        while (it.hasNext()) {
+                                Deque<ClaimedLog> queue = it.next();
+                                order.add(queue.poll());
+                                if (queue.isEmpty()) {
+                                        it.remove();
+                                }
+                        }
+                }
+                return order;
+        }
 
+        /**
+         * Drains the result queue into one JDBC batch UPDATE. If the batch fails the rows are
+         * retried one at a time so a single bad row can't throw away LLM output already paid for.
+         */
+        private void writeResults(Queue<ProcessingResult> results, int[] tally) {
+                List<ProcessingResult> batch = new ArrayList<>();
+                ProcessingResult result;
+                while ((result = results.poll()) != null) {
+                        batch.add(result);
+                }
+                if (batch.isEmpty()) {
+                        return;
+                }
+
+                long dbStart = System.nanoTime();
+                try {
+                        jdbcTemplate.batchUpdate(RESULT_UPDATE_SQL, batch, batch.size(), (ps, r) -> {
+                                ps.setString(1, r.processedJson());
+                                ps.setString(2, r.status());
+                                ps.setString(3, r.id());
+                        });
                 } catch (Exception e) {
-                        log.error("[LLM-Analytics-Scheduler] Error in scheduled processing", e);
+                        log.error("[LLM-Analytics-Processing] Batch write of {} results failed, writing one by one",
+                                        batch.size(), e);
+                        for (ProcessingResult r : batch) {
+                                try {
+                                        activityLogRepository.updateProcessedData(r.id(), r.processedJson(), r.status());
+                                } catch (Exception rowError) {
+                                        log.error("[LLM-Analytics-Processing] Failed to write result for activity log {}",
+                                                        r.id(), rowError);
+                                }
+                        }
+                }
+                log.debug("[LLM-Analytics-Processing] Wrote {} results in {} ms", batch.size(),
+                                Duration.ofNanos(System.nanoTime() - dbStart).toMillis());
+
+                for (ProcessingResult r : batch) {
+                        record(r);
+                        if (STATUS_PROCESSED.equals(r.status())) {
+                                tally[0]++;
+                        } else if (STATUS_FAILED.equals(r.status())) {
+                                tally[1]++;
+                        }
                 }
         }
 
-        private int[] processBatch(List<ActivityLogProcessingProjection> batch) {
-                int processed = 0;
-                int failed = 0;
-                for (ActivityLogProcessingProjection activityLog : batch) {
-                        try {
-                                processActivityLog(activityLog);
-                                processed++;
-                        } catch (Exception e) {
-                                log.error("[LLM-Analytics-Processing] Error processing activity log ID: {}",
-                                                activityLog.getId(), e);
-                                markAsFailed(activityLog.getId(), e.getMessage());
-                                failed++;
+        private void record(ProcessingResult result) {
+                switch (result.status()) {
+                        case STATUS_PROCESSED -> processedCounter.increment();
+                        case STATUS_FAILED -> failedCounter.increment();
+                        case STATUS_SKIPPED_NO_CREDITS -> skippedCounter.increment();
+                        default -> {
                         }
                 }
-                return new int[] { processed, failed };
         }
 
         /**
@@ -168,6 +474,32 @@ public class ActivityLogProcessorService {
          * during the long HTTP request.
          */
         public void processActivityLog(ActivityLogProcessingProjection activityLog) {
+                ProcessingResult result = analyse(activityLog, resolveInstituteId(activityLog));
+
+                // Quick DB update (connection borrowed and returned immediately)
+                long dbStart = System.nanoTime();
+                try {
+                        activityLogRepository.updateProcessedData(result.id(), result.processedJson(), result.status());
+                } catch (Exception e) {
+                        log.error("[LLM-Analytics-Processing] Failed to write result for activity log {}",
+                                        result.id(), e);
+                }
+                log.debug("[LLM-Analytics-Processing] DB update completed for activity log ID: {} in {} ms",
+                                result.id(), Duration.ofNanos(System.nanoTime() - dbStart).toMillis());
+                record(result);
+
+                if (result.error() != null) {
+                        throw new RuntimeException("Failed to process activity log", result.error());
+                }
+        }
+
+        /**
+         * Decide the outcome for one log - credit check, LLM call, validation - without writing
+         * it. Never throws: every failure becomes a {@code failed} result carrying its error JSON.
+         *
+         * @param instituteId the resolved owner, or null when it could not be resolved
+         */
+        private ProcessingResult analyse(ActivityLogProcessingProjection activityLog, String instituteId) {
                 int rawJsonLength = activityLog.getRawJson() != null ? activityLog.getRawJson().length() : 0;
                 log.info("[LLM-Analytics-Processing] Processing activity log ID: {}, Type: {}, RawJsonBytes: {}",
                                 activityLog.getId(), activityLog.getSourceType(), rawJsonLength);
@@ -177,12 +509,10 @@ public class ActivityLogProcessorService {
                                         activityLog.getId());
                         // It is claimed at this point - resolve it rather than leaving it in flight
                         // for the stale-claim reaper to pick up half an hour later.
-                        markAsFailed(activityLog.getId(), "No raw JSON to analyse");
-                        return;
+                        return ProcessingResult.failed(activityLog.getId(), "No raw JSON to analyse", null);
                 }
 
                 // Resolve who pays for this call before spending anything on it.
-                String instituteId = resolveInstituteId(activityLog);
                 if (instituteId == null) {
                         log.warn("[LLM-Analytics-Processing] Could not resolve an institute for activity log {} "
                                         + "(user {}). Processing it unattributed and uncharged.",
@@ -191,22 +521,21 @@ public class ActivityLogProcessorService {
                         log.warn("[LLM-Analytics-Processing] Institute {} has insufficient credits - "
                                         + "skipping activity log {} without calling the LLM",
                                         instituteId, activityLog.getId());
-                        activityLogRepository.updateProcessedData(activityLog.getId(), null,
-                                        STATUS_SKIPPED_NO_CREDITS);
-                        return;
+                        return new ProcessingResult(activityLog.getId(), null, STATUS_SKIPPED_NO_CREDITS, null);
                 }
 
                 try {
                         long llmStart = System.nanoTime();
-                        // Step 1: Call LLM (no DB connection held during this)
+                        // No DB connection held during this
                         JsonNode insights = studentAnalyticsLLMService
                                         .generateStudentInsights(activityLog.getRawJson(),
                                                         activityLog.getSourceType(),
                                                         instituteId, activityLog.getUserId())
                                         .block();
-                        long llmDurationMs = Duration.ofNanos(System.nanoTime() - llmStart).toMillis();
+                        long llmDurationNanos = System.nanoTime() - llmStart;
+                        llmTimer.record(llmDurationNanos, TimeUnit.NANOSECONDS);
                         log.info("[LLM-Analytics-Processing] LLM call completed for activity log ID: {} in {} ms",
-                                        activityLog.getId(), llmDurationMs);
+                                        activityLog.getId(), Duration.ofNanos(llmDurationNanos).toMillis());
 
                         if (insights == null) {
                                 throw new RuntimeException("LLM returned null insights");
@@ -215,21 +544,14 @@ public class ActivityLogProcessorService {
                         validateInsights(insights);
                         String processedJson = objectMapper.writeValueAsString(insights);
 
-                        // Step 2: Quick DB update (connection borrowed and returned immediately)
-                        long dbStart = System.nanoTime();
-                        activityLogRepository.updateProcessedData(activityLog.getId(), processedJson, STATUS_PROCESSED);
-                        long dbDurationMs = Duration.ofNanos(System.nanoTime() - dbStart).toMillis();
-                        log.debug("[LLM-Analytics-Processing] DB update completed for activity log ID: {} in {} ms",
-                                        activityLog.getId(), dbDurationMs);
-
                         log.info("[LLM-Analytics-Processing] Successfully processed activity log ID: {}",
                                         activityLog.getId());
+                        return new ProcessingResult(activityLog.getId(), processedJson, STATUS_PROCESSED, null);
 
                 } catch (Exception e) {
                         log.error("[LLM-Analytics-Processing] Failed to process activity log ID: {}",
                                         activityLog.getId(), e);
-                        markAsFailed(activityLog.getId(), e.getMessage());
-                        throw new RuntimeException("Failed to process activity log", e);
+                        return ProcessingResult.failed(activityLog.getId(), e.getMessage(), e);
                 }
         }
 
@@ -310,18 +632,25 @@ public class ActivityLogProcessorService {
                 }
         }
 
-        private void markAsFailed(String activityLogId, String errorMessage) {
-                try {
-                        // Store error info in processed_json for debugging
-                        String errorJson = String.format("{\"error\": \"%s\", \"timestamp\": \"%s\"}",
-                                        errorMessage.replace("\"", "\\\""),
-                                        java.time.Instant.now().toString());
-                        activityLogRepository.updateProcessedData(activityLogId, errorJson, STATUS_FAILED);
+        /** Error info stored in processed_json for debugging. */
+        private static String errorJson(String errorMessage) {
+                String message = errorMessage != null ? errorMessage : "unknown error";
+                return String.format("{\"error\": \"%s\", \"timestamp\": \"%s\"}",
+                                message.replace("\"", "\\\""),
+                                java.time.Instant.now().toString());
+        }
 
-                        log.info("[LLM-Analytics-Processing] Marked activity log {} as failed", activityLogId);
-                } catch (Exception e) {
-                        log.error("[LLM-Analytics-Processing] Failed to mark activity log {} as failed",
-                                        activityLogId, e);
+        /** A claimed log paired with the institute resolved for it (null if unresolved). */
+        private record ClaimedLog(ActivityLogProcessingProjection activityLog, String instituteId) {
+        }
+
+        /**
+         * What to write back for one log. {@code error} is the cause of a failed LLM call, kept
+         * so the single-log path can rethrow it as it always has.
+         */
+        private record ProcessingResult(String id, String processedJson, String status, Exception error) {
+                static ProcessingResult failed(String id, String message, Exception error) {
+                        return new ProcessingResult(id, errorJson(message), STATUS_FAILED, error);
                 }
         }
 
@@ -447,16 +776,21 @@ public class ActivityLogProcessorService {
                 Map<String, Object> status = new HashMap<>();
                 status.put("schedulerEnabled", true);
                 status.put("cronExpression", "0 0 * * * * (Every hour at minute 0)");
+                status.put("continuousEnabled", continuousEnabled);
+                status.put("currentClaimSize", claimSize.get());
+                status.put("inFlight", inFlight.get());
                 status.put("lastRunTime", lastRunTime.get() != null ? lastRunTime.get().toString() : "Never run");
                 status.put("nextRunTime", nextRunTime.get() != null ? nextRunTime.get().toString() : "In next hour");
-                status.put("totalProcessedCount", totalProcessedCount.get());
-                status.put("totalFailedCount", totalFailedCount.get());
+                status.put("totalProcessedCount", (long) processedCounter.count());
+                status.put("totalFailedCount", (long) failedCounter.count());
+                status.put("totalSkippedNoCreditsCount", (long) skippedCounter.count());
 
                 // Get current queue size
                 long rawCount = activityLogRepository.countByStatus(STATUS_RAW);
                 long processedCount = activityLogRepository.countByStatus(STATUS_PROCESSED);
                 long failedCount = activityLogRepository.countByStatus(STATUS_FAILED);
 
+                backlogDepth.set(rawCount);
                 status.put("currentQueueSize", rawCount);
                 status.put("processedInDB", processedCount);
                 status.put("failedInDB", failedCount);
@@ -17,16 +17,15 @@ import vacademy.io.admin_core_service.features.learner_tracking.dto.ActivityLogD
 import vacademy.io.admin_core_service.features.learner_tracking.dto.DocumentActivityLogDTO;
 import vacademy.io.admin_core_service.features.learner_tracking.dto.VideoActivityLogDTO;
 import vacademy.io.admin_core_service.features.learner_tracking.repository.ActivityLogRepository;
-import vacademy.io.admin_core_service.features.module.enums.ModuleStatusEnum;
-import vacademy.io.admin_core_service.features.slide.enums.SlideStatus;
+import vacademy.io.admin_core_service.features.learner_tracking.repository.ProgressRollupDao;
 import vacademy.io.admin_core_service.features.slide.enums.SlideTypeEnum;
 import vacademy.io.admin_core_service.features.slide.repository.VideoSlideRepository;
-import vacademy.io.admin_core_service.features.subject.enums.SubjectStatusEnum;
 
 import java.sql.Timestamp;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -51,6 +50,12 @@ public class LearnerTrackingAsyncService {
         private LLMActivityAnalyticsService llmActivityAnalyticsService;
         @Autowired
         private vacademy.io.admin_core_service.features.slide.repository.AudioSlideRepository audioSlideRepository;
+        @Autowired
+        private WatchCoverageService watchCoverageService;
+        @Autowired
+        private ProgressRollupService progressRollupService;
+        @Autowired
+        private ProgressRollupDao progressRollupDao;
 
         // ==== Document Slide Tracking ====
 
@@ -67,7 +72,7 @@ public class LearnerTrackingAsyncService {
                 Double percentageWatched = activityLogRepository.getPercentageDocumentWatched(slideId, userId);
 
                 // Use helper for percentage logic (cap at 100, skip if null)
-                addOrUpdatePercentageOperation(userId, LearnerOperationSourceEnum.SLIDE.name(), slideId,
+                double slideDelta = addOrUpdatePercentageOperation(userId, LearnerOperationSourceEnum.SLIDE.name(), slideId,
                                 LearnerOperationEnum.PERCENTAGE_DOCUMENT_COMPLETED.name(), percentageWatched);
 
                 // DOCUMENT_LAST_PAGE is last-write-wins: an offline sync event whose
@@ -82,7 +87,7 @@ public class LearnerTrackingAsyncService {
                                         LearnerOperationEnum.DOCUMENT_LAST_PAGE.name(), String.valueOf(highestPage));
                 }
 
-                updateLearnerOperationsForChapter(userId, chapterId, moduleId, subjectId, packageSessionId);
+                rollUp(userId, chapterId, moduleId, subjectId, packageSessionId, slideDelta);
         }
 
         // ==== LLM Analytics Methods ====
@@ -177,10 +182,10 @@ public class LearnerTrackingAsyncService {
         public void updateLearnerOperationsForQuestion(String userId, String slideId, String chapterId,
                         String moduleId, String subjectId, String packageSessionId,
                         ActivityLogDTO activityLogDTO) {
-                addOrUpdatePercentageOperation(userId, LearnerOperationSourceEnum.SLIDE.name(), slideId,
+                double slideDelta = addOrUpdatePercentageOperation(userId, LearnerOperationSourceEnum.SLIDE.name(), slideId,
                                 LearnerOperationEnum.PERCENTAGE_QUESTION_COMPLETED.name(), 100.0);
 
-                updateLearnerOperationsForChapter(userId, chapterId, moduleId, subjectId, packageSessionId);
+                rollUp(userId, chapterId, moduleId, subjectId, packageSessionId, slideDelta);
         }
 
         @Async
@@ -188,10 +193,10 @@ public class LearnerTrackingAsyncService {
         public void updateLearnerOperationsForAssignment(String userId, String slideId, String chapterId,
                         String moduleId, String subjectId, String packageSessionId,
                         ActivityLogDTO activityLogDTO) {
-                addOrUpdatePercentageOperation(userId, LearnerOperationSourceEnum.SLIDE.name(), slideId,
+                double slideDelta = addOrUpdatePercentageOperation(userId, LearnerOperationSourceEnum.SLIDE.name(), slideId,
                                 LearnerOperationEnum.PERCENTAGE_ASSIGNMENT_COMPLETED.name(), 100.0);
 
-                updateLearnerOperationsForChapter(userId, chapterId, moduleId, subjectId, packageSessionId);
+                rollUp(userId, chapterId, moduleId, subjectId, packageSessionId, slideDelta);
         }
 
         @Async
@@ -202,10 +207,10 @@ public class LearnerTrackingAsyncService {
                 Double percentageCompleted = activityLogRepository.getQuizSlideCompletionPercentage(slideId,
                                 List.of(StatusEnum.ACTIVE.name()), userId);
 
-                addOrUpdatePercentageOperation(userId, LearnerOperationSourceEnum.SLIDE.name(), slideId,
+                double slideDelta = addOrUpdatePercentageOperation(userId, LearnerOperationSourceEnum.SLIDE.name(), slideId,
                                 LearnerOperationEnum.PERCENTAGE_QUIZ_COMPLETED.name(), percentageCompleted);
 
-                updateLearnerOperationsForChapter(userId, chapterId, moduleId, subjectId, packageSessionId);
+                rollUp(userId, chapterId, moduleId, subjectId, packageSessionId, slideDelta);
         }
 
         // ==== Assessment Slide Tracking ====
@@ -223,11 +228,11 @@ public class LearnerTrackingAsyncService {
         @Transactional
         public void updateLearnerOperationsForAssessment(String userId, String slideId, String chapterId,
                         String moduleId, String subjectId, String packageSessionId) {
-                addOrUpdatePercentageOperation(userId, LearnerOperationSourceEnum.SLIDE.name(), slideId,
+                double slideDelta = addOrUpdatePercentageOperation(userId, LearnerOperationSourceEnum.SLIDE.name(), slideId,
                                 LearnerOperationEnum.PERCENTAGE_ASSESSMENT_DONE.name(), 100.0);
 
                 if (chapterId != null) {
-                        updateLearnerOperationsForChapter(userId, chapterId, moduleId, subjectId, packageSessionId);
+                        rollUp(userId, chapterId, moduleId, subjectId, packageSessionId, slideDelta);
                 }
         }
 
@@ -254,10 +259,10 @@ public class LearnerTrackingAsyncService {
         @Transactional
         public void updateLearnerOperationsForScorm(String userId, String slideId, Double percentage,
                         String chapterId, String moduleId, String subjectId, String packageSessionId) {
-                addOrUpdatePercentageOperation(userId, LearnerOperationSourceEnum.SLIDE.name(), slideId,
+                double slideDelta = addOrUpdatePercentageOperation(userId, LearnerOperationSourceEnum.SLIDE.name(), slideId,
                                 LearnerOperationEnum.PERCENTAGE_SCORM_COMPLETED.name(), percentage);
 
-                updateLearnerOperationsForChapter(userId, chapterId, moduleId, subjectId, packageSessionId);
+                rollUp(userId, chapterId, moduleId, subjectId, packageSessionId, slideDelta);
         }
 
         // ==== Coding Submission Tracking ====
@@ -279,10 +284,10 @@ public class LearnerTrackingAsyncService {
         @Transactional
         public void updateLearnerOperationsForCodingSubmission(String userId, String slideId, String chapterId,
                         String moduleId, String subjectId, String packageSessionId) {
-                addOrUpdatePercentageOperation(userId, LearnerOperationSourceEnum.SLIDE.name(), slideId,
+                double slideDelta = addOrUpdatePercentageOperation(userId, LearnerOperationSourceEnum.SLIDE.name(), slideId,
                                 LearnerOperationEnum.PERCENTAGE_DOCUMENT_COMPLETED.name(), 100.0);
 
-                updateLearnerOperationsForChapter(userId, chapterId, moduleId, subjectId, packageSessionId);
+                rollUp(userId, chapterId, moduleId, subjectId, packageSessionId, slideDelta);
         }
 
         // ==== Video Slide Tracking ====
@@ -298,16 +303,9 @@ public class LearnerTrackingAsyncService {
                                 .max(Long::compareTo)
                                 .orElse(null);
 
-                // STEP 2: Fetch all start-end time intervals for this slide + user
-                List<Object[]> trackedTimes = activityLogRepository.getVideoTrackedIntervals(slideId, userId);
-                List<VideoInterval> intervals = trackedTimes.stream()
-                                .filter(row -> row[0] != null && row[1] != null) // Skip rows with null timestamps
-                                .map(row -> new VideoInterval(((Timestamp) row[0]).toInstant(),
-                                                ((Timestamp) row[1]).toInstant()))
-                                .collect(Collectors.toCollection(ArrayList::new));
-
-                // STEP 3: Calculate actual watched milliseconds
-                long actualWatchedMillis = getUniqueWatchedDurationMillis(intervals);
+                // STEP 2-3: Fold this heartbeat's intervals into the learner's merged
+                // coverage and read the unique watched milliseconds off it
+                long actualWatchedMillis = recordVideoCoverage(userId, slideId, activityLogDTO);
 
                 // STEP 4: Fetch published video length
                 Long publishedVideoLengthMillis = videoSlideRepository.getPublishedVideoLength(slideId);
@@ -319,7 +317,7 @@ public class LearnerTrackingAsyncService {
 
                 // STEP 5: Save learner operations
                 // Use helper to handle > 100 and null check
-                addOrUpdatePercentageOperation(userId, LearnerOperationSourceEnum.SLIDE.name(), slideId,
+                double slideDelta = addOrUpdatePercentageOperation(userId, LearnerOperationSourceEnum.SLIDE.name(), slideId,
                                 LearnerOperationEnum.PERCENTAGE_VIDEO_WATCHED.name(), percentageWatched);
 
                 // VIDEO_LAST_TIMESTAMP is last-write-wins; suppressed for stale offline
@@ -333,7 +331,7 @@ public class LearnerTrackingAsyncService {
                                         LearnerOperationEnum.VIDEO_LAST_TIMESTAMP.name(), String.valueOf(maxEndTime));
                 }
 
-                updateLearnerOperationsForChapter(userId, chapterId, moduleId, subjectId, packageSessionId);
+                rollUp(userId, chapterId, moduleId, subjectId, packageSessionId, slideDelta);
         }
 
         // ==== HTML Video Slide Tracking ====
@@ -349,16 +347,9 @@ public class LearnerTrackingAsyncService {
                                 .max(Long::compareTo)
                                 .orElse(null);
 
-                // STEP 2: Fetch all start-end time intervals for this slide + user
-                List<Object[]> trackedTimes = activityLogRepository.getVideoTrackedIntervals(slideId, userId);
-                List<VideoInterval> intervals = trackedTimes.stream()
-                                .filter(row -> row[0] != null && row[1] != null) // Skip rows with null timestamps
-                                .map(row -> new VideoInterval(((Timestamp) row[0]).toInstant(),
-                                                ((Timestamp) row[1]).toInstant()))
-                                .collect(Collectors.toCollection(ArrayList::new));
-
-                // STEP 3: Calculate actual watched milliseconds
-                long actualWatchedMillis = getUniqueWatchedDurationMillis(intervals);
+                // STEP 2-3: Fold this heartbeat's intervals into the learner's merged
+                // coverage and read the unique watched milliseconds off it
+                long actualWatchedMillis = recordVideoCoverage(userId, slideId, activityLogDTO);
 
                 // STEP 4: Fetch published video length
                 Long videoLength = htmlVideoSlideRepository.getVideoLength(slideId);
@@ -369,7 +360,7 @@ public class LearnerTrackingAsyncService {
                 }
 
                 // STEP 5: Save learner operations
-                addOrUpdatePercentageOperation(userId, LearnerOperationSourceEnum.SLIDE.name(), slideId,
+                double slideDelta = addOrUpdatePercentageOperation(userId, LearnerOperationSourceEnum.SLIDE.name(), slideId,
                                 LearnerOperationEnum.PERCENTAGE_VIDEO_WATCHED.name(), percentageWatched);
 
                 if (!activityLogDTO.isSuppressPositionOps()) {
@@ -380,7 +371,17 @@ public class LearnerTrackingAsyncService {
                                         LearnerOperationEnum.VIDEO_LAST_TIMESTAMP.name(), String.valueOf(maxEndTime));
                 }
 
-                updateLearnerOperationsForChapter(userId, chapterId, moduleId, subjectId, packageSessionId);
+                rollUp(userId, chapterId, moduleId, subjectId, packageSessionId, slideDelta);
+        }
+
+        // VIDEO and HTML_VIDEO both track into video_tracked, so they share one coverage type.
+        private long recordVideoCoverage(String userId, String slideId, ActivityLogDTO activityLogDTO) {
+                List<Long[]> watched = activityLogDTO.getVideos() == null ? List.of()
+                                : activityLogDTO.getVideos().stream()
+                                                .map(video -> new Long[] { video.getStartTimeInMillis(),
+                                                                video.getEndTimeInMillis() })
+                                                .toList();
+                return watchCoverageService.record(userId, slideId, WatchCoverageService.MEDIA_VIDEO, watched);
         }
 
         public long getUniqueWatchedDurationMillis(List<VideoInterval> intervals) {
@@ -437,16 +438,15 @@ public class LearnerTrackingAsyncService {
                                                 .orElse(null)
                                 : null;
 
-                // STEP 2: Fetch all start-end time intervals for this slide + user
-                List<Object[]> trackedTimes = activityLogRepository.getAudioTrackedIntervals(slideId, userId);
-                List<VideoInterval> intervals = trackedTimes.stream()
-                                .filter(row -> row[0] != null && row[1] != null)
-                                .map(row -> new VideoInterval(((Timestamp) row[0]).toInstant(),
-                                                ((Timestamp) row[1]).toInstant()))
-                                .collect(Collectors.toCollection(ArrayList::new));
-
-                // STEP 3: Calculate actual listened milliseconds
-                long actualListenedMillis = getUniqueWatchedDurationMillis(intervals);
+                // STEP 2-3: Fold this heartbeat's intervals into the learner's merged
+                // coverage and read the unique listened milliseconds off it
+                List<Long[]> heard = activityLogDTO.getAudios() == null ? List.of()
+                                : activityLogDTO.getAudios().stream()
+                                                .map(audio -> new Long[] { audio.getStartTimeInMillis(),
+                                                                audio.getEndTimeInMillis() })
+                                                .toList();
+                long actualListenedMillis = watchCoverageService.record(userId, slideId,
+                                WatchCoverageService.MEDIA_AUDIO, heard);
 
                 // STEP 4: Fetch published audio length
                 Long publishedAudioLengthMillis = audioSlideRepository.getPublishedAudioLength(slideId);
@@ -457,7 +457,7 @@ public class LearnerTrackingAsyncService {
                 }
 
                 // STEP 5: Save learner operations
-                addOrUpdatePercentageOperation(userId, LearnerOperationSourceEnum.SLIDE.name(), slideId,
+                double slideDelta = addOrUpdatePercentageOperation(userId, LearnerOperationSourceEnum.SLIDE.name(), slideId,
                                 LearnerOperationEnum.PERCENTAGE_AUDIO_LISTENED.name(), percentageListened);
 
                 if (maxEndTime != null) {
@@ -466,7 +466,23 @@ public class LearnerTrackingAsyncService {
                                         LearnerOperationEnum.AUDIO_LAST_TIMESTAMP.name(), String.valueOf(maxEndTime));
                 }
 
-                updateLearnerOperationsForChapter(userId, chapterId, moduleId, subjectId, packageSessionId);
+                rollUp(userId, chapterId, moduleId, subjectId, packageSessionId, slideDelta);
+        }
+
+        // ==== Live Rollup ====
+
+        // Live slide events hand their rollup to ProgressRollupService, which
+        // coalesces a learner's burst of heartbeats and propagates only the slide's
+        // change upward. Without a chapter there is nothing to anchor the delta on,
+        // so those few events keep the full cascade.
+        private void rollUp(String userId, String chapterId, String moduleId, String subjectId,
+                        String packageSessionId, double slideDelta) {
+                if (!StringUtils.hasText(chapterId)) {
+                        updateLearnerOperationsForChapter(userId, chapterId, moduleId, subjectId, packageSessionId);
+                        return;
+                }
+                progressRollupService.slideProgressed(userId, chapterId, moduleId, subjectId, packageSessionId,
+                                slideDelta);
         }
 
         // ==== Chapter-Level Tracking ====
@@ -539,56 +555,54 @@ public class LearnerTrackingAsyncService {
                 updatePackageSessionCompletionPercentage(userId, packageSessionId);
         }
 
-        private void updateChapterCompletionPercentage(String userId, String chapterId) {
-                learnerOperationService.deleteLearnerOperationByUserIdSourceAndSourceIdAndOperation(userId,
-                                LearnerOperationSourceEnum.CHAPTER.name(), chapterId,
-                                LearnerOperationEnum.LAST_SLIDE_VIEWED.name());
-                List<String> operationList = List.of(
-                                LearnerOperationEnum.PERCENTAGE_VIDEO_WATCHED.name(),
-                                LearnerOperationEnum.PERCENTAGE_DOCUMENT_COMPLETED.name(),
-                                LearnerOperationEnum.PERCENTAGE_ASSIGNMENT_COMPLETED.name(),
-                                LearnerOperationEnum.PERCENTAGE_QUESTION_COMPLETED.name(),
-                                LearnerOperationEnum.PERCENTAGE_QUIZ_COMPLETED.name(),
-                                LearnerOperationEnum.PERCENTAGE_AUDIO_LISTENED.name(),
-                                LearnerOperationEnum.PERCENTAGE_SCORM_COMPLETED.name(),
-                                LearnerOperationEnum.PERCENTAGE_ASSESSMENT_DONE.name());
-                List<String> slideStatusList = List.of(
-                                SlideStatus.PUBLISHED.name(),
-                                SlideStatus.UNSYNC.name());
-
-                Double chapterPercentage = activityLogRepository.getChapterCompletionPercentage(
-                                userId, chapterId, operationList, slideStatusList,
-                                List.of(SlideTypeEnum.VIDEO.name(), SlideTypeEnum.DOCUMENT.name(),
-                                                SlideTypeEnum.ASSIGNMENT.name(),
-                                                SlideTypeEnum.QUESTION.name(), SlideTypeEnum.QUIZ.name(),
-                                                SlideTypeEnum.HTML_VIDEO.name(), SlideTypeEnum.AUDIO.name(),
-                                                SlideTypeEnum.SCORM.name(), SlideTypeEnum.ASSESSMENT.name()));
+        /**
+         * Full recompute of a learner's progress for the given chapters and every
+         * module / subject / package session above them, each level once. Used by
+         * ProgressRollupReconciliationJob to overwrite whatever the incremental
+         * rollup may have drifted to. Caller provides the transaction.
+         */
+        public void recomputeProgressForChapters(String userId, Collection<String> chapterIds) {
+                Set<String> moduleIds = new LinkedHashSet<>();
+                Set<String> subjectIds = new LinkedHashSet<>();
+                Set<String> packageSessionIds = new LinkedHashSet<>();
+                for (String chapterId : chapterIds) {
+                        updateChapterCompletionPercentage(userId, chapterId);
+                        for (Object[] row : activityLogRepository.resolveChapterRollupTargets(
+                                        userId, chapterId,
+                                        List.of(ChapterStatus.ACTIVE.name()),
+                                        List.of(LearnerSessionStatusEnum.ACTIVE.name(),
+                                                        LearnerSessionStatusEnum.INACTIVE.name()))) {
+                                if (row[0] != null) {
+                                        moduleIds.add((String) row[0]);
+                                }
+                                if (row[1] != null) {
+                                        subjectIds.add((String) row[1]);
+                                }
+                                if (row[2] != null) {
+                                        packageSessionIds.add((String) row[2]);
+                                }
+                        }
+                }
+                moduleIds.forEach(id -> updateModuleCompletionPercentage(userId, id));
+                subjectIds.forEach(id -> updateSubjectCompletionPercentage(userId, id));
+                packageSessionIds.forEach(id -> updatePackageSessionCompletionPercentage(userId, id));
+        }
 
+        private void updateChapterCompletionPercentage(String userId, String chapterId) {
                 addOrUpdatePercentageOperation(
                                 userId,
                                 LearnerOperationSourceEnum.CHAPTER.name(),
                                 chapterId,
                                 LearnerOperationEnum.PERCENTAGE_CHAPTER_COMPLETED.name(),
-                                chapterPercentage);
+                                progressRollupService.chapterPercentage(userId, chapterId));
 
-                activityLogRepository
-                                .findLatestWatchedSlideIdForChapter(userId, chapterId, slideStatusList, slideStatusList)
-                                .ifPresent(slideId -> learnerOperationService.addOrUpdateOperation(
-                                                userId,
-                                                LearnerOperationSourceEnum.CHAPTER.name(),
-                                                chapterId,
-                                                LearnerOperationEnum.LAST_SLIDE_VIEWED.name(),
-                                                slideId));
+                progressRollupService.refreshLastSlideViewed(userId, chapterId);
         }
 
         // ==== Module-Level Tracking ====
 
         public void updateModuleCompletionPercentage(String userId, String moduleId) {
-                Double percentage = activityLogRepository.getModuleCompletionPercentage(
-                                userId,
-                                moduleId,
-                                List.of(LearnerOperationEnum.PERCENTAGE_CHAPTER_COMPLETED.name()),
-                                List.of(ChapterStatus.ACTIVE.name()));
+                Double percentage = progressRollupService.modulePercentage(userId, moduleId);
 
                 addOrUpdatePercentageOperation(
                                 userId,
@@ -601,12 +615,7 @@ public class LearnerTrackingAsyncService {
         // ==== Subject-Level Tracking ====
 
         public void updateSubjectCompletionPercentage(String userId, String subjectId) {
-                Double percentage = activityLogRepository.getSubjectCompletionPercentage(
-                                userId,
-                                subjectId,
-                                List.of(LearnerOperationEnum.PERCENTAGE_MODULE_COMPLETED.name()),
-                                List.of(ModuleStatusEnum.ACTIVE.name()),
-                                List.of(ChapterStatus.ACTIVE.name()));
+                Double percentage = progressRollupService.subjectPercentage(userId, subjectId);
 
                 addOrUpdatePercentageOperation(
                                 userId,
@@ -637,13 +646,7 @@ public class LearnerTrackingAsyncService {
                         return;
                 }
 
-                Double percentage = activityLogRepository.getPackageSessionCompletionPercentage(
-                                userId,
-                                List.of(LearnerOperationEnum.PERCENTAGE_SUBJECT_COMPLETED.name()),
-                                packageSessionId,
-                                List.of(SubjectStatusEnum.ACTIVE.name()),
-                                List.of(ModuleStatusEnum.ACTIVE.name()),
-                                List.of(ChapterStatus.ACTIVE.name()));
+                Double percentage = progressRollupService.packageSessionPercentage(userId, packageSessionId);
 
                 if (percentage == null) {
                         log.warn("Course-progress rollup produced no value for user {} / packageSession {} "
@@ -718,6 +721,9 @@ public class LearnerTrackingAsyncService {
         public void updateLearnerOperationsForBatch(String source, String slideId, String slideType,
                         String chapterId, String moduleId,
                         String subjectId, String packageSessionId) {
+                // Content changed: slide / chapter / module counts behind the
+                // incremental rollup may have moved, and this recompute is full anyway.
+                progressRollupService.invalidateStructure();
                 List<String> userIds = studentSessionRepository.findDistinctUserIdsByPackageSessionAndStatus(
                                 packageSessionId,
                                 List.of(
@@ -786,28 +792,28 @@ public class LearnerTrackingAsyncService {
          *    content edit that legitimately lowers an aggregate would permanently
          *    freeze the old higher value, and the displayed course % would diverge
          *    from the actual chapter/module math forever.
+         *
+         * Returns how much the stored value rose (0 when nothing was written), which
+         * for a slide is the change ProgressRollupService propagates upward.
          */
-        private void addOrUpdatePercentageOperation(String userId, String source, String sourceId, String operation,
+        private double addOrUpdatePercentageOperation(String userId, String source, String sourceId, String operation,
                         Double value) {
                 if (value == null) {
-                        return;
+                        return 0;
                 }
                 if (value > 100.0) {
                         value = 100.0;
                 }
 
                 if (LearnerOperationSourceEnum.SLIDE.name().equals(source)) {
-                        Double existing = learnerOperationService
-                                        .findDoubleValueByUserIdSourceAndSourceIdAndOperation(userId, source, sourceId,
-                                                        operation)
-                                        .orElse(null);
-                        if (existing != null && existing >= value) {
-                                return;
-                        }
+                        // Compare and raise under one row lock, so concurrent events for the
+                        // same slide can't both count the same rise.
+                        return progressRollupDao.raisePercentage(userId, source, sourceId, operation, value);
                 }
 
                 learnerOperationService.addOrUpdateOperation(userId, source, sourceId, operation,
                                 String.valueOf(value));
+                return value;
         }
 
         public record VideoInterval(Instant start, Instant end) {
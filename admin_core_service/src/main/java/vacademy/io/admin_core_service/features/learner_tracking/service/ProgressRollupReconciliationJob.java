@@ -0,0 +1,91 @@
+package vacademy.io.admin_core_service.features.learner_tracking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import vacademy.io.admin_core_service.features.learner_tracking.repository.ProgressRollupDao;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Nightly repair for ProgressRollupService.
+ *
+ * The live rollup adds deltas to stored percentages, so anything that moves a
+ * denominator without going through the batch trigger (a cached count outliving
+ * a content edit on another replica, a slide that is not counted in its chapter)
+ * or a pending rollup lost to a restart leaves the stored value off. This job
+ * re-runs the full aggregates for every (learner, chapter) with activity in the
+ * lookback window, chapters first and each parent level once per learner, which
+ * overwrites the drift with exactly what the old per-heartbeat cascade wrote.
+ *
+ * Off-peak on purpose: it is the same query load the live path no longer pays
+ * during class hours. {@code @SchedulerLock} keeps it to one replica.
+ */
+@Slf4j
+@Component
+public class ProgressRollupReconciliationJob {
+
+    private static final int PAGE_SIZE = 500;
+
+    @Autowired
+    private ProgressRollupDao progressRollupDao;
+    @Autowired
+    private LearnerTrackingAsyncService learnerTrackingAsyncService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${learner.progress.rollup.reconcile-lookback-hours:26}")
+    private int lookbackHours;
+
+    @Scheduled(cron = "${learner.progress.rollup.reconcile-cron:0 30 2 * * *}")
+    @SchedulerLock(name = "ProgressRollupReconciliation", lockAtMostFor = "PT3H", lockAtLeastFor = "PT1M")
+    public void reconcile() {
+        Timestamp since = new Timestamp(System.currentTimeMillis() - lookbackHours * 3_600_000L);
+        String afterUser = "";
+        String afterChapter = "";
+        String currentUser = null;
+        List<String> chapters = new ArrayList<>();
+        int learners = 0;
+
+        List<Object[]> page;
+        do {
+            page = progressRollupDao.findActiveUserChapters(since, afterUser, afterChapter, PAGE_SIZE);
+            for (Object[] row : page) {
+                String userId = (String) row[0];
+                String chapterId = (String) row[1];
+                // rows arrive ordered by user, so a learner is complete once the user id changes
+                if (currentUser != null && !currentUser.equals(userId)) {
+                    learners += recompute(currentUser, chapters);
+                    chapters = new ArrayList<>();
+                }
+                currentUser = userId;
+                chapters.add(chapterId);
+                afterUser = userId;
+                afterChapter = chapterId;
+            }
+        } while (page.size() == PAGE_SIZE);
+        if (currentUser != null) {
+            learners += recompute(currentUser, chapters);
+        }
+        log.info("Progress rollup reconciliation recomputed {} learners active since {}", learners, since);
+    }
+
+    private int recompute(String userId, List<String> chapterIds) {
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(
+                    status -> learnerTrackingAsyncService.recomputeProgressForChapters(userId, chapterIds));
+            return 1;
+        } catch (Exception e) {
+            // one learner's failure must not stop the sweep
+            log.error("Progress reconciliation failed for user {}", userId, e);
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,410 @@
+package vacademy.io.admin_core_service.features.learner_tracking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import vacademy.io.admin_core_service.features.chapter.enums.ChapterStatus;
+import vacademy.io.admin_core_service.features.institute_learner.enums.LearnerSessionStatusEnum;
+import vacademy.io.admin_core_service.features.learner_operation.enums.LearnerOperationEnum;
+import vacademy.io.admin_core_service.features.learner_operation.enums.LearnerOperationSourceEnum;
+import vacademy.io.admin_core_service.features.learner_operation.service.LearnerOperationService;
+import vacademy.io.admin_core_service.features.learner_tracking.repository.ActivityLogRepository;
+import vacademy.io.admin_core_service.features.learner_tracking.repository.ProgressRollupDao;
+import vacademy.io.admin_core_service.features.module.enums.ModuleStatusEnum;
+import vacademy.io.admin_core_service.features.slide.enums.SlideStatus;
+import vacademy.io.admin_core_service.features.slide.enums.SlideTypeEnum;
+import vacademy.io.admin_core_service.features.subject.enums.SubjectStatusEnum;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chapter → module → subject → package-session progress, maintained by delta.
+ *
+ * Every level is a plain average of its children's stored percentages, so when
+ * a slide's value rises by d the chapter rises by d / (slides in chapter), the
+ * module by that / (chapters in module), and so on. The denominators depend
+ * only on course structure and are cached; the learner's side is one atomic
+ * {@code value += delta} per level (ProgressRollupDao.applyPercentageDelta).
+ * The four full aggregate queries, which were the top CPU consumers during
+ * class hours when every heartbeat ran all of them, now only run to seed a
+ * level the learner has no value for yet, on structural edits, and in the
+ * nightly ProgressRollupReconciliationJob that repairs any drift.
+ *
+ * Slide events are not rolled up inline. They are coalesced per (learner,
+ * chapter) and flushed once the learner has been quiet for {@code quietMs}
+ * (or after {@code maxWaitMs} of continuous activity), so a burst of
+ * heartbeats costs one rollup. Only rollups are deferred: the slide-level
+ * percentage, which drip / prerequisite checks read, is still written
+ * immediately by LearnerTrackingAsyncService. Pending rollups live in memory;
+ * anything lost to a restart is picked up by the reconciliation job. The
+ * scheduler tick only picks the due keys; the flushes themselves run on
+ * {@code progressRollupExecutor}, one key at a time per learner chapter.
+ */
+@Slf4j
+@Service
+public class ProgressRollupService {
+
+    static final List<String> SLIDE_PERCENTAGE_OPERATIONS = List.of(
+            LearnerOperationEnum.PERCENTAGE_VIDEO_WATCHED.name(),
+            LearnerOperationEnum.PERCENTAGE_DOCUMENT_COMPLETED.name(),
+            LearnerOperationEnum.PERCENTAGE_ASSIGNMENT_COMPLETED.name(),
+            LearnerOperationEnum.PERCENTAGE_QUESTION_COMPLETED.name(),
+            LearnerOperationEnum.PERCENTAGE_QUIZ_COMPLETED.name(),
+            LearnerOperationEnum.PERCENTAGE_AUDIO_LISTENED.name(),
+            LearnerOperationEnum.PERCENTAGE_SCORM_COMPLETED.name(),
+            LearnerOperationEnum.PERCENTAGE_ASSESSMENT_DONE.name());
+    static final List<String> VISIBLE_SLIDE_STATUSES = List.of(
+            SlideStatus.PUBLISHED.name(),
+            SlideStatus.UNSYNC.name());
+    static final List<String> ROLLUP_SLIDE_TYPES = List.of(
+            SlideTypeEnum.VIDEO.name(), SlideTypeEnum.DOCUMENT.name(),
+            SlideTypeEnum.ASSIGNMENT.name(),
+            SlideTypeEnum.QUESTION.name(), SlideTypeEnum.QUIZ.name(),
+            SlideTypeEnum.HTML_VIDEO.name(), SlideTypeEnum.AUDIO.name(),
+            SlideTypeEnum.SCORM.name(), SlideTypeEnum.ASSESSMENT.name());
+
+    @Autowired
+    private ActivityLogRepository activityLogRepository;
+    @Autowired
+    private ProgressRollupDao progressRollupDao;
+    @Autowired
+    private LearnerOperationService learnerOperationService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    @Qualifier("progressRollupExecutor")
+    private Executor progressRollupExecutor;
+
+    @Value("${learner.progress.rollup.quiet-ms:2000}")
+    private long quietMs;
+    @Value("${learner.progress.rollup.max-wait-ms:10000}")
+    private long maxWaitMs;
+
+    private final Map<PendingKey, PendingRollup> pending = new ConcurrentHashMap<>();
+    // Keys handed to the executor and not yet flushed, so a slow flush is never
+    // joined by a second one for the same learner chapter.
+    private final Set<PendingKey> inFlight = ConcurrentHashMap.newKeySet();
+
+    // Structural counts per level. Other replicas' copies are not invalidated by a
+    // content edit here, so the TTL bounds how long a stale denominator can be used.
+    private final Cache<String, Integer> childCounts = Caffeine.newBuilder()
+            .maximumSize(20_000)
+            .expireAfterWrite(5, TimeUnit.MINUTES)
+            .build();
+
+    /**
+     * Queues the rollup of one slide event. {@code slideDelta} is how much the
+     * slide's stored percentage just rose (0 when it did not move, in which case
+     * only the chapter's LAST_SLIDE_VIEWED is refreshed). The module / subject /
+     * package session ids are the client's and only used when the server cannot
+     * resolve the chapter's parents.
+     */
+    public void slideProgressed(String userId, String chapterId, String moduleId, String subjectId,
+            String packageSessionId, double slideDelta) {
+        long now = System.currentTimeMillis();
+        pending.merge(new PendingKey(userId, chapterId),
+                new PendingRollup(slideDelta, moduleId, subjectId, packageSessionId, now, now),
+                PendingRollup::then);
+    }
+
+    @Scheduled(fixedDelayString = "${learner.progress.rollup.flush-interval-ms:1000}")
+    public void flushDue() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<PendingKey, PendingRollup> entry : pending.entrySet()) {
+            PendingKey key = entry.getKey();
+            PendingRollup rollup = entry.getValue();
+            if (now - rollup.lastAt() < quietMs && now - rollup.firstAt() < maxWaitMs) {
+                continue;
+            }
+            if (!inFlight.add(key)) {
+                continue;
+            }
+            try {
+                progressRollupExecutor.execute(() -> {
+                    try {
+                        flush(key, rollup);
+                    } finally {
+                        inFlight.remove(key);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Executor is saturated: the rest stay pending for the next tick.
+                inFlight.remove(key);
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        pending.forEach(this::flush);
+    }
+
+    /** Drops cached structure counts; call when content is added, removed or re-statused. */
+    public void invalidateStructure() {
+        childCounts.invalidateAll();
+    }
+
+    private void flush(PendingKey key, PendingRollup rollup) {
+        // Only the exact instance we looked at: if a new event merged in meanwhile,
+        // leave the newer entry for the next tick.
+        if (!pending.remove(key, rollup)) {
+            return;
+        }
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                if (rollup.delta() > 0) {
+                    propagate(key.userId(), key.chapterId(), rollup);
+                }
+                refreshLastSlideViewed(key.userId(), key.chapterId());
+            });
+        } catch (Exception e) {
+            log.error("Progress rollup failed for user {} / chapter {}; the reconciliation job will repair it",
+                    key.userId(), key.chapterId(), e);
+        }
+    }
+
+    private void propagate(String userId, String chapterId, PendingRollup rollup) {
+        double chapterChange = applyToLevel(userId, Level.CHAPTER, chapterId, rollup.delta());
+        if (chapterChange == 0) {
+            return;
+        }
+
+        List<Object[]> targets = activityLogRepository.resolveChapterRollupTargets(
+                userId, chapterId,
+                List.of(ChapterStatus.ACTIVE.name()),
+                List.of(LearnerSessionStatusEnum.ACTIVE.name(), LearnerSessionStatusEnum.INACTIVE.name()));
+        if (targets.isEmpty()) {
+            // Same fallback as the full cascade: the chapter is not mapped to the
+            // learner's batch, so only the client's ids are available. Rare enough
+            // to recompute those levels outright.
+            recompute(userId, Level.MODULE, rollup.moduleId());
+            recompute(userId, Level.SUBJECT, rollup.subjectId());
+            recompute(userId, Level.PACKAGE_SESSION, rollup.packageSessionId());
+            return;
+        }
+
+        // A chapter can sit under several modules / batches; each distinct parent
+        // receives its children's changes exactly once.
+        Set<String> modules = new LinkedHashSet<>();
+        Set<List<String>> moduleSubjects = new LinkedHashSet<>();
+        Set<List<String>> subjectSessions = new LinkedHashSet<>();
+        for (Object[] row : targets) {
+            String module = (String) row[0];
+            String subject = (String) row[1];
+            String session = (String) row[2];
+            if (module != null) modules.add(module);
+            if (module != null && subject != null) moduleSubjects.add(List.of(module, subject));
+            if (subject != null && session != null) subjectSessions.add(List.of(subject, session));
+        }
+
+        Map<String, Double> moduleChanges = new LinkedHashMap<>();
+        for (String module : modules) {
+            moduleChanges.put(module, applyToLevel(userId, Level.MODULE, module, chapterChange));
+        }
+        Map<String, Double> subjectDeltas = new LinkedHashMap<>();
+        for (List<String> pair : moduleSubjects) {
+            subjectDeltas.merge(pair.get(1), moduleChanges.getOrDefault(pair.get(0), 0.0), Double::sum);
+        }
+        Map<String, Double> subjectChanges = new LinkedHashMap<>();
+        subjectDeltas.forEach((subject, delta) ->
+                subjectChanges.put(subject, applyToLevel(userId, Level.SUBJECT, subject, delta)));
+        Map<String, Double> sessionDeltas = new LinkedHashMap<>();
+        for (List<String> pair : subjectSessions) {
+            sessionDeltas.merge(pair.get(1), subjectChanges.getOrDefault(pair.get(0), 0.0), Double::sum);
+        }
+        sessionDeltas.forEach((session, delta) -> applyToLevel(userId, Level.PACKAGE_SESSION, session, delta));
+    }
+
+    /**
+     * Adds the children's summed change to one level and returns how much the
+     * level itself moved, which is what its parent receives.
+     */
+    private double applyToLevel(String userId, Level level, String id, double childDelta) {
+        if (childDelta == 0 || !StringUtils.hasText(id)) {
+            return 0;
+        }
+        Integer children = childCounts.get(level.name() + ":" + id, k -> countChildren(level, id));
+        if (children == null || children == 0) {
+            return 0;
+        }
+        double[] change = progressRollupDao.applyPercentageDelta(userId, level.source, id, level.operation,
+                childDelta / children);
+        if (change != null) {
+            return change[1] - change[0];
+        }
+        // Nothing stored yet, so the parent currently counts this level as 0:
+        // seed it from the full aggregate and pass the whole value up.
+        return recompute(userId, level, id);
+    }
+
+    /** Full aggregate for one level, written as-is. Returns the stored value (0 when none). */
+    private double recompute(String userId, Level level, String id) {
+        if (!StringUtils.hasText(id)) {
+            return 0;
+        }
+        Double value = switch (level) {
+            case CHAPTER -> chapterPercentage(userId, id);
+            case MODULE -> modulePercentage(userId, id);
+            case SUBJECT -> subjectPercentage(userId, id);
+            case PACKAGE_SESSION -> packageSessionPercentage(userId, id);
+        };
+        if (value == null) {
+            return 0;
+        }
+        double stored = Math.min(value, 100.0);
+        learnerOperationService.addOrUpdateOperation(userId, level.source, id, level.operation,
+                String.valueOf(stored));
+        return stored;
+    }
+
+    private int countChildren(Level level, String id) {
+        return switch (level) {
+            case CHAPTER -> progressRollupDao.countChapterSlides(id);
+            case MODULE -> progressRollupDao.countModuleChapters(id);
+            case SUBJECT -> progressRollupDao.countSubjectModules(id);
+            case PACKAGE_SESSION -> progressRollupDao.countPackageSessionSubjects(id);
+        };
+    }
+
+    // ==== Full aggregates (seed, structural edits, reconciliation) ====
+
+    public Double chapterPercentage(String userId, String chapterId) {
+        return activityLogRepository.getChapterCompletionPercentage(
+                userId, chapterId, SLIDE_PERCENTAGE_OPERATIONS, VISIBLE_SLIDE_STATUSES, ROLLUP_SLIDE_TYPES);
+    }
+
+    public Double modulePercentage(String userId, String moduleId) {
+        return activityLogRepository.getModuleCompletionPercentage(
+                userId,
+                moduleId,
+                List.of(LearnerOperationEnum.PERCENTAGE_CHAPTER_COMPLETED.name()),
+                List.of(ChapterStatus.ACTIVE.name()));
+    }
+
+    public Double subjectPercentage(String userId, String subjectId) {
+        return activityLogRepository.getSubjectCompletionPercentage(
+                userId,
+                subjectId,
+                List.of(LearnerOperationEnum.PERCENTAGE_MODULE_COMPLETED.name()),
+                List.of(ModuleStatusEnum.ACTIVE.name()),
+                List.of(ChapterStatus.ACTIVE.name()));
+    }
+
+    public Double packageSessionPercentage(String userId, String packageSessionId) {
+        return activityLogRepository.getPackageSessionCompletionPercentage(
+                userId,
+                List.of(LearnerOperationEnum.PERCENTAGE_SUBJECT_COMPLETED.name()),
+                packageSessionId,
+                List.of(SubjectStatusEnum.ACTIVE.name()),
+                List.of(ModuleStatusEnum.ACTIVE.name()),
+                List.of(ChapterStatus.ACTIVE.name()));
+    }
+
+    public void refreshLastSlideViewed(String userId, String chapterId) {
+        learnerOperationService.deleteLearnerOperationByUserIdSourceAndSourceIdAndOperation(userId,
+                LearnerOperationSourceEnum.CHAPTER.name(), chapterId,
+                LearnerOperationEnum.LAST_SLIDE_VIEWED.name());
+        activityLogRepository
+                .findLatestWatchedSlideIdForChapter(userId, chapterId, VISIBLE_SLIDE_STATUSES, VISIBLE_SLIDE_STATUSES)
+                .ifPresent(slideId -> learnerOperationService.addOrUpdateOperation(
+                        userId,
+                        LearnerOperationSourceEnum.CHAPTER.name(),
+                        chapterId,
+                        LearnerOperationEnum.LAST_SLIDE_VIEWED.name(),
+                        slideId));
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    private enum Level {
+        CHAPTER(LearnerOperationSourceEnum.CHAPTER, LearnerOperationEnum.PERCENTAGE_CHAPTER_COMPLETED),
+        MODULE(LearnerOperationSourceEnum.MODULE, LearnerOperationEnum.PERCENTAGE_MODULE_COMPLETED),
+        SUBJECT(LearnerOperationSourceEnum.SUBJECT, LearnerOperationEnum.PERCENTAGE_SUBJECT_COMPLETED),
+        PACKAGE_SESSION(LearnerOperationSourceEnum.PACKAGE_SESSION,
+                LearnerOperationEnum.PERCENTAGE_PACKAGE_SESSION_COMPLETED);
+
+        private final String source;
+        private final String operation;
+
+        Level(LearnerOperationSourceEnum source, LearnerOperationEnum operation) {
+            this.source = source.name();
+            this.operation = operation.name();
+        }
+    }
+
+    private record PendingKey(String userId, String chapterId) {
+    }
+
+    // Identity equality (a class, not a record) so flush can remove exactly the
+    // instance it read even if an equal-valued one was merged in meanwhile.
+    private static final class PendingRollup {
+        private final double delta;
+        private final String moduleId;
+        private final String subjectId;
+        private final String packageSessionId;
+        private final long firstAt;
+        private final long lastAt;
+
+        private PendingRollup(double delta, String moduleId, String subjectId, String packageSessionId,
+                long firstAt, long lastAt) {
+            this.delta = delta;
+            this.moduleId = moduleId;
+            this.subjectId = subjectId;
+            this.packageSessionId = packageSessionId;
+            this.firstAt = firstAt;
+            this.lastAt = lastAt;
+        }
+
+        private PendingRollup then(PendingRollup next) {
+            return new PendingRollup(delta + next.delta,
+                    next.moduleId != null ? next.moduleId : moduleId,
+                    next.subjectId != null ? next.subjectId : subjectId,
+                    next.packageSessionId != null ? next.packageSessionId : packageSessionId,
+                    firstAt, next.lastAt);
+        }
+
+        private double delta() {
+            return delta;
+        }
+
+        private String moduleId() {
+            return moduleId;
+        }
+
+        private String subjectId() {
+            return subjectId;
+        }
+
+        private String packageSessionId() {
+            return packageSessionId;
+        }
+
+        private long firstAt() {
+            return firstAt;
+        }
+
+        private long lastAt() {
+            return lastAt;
+        }
+    }
+}
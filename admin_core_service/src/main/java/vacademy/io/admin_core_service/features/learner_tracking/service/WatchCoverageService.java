@@ -0,0 +1,78 @@
+package vacademy.io.admin_core_service.features.learner_tracking.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import vacademy.io.admin_core_service.features.learner_tracking.entity.MediaWatchCoverage;
+import vacademy.io.admin_core_service.features.learner_tracking.repository.ActivityLogRepository;
+import vacademy.io.admin_core_service.features.learner_tracking.repository.MediaWatchCoverageRepository;
+import vacademy.io.admin_core_service.features.learner_tracking.util.WatchCoverage;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keeps media_watch_coverage current for video and audio heartbeats.
+ *
+ * A heartbeat only carries the intervals of the current activity, so the cost
+ * of recording it is the size of that payload plus the (small) merged set —
+ * no longer the learner's whole breadcrumb history for the slide. The history
+ * is read exactly once per (learner, slide), when the coverage row is first
+ * created, so learners who started watching before coverage existed keep
+ * their progress.
+ *
+ * Must run inside the caller's transaction: the row is locked from read to save.
+ */
+@Service
+public class WatchCoverageService {
+
+    public static final String MEDIA_VIDEO = "VIDEO";
+    public static final String MEDIA_AUDIO = "AUDIO";
+
+    @Autowired
+    private MediaWatchCoverageRepository mediaWatchCoverageRepository;
+    @Autowired
+    private ActivityLogRepository activityLogRepository;
+
+    /**
+     * Merges the heartbeat's intervals ({start, end} millis pairs, nulls allowed)
+     * into the learner's coverage and returns the covered total in milliseconds.
+     */
+    public long record(String userId, String slideId, String mediaType, List<Long[]> intervals) {
+        boolean created = mediaWatchCoverageRepository.insertIfAbsent(UUID.randomUUID().toString(), userId,
+                slideId, mediaType) > 0;
+        MediaWatchCoverage row = mediaWatchCoverageRepository.findForUpdate(userId, slideId, mediaType)
+                .orElseThrow(() -> new IllegalStateException(
+                        "media_watch_coverage row missing after insert for slide " + slideId));
+
+        WatchCoverage coverage = WatchCoverage.decode(row.getSegments());
+        boolean grown = false;
+        if (created) {
+            // First heartbeat since coverage existed: fold in everything already tracked.
+            for (Object[] tracked : history(userId, slideId, mediaType)) {
+                grown |= coverage.add(millis(tracked[0]), millis(tracked[1]));
+            }
+        }
+        for (Long[] interval : intervals) {
+            grown |= coverage.add(interval[0], interval[1]);
+        }
+
+        if (grown) {
+            row.setSegments(coverage.encode());
+            row.setCoveredMs(coverage.coveredMillis());
+            row.setUpdatedAt(new Timestamp(System.currentTimeMillis()));
+            mediaWatchCoverageRepository.save(row);
+        }
+        return coverage.coveredMillis();
+    }
+
+    private List<Object[]> history(String userId, String slideId, String mediaType) {
+        return MEDIA_AUDIO.equals(mediaType)
+                ? activityLogRepository.getAudioTrackedIntervals(slideId, userId)
+                : activityLogRepository.getVideoTrackedIntervals(slideId, userId);
+    }
+
+    private static Long millis(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.getTime() : null;
+    }
+}
@@ -0,0 +1,104 @@
+package vacademy.io.admin_core_service.features.learner_tracking.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Merged set of watched ranges of one media slide, in media milliseconds.
+ *
+ * Ranges are kept sorted, non-overlapping and with touching ranges joined, so
+ * {@link #coveredMillis()} is exactly what LearnerTrackingAsyncService.getUniqueWatchedDurationMillis
+ * computes over the same intervals — but {@link #add} folds in one interval at
+ * a time (binary search + merge of the neighbours it overlaps) rather than
+ * re-sorting the learner's whole history.
+ *
+ * Persisted as "start-end,start-end" in media_watch_coverage.segments.
+ */
+public class WatchCoverage {
+
+    private final List<long[]> segments;
+    private long coveredMillis;
+
+    private WatchCoverage(List<long[]> segments) {
+        this.segments = segments;
+        for (long[] segment : segments) {
+            coveredMillis += segment[1] - segment[0];
+        }
+    }
+
+    public static WatchCoverage empty() {
+        return new WatchCoverage(new ArrayList<>());
+    }
+
+    public static WatchCoverage decode(String encoded) {
+        List<long[]> segments = new ArrayList<>();
+        if (encoded != null && !encoded.isBlank()) {
+            for (String range : encoded.split(",")) {
+                int dash = range.indexOf('-', 1);
+                segments.add(new long[] { Long.parseLong(range.substring(0, dash)),
+                        Long.parseLong(range.substring(dash + 1)) });
+            }
+        }
+        return new WatchCoverage(segments);
+    }
+
+    public String encode() {
+        StringBuilder encoded = new StringBuilder();
+        for (long[] segment : segments) {
+            if (!encoded.isEmpty()) encoded.append(',');
+            encoded.append(segment[0]).append('-').append(segment[1]);
+        }
+        return encoded.toString();
+    }
+
+    /**
+     * Folds one watched range in. Null bounds and inverted ranges (seek races,
+     * clock skew) are ignored, as in the full merge. Returns whether the covered
+     * total grew.
+     */
+    public boolean add(Long start, Long end) {
+        if (start == null || end == null || end <= start) {
+            return false;
+        }
+        // first range that ends at or after the new start — everything before it is untouched
+        int from = firstEndingAtOrAfter(start);
+        int to = from;
+        long mergedStart = start;
+        long mergedEnd = end;
+        long replaced = 0;
+        while (to < segments.size() && segments.get(to)[0] <= end) {
+            long[] overlapping = segments.get(to);
+            mergedStart = Math.min(mergedStart, overlapping[0]);
+            mergedEnd = Math.max(mergedEnd, overlapping[1]);
+            replaced += overlapping[1] - overlapping[0];
+            to++;
+        }
+        long grown = (mergedEnd - mergedStart) - replaced;
+        segments.subList(from, to).clear();
+        segments.add(from, new long[] { mergedStart, mergedEnd });
+        coveredMillis += grown;
+        return grown > 0;
+    }
+
+    public long coveredMillis() {
+        return coveredMillis;
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    private int firstEndingAtOrAfter(long position) {
+        int low = 0;
+        int high = segments.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (segments.get(mid)[1] < position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
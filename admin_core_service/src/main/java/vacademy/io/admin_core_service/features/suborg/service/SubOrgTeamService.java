@@ -107,6 +107,10 @@ public class SubOrgTeamService {
     @Autowired
     private SubOrgAccessScopeService subOrgAccessScopeService;
 
+    /** Cached lead-listing scopes include sub-org admins' member lists. */
+    @Autowired
+    private vacademy.io.admin_core_service.features.audience.service.LeadListingScopeService leadListingScopeService;
+
     /** Resolves a sub-org invite's package sessions when an assign request doesn't name them. */
     @Autowired
     private vacademy.io.admin_core_service.features.enroll_invite.service
@@ -364,6 +368,9 @@ public class SubOrgTeamService {
             }
         }
 
+        // Sub-org membership is the lead scope of the sub-org's admin.
+        leadListingScopeService.evictAll();
+
         Map<String, Object> result = new java.util.HashMap<>();
         result.put("user_id", userId);
         result.put("granted_count", psGranted + inviteGranted);
@@ -446,6 +453,9 @@ public class SubOrgTeamService {
             }
         }
 
+        // Sub-org membership is the lead scope of the sub-org's admin.
+        leadListingScopeService.evictAll();
+
         Map<String, Object> result = new java.util.HashMap<>();
         result.put("user_id", request.getUserId());
         result.put("sub_org_id", request.getSubOrgId());
@@ -541,6 +551,8 @@ public class SubOrgTeamService {
             throw new VacademyException("User has no active membership in this sub-org to remove");
         }
         facultyMappingRepository.saveAll(mappings);
+        // Sub-org membership is the lead scope of the sub-org's admin.
+        leadListingScopeService.evictAll();
 
         Map<String, Object> result = new java.util.HashMap<>();
         result.put("user_id", request.getUserId());
@@ -6,6 +6,7 @@ import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @EnableAsync
@@ -32,4 +33,39 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    /**
+     * Iterations of LOOP nodes that opt into {@code parallelism}. Kept apart from
+     * {@code workflowTaskExecutor} so a large loop can't starve whole-workflow runs; CallerRuns
+     * turns a full queue into back-pressure on the workflow thread instead of a rejection.
+     */
+    @Bean(name = "workflowLoopExecutor")
+    public Executor workflowLoopExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.setMaxPoolSize(32);
+        executor.setQueueCapacity(64);
+        executor.setThreadNamePrefix("wf-loop-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Chunk sends of pipelined SEND_EMAIL nodes. In-flight chunks are already bounded per run by
+     * EmailDispatchPipeline, so this pool only caps how many runs send concurrently. Rejects when
+     * full instead of running on the caller: the caller may be the pipeline's shared delay thread,
+     * and EmailDispatchPipeline re-queues rejected chunks itself.
+     */
+    @Bean(name = "emailDispatchExecutor")
+    public Executor emailDispatchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(16);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("email-dispatch-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
 }
@@ -2,22 +2,60 @@ package vacademy.io.admin_core_service.features.workflow.engine;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import vacademy.io.admin_core_service.features.workflow.entity.NodeTemplate;
 import vacademy.io.admin_core_service.features.workflow.spel.SpelEvaluator;
 
 import java.util.*;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+/**
+ * LOOP node. Config:
+ * <ul>
+ *   <li>{@code source} — SpEL returning the collection to iterate (required)</li>
+ *   <li>{@code itemVariable} — name of the per-item variable, default {@code item}</li>
+ *   <li>{@code outputKey} — where results land, default {@code loopResults}</li>
+ *   <li>{@code compute} — optional per-item SpEL; its value is collected instead of the item.
+ *       The item is available as {@code #<itemVariable>} and the index as {@code #loopIndex}</li>
+ *   <li>{@code parallelism} — opt-in: evaluate up to N items concurrently on
+ *       {@code workflowLoopExecutor}; never more than N of this node's items are in flight,
+ *       and the per-institute limit caps all LOOP nodes of the institute together. Absent / 1 = sequential</li>
+ *   <li>{@code chunkSize} — items in flight per chunk, default {@value #DEFAULT_CHUNK_SIZE}</li>
+ *   <li>{@code collectResults} — false keeps only the counts (for huge side-effect-only loops)</li>
+ * </ul>
+ * Results keep source order regardless of parallelism. The source is consumed chunk by chunk, so
+ * there is no longer an item cap (it used to truncate at 1,000); only the current chunk's futures
+ * are held at once.
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class LoopNodeHandler implements NodeHandler {
 
+    private static final int DEFAULT_CHUNK_SIZE = 500;
+
     private final ObjectMapper objectMapper;
     private final SpelEvaluator spelEvaluator;
-    private static final int MAX_ITERATIONS = 1000;
+    private final Executor loopExecutor;
+    private final int maxConcurrencyPerInstitute;
+
+    /** Shared across all LOOP nodes of an institute so one tenant can't take the whole pool. */
+    private final Map<String, Semaphore> instituteSlots = new ConcurrentHashMap<>();
+
+    public LoopNodeHandler(ObjectMapper objectMapper,
+                           SpelEvaluator spelEvaluator,
+                           @Qualifier("workflowLoopExecutor") Executor loopExecutor,
+                           @Value("${workflow.loop.max-concurrency-per-institute:8}") int maxConcurrencyPerInstitute) {
+        this.objectMapper = objectMapper;
+        this.spelEvaluator = spelEvaluator;
+        this.loopExecutor = loopExecutor;
+        this.maxConcurrencyPerInstitute = Math.max(1, maxConcurrencyPerInstitute);
+    }
 
     @Override
     public boolean supports(String nodeType) {
@@ -35,6 +73,10 @@ public class LoopNodeHandler implements NodeHandler {
             String sourceExpr = config.path("source").asText("");
             String itemVariable = config.path("itemVariable").asText("item");
             String outputKey = config.path("outputKey").asText("loopResults");
+            String computeExpr = config.path("compute").asText("");
+            int parallelism = Math.min(Math.max(1, config.path("parallelism").asInt(1)), maxConcurrencyPerInstitute);
+            int chunkSize = Math.max(1, config.path("chunkSize").asInt(DEFAULT_CHUNK_SIZE));
+            boolean collectResults = config.path("collectResults").asBoolean(true);
 
             if (sourceExpr.isBlank()) {
                 result.put("error", "Missing source expression");
@@ -48,44 +90,75 @@ public class LoopNodeHandler implements NodeHandler {
             }
 
             Collection<?> sourceList = (Collection<?>) sourceObj;
-            if (sourceList.size() > MAX_ITERATIONS) {
-                log.warn("LOOP node: source has {} items, exceeding max {}. Truncating.", sourceList.size(), MAX_ITERATIONS);
-            }
+            int loopSize = sourceList.size();
 
-            List<Object> loopResults = new ArrayList<>();
-            int iteration = 0;
+            List<Object> loopResults;
             int successCount = 0;
             int failCount = 0;
-
-            for (Object item : sourceList) {
-                if (iteration >= MAX_ITERATIONS) {
-                    log.warn("LOOP node: max iterations ({}) reached, stopping", MAX_ITERATIONS);
-                    break;
+            int iteration = 0;
+            Object lastItem = null;
+
+            if (computeExpr.isBlank()) {
+                // No per-item work: the items themselves are the results; nothing to evaluate or schedule.
+                loopResults = collectResults ? new ArrayList<>(sourceList) : null;
+                iteration = loopSize;
+                successCount = loopSize;
+                for (Object item : sourceList) {
+                    lastItem = item;
                 }
+            } else {
+                loopResults = collectResults ? new ArrayList<>(loopSize) : null;
+                Semaphore slots = parallelism > 1
+                        ? instituteSlots.computeIfAbsent(String.valueOf(context.get("instituteId")),
+                                k -> new Semaphore(maxConcurrencyPerInstitute))
+                        : null;
+                Semaphore runSlots = parallelism > 1 ? new Semaphore(parallelism) : null;
+
+                Iterator<?> it = sourceList.iterator();
+                List<Object> chunk = new ArrayList<>(Math.min(chunkSize, loopSize));
+                while (it.hasNext()) {
+                    chunk.clear();
+                    while (it.hasNext() && chunk.size() < chunkSize) {
+                        chunk.add(it.next());
+                    }
+                    Object[] chunkResults = slots != null
+                            ? runChunkParallel(chunk, iteration, computeExpr, itemVariable, context, runSlots, slots)
+                            : runChunkSequential(chunk, iteration, computeExpr, itemVariable, context);
+                    for (Object r : chunkResults) {
+                        if (r instanceof IterationFailure) {
+                            failCount++;
+                            r = null;
+                        } else {
+                            successCount++;
+                        }
+                        if (loopResults != null) {
+                            loopResults.add(r);
+                        }
+                    }
+                    iteration += chunk.size();
+                    lastItem = chunk.get(chunk.size() - 1);
+                    log.debug("LOOP node: {} / {} items processed", iteration, loopSize);
+                }
+            }
 
-                // Set the current item in context for downstream nodes
-                context.put(itemVariable, item);
-                context.put("loopIndex", iteration);
-                context.put("loopSize", sourceList.size());
-
-                // The LOOP node itself just prepares iteration context.
-                // The actual body execution is handled by the engine's routing.
-                // We collect the item as processed.
-                loopResults.add(item);
-                successCount++;
-                iteration++;
+            // Leave the last iteration's variables in context, as downstream nodes have always seen them.
+            if (iteration > 0) {
+                context.put(itemVariable, lastItem);
+                context.put("loopIndex", iteration - 1);
             }
+            context.put("loopSize", loopSize);
 
-            result.put(outputKey, loopResults);
+            if (loopResults != null) {
+                result.put(outputKey, loopResults);
+                context.put(outputKey, loopResults);
+            }
             result.put("iterationCount", iteration);
             result.put("successCount", successCount);
             result.put("failCount", failCount);
-
-            // Store the full list in context for downstream access
-            context.put(outputKey, loopResults);
             context.put("loopIterationCount", iteration);
 
-            log.info("LOOP node: processed {} iterations over {} items", iteration, sourceList.size());
+            log.info("LOOP node: processed {} iterations over {} items (parallelism {}, {} failed)",
+                    iteration, loopSize, parallelism, failCount);
 
         } catch (Exception e) {
             log.error("Error in LoopNodeHandler", e);
@@ -93,4 +166,76 @@ public class LoopNodeHandler implements NodeHandler {
         }
         return result;
     }
+
+    private Object[] runChunkSequential(List<Object> chunk, int baseIndex, String computeExpr,
+                                        String itemVariable, Map<String, Object> context) {
+        Object[] out = new Object[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            out[i] = computeItem(chunk.get(i), baseIndex + i, computeExpr, itemVariable, context);
+        }
+        return out;
+    }
+
+    /**
+     * Evaluates a chunk on the loop executor. Two permits are taken on the calling thread before
+     * each submit: one from this run's {@code parallelism} budget, then one from the per-institute
+     * budget. So at most {@code parallelism} items of this node, and {@code maxConcurrencyPerInstitute}
+     * items of the institute, are in flight, and the workflow thread blocks (back-pressure) once
+     * either is exhausted. The run permit is taken first so a waiting run holds no institute permit.
+     * Each result is written to its own slot, so output order matches input order.
+     */
+    private Object[] runChunkParallel(List<Object> chunk, int baseIndex, String computeExpr,
+                                      String itemVariable, Map<String, Object> context,
+                                      Semaphore runSlots, Semaphore slots) throws InterruptedException {
+        Object[] out = new Object[chunk.size()];
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            int slot = i;
+            Object item = chunk.get(i);
+            runSlots.acquire();
+            try {
+                slots.acquire();
+            } catch (InterruptedException e) {
+                runSlots.release();
+                throw e;
+            }
+            try {
+                futures[i] = CompletableFuture.runAsync(() -> {
+                    try {
+                        out[slot] = computeItem(item, baseIndex + slot, computeExpr, itemVariable, context);
+                    } finally {
+                        slots.release();
+                        runSlots.release();
+                    }
+                }, loopExecutor);
+            } catch (RuntimeException e) {
+                slots.release();
+                runSlots.release();
+                throw e;
+            }
+        }
+        CompletableFuture.allOf(futures).join();
+        return out;
+    }
+
+    /**
+     * The shared context is only read here (the engine applies this node's changes after
+     * {@link #handle} returns), so concurrent evaluation against it is safe; per-item values go
+     * in as SpEL variables instead of being written into the map.
+     */
+    private Object computeItem(Object item, int index, String computeExpr, String itemVariable,
+                               Map<String, Object> context) {
+        Map<String, Object> vars = new HashMap<>(4);
+        vars.put(itemVariable, item);
+        vars.put("loopIndex", index);
+        try {
+            return spelEvaluator.evaluate(computeExpr, context, vars);
+        } catch (Exception e) {
+            log.debug("LOOP compute failed for item {}: {}", index, e.getMessage());
+            return IterationFailure.INSTANCE;
+        }
+    }
+
+    /** Marker for a failed iteration; becomes a null slot in {@code loopResults}. */
+    private enum IterationFailure { INSTANCE }
 }
@@ -22,6 +22,7 @@ import vacademy.io.admin_core_service.features.workflow.service.WorkflowExecutio
 import vacademy.io.admin_core_service.features.workflow.enums.ExecutionLogStatus;
 import vacademy.io.admin_core_service.features.workflow.enums.NodeType;
 import vacademy.io.admin_core_service.features.workflow.dto.execution_log.EmailExecutionDetails;
+import vacademy.io.admin_core_service.features.workflow.engine.email.EmailDispatchPipeline;
 import vacademy.io.common.logging.SentryLogger;
 
 import vacademy.io.admin_core_service.features.workflow.service.NotificationRateLimitService;
@@ -45,6 +46,7 @@ public class SendEmailNodeHandler implements NodeHandler {
     private final TemplateRepository templateRepository;
     private final WorkflowExecutionLogger executionLogger;
     private final NotificationRateLimitService rateLimitService;
+    private final EmailDispatchPipeline dispatchPipeline;
     private final Map<String, Template> templateCache = new java.util.concurrent.ConcurrentHashMap<>();
 
     // Throttling defaults — workflows that fan out to many recipients (e.g., a batch
@@ -57,6 +59,13 @@ public class SendEmailNodeHandler implements NodeHandler {
     private static final long DEFAULT_THROTTLE_MS = 200L;
     private static final long DEFAULT_CHUNK_TIMEOUT_MS = 30_000L; // 30 seconds per chunk send
 
+    // Pipelined mode ("pipelined": true) — for very large fan-outs. Items are rendered one chunk
+    // at a time and each chunk is handed to EmailDispatchPipeline while the next one renders, so
+    // only "maxInFlightChunks" chunks of rendered bodies exist at once. Pacing comes from a
+    // per-institute token bucket ("recipientsPerSecond"; defaults to the rate the chunkSize /
+    // throttleMs pair implies) instead of sleeping between chunks.
+    private static final int DEFAULT_MAX_IN_FLIGHT_CHUNKS = 4;
+
     // Daemon thread pool dedicated to chunked sends. We need a separate thread so we
     // can abandon a hung notification call via Future.cancel(). Cached pool reclaims
     // idle threads automatically. Daemon = won't block JVM shutdown.
@@ -189,6 +198,9 @@ public class SendEmailNodeHandler implements NodeHandler {
             int chunkSize = DEFAULT_CHUNK_SIZE;
             long throttleMs = DEFAULT_THROTTLE_MS;
             long chunkTimeoutMs = DEFAULT_CHUNK_TIMEOUT_MS;
+            boolean pipelined = false;
+            int maxInFlightChunks = DEFAULT_MAX_IN_FLIGHT_CHUNKS;
+            Double recipientsPerSecond = null;
             try {
                 com.fasterxml.jackson.databind.JsonNode configRoot = objectMapper.readTree(nodeConfigJson);
                 if (configRoot.has("templateName") && !configRoot.get("templateName").asText("").isBlank()) {
@@ -212,170 +224,53 @@ public class SendEmailNodeHandler implements NodeHandler {
                     long t = configRoot.get("chunkTimeoutMs").asLong();
                     if (t > 0) chunkTimeoutMs = t;
                 }
+                pipelined = configRoot.path("pipelined").asBoolean(false);
+                if (configRoot.has("maxInFlightChunks") && configRoot.get("maxInFlightChunks").isInt()) {
+                    int m = configRoot.get("maxInFlightChunks").asInt();
+                    if (m > 0) maxInFlightChunks = m;
+                }
+                if (configRoot.has("recipientsPerSecond") && configRoot.get("recipientsPerSecond").isNumber()) {
+                    double r = configRoot.get("recipientsPerSecond").asDouble();
+                    if (r >= 0) recipientsPerSecond = r;
+                }
             } catch (Exception e) {
                 log.warn("Failed to parse node-level template config", e);
             }
 
-            for (Object item : items) {
-                Map<String, Object> itemContext = new HashMap<>(context);
+            NodeEmailSettings settings = new NodeEmailSettings(
+                    nodeLevelTemplateName, nodeLevelTemplateVars, nodeLevelRecipientField);
 
-                // If node config has a recipientField, store it in context for extractEmailAddress
-                if (nodeLevelRecipientField != null) {
-                    itemContext.put("_recipientField", nodeLevelRecipientField);
-                }
-
-                // If node config has a templateName, inject it into the item so the handler uses the template
-                // instead of the item's pre-built subject/body.
-                // Items can be either Maps (typical — DB rows / JSON objects) OR Java beans
-                // (e.g. UserDTO when the workflow iterates over a single user from the trigger
-                // context via SpEL like `{#ctx['user']}`). For beans we convert to Map first so
-                // (a) we can attach templateName/templateVars and (b) downstream Map.get() lookups
-                // (recipient extraction at line 1054, field substitution at line 926) work.
-                if (nodeLevelTemplateName != null) {
-                    Map<String, Object> enrichedItem;
-                    if (item instanceof Map) {
-                        enrichedItem = new HashMap<>((Map<String, Object>) item);
-                    } else {
-                        try {
-                            enrichedItem = objectMapper.convertValue(item, Map.class);
-                            if (enrichedItem == null) enrichedItem = new HashMap<>();
-                        } catch (Exception e) {
-                            log.warn("Could not convert iteration item ({}) to Map; falling back to empty enriched item: {}",
-                                    item != null ? item.getClass().getSimpleName() : "null", e.getMessage());
-                            enrichedItem = new HashMap<>();
-                        }
-                    }
-                    enrichedItem.put("templateName", nodeLevelTemplateName);
-                    if (nodeLevelTemplateVars != null) {
-                        enrichedItem.put("templateVars", nodeLevelTemplateVars);
-                    }
-                    itemContext.put("item", enrichedItem);
-                } else {
-                    itemContext.put("item", item);
-                }
+            if (pipelined) {
+                double rate = recipientsPerSecond != null ? recipientsPerSecond
+                        : (throttleMs > 0 ? chunkSize * 1000.0 / throttleMs : 0);
+                return handlePipelined(context, sendEmailNodeDTO, items, settings, finalInstituteId,
+                        chunkSize, rate, maxInFlightChunks, chunkTimeoutMs, logId, startTime, failedEmails);
+            }
 
-                List<Map<String, Object>> itemRequests = processForEachOperation(sendEmailNodeDTO.getForEach(),
-                        itemContext, item, failedEmails);
-                if (itemRequests != null && !itemRequests.isEmpty()) {
-                    allEmailRequests.addAll(itemRequests);
-                }
+            for (Object item : items) {
+                allEmailRequests.addAll(renderItem(item, context, sendEmailNodeDTO, settings, failedEmails));
             }
 
             // --- BATCHING AND DEDUPLICATION LOGIC ---
             if (!allEmailRequests.isEmpty()) {
 
-                // Batch maps
-                Map<String, NotificationDTO> regularBatchMap = new HashMap<>();
-                Map<String, AttachmentNotificationDTO> attachmentBatchMap = new HashMap<>();
+                // Batch maps, keyed by subject/body (and attachment name)
+                EmailBatches batches = new EmailBatches();
+                Map<String, NotificationDTO> regularBatchMap = batches.regular;
+                Map<String, AttachmentNotificationDTO> attachmentBatchMap = batches.attachment;
 
                 // Deduplication set
                 Set<String> sentLog = new HashSet<>();
                 List<String> emailResults = new ArrayList<>();
 
                 // Map to store original items for failure tracking
-                Map<String, Object> recipientToItemMap = new HashMap<>();
+                Map<String, Object> recipientToItemMap = batches.recipientToItem;
 
                 for (Map<String, Object> request : allEmailRequests) {
-                    String recipient = (String) request.get("recipient");
-                    String subject = (String) request.get("subject");
-                    String type = (String) request.getOrDefault("type", "REGULAR");
-                    Object originalItem = request.get("_originalItem");
-
-                    if (recipient == null || recipient.isBlank()) {
-                        log.warn("Skipping email request, recipient is null or blank.");
-                        skippedCount++;
-                        failedEmails.add(EmailExecutionDetails.FailedEmail.builder()
-                                .recipientEmail(recipient)
-                                .errorMessage("Recipient is null or blank")
-                                .errorType("VALIDATION_ERROR")
-                                .failureReason("SKIPPED")
-                                .itemData(originalItem)
-                                .build());
-                        continue;
-                    }
-
-                    // --- Deduplication Check ---
-                    String dedupeKey = recipient + "::" + subject;
-                    if (sentLog.contains(dedupeKey)) {
-                        log.warn("Duplicate email request for {} with subject ''{}''. Skipping.", recipient, subject);
+                    if (batches.add(request, sentLog, failedEmails)) {
+                        processedCount++;
+                    } else {
                         skippedCount++;
-                        failedEmails.add(EmailExecutionDetails.FailedEmail.builder()
-                                .recipientEmail(recipient)
-                                .errorMessage("Duplicate request")
-                                .errorType("DUPLICATE")
-                                .failureReason("SKIPPED")
-                                .itemData(originalItem)
-                                .build());
-                        continue; // Already added this user for this template
-                    }
-                    sentLog.add(dedupeKey);
-                    // --- End Deduplication ---
-
-                    // Store item for failure tracking
-                    if (originalItem != null) {
-                        recipientToItemMap.put(recipient, originalItem);
-                    }
-
-                    processedCount++;
-
-                    // --- Batching by Type ---
-                    if ("ATTACHMENT_EMAIL".equals(type)) {
-                        String body = (String) request.get("body");
-                        String attachmentName = (String) request.get("attachmentName");
-                        String attachmentBase64 = (String) request.get("attachmentBase64");
-                        Map<String, String> placeholders = (Map<String, String>) request.get("placeholders");
-
-                        // Group by subject + body + attachmentName
-                        String groupingKey = subject + "||" + body + "||" + attachmentName;
-
-                        AttachmentNotificationDTO batchDTO = attachmentBatchMap.computeIfAbsent(groupingKey,
-                                k -> AttachmentNotificationDTO.builder()
-                                        .subject(subject)
-                                        .body(body)
-                                        .notificationType("EMAIL")
-                                        .source("WORKFLOW")
-                                        .sourceId("send_attachment_email_batch")
-                                        .users(new ArrayList<>())
-                                        .build());
-
-                        AttachmentUsersDTO userDTO = new AttachmentUsersDTO();
-                        userDTO.setChannelId(recipient);
-                        // Use actual userId if available, fall back to recipient email
-                        String attachUserIdStr = (String) request.get("userId");
-                        userDTO.setUserId(attachUserIdStr != null ? attachUserIdStr : recipient);
-                        userDTO.setPlaceholders(placeholders); // Add placeholders
-
-                        AttachmentUsersDTO.AttachmentDTO attachment = new AttachmentUsersDTO.AttachmentDTO();
-                        attachment.setAttachmentName(attachmentName);
-                        attachment.setAttachment(attachmentBase64);
-                        userDTO.setAttachments(List.of(attachment));
-
-                        batchDTO.getUsers().add(userDTO);
-
-                    } else { // "REGULAR" email
-                        String body = (String) request.get("body");
-                        Map<String, String> placeholders = (Map<String, String>) request.get("placeholders");
-                        String groupingKey = subject + "||" + body;
-
-                        NotificationDTO batchDTO = regularBatchMap.computeIfAbsent(groupingKey, k -> {
-                            NotificationDTO newDto = new NotificationDTO();
-                            newDto.setSubject(subject);
-                            newDto.setBody(body);
-                            newDto.setNotificationType("EMAIL");
-                            newDto.setSource("WORKFLOW");
-                            newDto.setSourceId("send_email_node_batch");
-                            newDto.setUsers(new ArrayList<>());
-                            return newDto;
-                        });
-
-                        NotificationToUserDTO userDTO = new NotificationToUserDTO();
-                        userDTO.setChannelId(recipient);
-                        // Use actual userId if available, fall back to recipient email
-                        String regularUserIdStr = (String) request.get("userId");
-                        userDTO.setUserId(regularUserIdStr != null ? regularUserIdStr : recipient);
-                        userDTO.setPlaceholders(placeholders != null ? placeholders : Map.of("email", recipient));
-
-                        batchDTO.getUsers().add(userDTO);
                     }
                 }
 
@@ -576,6 +471,349 @@ public class SendEmailNodeHandler implements NodeHandler {
         return changes;
     }
 
+    /** Node-level overrides applied to every item (see the config parsing in {@link #handle}). */
+    private record NodeEmailSettings(String templateName, Map<String, Object> templateVars, String recipientField) {
+    }
+
+    /**
+     * Builds the per-item context and evaluates the node's forEach for one item. Returns the email
+     * requests (raw data maps) it produced; per-item failures are appended to failedEmails.
+     */
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> renderItem(Object item, Map<String, Object> context,
+            SendEmailNodeDTO sendEmailNodeDTO, NodeEmailSettings settings,
+            List<EmailExecutionDetails.FailedEmail> failedEmails) {
+        Map<String, Object> itemContext = new HashMap<>(context);
+
+        // If node config has a recipientField, store it in context for extractEmailAddress
+        if (settings.recipientField() != null) {
+            itemContext.put("_recipientField", settings.recipientField());
+        }
+
+        // If node config has a templateName, inject it into the item so the handler uses the template
+        // instead of the item's pre-built subject/body.
+        // Items can be either Maps (typical — DB rows / JSON objects) OR Java beans
+        // (e.g. UserDTO when the workflow iterates over a single user from the trigger
+        // context via SpEL like `{#ctx['user']}`). For beans we convert to Map first so
+        // (a) we can attach templateName/templateVars and (b) downstream Map.get() lookups
+        // (recipient extraction, field substitution in createEmailRequest) work.
+        if (settings.templateName() != null) {
+            Map<String, Object> enrichedItem;
+            if (item instanceof Map) {
+                enrichedItem = new HashMap<>((Map<String, Object>) item);
+            } else {
+                try {
+                    enrichedItem = objectMapper.convertValue(item, Map.class);
+                    if (enrichedItem == null) enrichedItem = new HashMap<>();
+                } catch (Exception e) {
+                    log.warn("Could not convert iteration item ({}) to Map; falling back to empty enriched item: {}",
+                            item != null ? item.getClass().getSimpleName() : "null", e.getMessage());
+                    enrichedItem = new HashMap<>();
+                }
+            }
+            enrichedItem.put("templateName", settings.templateName());
+            if (settings.templateVars() != null) {
+                enrichedItem.put("templateVars", settings.templateVars());
+            }
+            itemContext.put("item", enrichedItem);
+        } else {
+            itemContext.put("item", item);
+        }
+
+        List<Map<String, Object>> itemRequests = processForEachOperation(sendEmailNodeDTO.getForEach(),
+                itemContext, item, failedEmails);
+        return itemRequests != null ? itemRequests : Collections.emptyList();
+    }
+
+    /**
+     * Groups rendered email requests into notification-service batches: regular emails by
+     * subject + body, attachment emails by subject + body + attachment name.
+     */
+    private static class EmailBatches {
+        final Map<String, NotificationDTO> regular = new HashMap<>();
+        final Map<String, AttachmentNotificationDTO> attachment = new HashMap<>();
+        final Map<String, Object> recipientToItem = new HashMap<>();
+
+        /**
+         * Adds one request, or records why it was skipped (blank recipient, duplicate
+         * recipient + subject across the whole node run via sentLog).
+         *
+         * @return true if added, false if skipped
+         */
+        @SuppressWarnings("unchecked")
+        boolean add(Map<String, Object> request, Set<String> sentLog,
+                    List<EmailExecutionDetails.FailedEmail> failedEmails) {
+            String recipient = (String) request.get("recipient");
+            String subject = (String) request.get("subject");
+            String type = (String) request.getOrDefault("type", "REGULAR");
+            Object originalItem = request.get("_originalItem");
+
+            if (recipient == null || recipient.isBlank()) {
+                log.warn("Skipping email request, recipient is null or blank.");
+                failedEmails.add(EmailExecutionDetails.FailedEmail.builder()
+                        .recipientEmail(recipient)
+                        .errorMessage("Recipient is null or blank")
+                        .errorType("VALIDATION_ERROR")
+                        .failureReason("SKIPPED")
+                        .itemData(originalItem)
+                        .build());
+                return false;
+            }
+
+            // --- Deduplication Check ---
+            String dedupeKey = recipient + "::" + subject;
+            if (sentLog.contains(dedupeKey)) {
+                log.warn("Duplicate email request for {} with subject ''{}''. Skipping.", recipient, subject);
+                failedEmails.add(EmailExecutionDetails.FailedEmail.builder()
+                        .recipientEmail(recipient)
+                        .errorMessage("Duplicate request")
+                        .errorType("DUPLICATE")
+                        .failureReason("SKIPPED")
+                        .itemData(originalItem)
+                        .build());
+                return false; // Already added this user for this template
+            }
+            sentLog.add(dedupeKey);
+            // --- End Deduplication ---
+
+            // Store item for failure tracking
+            if (originalItem != null) {
+                recipientToItem.put(recipient, originalItem);
+            }
+
+            // --- Batching by Type ---
+            if ("ATTACHMENT_EMAIL".equals(type)) {
+                String body = (String) request.get("body");
+                String attachmentName = (String) request.get("attachmentName");
+                String attachmentBase64 = (String) request.get("attachmentBase64");
+                Map<String, String> placeholders = (Map<String, String>) request.get("placeholders");
+
+                // Group by subject + body + attachmentName
+                String groupingKey = subject + "||" + body + "||" + attachmentName;
+
+                AttachmentNotificationDTO batchDTO = attachment.computeIfAbsent(groupingKey,
+                        k -> AttachmentNotificationDTO.builder()
+                                .subject(subject)
+                                .body(body)
+                                .notificationType("EMAIL")
+                                .source("WORKFLOW")
+                                .sourceId("send_attachment_email_batch")
+                                .users(new ArrayList<>())
+                                .build());
+
+                AttachmentUsersDTO userDTO = new AttachmentUsersDTO();
+                userDTO.setChannelId(recipient);
+                // Use actual userId if available, fall back to recipient email
+                String attachUserIdStr = (String) request.get("userId");
+                userDTO.setUserId(attachUserIdStr != null ? attachUserIdStr : recipient);
+                userDTO.setPlaceholders(placeholders); // Add placeholders
+
+                AttachmentUsersDTO.AttachmentDTO attachment = new AttachmentUsersDTO.AttachmentDTO();
+                attachment.setAttachmentName(attachmentName);
+                attachment.setAttachment(attachmentBase64);
+                userDTO.setAttachments(List.of(attachment));
+
+                batchDTO.getUsers().add(userDTO);
+
+            } else { // "REGULAR" email
+                String body = (String) request.get("body");
+                Map<String, String> placeholders = (Map<String, String>) request.get("placeholders");
+                String groupingKey = subject + "||" + body;
+
+                NotificationDTO batchDTO = regular.computeIfAbsent(groupingKey, k -> {
+                    NotificationDTO newDto = new NotificationDTO();
+                    newDto.setSubject(subject);
+                    newDto.setBody(body);
+                    newDto.setNotificationType("EMAIL");
+                    newDto.setSource("WORKFLOW");
+                    newDto.setSourceId("send_email_node_batch");
+                    newDto.setUsers(new ArrayList<>());
+                    return newDto;
+                });
+
+                NotificationToUserDTO userDTO = new NotificationToUserDTO();
+                userDTO.setChannelId(recipient);
+                // Use actual userId if available, fall back to recipient email
+                String regularUserIdStr = (String) request.get("userId");
+                userDTO.setUserId(regularUserIdStr != null ? regularUserIdStr : recipient);
+                userDTO.setPlaceholders(placeholders != null ? placeholders : Map.of("email", recipient));
+
+                batchDTO.getUsers().add(userDTO);
+            }
+            return true;
+        }
+
+        int regularUserCount() {
+            return regular.values().stream()
+                    .mapToInt(dto -> dto.getUsers() != null ? dto.getUsers().size() : 0).sum();
+        }
+
+        boolean isEmpty() {
+            return regular.isEmpty() && attachment.isEmpty();
+        }
+    }
+
+    /**
+     * Pipelined SEND_EMAIL: renders {@code chunkSize} requests at a time, batches and dedups them,
+     * and submits each batch to {@link EmailDispatchPipeline} while the next chunk renders. Memory
+     * is bounded by the in-flight chunk limit instead of the recipient count.
+     *
+     * <p>Differences from the sequential path: the daily EMAIL quota is checked per chunk, so a
+     * quota running out mid-run sends the chunks before it (status stays {@code emails_sent} with
+     * {@code rateLimitExceeded}); {@code regular_batches_sent} / {@code attachment_batches_sent}
+     * count chunks.
+     */
+    private Map<String, Object> handlePipelined(Map<String, Object> context, SendEmailNodeDTO sendEmailNodeDTO,
+            List<Object> items, NodeEmailSettings settings, String instituteId, int chunkSize,
+            double recipientsPerSecond, int maxInFlightChunks, long chunkTimeoutMs, String logId,
+            long startTime, List<EmailExecutionDetails.FailedEmail> failedEmails) {
+        Map<String, Object> changes = new HashMap<>();
+        // Dispatch threads append chunk failures while this thread is still rendering.
+        List<EmailExecutionDetails.FailedEmail> failures = Collections.synchronizedList(failedEmails);
+        java.util.concurrent.atomic.AtomicInteger failedCount = new java.util.concurrent.atomic.AtomicInteger();
+        int processedCount = 0;
+        int skippedCount = 0;
+        int regularChunks = 0;
+        int attachmentChunks = 0;
+        int renderedCount = 0;
+        boolean rateLimited = false;
+
+        EmailDispatchPipeline.Run run = dispatchPipeline.start(instituteId, recipientsPerSecond,
+                maxInFlightChunks, chunkTimeoutMs);
+        Set<String> sentLog = new HashSet<>();
+        List<Map<String, Object>> chunkRequests = new ArrayList<>(chunkSize);
+        Iterator<Object> it = items.iterator();
+        try {
+            while (it.hasNext()) {
+                chunkRequests.clear();
+                while (it.hasNext() && chunkRequests.size() < chunkSize) {
+                    chunkRequests.addAll(renderItem(it.next(), context, sendEmailNodeDTO, settings, failures));
+                }
+                renderedCount += chunkRequests.size();
+                run.recordRendered(chunkRequests.size());
+
+                EmailBatches batches = new EmailBatches();
+                int chunkAdded = 0;
+                for (Map<String, Object> request : chunkRequests) {
+                    if (batches.add(request, sentLog, failures)) {
+                        chunkAdded++;
+                    } else {
+                        skippedCount++;
+                    }
+                }
+                if (batches.isEmpty()) {
+                    continue;
+                }
+
+                int regularUsers = batches.regularUserCount();
+                if (regularUsers > 0 && !rateLimitService.checkAndIncrement(instituteId, "EMAIL", regularUsers)) {
+                    log.warn("EMAIL rate limit exceeded for institute: {} after {} recipients. Stopping pipelined send.",
+                            instituteId, processedCount);
+                    rateLimited = true;
+                    break;
+                }
+                processedCount += chunkAdded;
+
+                for (NotificationDTO batch : batches.regular.values()) {
+                    regularChunks++;
+                    run.submit("regular email chunk (subject=" + batch.getSubject() + ", users=" + batch.getUsers().size() + ")",
+                            batch.getUsers().size(),
+                            () -> notificationService.sendEmailToUsersMultipleViaUnified(List.of(batch), instituteId),
+                            error -> batch.getUsers().forEach(u -> {
+                                failures.add(chunkFailure(u.getChannelId(), batches.recipientToItem, error));
+                                failedCount.incrementAndGet();
+                            }));
+                }
+                for (AttachmentNotificationDTO batch : batches.attachment.values()) {
+                    attachmentChunks++;
+                    run.submit("attachment email chunk (subject=" + batch.getSubject() + ", users=" + batch.getUsers().size() + ")",
+                            batch.getUsers().size(),
+                            () -> notificationService.sendAttachmentEmailViaUnified(List.of(batch), instituteId),
+                            error -> batch.getUsers().forEach(u -> {
+                                failures.add(chunkFailure(u.getChannelId(), batches.recipientToItem, error));
+                                failedCount.incrementAndGet();
+                            }));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Pipelined email send interrupted for institute {}; waiting for queued chunks", instituteId);
+        } finally {
+            run.awaitCompletion();
+        }
+
+        processedCount -= failedCount.get();
+        if (renderedCount == 0) {
+            changes.put("status", "no_requests_created");
+        } else if (rateLimited && regularChunks == 0 && attachmentChunks == 0) {
+            // Nothing went out — same outcome as the sequential path's up-front quota check.
+            changes.put("rateLimitExceeded", true);
+            changes.put("status", "rate_limited");
+            if (logId != null) {
+                executionLogger.completeNodeExecution(logId, ExecutionLogStatus.FAILED, null,
+                        "Email rate limit exceeded for institute: " + instituteId);
+            }
+            return changes;
+        } else if (regularChunks == 0 && attachmentChunks == 0) {
+            changes.put("status", "no_requests_sent");
+        } else {
+            changes.put("email_requests_processed", processedCount);
+            changes.put("email_requests_skipped", skippedCount);
+            changes.put("regular_batches_sent", regularChunks);
+            changes.put("attachment_batches_sent", attachmentChunks);
+            changes.put("status", "emails_sent");
+            if (rateLimited) {
+                changes.put("rateLimitExceeded", true);
+            }
+        }
+        log.info("Pipelined email send for institute {}: {} rendered, {} processed, {} skipped, {} failed ({} regular / {} attachment chunks)",
+                instituteId, renderedCount, processedCount, skippedCount, failedCount.get(), regularChunks, attachmentChunks);
+
+        if (!failedEmails.isEmpty()) {
+            SentryLogger.SentryEventBuilder.error()
+                    .withMessage("SEND_EMAIL forEach completed with failures")
+                    .withTag("node.type", "SEND_EMAIL")
+                    .withTag("failed.count", String.valueOf(failedEmails.size()))
+                    .withTag("success.count", String.valueOf(processedCount))
+                    .withTag("first.error", failedEmails.get(0).getErrorMessage() != null
+                            ? failedEmails.get(0).getErrorMessage()
+                            : "unknown")
+                    .withTag("operation", "handleSendEmailPipelined")
+                    .send();
+        }
+
+        if (logId != null) {
+            EmailExecutionDetails details = EmailExecutionDetails.builder()
+                    .inputContext(null)
+                    .outputContext(null)
+                    .successCount(processedCount)
+                    .failureCount(failedEmails.size())
+                    .skippedCount(skippedCount)
+                    .failedEmails(failedEmails)
+                    .executionTimeMs(System.currentTimeMillis() - startTime)
+                    .build();
+            ExecutionLogStatus status = (!failedEmails.isEmpty() || skippedCount > 0 || rateLimited)
+                    ? ExecutionLogStatus.PARTIAL_SUCCESS
+                    : ExecutionLogStatus.SUCCESS;
+            if (processedCount == 0 && skippedCount == 0 && !failedEmails.isEmpty()) {
+                status = ExecutionLogStatus.FAILED;
+            }
+            executionLogger.completeNodeExecution(logId, status, details, null);
+        }
+        return changes;
+    }
+
+    private static EmailExecutionDetails.FailedEmail chunkFailure(String recipient, Map<String, Object> recipientToItem,
+            Throwable error) {
+        return EmailExecutionDetails.FailedEmail.builder()
+                .recipientEmail(recipient)
+                .errorMessage("Batch send failed: " + error.getMessage())
+                .errorType("BATCH_SEND_ERROR")
+                .failureReason("FAILED")
+                .itemData(recipientToItem.get(recipient))
+                .build();
+    }
+
     private List<Map<String, Object>> processForEachOperation(ForEachConfigDTO forEachConfig,
             Map<String, Object> itemContext, Object item, List<EmailExecutionDetails.FailedEmail> failedEmails) {
         if (forEachConfig == null) {
@@ -0,0 +1,239 @@
+package vacademy.io.admin_core_service.features.workflow.engine.email;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Asynchronous chunk dispatcher behind SEND_EMAIL's pipelined mode. The node renders one chunk,
+ * hands it to {@link Run#submit}, and goes on rendering the next chunk while earlier ones are
+ * still being sent:
+ * <ul>
+ *   <li><b>Back-pressure</b> — at most {@code maxInFlight} chunks per run are queued or sending;
+ *       {@code submit} blocks the rendering thread beyond that, so rendered bodies never pile
+ *       up in heap. The wait is bounded: if no slot frees within a timeout past the last
+ *       outstanding chunk's deadline, the earlier sends are ignoring their interrupt and the
+ *       new chunk is failed instead of blocking the node forever.</li>
+ *   <li><b>Rate</b> — each chunk reserves its recipients from the institute's
+ *       {@link InstituteTokenBucket} and is scheduled for when the tokens are available, rather
+ *       than a thread sleeping between chunks.</li>
+ *   <li><b>Timeout</b> — same contract as the sequential path: a chunk that outlives
+ *       {@code chunkTimeoutMs} is logged and not counted as failed. Its send is cancelled
+ *       (interrupted), and its in-flight slot is only freed once the send has actually returned,
+ *       so hung sends can't pile up on the dispatch pool behind a run that keeps submitting.</li>
+ *   <li><b>Saturation</b> — the dispatch pool rejects rather than running on the caller; a
+ *       rejected chunk is re-queued on the delay scheduler, which never runs a send itself and
+ *       so never stalls other institutes' delayed chunks.</li>
+ * </ul>
+ * Metrics: {@code workflow.email.pipeline.rendered} / {@code .dispatched} / {@code .failed}
+ * recipient counters (rates per second come from the registry), the
+ * {@code workflow.email.pipeline.queue.depth} gauge (chunks submitted but not finished, all runs)
+ * and the {@code workflow.email.pipeline.chunk} send timer.
+ */
+@Slf4j
+@Component
+public class EmailDispatchPipeline {
+
+    private static final long REJECTED_RETRY_MS = 100;
+
+    // Per-chunk send state; see Run#submit.
+    private static final int QUEUED = 0;
+    private static final int RUNNING = 1;
+    private static final int DONE = 2;
+
+    private final Executor dispatchExecutor;
+    private final InstituteTokenBucket tokenBucket = new InstituteTokenBucket();
+    private final ScheduledExecutorService delayScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "email-pipeline-delay");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final Counter renderedCounter;
+    private final Counter dispatchedCounter;
+    private final Counter failedCounter;
+    private final Timer chunkTimer;
+
+    public EmailDispatchPipeline(@Qualifier("emailDispatchExecutor") Executor dispatchExecutor,
+                                 MeterRegistry meterRegistry) {
+        this.dispatchExecutor = dispatchExecutor;
+        this.renderedCounter = Counter.builder("workflow.email.pipeline.rendered")
+                .description("Email requests rendered by pipelined SEND_EMAIL nodes").register(meterRegistry);
+        this.dispatchedCounter = Counter.builder("workflow.email.pipeline.dispatched")
+                .description("Recipients handed to the notification service").register(meterRegistry);
+        this.failedCounter = Counter.builder("workflow.email.pipeline.failed")
+                .description("Recipients in chunks whose send failed").register(meterRegistry);
+        this.chunkTimer = Timer.builder("workflow.email.pipeline.chunk")
+                .description("Notification-service call duration per chunk").register(meterRegistry);
+        meterRegistry.gauge("workflow.email.pipeline.queue.depth", queueDepth);
+    }
+
+    public Run start(String instituteId, double recipientsPerSecond, int maxInFlight, long chunkTimeoutMs) {
+        return new Run(instituteId, recipientsPerSecond, Math.max(1, maxInFlight), chunkTimeoutMs);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        delayScheduler.shutdownNow();
+    }
+
+    /** Hands a send to the dispatch pool; if the pool is full, tries again shortly from the delay scheduler. */
+    private void dispatch(FutureTask<Void> send, CompletableFuture<Void> sent) {
+        if (send.isCancelled()) {
+            return;
+        }
+        try {
+            dispatchExecutor.execute(send);
+        } catch (RejectedExecutionException full) {
+            try {
+                delayScheduler.schedule(() -> dispatch(send, sent), REJECTED_RETRY_MS, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException shuttingDown) {
+                send.cancel(false);
+                sent.completeExceptionally(shuttingDown);
+            }
+        }
+    }
+
+    /** One SEND_EMAIL node execution. Not thread-safe for submitters: one rendering thread per run. */
+    public final class Run {
+        private final String instituteId;
+        private final double recipientsPerSecond;
+        private final long chunkTimeoutMs;
+        private final Semaphore inFlight;
+        private final List<CompletableFuture<Void>> pending = new ArrayList<>();
+        /** System.nanoTime() by which every chunk submitted so far has sent or been cancelled. */
+        private long lastDeadlineNanos = System.nanoTime();
+
+        private Run(String instituteId, double recipientsPerSecond, int maxInFlight, long chunkTimeoutMs) {
+            this.instituteId = instituteId;
+            this.recipientsPerSecond = recipientsPerSecond;
+            this.chunkTimeoutMs = chunkTimeoutMs;
+            this.inFlight = new Semaphore(maxInFlight);
+        }
+
+        public void recordRendered(int requests) {
+            renderedCounter.increment(requests);
+        }
+
+        /**
+         * Queues one chunk send. Blocks while {@code maxInFlight} chunks of this run are
+         * outstanding, and fails the chunk with a {@link TimeoutException} if none frees in time.
+         * {@code onFailure} runs on a dispatch thread or the caller and must be thread-safe.
+         */
+        public void submit(String description, int recipients, Runnable send, Consumer<Throwable> onFailure)
+                throws InterruptedException {
+            if (!acquireSlot()) {
+                log.warn("No send slot freed {}ms past the last chunk's deadline — earlier sends are hung. Failing {}.",
+                        chunkTimeoutMs, description);
+                failedCounter.increment(recipients);
+                onFailure.accept(new TimeoutException("No in-flight slot freed within " + chunkTimeoutMs
+                        + "ms past the last chunk's deadline"));
+                return;
+            }
+            queueDepth.incrementAndGet();
+
+            long delayNanos = recipientsPerSecond > 0
+                    ? tokenBucket.reserve(instituteId, recipients, recipientsPerSecond)
+                    : 0L;
+            if (chunkTimeoutMs > 0) {
+                lastDeadlineNanos = Math.max(lastDeadlineNanos,
+                        System.nanoTime() + delayNanos + TimeUnit.MILLISECONDS.toNanos(chunkTimeoutMs));
+            }
+
+            // The slot is freed exactly once: by the send when it returns, or by the timeout if
+            // the send never started. A running send that times out keeps its slot until the
+            // interrupt actually gets it to return.
+            AtomicInteger state = new AtomicInteger(QUEUED);
+            CompletableFuture<Void> sent = new CompletableFuture<>();
+            FutureTask<Void> task = new FutureTask<>(() -> {
+                if (!state.compareAndSet(QUEUED, RUNNING)) {
+                    return;
+                }
+                try {
+                    chunkTimer.record(send);
+                    sent.complete(null);
+                } catch (Throwable t) {
+                    sent.completeExceptionally(t);
+                } finally {
+                    state.set(DONE);
+                    releaseSlot();
+                }
+            }, null);
+            if (delayNanos > 0) {
+                delayScheduler.schedule(() -> dispatch(task, sent), delayNanos, TimeUnit.NANOSECONDS);
+            } else {
+                dispatch(task, sent);
+            }
+
+            CompletableFuture<Void> guarded = chunkTimeoutMs > 0
+                    ? sent.orTimeout(TimeUnit.NANOSECONDS.toMillis(delayNanos) + chunkTimeoutMs, TimeUnit.MILLISECONDS)
+                    : sent;
+            pending.add(guarded.handle((ok, error) -> {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                if (cause == null) {
+                    dispatchedCounter.increment(recipients);
+                } else if (cause instanceof TimeoutException) {
+                    log.warn("Send timed out after {}ms — {}. Cancelling it and continuing with remaining chunks.",
+                            chunkTimeoutMs, description);
+                    task.cancel(true);
+                } else {
+                    failedCounter.increment(recipients);
+                    onFailure.accept(cause);
+                }
+                // Never started (timed out while queued, or refused at shutdown): nothing else will free it.
+                if (state.compareAndSet(QUEUED, DONE)) {
+                    task.cancel(false);
+                    releaseSlot();
+                }
+                return null;
+            }));
+        }
+
+        /**
+         * Waits for an in-flight slot. Every outstanding send is cancelled by
+         * {@code lastDeadlineNanos}; one more {@code chunkTimeoutMs} allows for the interrupt to
+         * get it to return. Without a chunk timeout sends are never cancelled, so this waits as
+         * long as they run.
+         */
+        private boolean acquireSlot() throws InterruptedException {
+            if (chunkTimeoutMs <= 0) {
+                inFlight.acquire();
+                return true;
+            }
+            long waitNanos = Math.max(0L, lastDeadlineNanos - System.nanoTime())
+                    + TimeUnit.MILLISECONDS.toNanos(chunkTimeoutMs);
+            return inFlight.tryAcquire(waitNanos, TimeUnit.NANOSECONDS);
+        }
+
+        private void releaseSlot() {
+            queueDepth.decrementAndGet();
+            inFlight.release();
+        }
+
+        /** Waits until every submitted chunk has been sent, failed or timed out (timed-out sends may still be unwinding). */
+        public void awaitCompletion() {
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).join();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package vacademy.io.admin_core_service.features.workflow.engine.email;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-institute token bucket for outbound email recipients. Replaces the fixed
+ * {@code Thread.sleep(throttleMs)} between chunks: callers {@link #reserve} the recipients they
+ * are about to send and get back how long to wait before sending, then schedule the send for
+ * that moment instead of parking a thread.
+ *
+ * <p>Reservations may run the bucket negative (like Guava's RateLimiter), so a reservation is
+ * never refused — it is just pushed further into the future. Buckets are shared by every
+ * workflow run of an institute, so two concurrent SEND_EMAIL nodes split the rate rather than
+ * doubling it.
+ */
+class InstituteTokenBucket {
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Reserves {@code permits} tokens from the institute's bucket.
+     *
+     * @param permitsPerSecond refill rate; also the burst capacity (one second's worth)
+     * @return nanoseconds to wait before the reserved permits may be used (0 = now)
+     */
+    long reserve(String instituteId, int permits, double permitsPerSecond) {
+        Bucket bucket = buckets.computeIfAbsent(instituteId, k -> new Bucket());
+        return bucket.reserve(permits, permitsPerSecond, System.nanoTime());
+    }
+
+    private static final class Bucket {
+        private double tokens = Double.NaN;
+        private long lastRefillNanos;
+
+        synchronized long reserve(int permits, double permitsPerSecond, long now) {
+            double capacity = Math.max(permitsPerSecond, 1.0);
+            if (Double.isNaN(tokens)) {
+                tokens = capacity;
+            } else {
+                double refill = (now - lastRefillNanos) * permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+                tokens = Math.min(capacity, tokens + refill);
+            }
+            lastRefillNanos = now;
+            tokens -= permits;
+            if (tokens >= 0) {
+                return 0L;
+            }
+            return (long) (-tokens / permitsPerSecond * TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package vacademy.io.admin_core_service.features.workflow.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Builder;
+import lombok.Value;
+import vacademy.io.admin_core_service.features.workflow.entity.NodeTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, pre-assembled view of a workflow graph as {@link WorkflowEngineService#run} needs it:
+ * every node's effective config (template merged with the mapping override), its parsed routing
+ * array and retry settings, plus the start node. Built once by {@link CompiledWorkflowCache} and
+ * shared by every run of the workflow until a builder save evicts it.
+ *
+ * <p>{@code version} is a process-wide build counter — two runs that log the same version
+ * executed the exact same graph.
+ *
+ * <p>The JsonNode / entity instances held here are shared across concurrent runs and must be
+ * treated as read-only.
+ */
+@Value
+@Builder
+public class CompiledWorkflow {
+
+    String workflowId;
+    String instituteId;
+    String instituteName;
+    long version;
+
+    /** Node template id of the start node (first mapping when none is flagged); null if no nodes. */
+    String startNodeId;
+
+    /** Keyed by node template id (the id routing targets refer to). */
+    Map<String, CompiledNode> nodesById;
+
+    /** Every ACTIVE node template of the institute, as handlers have always received it. */
+    Map<String, NodeTemplate> templateById;
+
+    public boolean isEmpty() {
+        return nodesById.isEmpty();
+    }
+
+    public CompiledNode node(String nodeId) {
+        return nodesById.get(nodeId);
+    }
+
+    public boolean hasNode(String nodeId) {
+        return nodesById.containsKey(nodeId);
+    }
+
+    @Value
+    @Builder
+    public static class CompiledNode {
+        String nodeId;
+        String mappingId;
+        Integer nodeOrder;
+
+        /** Null when the mapping points at a template that is missing or not ACTIVE. */
+        String nodeType;
+        String effectiveConfig;
+
+        /** The config's {@code routing} array, or an empty list when absent / not an array. */
+        List<JsonNode> routes;
+
+        int maxRetries;
+        long backoffMs;
+        double backoffMultiplier;
+
+        public boolean hasTemplate() {
+            return nodeType != null;
+        }
+    }
+}
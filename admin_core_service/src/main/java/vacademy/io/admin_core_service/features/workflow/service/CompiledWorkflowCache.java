@@ -0,0 +1,234 @@
+package vacademy.io.admin_core_service.features.workflow.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import vacademy.io.admin_core_service.features.institute.repository.InstituteRepository;
+import vacademy.io.admin_core_service.features.workflow.entity.NodeTemplate;
+import vacademy.io.admin_core_service.features.workflow.entity.Workflow;
+import vacademy.io.admin_core_service.features.workflow.entity.WorkflowNodeMapping;
+import vacademy.io.admin_core_service.features.workflow.repository.NodeTemplateRepository;
+import vacademy.io.admin_core_service.features.workflow.repository.WorkflowNodeMappingRepository;
+import vacademy.io.admin_core_service.features.workflow.repository.WorkflowRepository;
+import vacademy.io.common.institute.entity.Institute;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-workflow cache of {@link CompiledWorkflow}. Scheduled and trigger-driven runs fire the same
+ * workflow thousands of times a day; without this every run reloaded the workflow, its mappings,
+ * every ACTIVE template of the institute and the institute name, then re-merged and re-parsed each
+ * node's config.
+ *
+ * <p>Invalidation: {@link WorkflowBuilderService} calls {@link #evictAfterCommit} on every save.
+ * The eviction is deferred to after commit so a run racing the save can't re-cache the pre-save
+ * graph. The TTL only bounds staleness on other replicas, whose caches this replica can't reach.
+ */
+@Slf4j
+@Component
+public class CompiledWorkflowCache {
+
+    private final WorkflowRepository workflowRepository;
+    private final WorkflowNodeMappingRepository mappingRepository;
+    private final NodeTemplateRepository nodeTemplateRepository;
+    private final InstituteRepository instituteRepository;
+    private final ObjectMapper objectMapper;
+
+    private final Cache<String, CompiledWorkflow> byWorkflowId;
+    private final AtomicLong versionSeq = new AtomicLong();
+
+    public CompiledWorkflowCache(WorkflowRepository workflowRepository,
+                                 WorkflowNodeMappingRepository mappingRepository,
+                                 NodeTemplateRepository nodeTemplateRepository,
+                                 InstituteRepository instituteRepository,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${workflow.compiled-cache.max-size:500}") long maxSize,
+                                 @Value("${workflow.compiled-cache.ttl-minutes:10}") long ttlMinutes) {
+        this.workflowRepository = workflowRepository;
+        this.mappingRepository = mappingRepository;
+        this.nodeTemplateRepository = nodeTemplateRepository;
+        this.instituteRepository = instituteRepository;
+        this.objectMapper = objectMapper;
+        this.byWorkflowId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byWorkflowId, "workflow.compiled");
+    }
+
+    /**
+     * Returns the compiled graph, building it on a miss.
+     *
+     * @throws java.util.NoSuchElementException if the workflow does not exist (never cached)
+     */
+    public CompiledWorkflow get(String workflowId) {
+        return byWorkflowId.get(workflowId, this::compile);
+    }
+
+    public void evict(String workflowId) {
+        byWorkflowId.invalidate(workflowId);
+    }
+
+    /**
+     * Evicts the workflow and every other cached workflow of the same institute (handlers receive
+     * the institute-wide template map, so a template change is visible beyond its own workflow).
+     * Runs after the surrounding transaction commits, or immediately when there is none.
+     */
+    public void evictAfterCommit(String workflowId, String instituteId) {
+        Runnable task = () -> {
+            byWorkflowId.invalidate(workflowId);
+            if (instituteId != null) {
+                byWorkflowId.asMap().values().removeIf(c -> instituteId.equals(c.getInstituteId()));
+            }
+            log.debug("Evicted compiled workflow {} (institute {})", workflowId, instituteId);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    private CompiledWorkflow compile(String workflowId) {
+        Workflow wf = workflowRepository.findById(workflowId).orElseThrow();
+        List<WorkflowNodeMapping> mappings = mappingRepository.findByWorkflowIdOrderByNodeOrderAsc(workflowId);
+
+        Map<String, NodeTemplate> templateById = new HashMap<>();
+        nodeTemplateRepository.findByInstituteIdAndStatus(wf.getInstituteId(), "ACTIVE")
+                .forEach(t -> templateById.put(t.getId(), t));
+
+        // Resolve the institute name so SEND_EMAIL templates can use {{instituteName}} without each
+        // trigger source having to populate it. Silently no-ops if the institute can't be resolved —
+        // handlers that need it must branch on null.
+        String instituteName = null;
+        try {
+            instituteName = instituteRepository.findById(wf.getInstituteId())
+                    .map(Institute::getInstituteName)
+                    .orElse(null);
+        } catch (Exception e) {
+            log.warn("Could not resolve instituteName for instituteId={}: {}",
+                    wf.getInstituteId(), e.getMessage());
+        }
+
+        Map<String, CompiledWorkflow.CompiledNode> nodesById = new LinkedHashMap<>();
+        for (WorkflowNodeMapping mapping : mappings) {
+            nodesById.put(mapping.getNodeTemplateId(), compileNode(mapping, templateById.get(mapping.getNodeTemplateId())));
+        }
+
+        String startNodeId = mappings.stream()
+                .filter(m -> Boolean.TRUE.equals(m.getIsStartNode()))
+                .findFirst()
+                .or(() -> mappings.stream().findFirst()) // Fallback to first node if no start node defined
+                .map(WorkflowNodeMapping::getNodeTemplateId)
+                .orElse(null);
+
+        long version = versionSeq.incrementAndGet();
+        log.info("Compiled workflow {} v{}: {} nodes, start node {}, routable node ids {}",
+                workflowId, version, nodesById.size(), startNodeId, nodesById.keySet());
+
+        return CompiledWorkflow.builder()
+                .workflowId(workflowId)
+                .instituteId(wf.getInstituteId())
+                .instituteName(instituteName)
+                .version(version)
+                .startNodeId(startNodeId)
+                .nodesById(Collections.unmodifiableMap(nodesById))
+                .templateById(Collections.unmodifiableMap(templateById))
+                .build();
+    }
+
+    private CompiledWorkflow.CompiledNode compileNode(WorkflowNodeMapping mapping, NodeTemplate tmpl) {
+        CompiledWorkflow.CompiledNode.CompiledNodeBuilder node = CompiledWorkflow.CompiledNode.builder()
+                .nodeId(mapping.getNodeTemplateId())
+                .mappingId(mapping.getId())
+                .nodeOrder(mapping.getNodeOrder())
+                .routes(List.of())
+                .backoffMs(1000)
+                .backoffMultiplier(2.0);
+        if (tmpl == null) {
+            return node.build();
+        }
+
+        String effectiveConfig = mergeConfig(tmpl.getConfigJson(), mapping.getOverrideConfig());
+        node.nodeType(tmpl.getNodeType()).effectiveConfig(effectiveConfig);
+
+        try {
+            JsonNode routing = objectMapper.readTree(effectiveConfig).path("routing");
+            if (routing.isArray()) {
+                List<JsonNode> routes = new ArrayList<>(routing.size());
+                routing.forEach(routes::add);
+                node.routes(Collections.unmodifiableList(routes));
+            }
+        } catch (Exception e) {
+            log.error("Error parsing routing for node {} — node will have no outgoing routes", mapping.getId(), e);
+        }
+
+        if (tmpl.getRetryConfig() != null && !tmpl.getRetryConfig().isBlank()) {
+            try {
+                JsonNode retryJson = objectMapper.readTree(tmpl.getRetryConfig());
+                node.maxRetries(retryJson.path("maxRetries").asInt(0))
+                        .backoffMs(retryJson.path("backoffMs").asLong(1000))
+                        .backoffMultiplier(retryJson.path("backoffMultiplier").asDouble(2.0));
+            } catch (Exception e) {
+                log.warn("Failed to parse retry config for node: {}", mapping.getId());
+            }
+        }
+        return node.build();
+    }
+
+    private String mergeConfig(String baseJson, String overrideJson) {
+        try {
+            if (overrideJson == null || overrideJson.isBlank()) {
+                return baseJson;
+            }
+            JsonNode base = objectMapper.readTree(baseJson);
+            JsonNode over = objectMapper.readTree(overrideJson);
+            JsonNode merged = deepMerge(base, over);
+            return objectMapper.writeValueAsString(merged);
+        } catch (Exception e) {
+            log.error("Error merging configs", e);
+            return baseJson;
+        }
+    }
+
+    private JsonNode deepMerge(JsonNode base, JsonNode over) {
+        if (base.isObject() && over.isObject()) {
+            Iterator<String> it = over.fieldNames();
+            while (it.hasNext()) {
+                String f = it.next();
+                JsonNode bv = base.get(f);
+                JsonNode ov = over.get(f);
+                if (bv != null && bv.isObject() && ov.isObject()) {
+                    deepMerge(bv, ov);
+                } else if (base instanceof ObjectNode on) {
+                    on.set(f, ov);
+                }
+            }
+        }
+        return base;
+    }
+}
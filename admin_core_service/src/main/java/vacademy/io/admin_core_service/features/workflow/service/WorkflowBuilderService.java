@@ -38,6 +38,7 @@ public class WorkflowBuilderService {
     private final WorkflowTriggerRepository triggerRepository;
     private final WorkflowValidationService validationService;
     private final WorkflowScheduleService workflowScheduleService;
+    private final CompiledWorkflowCache compiledWorkflowCache;
     private final ObjectMapper objectMapper;
     private final vacademy.io.admin_core_service.features.workflow.service.idempotency.IdempotencyStrategyFactory idempotencyStrategyFactory;
 
@@ -123,6 +124,9 @@ public class WorkflowBuilderService {
         // Create trigger(s) if applicable (fresh create — no webhook slugs to preserve)
         persistTriggers(workflowId, dto, Collections.emptyMap());
 
+        // New templates join the institute-wide template map every run receives.
+        compiledWorkflowCache.evictAfterCommit(workflowId, dto.getInstituteId());
+
         // Build response
         dto.setId(workflowId);
         // Remap node IDs to DB IDs
@@ -285,6 +289,8 @@ public class WorkflowBuilderService {
             persistTriggers(workflowId, dto, webhookByEventId);
         }
 
+        compiledWorkflowCache.evictAfterCommit(workflowId, workflow.getInstituteId());
+
         // Build response with (possibly remapped) node ids.
         dto.setId(workflowId);
         for (WorkflowBuilderDTO.NodeDTO node : dto.getNodes()) {
@@ -605,6 +611,7 @@ public class WorkflowBuilderService {
                     triggerRepository.save(t);
                 });
 
+        compiledWorkflowCache.evictAfterCommit(workflowId, workflow.getInstituteId());
         log.info("Soft-deleted workflow: {}", workflowId);
     }
 
@@ -802,8 +809,8 @@ public class WorkflowBuilderService {
      * lives inside {@code config_json}, so editing the JSON is how complex branching gets tuned.
      *
      * <p>Updates the existing {@code node_template} row in place (no version bump) — the running
-     * workflow picks up the new config on its next execution, since the engine reads
-     * {@code NodeTemplate.configJson} at run time.
+     * workflow picks up the new config on its next execution, since the save evicts the
+     * workflow's {@link CompiledWorkflow} once the transaction commits.
      */
     @Transactional
     public WorkflowRawDTO.RawNodeDTO updateNodeTemplate(String workflowId, String nodeTemplateId,
@@ -891,6 +898,7 @@ public class WorkflowBuilderService {
             mappingRepository.save(mapping);
         }
 
+        compiledWorkflowCache.evictAfterCommit(workflowId, template.getInstituteId());
         log.info("Updated node template {} of workflow {}", nodeTemplateId, workflowId);
 
         return WorkflowRawDTO.RawNodeDTO.builder()
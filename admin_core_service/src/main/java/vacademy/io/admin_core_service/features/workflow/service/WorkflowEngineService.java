@@ -1,21 +1,12 @@
 package vacademy.io.admin_core_service.features.workflow.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import vacademy.io.admin_core_service.features.institute.repository.InstituteRepository;
 import vacademy.io.admin_core_service.features.workflow.engine.NodeHandler;
 import vacademy.io.admin_core_service.features.workflow.engine.NodeHandlerRegistry;
-import vacademy.io.admin_core_service.features.workflow.entity.NodeTemplate;
-import vacademy.io.admin_core_service.features.workflow.entity.Workflow;
-import vacademy.io.admin_core_service.features.workflow.entity.WorkflowNodeMapping;
-import vacademy.io.admin_core_service.features.workflow.repository.NodeTemplateRepository;
-import vacademy.io.admin_core_service.features.workflow.repository.WorkflowNodeMappingRepository;
-import vacademy.io.admin_core_service.features.workflow.repository.WorkflowRepository;
 import vacademy.io.admin_core_service.features.workflow.spel.SpelEvaluator;
-import vacademy.io.common.institute.entity.Institute;
 import vacademy.io.common.logging.SentryLogger;
 
 import java.util.*;
@@ -25,13 +16,9 @@ import java.util.*;
 @RequiredArgsConstructor
 public class WorkflowEngineService {
 
-    private final WorkflowRepository workflowRepository;
-    private final WorkflowNodeMappingRepository mappingRepository;
-    private final NodeTemplateRepository nodeTemplateRepository;
+    private final CompiledWorkflowCache compiledWorkflowCache;
     private final NodeHandlerRegistry nodeHandlerRegistry;
     private final SpelEvaluator spelEvaluator;
-    private final ObjectMapper objectMapper;
-    private final InstituteRepository instituteRepository;
 
     // Context key under which the engine mirrors the set of notification nodes (SEND_EMAIL /
     // SEND_WHATSAPP) already executed in this logical run. It is persisted as part of the
@@ -48,20 +35,17 @@ public class WorkflowEngineService {
                 log.info("========== DRY RUN MODE ========== Workflow: {}", workflowId);
             }
 
-            Workflow wf = workflowRepository.findById(workflowId).orElseThrow();
-            List<WorkflowNodeMapping> mappings = mappingRepository.findByWorkflowIdOrderByNodeOrderAsc(workflowId);
+            // Graph assembly (workflow, mappings, templates, merged configs, routing) is cached
+            // per workflow and evicted on builder saves — a run only pays for execution.
+            CompiledWorkflow wf = compiledWorkflowCache.get(workflowId);
 
-            if (mappings.isEmpty()) {
+            if (wf.isEmpty()) {
                 log.warn("No node mappings found for workflow: {}", workflowId);
                 SentryLogger.logWarning("Workflow has no node mappings — nothing will be sent",
                         Map.of("workflow.id", workflowId, "layer", "2-workflow-engine"));
                 return seedContext != null ? seedContext : new HashMap<>();
             }
 
-            Map<String, NodeTemplate> templateById = new HashMap<>();
-            nodeTemplateRepository.findByInstituteIdAndStatus(wf.getInstituteId(), "ACTIVE")
-                    .forEach(t -> templateById.put(t.getId(), t));
-
             Map<String, Object> ctx = new HashMap<>();
             if (seedContext != null) {
                 ctx.putAll(seedContext);
@@ -69,17 +53,11 @@ public class WorkflowEngineService {
             ctx.put("workflowId", workflowId);
             ctx.put("instituteId", wf.getInstituteId());
 
-            // Resolve and inject the institute name so SEND_EMAIL templates can use
-            // {{instituteName}} without each trigger source having to populate it.
-            // Lookup is once per workflow run (cheap) and silently no-ops if the
-            // institute can't be resolved — handlers that need it must branch on null.
-            try {
-                instituteRepository.findById(wf.getInstituteId())
-                        .map(Institute::getInstituteName)
-                        .ifPresent(name -> ctx.put("instituteName", name));
-            } catch (Exception e) {
-                log.warn("Could not resolve instituteName for instituteId={}: {}",
-                        wf.getInstituteId(), e.getMessage());
+            // Inject the institute name so SEND_EMAIL templates can use {{instituteName}}
+            // without each trigger source having to populate it. Resolved at compile time;
+            // absent when the institute couldn't be resolved — handlers must branch on null.
+            if (wf.getInstituteName() != null) {
+                ctx.put("instituteName", wf.getInstituteName());
             }
 
             // Propagate dryRun flag into context so all handlers can read it
@@ -87,23 +65,8 @@ public class WorkflowEngineService {
                 ctx.put("dryRun", true);
             }
 
-            // Index by node ID for routing convenience
-            Map<String, WorkflowNodeMapping> byNodeId = new HashMap<>();
-            mappings.forEach(m -> byNodeId.put(m.getNodeTemplateId(), m));
-
-            log.info("=== WORKFLOW NODE MAPPINGS ===");
-            for (WorkflowNodeMapping mapping : mappings) {
-                log.info("Node ID: {}, Template ID: {}, Order: {}, Is Start: {}",
-                        mapping.getId(), mapping.getNodeTemplateId(), mapping.getNodeOrder(), mapping.getIsStartNode());
-            }
-            log.info("Available node IDs for routing: {}", byNodeId.keySet());
-            log.info("=== END WORKFLOW NODE MAPPINGS ===");
-
-            // Find start node
-            WorkflowNodeMapping startNode = mappings.stream()
-                    .filter(WorkflowNodeMapping::getIsStartNode)
-                    .findFirst()
-                    .orElse(mappings.get(0)); // Fallback to first node if no start node defined
+            log.info("Running workflow {} (compiled v{}, {} nodes)", workflowId, wf.getVersion(),
+                    wf.getNodesById().size());
 
             // Use Stack for routing calculation instead of relying on node order
             Stack<String> nodeExecutionStack = new Stack<>();
@@ -147,7 +110,7 @@ public class WorkflowEngineService {
             ctx.put(EXECUTED_NOTIFICATION_NODES_KEY, new ArrayList<>(executedNotificationNodes));
 
             // Push the entry node: resumed node on resume, else the start node.
-            String entryNodeId = isResume ? resumedAtNode : startNode.getNodeTemplateId();
+            String entryNodeId = isResume ? resumedAtNode : wf.getStartNodeId();
             nodeExecutionStack.push(entryNodeId);
             log.info("Starting workflow execution with entry node: {} (resume={})", entryNodeId, isResume);
 
@@ -166,7 +129,7 @@ public class WorkflowEngineService {
 
                 nodeVisitCount.put(currentNodeId, visits + 1);
 
-                WorkflowNodeMapping current = byNodeId.get(currentNodeId);
+                CompiledWorkflow.CompiledNode current = wf.node(currentNodeId);
                 if (current == null) {
                     log.error("Node mapping not found for node ID: {}", currentNodeId);
                     SentryLogger.logError(new IllegalStateException("Node mapping not found"),
@@ -175,20 +138,19 @@ public class WorkflowEngineService {
                     continue;
                 }
 
-                log.info("Processing node: {} (order: {})", current.getId(), current.getNodeOrder());
+                log.info("Processing node: {} (order: {})", current.getMappingId(), current.getNodeOrder());
 
-                NodeTemplate tmpl = templateById.get(current.getNodeTemplateId());
-                if (tmpl == null) {
-                    log.error("Node template not found for mapping: {}", current.getId());
+                if (!current.hasTemplate()) {
+                    log.error("Node template not found for mapping: {}", current.getMappingId());
                     SentryLogger.logError(new IllegalStateException("Node template not found"),
                             "Node template missing — node will be skipped",
-                            Map.of("workflow.id", workflowId, "mapping.id", current.getId(),
-                                    "node.template.id", current.getNodeTemplateId(), "layer", "2-workflow-engine"));
+                            Map.of("workflow.id", workflowId, "mapping.id", current.getMappingId(),
+                                    "node.template.id", current.getNodeId(), "layer", "2-workflow-engine"));
                     continue;
                 }
 
-                String effectiveConfig = mergeConfig(tmpl.getConfigJson(), current.getOverrideConfig());
-                String nodeType = tmpl.getNodeType();
+                String effectiveConfig = current.getEffectiveConfig();
+                String nodeType = current.getNodeType();
                 log.info("Node type: {}, effective config: {}", nodeType, effectiveConfig);
 
                 // Prevent duplicate notification sends in diamond DAG patterns:
@@ -216,22 +178,12 @@ public class WorkflowEngineService {
                 NodeHandler handler = nodeHandlerRegistry.getHandler(nodeType);
                 if (handler != null) {
                     log.info("Executing handler: {} for node: {}", handler.getClass().getSimpleName(),
-                            current.getId());
+                            current.getMappingId());
 
-                    // Parse retry config
-                    int maxRetries = 0;
-                    long backoffMs = 1000;
-                    double backoffMultiplier = 2.0;
-                    if (tmpl.getRetryConfig() != null && !tmpl.getRetryConfig().isBlank()) {
-                        try {
-                            JsonNode retryJson = objectMapper.readTree(tmpl.getRetryConfig());
-                            maxRetries = retryJson.path("maxRetries").asInt(0);
-                            backoffMs = retryJson.path("backoffMs").asLong(1000);
-                            backoffMultiplier = retryJson.path("backoffMultiplier").asDouble(2.0);
-                        } catch (Exception e) {
-                            log.warn("Failed to parse retry config for node: {}", current.getId());
-                        }
-                    }
+                    // Retry config (parsed at compile time)
+                    int maxRetries = current.getMaxRetries();
+                    long backoffMs = current.getBackoffMs();
+                    double backoffMultiplier = current.getBackoffMultiplier();
 
                     // Execute with retry
                     Exception lastError = null;
@@ -240,7 +192,7 @@ public class WorkflowEngineService {
                         try {
                             if (attempt > 0) {
                                 long sleepMs = (long)(backoffMs * Math.pow(backoffMultiplier, attempt - 1));
-                                log.info("Retry attempt {} for node {} (waiting {}ms)", attempt, current.getId(), sleepMs);
+                                log.info("Retry attempt {} for node {} (waiting {}ms)", attempt, current.getMappingId(), sleepMs);
                                 Thread.sleep(sleepMs);
                             }
                             ctx.put("currentNodeId", currentNodeId);
@@ -252,14 +204,14 @@ public class WorkflowEngineService {
                             if (skipDelayThisNode) {
                                 ctx.put("__skip_delay_once", true);
                             }
-                            Map<String, Object> changes = handler.handle(ctx, effectiveConfig, templateById, guard);
+                            Map<String, Object> changes = handler.handle(ctx, effectiveConfig, wf.getTemplateById(), guard);
                             lastChanges = changes;
                             if (skipDelayThisNode) {
                                 ctx.remove("__skip_delay_once");
                             }
                             if (changes != null && !changes.isEmpty()) {
                                 ctx.putAll(changes);
-                                log.info("Node {} updated context with: {}", current.getId(), changes.keySet());
+                                log.info("Node {} updated context with: {}", current.getMappingId(), changes.keySet());
 
                                 // Check if workflow was paused (e.g., by DELAY node for long waits)
                                 if (Boolean.TRUE.equals(changes.get("__workflow_paused"))) {
@@ -271,13 +223,13 @@ public class WorkflowEngineService {
                             break; // Success
                         } catch (Exception e) {
                             lastError = e;
-                            log.warn("Node {} attempt {} failed: {}", current.getId(), attempt + 1, e.getMessage());
+                            log.warn("Node {} attempt {} failed: {}", current.getMappingId(), attempt + 1, e.getMessage());
                         }
                     }
                     if (lastError != null) {
-                        log.error("Node {} failed after {} retries", current.getId(), maxRetries + 1, lastError);
+                        log.error("Node {} failed after {} retries", current.getMappingId(), maxRetries + 1, lastError);
                         SentryLogger.logError(lastError, "Workflow node failed after all retries",
-                                Map.of("workflow.id", workflowId, "node.id", current.getId(),
+                                Map.of("workflow.id", workflowId, "node.id", current.getMappingId(),
                                         "node.type", nodeType, "retries", String.valueOf(maxRetries),
                                         "layer", "2-workflow-engine"));
                     }
@@ -296,16 +248,16 @@ public class WorkflowEngineService {
                 } else {
                     log.warn("No handler found for node type: {}", nodeType);
                     SentryLogger.logWarning("No handler registered for workflow node type",
-                            Map.of("workflow.id", workflowId, "node.id", current.getId(),
+                            Map.of("workflow.id", workflowId, "node.id", current.getMappingId(),
                                     "node.type", nodeType, "layer", "2-workflow-engine"));
                 }
 
                 // Evaluate routing to find next nodes and push them to stack
-                List<String> nextNodeIds = evaluateRoutingNextNodeIds(effectiveConfig, ctx);
-                log.info("Routing evaluation for node {} returned: {}", current.getId(), nextNodeIds);
+                List<String> nextNodeIds = evaluateRoutingNextNodeIds(current.getRoutes(), ctx);
+                log.info("Routing evaluation for node {} returned: {}", current.getMappingId(), nextNodeIds);
 
                 if (nextNodeIds == null || nextNodeIds.isEmpty()) {
-                    log.info("Path execution completed at node: {}", current.getId());
+                    log.info("Path execution completed at node: {}", current.getMappingId());
                     // =================== FIX START ===================
                     // This was the bug. A 'break' here would terminate the entire workflow
                     // if one parallel branch ended, even if other branches were still on the stack.
@@ -321,16 +273,16 @@ public class WorkflowEngineService {
                     String nextNodeId = nextNodeIds.get(i);
                     if (nextNodeId != null && !"end".equalsIgnoreCase(nextNodeId)) {
                         // Check if the next node exists in the workflow
-                        if (byNodeId.containsKey(nextNodeId)) {
+                        if (wf.hasNode(nextNodeId)) {
                             nodeExecutionStack.push(nextNodeId);
                             log.info("Pushed next node {} to execution stack (route {})", nextNodeId, i);
                         } else {
                             log.error("Next node {} not found in workflow! Available nodes: {}", nextNodeId,
-                                    byNodeId.keySet());
+                                    wf.getNodesById().keySet());
                             SentryLogger.logError(new IllegalStateException("Routing target node not found"),
                                     "Workflow routing points to non-existent node — branch will be dropped",
                                     Map.of("workflow.id", workflowId, "missing.node.id", nextNodeId,
-                                            "current.node.id", current.getId(), "layer", "2-workflow-engine"));
+                                            "current.node.id", current.getMappingId(), "layer", "2-workflow-engine"));
                         }
                     }
                 }
@@ -358,51 +310,14 @@ public class WorkflowEngineService {
         }
     }
 
-    private String mergeConfig(String baseJson, String overrideJson) {
-        try {
-            if (overrideJson == null || overrideJson.isBlank()) {
-                return baseJson;
-            }
-            JsonNode base = objectMapper.readTree(baseJson);
-            JsonNode over = objectMapper.readTree(overrideJson);
-            JsonNode merged = deepMerge(base, over);
-            return objectMapper.writeValueAsString(merged);
-        } catch (Exception e) {
-            log.error("Error merging configs", e);
-            return baseJson;
-        }
-    }
-
-    private JsonNode deepMerge(JsonNode base, JsonNode over) {
-        if (base.isObject() && over.isObject()) {
-            Iterator<String> it = over.fieldNames();
-            while (it.hasNext()) {
-                String f = it.next();
-                JsonNode bv = base.get(f);
-                JsonNode ov = over.get(f);
-                if (bv != null && bv.isObject() && ov.isObject()) {
-                    deepMerge(bv, ov);
-                } else if (base instanceof com.fasterxml.jackson.databind.node.ObjectNode on) {
-                    on.set(f, ov);
-                }
-            }
-        }
-        return base;
-    }
-
-    private List<String> evaluateRoutingNextNodeIds(String configJson, Map<String, Object> ctx) {
+    private List<String> evaluateRoutingNextNodeIds(List<JsonNode> routing, Map<String, Object> ctx) {
         try {
-            JsonNode root = objectMapper.readTree(configJson);
-            JsonNode routing = root.path("routing");
-
             log.info("=== ROUTING EVALUATION START ===");
-            log.info("Evaluating routing for config: {}", configJson);
-            log.info("Routing node: {}", routing);
+            log.info("Routing: {}", routing);
             log.info("Context keys: {}", ctx.keySet());
 
-            if (routing.isMissingNode() || !routing.isArray()) {
-                log.info("No routing found or routing is not an array - routing.isMissingNode: {}, routing.isArray: {}",
-                        routing.isMissingNode(), routing.isArray());
+            if (routing.isEmpty()) {
+                log.info("No routing found or routing is not an array");
                 return Collections.emptyList();
             }
 
@@ -1,12 +1,20 @@
 package vacademy.io.admin_core_service.features.workflow.spel;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.expression.MapAccessor;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.TypeLocator;
+import org.springframework.expression.spel.SpelCompilerMode;
 import org.springframework.expression.spel.SpelEvaluationException;
 import org.springframework.expression.spel.SpelParseException;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.expression.spel.support.StandardTypeLocator;
@@ -18,6 +26,18 @@ import java.util.Set;
 /**
  * SpEL (Spring Expression Language) evaluator with enhanced error tracking.
  * Tracks evaluation failures for workflow execution logging.
+ *
+ * <p>LOOP / FILTER / CONDITION / TRANSFORM call this once per item, so the same handful of
+ * expression strings are evaluated thousands of times per run. Parsed expressions are kept in a
+ * bounded cache keyed by the trimmed expression text and parsed with
+ * {@link SpelCompilerMode#MIXED}: hot expressions get compiled to bytecode after a few
+ * interpreted runs and silently fall back to interpretation if a later context has a different
+ * shape (e.g. a bean before a DELAY, a LinkedHashMap after it). The context-independent parts
+ * of the evaluation context (type locator, property accessors) are built once in a template and
+ * copied into each per-call context.
+ *
+ * <p>Metrics: {@code workflow.spel.expressions} cache gauges (hits / misses / evictions) and the
+ * {@code workflow.spel.evaluation} timer.
  */
 @Slf4j
 @Component
@@ -25,8 +45,38 @@ public class SpelEvaluator {
 
     private final WorkflowDateFunctions dateFunctions;
 
-    public SpelEvaluator(WorkflowDateFunctions dateFunctions) {
+    private final ExpressionParser parser = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED, SpelEvaluator.class.getClassLoader()));
+
+    private final Cache<String, Expression> expressionCache;
+
+    /**
+     * Holds only the shared delegates (type locator, accessors). Never evaluated against and
+     * never given variables — {@link #newContext} copies the delegates into a fresh context.
+     */
+    private final StandardEvaluationContext contextTemplate;
+
+    private final Timer evaluationTimer;
+
+    public SpelEvaluator(WorkflowDateFunctions dateFunctions,
+                         MeterRegistry meterRegistry,
+                         @Value("${workflow.spel.cache.max-size:2000}") long cacheMaxSize) {
         this.dateFunctions = dateFunctions;
+        this.expressionCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .recordStats()
+                .build();
+        this.contextTemplate = new StandardEvaluationContext();
+        this.contextTemplate.setTypeLocator(new SafeTypeLocator());
+        // Dot access on Map values (e.g. #ctx['user'].fullName). Context objects that start
+        // life as beans (UserDTO) come back as LinkedHashMaps after a persisted-DELAY pause
+        // serializes the context to JSONB — without this accessor every dot-style expression
+        // in a node AFTER a multi-day delay would throw EL1008 and drop/abort the run.
+        this.contextTemplate.addPropertyAccessor(new MapAccessor());
+        CaffeineCacheMetrics.monitor(meterRegistry, expressionCache, "workflow.spel.expressions");
+        this.evaluationTimer = Timer.builder("workflow.spel.evaluation")
+                .description("Time spent evaluating a workflow SpEL expression, including parse on cache miss")
+                .register(meterRegistry);
     }
 
     /**
@@ -52,25 +102,13 @@ public class SpelEvaluator {
         }
 
         String exprStr = expressionString.trim();
+        StandardEvaluationContext context = newContext(contextVars, extraVars);
 
-        ExpressionParser parser = new SpelExpressionParser();
-        StandardEvaluationContext context = new StandardEvaluationContext(contextVars);
-        context.setTypeLocator(new SafeTypeLocator());
-        // Dot access on Map values (e.g. #ctx['user'].fullName). Context objects that start
-        // life as beans (UserDTO) come back as LinkedHashMaps after a persisted-DELAY pause
-        // serializes the context to JSONB — without this accessor every dot-style expression
-        // in a node AFTER a multi-day delay would throw EL1008 and drop/abort the run.
-        context.addPropertyAccessor(new MapAccessor());
-        context.setVariable("ctx", contextVars);
-        // Date helpers: #dates.nextWeekday(...) lets any node compute an anchor date from config
-        // using the same strictly-next logic the DELAY node schedules against.
-        context.setVariable("dates", dateFunctions);
-        if (extraVars != null) {
-            extraVars.forEach(context::setVariable);
-        }
-
+        Timer.Sample sample = Timer.start();
         try {
-            Expression expr = parser.parseExpression(exprStr);
+            // Parse failures propagate out of get() and are not cached, so a broken expression
+            // keeps failing loudly instead of being pinned in the cache.
+            Expression expr = expressionCache.get(exprStr, parser::parseExpression);
             Object result = expr.getValue(context);
             log.debug("Successfully evaluated SpEL expression: {}", exprStr);
             return result;
@@ -100,7 +138,23 @@ public class SpelEvaluator {
                     exprStr,
                     contextVars,
                     e);
+        } finally {
+            sample.stop(evaluationTimer);
+        }
+    }
+
+    /** Fresh per-call context: shared delegates from the template, per-call root and variables. */
+    private StandardEvaluationContext newContext(Map<String, Object> contextVars, Map<String, Object> extraVars) {
+        StandardEvaluationContext context = new StandardEvaluationContext(contextVars);
+        contextTemplate.applyDelegatesTo(context);
+        context.setVariable("ctx", contextVars);
+        // Date helpers: #dates.nextWeekday(...) lets any node compute an anchor date from config
+        // using the same strictly-next logic the DELAY node schedules against.
+        context.setVariable("dates", dateFunctions);
+        if (extraVars != null) {
+            extraVars.forEach(context::setVariable);
         }
+        return context;
     }
 
     /**
@@ -0,0 +1,34 @@
+-- Per-(learner, slide) watch coverage for video and audio slides.
+--
+-- PERCENTAGE_VIDEO_WATCHED / PERCENTAGE_AUDIO_LISTENED used to be recomputed on
+-- every heartbeat by reading back every video_tracked / audio_tracked row the
+-- learner ever produced for the slide and re-merging them in memory. A long
+-- lecture accumulates thousands of breadcrumbs per learner, so each heartbeat
+-- got slower the longer the learner watched. This row keeps the already-merged
+-- interval set instead; a heartbeat folds its new intervals into it and reads
+-- the total straight off covered_ms.
+--
+-- segments is the merged, sorted, non-overlapping set of watched ranges in
+-- media milliseconds, encoded "start-end,start-end" (see WatchCoverage). It stays
+-- short: contiguous viewing collapses into a single range however many
+-- breadcrumbs produced it.
+--
+-- Rows are created lazily on a learner's first heartbeat after this migration and
+-- seeded once from the learner's existing breadcrumbs, so no backfill is needed.
+-- video_tracked / audio_tracked remain the source of truth for engaged_ms,
+-- analytics and the batch recompute.
+
+CREATE TABLE IF NOT EXISTS media_watch_coverage (
+    id            VARCHAR(255) PRIMARY KEY,
+    user_id       VARCHAR(255) NOT NULL,
+    slide_id      VARCHAR(255) NOT NULL,
+    -- VIDEO (also HTML_VIDEO, which shares video_tracked) or AUDIO
+    media_type    VARCHAR(20)  NOT NULL,
+    segments      TEXT         NOT NULL DEFAULT '',
+    covered_ms    BIGINT       NOT NULL DEFAULT 0,
+    created_at    TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at    TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_media_watch_coverage_user_slide_type
+    ON media_watch_coverage (user_id, slide_id, media_type);
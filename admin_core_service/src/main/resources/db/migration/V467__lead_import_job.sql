@@ -0,0 +1,32 @@
+-- Bulk lead imports (CSV uploads from fairs and ad campaigns) run as background
+-- jobs. The upload returns this row's id straight away; the import dialog polls
+-- it for progress and reads the per-row report from results once it completes.
+--
+-- Counters are rewritten after every chunk by the single thread running the job,
+-- so any replica can answer a poll. results holds the JSON array of per-row
+-- outcomes (BulkSubmitLeadResultItemDTO / BulkSubmitLeadWithEnquiryResultItemDTO)
+-- and is written once, when the job finishes.
+
+CREATE TABLE IF NOT EXISTS lead_import_job (
+    id              VARCHAR(255) PRIMARY KEY,
+    institute_id    VARCHAR(255),
+    audience_id     VARCHAR(255),
+    -- LEAD or LEAD_WITH_ENQUIRY
+    job_type        VARCHAR(30)  NOT NULL,
+    -- QUEUED, RUNNING, COMPLETED or FAILED
+    status          VARCHAR(20)  NOT NULL,
+    total_rows      INTEGER      NOT NULL DEFAULT 0,
+    processed_rows  INTEGER      NOT NULL DEFAULT 0,
+    successful      INTEGER      NOT NULL DEFAULT 0,
+    failed          INTEGER      NOT NULL DEFAULT 0,
+    skipped         INTEGER      NOT NULL DEFAULT 0,
+    results         TEXT,
+    error_message   TEXT,
+    created_by      VARCHAR(255),
+    created_at      TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at      TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    completed_at    TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_lead_import_job_audience_created
+    ON lead_import_job (audience_id, created_at DESC);
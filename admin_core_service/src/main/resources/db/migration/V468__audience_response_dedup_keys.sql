@@ -0,0 +1,80 @@
+-- Maintained dedup keys on audience_response (LEAD_SETTING.data.dedup).
+--
+-- LeadDeduplicationService used to match on the expressions
+--     RIGHT(regexp_replace(parent_mobile, '[^0-9]', '', 'g'), 10)
+--     LOWER(TRIM(parent_email))
+-- which no index covers, so every lead submission with dedup enabled scanned the
+-- institute's responses. These columns hold the same normalised values so the
+-- probes become plain equality lookups (indexes in V469).
+--
+--   phone_last10   last 10 digits of parent_mobile; NULL when it has fewer than 10,
+--                  which the Java side (lastNDigits) never queries with anyway
+--   email_lower    LOWER(TRIM(parent_email)); NULL when blank
+--   dedup_key_xid  txid_current() of the transaction that last set or changed
+--                  either key. LeadDedupIndexService reads these rows back to pick up
+--                  keys written by other replicas into its in-memory pre-filter. It
+--                  takes txid_snapshot_xmin(txid_current_snapshot()) — the oldest
+--                  transaction still running — before it scans; every row stamped
+--                  below that has committed or rolled back and is in the scan, so the
+--                  next scan starts from there. A sequence would not do: its value is
+--                  taken long before the row commits (submitLead holds its transaction
+--                  across HTTP calls), so a reader past a value cannot tell whether a
+--                  lower one is still uncommitted.
+--
+-- A BEFORE trigger keeps them in sync for every writer (JPA saves, bulk saveAll,
+-- native updates) instead of relying on each save path to set them. Hibernate
+-- writes every mapped column on update, so the trigger compares before stamping
+-- a new transaction id.
+--
+-- Column adds are nullable with no default (no table rewrite). The backfill runs
+-- before the trigger exists and sets the keys directly; backfilled rows keep a NULL
+-- stamp, since they are committed before any reader starts and filter builds read
+-- every row by id.
+
+ALTER TABLE audience_response
+    ADD COLUMN IF NOT EXISTS phone_last10 VARCHAR(10),
+    ADD COLUMN IF NOT EXISTS email_lower VARCHAR(255),
+    ADD COLUMN IF NOT EXISTS dedup_key_xid BIGINT;
+
+UPDATE audience_response
+SET phone_last10 = CASE
+        WHEN length(regexp_replace(parent_mobile, '[^0-9]', '', 'g')) >= 10
+            THEN RIGHT(regexp_replace(parent_mobile, '[^0-9]', '', 'g'), 10)
+    END,
+    email_lower = NULLIF(LOWER(TRIM(parent_email)), '')
+WHERE parent_mobile IS NOT NULL OR parent_email IS NOT NULL;
+
+CREATE OR REPLACE FUNCTION fn_audience_response_dedup_keys()
+RETURNS TRIGGER AS $$
+DECLARE
+    digits TEXT;
+BEGIN
+    digits := regexp_replace(COALESCE(NEW.parent_mobile, ''), '[^0-9]', '', 'g');
+    NEW.phone_last10 := CASE WHEN length(digits) >= 10 THEN RIGHT(digits, 10) END;
+    NEW.email_lower := NULLIF(LOWER(TRIM(NEW.parent_email)), '');
+
+    IF TG_OP = 'INSERT' THEN
+        IF NEW.phone_last10 IS NOT NULL OR NEW.email_lower IS NOT NULL THEN
+            NEW.dedup_key_xid := txid_current();
+        END IF;
+    ELSIF NEW.phone_last10 IS DISTINCT FROM OLD.phone_last10
+       OR NEW.email_lower IS DISTINCT FROM OLD.email_lower THEN
+        NEW.dedup_key_xid := txid_current();
+    ELSE
+        NEW.dedup_key_xid := OLD.dedup_key_xid;
+    END IF;
+
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_audience_response_dedup_keys ON audience_response;
+
+CREATE TRIGGER trg_audience_response_dedup_keys
+    BEFORE INSERT OR UPDATE OF parent_mobile, parent_email ON audience_response
+    FOR EACH ROW
+    EXECUTE FUNCTION fn_audience_response_dedup_keys();
+
+COMMENT ON COLUMN audience_response.phone_last10 IS 'Last 10 digits of parent_mobile (trigger-maintained dedup key)';
+COMMENT ON COLUMN audience_response.email_lower IS 'LOWER(TRIM(parent_email)) (trigger-maintained dedup key)';
+COMMENT ON COLUMN audience_response.dedup_key_xid IS 'Transaction id of the last dedup key change, read by the in-memory dedup pre-filter';
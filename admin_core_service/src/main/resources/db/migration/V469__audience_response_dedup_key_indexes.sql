@@ -0,0 +1,24 @@
+-- Indexes for the V468 dedup keys.
+--
+-- Key-leading with audience_id second: CAMPAIGN and SELECTED scope probes resolve
+-- inside the index, and INSTITUTE scope (joined through audience) still starts from
+-- the handful of rows sharing the key. Partial on the key, since leads without a
+-- phone or email can never match. The telephony lead lookup by phone
+-- (findLeadIdAndUserByInstituteAndPhoneLast10) uses the phone index as well.
+--
+-- (dedup_key_xid, id) backs the pre-filter catch-up: rows stamped at or after the
+-- oldest running transaction of the previous scan, keyset-paged in that order.
+--
+-- CONCURRENTLY so lead intake keeps writing during deploy; this file holds only
+-- concurrent statements for the reason given in V404.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_audience_response_phone_last10
+    ON audience_response (phone_last10, audience_id)
+    WHERE phone_last10 IS NOT NULL;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_audience_response_email_lower
+    ON audience_response (email_lower, audience_id)
+    WHERE email_lower IS NOT NULL;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_audience_response_dedup_key_xid
+    ON audience_response (dedup_key_xid, id)
+    WHERE dedup_key_xid IS NOT NULL;
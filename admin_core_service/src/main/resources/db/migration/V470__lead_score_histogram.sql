@@ -0,0 +1,83 @@
+-- Per-campaign lead score histogram, so percentile ranks no longer need a full
+-- PERCENT_RANK rewrite of every lead_score row every 15 minutes.
+--
+-- raw_score is an integer 0-100, so one row per (audience_id, raw_score) holding
+-- the number of leads at that score is an exact order-statistic structure:
+--     PERCENT_RANK(s) = (leads scoring below s) / (leads in campaign - 1)
+-- LeadScorePercentileService answers percentiles on read from it.
+--
+-- The write path is append-only. calculateAndSaveScore joins the surrounding
+-- submitLead / bulk import / recalculation transaction, so a trigger that bumped
+-- the shared (audience_id, raw_score) counter row would hold that row lock through
+-- every later HTTP call of the submission: new leads of a campaign mostly start at
+-- the same initial score and would queue on one row, and two score moves in
+-- opposite directions (20 -> 30 and 30 -> 20) would take the two bucket locks in
+-- opposite order and deadlock. Instead an AFTER trigger appends
+-- (audience_id, raw_score, +1 / -1) rows to lead_score_histogram_delta, which
+-- never conflicts with another writer. It covers every writer (scoring engine,
+-- manual override, deletes); Hibernate updates every mapped column, so the
+-- function ignores updates that leave raw_score and audience_id unchanged.
+--
+-- Readers take lead_score_histogram.lead_count + SUM(delta) per bucket. The
+-- one-minute LeadScorePercentileService sync folds each changed campaign's deltas
+-- into the base rows and rewrites its stored percentile_rank in one transaction; a
+-- campaign is "changed" while it has unfolded deltas.
+--
+-- The SHARE ROW EXCLUSIVE lock holds off score writes between the seed below and
+-- the trigger going live, so no write is counted twice or missed.
+
+LOCK TABLE lead_score IN SHARE ROW EXCLUSIVE MODE;
+
+CREATE TABLE IF NOT EXISTS lead_score_histogram (
+    audience_id TEXT    NOT NULL,
+    raw_score   INTEGER NOT NULL,
+    lead_count  INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (audience_id, raw_score)
+);
+
+CREATE TABLE IF NOT EXISTS lead_score_histogram_delta (
+    id          BIGSERIAL PRIMARY KEY,
+    audience_id TEXT      NOT NULL,
+    raw_score   INTEGER   NOT NULL,
+    delta       INTEGER   NOT NULL,
+    created_at  TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_lead_score_histogram_delta_audience
+    ON lead_score_histogram_delta (audience_id, raw_score);
+
+INSERT INTO lead_score_histogram (audience_id, raw_score, lead_count)
+SELECT audience_id, raw_score, COUNT(*)
+FROM lead_score
+GROUP BY audience_id, raw_score
+ON CONFLICT (audience_id, raw_score) DO UPDATE SET lead_count = EXCLUDED.lead_count;
+
+CREATE OR REPLACE FUNCTION fn_lead_score_histogram()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'UPDATE'
+       AND NEW.raw_score IS NOT DISTINCT FROM OLD.raw_score
+       AND NEW.audience_id IS NOT DISTINCT FROM OLD.audience_id THEN
+        RETURN NULL;
+    END IF;
+
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        INSERT INTO lead_score_histogram_delta (audience_id, raw_score, delta)
+        VALUES (OLD.audience_id, OLD.raw_score, -1);
+    END IF;
+
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO lead_score_histogram_delta (audience_id, raw_score, delta)
+        VALUES (NEW.audience_id, NEW.raw_score, 1);
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_lead_score_histogram ON lead_score;
+
+CREATE TRIGGER trg_lead_score_histogram
+    AFTER INSERT OR UPDATE OF raw_score, audience_id OR DELETE ON lead_score
+    FOR EACH ROW
+    EXECUTE FUNCTION fn_lead_score_histogram();
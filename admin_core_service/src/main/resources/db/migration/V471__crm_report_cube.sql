@@ -0,0 +1,240 @@
+-- Pre-aggregated CRM report cube, so the Activity and Dispositions reports read a
+-- small table instead of re-aggregating lead_status_history / lead_followup joined
+-- to audience_response on every refresh.
+--
+-- crm_report_cube holds counts per (institute, day, metric, counsellor, campaign,
+-- lead source, to-status). day is the calendar date in the institute's report
+-- timezone, the same bucket ActivityReportService computes with
+--     (ts AT TIME ZONE 'UTC' AT TIME ZONE tz)::date
+--   metric  STATUS_CHANGE     lead_status_history row, counsellor = changed_by_user_id,
+--                             status_id = to_status_id
+--           FOLLOWUP_CREATED  lead_followup row, counsellor = created_by, day of created_at
+--           FOLLOWUP_CLOSED   lead_followup closed, counsellor = closed_by,
+--                             day of COALESCE(closed_at, updated_at)
+-- OPTED_OUT leads are left out, as every report query does.
+--
+-- The table is append-only: the triggers below add one delta row per event
+-- (n = 1, or the signed count a lead carried when it opts out or back in) instead
+-- of updating a shared counter row, so concurrent writers never queue on one
+-- another. Readers SUM(n). CrmReportCubeCompactionJob rebuilds the trailing days
+-- from the raw tables each night and folds older deltas into one compacted row per
+-- key, which also absorbs anything the triggers cannot see (history deletes, a
+-- lead moving campaign).
+--
+-- crm_report_cube_state records the timezone an institute's days are bucketed in
+-- and whether its history is fully built. Triggers skip institutes without a row
+-- and write deltas as soon as one exists, so events during a chunked history build
+-- are counted in the new buckets. Reports fall back to the raw queries until the
+-- row is built in the current report timezone.
+--
+-- Every cube write takes pg_advisory_xact_lock_shared on the institute key and a
+-- rebuild of a day range takes the exclusive lock, so an event in that range is
+-- counted either by the rebuild (already committed when it reads) or by its own
+-- delta (written after it), never both and never neither.
+
+CREATE TABLE IF NOT EXISTS crm_report_cube_state (
+    institute_id VARCHAR(255) PRIMARY KEY,
+    timezone     VARCHAR(64) NOT NULL,
+    built        BOOLEAN     NOT NULL DEFAULT FALSE,
+    rebuilt_at   TIMESTAMP   NOT NULL DEFAULT NOW()
+);
+
+CREATE TABLE IF NOT EXISTS crm_report_cube (
+    institute_id       VARCHAR(255) NOT NULL,
+    day                DATE         NOT NULL,
+    metric             VARCHAR(30)  NOT NULL,
+    counsellor_user_id VARCHAR(255),
+    audience_id        VARCHAR(255),
+    source_type        VARCHAR(255),
+    status_id          TEXT,
+    n                  BIGINT       NOT NULL,
+    compacted          BOOLEAN      NOT NULL DEFAULT FALSE
+);
+
+CREATE INDEX IF NOT EXISTS idx_crm_report_cube_institute_day
+    ON crm_report_cube (institute_id, day, metric);
+
+-- Lets the nightly fold find the days that received deltas without reading the
+-- whole history.
+CREATE INDEX IF NOT EXISTS idx_crm_report_cube_uncompacted
+    ON crm_report_cube (institute_id, day)
+    WHERE NOT compacted;
+
+CREATE OR REPLACE FUNCTION fn_crm_report_cube_tz(p_institute_id TEXT)
+RETURNS TEXT AS $$
+DECLARE
+    tz TEXT;
+BEGIN
+    PERFORM pg_advisory_xact_lock_shared(hashtext('crm_report_cube:' || p_institute_id));
+    SELECT timezone INTO tz FROM crm_report_cube_state WHERE institute_id = p_institute_id;
+    RETURN tz;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION fn_crm_report_cube_status_change()
+RETURNS TRIGGER AS $$
+DECLARE
+    tz TEXT;
+BEGIN
+    tz := fn_crm_report_cube_tz(NEW.institute_id);
+    IF tz IS NULL THEN
+        RETURN NULL;
+    END IF;
+
+    INSERT INTO crm_report_cube (institute_id, day, metric, counsellor_user_id,
+                                 audience_id, source_type, status_id, n)
+    SELECT NEW.institute_id,
+           (NEW.changed_at AT TIME ZONE 'UTC' AT TIME ZONE tz)::date,
+           'STATUS_CHANGE', NEW.changed_by_user_id,
+           ar.audience_id, ar.source_type, NEW.to_status_id, 1
+    FROM audience_response ar
+    WHERE ar.id = NEW.audience_response_id
+      AND (ar.overall_status IS NULL OR ar.overall_status != 'OPTED_OUT');
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION fn_crm_report_cube_followup()
+RETURNS TRIGGER AS $$
+DECLARE
+    tz TEXT;
+    was_closed BOOLEAN := TG_OP = 'UPDATE' AND OLD.is_closed;
+BEGIN
+    IF TG_OP = 'UPDATE' AND NEW.is_closed IS NOT DISTINCT FROM OLD.is_closed THEN
+        RETURN NULL;
+    END IF;
+
+    tz := fn_crm_report_cube_tz(NEW.institute_id);
+    IF tz IS NULL THEN
+        RETURN NULL;
+    END IF;
+
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO crm_report_cube (institute_id, day, metric, counsellor_user_id,
+                                     audience_id, source_type, n)
+        SELECT NEW.institute_id,
+               (NEW.created_at AT TIME ZONE 'UTC' AT TIME ZONE tz)::date,
+               'FOLLOWUP_CREATED', NEW.created_by,
+               ar.audience_id, ar.source_type, 1
+        FROM audience_response ar
+        WHERE ar.id = NEW.audience_response_id
+          AND (ar.overall_status IS NULL OR ar.overall_status != 'OPTED_OUT');
+    END IF;
+
+    IF NEW.is_closed OR was_closed THEN
+        INSERT INTO crm_report_cube (institute_id, day, metric, counsellor_user_id,
+                                     audience_id, source_type, n)
+        SELECT NEW.institute_id,
+               (COALESCE(f.closed_at, f.updated_at) AT TIME ZONE 'UTC' AT TIME ZONE tz)::date,
+               'FOLLOWUP_CLOSED', f.closed_by,
+               ar.audience_id, ar.source_type,
+               CASE WHEN NEW.is_closed THEN 1 ELSE -1 END
+        FROM (SELECT CASE WHEN NEW.is_closed THEN NEW.closed_at ELSE OLD.closed_at END AS closed_at,
+                     CASE WHEN NEW.is_closed THEN NEW.updated_at ELSE OLD.updated_at END AS updated_at,
+                     CASE WHEN NEW.is_closed THEN NEW.closed_by ELSE OLD.closed_by END AS closed_by) f
+        JOIN audience_response ar ON ar.id = NEW.audience_response_id
+        WHERE ar.overall_status IS NULL OR ar.overall_status != 'OPTED_OUT';
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- A lead opting out takes everything it contributed out of the cube, and opting
+-- back in puts it back, matching the reports' current-state OPTED_OUT filter.
+-- Hibernate updates every mapped column, so the function returns at once unless
+-- the opted-out state actually flipped.
+CREATE OR REPLACE FUNCTION fn_crm_report_cube_opt_out()
+RETURNS TRIGGER AS $$
+DECLARE
+    was_out BOOLEAN := COALESCE(OLD.overall_status = 'OPTED_OUT', FALSE);
+    is_out  BOOLEAN := COALESCE(NEW.overall_status = 'OPTED_OUT', FALSE);
+    inst    TEXT;
+    tz      TEXT;
+    delta   INTEGER;
+    lead_audience_id TEXT;
+    lead_source_type TEXT;
+BEGIN
+    IF was_out = is_out THEN
+        RETURN NULL;
+    END IF;
+
+    SELECT a.institute_id INTO inst FROM audience a WHERE a.id = NEW.audience_id;
+    IF inst IS NULL THEN
+        RETURN NULL;
+    END IF;
+    tz := fn_crm_report_cube_tz(inst);
+    IF tz IS NULL THEN
+        RETURN NULL;
+    END IF;
+
+    -- Withdraw under the keys the deltas were written with, re-add under the new ones.
+    IF is_out THEN
+        delta := -1;
+        lead_audience_id := OLD.audience_id;
+        lead_source_type := OLD.source_type;
+    ELSE
+        delta := 1;
+        lead_audience_id := NEW.audience_id;
+        lead_source_type := NEW.source_type;
+    END IF;
+
+    INSERT INTO crm_report_cube (institute_id, day, metric, counsellor_user_id,
+                                 audience_id, source_type, status_id, n)
+    SELECT lsh.institute_id,
+           (lsh.changed_at AT TIME ZONE 'UTC' AT TIME ZONE tz)::date,
+           'STATUS_CHANGE', lsh.changed_by_user_id,
+           lead_audience_id, lead_source_type, lsh.to_status_id, delta * COUNT(*)
+    FROM lead_status_history lsh
+    WHERE lsh.audience_response_id = NEW.id
+      AND lsh.institute_id = inst
+    GROUP BY 1, 2, 4, 7;
+
+    INSERT INTO crm_report_cube (institute_id, day, metric, counsellor_user_id,
+                                 audience_id, source_type, n)
+    SELECT lf.institute_id,
+           (lf.created_at AT TIME ZONE 'UTC' AT TIME ZONE tz)::date,
+           'FOLLOWUP_CREATED', lf.created_by,
+           lead_audience_id, lead_source_type, delta * COUNT(*)
+    FROM lead_followup lf
+    WHERE lf.audience_response_id = NEW.id
+      AND lf.institute_id = inst
+    GROUP BY 1, 2, 4;
+
+    INSERT INTO crm_report_cube (institute_id, day, metric, counsellor_user_id,
+                                 audience_id, source_type, n)
+    SELECT lf.institute_id,
+           (COALESCE(lf.closed_at, lf.updated_at) AT TIME ZONE 'UTC' AT TIME ZONE tz)::date,
+           'FOLLOWUP_CLOSED', lf.closed_by,
+           lead_audience_id, lead_source_type, delta * COUNT(*)
+    FROM lead_followup lf
+    WHERE lf.audience_response_id = NEW.id
+      AND lf.institute_id = inst
+      AND lf.is_closed = true
+    GROUP BY 1, 2, 4;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_crm_report_cube_status_change ON lead_status_history;
+
+CREATE TRIGGER trg_crm_report_cube_status_change
+    AFTER INSERT ON lead_status_history
+    FOR EACH ROW
+    EXECUTE FUNCTION fn_crm_report_cube_status_change();
+
+DROP TRIGGER IF EXISTS trg_crm_report_cube_followup ON lead_followup;
+
+CREATE TRIGGER trg_crm_report_cube_followup
+    AFTER INSERT OR UPDATE OF is_closed ON lead_followup
+    FOR EACH ROW
+    EXECUTE FUNCTION fn_crm_report_cube_followup();
+
+DROP TRIGGER IF EXISTS trg_crm_report_cube_opt_out ON audience_response;
+
+CREATE TRIGGER trg_crm_report_cube_opt_out
+    AFTER UPDATE OF overall_status ON audience_response
+    FOR EACH ROW
+    EXECUTE FUNCTION fn_crm_report_cube_opt_out();
@@ -0,0 +1,225 @@
+package vacademy.io.admin_core_service.features.audience;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import vacademy.io.admin_core_service.core.security.InstituteAccessValidator;
+import vacademy.io.admin_core_service.features.audience.dto.BulkSubmitLeadRequestDTO;
+import vacademy.io.admin_core_service.features.audience.dto.BulkSubmitLeadResponseDTO;
+import vacademy.io.admin_core_service.features.audience.dto.SubmitLeadRequestDTO;
+import vacademy.io.admin_core_service.features.audience.entity.Audience;
+import vacademy.io.admin_core_service.features.audience.entity.AudienceResponse;
+import vacademy.io.admin_core_service.features.audience.entity.LeadImportJob;
+import vacademy.io.admin_core_service.features.audience.repository.AudienceRepository;
+import vacademy.io.admin_core_service.features.audience.repository.AudienceResponseRepository;
+import vacademy.io.admin_core_service.features.audience.repository.LeadImportJobRepository;
+import vacademy.io.admin_core_service.features.audience.service.AudienceService;
+import vacademy.io.admin_core_service.features.audience.service.BulkLeadIngestionService;
+import vacademy.io.admin_core_service.features.audience.service.LeadDedupSettingService;
+import vacademy.io.admin_core_service.features.audience.service.LeadDeduplicationService;
+import vacademy.io.admin_core_service.features.audience.service.PlaceholderEmailService;
+import vacademy.io.admin_core_service.features.auth_service.service.AuthService;
+import vacademy.io.common.auth.dto.UserDTO;
+import vacademy.io.common.auth.model.CustomUserDetails;
+import vacademy.io.common.exceptions.VacademyException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The bulk import pipeline has to report exactly what row-by-row submitLead would
+ * have — same SUCCESS / SKIPPED / FAILED per row, same messages — while making one
+ * auth_service call per batch and one insert per campaign chunk.
+ */
+class BulkLeadIngestionServiceTest {
+
+    private static final String AUDIENCE = "aud-1";
+    private static final String INSTITUTE = "inst-1";
+
+    private AudienceService audienceService;
+    private AudienceResponseRepository audienceResponseRepository;
+    private LeadDeduplicationService leadDeduplicationService;
+    private AuthService authService;
+    private LeadImportJobRepository leadImportJobRepository;
+    private InstituteAccessValidator instituteAccessValidator;
+    private BulkLeadIngestionService service;
+
+    @BeforeEach
+    void setUp() {
+        audienceService = mock(AudienceService.class);
+        AudienceRepository audienceRepository = mock(AudienceRepository.class);
+        audienceResponseRepository = mock(AudienceResponseRepository.class);
+        leadDeduplicationService = mock(LeadDeduplicationService.class);
+        authService = mock(AuthService.class);
+        leadImportJobRepository = mock(LeadImportJobRepository.class);
+        instituteAccessValidator = mock(InstituteAccessValidator.class);
+
+        when(audienceRepository.findById(AUDIENCE)).thenReturn(Optional.of(
+                Audience.builder().id(AUDIENCE).instituteId(INSTITUTE).status("ACTIVE").build()));
+        when(leadDeduplicationService.checkDuplicates(anyString(), anyString(), anyList(), anyList()))
+                .thenReturn(Map.of());
+        // auth_service hands back one user per input, id derived from the email
+        when(authService.createUsersOrGetExisting(anyList(), eq(INSTITUTE), eq(false))).thenAnswer(invocation -> {
+            List<UserDTO> users = new ArrayList<>();
+            for (UserDTO input : invocation.<List<UserDTO>>getArgument(0)) {
+                UserDTO user = new UserDTO();
+                user.setId("user-" + input.getEmail());
+                user.setEmail(input.getEmail());
+                users.add(user);
+            }
+            return users;
+        });
+        when(audienceService.buildLeadResponse(any(), any(), anyString(), anyString(), any()))
+                .thenAnswer(invocation -> AudienceResponse.builder()
+                        .audienceId(AUDIENCE)
+                        .userId(invocation.getArgument(3))
+                        .build());
+        when(audienceResponseRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<AudienceResponse> saved = new ArrayList<>();
+            for (AudienceResponse response : invocation.<List<AudienceResponse>>getArgument(0)) {
+                response.setId("resp-" + response.getUserId());
+                saved.add(response);
+            }
+            return saved;
+        });
+
+        Executor direct = Runnable::run;
+        service = new BulkLeadIngestionService();
+        ReflectionTestUtils.setField(service, "audienceService", audienceService);
+        ReflectionTestUtils.setField(service, "audienceRepository", audienceRepository);
+        ReflectionTestUtils.setField(service, "audienceResponseRepository", audienceResponseRepository);
+        ReflectionTestUtils.setField(service, "leadDeduplicationService", leadDeduplicationService);
+        ReflectionTestUtils.setField(service, "placeholderEmailService", mock(PlaceholderEmailService.class));
+        ReflectionTestUtils.setField(service, "authService", authService);
+        ReflectionTestUtils.setField(service, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(service, "leadImportExecutor", direct);
+        ReflectionTestUtils.setField(service, "leadImportFanoutExecutor", direct);
+        ReflectionTestUtils.setField(service, "leadImportJobRepository", leadImportJobRepository);
+        ReflectionTestUtils.setField(service, "instituteAccessValidator", instituteAccessValidator);
+    }
+
+    private static CustomUserDetails caller(String userId) {
+        CustomUserDetails user = new CustomUserDetails();
+        ReflectionTestUtils.setField(user, "userId", userId);
+        return user;
+    }
+
+    private static SubmitLeadRequestDTO row(String email) {
+        UserDTO user = new UserDTO();
+        user.setEmail(email);
+        SubmitLeadRequestDTO dto = new SubmitLeadRequestDTO();
+        dto.setUserDTO(user);
+        dto.setSourceType("CSV");
+        return dto;
+    }
+
+    private BulkSubmitLeadResponseDTO submit(List<SubmitLeadRequestDTO> rows) {
+        return service.bulkSubmitLead(BulkSubmitLeadRequestDTO.builder().audienceId(AUDIENCE).rows(rows).build());
+    }
+
+    @Test
+    void insertsAChunkWithOneAuthCallAndOneBatchInsert() {
+        List<SubmitLeadRequestDTO> rows = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            rows.add(row("lead" + i + "@example.com"));
+        }
+
+        BulkSubmitLeadResponseDTO response = submit(rows);
+
+        assertEquals(100, response.getSummary().getSuccessful());
+        assertEquals("resp-user-lead7@example.com", response.getResults().get(7).getAudienceResponseId());
+        verify(authService, times(1)).createUsersOrGetExisting(anyList(), eq(INSTITUTE), eq(false));
+        verify(audienceResponseRepository, times(1)).saveAll(anyList());
+        verify(audienceService, times(100)).completeLeadSubmission(any(), any(), any(), any(), anyBoolean(), any());
+    }
+
+    @Test
+    void reportsSkipsAndFailuresPerRowLikeTheSingleRowPath() {
+        when(audienceResponseRepository.findUserIdsByAudienceIdAndUserIdIn(eq(AUDIENCE), any()))
+                .thenReturn(List.of("user-old@example.com"));
+
+        BulkSubmitLeadResponseDTO response = submit(java.util.Arrays.asList(
+                row("new@example.com"),
+                row("NEW@example.com "),
+                row("old@example.com"),
+                null,
+                new SubmitLeadRequestDTO()));
+
+        assertEquals("SUCCESS", response.getResults().get(0).getStatus());
+        assertEquals("Duplicate email in upload payload", response.getResults().get(1).getMessage());
+        assertEquals("You have already submitted your response for this campaign",
+                response.getResults().get(2).getMessage());
+        assertEquals("Row is null", response.getResults().get(3).getMessage());
+        assertEquals("FAILED", response.getResults().get(4).getStatus());
+        assertEquals(1, response.getSummary().getSuccessful());
+        assertEquals(2, response.getSummary().getSkipped());
+        assertEquals(2, response.getSummary().getFailed());
+        verify(audienceService).reactivateSoftDeletedLeads(AUDIENCE, "user-old@example.com");
+    }
+
+    @Test
+    void rejectedDuplicatesNeverReachAuthService() {
+        when(leadDeduplicationService.checkDuplicates(anyString(), anyString(), anyList(), anyList()))
+                .thenReturn(Map.of(0, new LeadDeduplicationService.DuplicateMatch(
+                        LeadDedupSettingService.DedupAction.REJECT,
+                        "A lead with this email already exists in this lead list.", null)));
+
+        BulkSubmitLeadResponseDTO response = submit(List.of(row("dupe@example.com")));
+
+        assertEquals("SKIPPED", response.getResults().get(0).getStatus());
+        assertNull(response.getResults().get(0).getAudienceResponseId());
+        verify(authService, never()).createUsersOrGetExisting(anyList(), anyString(), anyBoolean());
+        verify(audienceResponseRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void jobReportIsOnlyReadableByItsCreatorOrItsInstitute() {
+        when(leadImportJobRepository.findById("job-1")).thenReturn(Optional.of(LeadImportJob.builder()
+                .id("job-1").instituteId(INSTITUTE).createdBy("admin-1").jobType("LEAD").status("COMPLETED").build()));
+        CustomUserDetails outsider = caller("someone-else");
+        doThrow(new VacademyException("Access denied"))
+                .when(instituteAccessValidator).validateUserAccess(outsider, INSTITUTE);
+
+        assertEquals("job-1", service.getJob("job-1", caller("admin-1")).getJobId());
+        assertEquals("job-1", service.getJob("job-1", caller("colleague")).getJobId());
+        VacademyException e = assertThrows(VacademyException.class, () -> service.getJob("job-1", outsider));
+        assertEquals(HttpStatus.NOT_FOUND, e.getStatus());
+    }
+
+    @Test
+    void aJobFailedWhileQueuedIsNotStarted() {
+        when(leadImportJobRepository.save(any(LeadImportJob.class))).thenAnswer(invocation -> {
+            LeadImportJob job = invocation.getArgument(0);
+            job.setId("job-1");
+            return job;
+        });
+        // the stale-job sweep got there first
+        when(leadImportJobRepository.claim("job-1")).thenReturn(0);
+
+        service.startBulkSubmitLead(BulkSubmitLeadRequestDTO.builder()
+                .audienceId(AUDIENCE).rows(List.of(row("a@x.com"))).build(), "admin-1");
+
+        verify(authService, never()).createUsersOrGetExisting(anyList(), anyString(), anyBoolean());
+        verify(audienceResponseRepository, never()).saveAll(anyList());
+    }
+}
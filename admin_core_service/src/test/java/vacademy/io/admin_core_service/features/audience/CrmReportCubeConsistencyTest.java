@@ -0,0 +1,255 @@
+package vacademy.io.admin_core_service.features.audience;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import vacademy.io.admin_core_service.features.audience.repository.CrmReportCubeDao;
+import vacademy.io.admin_core_service.features.audience.service.ActivityReportService;
+import vacademy.io.admin_core_service.features.audience.service.CrmReportCubeService;
+import vacademy.io.admin_core_service.features.audience.service.LeadReportSettingService;
+
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Once an institute is built, the Activity report reads crm_report_cube instead of
+ * aggregating the event tables, so the two must agree row for row: whatever the
+ * chunked history rebuild counted plus whatever the V471 triggers appended after it
+ * has to equal what STATUS_CHANGES_SQL / FOLLOWUPS_CREATED_SQL / FOLLOWUPS_CLOSED_SQL
+ * return for the same window — across the institute-timezone day boundary, follow-up
+ * closes and reopens, and a lead opting out and back in.
+ *
+ * Needs a real Postgres carrying the admin_core_service schema: the triggers and the
+ * AT TIME ZONE bucketing are the thing under test. Skipped unless
+ * ADMIN_CORE_TEST_DB_URL is set; everything it writes is rolled back.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = CrmReportCubeConsistencyTest.DaoOnlyConfig.class)
+@EnabledIfEnvironmentVariable(named = "ADMIN_CORE_TEST_DB_URL", matches = ".+")
+class CrmReportCubeConsistencyTest {
+
+    /** Boots only the ORM and the cube DAO, not AdminCoreServiceApplication's web stack. */
+    @Configuration
+    @EntityScan(basePackages = "vacademy.io")
+    @Import(CrmReportCubeDao.class)
+    static class DaoOnlyConfig {
+    }
+
+    private static final String TZ = "Asia/Kolkata";
+
+    @Autowired
+    private CrmReportCubeDao crmReportCubeDao;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private CrmReportCubeService service;
+    private String instituteId;
+    private String audienceId;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv("ADMIN_CORE_TEST_DB_URL"));
+        registry.add("spring.datasource.username", () -> System.getenv().getOrDefault("ADMIN_CORE_TEST_DB_USER", ""));
+        registry.add("spring.datasource.password", () -> System.getenv().getOrDefault("ADMIN_CORE_TEST_DB_PASSWORD", ""));
+        // The schema is applied out of band; never let the test rewrite it.
+        registry.add("spring.flyway.enabled", () -> "false");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+
+    @BeforeEach
+    void setUp() {
+        LeadReportSettingService settings = mock(LeadReportSettingService.class);
+        service = new CrmReportCubeService(crmReportCubeDao, settings, transactionManager);
+        ReflectionTestUtils.setField(service, "rebuildDays", 35);
+        // Small chunks, so the history below spans many separate range rebuilds.
+        ReflectionTestUtils.setField(service, "rebuildChunkDays", 7);
+
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        instituteId = "cube-it-" + suffix;
+        audienceId = "cube-it-aud-" + suffix;
+        when(settings.get(instituteId)).thenReturn(new LeadReportSettingService.ReportSettings(TZ, Set.of(), Set.of()));
+
+        jdbc.update("INSERT INTO institutes (id, name) VALUES (:id, 'Cube consistency')", Map.of("id", instituteId));
+        jdbc.update("INSERT INTO audience (id, institute_id, campaign_name) VALUES (:id, :inst, 'Cube consistency')",
+                Map.of("id", audienceId, "inst", instituteId));
+    }
+
+    @Test
+    void cubeMatchesTheRawReportQueriesAfterBuildDeltasAndCompaction() {
+        String leadA = lead("WEBSITE");
+        String leadB = lead("FACEBOOK_ADS");
+        String leadC = lead("WEBSITE");
+        LocalDateTime recent = LocalDateTime.now(ZoneOffset.UTC).minusDays(2);
+
+        // History from before the cube exists: counted by the chunked rebuild.
+        statusChange(leadA, "u1", LocalDateTime.of(2024, 3, 1, 18, 45)); // 2 Mar in IST
+        statusChange(leadA, "u1", LocalDateTime.of(2024, 3, 1, 10, 0));
+        statusChange(leadB, "u2", LocalDateTime.of(2024, 5, 10, 12, 0));
+        statusChange(leadB, null, LocalDateTime.of(2024, 5, 10, 13, 0));
+        statusChange(leadC, "u1", LocalDateTime.of(2024, 4, 4, 9, 0));
+        statusChange(leadA, "u2", recent);
+        String f1 = followup(leadA, "u1", LocalDateTime.of(2024, 3, 3, 8, 0));
+        close(f1, "u2", LocalDateTime.of(2024, 3, 5, 20, 0));
+        String f2 = followup(leadB, "u2", LocalDateTime.of(2024, 6, 1, 8, 0));
+        String f3 = followup(leadC, "u1", LocalDateTime.of(2024, 4, 5, 8, 0));
+        closeWithoutTimestamp(f3, "u1", LocalDateTime.of(2024, 4, 6, 19, 0));
+
+        service.compact(instituteId);
+        assertThat(crmReportCubeDao.findBuiltTimezone(instituteId)).isEqualTo(TZ);
+        assertThat(cubeCounts()).isNotEmpty().isEqualTo(rawCounts());
+
+        // After the build: counted by the triggers' deltas, including days the
+        // rebuild already covered.
+        statusChange(leadA, "u1", LocalDateTime.of(2024, 3, 2, 11, 0));
+        String f4 = followup(leadB, "u2", LocalDateTime.of(2024, 5, 11, 9, 0));
+        close(f4, "u1", LocalDateTime.of(2024, 5, 12, 9, 0));
+        close(f2, "u2", recent);
+        reopen(f1);
+        optOut(leadC, true);
+        assertThat(cubeCounts()).isEqualTo(rawCounts());
+
+        // The nightly pass rebuilds the trailing days and folds the older deltas.
+        service.compact(instituteId);
+        assertThat(cubeCounts()).isEqualTo(rawCounts());
+
+        optOut(leadC, false);
+        assertThat(cubeCounts()).isEqualTo(rawCounts());
+    }
+
+    /** metric|user|day -> n from the three raw Activity report queries. */
+    private Map<String, Long> rawCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        for (String[] source : new String[][] {
+                { "STATUS_CHANGES_SQL", "STATUS_CHANGE" },
+                { "FOLLOWUPS_CREATED_SQL", "FOLLOWUP_CREATED" },
+                { "FOLLOWUPS_CLOSED_SQL", "FOLLOWUP_CLOSED" } }) {
+            String sql = (String) ReflectionTestUtils.getField(ActivityReportService.class, source[0]);
+            jdbc.query(sql, windowParams(), rs -> {
+                counts.put(source[1] + "|" + rs.getString("user_id") + "|" + rs.getDate("day"), rs.getLong("n"));
+            });
+        }
+        return counts;
+    }
+
+    /** metric|user|day -> n from the cube read the Activity report uses once built. */
+    private Map<String, Long> cubeCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        String sql = (String) ReflectionTestUtils.getField(ActivityReportService.class, "CUBE_LEAD_ACTIVITY_SQL");
+        jdbc.query(sql, windowParams(), rs -> {
+            counts.put(rs.getString("metric") + "|" + rs.getString("user_id") + "|" + rs.getDate("day"),
+                    rs.getLong("n"));
+        });
+        return counts;
+    }
+
+    /** The Activity report's bind set for 1 Jan 2024 through tomorrow, institute time. */
+    private MapSqlParameterSource windowParams() {
+        ZoneId zone = ZoneId.of(TZ);
+        LocalDate fromDay = LocalDate.of(2024, 1, 1);
+        LocalDate toDay = LocalDate.now(zone).plusDays(1);
+        return new MapSqlParameterSource()
+                .addValue("instituteId", instituteId)
+                .addValue("tz", TZ)
+                .addValue("scopeCsv", null, Types.VARCHAR)
+                .addValue("audienceId", null, Types.VARCHAR)
+                .addValue("fromUtc", fromDay.atStartOfDay(zone).withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime(),
+                        Types.TIMESTAMP)
+                .addValue("toUtc", toDay.plusDays(1).atStartOfDay(zone).withZoneSameInstant(ZoneOffset.UTC)
+                        .toLocalDateTime(), Types.TIMESTAMP)
+                .addValue("fromDay", fromDay, Types.DATE)
+                .addValue("toDay", toDay, Types.DATE);
+    }
+
+    private String lead(String sourceType) {
+        String id = "cube-it-lead-" + UUID.randomUUID().toString().substring(0, 8);
+        jdbc.update("INSERT INTO audience_response (id, audience_id, source_type) VALUES (:id, :aud, :src)",
+                Map.of("id", id, "aud", audienceId, "src", sourceType));
+        return id;
+    }
+
+    private void statusChange(String leadId, String userId, LocalDateTime changedAt) {
+        jdbc.update("""
+                INSERT INTO lead_status_history (audience_response_id, institute_id, to_status_id,
+                                                 changed_by_user_id, changed_at)
+                VALUES (:lead, :inst, 'status-contacted', :user, :at)
+                """, new MapSqlParameterSource()
+                .addValue("lead", leadId)
+                .addValue("inst", instituteId)
+                .addValue("user", userId, Types.VARCHAR)
+                .addValue("at", changedAt, Types.TIMESTAMP));
+    }
+
+    private String followup(String leadId, String userId, LocalDateTime createdAt) {
+        String id = UUID.randomUUID().toString();
+        jdbc.update("""
+                INSERT INTO lead_followup (id, audience_response_id, institute_id, created_by, created_at, updated_at)
+                VALUES (:id, :lead, :inst, :user, :at, :at)
+                """, new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("lead", leadId)
+                .addValue("inst", instituteId)
+                .addValue("user", userId)
+                .addValue("at", createdAt, Types.TIMESTAMP));
+        return id;
+    }
+
+    private void close(String followupId, String userId, LocalDateTime closedAt) {
+        jdbc.update("""
+                UPDATE lead_followup
+                SET is_closed = true, closed_by = :user, closed_at = :at, updated_at = :at
+                WHERE id = :id
+                """, new MapSqlParameterSource()
+                .addValue("id", followupId)
+                .addValue("user", userId)
+                .addValue("at", closedAt, Types.TIMESTAMP));
+    }
+
+    /** A legacy close: no closed_at, so reports bucket it by updated_at. */
+    private void closeWithoutTimestamp(String followupId, String userId, LocalDateTime updatedAt) {
+        jdbc.update("UPDATE lead_followup SET is_closed = true, closed_by = :user, updated_at = :at WHERE id = :id",
+                new MapSqlParameterSource()
+                        .addValue("id", followupId)
+                        .addValue("user", userId)
+                        .addValue("at", updatedAt, Types.TIMESTAMP));
+    }
+
+    private void reopen(String followupId) {
+        jdbc.update("UPDATE lead_followup SET is_closed = false WHERE id = :id", Map.of("id", followupId));
+    }
+
+    private void optOut(String leadId, boolean out) {
+        jdbc.update("UPDATE audience_response SET overall_status = :status WHERE id = :id",
+                new MapSqlParameterSource()
+                        .addValue("id", leadId)
+                        .addValue("status", out ? "OPTED_OUT" : null, Types.VARCHAR));
+    }
+}
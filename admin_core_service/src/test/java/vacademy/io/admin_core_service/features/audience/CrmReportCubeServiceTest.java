@@ -0,0 +1,140 @@
+package vacademy.io.admin_core_service.features.audience;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import vacademy.io.admin_core_service.features.audience.repository.CrmReportCubeDao;
+import vacademy.io.admin_core_service.features.audience.service.CrmReportCubeService;
+import vacademy.io.admin_core_service.features.audience.service.LeadReportSettingService;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cube days are only comparable with report days bucketed in the same timezone: a
+ * never-built institute, or one whose report timezone changed, must be rebuilt from
+ * the start, and reports must not read it until it has been. That rebuild runs one
+ * day range per lock so lead writes never wait behind the whole history.
+ */
+class CrmReportCubeServiceTest {
+
+    private static final String INSTITUTE = "inst-1";
+    private static final String TZ = "Asia/Kolkata";
+    private static final LocalDate EPOCH_DAY = LocalDate.of(1970, 1, 1);
+    private static final LocalDate END_DAY = LocalDate.of(9999, 1, 1);
+
+    private CrmReportCubeDao crmReportCubeDao;
+    private LeadReportSettingService leadReportSettingService;
+    private CrmReportCubeService service;
+
+    @BeforeEach
+    void setUp() {
+        crmReportCubeDao = mock(CrmReportCubeDao.class);
+        leadReportSettingService = mock(LeadReportSettingService.class);
+        when(leadReportSettingService.get(INSTITUTE))
+                .thenReturn(new LeadReportSettingService.ReportSettings(TZ, Set.of("COMPLETED"), Set.of("INTERESTED")));
+        service = new CrmReportCubeService(crmReportCubeDao, leadReportSettingService,
+                mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(service, "rebuildDays", 35);
+        ReflectionTestUtils.setField(service, "rebuildChunkDays", 31);
+    }
+
+    @Test
+    void neverBuiltInstituteIsRebuiltFromTheStart() {
+        when(crmReportCubeDao.findBuiltTimezone(INSTITUTE)).thenReturn(null);
+
+        service.compact(INSTITUTE);
+
+        InOrder order = inOrder(crmReportCubeDao);
+        order.verify(crmReportCubeDao).lockInstitute(INSTITUTE);
+        order.verify(crmReportCubeDao).startBuild(INSTITUTE, TZ);
+        order.verify(crmReportCubeDao).lockInstitute(INSTITUTE);
+        order.verify(crmReportCubeDao).rebuildRange(eq(INSTITUTE), eq(TZ), eq(Date.valueOf(EPOCH_DAY)),
+                eq(Date.valueOf(END_DAY)), any(Timestamp.class), any(Timestamp.class));
+        order.verify(crmReportCubeDao).markBuilt(INSTITUTE, TZ);
+        verify(crmReportCubeDao, never()).foldDeltasBefore(anyString(), any());
+    }
+
+    @Test
+    void historyIsRebuiltOneRangePerLockAndMarkedBuiltAfterTheLast() {
+        when(crmReportCubeDao.findBuiltTimezone(INSTITUTE)).thenReturn(null);
+        LocalDate today = LocalDate.now(ZoneId.of(TZ));
+        when(crmReportCubeDao.findFirstEventDay(INSTITUTE, TZ)).thenReturn(today.minusDays(70));
+
+        service.compact(INSTITUTE);
+
+        // Every range takes the lock in its own transaction; reports keep reading the
+        // raw tables until the last one is in.
+        InOrder order = inOrder(crmReportCubeDao);
+        order.verify(crmReportCubeDao).startBuild(INSTITUTE, TZ);
+        for (LocalDate[] range : List.of(
+                new LocalDate[] { EPOCH_DAY, today.minusDays(39) },
+                new LocalDate[] { today.minusDays(39), today.minusDays(8) },
+                new LocalDate[] { today.minusDays(8), END_DAY })) {
+            order.verify(crmReportCubeDao).lockInstitute(INSTITUTE);
+            order.verify(crmReportCubeDao).rebuildRange(eq(INSTITUTE), eq(TZ), eq(Date.valueOf(range[0])),
+                    eq(Date.valueOf(range[1])), any(Timestamp.class), any(Timestamp.class));
+        }
+        order.verify(crmReportCubeDao).markBuilt(INSTITUTE, TZ);
+        verify(crmReportCubeDao, times(4)).lockInstitute(INSTITUTE);
+        verify(crmReportCubeDao, times(1)).markBuilt(INSTITUTE, TZ);
+    }
+
+    @Test
+    void timezoneChangeRebuildsFromTheStart() {
+        when(crmReportCubeDao.findBuiltTimezone(INSTITUTE)).thenReturn("UTC");
+
+        service.compact(INSTITUTE);
+
+        verify(crmReportCubeDao).startBuild(INSTITUTE, TZ);
+        verify(crmReportCubeDao).rebuildRange(eq(INSTITUTE), eq(TZ), eq(Date.valueOf(EPOCH_DAY)),
+                any(Date.class), any(Timestamp.class), any(Timestamp.class));
+    }
+
+    @Test
+    void builtInstituteRebuildsTheTrailingDaysAndFoldsTheRest() {
+        when(crmReportCubeDao.findBuiltTimezone(INSTITUTE)).thenReturn(TZ);
+        LocalDate fromDay = LocalDate.now(ZoneId.of(TZ)).minusDays(35);
+
+        service.compact(INSTITUTE);
+
+        // 00:00 in Asia/Kolkata is 18:30 UTC the day before
+        verify(crmReportCubeDao).rebuildRange(eq(INSTITUTE), eq(TZ), eq(Date.valueOf(fromDay)),
+                eq(Date.valueOf(END_DAY)),
+                eq(Timestamp.valueOf(LocalDateTime.of(fromDay.minusDays(1), LocalTime.of(18, 30)))),
+                any(Timestamp.class));
+        verify(crmReportCubeDao).foldDeltasBefore(INSTITUTE, Date.valueOf(fromDay));
+        verify(crmReportCubeDao, never()).startBuild(anyString(), anyString());
+    }
+
+    @Test
+    void reportsReadTheCubeOnlyInTheTimezoneItWasBuiltIn() {
+        when(crmReportCubeDao.findBuiltTimezone(INSTITUTE)).thenReturn(TZ);
+
+        assertTrue(service.isBuilt(INSTITUTE, TZ));
+        assertFalse(service.isBuilt(INSTITUTE, "UTC"));
+        when(crmReportCubeDao.findBuiltTimezone(INSTITUTE)).thenReturn(null);
+        assertFalse(service.isBuilt(INSTITUTE, TZ));
+        assertFalse(service.isBuilt(null, TZ));
+    }
+}
@@ -0,0 +1,165 @@
+package vacademy.io.admin_core_service.features.audience;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import vacademy.io.admin_core_service.features.audience.repository.AudienceResponseRepository;
+import vacademy.io.admin_core_service.features.audience.service.LeadDedupIndexService;
+import vacademy.io.admin_core_service.features.audience.service.LeadDedupSettingService.DedupField;
+import vacademy.io.admin_core_service.features.audience.util.KeyBloomFilter;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The pre-filter may only ever say "definitely new" for a key no lead of the
+ * institute has — whether the key was in the table at build time, written later
+ * by another replica, or just recorded by this one. A wrong "new" lets a duplicate
+ * lead through; a wrong "might exist" only costs the query we used to run anyway.
+ */
+class LeadDedupIndexServiceTest {
+
+    private static final String INSTITUTE = "inst-1";
+
+    private AudienceResponseRepository audienceResponseRepository;
+    private LeadDedupIndexService service;
+
+    @BeforeEach
+    void setUp() {
+        audienceResponseRepository = mock(AudienceResponseRepository.class);
+        when(audienceResponseRepository.findOldestRunningXid()).thenReturn(100L);
+        when(audienceResponseRepository.countDedupKeysForInstitute(INSTITUTE)).thenReturn(2L);
+        when(audienceResponseRepository.findDedupKeysForInstituteAfterId(eq(INSTITUTE), eq(""), anyInt()))
+                .thenReturn(List.of(
+                        new Object[] { "r1", "9876543210", "parent@example.com" },
+                        new Object[] { "r2", null, "other@example.com" }));
+        when(audienceResponseRepository.findDedupKeysForInstituteAfterXid(eq(INSTITUTE), anyLong(), anyString(),
+                anyInt())).thenReturn(List.of());
+
+        Executor direct = Runnable::run;
+        service = new LeadDedupIndexService();
+        ReflectionTestUtils.setField(service, "audienceResponseRepository", audienceResponseRepository);
+        ReflectionTestUtils.setField(service, "leadDedupIndexExecutor", direct);
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "maxCatchUpRows", 20_000);
+        ReflectionTestUtils.setField(service, "rebuildMinutes", 60L);
+        ReflectionTestUtils.invokeMethod(service, "init");
+    }
+
+    @Test
+    void keysAlreadyInTheTableMightExistAndNewOnesDoNot() {
+        assertTrue(mightExist(DedupField.PHONE, "9876543210"));
+        assertTrue(mightExist(DedupField.EMAIL, " Parent@Example.com "));
+        assertFalse(mightExist(DedupField.PHONE, "9000000001"));
+        assertFalse(mightExist(DedupField.EMAIL, "new@example.com"));
+
+        assertEquals(Set.of("other@example.com"), service.filterMightExist(INSTITUTE, DedupField.EMAIL,
+                List.of("other@example.com", "new@example.com")));
+    }
+
+    @Test
+    void aMissIsCheckedAgainstKeysAnotherReplicaJustCommitted() {
+        assertFalse(mightExist(DedupField.PHONE, "9000000001"));
+
+        when(audienceResponseRepository.findDedupKeysForInstituteAfterXid(eq(INSTITUTE), anyLong(), anyString(),
+                anyInt())).thenReturn(List.<Object[]>of(new Object[] { 101L, "r3", "9000000001", null }));
+
+        assertTrue(mightExist(DedupField.PHONE, "9000000001"));
+    }
+
+    @Test
+    void aBatchOfMissesRunsOneCatchUp() {
+        assertEquals(Set.of("9876543210"), service.filterMightExist(INSTITUTE, DedupField.PHONE,
+                List.of("9876543210", "9000000001", "9000000002", "9000000003")));
+
+        verify(audienceResponseRepository, times(1)).findDedupKeysForInstituteAfterXid(eq(INSTITUTE), anyLong(),
+                anyString(), anyInt());
+    }
+
+    @Test
+    void catchUpRereadsFromTheOldestWriterStillRunningAtTheLastScan() {
+        when(audienceResponseRepository.findOldestRunningXid()).thenReturn(100L, 120L, 130L);
+
+        assertFalse(mightExist(DedupField.PHONE, "9000000001"));
+        assertFalse(mightExist(DedupField.PHONE, "9000000002"));
+
+        // Built with 100 running, then a scan with 120 running: however long those
+        // writers take to commit, the next scans still start at or below them.
+        InOrder scans = inOrder(audienceResponseRepository);
+        scans.verify(audienceResponseRepository).findDedupKeysForInstituteAfterXid(INSTITUTE, 100L, "", 5_000);
+        scans.verify(audienceResponseRepository).findDedupKeysForInstituteAfterXid(INSTITUTE, 120L, "", 5_000);
+    }
+
+    @Test
+    void aMissThatCannotBeConfirmedGoesToTheDatabase() {
+        when(audienceResponseRepository.findDedupKeysForInstituteAfterXid(eq(INSTITUTE), anyLong(), anyString(),
+                anyInt())).thenThrow(new RuntimeException("connection reset"));
+
+        assertTrue(mightExist(DedupField.PHONE, "9000000001"));
+        assertEquals(Set.of("other@example.com", "new@example.com"), service.filterMightExist(INSTITUTE,
+                DedupField.EMAIL, List.of("other@example.com", "new@example.com")));
+    }
+
+    @Test
+    void aMissInsideAReadOnlyTransactionGoesToTheDatabase() {
+        assertTrue(service.filterMightExist(INSTITUTE, DedupField.PHONE, List.of("9000000001")).isEmpty());
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            assertTrue(mightExist(DedupField.PHONE, "9000000002"));
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+
+    @Test
+    void recordedKeysAreSeenStraightAway() {
+        assertFalse(mightExist(DedupField.EMAIL, "new@example.com"));
+
+        service.record(INSTITUTE, DedupField.EMAIL, List.of("New@Example.com"));
+
+        assertTrue(mightExist(DedupField.EMAIL, "new@example.com"));
+    }
+
+    @Test
+    void nonAsciiEmailsAlwaysGoToTheDatabase() {
+        assertTrue(mightExist(DedupField.EMAIL, "ÉLÈVE@example.com"));
+    }
+
+    @Test
+    void bloomFilterNeverForgetsAKeyAndStaysNearItsErrorRate() {
+        KeyBloomFilter filter = KeyBloomFilter.create(20_000, 0.01);
+        for (int i = 0; i < 20_000; i++) {
+            filter.put("P:" + (9_000_000_000L + i));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 20_000; i++) {
+            assertTrue(filter.mightContain("P:" + (9_000_000_000L + i)));
+            if (filter.mightContain("P:" + (8_000_000_000L + i))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 400, "false positives: " + falsePositives);
+    }
+
+    private boolean mightExist(DedupField field, String key) {
+        return !service.filterMightExist(INSTITUTE, field, List.of(key)).isEmpty();
+    }
+}
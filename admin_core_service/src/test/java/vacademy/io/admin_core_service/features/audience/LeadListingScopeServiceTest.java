@@ -0,0 +1,100 @@
+package vacademy.io.admin_core_service.features.audience;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import vacademy.io.admin_core_service.features.audience.service.AudienceRoleAccessService;
+import vacademy.io.admin_core_service.features.audience.service.AudienceRoleAccessService.EffectiveAccess;
+import vacademy.io.admin_core_service.features.audience.service.LeadListingScopeService;
+import vacademy.io.admin_core_service.features.audience.service.LeadListingScopeService.LeadListingScope;
+import vacademy.io.admin_core_service.features.counsellor_workbench.service.CounsellorScopeService;
+import vacademy.io.admin_core_service.features.suborg.service.SubOrgLeadScopeService;
+import vacademy.io.common.auth.model.CustomUserDetails;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A cached scope must be exactly what resolving it afresh would give, for as long
+ * as it is served: a new role on the caller's token, or an eviction after an
+ * access-relevant change, has to reach the very next listing.
+ */
+class LeadListingScopeServiceTest {
+
+    private static final String INSTITUTE = "inst-1";
+
+    private AudienceRoleAccessService audienceRoleAccessService;
+    private CounsellorScopeService counsellorScopeService;
+    private SubOrgLeadScopeService subOrgLeadScopeService;
+    private LeadListingScopeService service;
+
+    @BeforeEach
+    void setUp() {
+        audienceRoleAccessService = mock(AudienceRoleAccessService.class);
+        counsellorScopeService = mock(CounsellorScopeService.class);
+        subOrgLeadScopeService = mock(SubOrgLeadScopeService.class);
+        when(audienceRoleAccessService.resolveForCaller(any(), anyString()))
+                .thenReturn(EffectiveAccess.defaultMode());
+        when(audienceRoleAccessService.resolvedCallerRoles(any(), anyString()))
+                .thenReturn(Set.of("COUNSELLOR"));
+        when(subOrgLeadScopeService.subOrgScopedCounsellorUserIds(anyString())).thenReturn(List.of());
+        when(counsellorScopeService.isScopedCaller(anyString(), any(CustomUserDetails.class))).thenReturn(true);
+        when(counsellorScopeService.scopedCounsellorUserIds(INSTITUTE, "head"))
+                .thenReturn(List.of("head", "report-1", "report-2"));
+        service = new LeadListingScopeService(audienceRoleAccessService, counsellorScopeService, subOrgLeadScopeService);
+    }
+
+    private static CustomUserDetails caller(String userId) {
+        CustomUserDetails user = mock(CustomUserDetails.class);
+        when(user.getUserId()).thenReturn(userId);
+        return user;
+    }
+
+    @Test
+    void hierarchyIsResolvedOnceAcrossPages() {
+        CustomUserDetails head = caller("head");
+
+        LeadListingScope first = service.scopeFor(head, INSTITUTE);
+        LeadListingScope second = service.scopeFor(head, INSTITUTE);
+
+        assertEquals(List.of("head", "report-1", "report-2"), second.counsellorUserIds());
+        assertTrue(second.counsellorScoped());
+        assertFalse(second.subOrgScoped());
+        assertEquals(first, second);
+        verify(counsellorScopeService, times(1)).scopedCounsellorUserIds(INSTITUTE, "head");
+    }
+
+    @Test
+    void aRoleChangeOnTheTokenIsNotServedFromCache() {
+        CustomUserDetails head = caller("head");
+        service.scopeFor(head, INSTITUTE);
+
+        when(audienceRoleAccessService.resolvedCallerRoles(any(), anyString()))
+                .thenReturn(Set.of("COUNSELLOR", "ADMIN"));
+        when(counsellorScopeService.isScopedCaller(anyString(), any(CustomUserDetails.class))).thenReturn(false);
+
+        assertFalse(service.scopeFor(head, INSTITUTE).counsellorScoped());
+    }
+
+    @Test
+    void evictionReachesTheNextListing() {
+        CustomUserDetails head = caller("head");
+        service.scopeFor(head, INSTITUTE);
+
+        when(subOrgLeadScopeService.subOrgScopedCounsellorUserIds("head")).thenReturn(List.of("head", "member-1"));
+        service.evictInstitute(INSTITUTE);
+
+        LeadListingScope scope = service.scopeFor(head, INSTITUTE);
+        assertTrue(scope.subOrgScoped());
+        assertEquals(List.of("head", "member-1"), scope.counsellorUserIds());
+    }
+}
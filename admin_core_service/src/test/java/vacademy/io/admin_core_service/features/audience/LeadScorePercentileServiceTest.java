@@ -0,0 +1,104 @@
+package vacademy.io.admin_core_service.features.audience;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import vacademy.io.admin_core_service.features.audience.entity.LeadScore;
+import vacademy.io.admin_core_service.features.audience.repository.LeadScoreHistogramDao;
+import vacademy.io.admin_core_service.features.audience.service.LeadScorePercentileService;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Ranks read from the histogram must equal what
+ * PERCENT_RANK() OVER (PARTITION BY audience_id ORDER BY raw_score) * 100 wrote into
+ * the DECIMAL(5,2) column, ties included. The sync folds a campaign's deltas before
+ * rewriting it, and one failing campaign does not stop the rest.
+ */
+class LeadScorePercentileServiceTest {
+
+    private LeadScoreHistogramDao leadScoreHistogramDao;
+    private LeadScorePercentileService service;
+
+    @BeforeEach
+    void setUp() {
+        leadScoreHistogramDao = mock(LeadScoreHistogramDao.class);
+        service = new LeadScorePercentileService();
+        ReflectionTestUtils.setField(service, "leadScoreHistogramDao", leadScoreHistogramDao);
+        ReflectionTestUtils.setField(service, "transactionManager", mock(PlatformTransactionManager.class));
+    }
+
+    private static LeadScore score(String responseId, String audienceId, int rawScore) {
+        return LeadScore.builder()
+                .audienceResponseId(responseId)
+                .audienceId(audienceId)
+                .rawScore(rawScore)
+                .percentileRank(new BigDecimal("50.00"))
+                .build();
+    }
+
+    @Test
+    void matchesPercentRankWithTies() {
+        // campaign scores: 20, 40, 40, 70 -> PERCENT_RANK 0, 1/3, 1/3, 1
+        when(leadScoreHistogramDao.findBuckets(any())).thenReturn(List.of(
+                new Object[] { "aud-1", 20, 1L },
+                new Object[] { "aud-1", 40, 2L },
+                new Object[] { "aud-1", 70, 1L }));
+
+        Map<String, BigDecimal> ranks = service.percentileRanks(List.of(
+                score("r-low", "aud-1", 20),
+                score("r-mid", "aud-1", 40),
+                score("r-top", "aud-1", 70)));
+
+        assertEquals(new BigDecimal("0.00"), ranks.get("r-low"));
+        assertEquals(new BigDecimal("33.33"), ranks.get("r-mid"));
+        assertEquals(new BigDecimal("100.00"), ranks.get("r-top"));
+    }
+
+    @Test
+    void campaignsAreRankedSeparately() {
+        when(leadScoreHistogramDao.findBuckets(any())).thenReturn(List.of(
+                new Object[] { "aud-1", 10, 1L },
+                new Object[] { "aud-1", 90, 1L },
+                new Object[] { "aud-2", 50, 1L }));
+
+        Map<String, BigDecimal> ranks = service.percentileRanks(List.of(
+                score("r-1", "aud-1", 90),
+                score("r-2", "aud-2", 50)));
+
+        assertEquals(new BigDecimal("100.00"), ranks.get("r-1"));
+        // a lone lead ranks 0, as PERCENT_RANK over a one-row partition does
+        assertEquals(new BigDecimal("0.00"), ranks.get("r-2"));
+    }
+
+    @Test
+    void keepsTheStoredRankWhenTheCampaignHasNoHistogram() {
+        when(leadScoreHistogramDao.findBuckets(any())).thenReturn(List.of());
+
+        assertEquals(new BigDecimal("50.00"), service.percentileRank(score("r-1", "aud-9", 80)));
+    }
+
+    @Test
+    void syncFoldsEachChangedCampaignBeforeRewritingItAndSurvivesAFailure() {
+        when(leadScoreHistogramDao.findChangedAudiences()).thenReturn(List.of("aud-1", "aud-2"));
+        when(leadScoreHistogramDao.rewritePercentiles("aud-1")).thenThrow(new RuntimeException("lock timeout"));
+
+        service.syncChangedAudiences();
+
+        InOrder order = inOrder(leadScoreHistogramDao);
+        order.verify(leadScoreHistogramDao).foldDeltas("aud-1");
+        order.verify(leadScoreHistogramDao).rewritePercentiles("aud-1");
+        order.verify(leadScoreHistogramDao).foldDeltas("aud-2");
+        order.verify(leadScoreHistogramDao).rewritePercentiles("aud-2");
+    }
+}
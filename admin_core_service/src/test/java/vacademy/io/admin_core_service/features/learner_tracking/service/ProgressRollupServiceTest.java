@@ -0,0 +1,132 @@
+package vacademy.io.admin_core_service.features.learner_tracking.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import vacademy.io.admin_core_service.features.learner_operation.service.LearnerOperationService;
+import vacademy.io.admin_core_service.features.learner_tracking.repository.ActivityLogRepository;
+import vacademy.io.admin_core_service.features.learner_tracking.repository.ProgressRollupDao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The incremental rollup must move each level by exactly what the full average
+ * would: a slide change divided by the number of slides in the chapter, that
+ * change divided by the chapters in the module, and so on up to the batch.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ProgressRollupServiceTest {
+
+    private static final String USER = "learner-1";
+    private static final String CHAPTER = "chapter-1";
+    private static final String MODULE = "module-1";
+    private static final String SUBJECT = "subject-1";
+    private static final String SESSION = "package-session-1";
+
+    @Mock private ActivityLogRepository activityLogRepository;
+    @Mock private ProgressRollupDao progressRollupDao;
+    @Mock private LearnerOperationService learnerOperationService;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    @InjectMocks private ProgressRollupService service;
+
+    private void structure() {
+        when(activityLogRepository.resolveChapterRollupTargets(eq(USER), eq(CHAPTER), anyList(), anyList()))
+                .thenReturn(List.<Object[]>of(new Object[] { MODULE, SUBJECT, SESSION }));
+        when(progressRollupDao.countChapterSlides(CHAPTER)).thenReturn(4);
+        when(progressRollupDao.countModuleChapters(MODULE)).thenReturn(2);
+        when(progressRollupDao.countSubjectModules(SUBJECT)).thenReturn(5);
+        when(progressRollupDao.countPackageSessionSubjects(SESSION)).thenReturn(1);
+    }
+
+    @Test
+    @DisplayName("A burst of slide events is coalesced and each level moves by the child's change over its child count")
+    void coalescedDeltaPropagatesUpward() {
+        structure();
+        when(progressRollupDao.applyPercentageDelta(USER, "CHAPTER", CHAPTER, "PERCENTAGE_CHAPTER_COMPLETED", 12.5))
+                .thenReturn(new double[] { 10.0, 22.5 });
+        when(progressRollupDao.applyPercentageDelta(USER, "MODULE", MODULE, "PERCENTAGE_MODULE_COMPLETED", 6.25))
+                .thenReturn(new double[] { 50.0, 56.25 });
+        when(progressRollupDao.applyPercentageDelta(USER, "SUBJECT", SUBJECT, "PERCENTAGE_SUBJECT_COMPLETED", 1.25))
+                .thenReturn(new double[] { 20.0, 21.25 });
+        when(progressRollupDao.applyPercentageDelta(USER, "PACKAGE_SESSION", SESSION,
+                "PERCENTAGE_PACKAGE_SESSION_COMPLETED", 1.25)).thenReturn(new double[] { 20.0, 21.25 });
+
+        service.slideProgressed(USER, CHAPTER, null, null, null, 30.0);
+        service.slideProgressed(USER, CHAPTER, null, null, null, 20.0);
+        assertEquals(1, service.pendingCount());
+        service.flushAll();
+
+        assertEquals(0, service.pendingCount());
+        verify(progressRollupDao).applyPercentageDelta(USER, "PACKAGE_SESSION", SESSION,
+                "PERCENTAGE_PACKAGE_SESSION_COMPLETED", 1.25);
+        verify(activityLogRepository, never()).getChapterCompletionPercentage(anyString(), anyString(), anyList(),
+                anyList(), anyList());
+    }
+
+    @Test
+    @DisplayName("A level with no stored value is seeded from the full aggregate and passes its whole value up")
+    void missingLevelIsSeeded() {
+        structure();
+        when(activityLogRepository.getChapterCompletionPercentage(eq(USER), eq(CHAPTER), anyList(), anyList(),
+                anyList())).thenReturn(40.0);
+
+        service.slideProgressed(USER, CHAPTER, null, null, null, 100.0);
+        service.flushAll();
+
+        verify(learnerOperationService).addOrUpdateOperation(USER, "CHAPTER", CHAPTER,
+                "PERCENTAGE_CHAPTER_COMPLETED", "40.0");
+        verify(progressRollupDao).applyPercentageDelta(USER, "MODULE", MODULE, "PERCENTAGE_MODULE_COMPLETED", 20.0);
+    }
+
+    @Test
+    @DisplayName("A heartbeat that did not raise the slide only refreshes the chapter's last viewed slide")
+    void unchangedSlideSkipsTheRollup() {
+        structure();
+
+        service.slideProgressed(USER, CHAPTER, null, null, null, 0);
+        service.flushAll();
+
+        verify(progressRollupDao, never()).applyPercentageDelta(anyString(), anyString(), anyString(), anyString(),
+                anyDouble());
+        verify(learnerOperationService).deleteLearnerOperationByUserIdSourceAndSourceIdAndOperation(USER, "CHAPTER",
+                CHAPTER, "LAST_SLIDE_VIEWED");
+    }
+
+    @Test
+    @DisplayName("Due rollups are flushed on the rollup executor, and a key already handed over is not handed over again")
+    void flushDueHandsEachKeyToTheExecutorOnce() {
+        structure();
+        List<Runnable> submitted = new ArrayList<>();
+        ReflectionTestUtils.setField(service, "progressRollupExecutor", (Executor) submitted::add);
+
+        service.slideProgressed(USER, CHAPTER, null, null, null, 0);
+        service.flushDue();
+        service.flushDue();
+        assertEquals(1, submitted.size());
+
+        submitted.get(0).run();
+        assertEquals(0, service.pendingCount());
+        service.flushDue();
+        assertEquals(1, submitted.size());
+    }
+}
@@ -0,0 +1,70 @@
+package vacademy.io.admin_core_service.features.learner_tracking.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The incremental merge must land on the same total as the full re-merge it
+ * replaced (LearnerTrackingAsyncService.getUniqueWatchedDurationMillis),
+ * whatever order the intervals arrive in.
+ */
+class WatchCoverageTest {
+
+    @Test
+    @DisplayName("Overlapping and touching ranges collapse; the total counts each millisecond once")
+    void mergesOverlaps() {
+        WatchCoverage coverage = WatchCoverage.empty();
+        coverage.add(60_000L, 90_000L);
+        coverage.add(0L, 30_000L);
+        coverage.add(20_000L, 50_000L);
+        coverage.add(50_000L, 60_000L);
+
+        assertEquals(90_000L, coverage.coveredMillis());
+        assertEquals(1, coverage.segmentCount());
+        assertEquals("0-90000", coverage.encode());
+    }
+
+    @Test
+    @DisplayName("A range spanning several islands replaces them all")
+    void bridgesIslands() {
+        WatchCoverage coverage = WatchCoverage.decode("0-10,20-30,40-50,70-80");
+
+        assertTrue(coverage.add(5L, 45L));
+
+        assertEquals("0-50,70-80", coverage.encode());
+        assertEquals(60L, coverage.coveredMillis());
+    }
+
+    @Test
+    @DisplayName("Re-sent, contained, inverted and null ranges leave the coverage untouched")
+    void ignoresNoOps() {
+        WatchCoverage coverage = WatchCoverage.decode("100-200");
+
+        assertFalse(coverage.add(100L, 200L));
+        assertFalse(coverage.add(120L, 150L));
+        assertFalse(coverage.add(300L, 250L));
+        assertFalse(coverage.add(null, 250L));
+
+        assertEquals("100-200", coverage.encode());
+        assertEquals(100L, coverage.coveredMillis());
+    }
+
+    @Test
+    @DisplayName("Decoding an encoded set restores the same total")
+    void roundTrips() {
+        WatchCoverage coverage = WatchCoverage.empty();
+        for (long start = 0; start < 10_000; start += 1_500) {
+            coverage.add(start, start + 1_000);
+        }
+
+        WatchCoverage restored = WatchCoverage.decode(coverage.encode());
+
+        assertEquals(coverage.coveredMillis(), restored.coveredMillis());
+        assertEquals(coverage.segmentCount(), restored.segmentCount());
+        assertEquals(WatchCoverage.empty().coveredMillis(), WatchCoverage.decode("").coveredMillis());
+    }
+}
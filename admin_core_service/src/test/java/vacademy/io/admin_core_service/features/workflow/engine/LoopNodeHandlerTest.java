@@ -0,0 +1,83 @@
+package vacademy.io.admin_core_service.features.workflow.engine;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import vacademy.io.admin_core_service.features.workflow.spel.SpelEvaluator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A node's {@code parallelism} is a hard cap on its own in-flight items, not just a switch into
+ * parallel mode: with a larger institute budget and a larger pool, a node asking for 2 must still
+ * never run more than 2 at once, and results must come back in source order.
+ */
+class LoopNodeHandlerTest {
+
+    private ExecutorService pool;
+    private SpelEvaluator spelEvaluator;
+    private LoopNodeHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        pool = Executors.newFixedThreadPool(8);
+        spelEvaluator = mock(SpelEvaluator.class);
+        handler = new LoopNodeHandler(new ObjectMapper(), spelEvaluator, pool, 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void parallelismCapsInFlightItemsBelowTheInstituteBudget() {
+        List<Integer> source = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            source.add(i);
+        }
+        when(spelEvaluator.evaluate(eq("#src"), anyMap())).thenReturn(source);
+
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(spelEvaluator.evaluate(eq("#item * 10"), anyMap(), any())).thenAnswer(inv -> {
+            int now = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(now, Math::max);
+            try {
+                Thread.sleep(5);
+                Map<String, Object> vars = inv.getArgument(2);
+                return (Integer) vars.get("item") * 10;
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+
+        Map<String, Object> context = new HashMap<>();
+        context.put("instituteId", "inst-1");
+        Map<String, Object> result = handler.handle(context,
+                "{\"source\":\"#src\",\"compute\":\"#item * 10\",\"parallelism\":2,\"chunkSize\":16}",
+                Map.of(), 0);
+
+        assertTrue(maxInFlight.get() <= 2, "in flight peaked at " + maxInFlight.get());
+        assertEquals(40, result.get("successCount"));
+        List<?> results = (List<?>) result.get("loopResults");
+        for (int i = 0; i < 40; i++) {
+            assertEquals(i * 10, results.get(i));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package vacademy.io.admin_core_service.features.workflow.engine.email;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A timed-out send must be cancelled rather than left running on the dispatch pool, and its
+ * in-flight slot must only come back once it has returned. A full pool must never push a send
+ * onto the shared delay thread.
+ */
+class EmailDispatchPipelineTest {
+
+    private ExecutorService pool;
+    private EmailDispatchPipeline pipeline;
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+        pool.shutdownNow();
+    }
+
+    @Test
+    void timedOutSendIsInterruptedAndFreesItsSlotWhenItReturns() throws Exception {
+        pool = Executors.newFixedThreadPool(2);
+        pipeline = new EmailDispatchPipeline(pool, new SimpleMeterRegistry());
+        EmailDispatchPipeline.Run run = pipeline.start("inst-1", 0, 1, 50);
+
+        CountDownLatch interrupted = new CountDownLatch(1);
+        run.submit("hung chunk", 10, () -> {
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                Thread.currentThread().interrupt();
+            }
+        }, error -> { });
+
+        CountDownLatch secondSent = new CountDownLatch(1);
+        // maxInFlight is 1: this blocks until the hung send has actually returned
+        run.submit("next chunk", 10, secondSent::countDown, error -> { });
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertTrue(secondSent.await(5, TimeUnit.SECONDS));
+        run.awaitCompletion();
+    }
+
+    @Test
+    void sendThatIgnoresItsInterruptFailsTheNextChunkInsteadOfBlockingTheProducer() throws Exception {
+        pool = Executors.newFixedThreadPool(2);
+        pipeline = new EmailDispatchPipeline(pool, new SimpleMeterRegistry());
+        EmailDispatchPipeline.Run run = pipeline.start("inst-1", 0, 1, 50);
+
+        CountDownLatch release = new CountDownLatch(1);
+        run.submit("stuck chunk", 10, () -> {
+            while (release.getCount() > 0) {
+                try {
+                    release.await();
+                } catch (InterruptedException ignored) {
+                    // a client that swallows the interrupt
+                }
+            }
+        }, error -> { });
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicInteger sends = new AtomicInteger();
+        long startedAt = System.nanoTime();
+        run.submit("next chunk", 10, sends::incrementAndGet, failure::set);
+
+        assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startedAt) < 5);
+        assertTrue(failure.get() instanceof TimeoutException);
+        assertEquals(0, sends.get());
+        release.countDown();
+        run.awaitCompletion();
+    }
+
+    @Test
+    void rejectedSendIsRetriedOnThePoolNotRunOnTheCaller() throws Exception {
+        pool = Executors.newSingleThreadExecutor(r -> new Thread(r, "test-dispatch"));
+        AtomicInteger rejections = new AtomicInteger(2);
+        pipeline = new EmailDispatchPipeline(task -> {
+            if (rejections.getAndDecrement() > 0) {
+                throw new RejectedExecutionException("full");
+            }
+            pool.execute(task);
+        }, new SimpleMeterRegistry());
+        EmailDispatchPipeline.Run run = pipeline.start("inst-1", 0, 4, 0);
+
+        AtomicReference<String> sentOn = new AtomicReference<>();
+        run.submit("chunk", 10, () -> sentOn.set(Thread.currentThread().getName()), error -> { });
+        run.awaitCompletion();
+
+        assertEquals("test-dispatch", sentOn.get());
+        assertFalse(rejections.get() > 0);
+    }
+}
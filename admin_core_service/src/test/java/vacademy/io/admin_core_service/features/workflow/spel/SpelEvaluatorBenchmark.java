@@ -0,0 +1,103 @@
+package vacademy.io.admin_core_service.features.workflow.spel;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.expression.MapAccessor;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-item expression cost inside a LOOP/FILTER over a realistic recipient list: the pre-cache
+ * path (new parser + parse on every call) against {@link SpelEvaluator}'s cached, MIXED-compiled
+ * path. Not a unit test — run with {@code main} from the IDE or
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=...}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpelEvaluatorBenchmark {
+
+    @Param({
+            "#item['status'] == 'ACTIVE' && #item['remainingDays'] <= 3",
+            "#ctx['institute']['name'] + ' - ' + #item['fullName']",
+            "#ctx['learners'].?[#this['remainingDays'] < 7].size()"
+    })
+    public String expression;
+
+    private SpelEvaluator evaluator;
+    private Map<String, Object> context;
+    private List<Map<String, Object>> items;
+
+    @Setup
+    public void setUp() {
+        evaluator = new SpelEvaluator(new WorkflowDateFunctions(), new SimpleMeterRegistry(), 2000);
+        items = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Map<String, Object> learner = new LinkedHashMap<>();
+            learner.put("userId", "user-" + i);
+            learner.put("fullName", "Learner " + i);
+            learner.put("email", "learner" + i + "@example.com");
+            learner.put("mobileNumber", "98765" + String.format("%05d", i));
+            learner.put("status", i % 5 == 0 ? "INACTIVE" : "ACTIVE");
+            learner.put("remainingDays", i % 30);
+            items.add(learner);
+        }
+        context = new HashMap<>();
+        context.put("instituteId", "inst-1");
+        context.put("institute", Map.of("name", "Acme Academy", "id", "inst-1"));
+        context.put("learners", items);
+    }
+
+    @Benchmark
+    public void uncachedPerItem(Blackhole bh) {
+        for (Map<String, Object> item : items) {
+            bh.consume(evaluateUncached(expression, item));
+        }
+    }
+
+    @Benchmark
+    public void cachedPerItem(Blackhole bh) {
+        for (Map<String, Object> item : items) {
+            bh.consume(evaluator.evaluate(expression, context, Map.of("item", item)));
+        }
+    }
+
+    /** The evaluation path as it was before the expression cache. */
+    private Object evaluateUncached(String expressionString, Map<String, Object> item) {
+        StandardEvaluationContext ctx = new StandardEvaluationContext(context);
+        ctx.addPropertyAccessor(new MapAccessor());
+        ctx.setVariable("ctx", context);
+        ctx.setVariable("item", item);
+        return new SpelExpressionParser().parseExpression(expressionString.trim()).getValue(ctx);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SpelEvaluatorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,60 @@
+package vacademy.io.admin_core_service.features.workflow.spel;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pins the behaviour the expression cache must not change: a cached (and, after enough runs,
+ * compiled) expression still sees each call's own variables, survives a change in context shape,
+ * and a parse failure is reported on every call rather than being cached.
+ */
+class SpelEvaluatorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SpelEvaluator evaluator = new SpelEvaluator(new WorkflowDateFunctions(), registry, 100);
+
+    @Test
+    void cachedExpressionSeesPerCallItemVariable() {
+        Map<String, Object> ctx = Map.of("instituteId", "inst-1");
+        // Enough iterations for MIXED mode to compile the expression part-way through.
+        for (int i = 0; i < 500; i++) {
+            Object result = evaluator.evaluate("#item['n'] * 2", ctx, Map.of("item", Map.of("n", i)));
+            assertEquals(i * 2, result);
+        }
+    }
+
+    @Test
+    void compiledExpressionFallsBackWhenContextShapeChanges() {
+        for (int i = 0; i < 200; i++) {
+            evaluator.evaluate("#ctx['user']['name']", Map.of("user", Map.of("name", "a")));
+        }
+        Map<String, Object> user = new LinkedHashMap<>();
+        user.put("name", List.of("b"));
+        Object result = evaluator.evaluate("#ctx['user']['name']", Map.of("user", user));
+        assertEquals(List.of("b"), result);
+    }
+
+    @Test
+    void parseFailureIsNotCached() {
+        assertThrows(SpelEvaluator.SpelEvaluationError.class, () -> evaluator.evaluate("#ctx[", Map.of()));
+        assertThrows(SpelEvaluator.SpelEvaluationError.class, () -> evaluator.evaluate("#ctx[", Map.of()));
+    }
+
+    @Test
+    void repeatedEvaluationHitsCache() {
+        for (int i = 0; i < 10; i++) {
+            evaluator.evaluate("1 + 1", Map.of());
+        }
+        double hits = registry.get("cache.gets").tag("cache", "workflow.spel.expressions")
+                .tag("result", "hit").functionCounter().count();
+        assertTrue(hits >= 9, "expected cache hits, got " + hits);
+    }
+}
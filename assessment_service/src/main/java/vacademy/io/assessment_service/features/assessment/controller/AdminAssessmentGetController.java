@@ -9,6 +9,7 @@ import vacademy.io.assessment_service.features.assessment.dto.admin_get_dto.*;
 import vacademy.io.assessment_service.features.assessment.dto.admin_get_dto.request.RevaluateRequest;
 import vacademy.io.assessment_service.features.assessment.dto.admin_get_dto.response.AssessmentOverviewResponse;
 import vacademy.io.assessment_service.features.assessment.dto.admin_get_dto.response.QuestionInsightsResponse;
+import vacademy.io.assessment_service.features.assessment.dto.admin_get_dto.response.RevaluationJobStatusResponse;
 import vacademy.io.assessment_service.features.assessment.dto.admin_get_dto.response.StudentReportResponse;
 import vacademy.io.assessment_service.features.assessment.dto.admin_get_dto.response.TotalMarksAssessmentResponse;
 import vacademy.io.assessment_service.features.assessment.manager.AdminAssessmentGetManager;
@@ -84,6 +85,12 @@ public class AdminAssessmentGetController {
         return adminAssessmentGetManager.revaluateAssessment(userDetails, assessmentId, methodType, request, instituteId);
     }
 
+    @GetMapping("/revaluate/status")
+    public ResponseEntity<RevaluationJobStatusResponse> getRevaluationStatus(@RequestAttribute("user") CustomUserDetails userDetails,
+                                                                             @RequestParam(name = "assessmentId") String assessmentId) {
+        return adminAssessmentGetManager.getRevaluationStatus(userDetails, assessmentId);
+    }
+
     @GetMapping("/init/total-marks")
     public ResponseEntity<TotalMarksAssessmentResponse> initAssessmentMarks(@RequestAttribute("user") CustomUserDetails user,
                                                                             @RequestParam(name = "assessmentId") String assessmentId) {
@@ -0,0 +1,9 @@
+package vacademy.io.assessment_service.features.assessment.dto.admin_get_dto.response;
+
+/**
+ * A respondent row as the export reads it: the list columns plus the response
+ * row id the export pages by.
+ */
+public interface RespondentExportRowDto extends RespondentListDto {
+    String getResponseId();
+}
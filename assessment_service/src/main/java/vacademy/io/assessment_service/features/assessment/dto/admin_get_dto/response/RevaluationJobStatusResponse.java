@@ -0,0 +1,29 @@
+package vacademy.io.assessment_service.features.assessment.dto.admin_get_dto.response;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Date;
+
+
+@Getter
+@Setter
+@AllArgsConstructor
+@Builder
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class RevaluationJobStatusResponse {
+    String jobId;
+    String methodType;
+    String status;
+    Integer totalCount;
+    Integer processedCount;
+    Integer failedCount;
+    Integer resumeCount;
+    String errorMessage;
+    Date startedAt;
+    Date completedAt;
+}
@@ -20,8 +20,9 @@ import java.util.Date;
 public class RenderPacket {
     private final String attemptId;
     private final String userId;
-    private final String studentName;      // zip entry name + index.csv
-    private final String studentEmail;     // index.csv only
+    private final String studentName;      // zip entry name + index.csv + report identity block
+    private final String studentEmail;     // index.csv + report identity block
+    private final String registrationUsername; // report identity block
     private final Date attemptUpdatedAt;   // stale detection (§8.4)
     private final String existingReportPdfFileId; // attempt.report_pdf_file_id, for REUSED
     private final StudentReportOverallDetailDto detail;
@@ -0,0 +1,79 @@
+package vacademy.io.assessment_service.features.assessment.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.util.Date;
+
+/**
+ * Revaluation job row: request, progress counters and the resume cursor
+ * ({@code lastAttemptId}, advanced in the same transaction as each chunk's
+ * marks). Plain String ids, like {@link AssessmentReportExportJob}, because
+ * the row is read on background threads outside any request session.
+ */
+@Entity
+@Table(name = "assessment_revaluation_job")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssessmentRevaluationJob {
+
+    @Id
+    @UuidGenerator
+    @Column(name = "id")
+    private String id;
+
+    @Column(name = "assessment_id", nullable = false)
+    private String assessmentId;
+
+    @Column(name = "institute_id")
+    private String instituteId;
+
+    @Column(name = "method_type", nullable = false, length = 50)
+    private String methodType;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status;
+
+    @Column(name = "request_json", columnDefinition = "TEXT")
+    private String requestJson;
+
+    @Column(name = "total_count", nullable = false)
+    @Builder.Default
+    private Integer totalCount = 0;
+
+    @Column(name = "processed_count", nullable = false)
+    @Builder.Default
+    private Integer processedCount = 0;
+
+    @Column(name = "failed_count", nullable = false)
+    @Builder.Default
+    private Integer failedCount = 0;
+
+    @Column(name = "last_attempt_id")
+    private String lastAttemptId;
+
+    @Column(name = "resume_count", nullable = false)
+    @Builder.Default
+    private Integer resumeCount = 0;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "started_at")
+    private Date startedAt;
+
+    @Column(name = "completed_at")
+    private Date completedAt;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private Date createdAt;
+
+    // Updatable for the same reason as on AssessmentReportExportJob: no ON UPDATE
+    // trigger, and this column is what the stale-run sweep compares against.
+    @Column(name = "updated_at")
+    private Date updatedAt;
+}
@@ -0,0 +1,5 @@
+package vacademy.io.assessment_service.features.assessment.enums;
+
+public enum RevaluationJobStatus {
+    PENDING, IN_PROGRESS, COMPLETED, FAILED
+}
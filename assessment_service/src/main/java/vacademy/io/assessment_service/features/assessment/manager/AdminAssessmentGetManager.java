@@ -16,17 +16,21 @@ import vacademy.io.assessment_service.features.assessment.dto.admin_get_dto.*;
 import vacademy.io.assessment_service.features.assessment.dto.admin_get_dto.request.RevaluateRequest;
 import vacademy.io.assessment_service.features.assessment.dto.admin_get_dto.response.*;
 import vacademy.io.assessment_service.features.assessment.entity.Assessment;
+import vacademy.io.assessment_service.features.assessment.entity.AssessmentRevaluationJob;
 import vacademy.io.assessment_service.features.assessment.entity.Section;
 import vacademy.io.assessment_service.features.assessment.enums.AssessmentModeEnum;
 import vacademy.io.assessment_service.features.assessment.enums.AssessmentStatus;
 import vacademy.io.assessment_service.features.assessment.enums.AssessmentVisibility;
 import vacademy.io.assessment_service.features.assessment.enums.RevaluateRequestEnum;
+import vacademy.io.assessment_service.features.assessment.enums.RevaluationJobStatus;
 import vacademy.io.assessment_service.features.assessment.repository.AssessmentRepository;
 import vacademy.io.assessment_service.features.assessment.repository.AssessmentUserRegistrationRepository;
 import vacademy.io.assessment_service.features.assessment.repository.SectionRepository;
 import vacademy.io.assessment_service.features.assessment.repository.StudentAttemptRepository;
 import vacademy.io.assessment_service.features.assessment.service.StudentAttemptService;
 import vacademy.io.assessment_service.features.assessment.service.assessment_get.AssessmentMapper;
+import vacademy.io.assessment_service.features.assessment.service.leaderboard.AssessmentLeaderboardService;
+import vacademy.io.assessment_service.features.assessment.service.revaluation.AssessmentRevaluationService;
 import vacademy.io.assessment_service.features.learner_assessment.dto.QuestionStatusDto;
 import vacademy.io.assessment_service.features.learner_assessment.service.QuestionWiseMarksService;
 import vacademy.io.assessment_service.features.question_core.enums.EvaluationTypes;
@@ -49,6 +53,9 @@ public class AdminAssessmentGetManager {
     @Autowired
     StudentAttemptRepository studentAttemptRepository;
 
+    @Autowired
+    AssessmentLeaderboardService assessmentLeaderboardService;
+
     @Autowired
     AssessmentLinkQuestionsManager assessmentLinkQuestionsManager;
 
@@ -64,6 +71,9 @@ public class AdminAssessmentGetManager {
     @Autowired
     SectionRepository sectionRepository;
 
+    @Autowired
+    AssessmentRevaluationService assessmentRevaluationService;
+
     public ResponseEntity<AssessmentAdminListInitDto> assessmentAdminListInit(CustomUserDetails user, String instituteId) {
         AssessmentAdminListInitDto assessmentAdminListInitDto = new AssessmentAdminListInitDto();
         assessmentAdminListInitDto.setAssessmentAccessStatuses(Arrays.stream(AssessmentVisibility.values()).map(AssessmentVisibility::name).toList());
@@ -120,7 +130,10 @@ public class AdminAssessmentGetManager {
         Pageable pageable = PageRequest.of(pageNo, pageSize, sortColumn);
         Page<LeaderBoardDto> paginatedLeaderboard = null;
 
-        if (StringUtils.hasText(filter.getName())) {
+        if (sortColumn.isUnsorted()) {
+            // Rank order is what the index keeps; only a custom sort still needs the SQL ranking
+            paginatedLeaderboard = assessmentLeaderboardService.page(assessmentId, instituteId, filter.getStatus(), filter.getName(), pageable);
+        } else if (StringUtils.hasText(filter.getName())) {
             paginatedLeaderboard = studentAttemptRepository.findLeaderBoardForAssessmentAndInstituteIdWithSearch(filter.getName(), assessmentId, instituteId, filter.getStatus(), pageable);
         } else {
             paginatedLeaderboard = studentAttemptRepository.findLeaderBoardForAssessmentAndInstituteIdWithoutSearch(assessmentId, instituteId, filter.getStatus(), pageable);
@@ -303,36 +316,63 @@ public class AdminAssessmentGetManager {
         if (Objects.isNull(request) || Objects.isNull(request.getAttemptIds()) || Objects.isNull(request.getQuestions()))
             throw new VacademyException("Invalid Request");
 
-        try {
-            studentAttemptService.revaluateCustomParticipantAndQuestionsWrapper(assessment, request, instituteId);
-        } catch (Exception e) {
-            log.error("[REVALUATE ERROR]: " + e.getMessage());
-        }
-        return ResponseEntity.ok("Done");
+        return startRevaluation(assessment, RevaluateRequestEnum.PARTICIPANTS_AND_QUESTIONS, request, instituteId);
     }
 
     private ResponseEntity<String> revaluateAssessmentForParticipantsAndAllAssessment(Assessment assessment, RevaluateRequest request, String instituteId) {
         if (Objects.isNull(request) || Objects.isNull(request.getAttemptIds()))
             throw new VacademyException("Invalid Request");
-        try {
-            studentAttemptService.revaluateForParticipantIdsWrapper(assessment, request.getAttemptIds(), instituteId);
-        } catch (Exception e) {
-            log.error("[REVALUATE ERROR]: " + e.getMessage());
-        }
 
-        return ResponseEntity.ok("Done");
+        return startRevaluation(assessment, RevaluateRequestEnum.ENTIRE_ASSESSMENT_PARTICIPANTS, request, instituteId);
     }
 
     private ResponseEntity<String> revaluateForAllParticipants(Assessment assessment, String instituteId) {
+        return startRevaluation(assessment, RevaluateRequestEnum.ENTIRE_ASSESSMENT, null, instituteId);
+    }
+
+    /**
+     * Runs in the background as a job; progress is served by {@link #getRevaluationStatus}.
+     * "Done" only means the job was recorded and dispatched — a job that could not be started
+     * is reported to the caller instead.
+     */
+    private ResponseEntity<String> startRevaluation(Assessment assessment, RevaluateRequestEnum methodType,
+                                                    RevaluateRequest request, String instituteId) {
+        AssessmentRevaluationJob job;
         try {
-            studentAttemptService.revaluateForAllParticipantsWrapper(assessment, instituteId);
+            job = assessmentRevaluationService.start(assessment, methodType, request, instituteId);
+        } catch (VacademyException e) {
+            throw e;
         } catch (Exception e) {
-            log.error("[REVALUATE ERROR]: " + e.getMessage());
+            log.error("[REVALUATE ERROR]: could not start {} revaluation for assessment {}",
+                    methodType, assessment.getId(), e);
+            throw new VacademyException("Could not start revaluation: " + e.getMessage(), e);
         }
 
+        // A full dispatch pool runs the job on this thread, so it may already have failed.
+        AssessmentRevaluationJob current = assessmentRevaluationService.getJob(job.getId()).orElse(job);
+        if (RevaluationJobStatus.FAILED.name().equals(current.getStatus())) {
+            throw new VacademyException("Revaluation failed: " + current.getErrorMessage());
+        }
         return ResponseEntity.ok("Done");
     }
 
+    public ResponseEntity<RevaluationJobStatusResponse> getRevaluationStatus(CustomUserDetails userDetails, String assessmentId) {
+        AssessmentRevaluationJob job = assessmentRevaluationService.getLatestJob(assessmentId)
+                .orElseThrow(() -> new VacademyException("No revaluation found for assessment"));
+        return ResponseEntity.ok(RevaluationJobStatusResponse.builder()
+                .jobId(job.getId())
+                .methodType(job.getMethodType())
+                .status(job.getStatus())
+                .totalCount(job.getTotalCount())
+                .processedCount(job.getProcessedCount())
+                .failedCount(job.getFailedCount())
+                .resumeCount(job.getResumeCount())
+                .errorMessage(job.getErrorMessage())
+                .startedAt(job.getStartedAt())
+                .completedAt(job.getCompletedAt())
+                .build());
+    }
+
     public ResponseEntity<TotalMarksAssessmentResponse> initTotalAssessmentMarks(CustomUserDetails user, String assessmentId) {
         return ResponseEntity.ok(getTotalMarksForAssessment(assessmentId));
     }
@@ -3,8 +3,6 @@ package vacademy.io.assessment_service.features.assessment.manager;
 import com.itextpdf.html2pdf.ConverterProperties;
 import com.itextpdf.html2pdf.HtmlConverter;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.InputStreamResource;
-import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -12,11 +10,14 @@ import org.springframework.stereotype.Component;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import vacademy.io.assessment_service.features.assessment.dto.AssessmentUserFilter;
 import vacademy.io.assessment_service.features.assessment.dto.LeaderBoardDto;
 import vacademy.io.assessment_service.features.assessment.dto.ParticipantsDetailsDto;
 import vacademy.io.assessment_service.features.assessment.dto.admin_get_dto.request.RespondentFilter;
 import vacademy.io.assessment_service.features.assessment.dto.admin_get_dto.response.MarksRankDto;
+import vacademy.io.assessment_service.features.assessment.dto.admin_get_dto.response.RespondentExportRowDto;
 import vacademy.io.assessment_service.features.assessment.dto.admin_get_dto.response.RespondentListDto;
 import vacademy.io.assessment_service.features.assessment.dto.admin_get_dto.response.StudentReportOverallDetailDto;
 import vacademy.io.assessment_service.features.assessment.dto.export.LeaderboardExportDto;
@@ -43,26 +44,32 @@ import vacademy.io.assessment_service.features.assessment.repository.AssessmentR
 import vacademy.io.assessment_service.features.assessment.repository.AssessmentUserRegistrationRepository;
 import vacademy.io.assessment_service.features.assessment.repository.SectionRepository;
 import vacademy.io.assessment_service.features.assessment.repository.StudentAttemptRepository;
+import vacademy.io.assessment_service.features.assessment.service.leaderboard.AssessmentLeaderboardService;
+import vacademy.io.assessment_service.features.assessment.service.leaderboard.LeaderboardView;
 import vacademy.io.assessment_service.features.assessment.service.HtmlBuilderService;
+import vacademy.io.assessment_service.features.assessment.service.export.KeysetPager;
 import vacademy.io.assessment_service.features.assessment.service.export.ReportExportJobFactory;
 import vacademy.io.assessment_service.features.assessment.service.export.ReportExportProperties;
 import vacademy.io.assessment_service.features.assessment.service.export.ReportZipAssemblyService;
 import vacademy.io.assessment_service.features.assessment.service.export.ReportZipExportService;
+import vacademy.io.assessment_service.features.assessment.service.export.StreamingTableExporter;
 import vacademy.io.assessment_service.features.client.AdminCoreServiceClient;
 import vacademy.io.assessment_service.features.learner_assessment.dto.ReportClassContext;
 import vacademy.io.assessment_service.features.learner_assessment.dto.StudentComparisonDto;
 import vacademy.io.assessment_service.features.learner_assessment.service.LearnerReportService;
 import vacademy.io.common.auth.model.CustomUserDetails;
-import vacademy.io.common.core.utils.DataToCsvConverter;
 import vacademy.io.common.core.utils.DateUtil;
 import vacademy.io.common.exceptions.VacademyException;
 import vacademy.io.common.media.service.FileService;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.TimeZone;
+import java.util.function.Supplier;
 
 @Component
 @lombok.extern.slf4j.Slf4j
@@ -76,9 +83,15 @@ public class AdminExportManager {
     // are joined into a single cell rather than silently dropping all but one.
     private static final String MULTI_ANSWER_SEPARATOR = "; ";
 
+    // Rows read per round trip by the streamed exports; one page is all an export holds.
+    private static final int EXPORT_PAGE_SIZE = 1000;
+
     @Autowired
     StudentAttemptRepository studentAttemptRepository;
 
+    @Autowired
+    AssessmentLeaderboardService assessmentLeaderboardService;
+
     @Autowired
     AssessmentUserRegistrationRepository assessmentUserRegistrationRepository;
 
@@ -153,12 +166,20 @@ public class AdminExportManager {
         return result.toString().trim();
     }
 
-    public ResponseEntity<byte[]> getLeaderBoardCsvExport(CustomUserDetails user, String assessmentId, String instituteId) {
-
-        List<LeaderBoardDto> leaderBoardDtos = studentAttemptRepository.findLeaderBoardForAssessmentAndInstituteId(assessmentId, instituteId, List.of("ACTIVE"));
-        List<LeaderboardExportDto> leaderboardCsvDtos = createCsvDtoFromLeaderboardDto(leaderBoardDtos);
-        return DataToCsvConverter.convertListToCsv(leaderboardCsvDtos);
+    public ResponseEntity<StreamingResponseBody> getLeaderBoardCsvExport(CustomUserDetails user, String assessmentId, String instituteId) {
+        LeaderboardView leaderboard = assessmentLeaderboardService.view(assessmentId, instituteId, List.of("ACTIVE"));
+        return StreamingTableExporter.csv(LeaderboardExportDto.class, leaderboardExportPages(leaderboard));
+    }
 
+    // The ranked board is already held by the leaderboard index; it is exported in
+    // slices so the export rows for the whole board never exist at once.
+    private Supplier<List<LeaderboardExportDto>> leaderboardExportPages(LeaderboardView leaderboard) {
+        int[] offset = {0};
+        return () -> {
+            List<LeaderBoardDto> rows = leaderboard.range(offset[0], offset[0] + EXPORT_PAGE_SIZE);
+            offset[0] += rows.size();
+            return createCsvDtoFromLeaderboardDto(rows);
+        };
     }
 
     private List<LeaderboardExportDto> createCsvDtoFromLeaderboardDto(List<LeaderBoardDto> leaderBoardDtos) {
@@ -176,19 +197,20 @@ public class AdminExportManager {
         return response;
     }
 
-    public ResponseEntity<InputStreamResource> getLeaderboardPdfExport(CustomUserDetails user, String assessmentId, String instituteId) {
+    public ResponseEntity<StreamingResponseBody> getLeaderboardPdfExport(CustomUserDetails user, String assessmentId, String instituteId) {
         Optional<Assessment> assessmentOptional = assessmentRepository.findById(assessmentId);
         if (assessmentOptional.isEmpty()) throw new VacademyException("Assessment Not Found");
 
-        List<LeaderBoardDto> leaderBoardDtos = studentAttemptRepository.findLeaderBoardForAssessmentAndInstituteId(assessmentId, instituteId, List.of("ACTIVE"));
-        List<LeaderboardExportDto> leaderboardCsvDtos = createCsvDtoFromLeaderboardDto(leaderBoardDtos);
-        return DataToCsvConverter.buildPdfResponse(assessmentOptional.get().getName().toUpperCase(), "LEADERBOARD", leaderboardCsvDtos, "leaderboard");
+        LeaderboardView leaderboard = assessmentLeaderboardService.view(assessmentId, instituteId, List.of("ACTIVE"));
+        return StreamingTableExporter.pdf(assessmentOptional.get().getName().toUpperCase(), "LEADERBOARD", "leaderboard",
+                LeaderboardExportDto.class, leaderboardExportPages(leaderboard));
     }
 
-    public ResponseEntity<byte[]> getMarksRankCsvExport(CustomUserDetails user, String assessmentId, String instituteId) {
+    // One row per distinct mark, so the list stays small however many attempted.
+    public ResponseEntity<StreamingResponseBody> getMarksRankCsvExport(CustomUserDetails user, String assessmentId, String instituteId) {
         List<MarksRankDto> marksRankDtos = studentAttemptRepository.findMarkRankForAssessment(assessmentId, instituteId);
         List<MarkRankExportDto> markRankExportDtos = createMarkRankExportDto(marksRankDtos);
-        return DataToCsvConverter.convertListToCsv(markRankExportDtos);
+        return StreamingTableExporter.csv(MarkRankExportDto.class, StreamingTableExporter.singlePage(markRankExportDtos));
     }
 
     private List<MarkRankExportDto> createMarkRankExportDto(List<MarksRankDto> marksRankDtos) {
@@ -204,16 +226,17 @@ public class AdminExportManager {
         return response;
     }
 
-    public ResponseEntity<InputStreamResource> getMarksRankPdfExport(CustomUserDetails user, String assessmentId, String instituteId) {
+    public ResponseEntity<StreamingResponseBody> getMarksRankPdfExport(CustomUserDetails user, String assessmentId, String instituteId) {
         Optional<Assessment> assessmentOptional = assessmentRepository.findById(assessmentId);
         if (assessmentOptional.isEmpty()) throw new VacademyException("Assessment Not Found");
 
         List<MarksRankDto> marksRankDtos = studentAttemptRepository.findMarkRankForAssessment(assessmentId, instituteId);
         List<MarkRankExportDto> markRankExportDtos = createMarkRankExportDto(marksRankDtos);
-        return DataToCsvConverter.buildPdfResponse(assessmentOptional.get().getName().toUpperCase(), "MARK-RANK LEADERBOARD", markRankExportDtos, "mark_rank");
+        return StreamingTableExporter.pdf(assessmentOptional.get().getName().toUpperCase(), "MARK-RANK LEADERBOARD", "mark_rank",
+                MarkRankExportDto.class, StreamingTableExporter.singlePage(markRankExportDtos));
     }
 
-    public ResponseEntity<byte[]> getRegisteredCsvExport(CustomUserDetails user, String instituteId, String assessmentId, AssessmentUserFilter filter) {
+    public ResponseEntity<StreamingResponseBody> getRegisteredCsvExport(CustomUserDetails user, String instituteId, String assessmentId, AssessmentUserFilter filter) {
         if (Objects.isNull(filter)) throw new VacademyException("Invalid Request");
 
         // Empty registration_source means "all sources" — used by the result
@@ -222,67 +245,44 @@ public class AdminExportManager {
             return handleCaseForAllSourcesResultExport(instituteId, assessmentId, filter.getCustomFieldIds());
         }
 
-        // Determine whether to fetch participants for an open or closed assessment
-        if (AssessmentVisibility.PUBLIC.name().equals(filter.getAssessmentType())) {
-            return handleCaseForPublicAssessment(instituteId, assessmentId, filter);
-        } else {
-            return handleCaseForPrivateAssessment(instituteId, assessmentId, filter);
-        }
+        return StreamingTableExporter.csv(ParticipantsDetailExportDto.class,
+                participantExportPages(participantPages(instituteId, assessmentId, filter)));
     }
 
-    private ResponseEntity<byte[]> handleCaseForPrivateAssessment(String instituteId, String assessmentId, AssessmentUserFilter filter) {
-        // Validate the filter
-        if (Objects.isNull(filter)) {
-            throw new VacademyException("Invalid Filter Request");
-        }
-
-        List<ParticipantsDetailsDto> participantsDetailsDtos = new ArrayList<>();
-
-        // Check if the assessment attempt is pending
-        if (isPendingAttempt(filter)) {
-            participantsDetailsDtos = assessmentUserRegistrationRepository
-                    .findUserRegistrationWithFilterAdminPreRegistrationAndPendingExport(
-                            assessmentId, instituteId, filter.getStatus(),
-                            filter.getRegistrationSource());
-
-        } else {
-            // If no results are found, perform a broader search
-            participantsDetailsDtos = assessmentUserRegistrationRepository
-                    .findUserRegistrationWithFilterForSourceExport(
-                            assessmentId, instituteId, filter.getStatus(),
-                            filter.getAttemptType(), filter.getRegistrationSource());
-        }
-
-        // Convert the retrieved data into the required response format
-        return DataToCsvConverter.convertListToCsv(createExportDtoFromParticipantsDto(participantsDetailsDtos));
-    }
-
-    private ResponseEntity<byte[]> handleCaseForPublicAssessment(String instituteId, String assessmentId, AssessmentUserFilter filter) {
-        if (Objects.isNull(filter)) throw new VacademyException("Invalid Filter Request");
-
-        List<ParticipantsDetailsDto> participantsDetailsDtos = new ArrayList<>();
-        Pageable pageable = null;
-
-        //Handle Case for BATCH REGISTRATION
-        if (UserRegistrationSources.BATCH_PREVIEW_REGISTRATION.name().equals(filter.getRegistrationSource())) {
-            participantsDetailsDtos = handleCaseForBatchRegistration(assessmentId, instituteId, filter);
+    /**
+     * Participants the filter selects, read in keyset pages. Open (public) assessments
+     * export their batch or admin pre-registered participants; closed ones the
+     * registration source the filter names.
+     */
+    private KeysetPager<ParticipantsDetailsDto> participantPages(String instituteId, String assessmentId, AssessmentUserFilter filter) {
+        if (AssessmentVisibility.PUBLIC.name().equals(filter.getAssessmentType())) {
+            //Handle Case for BATCH REGISTRATION
+            if (UserRegistrationSources.BATCH_PREVIEW_REGISTRATION.name().equals(filter.getRegistrationSource())) {
+                return handleCaseForBatchRegistration(assessmentId, instituteId, filter);
+            }
+            //Handle Case for ADMIN PRE REGISTRATION
+            if (UserRegistrationSources.ADMIN_PRE_REGISTRATION.name().equals(filter.getRegistrationSource())) {
+                return handleCaseForAdminPreRegistration(assessmentId, instituteId, filter);
+            }
+            throw new VacademyException("Invalid Source Request");
         }
-        //Handle Case for ADMIN PRE REGISTRATION
-        else if (UserRegistrationSources.ADMIN_PRE_REGISTRATION.name().equals(filter.getRegistrationSource())) {
-            participantsDetailsDtos = handleCaseForAdminPreRegistration(assessmentId, instituteId, filter);
-        } else throw new VacademyException("Invalid Source Request");
-
-        return DataToCsvConverter.convertListToCsv(createExportDtoFromParticipantsDto(participantsDetailsDtos));
+        return handleCaseForAdminPreRegistration(assessmentId, instituteId, filter);
     }
 
-    private List<ParticipantsDetailExportDto> createExportDtoFromParticipantsDto(List<ParticipantsDetailsDto> participantsDetailsDtos) {
-        return createExportDtoFromParticipantsDtoWithTotalMarks(participantsDetailsDtos, null);
+    private Supplier<List<ParticipantsDetailExportDto>> participantExportPages(KeysetPager<ParticipantsDetailsDto> participants) {
+        int[] exported = {0};
+        return () -> {
+            List<ParticipantsDetailExportDto> rows =
+                    createExportDtoFromParticipantsDtoWithTotalMarks(participants.next(), null, exported[0]);
+            exported[0] += rows.size();
+            return rows;
+        };
     }
 
     private List<ParticipantsDetailExportDto> createExportDtoFromParticipantsDtoWithTotalMarks(
-            List<ParticipantsDetailsDto> participantsDetailsDtos, Double totalMarks) {
+            List<ParticipantsDetailsDto> participantsDetailsDtos, Double totalMarks, int rowsBefore) {
         List<ParticipantsDetailExportDto> response = new ArrayList<>();
-        // Results arrive sorted by score DESC (ORDER BY in query), so index+1 = rank.
+        // Rank is the row's position in the export, counted across pages.
         for (int i = 0; i < participantsDetailsDtos.size(); i++) {
             ParticipantsDetailsDto dto = participantsDetailsDtos.get(i);
             Double obtained = dto.getScore();
@@ -298,7 +298,7 @@ public class AdminExportManager {
                     .marksObtained(obtained)
                     .totalMarks(totalMarks)
                     .percentage(pct)
-                    .rank(i + 1)
+                    .rank(rowsBefore + i + 1)
                     .duration(durationFormatted)
                     .attemptDate(dto.getAttemptDate())
                     .build());
@@ -310,33 +310,18 @@ public class AdminExportManager {
     // enriched result CSV: Name, Email, Marks Obtained, Total Marks, Percentage,
     // Rank, Duration, Attempt Date (converted to IST), followed by one column per
     // requested registration-form custom field — the details external participants
-    // filled in when they registered for a public assessment.
-    private ResponseEntity<byte[]> handleCaseForAllSourcesResultExport(String instituteId, String assessmentId,
-                                                                       List<String> requestedCustomFieldIds) {
-        List<ParticipantsDetailsDto> participants = assessmentUserRegistrationRepository
-                .findAllEndedParticipantsForResultExport(assessmentId, instituteId);
+    // filled in when they registered for a public assessment. Participants and
+    // their answers are read a page at a time and written as they arrive.
+    private ResponseEntity<StreamingResponseBody> handleCaseForAllSourcesResultExport(String instituteId, String assessmentId,
+                                                                                      List<String> requestedCustomFieldIds) {
+        KeysetPager<ParticipantsDetailsDto> participants = new KeysetPager<>(EXPORT_PAGE_SIZE, (after, limit) ->
+                assessmentUserRegistrationRepository.findAllEndedParticipantsForResultExport(assessmentId, instituteId,
+                        after != null ? after.getScore() : null, after != null ? after.getAttemptId() : null, limit));
+        List<ParticipantsDetailsDto> firstPage = participants.next();
 
         List<ExportCustomFieldColumn> customColumns =
                 resolveExportCustomFieldColumns(assessmentId, requestedCustomFieldIds);
 
-        StringBuilder csv = new StringBuilder();
-        csv.append(String.join(",", RESULT_EXPORT_BASE_HEADERS));
-        customColumns.forEach(column -> csv.append(",").append(escapeCsvField(column.header())));
-        csv.append("\n");
-
-        if (participants.isEmpty()) {
-            return ResponseEntity.ok()
-                    .header("Content-Disposition", "attachment; filename=\"results.csv\"")
-                    .header("Content-Type", "text/plain")
-                    .body(csv.toString().getBytes(StandardCharsets.UTF_8));
-        }
-
-        // registrationId -> (customFieldId -> answer). One query for the whole
-        // assessment instead of one per participant.
-        Map<String, Map<String, String>> answersByRegistration = customColumns.isEmpty()
-                ? Map.of()
-                : loadCustomFieldAnswers(assessmentId, instituteId);
-
         // Compute total marks from section configuration.
         List<Section> sections = sectionRepository.findByAssessmentIdAndStatusNotIn(
                 assessmentId, List.of("DELETED"));
@@ -348,39 +333,59 @@ public class AdminExportManager {
         SimpleDateFormat sdf = new SimpleDateFormat("dd MMM yyyy hh:mm a");
         sdf.setTimeZone(TimeZone.getTimeZone("Asia/Kolkata"));
 
-        // Rows arrive sorted by score DESC (ORDER BY in query) → index+1 = rank.
-        for (int i = 0; i < participants.size(); i++) {
-            ParticipantsDetailsDto p = participants.get(i);
-            Double obtained = p.getScore() != null ? p.getScore() : 0.0;
-            String pct = totalMarks > 0
-                    ? String.format("%.2f%%", (obtained / totalMarks) * 100)
-                    : "";
-            String duration = p.getDuration() != null ? convertToReadableTime(p.getDuration()) : "";
-            String attemptDate = p.getAttemptDate() != null ? sdf.format(p.getAttemptDate()) : "";
-            String email = p.getUserEmail() != null ? p.getUserEmail() : "";
-            String name = p.getStudentName() != null ? p.getStudentName() : "";
-
-            csv.append(escapeCsvField(name)).append(",")
-                    .append(escapeCsvField(email)).append(",")
-                    .append(obtained).append(",")
-                    .append(totalMarks).append(",")
-                    .append(pct).append(",")
-                    .append(i + 1).append(",")
-                    .append(escapeCsvField(duration)).append(",")
-                    .append(escapeCsvField(attemptDate));
-
-            Map<String, String> answers = answersByRegistration
-                    .getOrDefault(p.getRegistrationId(), Map.of());
-            for (ExportCustomFieldColumn column : customColumns) {
-                csv.append(",").append(escapeCsvField(answers.get(column.fieldId())));
+        StreamingResponseBody body = outputStream -> {
+            Writer csv = new BufferedWriter(
+                    new OutputStreamWriter(StreamUtils.nonClosing(outputStream), StandardCharsets.UTF_8));
+            StringBuilder header = new StringBuilder(String.join(",", RESULT_EXPORT_BASE_HEADERS));
+            customColumns.forEach(column -> header.append(",").append(escapeCsvField(column.header())));
+            csv.write(header.append("\n").toString());
+
+            // Rows arrive sorted by score DESC (ORDER BY in query) → running position = rank.
+            int rank = 0;
+            for (List<ParticipantsDetailsDto> page = firstPage; !page.isEmpty(); page = participants.next()) {
+                // registrationId -> (customFieldId -> answer). One query per page
+                // instead of one per participant.
+                Map<String, Map<String, String>> answersByRegistration = customColumns.isEmpty()
+                        ? Map.of()
+                        : loadCustomFieldAnswers(page);
+
+                for (ParticipantsDetailsDto p : page) {
+                    rank++;
+                    Double obtained = p.getScore() != null ? p.getScore() : 0.0;
+                    String pct = totalMarks > 0
+                            ? String.format("%.2f%%", (obtained / totalMarks) * 100)
+                            : "";
+                    String duration = p.getDuration() != null ? convertToReadableTime(p.getDuration()) : "";
+                    String attemptDate = p.getAttemptDate() != null ? sdf.format(p.getAttemptDate()) : "";
+                    String email = p.getUserEmail() != null ? p.getUserEmail() : "";
+                    String name = p.getStudentName() != null ? p.getStudentName() : "";
+
+                    StringBuilder row = new StringBuilder();
+                    row.append(escapeCsvField(name)).append(",")
+                            .append(escapeCsvField(email)).append(",")
+                            .append(obtained).append(",")
+                            .append(totalMarks).append(",")
+                            .append(pct).append(",")
+                            .append(rank).append(",")
+                            .append(escapeCsvField(duration)).append(",")
+                            .append(escapeCsvField(attemptDate));
+
+                    Map<String, String> answers = answersByRegistration
+                            .getOrDefault(p.getRegistrationId(), Map.of());
+                    for (ExportCustomFieldColumn column : customColumns) {
+                        row.append(",").append(escapeCsvField(answers.get(column.fieldId())));
+                    }
+                    csv.write(row.append("\n").toString());
+                }
+                csv.flush();
             }
-            csv.append("\n");
-        }
+            csv.flush();
+        };
 
         return ResponseEntity.ok()
                 .header("Content-Disposition", "attachment; filename=\"results.csv\"")
                 .header("Content-Type", "text/plain")
-                .body(csv.toString().getBytes(StandardCharsets.UTF_8));
+                .body(body);
     }
 
     /**
@@ -488,9 +493,16 @@ public class AdminExportManager {
         return headers;
     }
 
-    private Map<String, Map<String, String>> loadCustomFieldAnswers(String assessmentId, String instituteId) {
+    private Map<String, Map<String, String>> loadCustomFieldAnswers(List<ParticipantsDetailsDto> participants) {
+        List<String> registrationIds = participants.stream()
+                .map(ParticipantsDetailsDto::getRegistrationId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (registrationIds.isEmpty()) return Map.of();
+
         Map<String, Map<String, String>> answersByRegistration = new HashMap<>();
-        assessmentUserRegistrationRepository.findCustomFieldAnswersForAssessment(assessmentId, instituteId)
+        assessmentUserRegistrationRepository.findCustomFieldAnswersForRegistrations(registrationIds)
                 .forEach(row -> {
                     if (row.getRegistrationId() == null || row.getFieldId() == null) return;
                     String answer = row.getAnswer() != null ? row.getAnswer().trim() : "";
@@ -512,40 +524,35 @@ public class AdminExportManager {
         return value;
     }
 
-    private List<ParticipantsDetailsDto> handleCaseForAdminPreRegistration(String assessmentId, String instituteId, AssessmentUserFilter filter) {
-        List<ParticipantsDetailsDto> ParticipantsDetailsDtos = new ArrayList<>();
-
-
+    private KeysetPager<ParticipantsDetailsDto> handleCaseForAdminPreRegistration(String assessmentId, String instituteId, AssessmentUserFilter filter) {
         // Check if the attempt type is "PENDING"
         if (isPendingAttempt(filter)) {
-            // If no results found, search for admin pre-registered and pending users
-            ParticipantsDetailsDtos = assessmentUserRegistrationRepository
+            // Admin pre-registered users who have not attempted yet, paged by registration
+            return new KeysetPager<>(EXPORT_PAGE_SIZE, (after, limit) -> assessmentUserRegistrationRepository
                     .findUserRegistrationWithFilterAdminPreRegistrationAndPendingExport(
                             assessmentId, instituteId, filter.getStatus(),
-                            filter.getRegistrationSource());
-
-        } else {
-            // If no results found, search for users based on status, attempt type, and registration source
-            ParticipantsDetailsDtos = assessmentUserRegistrationRepository
-                    .findUserRegistrationWithFilterForSourceExport(
-                            assessmentId, instituteId, filter.getStatus(),
-                            filter.getAttemptType(), filter.getRegistrationSource());
+                            filter.getRegistrationSource(),
+                            after != null ? after.getRegistrationId() : null, limit));
         }
 
-        // Return the filtered list of registered users
-        return ParticipantsDetailsDtos;
+        // Users based on status, attempt type and registration source, paged by attempt
+        return new KeysetPager<>(EXPORT_PAGE_SIZE, (after, limit) -> assessmentUserRegistrationRepository
+                .findUserRegistrationWithFilterForSourceExport(
+                        assessmentId, instituteId, filter.getStatus(),
+                        filter.getAttemptType(), filter.getRegistrationSource(),
+                        after != null ? after.getAttemptId() : null, limit));
     }
 
-    private List<ParticipantsDetailsDto> handleCaseForBatchRegistration(String assessmentId, String instituteId, AssessmentUserFilter filter) {
-        List<ParticipantsDetailsDto> ParticipantsDetailsDto = new ArrayList<>();
+    private KeysetPager<ParticipantsDetailsDto> handleCaseForBatchRegistration(String assessmentId, String instituteId, AssessmentUserFilter filter) {
         if (isPendingAttempt(filter)) {
             //TODO: Send request to admin core to get pending list for batch
-        } else {
-            //Handle Case for Attempted case i.e LIVE,PREVIEW,ENDED
-            ParticipantsDetailsDto = assessmentUserRegistrationRepository.findUserRegistrationWithFilterForBatchForExport(assessmentId, instituteId, filter.getBatches(), filter.getStatus(), filter.getAttemptType());
+            return KeysetPager.empty();
         }
-
-        return ParticipantsDetailsDto;
+        //Handle Case for Attempted case i.e LIVE,PREVIEW,ENDED
+        return new KeysetPager<>(EXPORT_PAGE_SIZE, (after, limit) -> assessmentUserRegistrationRepository
+                .findUserRegistrationWithFilterForBatchForExport(assessmentId, instituteId, filter.getBatches(),
+                        filter.getStatus(), filter.getAttemptType(),
+                        after != null ? after.getAttemptId() : null, limit));
     }
 
     private boolean isPendingAttempt(AssessmentUserFilter filter) {
@@ -559,97 +566,41 @@ public class AdminExportManager {
                 UserRegistrationFilterEnum.PENDING.name().equals(filter.getAttemptType().get(0));
     }
 
-    public ResponseEntity<InputStreamResource> getRegisteredPdfExport(CustomUserDetails user, String instituteId, String assessmentId, AssessmentUserFilter filter) {
+    public ResponseEntity<StreamingResponseBody> getRegisteredPdfExport(CustomUserDetails user, String instituteId, String assessmentId, AssessmentUserFilter filter) {
         if (Objects.isNull(filter)) throw new VacademyException("Invalid Request");
 
-        // Determine whether to fetch participants for an open or closed assessment
-        if (AssessmentVisibility.PUBLIC.name().equals(filter.getAssessmentType())) {
-            return handleCaseForPublicAssessmentPdfExport(instituteId, assessmentId, filter);
-        } else {
-            return handleCaseForPrivateAssessmentPdfExport(instituteId, assessmentId, filter);
-        }
-    }
-
-    private ResponseEntity<InputStreamResource> handleCaseForPrivateAssessmentPdfExport(String instituteId, String assessmentId, AssessmentUserFilter filter) {
-        // Validate the filter
-        if (Objects.isNull(filter)) {
-            throw new VacademyException("Invalid Filter Request");
-        }
         Optional<Assessment> assessmentOptional = assessmentRepository.findById(assessmentId);
         if (assessmentOptional.isEmpty()) throw new VacademyException("Assessment Not Found");
 
-        List<ParticipantsDetailsDto> participantsDetailsDtos = new ArrayList<>();
-
-        // Check if the assessment attempt is pending
-        if (isPendingAttempt(filter)) {
-            participantsDetailsDtos = assessmentUserRegistrationRepository
-                    .findUserRegistrationWithFilterAdminPreRegistrationAndPendingExport(
-                            assessmentId, instituteId, filter.getStatus(),
-                            filter.getRegistrationSource());
-
-        } else {
-            // If no results are found, perform a broader search
-            participantsDetailsDtos = assessmentUserRegistrationRepository
-                    .findUserRegistrationWithFilterForSourceExport(
-                            assessmentId, instituteId, filter.getStatus(),
-                            filter.getAttemptType(), filter.getRegistrationSource());
-        }
-
-
-        // Convert the retrieved data into the required response format
-        return DataToCsvConverter.buildPdfResponse(assessmentOptional.get().getName().toUpperCase(), "PARTICIPANTS LIST", createExportDtoFromParticipantsDto(participantsDetailsDtos), "participants");
+        return StreamingTableExporter.pdf(assessmentOptional.get().getName().toUpperCase(), "PARTICIPANTS LIST", "participants",
+                ParticipantsDetailExportDto.class, participantExportPages(participantPages(instituteId, assessmentId, filter)));
     }
 
-    private ResponseEntity<InputStreamResource> handleCaseForPublicAssessmentPdfExport(String instituteId, String assessmentId, AssessmentUserFilter filter) {
-        if (Objects.isNull(filter)) throw new VacademyException("Invalid Filter Request");
-
-        Optional<Assessment> assessmentOptional = assessmentRepository.findById(assessmentId);
-        if (assessmentOptional.isEmpty()) throw new VacademyException("Assessment Not Found");
-
-        List<ParticipantsDetailsDto> participantsDetailsDtos = new ArrayList<>();
-
-        //Handle Case for BATCH REGISTRATION
-        if (UserRegistrationSources.BATCH_PREVIEW_REGISTRATION.name().equals(filter.getRegistrationSource())) {
-            participantsDetailsDtos = handleCaseForBatchRegistration(assessmentId, instituteId, filter);
-        }
-        //Handle Case for ADMIN PRE REGISTRATION
-        else if (UserRegistrationSources.ADMIN_PRE_REGISTRATION.name().equals(filter.getRegistrationSource())) {
-            participantsDetailsDtos = handleCaseForAdminPreRegistration(assessmentId, instituteId, filter);
-        } else throw new VacademyException("Invalid Source Request");
-
-        return DataToCsvConverter.buildPdfResponse(assessmentOptional.get().getName().toUpperCase(), "PARTICIPANTS LIST", createExportDtoFromParticipantsDto(participantsDetailsDtos), "participants");
-    }
-
-    public ResponseEntity<byte[]> getRespondentListCsvExport(CustomUserDetails user, String instituteId, String sectionId, String questionId, String assessmentId, RespondentFilter filter) {
+    public ResponseEntity<StreamingResponseBody> getRespondentListCsvExport(CustomUserDetails user, String instituteId, String sectionId, String questionId, String assessmentId, RespondentFilter filter) {
         if (Objects.isNull(filter)) throw new VacademyException("Invalid Request");
 
-        List<RespondentListDto> responses = null;
-        responses = assessmentUserRegistrationRepository
-                .findRespondentListForAssessmentWithFilterExport(assessmentId, questionId, filter.getAssessmentVisibility(), filter.getStatus(), filter.getRegistrationSource(), filter.getRegistrationSourceId());
-
-        List<RespondentExportDto> exportDtos = createRespondentExportDto(responses);
-
-        return DataToCsvConverter.convertListToCsv(exportDtos);
-
+        return StreamingTableExporter.csv(RespondentExportDto.class, respondentExportPages(assessmentId, questionId, filter));
     }
 
-    public ResponseEntity<InputStreamResource> getRespondentListPdfExport(CustomUserDetails user, String instituteId, String sectionId, String questionId, String assessmentId, RespondentFilter filter) {
+    public ResponseEntity<StreamingResponseBody> getRespondentListPdfExport(CustomUserDetails user, String instituteId, String sectionId, String questionId, String assessmentId, RespondentFilter filter) {
         if (Objects.isNull(filter)) throw new VacademyException("Invalid Request");
 
         Optional<Assessment> assessmentOptional = assessmentRepository.findById(assessmentId);
         if (assessmentOptional.isEmpty()) throw new VacademyException("Assessment Not Found");
 
-        List<RespondentListDto> responses = null;
-        responses = assessmentUserRegistrationRepository
-                .findRespondentListForAssessmentWithFilterExport(assessmentId, questionId, filter.getAssessmentVisibility(), filter.getStatus(), filter.getRegistrationSource(), filter.getRegistrationSourceId());
-
-        List<RespondentExportDto> exportDtos = createRespondentExportDto(responses);
-
-        return DataToCsvConverter.buildPdfResponse(assessmentOptional.get().getName().toUpperCase(), "RESPONDENT LIST", exportDtos, "respondent");
+        return StreamingTableExporter.pdf(assessmentOptional.get().getName().toUpperCase(), "RESPONDENT LIST", "respondent",
+                RespondentExportDto.class, respondentExportPages(assessmentId, questionId, filter));
+    }
 
+    private Supplier<List<RespondentExportDto>> respondentExportPages(String assessmentId, String questionId, RespondentFilter filter) {
+        KeysetPager<RespondentExportRowDto> responses = new KeysetPager<>(EXPORT_PAGE_SIZE, (after, limit) ->
+                assessmentUserRegistrationRepository.findRespondentListForAssessmentWithFilterExport(assessmentId, questionId,
+                        filter.getAssessmentVisibility(), filter.getStatus(), filter.getRegistrationSource(),
+                        filter.getRegistrationSourceId(), after != null ? after.getResponseId() : null, limit));
+        return () -> createRespondentExportDto(responses.next());
     }
 
-    private List<RespondentExportDto> createRespondentExportDto(List<RespondentListDto> responses) {
+    private List<RespondentExportDto> createRespondentExportDto(List<? extends RespondentListDto> responses) {
         List<RespondentExportDto> respondentExportDtos = new ArrayList<>();
         responses.forEach(response -> {
             respondentExportDtos.add(RespondentExportDto.builder()
@@ -661,24 +612,23 @@ public class AdminExportManager {
         return respondentExportDtos;
     }
 
-    public ResponseEntity<byte[]> getQuestionInsightsExport(CustomUserDetails user, String assessmentId, String instituteId, String sectionIds) {
+    public ResponseEntity<StreamingResponseBody> getQuestionInsightsExport(CustomUserDetails user, String assessmentId, String instituteId, String sectionIds) {
         List<String> allSectionIds = Arrays.asList(sectionIds.split(","));
         return createPdfForQuestionInsights(user, allSectionIds, assessmentId, instituteId);
     }
 
-    private ResponseEntity<byte[]> createPdfForQuestionInsights(CustomUserDetails user, List<String> allSectionIds, String assessmentId, String instituteId) {
+    private ResponseEntity<StreamingResponseBody> createPdfForQuestionInsights(CustomUserDetails user, List<String> allSectionIds, String assessmentId, String instituteId) {
         String questionInsightsHtml = htmlBuilderService.getQuestionInsightsHtml(user, allSectionIds, assessmentId, instituteId);
 
-        ByteArrayOutputStream pdfOutputStream = new ByteArrayOutputStream();
-        ConverterProperties converterProperties = new ConverterProperties();
-        HtmlConverter.convertToPdf(questionInsightsHtml, pdfOutputStream, converterProperties);
+        // Rendered straight into the response rather than into a byte[] first
+        StreamingResponseBody pdf = outputStream -> HtmlConverter.convertToPdf(
+                questionInsightsHtml, StreamUtils.nonClosing(outputStream), new ConverterProperties());
 
         // Return as downloadable PDF
-        byte[] pdfBytes = pdfOutputStream.toByteArray();
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=questionInsights.pdf")
                 .contentType(MediaType.APPLICATION_PDF)
-                .body(pdfBytes);
+                .body(pdf);
     }
 
     public ResponseEntity<byte[]> getStudentReportPdf(CustomUserDetails user, String assessmentId, String attemptId, String instituteId) {
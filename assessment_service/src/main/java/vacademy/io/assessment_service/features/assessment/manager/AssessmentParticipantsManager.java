@@ -134,6 +134,16 @@ public class AssessmentParticipantsManager {
     @Autowired
     private vacademy.io.assessment_service.features.assessment.service.ReportPdfUploadService reportPdfUploadService;
 
+    @Autowired
+    private vacademy.io.assessment_service.features.assessment.service.render.ReportRenderMetrics reportRenderMetrics;
+
+    @Autowired
+    @org.springframework.beans.factory.annotation.Qualifier("reportRenderExecutor")
+    private java.util.concurrent.Executor reportRenderExecutor;
+
+    /** Release renders in flight at once; the caller loads the next attempts while these convert. */
+    private static final int RELEASE_RENDER_WINDOW = 8;
+
     @Transactional
     public ResponseEntity<AssessmentSaveResponseDto> saveParticipantsToAssessment(CustomUserDetails user,
             AssessmentRegistrationsDto assessmentRegistrationsDto, String assessmentId, String instituteId,
@@ -1239,7 +1249,30 @@ public class AssessmentParticipantsManager {
         // duplicated HTML/PDF generation code (now shared via
         // ReportPdfRenderService), and a failed upload no longer silently
         // leaves report_pdf_file_id unset (ReportPdfUploadService throws).
+
+        // Per-job precompute (assessment meta, document head, cohort analytics)
+        // once here instead of per report; the attempt's registration is passed
+        // to the render so it no longer re-reads the attempt either.
+        vacademy.io.assessment_service.features.assessment.service.render.ReportRenderResources resources =
+                reportPdfRenderService.prepare(ctx);
+
+        // Report data loads and every attempt write stay on this thread; only
+        // render + upload run on the render pool, a bounded window at a time,
+        // and each result is applied here in attempt order.
         Map<StudentAttempt, byte[]> reportMap = new HashMap<>();
+        vacademy.io.assessment_service.features.assessment.service.render.RenderWindow<ReleasedReport> window =
+                new vacademy.io.assessment_service.features.assessment.service.render.RenderWindow<>(
+                        reportRenderExecutor, RELEASE_RENDER_WINDOW, released -> {
+                            StudentAttempt attempt = released.attempt();
+                            if (released.fileId() != null) {
+                                attempt.setReportPdfFileId(released.fileId());
+                            }
+                            // Still release the attempt even if PDF generation failed
+                            updateAttemptDataReleaseData(attempt);
+                            if (released.pdf() != null) {
+                                reportMap.put(attempt, released.pdf());
+                            }
+                        });
         attemptList.forEach(attempt -> {
             try {
                 // Skip attempts that were never submitted (no meaningful report to generate)
@@ -1263,35 +1296,63 @@ public class AssessmentParticipantsManager {
                     log.warn("Failed to build comparison for attempt {}: {}", attempt.getId(), e.getMessage());
                 }
 
-                // Render HTML -> PDF via the shared render service (no duplicated logic)
-                byte[] participantPdfReport = reportPdfRenderService.render(studentReportOverallDetailDto, comparison, ctx);
-
-                // Upload PDF to storage and cache the file ID. Throws on failure —
-                // caught below so one student's upload failure doesn't stop the batch.
-                try {
-                    String fileName = "report_" + attempt.getId() + ".pdf";
-                    String fileId = reportPdfUploadService.upload(participantPdfReport, fileName, "ASSESSMENT_REPORT", assessment.getId());
-                    attempt.setReportPdfFileId(fileId);
-                    log.info("Uploaded report PDF for attempt {}, fileId: {}", attempt.getId(), fileId);
-                } catch (Exception e) {
-                    log.warn("Failed to upload PDF for attempt {}: {}", attempt.getId(), e.getMessage());
-                }
-
-                // Update attempt status
-                updateAttemptDataReleaseData(attempt);
-
-                // Send notification to the student
-                reportMap.put(attempt, participantPdfReport);
+                vacademy.io.assessment_service.features.learner_assessment.dto.StudentComparisonDto loadedComparison = comparison;
+                vacademy.io.assessment_service.features.assessment.service.ReportPdfRenderService.StudentIdentity identity =
+                        vacademy.io.assessment_service.features.assessment.service.ReportPdfRenderService.StudentIdentity
+                                .of(attempt.getRegistration());
+                String attemptId = attempt.getId();
+                window.submit(() -> renderAndUploadReleaseReport(attempt, attemptId, studentReportOverallDetailDto,
+                        loadedComparison, ctx, resources, identity, assessment.getId()));
             } catch (Exception e) {
                 log.error("Failed to generate report for attempt {}: {}", attempt.getId(), e.getMessage());
                 // Still release the attempt even if PDF generation fails
                 updateAttemptDataReleaseData(attempt);
             }
         });
+        window.drain();
         sendNotificationToStudent(reportMap, assessment.getId(), instituteId);
         publishResultReleasedFor(reportMap);
     }
 
+    /** A rendered release report; {@code pdf} is null when rendering failed, {@code fileId} when the upload did. */
+    private record ReleasedReport(StudentAttempt attempt, byte[] pdf, String fileId) {
+    }
+
+    /**
+     * Runs on the render pool: renders via the shared render service (no
+     * duplicated logic) and uploads the PDF. Never touches the attempt entity —
+     * the caller applies the outcome.
+     */
+    private ReleasedReport renderAndUploadReleaseReport(StudentAttempt attempt, String attemptId,
+            StudentReportOverallDetailDto detail,
+            vacademy.io.assessment_service.features.learner_assessment.dto.StudentComparisonDto comparison,
+            vacademy.io.assessment_service.features.learner_assessment.dto.ReportClassContext ctx,
+            vacademy.io.assessment_service.features.assessment.service.render.ReportRenderResources resources,
+            vacademy.io.assessment_service.features.assessment.service.ReportPdfRenderService.StudentIdentity identity,
+            String assessmentId) {
+        byte[] participantPdfReport;
+        try {
+            participantPdfReport = reportPdfRenderService.render(detail, comparison, ctx, resources, identity);
+        } catch (Exception e) {
+            log.error("Failed to generate report for attempt {}: {}", attemptId, e.getMessage());
+            return new ReleasedReport(attempt, null, null);
+        }
+
+        // Upload PDF to storage and cache the file ID. Throws on failure —
+        // caught here so one student's upload failure doesn't stop the batch.
+        String fileId = null;
+        try {
+            String fileName = "report_" + attemptId + ".pdf";
+            fileId = reportRenderMetrics.time(
+                    vacademy.io.assessment_service.features.assessment.service.render.ReportRenderMetrics.STAGE_UPLOAD,
+                    () -> reportPdfUploadService.upload(participantPdfReport, fileName, "ASSESSMENT_REPORT", assessmentId));
+            log.info("Uploaded report PDF for attempt {}, fileId: {}", attemptId, fileId);
+        } catch (Exception e) {
+            log.warn("Failed to upload PDF for attempt {}: {}", attemptId, e.getMessage());
+        }
+        return new ReleasedReport(attempt, participantPdfReport, fileId);
+    }
+
     private void handleParticipantsReportCreationForManualAssessment(List<StudentAttempt> attemptList,
             Assessment assessment, String instituteId) {
         Map<StudentAttempt, byte[]> reportMap = new HashMap<>();
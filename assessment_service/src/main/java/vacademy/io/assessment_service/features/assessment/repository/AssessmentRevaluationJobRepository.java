@@ -0,0 +1,53 @@
+package vacademy.io.assessment_service.features.assessment.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import vacademy.io.assessment_service.features.assessment.entity.AssessmentRevaluationJob;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface AssessmentRevaluationJobRepository extends JpaRepository<AssessmentRevaluationJob, String> {
+
+    Optional<AssessmentRevaluationJob> findFirstByAssessmentIdOrderByCreatedAtDesc(String assessmentId);
+
+    Optional<AssessmentRevaluationJob> findFirstByAssessmentIdAndStatusInOrderByCreatedAtDesc(String assessmentId,
+                                                                                            List<String> statuses);
+
+    /** Conditional claim of a new job; rowcount 0 means another run already owns it. */
+    @Transactional
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(value = """
+        UPDATE assessment_revaluation_job
+           SET status = 'IN_PROGRESS', updated_at = now(),
+               started_at = COALESCE(started_at, now())
+         WHERE id = :jobId AND status = 'PENDING'
+        """, nativeQuery = true)
+    int claimPending(@Param("jobId") String jobId);
+
+    /**
+     * Conditional takeover of a run whose worker stopped checkpointing (pod restarted
+     * mid-job). Only one pod's sweep can win, because the WHERE re-checks staleness.
+     * Staleness is judged on the database clock, the one that wrote updated_at.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(value = """
+        UPDATE assessment_revaluation_job
+           SET status = 'IN_PROGRESS', updated_at = now(), resume_count = resume_count + 1,
+               started_at = COALESCE(started_at, now())
+         WHERE id = :jobId AND status IN ('PENDING', 'IN_PROGRESS') AND updated_at < now() - make_interval(mins => :staleMinutes)
+        """, nativeQuery = true)
+    int claimStale(@Param("jobId") String jobId, @Param("staleMinutes") int staleMinutes);
+
+    @Query(value = """
+        SELECT id FROM assessment_revaluation_job
+         WHERE status IN ('PENDING', 'IN_PROGRESS')
+           AND updated_at < now() - make_interval(mins => :staleMinutes)
+         ORDER BY updated_at
+        """, nativeQuery = true)
+    List<String> findStaleJobIds(@Param("staleMinutes") int staleMinutes);
+}
@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 import vacademy.io.assessment_service.features.assessment.dto.ParticipantsDetailsDto;
 import vacademy.io.assessment_service.features.assessment.dto.RegistrationCustomFieldAnswerDto;
+import vacademy.io.assessment_service.features.assessment.dto.admin_get_dto.response.RespondentExportRowDto;
 import vacademy.io.assessment_service.features.assessment.dto.admin_get_dto.response.RespondentListDto;
 import vacademy.io.assessment_service.features.assessment.entity.AssessmentUserRegistration;
 
@@ -86,23 +87,17 @@ public interface AssessmentUserRegistrationRepository extends JpaRepository<Asse
             AND (:batchIds IS NULL OR aur.source_id IN (:batchIds))
             AND aur.source = 'BATCH_PREVIEW_REGISTRATION'
             AND (:status IS NULL OR sa.status IN (:attemptType))
-            """,
-            countQuery = """
-                    select count(*)
-                    from assessment_user_registration aur
-                    join student_attempt sa on sa.registration_id = aur.id
-                    where aur.assessment_id = :assessmentId
-                    and aur.institute_id = :instituteId
-                    AND (:status IS NULL OR aur.status IN (:status))
-                    AND (:batchIds IS NULL OR aur.source_id IN (:batchIds))
-                    AND aur.source = 'BATCH_PREVIEW_REGISTRATION'
-                    AND (:status IS NULL OR sa.status IN (:attemptType))
-                    """, nativeQuery = true)
+            AND (CAST(:afterAttemptId AS varchar) IS NULL OR sa.id > :afterAttemptId)
+            ORDER BY sa.id
+            LIMIT :limit
+            """, nativeQuery = true)
     List<ParticipantsDetailsDto> findUserRegistrationWithFilterForBatchForExport(@Param("assessmentId") String assessmentId,
                                                                                  @Param("instituteId") String instituteId,
                                                                                  @Param("batchIds") List<String> batchIds,
                                                                                  @Param("status") List<String> status,
-                                                                                 @Param("attemptType") List<String> attemptType);
+                                                                                 @Param("attemptType") List<String> attemptType,
+                                                                                 @Param("afterAttemptId") String afterAttemptId,
+                                                                                 @Param("limit") int limit);
 
 
     @Query(value = """
@@ -211,22 +206,17 @@ public interface AssessmentUserRegistrationRepository extends JpaRepository<Asse
             AND (:status IS NULL OR aur.status IN (:status))
             AND aur.source = :source
             AND (:status IS NULL OR sa.status IN (:attemptType))
-            """,
-            countQuery = """
-                    select count(distinct aur.user_id)
-                    from assessment_user_registration aur
-                    join student_attempt sa on sa.registration_id = aur.id
-                    where aur.assessment_id = :assessmentId
-                    and aur.institute_id = :instituteId
-                    AND (:status IS NULL OR aur.status IN (:status))
-                    AND aur.source = :source
-                    AND (:status IS NULL OR sa.status IN (:attemptType))
-                    """, nativeQuery = true)
+            AND (CAST(:afterAttemptId AS varchar) IS NULL OR sa.id > :afterAttemptId)
+            ORDER BY sa.id
+            LIMIT :limit
+            """, nativeQuery = true)
     List<ParticipantsDetailsDto> findUserRegistrationWithFilterForSourceExport(@Param("assessmentId") String assessmentId,
                                                                                @Param("instituteId") String instituteId,
                                                                                @Param("status") List<String> status,
                                                                                @Param("attemptType") List<String> attemptType,
-                                                                               @Param("source") String source);
+                                                                               @Param("source") String source,
+                                                                               @Param("afterAttemptId") String afterAttemptId,
+                                                                               @Param("limit") int limit);
 
 
     @Query(value = """
@@ -315,11 +305,16 @@ public interface AssessmentUserRegistrationRepository extends JpaRepository<Asse
             and sa.id IS NULL
             AND aur.source = :source
             AND (:status IS NULL OR aur.status IN (:status))
+            AND (CAST(:afterRegistrationId AS varchar) IS NULL OR aur.id > :afterRegistrationId)
+            ORDER BY aur.id
+            LIMIT :limit
             """, nativeQuery = true)
     List<ParticipantsDetailsDto> findUserRegistrationWithFilterAdminPreRegistrationAndPendingExport(@Param("assessmentId") String assessmentId,
                                                                                                     @Param("instituteId") String instituteId,
                                                                                                     @Param("status") List<String> status,
-                                                                                                    @Param("source") String source);
+                                                                                                    @Param("source") String source,
+                                                                                                    @Param("afterRegistrationId") String afterRegistrationId,
+                                                                                                    @Param("limit") int limit);
 
 
     @Query(value = """
@@ -444,9 +439,12 @@ public interface AssessmentUserRegistrationRepository extends JpaRepository<Asse
                                                                       @Param("sourceId") List<String> sourceId,
                                                                       Pageable pageable);
 
+    // Keyset-paged by the response row id so an export reads the respondents a
+    // page at a time instead of materialising every answer to the question.
     @Query(value = """
             SELECT aur.id as registrationId, aur.user_id AS userId, aur.participant_name as participantName,\s
             sa.id AS attemptId,
+            qwm.id AS responseId,
             aur.source as source,
             qwm.time_taken_in_seconds as responseTimeInSeconds,
             aur.source_id as sourceId,
@@ -461,13 +459,18 @@ public interface AssessmentUserRegistrationRepository extends JpaRepository<Asse
             and a.assessment_visibility in (:assessmentVisibility)
             and aur."source" in (:source)
             and (:sourceId IS NULL OR aur.source_id in (:sourceId))
+            AND (CAST(:afterResponseId AS varchar) IS NULL OR qwm.id > :afterResponseId)
+            ORDER BY qwm.id
+            LIMIT :limit
             """, nativeQuery = true)
-    List<RespondentListDto> findRespondentListForAssessmentWithFilterExport(@Param("assessmentId") String assessmentId,
-                                                                            @Param("questionId") String questionId,
-                                                                            @Param("assessmentVisibility") List<String> assessmentVisibility,
-                                                                            @Param("attemptStatus") List<String> attemptStatus,
-                                                                            @Param("source") List<String> source,
-                                                                            @Param("sourceId") List<String> sourceId);
+    List<RespondentExportRowDto> findRespondentListForAssessmentWithFilterExport(@Param("assessmentId") String assessmentId,
+                                                                                 @Param("questionId") String questionId,
+                                                                                 @Param("assessmentVisibility") List<String> assessmentVisibility,
+                                                                                 @Param("attemptStatus") List<String> attemptStatus,
+                                                                                 @Param("source") List<String> source,
+                                                                                 @Param("sourceId") List<String> sourceId,
+                                                                                 @Param("afterResponseId") String afterResponseId,
+                                                                                 @Param("limit") int limit);
 
 
     @Query(value = """
@@ -534,7 +537,8 @@ public interface AssessmentUserRegistrationRepository extends JpaRepository<Asse
     // Fetch ALL completed attempts for an assessment across every registration
     // source (batch, open registration, admin pre-registration).  Used by the
     // result CSV export so the admin gets one unified file regardless of how
-    // each learner enrolled.
+    // each learner enrolled.  Read in keyset pages of (score DESC NULLS LAST,
+    // attempt id): pass the last row's score and attempt id to get the next page.
     @Query(value = """
             SELECT aur.id            AS registrationId,
                    sa.id             AS attemptId,
@@ -555,26 +559,33 @@ public interface AssessmentUserRegistrationRepository extends JpaRepository<Asse
               AND aur.institute_id  = :instituteId
               AND aur.status NOT IN ('DELETED')
               AND sa.status         = 'ENDED'
-            ORDER BY sa.result_marks DESC NULLS LAST
+              AND (CAST(:afterAttemptId AS varchar) IS NULL
+                   OR (CAST(:afterScore AS double precision) IS NULL
+                       AND sa.result_marks IS NULL AND sa.id > :afterAttemptId)
+                   OR (CAST(:afterScore AS double precision) IS NOT NULL
+                       AND (sa.result_marks IS NULL
+                            OR sa.result_marks < CAST(:afterScore AS double precision)
+                            OR (sa.result_marks = CAST(:afterScore AS double precision) AND sa.id > :afterAttemptId))))
+            ORDER BY sa.result_marks DESC NULLS LAST, sa.id
+            LIMIT :limit
             """, nativeQuery = true)
     List<ParticipantsDetailsDto> findAllEndedParticipantsForResultExport(
             @Param("assessmentId") String assessmentId,
-            @Param("instituteId") String instituteId);
+            @Param("instituteId") String instituteId,
+            @Param("afterScore") Double afterScore,
+            @Param("afterAttemptId") String afterAttemptId,
+            @Param("limit") int limit);
 
-    // Every registration-form answer given by the participants of an assessment,
+    // Every registration-form answer given by a page of result-export participants,
     // flattened to (registration, field, answer). The export widens each result
-    // row with these, so it is fetched in one shot rather than per participant.
+    // row with these, so it is fetched once per page rather than per participant.
     @Query(value = """
             SELECT cfr.assessment_registration_id AS registrationId,
                    cfr.custom_field_id            AS fieldId,
                    cfr.answer                     AS answer
             FROM assessment_registration_custom_field_response_data cfr
-            JOIN assessment_user_registration aur ON aur.id = cfr.assessment_registration_id
-            WHERE aur.assessment_id = :assessmentId
-              AND aur.institute_id  = :instituteId
-              AND aur.status NOT IN ('DELETED')
+            WHERE cfr.assessment_registration_id IN (:registrationIds)
             """, nativeQuery = true)
-    List<RegistrationCustomFieldAnswerDto> findCustomFieldAnswersForAssessment(
-            @Param("assessmentId") String assessmentId,
-            @Param("instituteId") String instituteId);
+    List<RegistrationCustomFieldAnswerDto> findCustomFieldAnswersForRegistrations(
+            @Param("registrationIds") List<String> registrationIds);
 }
@@ -28,19 +28,33 @@ public interface QuestionAssessmentSectionMappingRepository extends CrudReposito
 
         String getAutoEvaluationJson();
 
+        String getQuestionType();
+
         Date getCreatedAt();
     }
 
     @Query(value = """
             SELECT qasm.question_id AS "questionId", qasm.section_id AS "sectionId",
                    qasm.marking_json AS "markingJson", qasm.created_at AS "createdAt",
-                   q.auto_evaluation_json AS "autoEvaluationJson"
+                   q.auto_evaluation_json AS "autoEvaluationJson", q.question_type AS "questionType"
             FROM question_assessment_section_mapping qasm
             JOIN question q ON q.id = qasm.question_id
             WHERE qasm.section_id IN (:sectionIds)
             """, nativeQuery = true)
     List<MarkingSchemeRow> findMarkingSchemeRowsBySectionIds(@Param("sectionIds") List<String> sectionIds);
 
+    /** Every marking scheme of an assessment, for revaluation runs that score all its attempts. */
+    @Query(value = """
+            SELECT qasm.question_id AS "questionId", qasm.section_id AS "sectionId",
+                   qasm.marking_json AS "markingJson", qasm.created_at AS "createdAt",
+                   q.auto_evaluation_json AS "autoEvaluationJson", q.question_type AS "questionType"
+            FROM question_assessment_section_mapping qasm
+            JOIN question q ON q.id = qasm.question_id
+            JOIN section s ON s.id = qasm.section_id
+            WHERE s.assessment_id = :assessmentId
+            """, nativeQuery = true)
+    List<MarkingSchemeRow> findMarkingSchemeRowsByAssessmentId(@Param("assessmentId") String assessmentId);
+
 
     @Modifying
     @Transactional
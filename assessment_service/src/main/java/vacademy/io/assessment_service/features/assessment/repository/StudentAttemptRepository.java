@@ -28,6 +28,158 @@ public interface StudentAttemptRepository extends CrudRepository<StudentAttempt,
     @Query("SELECT sa FROM StudentAttempt sa JOIN FETCH sa.registration WHERE sa.id = :id")
     Optional<StudentAttempt> findByIdWithRegistration(@Param("id") String id);
 
+    /**
+     * What a delta live sync needs to validate the attempt and build its response, without
+     * hydrating the entity: attempt_data is the large column the delta protocol exists to avoid.
+     */
+    interface SyncStateRow {
+        String getStatus();
+
+        String getAssessmentId();
+
+        String getDurationDistributionJson();
+    }
+
+    @Query(value = """
+            SELECT sa.status AS "status", aur.assessment_id AS "assessmentId",
+                   sa.duration_distribution_json AS "durationDistributionJson"
+            FROM student_attempt sa
+            JOIN assessment_user_registration aur ON aur.id = sa.registration_id
+            WHERE sa.id = :attemptId
+            """, nativeQuery = true)
+    Optional<SyncStateRow> findSyncStateById(@Param("attemptId") String attemptId);
+
+    /** Persisted attempt data with the sync stamp it was written under, to seed a delta draft. */
+    interface AttemptDataRow {
+        String getStatus();
+
+        String getAttemptData();
+
+        Date getServerLastSync();
+    }
+
+    @Query(value = """
+            SELECT sa.status AS "status", sa.attempt_data AS "attemptData", sa.server_last_sync AS "serverLastSync"
+            FROM student_attempt sa
+            WHERE sa.id = :attemptId
+            """, nativeQuery = true)
+    Optional<AttemptDataRow> findAttemptDataById(@Param("attemptId") String attemptId);
+
+    /** The attempt columns a revaluation chunk reads and rewrites, without hydrating the entity graph. */
+    interface RevaluationAttemptRow {
+        String getId();
+
+        String getStatus();
+
+        String getAttemptData();
+
+        Long getTotalTimeInSeconds();
+
+        Double getResultMarks();
+
+        String getResultStatus();
+
+        String getReportReleaseStatus();
+
+        Date getReportLastReleaseDate();
+    }
+
+    /**
+     * Keyset page of the LIVE/ENDED attempts a whole-assessment revaluation scores, in id
+     * order so the job can resume after the last committed id.
+     */
+    @Query(value = """
+            SELECT sa.id AS "id", sa.status AS "status", sa.attempt_data AS "attemptData",
+                   sa.total_time_in_seconds AS "totalTimeInSeconds", sa.result_marks AS "resultMarks", sa.result_status AS "resultStatus",
+                   sa.report_release_status AS "reportReleaseStatus",
+                   sa.report_last_release_date AS "reportLastReleaseDate"
+            FROM student_attempt sa
+            JOIN assessment_user_registration aur ON aur.id = sa.registration_id
+            WHERE aur.assessment_id = :assessmentId
+            AND aur.status <> 'DELETED'
+            AND sa.status IN ('LIVE', 'ENDED')
+            AND sa.id > :afterId
+            ORDER BY sa.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<RevaluationAttemptRow> findRevaluationPage(@Param("assessmentId") String assessmentId,
+                                                    @Param("afterId") String afterId,
+                                                    @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT COUNT(*)
+            FROM student_attempt sa
+            JOIN assessment_user_registration aur ON aur.id = sa.registration_id
+            WHERE aur.assessment_id = :assessmentId
+            AND aur.status <> 'DELETED'
+            AND sa.status IN ('LIVE', 'ENDED')
+            """, nativeQuery = true)
+    long countRevaluationAttempts(@Param("assessmentId") String assessmentId);
+
+    /** Revaluation rows for an explicit attempt id list, restricted to the assessment being revaluated. */
+    @Query(value = """
+            SELECT sa.id AS "id", sa.status AS "status", sa.attempt_data AS "attemptData",
+                   sa.total_time_in_seconds AS "totalTimeInSeconds", sa.result_marks AS "resultMarks", sa.result_status AS "resultStatus",
+                   sa.report_release_status AS "reportReleaseStatus",
+                   sa.report_last_release_date AS "reportLastReleaseDate"
+            FROM student_attempt sa
+            JOIN assessment_user_registration aur ON aur.id = sa.registration_id
+            WHERE aur.assessment_id = :assessmentId
+            AND sa.id IN (:attemptIds)
+            ORDER BY sa.id
+            """, nativeQuery = true)
+    List<RevaluationAttemptRow> findRevaluationRowsByIds(@Param("assessmentId") String assessmentId,
+                                                         @Param("attemptIds") List<String> attemptIds);
+
+    /** One leaderboard entry: a participant's latest LIVE/ENDED attempt, unranked. */
+    interface LeaderboardEntryRow {
+        String getAttemptId();
+
+        String getUserId();
+
+        String getStudentName();
+
+        String getBatchId();
+
+        Long getCompletionTimeInSeconds();
+
+        Double getAchievedMarks();
+
+        Date getCreatedAt();
+    }
+
+    /**
+     * The rows the leaderboard index is built from: the same latest-attempt-per-user set the
+     * ranked leaderboard queries start from, without the window ranking, which the index
+     * maintains itself.
+     */
+    @Query(value = """
+            SELECT latest.attemptId AS "attemptId", latest.userId AS "userId", latest.studentName AS "studentName",
+                   latest.batchId AS "batchId", latest.completionTimeInSeconds AS "completionTimeInSeconds",
+                   latest.achievedMarks AS "achievedMarks", latest.createdAt AS "createdAt"
+            FROM (
+                SELECT
+                    sa.id AS attemptId,
+                    aur.user_id AS userId,
+                    aur.participant_name AS studentName,
+                    aur.source_id AS batchId,
+                    sa.total_time_in_seconds AS completionTimeInSeconds,
+                    sa.total_marks AS achievedMarks,
+                    sa.created_at AS createdAt,
+                    ROW_NUMBER() OVER (PARTITION BY aur.user_id ORDER BY sa.created_at DESC) AS rn
+                FROM student_attempt sa
+                JOIN assessment_user_registration aur ON aur.id = sa.registration_id
+                WHERE aur.assessment_id = :assessmentId
+                  AND aur.institute_id = :instituteId
+                  AND sa.status IN ('LIVE', 'ENDED')
+                  AND (:statusList IS NULL OR aur.status IN (:statusList))
+            ) latest
+            WHERE latest.rn = 1
+            """, nativeQuery = true)
+    List<LeaderboardEntryRow> findLeaderboardEntries(@Param("assessmentId") String assessmentId,
+                                                     @Param("instituteId") String instituteId,
+                                                     @Param("statusList") List<String> statusList);
+
 
     @Query(value = """
                 WITH RankedAttemptsRaw AS (
@@ -533,47 +685,6 @@ public interface StudentAttemptRepository extends CrudRepository<StudentAttempt,
                                                                                              @Param("statusList") List<String> statusList);
 
 
-    @Query(value = """
-            WITH RankedAttempts AS (
-                            SELECT
-                                sa.id AS attemptId,
-                                aur.user_id AS userId,
-                                aur.participant_name AS studentName,
-                                aur.source_id AS batchId,
-                                sa.total_time_in_seconds AS completionTimeInSeconds,
-                                ROUND(CAST(sa.total_marks AS NUMERIC), 2) AS achievedMarks,
-                                aur.status,
-                                sa.submit_time,
-                                ROW_NUMBER() OVER (PARTITION BY aur.user_id ORDER BY sa.created_at DESC) AS rn,
-                                DENSE_RANK() OVER (ORDER BY sa.total_marks DESC NULLS LAST, sa.total_time_in_seconds ASC NULLS LAST) AS rank
-                            FROM student_attempt sa
-                            JOIN assessment_user_registration aur ON aur.id = sa.registration_id
-                            WHERE aur.assessment_id = :assessmentId
-                            AND aur.institute_id = :instituteId
-                            AND sa.status IN ('LIVE', 'ENDED')
-                            AND (:statusList IS NULL OR aur.status IN (:statusList))
-                        )
-                        ,TotalParticipants AS (
-                                        SELECT COUNT(*) AS totalParticipants FROM RankedAttempts WHERE rn = 1
-                                    )
-                        SELECT
-                            rank,
-                            attemptId,
-                            userId,
-                            studentName,
-                            batchId,
-                            completionTimeInSeconds,
-                            achievedMarks,
-                            status,
-                            ROUND(CAST(100.0 * (1.0 - (CAST(ra.rank - 1 AS FLOAT) / NULLIF(t.totalParticipants * 1.0, 0))) AS NUMERIC), 2) AS percentile
-                        FROM RankedAttempts as ra,TotalParticipants as t
-                        WHERE rn = 1
-                        ORDER BY achievedMarks DESC NULLS LAST, completionTimeInSeconds ASC NULLS LAST
-            """, nativeQuery = true)
-    public List<LeaderBoardDto> findLeaderBoardForAssessmentAndInstituteId(@Param("assessmentId") String assessmentId,
-                                                                           @Param("instituteId") String instituteId,
-                                                                           @Param("statusList") List<String> statusList);
-
     @Query(value = """
             SELECT sa.id as attemptId,
             aur.user_id as userId,
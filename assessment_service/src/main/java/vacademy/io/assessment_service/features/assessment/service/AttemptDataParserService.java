@@ -1,21 +1,177 @@
 package vacademy.io.assessment_service.features.assessment.service;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import vacademy.io.assessment_service.features.learner_assessment.constants.AttemptJsonConstants;
+import vacademy.io.assessment_service.features.learner_assessment.dto.status_json.ParsedAttemptData;
 import vacademy.io.common.exceptions.VacademyException;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
+@Slf4j
 @Service
 public class AttemptDataParserService {
 
+    // ObjectMapper is thread-safe once configured; building one per call cost more than the parse
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Parses an attempt JSON in a single streaming pass into the typed model that everything
+     * handling one sync or submit shares. Only each question's subtree is bound (to serialise it
+     * once for scoring and storage); the rest of the document is read token by token.
+     *
+     * <p>Never throws: a null, empty or malformed document yields {@link ParsedAttemptData#EMPTY},
+     * which scores 0 and carries no sync time, the same outcome the per-field extractors gave.
+     */
+    public ParsedAttemptData parse(String jsonString) {
+        if (jsonString == null || jsonString.isEmpty()) {
+            return ParsedAttemptData.EMPTY;
+        }
+        try (JsonParser parser = MAPPER.createParser(jsonString)) {
+            return readAttempt(parser);
+        } catch (Exception e) {
+            log.warn("Failed to parse attempt data: {}", e.getMessage());
+            return ParsedAttemptData.EMPTY;
+        }
+    }
+
+    private ParsedAttemptData readAttempt(JsonParser parser) throws IOException {
+        String clientLastSync = "";
+        Long timeElapsedInSeconds = null;
+        List<ParsedAttemptData.Section> sections = List.of();
+
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return new ParsedAttemptData(clientLastSync, null, sections);
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("clientLastSync".equals(field)) {
+                clientLastSync = asText(parser, value);
+            } else if ("assessment".equals(field)) {
+                timeElapsedInSeconds = readTimeElapsed(parser, value);
+            } else if (AttemptJsonConstants.sections.equals(field)) {
+                sections = readSections(parser, value);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new ParsedAttemptData(clientLastSync, timeElapsedInSeconds, sections);
+    }
+
+    private Long readTimeElapsed(JsonParser parser, JsonToken value) throws IOException {
+        Long timeElapsed = null;
+        if (value != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("timeElapsedInSeconds".equals(field)) {
+                timeElapsed = asLong(parser, token);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return timeElapsed;
+    }
+
+    private List<ParsedAttemptData.Section> readSections(JsonParser parser, JsonToken value) throws IOException {
+        List<ParsedAttemptData.Section> sections = new ArrayList<>();
+        if (value != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return sections;
+        }
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                sections.add(new ParsedAttemptData.Section(null, List.of()));
+                continue;
+            }
+            String sectionId = null;
+            List<ParsedAttemptData.Question> questions = List.of();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken fieldValue = parser.nextToken();
+                if ("sectionId".equals(field)) {
+                    sectionId = fieldValue == JsonToken.VALUE_NULL ? null : asText(parser, fieldValue);
+                } else if (AttemptJsonConstants.questions.equals(field)) {
+                    questions = readQuestions(parser, fieldValue);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            sections.add(new ParsedAttemptData.Section(sectionId, List.copyOf(questions)));
+        }
+        return sections;
+    }
+
+    private List<ParsedAttemptData.Question> readQuestions(JsonParser parser, JsonToken value) throws IOException {
+        List<ParsedAttemptData.Question> questions = new ArrayList<>();
+        if (value != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return questions;
+        }
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+            JsonNode question = parser.readValueAsTree();
+            if (question == null) {
+                question = NullNode.getInstance();
+            }
+            questions.add(new ParsedAttemptData.Question(
+                    textOrNull(question.path(AttemptJsonConstants.questionId)),
+                    textOrNull(question.path("responseData").path("type")),
+                    longOrNull(question.path("timeTakenInSeconds")),
+                    MAPPER.writeValueAsString(question)));
+        }
+        return questions;
+    }
+
+    /** Same result as {@link JsonNode#asText()} on the value the parser is positioned at. */
+    private static String asText(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return "null";
+        }
+        if (token.isStructStart()) {
+            parser.skipChildren();
+            return "";
+        }
+        return parser.getText();
+    }
+
+    /** Same result as {@link JsonNode#asLong()}, with null for an explicit JSON null. */
+    private static Long asLong(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isStructStart()) {
+            parser.skipChildren();
+            return 0L;
+        }
+        return parser.getValueAsLong();
+    }
+
+    private static String textOrNull(JsonNode node) {
+        return node.isMissingNode() || node.isNull() ? null : node.asText();
+    }
+
+    private static Long longOrNull(JsonNode node) {
+        return node.isMissingNode() || node.isNull() ? null : node.asLong();
+    }
 
     public String getClientLastSyncTime(String jsonString) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode root = mapper.readTree(jsonString);
+            JsonNode root = MAPPER.readTree(jsonString);
 
             JsonNode clientLastSyncNode = root.path("clientLastSync");
             return clientLastSyncNode.asText();
@@ -30,8 +186,7 @@ public class AttemptDataParserService {
                 return null;
             }
 
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode root = mapper.readTree(jsonString);
+            JsonNode root = MAPPER.readTree(jsonString);
 
             JsonNode timeNode = root.path("assessment").path("timeElapsedInSeconds");
 
@@ -54,14 +209,13 @@ public class AttemptDataParserService {
                 return sectionJsonList;
             }
 
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode root = mapper.readTree(jsonString);
+            JsonNode root = MAPPER.readTree(jsonString);
 
             JsonNode sectionsNode = root.path("sections");
 
             if (sectionsNode.isArray()) {
                 for (JsonNode sectionNode : sectionsNode) {
-                    String sectionJson = mapper.writeValueAsString(sectionNode);
+                    String sectionJson = MAPPER.writeValueAsString(sectionNode);
                     sectionJsonList.add(sectionJson);
                 }
             }
@@ -75,17 +229,16 @@ public class AttemptDataParserService {
 
     public List<String> extractQuestionJsonsFromSection(String sectionJson) {
         List<String> questionJsons = new ArrayList<>();
-        ObjectMapper mapper = new ObjectMapper();
 
         try {
             if (sectionJson == null || sectionJson.isEmpty()) return questionJsons;
 
-            JsonNode sectionNode = mapper.readTree(sectionJson);
+            JsonNode sectionNode = MAPPER.readTree(sectionJson);
             JsonNode questionsNode = sectionNode.path("questions");
 
             if (questionsNode.isArray()) {
                 for (JsonNode questionNode : questionsNode) {
-                    questionJsons.add(mapper.writeValueAsString(questionNode));
+                    questionJsons.add(MAPPER.writeValueAsString(questionNode));
                 }
             }
 
@@ -97,12 +250,11 @@ public class AttemptDataParserService {
     }
 
     public String extractSectionIdFromSectionJson(String sectionJson) {
-        ObjectMapper mapper = new ObjectMapper();
 
         try {
             if (sectionJson == null || sectionJson.isEmpty()) return null;
 
-            JsonNode sectionNode = mapper.readTree(sectionJson);
+            JsonNode sectionNode = MAPPER.readTree(sectionJson);
             JsonNode sectionIdNode = sectionNode.path("sectionId");
 
             if (!sectionIdNode.isMissingNode() && !sectionIdNode.isNull()) {
@@ -117,12 +269,11 @@ public class AttemptDataParserService {
     }
 
     public String extractQuestionIdFromQuestionJson(String questionJson) {
-        ObjectMapper mapper = new ObjectMapper();
 
         try {
             if (questionJson == null || questionJson.isEmpty()) return null;
 
-            JsonNode sectionNode = mapper.readTree(questionJson);
+            JsonNode sectionNode = MAPPER.readTree(questionJson);
             JsonNode questionIdNode = sectionNode.path("questionId");
 
             if (!questionIdNode.isMissingNode() && !questionIdNode.isNull()) {
@@ -137,12 +288,11 @@ public class AttemptDataParserService {
     }
 
     public String extractResponseTypeFromQuestionJson(String questionJson) {
-        ObjectMapper mapper = new ObjectMapper();
 
         try {
             if (questionJson == null || questionJson.isEmpty()) return null;
 
-            JsonNode questionNode = mapper.readTree(questionJson);
+            JsonNode questionNode = MAPPER.readTree(questionJson);
             JsonNode responseNode = questionNode.path("responseData");
             JsonNode typeNode = responseNode.path("type");
 
@@ -158,12 +308,11 @@ public class AttemptDataParserService {
     }
 
     public Long extractTimeTakenInSecondsFromQuestionJson(String questionJson) {
-        ObjectMapper mapper = new ObjectMapper();
 
         try {
             if (questionJson == null || questionJson.isEmpty()) return null;
 
-            JsonNode questionNode = mapper.readTree(questionJson);
+            JsonNode questionNode = MAPPER.readTree(questionJson);
             JsonNode timeTakenNode = questionNode.path("timeTakenInSeconds");
 
             if (!timeTakenNode.isMissingNode() && !timeTakenNode.isNull()) {
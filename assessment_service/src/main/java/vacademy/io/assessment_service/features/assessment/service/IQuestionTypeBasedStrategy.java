@@ -2,6 +2,7 @@ package vacademy.io.assessment_service.features.assessment.service;
 
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.Getter;
 import lombok.Setter;
 import vacademy.io.assessment_service.features.assessment.dto.AssessmentQuestionPreviewDto;
@@ -12,13 +13,24 @@ import vacademy.io.assessment_service.features.question_core.entity.Question;
 import java.util.List;
 
 public abstract class IQuestionTypeBasedStrategy {
+    // Shared by all strategies: a new ObjectMapper per parse cost more than parsing the JSON itself
+    protected static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
     @Getter
     @Setter
     private String type;
 
-    @Getter
-    @Setter
-    private String answerStatus;
+    // Strategies are shared singletons (QuestionBasedStrategyFactory) and marks are calculated
+    // on many threads at once, so the status of the last calculation is kept per thread.
+    private final ThreadLocal<String> answerStatus = new ThreadLocal<>();
+
+    public String getAnswerStatus() {
+        return answerStatus.get();
+    }
+
+    public void setAnswerStatus(String answerStatus) {
+        this.answerStatus.set(answerStatus);
+    }
 
     public abstract double calculateMarks(String markingJsonStr, String correctAnswerJsonStr, String responseJson);
 
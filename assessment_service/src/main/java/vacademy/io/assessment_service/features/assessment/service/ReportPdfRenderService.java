@@ -13,11 +13,14 @@ import vacademy.io.assessment_service.features.assessment.entity.AssessmentUserR
 import vacademy.io.assessment_service.features.assessment.entity.StudentAttempt;
 import vacademy.io.assessment_service.features.assessment.repository.AssessmentRepository;
 import vacademy.io.assessment_service.features.assessment.repository.StudentAttemptRepository;
+import vacademy.io.assessment_service.features.assessment.service.render.ReportFontProviderHolder;
+import vacademy.io.assessment_service.features.assessment.service.render.ReportRenderMetrics;
 import vacademy.io.assessment_service.features.assessment.service.render.ReportRenderResources;
 import vacademy.io.assessment_service.features.learner_assessment.dto.ReportClassContext;
 import vacademy.io.assessment_service.features.learner_assessment.dto.StudentComparisonDto;
 
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.util.List;
 
 /**
@@ -39,6 +42,14 @@ import java.util.List;
  * the DTO chain). Any v2 failure falls back to the legacy
  * {@link HtmlBuilderService} output so a release/export batch never dies on
  * the new path.
+ *
+ * <p>Bulk callers (result release, the export worker) call {@link #prepare}
+ * once per job: the assessment meta, the branded document head and the
+ * cohort analytics are then computed once instead of per student, and
+ * passing the student's {@link StudentIdentity} skips the per-report attempt
+ * lookup. Such renders are safe to run concurrently on the
+ * {@code reportRenderExecutor} pool — each thread converts with its own
+ * FontProvider.
  */
 @Slf4j
 @Service
@@ -59,9 +70,24 @@ public class ReportPdfRenderService {
     @Autowired
     private StudentAttemptRepository studentAttemptRepository;
 
+    @Autowired
+    private ReportFontProviderHolder fontProviderHolder;
+
+    @Autowired
+    private ReportRenderMetrics metrics;
+
     @Value("${assessment.report.v2.enabled:true}")
     private boolean reportV2Enabled;
 
+    /** Registration identity block of the report, when the caller already holds the attempt. */
+    public record StudentIdentity(String name, String username, String email) {
+
+        public static StudentIdentity of(AssessmentUserRegistration registration) {
+            return registration == null ? null : new StudentIdentity(registration.getParticipantName(),
+                    registration.getUsername(), registration.getUserEmail());
+        }
+    }
+
     public byte[] render(StudentReportOverallDetailDto detail, StudentComparisonDto comparison, ReportClassContext ctx) {
         return renderInternal(detail, comparison, ctx, null);
     }
@@ -69,29 +95,83 @@ public class ReportPdfRenderService {
     /**
      * PR3 overload: renders using a per-job {@link ReportRenderResources}
      * (shared FontProvider, no remote font fetch — plan C7) instead of a
-     * fresh default {@code ConverterProperties} per call. Used by the PR4
-     * bulk-export worker; the 3-arg overload above is unchanged so existing
-     * callers (release flow, per-student admin download) keep working as-is.
+     * fresh default {@code ConverterProperties} per call. Resources from
+     * {@link #prepare} also carry the per-job report inputs; the 3-arg
+     * overload above is unchanged for single-report callers (per-student
+     * admin and learner downloads).
      */
     public byte[] render(StudentReportOverallDetailDto detail, StudentComparisonDto comparison,
                           ReportClassContext ctx, ReportRenderResources resources) {
         return renderInternal(detail, comparison, ctx, resources);
     }
 
-    private byte[] renderInternal(StudentReportOverallDetailDto detail, StudentComparisonDto comparison,
-                                   ReportClassContext ctx, ReportRenderResources resources) {
-        String html = buildHtml(detail, comparison, ctx);
+    /**
+     * Per-job precompute for bulk renders: one assessment lookup, one document
+     * head and one {@link StudentReportAnalyticsService.CohortAnalytics} for the
+     * whole job. The result is immutable and shared by every render thread.
+     */
+    public ReportRenderResources prepare(ReportClassContext ctx) {
+        return metrics.time(ReportRenderMetrics.STAGE_PREPARE, () -> {
+            ReportRenderResources resources = ReportRenderResources.forJob(ctx, fontProviderHolder.get());
+            if (!reportV2Enabled) {
+                return resources;
+            }
+            try {
+                return resources.withJobStatics(jobStaticsFor(ctx));
+            } catch (Exception e) {
+                // Each report then derives them itself, with the per-report legacy fallback
+                log.warn("[report-v2] Could not precompute report inputs for assessment {}: {}",
+                        ctx.getAssessmentId(), e.getMessage());
+                return resources;
+            }
+        });
+    }
+
+    /**
+     * Renders straight into {@code out} (closed when the conversion finishes),
+     * e.g. a spool file that is then streamed to the upload URL, so the export
+     * never holds the PDF as a byte array.
+     *
+     * @param identity the student's registration identity; null looks it up by attempt id
+     */
+    public void renderTo(OutputStream out, StudentReportOverallDetailDto detail, StudentComparisonDto comparison,
+                         ReportClassContext ctx, ReportRenderResources resources, StudentIdentity identity) {
+        String html = metrics.time(ReportRenderMetrics.STAGE_HTML,
+                () -> buildHtml(detail, comparison, ctx, resources, identity));
+        ConverterProperties props = converterProperties(resources);
+        metrics.timeRun(ReportRenderMetrics.STAGE_PDF, () -> HtmlConverter.convertToPdf(html, out, props));
+    }
+
+    public byte[] render(StudentReportOverallDetailDto detail, StudentComparisonDto comparison,
+                         ReportClassContext ctx, ReportRenderResources resources, StudentIdentity identity) {
         ByteArrayOutputStream out = new ByteArrayOutputStream();
-        ConverterProperties props = resources != null ? resources.getConverterProperties() : new ConverterProperties();
-        HtmlConverter.convertToPdf(html, out, props);
+        renderTo(out, detail, comparison, ctx, resources, identity);
         return out.toByteArray();
     }
 
+    private byte[] renderInternal(StudentReportOverallDetailDto detail, StudentComparisonDto comparison,
+                                   ReportClassContext ctx, ReportRenderResources resources) {
+        return render(detail, comparison, ctx, resources, null);
+    }
+
+    /**
+     * The job's shared settings, but the calling thread's own FontProvider:
+     * its font-selector cache is not safe for concurrent conversions.
+     */
+    private ConverterProperties converterProperties(ReportRenderResources resources) {
+        if (resources == null) {
+            return new ConverterProperties();
+        }
+        return new ConverterProperties(resources.getConverterProperties())
+                .setFontProvider(fontProviderHolder.forCurrentThread());
+    }
+
     private String buildHtml(StudentReportOverallDetailDto detail, StudentComparisonDto comparison,
-                              ReportClassContext ctx) {
+                              ReportClassContext ctx, ReportRenderResources resources, StudentIdentity identity) {
         if (reportV2Enabled) {
             try {
-                return buildV2Html(detail, comparison, ctx);
+                return buildV2Html(detail, comparison, ctx,
+                        resources != null ? resources.getJobStatics() : null, identity);
             } catch (Exception e) {
                 log.warn("[report-v2] Falling back to legacy report builder for assessment {}: {}",
                         ctx.getAssessmentId(), e.getMessage(), e);
@@ -102,12 +182,11 @@ public class ReportPdfRenderService {
     }
 
     private String buildV2Html(StudentReportOverallDetailDto detail, StudentComparisonDto comparison,
-                                ReportClassContext ctx) {
-        Assessment assessment = ctx.getAssessmentId() != null
-                ? assessmentRepository.findById(ctx.getAssessmentId()).orElse(null)
-                : null;
-        String evaluationType = assessment != null ? assessment.getEvaluationType() : null;
-        boolean autoEvaluated = !"MANUAL".equalsIgnoreCase(evaluationType);
+                                ReportClassContext ctx, ReportRenderResources.JobStatics statics,
+                                StudentIdentity identity) {
+        if (statics == null) {
+            statics = jobStaticsFor(ctx);
+        }
 
         String attemptId = detail != null && detail.getQuestionOverallDetailDto() != null
                 ? detail.getQuestionOverallDetailDto().getAttemptId()
@@ -117,19 +196,18 @@ public class ReportPdfRenderService {
                 : ctx.getTotalMarks();
 
         StudentReportAnalyticsService.StudentReportAnalytics analytics = studentReportAnalyticsService.compute(
-                ctx.getAssessmentId(), ctx.getInstituteId(), attemptId,
-                ctx.getFullLeaderboard(), detail, totalMarks, autoEvaluated);
+                statics.getCohortAnalytics(), attemptId, detail, totalMarks);
 
         // The registration is the authoritative identity block (participant
         // name, login/enrollment username, email) — the leaderboard name is
         // only a fallback. ManyToOne registration is EAGER, so this is safe
         // outside a transaction.
-        AssessmentUserRegistration registration = attemptId != null
-                ? studentAttemptRepository.findById(attemptId).map(StudentAttempt::getRegistration).orElse(null)
-                : null;
-        String studentName = registration != null && registration.getParticipantName() != null
-                && !registration.getParticipantName().isBlank()
-                ? registration.getParticipantName()
+        if (identity == null && attemptId != null) {
+            identity = StudentIdentity.of(studentAttemptRepository.findById(attemptId)
+                    .map(StudentAttempt::getRegistration).orElse(null));
+        }
+        String studentName = identity != null && identity.name() != null && !identity.name().isBlank()
+                ? identity.name()
                 : resolveStudentName(ctx.getFullLeaderboard(), attemptId);
 
         return studentReportHtmlV2Builder.build(StudentReportHtmlV2Builder.Input.builder()
@@ -137,18 +215,35 @@ public class ReportPdfRenderService {
                 .reportDetail(detail)
                 .comparison(comparison)
                 .branding(ctx.getBranding())
-                .evaluationType(evaluationType)
-                .examDate(assessment != null ? assessment.getBoundStartTime() : null)
-                .assessmentDurationMinutes(assessment != null ? assessment.getDuration() : null)
+                .evaluationType(statics.getEvaluationType())
+                .examDate(statics.getExamDate())
+                .assessmentDurationMinutes(statics.getAssessmentDurationMinutes())
                 .studentName(studentName)
-                .registrationUsername(registration != null ? registration.getUsername() : null)
-                .userEmail(registration != null ? registration.getUserEmail() : null)
+                .registrationUsername(identity != null ? identity.username() : null)
+                .userEmail(identity != null ? identity.email() : null)
                 .fullLeaderboard(ctx.getFullLeaderboard())
                 .sections(ctx.getSections())
                 .analytics(analytics)
+                .documentHead(statics.getDocumentHead())
                 .build());
     }
 
+    /** What {@link #prepare} computes once per job; single-report callers build it per report. */
+    private ReportRenderResources.JobStatics jobStaticsFor(ReportClassContext ctx) {
+        Assessment assessment = ctx.getAssessmentId() != null
+                ? assessmentRepository.findById(ctx.getAssessmentId()).orElse(null)
+                : null;
+        String evaluationType = assessment != null ? assessment.getEvaluationType() : null;
+        return ReportRenderResources.JobStatics.builder()
+                .evaluationType(evaluationType)
+                .examDate(assessment != null ? assessment.getBoundStartTime() : null)
+                .assessmentDurationMinutes(assessment != null ? assessment.getDuration() : null)
+                .documentHead(studentReportHtmlV2Builder.buildHead(ctx.getBranding()))
+                .cohortAnalytics(studentReportAnalyticsService.prepare(ctx.getAssessmentId(), ctx.getInstituteId(),
+                        ctx.getFullLeaderboard(), !"MANUAL".equalsIgnoreCase(evaluationType)))
+                .build();
+    }
+
     /** The student's display name only exists on the cohort leaderboard rows — match by attempt id. */
     private String resolveStudentName(List<LeaderBoardDto> leaderboard, String attemptId) {
         if (leaderboard == null || attemptId == null) {
@@ -1,6 +1,5 @@
 package vacademy.io.assessment_service.features.assessment.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,10 +10,8 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import vacademy.io.assessment_service.features.assessment.dto.QuestionWiseBasicDetailDto;
-import vacademy.io.assessment_service.features.assessment.dto.admin_get_dto.request.RevaluateRequest;
 import vacademy.io.assessment_service.features.assessment.dto.manual_evaluation.ManualAttemptResponseDto;
 import vacademy.io.assessment_service.features.assessment.entity.Assessment;
-import vacademy.io.assessment_service.features.assessment.entity.QuestionAssessmentSectionMapping;
 import vacademy.io.assessment_service.features.assessment.entity.Section;
 import vacademy.io.assessment_service.features.assessment.entity.StudentAttempt;
 import vacademy.io.assessment_service.features.assessment.enums.AttemptResultStatusEnum;
@@ -23,15 +20,14 @@ import vacademy.io.assessment_service.features.assessment.enums.ResultTypeEnum;
 import vacademy.io.assessment_service.features.assessment.repository.QuestionAssessmentSectionMappingRepository;
 import vacademy.io.assessment_service.features.assessment.repository.SectionRepository;
 import vacademy.io.assessment_service.features.assessment.repository.StudentAttemptRepository;
-import vacademy.io.assessment_service.features.learner_assessment.constants.AttemptJsonConstants;
+import vacademy.io.assessment_service.features.assessment.service.leaderboard.AssessmentLeaderboardService;
 import vacademy.io.assessment_service.features.learner_assessment.dto.status_json.LearnerAssessmentAttemptDataDto;
+import vacademy.io.assessment_service.features.learner_assessment.dto.status_json.ParsedAttemptData;
 import vacademy.io.assessment_service.features.learner_assessment.dto.status_json.manual.LearnerManualAttemptDataDto;
 import vacademy.io.assessment_service.features.learner_assessment.entity.QuestionWiseMarks;
 import vacademy.io.assessment_service.features.learner_assessment.enums.AssessmentAttemptEnum;
 import vacademy.io.assessment_service.features.learner_assessment.enums.AssessmentAttemptResultEnum;
 import vacademy.io.assessment_service.features.learner_assessment.service.QuestionWiseMarksService;
-import vacademy.io.assessment_service.features.notification.service.AssessmentNotificationService;
-import vacademy.io.assessment_service.features.question_core.entity.Question;
 import vacademy.io.assessment_service.features.question_core.enums.EvaluationTypes;
 import vacademy.io.assessment_service.features.question_core.repository.QuestionRepository;
 import vacademy.io.common.exceptions.VacademyException;
@@ -59,21 +55,23 @@ public class StudentAttemptService {
     @Autowired
     QuestionRepository questionRepository;
 
-    @Autowired
-    AssessmentNotificationService assessmentNotificationService;
-
     @Autowired
     AttemptDataParserService attemptDataParserService;
 
     @Autowired
     AssessmentWorkflowEventPublisher assessmentWorkflowEventPublisher;
 
+    @Autowired
+    AssessmentLeaderboardService assessmentLeaderboardService;
+
     public StudentAttempt updateStudentAttempt(StudentAttempt studentAttempt) {
-        return studentAttemptRepository.save(studentAttempt);
+        return updateLeaderBoard(studentAttemptRepository.save(studentAttempt));
     }
 
+    /** Folds a saved attempt's marks and time into its assessment's cached leaderboards. */
     public StudentAttempt updateLeaderBoard(StudentAttempt studentAttempt) {
-        return updateStudentAttempt(studentAttempt);
+        assessmentLeaderboardService.onAttemptSaved(studentAttempt);
+        return studentAttempt;
     }
 
     public void releaseResultsForEndedAutoReleaseAssessments() {
@@ -99,6 +97,15 @@ public class StudentAttemptService {
         return CompletableFuture.completedFuture(updateStudentAttemptWithTotalAfterMarksCalculation(studentAttemptOptional));
     }
 
+    /** @param parsedAttempt the attempt's data already parsed by the caller, or null to parse it here. */
+    @Async
+    @CacheEvict(value = "comparisonData", allEntries = true)
+    public CompletableFuture<StudentAttempt> updateStudentAttemptWithTotalAfterMarksCalculationAsync(Optional<StudentAttempt> studentAttemptOptional,
+                                                                                                    ParsedAttemptData parsedAttempt) {
+        return CompletableFuture.completedFuture(
+                updateStudentAttemptWithTotalAfterMarksCalculation(studentAttemptOptional, parsedAttempt));
+    }
+
     @Async
     @CacheEvict(value = "comparisonData", allEntries = true)
     public CompletableFuture<StudentAttempt> updateStudentAttemptResultAfterMarksCalculationAsync(Optional<StudentAttempt> studentAttemptOptional) {
@@ -132,11 +139,11 @@ public class StudentAttemptService {
                                                                              String endSource) {
         if (studentAttemptOptional.isEmpty()) throw new VacademyException("Student Attempt Not Found");
 
-        String attemptData = studentAttemptOptional.get().getAttemptData();
+        ParsedAttemptData parsedAttempt = attemptDataParserService.parse(studentAttemptOptional.get().getAttemptData());
 
-        Long timeElapsedInSeconds = attemptDataParserService.getTimeElapsedInSecondsFromAttemptData(attemptData);
+        Long timeElapsedInSeconds = parsedAttempt.getTimeElapsedInSeconds();
 
-        double totalMarks = calculateTotalMarksForAttemptAndUpdateQuestionWiseMarks(studentAttemptOptional);
+        double totalMarks = calculateTotalMarks(studentAttemptOptional, parsedAttempt);
 
         StudentAttempt attempt = studentAttemptOptional.get();
 
@@ -167,7 +174,7 @@ public class StudentAttemptService {
         // Auto-release result based on assessment's result_type
         boolean justReleased = !isManualEvaluation && autoReleaseResultIfApplicable(attempt);
 
-        StudentAttempt saved = studentAttemptRepository.save(attempt);
+        StudentAttempt saved = updateStudentAttempt(attempt);
         if (endedByThisCall && endSource != null) {
             assessmentWorkflowEventPublisher.publishAssessmentEnd(saved, endSource);
         }
@@ -191,19 +198,28 @@ public class StudentAttemptService {
 
     @CacheEvict(value = "comparisonData", allEntries = true)
     public StudentAttempt updateStudentAttemptWithTotalAfterMarksCalculation(Optional<StudentAttempt> studentAttemptOptional) {
+        return updateStudentAttemptWithTotalAfterMarksCalculation(studentAttemptOptional, null);
+    }
+
+    /** @param parsedAttempt the attempt's data already parsed by the caller, or null to parse it here. */
+    @CacheEvict(value = "comparisonData", allEntries = true)
+    public StudentAttempt updateStudentAttemptWithTotalAfterMarksCalculation(Optional<StudentAttempt> studentAttemptOptional,
+                                                                            ParsedAttemptData parsedAttempt) {
         if (studentAttemptOptional.isEmpty()) throw new VacademyException("Student Attempt Not Found");
 
-        String attemptData = studentAttemptOptional.get().getAttemptData();
+        if (parsedAttempt == null) {
+            parsedAttempt = attemptDataParserService.parse(studentAttemptOptional.get().getAttemptData());
+        }
 
-        Long timeElapsedInSeconds = attemptDataParserService.getTimeElapsedInSecondsFromAttemptData(attemptData);
+        Long timeElapsedInSeconds = parsedAttempt.getTimeElapsedInSeconds();
 
-        double totalMarks = calculateTotalMarksForAttemptAndUpdateQuestionWiseMarks(studentAttemptOptional);
+        double totalMarks = calculateTotalMarks(studentAttemptOptional, parsedAttempt);
 
         StudentAttempt attempt = studentAttemptOptional.get();
         attempt.setTotalMarks(totalMarks);
         attempt.setTotalTimeInSeconds(timeElapsedInSeconds);
 
-        return studentAttemptRepository.save(attempt);
+        return updateStudentAttempt(attempt);
 
     }
 
@@ -240,18 +256,14 @@ public class StudentAttemptService {
         return false;
     }
 
-    @Transactional
-    public Double calculateTotalMarksForAttemptAndUpdateQuestionWiseMarks(Optional<StudentAttempt> studentAttemptOptional) {
-        return calculateTotalMarks(studentAttemptOptional);
-    }
-
     /**
      * This method calculates the total marks for a learner's assessment attempt based on the questions
      * they answered and their responses. It iterates over the sections and questions, applying the
      * appropriate marking strategy for each question type.
      *
      * <p>All DB access is batched up front (marking schemes, sections, existing
-     * question_wise_marks rows) and the attempt JSON is parsed once, because the
+     * question_wise_marks rows) and the attempt JSON is parsed once into
+     * {@link ParsedAttemptData}, because the
      * previous per-question form (3+ selects and a full re-parse per question)
      * took 20-30s per attempt during live exams and saturated the async pool.
      * The question_wise_marks upserts are flushed in one saveAll at the end —
@@ -262,6 +274,14 @@ public class StudentAttemptService {
      * @return The total marks for the learner's attempt.
      */
     public double calculateTotalMarks(Optional<StudentAttempt> studentAttemptOptional){
+        if (studentAttemptOptional.isEmpty()) {
+            return 0.0;
+        }
+        return calculateTotalMarks(studentAttemptOptional,
+                attemptDataParserService.parse(studentAttemptOptional.get().getAttemptData()));
+    }
+
+    private double calculateTotalMarks(Optional<StudentAttempt> studentAttemptOptional, ParsedAttemptData parsedAttempt) {
         MarksCalculationContext context = null;
         try{
             double totalMarks = 0.0;
@@ -272,13 +292,10 @@ public class StudentAttemptService {
 
             StudentAttempt studentAttempt = studentAttemptOptional.get();
             Assessment assessment = studentAttempt.getRegistration().getAssessment();
-            String attemptData = studentAttempt.getAttemptData();
-
-            List<String> sectionList = attemptDataParserService.extractSectionJsonStrings(attemptData);
 
-            context = buildMarksCalculationContext(assessment, studentAttempt, sectionList, attemptData);
+            context = buildMarksCalculationContext(assessment, studentAttempt, parsedAttempt);
 
-            for (String section : sectionList) {
+            for (ParsedAttemptData.Section section : parsedAttempt.getSections()) {
                 totalMarks += calculateMarksForSection(section, assessment, studentAttempt, context);
             }
 
@@ -312,18 +329,19 @@ public class StudentAttemptService {
         final Map<String, QuestionAssessmentSectionMappingRepository.MarkingSchemeRow> markingSchemeByQuestionAndSection = new HashMap<>();
         final Map<String, Section> sectionById = new HashMap<>();
         final Map<String, QuestionWiseMarks> marksRowByQuestionAndSection = new HashMap<>();
-        final Map<String, String> responseJsonByQuestionId = new HashMap<>();
         final List<QuestionWiseMarks> dirtyQuestionWiseMarks = new ArrayList<>();
         final Set<String> dirtyKeys = new HashSet<>();
+        ParsedAttemptData attempt;
     }
 
     private MarksCalculationContext buildMarksCalculationContext(Assessment assessment, StudentAttempt studentAttempt,
-                                                                 List<String> sectionList, String attemptData) {
+                                                                 ParsedAttemptData parsedAttempt) {
         MarksCalculationContext context = new MarksCalculationContext();
+        context.attempt = parsedAttempt;
 
         List<String> sectionIds = new ArrayList<>();
-        for (String sectionJson : sectionList) {
-            String sectionId = attemptDataParserService.extractSectionIdFromSectionJson(sectionJson);
+        for (ParsedAttemptData.Section section : parsedAttempt.getSections()) {
+            String sectionId = section.sectionId();
             if (sectionId != null && !sectionIds.contains(sectionId)) {
                 sectionIds.add(sectionId);
             }
@@ -357,45 +375,27 @@ public class StudentAttemptService {
             }
         }
 
-        // One parse of the whole attempt JSON. Replaces getQuestionDetails' full
-        // re-parse per question; like it, the first question node wins on duplicate
-        // ids and any parse failure degrades to "{}" per question downstream.
-        try {
-            ObjectMapper objectMapper = new ObjectMapper();
-            JsonNode rootNode = objectMapper.readTree(attemptData);
-            for (JsonNode section : rootNode.path(AttemptJsonConstants.sections)) {
-                for (JsonNode question : section.path(AttemptJsonConstants.questions)) {
-                    String questionId = question.path(AttemptJsonConstants.questionId).asText();
-                    if (!context.responseJsonByQuestionId.containsKey(questionId)) {
-                        context.responseJsonByQuestionId.put(questionId, objectMapper.writeValueAsString(question));
-                    }
-                }
-            }
-        } catch (Exception e) {
-            log.error("Failed to parse attempt data for marks calculation: {}", e.getMessage());
-        }
-
         return context;
     }
 
-    private double calculateMarksForSection(String sectionJson, Assessment assessment, StudentAttempt studentAttempt,
-                                            MarksCalculationContext context) {
+    private double calculateMarksForSection(ParsedAttemptData.Section section, Assessment assessment,
+                                            StudentAttempt studentAttempt, MarksCalculationContext context) {
         double sectionMarks = 0.0;
-        List<String> questionJsons = attemptDataParserService.extractQuestionJsonsFromSection(sectionJson);
 
-        for (String question : questionJsons) {
-            sectionMarks += calculateMarksForQuestion(sectionJson, question, assessment, studentAttempt, context);
+        for (ParsedAttemptData.Question question : section.questions()) {
+            sectionMarks += calculateMarksForQuestion(section, question, assessment, studentAttempt, context);
         }
 
         return sectionMarks;
     }
 
-    private double calculateMarksForQuestion(String sectionJson, String questionJson, Assessment assessment,
-                                             StudentAttempt studentAttempt, MarksCalculationContext context) {
-        String sectionId = attemptDataParserService.extractSectionIdFromSectionJson(sectionJson);
-        String questionId = attemptDataParserService.extractQuestionIdFromQuestionJson(questionJson);
+    private double calculateMarksForQuestion(ParsedAttemptData.Section parsedSection, ParsedAttemptData.Question question,
+                                             Assessment assessment, StudentAttempt studentAttempt,
+                                             MarksCalculationContext context) {
+        String sectionId = parsedSection.sectionId();
+        String questionId = question.questionId();
 
-        String type = attemptDataParserService.extractResponseTypeFromQuestionJson(questionJson);
+        String type = question.responseType();
 
         QuestionAssessmentSectionMappingRepository.MarkingSchemeRow markingScheme = context.markingSchemeByQuestionAndSection
                 .get(questionId + "|" + sectionId);
@@ -404,7 +404,8 @@ public class StudentAttemptService {
             return 0.0;
         }
 
-        String questionWiseResponseData = context.responseJsonByQuestionId.getOrDefault(questionId, "{}");
+        // Like the per-question lookup it replaces, the first question node wins on duplicate ids
+        String questionWiseResponseData = context.attempt.questionJson(questionId);
 
         QuestionWiseBasicDetailDto questionWiseBasicDetailDto = QuestionBasedStrategyFactory.calculateMarks(
                 markingScheme.getMarkingJson(),
@@ -418,7 +419,7 @@ public class StudentAttemptService {
         Section section = context.sectionById.get(sectionId);
         if (section == null) throw new VacademyException("Section Not Found");
 
-        Long timeTakenInSecs = attemptDataParserService.extractTimeTakenInSecondsFromQuestionJson(questionJson);
+        Long timeTakenInSecs = question.timeTakenInSeconds();
 
         QuestionWiseMarks marksRow = context.marksRowByQuestionAndSection.get(questionId + "|" + sectionId);
         if (marksRow != null) {
@@ -472,30 +473,6 @@ public class StudentAttemptService {
         }
     }
 
-    public String getQuestionDetails(String questionId, String attemptDataJson) {
-        try {
-            ObjectMapper objectMapper = new ObjectMapper();
-            JsonNode rootNode = objectMapper.readTree(attemptDataJson);
-
-            // Iterate over the sections array
-            JsonNode sections = rootNode.path(AttemptJsonConstants.sections);
-            for (JsonNode section : sections) {
-                JsonNode questions = section.path(AttemptJsonConstants.questions);
-
-                // Iterate over the questions in the current section
-                for (JsonNode question : questions) {
-                    // Compare question_id to find the correct question
-                    if (question.path(AttemptJsonConstants.questionId).asText().equals(questionId)) {
-                        return objectMapper.writeValueAsString(question); // Return question as JSON string
-                    }
-                }
-            }
-            return "{}"; // Return empty JSON if questionId not found
-        } catch (Exception e) {
-            return "{}"; // Return empty JSON in case of error
-        }
-    }
-
     public List<StudentAttempt> getStudentAttemptsByIds(List<String> attemptIds) {
         return StreamSupport
                 .stream(studentAttemptRepository.findAllById(attemptIds).spliterator(), false)
@@ -506,128 +483,6 @@ public class StudentAttemptService {
         return studentAttemptRepository.findAllParticipantsFromAssessmentAndStatusNotIn(assessmentId, List.of("DELETED"));
     }
 
-    public void revaluateForAllParticipants(String assessmentId) {
-        List<StudentAttempt> allAttempts = studentAttemptRepository.findAllParticipantsFromAssessmentAndStatusNotIn(assessmentId, List.of("DELETED"));
-        revaluateAssessmentForAttempts(allAttempts);
-    }
-
-    public void revaluateAssessmentForAttempts(List<StudentAttempt> allAttempts) {
-        allAttempts.forEach(attempt -> {
-            if (attempt.getStatus().equals("ENDED")) {
-                updateStudentAttemptWithResultAfterMarksCalculation(Optional.of(attempt));
-            } else if (attempt.getStatus().equals("LIVE")) {
-                updateStudentAttemptWithTotalAfterMarksCalculation(Optional.of(attempt));
-            }
-
-        });
-    }
-
-    public void revaluateForCustomParticipantsAndQuestions(Assessment assessment, RevaluateRequest request) {
-        List<StudentAttempt> allAttempts = StreamSupport
-                .stream(studentAttemptRepository.findAllById(request.getAttemptIds()).spliterator(), false)
-                .toList();
-
-        List<RevaluateRequest.RevaluateQuestionDto> questionDtos = request.getQuestions();
-        questionDtos.forEach(question -> {
-            String sectionId = question.getSectionId();
-            List<String> questionIds = question.getQuestionIds();
-
-            for (StudentAttempt attempt : allAttempts) {
-                calculateMarksForSectionIdAndQuestionIds(Optional.of(attempt), sectionId, questionIds, assessment);
-                updateMarksAfterRevaluation(attempt, assessment.getId());
-            }
-        });
-    }
-
-    @Async
-    public CompletableFuture<Void> revaluateForAllParticipantsWrapper(Assessment assessment, String instituteId) {
-        return CompletableFuture.runAsync(() -> revaluateForAllParticipants(assessment.getId()))
-                .thenRun(() -> sendEmail(instituteId, assessment));
-    }
-
-    @Async
-    public CompletableFuture<Void> revaluateForParticipantIdsWrapper(Assessment assessment, List<String> allAttemptIds, String instituteId) {
-        List<StudentAttempt> allAttempts = StreamSupport
-                .stream(studentAttemptRepository.findAllById(allAttemptIds).spliterator(), false)
-                .toList();
-
-        return CompletableFuture.runAsync(() -> revaluateAssessmentForAttempts(allAttempts))
-                .thenRun(() -> sendEmail(instituteId, assessment));
-    }
-
-    @Async
-    public CompletableFuture<Void> revaluateCustomParticipantAndQuestionsWrapper(Assessment assessment, RevaluateRequest request, String instituteId) {
-
-        return CompletableFuture.runAsync(() -> revaluateForCustomParticipantsAndQuestions(assessment, request))
-                .thenRun(() -> sendEmail(instituteId, assessment));
-    }
-
-
-    public void updateMarksAfterRevaluation(StudentAttempt studentAttempt, String assessmentId) {
-        List<QuestionWiseMarks> allQuestionWiseMarks = questionWiseMarksService.getAllQuestionWiseMarksForAttemptId(studentAttempt.getId(), assessmentId);
-        double totalMarks = 0.0;
-
-        for (QuestionWiseMarks questionWiseMarks : allQuestionWiseMarks) {
-            totalMarks += questionWiseMarks.getMarks();
-        }
-
-        studentAttempt.setTotalMarks(totalMarks);
-        if (studentAttempt.getStatus().equals("ENDED")) {
-            studentAttempt.setResultMarks(totalMarks);
-        }
-
-        studentAttemptRepository.save(studentAttempt);
-    }
-
-    public void calculateMarksForSectionIdAndQuestionIds(Optional<StudentAttempt> studentAttemptOptional, String sectionId, List<String> questionIds, Assessment assessment) {
-        questionIds.forEach(questionId -> {
-            calculateMarksForSectionIdAndQuestionId(studentAttemptOptional, sectionId, questionId, assessment);
-        });
-    }
-
-
-    public double calculateMarksForSectionIdAndQuestionId(Optional<StudentAttempt> studentAttemptOptional, String sectionId, String questionId, Assessment assessment) {
-        if (studentAttemptOptional.isEmpty()) throw new VacademyException("Student Attempt Not Found");
-
-        StudentAttempt studentAttempt = studentAttemptOptional.get();
-        String jsonAttemptData = studentAttempt.getAttemptData();
-        if (Objects.isNull(jsonAttemptData)) return 0.0;
-
-        Optional<QuestionAssessmentSectionMapping> questionAssessmentSectionMapping =
-                questionAssessmentSectionMappingRepository.findByQuestionIdAndSectionId(questionId, sectionId);
-
-        if (questionAssessmentSectionMapping.isEmpty()) {
-            return 0.0;
-        }
-
-        QuestionAssessmentSectionMapping markingScheme = questionAssessmentSectionMapping.get();
-        Question questionAsked = markingScheme.getQuestion();
-        String questionWiseResponseData = getQuestionDetails(questionId, jsonAttemptData);
-
-        QuestionWiseBasicDetailDto questionWiseBasicDetailDto = QuestionBasedStrategyFactory.calculateMarks(
-                markingScheme.getMarkingJson(),
-                questionAsked.getAutoEvaluationJson(),
-                questionWiseResponseData,
-                questionAsked.getQuestionType()
-        );
-
-        double marksObtained = questionWiseBasicDetailDto.getMarks();
-        String answerStatus = questionWiseBasicDetailDto.getAnswerStatus();
-
-        Section section = questionAssessmentSectionMapping.get().getSection();
-
-        questionWiseMarksService.updateQuestionWiseMarksForEveryQuestion(
-                assessment, studentAttempt, questionAsked, questionWiseResponseData, null, answerStatus, section, marksObtained
-        );
-
-        return marksObtained;
-    }
-
-
-    private void sendEmail(String instituteId, Assessment assessment) {
-        assessmentNotificationService.sendNotificationsToAdminsAfterReevaluating(assessment, instituteId);
-    }
-
     public Optional<StudentAttempt> getStudentAttemptById(String id) {
         return studentAttemptRepository.findById(id);
     }
@@ -30,7 +30,11 @@ import java.util.Objects;
  * <p>Everything except the one per-question aggregate query
  * ({@code findQuestionClassStatsForAssessment}) is computed from data the
  * report flow already holds: the cohort leaderboard rows and the student's
- * own answer-review DTOs.
+ * own answer-review DTOs. The class-wide half of that work (distribution,
+ * class stats, sorted cohort marks) is the same for every student of an
+ * assessment, so bulk callers build it once with {@link #prepare} and pass
+ * the resulting {@link CohortAnalytics} to {@link #compute(CohortAnalytics,
+ * String, StudentReportOverallDetailDto, Double)} per student.
  *
  * <p>Question-level insights are intentionally skipped when the assessment is
  * MANUAL-evaluated (no reliable per-question correctness) or when fewer than
@@ -101,8 +105,67 @@ public class StudentReportAnalyticsService {
         private final PotentialProjection potential;
     }
 
+    /**
+     * The per-assessment half of the analytics: identical for every student in
+     * a release or export job. Immutable once built, so render threads share it.
+     */
+    @Getter
+    public static class CohortAnalytics {
+        private final ClassDistribution distribution;
+        private final boolean questionInsightsAvailable;
+        /** Empty when question insights are unavailable — the query is skipped then. */
+        private final Map<String, QuestionClassStatsDto> classStatsByQuestion;
+        /** Non-null cohort marks, ascending — rank/percentile lookups binary-search this. */
+        private final double[] sortedMarks;
+        private final Map<String, Double> marksByAttempt;
+
+        private CohortAnalytics(ClassDistribution distribution, boolean questionInsightsAvailable,
+                                Map<String, QuestionClassStatsDto> classStatsByQuestion,
+                                double[] sortedMarks, Map<String, Double> marksByAttempt) {
+            this.distribution = distribution;
+            this.questionInsightsAvailable = questionInsightsAvailable;
+            this.classStatsByQuestion = classStatsByQuestion;
+            this.sortedMarks = sortedMarks;
+            this.marksByAttempt = marksByAttempt;
+        }
+    }
+
     // ------------------------------------------------------------ computation
 
+    /**
+     * Builds the class-wide analytics once per job: one class-stats query and
+     * one sort of the cohort marks, instead of both per rendered report.
+     *
+     * @param cohortLeaderboard the full cohort rows ({@code ReportClassContext.fullLeaderboard})
+     * @param autoEvaluated     false for MANUAL (pen-and-paper) assessments
+     */
+    public CohortAnalytics prepare(String assessmentId,
+                                   String instituteId,
+                                   List<LeaderBoardDto> cohortLeaderboard,
+                                   boolean autoEvaluated) {
+        List<LeaderBoardDto> cohort = cohortLeaderboard != null ? cohortLeaderboard : Collections.emptyList();
+        ClassDistribution distribution = buildDistribution(cohort);
+        boolean insightsAvailable = autoEvaluated && distribution.getCohortSize() >= MIN_COHORT_FOR_QUESTION_INSIGHTS;
+
+        Map<String, Double> marksByAttempt = new HashMap<>();
+        for (LeaderBoardDto row : cohort) {
+            if (row != null && row.getAttemptId() != null && row.getAchievedMarks() != null) {
+                marksByAttempt.put(row.getAttemptId(), row.getAchievedMarks());
+            }
+        }
+        double[] sortedMarks = cohort.stream()
+                .filter(Objects::nonNull)
+                .map(LeaderBoardDto::getAchievedMarks)
+                .filter(Objects::nonNull)
+                .mapToDouble(Double::doubleValue)
+                .sorted()
+                .toArray();
+
+        return new CohortAnalytics(distribution, insightsAvailable,
+                insightsAvailable ? loadClassStats(assessmentId, instituteId) : Collections.emptyMap(),
+                sortedMarks, marksByAttempt);
+    }
+
     /**
      * @param cohortLeaderboard the full cohort rows already fetched by the report
      *                          flow ({@code ReportClassContext.fullLeaderboard})
@@ -117,11 +180,17 @@ public class StudentReportAnalyticsService {
                                           StudentReportOverallDetailDto reportDetail,
                                           Double totalMarks,
                                           boolean autoEvaluated) {
-        List<LeaderBoardDto> cohort = cohortLeaderboard != null ? cohortLeaderboard : Collections.emptyList();
-        ClassDistribution distribution = buildDistribution(cohort);
+        return compute(prepare(assessmentId, instituteId, cohortLeaderboard, autoEvaluated),
+                attemptId, reportDetail, totalMarks);
+    }
 
-        boolean insightsAvailable = autoEvaluated && distribution.getCohortSize() >= MIN_COHORT_FOR_QUESTION_INSIGHTS;
-        if (!insightsAvailable) {
+    /** Per-student half of {@link #compute(String, String, String, List, StudentReportOverallDetailDto, Double, boolean)}. */
+    public StudentReportAnalytics compute(CohortAnalytics cohort,
+                                          String attemptId,
+                                          StudentReportOverallDetailDto reportDetail,
+                                          Double totalMarks) {
+        ClassDistribution distribution = cohort.getDistribution();
+        if (!cohort.isQuestionInsightsAvailable()) {
             return StudentReportAnalytics.builder()
                     .distribution(distribution)
                     .questionInsightsAvailable(false)
@@ -130,7 +199,7 @@ public class StudentReportAnalyticsService {
                     .build();
         }
 
-        Map<String, QuestionClassStatsDto> classStatsByQuestion = loadClassStats(assessmentId, instituteId);
+        Map<String, QuestionClassStatsDto> classStatsByQuestion = cohort.getClassStatsByQuestion();
         List<ReviewRow> studentRows = flattenStudentRows(reportDetail);
 
         List<QuestionInsightRow> easyMisses = new ArrayList<>();
@@ -235,7 +304,7 @@ public class StudentReportAnalyticsService {
     }
 
     private PotentialProjection buildPotential(StudentReportOverallDetailDto reportDetail,
-                                               List<LeaderBoardDto> cohort,
+                                               CohortAnalytics cohort,
                                                String attemptId,
                                                double potentialGain,
                                                int skippedConsidered,
@@ -254,19 +323,16 @@ public class StudentReportAnalyticsService {
             return null;
         }
 
-        // Others' marks (excluding the student's own row) for rank/percentile insertion.
-        List<Double> otherMarks = cohort.stream()
-                .filter(row -> attemptId == null || !attemptId.equals(row.getAttemptId()))
-                .map(LeaderBoardDto::getAchievedMarks)
-                .filter(Objects::nonNull)
-                .toList();
-        int potentialRank = 1 + (int) countAbove(otherMarks, potentialScore);
-        double potentialPercentile = otherMarks.isEmpty() ? 100.0
-                : (countBelow(otherMarks, potentialScore) * 100.0) / otherMarks.size();
+        // Others' marks (the cohort minus the student's own row) for rank/percentile insertion.
+        Double ownMarks = attemptId != null ? cohort.getMarksByAttempt().get(attemptId) : null;
+        int otherCount = cohort.getSortedMarks().length - (ownMarks != null ? 1 : 0);
+        int potentialRank = 1 + countAbove(cohort, ownMarks, potentialScore);
+        double potentialPercentile = otherCount == 0 ? 100.0
+                : (countBelow(cohort, ownMarks, potentialScore) * 100.0) / otherCount;
 
         Integer currentRank = detail != null ? detail.getRank() : null;
         if (currentRank == null) {
-            currentRank = 1 + (int) countAbove(otherMarks, currentScore);
+            currentRank = 1 + countAbove(cohort, ownMarks, currentScore);
         }
         Double currentPercentile = detail != null ? detail.getPercentile() : null;
 
@@ -308,12 +374,38 @@ public class StudentReportAnalyticsService {
         return (double) correct / stats.getTotalCount();
     }
 
-    private static long countAbove(List<Double> marks, double score) {
-        return marks.stream().filter(m -> m > score).count();
+    /** Other students strictly above {@code score}: a binary search, minus the student's own row. */
+    private static int countAbove(CohortAnalytics cohort, Double ownMarks, double score) {
+        double[] marks = cohort.getSortedMarks();
+        int above = marks.length - firstIndexAbove(marks, score);
+        return ownMarks != null && ownMarks > score ? above - 1 : above;
+    }
+
+    private static int countBelow(CohortAnalytics cohort, Double ownMarks, double score) {
+        int below = firstIndexAtLeast(cohort.getSortedMarks(), score);
+        return ownMarks != null && ownMarks < score ? below - 1 : below;
     }
 
-    private static long countBelow(List<Double> marks, double score) {
-        return marks.stream().filter(m -> m < score).count();
+    private static int firstIndexAbove(double[] sorted, double score) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= score) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    private static int firstIndexAtLeast(double[] sorted, double score) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < score) low = mid + 1;
+            else high = mid;
+        }
+        return low;
     }
 
     private static List<QuestionInsightRow> limit(List<QuestionInsightRow> rows) {
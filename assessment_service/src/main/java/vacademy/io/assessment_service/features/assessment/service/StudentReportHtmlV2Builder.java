@@ -143,6 +143,8 @@ public class StudentReportHtmlV2Builder {
         /** Section id -> name/order source (ReportClassContext.sections); nullable. */
         private final List<SectionSnapshot> sections;
         private final StudentReportAnalyticsService.StudentReportAnalytics analytics;
+        /** Prebuilt {@link #buildHead} output for this branding; nullable (built per call). */
+        private final String documentHead;
     }
 
     // ------------------------------------------------------------------ entry
@@ -156,12 +158,7 @@ public class StudentReportHtmlV2Builder {
         String accent = resolveAccent(branding);
 
         StringBuilder sb = new StringBuilder(64 * 1024);
-        sb.append("<!DOCTYPE html><html lang=\"en\"><head><meta charset=\"UTF-8\">");
-        sb.append("<title>Student Assessment Report</title>");
-        appendCss(sb, accent);
-        sb.append("</head><body>");
-
-        appendWatermark(sb, branding, accent);
+        sb.append(in.getDocumentHead() != null ? in.getDocumentHead() : buildHead(branding));
 
         sb.append("<div class=\"wrap\">");
         appendLetterhead(sb, in, branding, accent, manual);
@@ -192,6 +189,24 @@ public class StudentReportHtmlV2Builder {
         return sb.toString();
     }
 
+    /**
+     * Everything before the report body that depends only on branding: doctype,
+     * the style block and the watermark. Identical for every student of an
+     * assessment, so bulk renders build it once per job and pass it back in
+     * through {@link Input#documentHead}.
+     */
+    public String buildHead(ReportBrandingDto branding) {
+        ReportBrandingDto resolved = branding != null ? branding : ReportBrandingDto.builder().build();
+        String accent = resolveAccent(resolved);
+        StringBuilder sb = new StringBuilder(8 * 1024);
+        sb.append("<!DOCTYPE html><html lang=\"en\"><head><meta charset=\"UTF-8\">");
+        sb.append("<title>Student Assessment Report</title>");
+        appendCss(sb, accent);
+        sb.append("</head><body>");
+        appendWatermark(sb, resolved, accent);
+        return sb.toString();
+    }
+
     // -------------------------------------------------------------------- css
 
     private void appendCss(StringBuilder sb, String accent) {
@@ -25,6 +25,7 @@ import vacademy.io.assessment_service.features.assessment.entity.StudentAttempt;
 import vacademy.io.assessment_service.features.assessment.enums.AiEvaluationStatusEnum;
 import vacademy.io.assessment_service.features.assessment.repository.AiEvaluationProcessRepository;
 import vacademy.io.assessment_service.features.assessment.repository.StudentAttemptRepository;
+import vacademy.io.assessment_service.features.assessment.service.leaderboard.AssessmentLeaderboardService;
 import vacademy.io.assessment_service.features.assessment.service.DocConverterService;
 import vacademy.io.assessment_service.features.assessment.service.FileConversionStatusService;
 import vacademy.io.assessment_service.features.learner_assessment.entity.QuestionWiseMarks;
@@ -49,6 +50,7 @@ public class AiEvaluationAsyncService {
         private final AiEvaluationProcessRepository aiEvaluationProcessRepository;
         private final QuestionWiseMarksRepository questionWiseMarksRepository;
         private final StudentAttemptRepository studentAttemptRepository;
+        private final AssessmentLeaderboardService assessmentLeaderboardService;
         private final ObjectMapper objectMapper;
         private final DocConverterService docConverterService;
         private final FileConversionStatusService fileConversionStatusService;
@@ -300,7 +302,7 @@ public class AiEvaluationAsyncService {
                                 studentAttempt.setResultStatus("COMPLETED");
                                 // Optionally set report as released so students can see results
                                 // studentAttempt.setReportReleaseStatus("RELEASED");
-                                studentAttemptRepository.save(studentAttempt);
+                                assessmentLeaderboardService.onAttemptSaved(studentAttemptRepository.save(studentAttempt));
                                 log.info("Updated StudentAttempt {} with totalMarks: {}, resultStatus: COMPLETED",
                                                 studentAttempt.getId(), totalMarksAwarded);
                         });
@@ -11,6 +11,7 @@ import vacademy.io.assessment_service.features.assessment.entity.StudentAttempt;
 import vacademy.io.assessment_service.features.assessment.repository.AiEvaluationProcessRepository;
 import vacademy.io.assessment_service.features.assessment.repository.AiQuestionEvaluationRepository;
 import vacademy.io.assessment_service.features.assessment.repository.StudentAttemptRepository;
+import vacademy.io.assessment_service.features.assessment.service.leaderboard.AssessmentLeaderboardService;
 import vacademy.io.assessment_service.features.learner_assessment.entity.QuestionWiseMarks;
 import vacademy.io.assessment_service.features.learner_assessment.repository.QuestionWiseMarksRepository;
 import vacademy.io.common.exceptions.ResourceNotFoundException;
@@ -34,6 +35,7 @@ public class AiEvaluationReviewService {
     private final AiQuestionEvaluationRepository questionEvaluationRepository;
     private final QuestionWiseMarksRepository questionWiseMarksRepository;
     private final StudentAttemptRepository studentAttemptRepository;
+    private final AssessmentLeaderboardService assessmentLeaderboardService;
 
     @Transactional
     public void overrideQuestion(String processId, String questionId, Double marks, String feedback,
@@ -123,7 +125,7 @@ public class AiEvaluationReviewService {
             if (stillUngraded == 0 && processFinished) {
                 attempt.setResultStatus("COMPLETED");
             }
-            studentAttemptRepository.save(attempt);
+            assessmentLeaderboardService.onAttemptSaved(studentAttemptRepository.save(attempt));
         }
     }
 }
@@ -20,6 +20,7 @@ import vacademy.io.assessment_service.features.assessment.repository.AiEvaluatio
 import vacademy.io.assessment_service.features.assessment.repository.AiQuestionEvaluationRepository;
 import vacademy.io.assessment_service.features.assessment.repository.CopyCheckLayoutRepository;
 import vacademy.io.assessment_service.features.assessment.repository.StudentAttemptRepository;
+import vacademy.io.assessment_service.features.assessment.service.leaderboard.AssessmentLeaderboardService;
 import vacademy.io.assessment_service.features.learner_assessment.entity.QuestionWiseMarks;
 import vacademy.io.assessment_service.features.learner_assessment.repository.QuestionWiseMarksRepository;
 
@@ -45,6 +46,7 @@ public class CopyCheckCallbackService {
     private final CopyCheckLayoutRepository layoutRepository;
     private final QuestionWiseMarksRepository questionWiseMarksRepository;
     private final StudentAttemptRepository studentAttemptRepository;
+    private final AssessmentLeaderboardService assessmentLeaderboardService;
     private final AiEvaluationCancellationService cancellationService;
     private final ObjectMapper objectMapper;
 
@@ -244,7 +246,7 @@ public class CopyCheckCallbackService {
                 if (StringUtils.hasText(payload.getEvaluatedFileId())) {
                     attempt.setEvaluatedFileId(payload.getEvaluatedFileId());
                 }
-                studentAttemptRepository.save(attempt);
+                assessmentLeaderboardService.onAttemptSaved(studentAttemptRepository.save(attempt));
             }
         }
         cancellationService.clearFlag(payload.getProcessId());
@@ -0,0 +1,43 @@
+package vacademy.io.assessment_service.features.assessment.service.export;
+
+import java.util.List;
+
+/**
+ * Walks a keyset-ordered query one page at a time: every page is read with the last row
+ * of the previous page as its lower bound, so each read is an index seek plus {@code limit}
+ * rows however deep into the result the export is, and only one page is held at a time.
+ */
+public final class KeysetPager<T> {
+
+    /** Reads up to {@code limit} rows ordered after {@code after}; {@code after} is null for the first page. */
+    @FunctionalInterface
+    public interface PageQuery<T> {
+        List<T> fetch(T after, int limit);
+    }
+
+    private final PageQuery<T> query;
+    private final int pageSize;
+    private T last;
+    private boolean exhausted;
+
+    public KeysetPager(int pageSize, PageQuery<T> query) {
+        this.pageSize = pageSize;
+        this.query = query;
+    }
+
+    public static <T> KeysetPager<T> empty() {
+        KeysetPager<T> pager = new KeysetPager<>(1, (after, limit) -> List.of());
+        pager.exhausted = true;
+        return pager;
+    }
+
+    /** The next page, or an empty list once the result is exhausted. */
+    public List<T> next() {
+        if (exhausted) return List.of();
+        List<T> page = query.fetch(last, pageSize);
+        // a short page is the last one; skip the extra round trip that would confirm it
+        if (page.size() < pageSize) exhausted = true;
+        if (!page.isEmpty()) last = page.get(page.size() - 1);
+        return page;
+    }
+}
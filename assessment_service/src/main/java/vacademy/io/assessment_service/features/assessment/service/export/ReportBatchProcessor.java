@@ -59,6 +59,7 @@ public class ReportBatchProcessor {
         String userId = attempt.getRegistration() != null ? attempt.getRegistration().getUserId() : null;
         String studentName = attempt.getRegistration() != null ? attempt.getRegistration().getParticipantName() : null;
         String studentEmail = attempt.getRegistration() != null ? attempt.getRegistration().getUserEmail() : null;
+        String registrationUsername = attempt.getRegistration() != null ? attempt.getRegistration().getUsername() : null;
 
         StudentReportOverallDetailDto detail = assessmentParticipantsManager
                 .createStudentReportDetailResponse(ctx, attemptId, ctx.getInstituteId());
@@ -74,6 +75,7 @@ public class ReportBatchProcessor {
                 .userId(userId)
                 .studentName(studentName)
                 .studentEmail(studentEmail)
+                .registrationUsername(registrationUsername)
                 .attemptUpdatedAt(attempt.getUpdatedAt())
                 .existingReportPdfFileId(attempt.getReportPdfFileId())
                 .detail(detail)
@@ -93,4 +93,31 @@ public class ReportExportExecutorConfig {
         executor.initialize();
         return executor;
     }
+
+    /**
+     * CPU pool for HTML -> PDF conversion, shared by result release and the
+     * export worker. Both callers keep every transactional read and write on
+     * their own thread and bound the renders they have in flight, so the
+     * queue never holds more than one window per caller. Render threads touch
+     * the database only for option-text lookups — one short auto-commit read
+     * each, never held across a conversion — which is why the default stops at
+     * 4 threads even on larger nodes: the 5-connection Hikari pool (plan C1)
+     * still has to serve everything else. Overflow runs on the caller, which
+     * simply slows its loading down to render speed.
+     */
+    @Bean("reportRenderExecutor")
+    public ThreadPoolTaskExecutor reportRenderExecutor(ReportExportProperties properties) {
+        int threads = properties.getRenderThreads() > 0
+                ? properties.getRenderThreads()
+                : Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads * 4);
+        executor.setThreadNamePrefix("report-render-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
 }
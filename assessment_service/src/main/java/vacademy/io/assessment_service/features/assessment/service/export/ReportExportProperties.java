@@ -22,4 +22,6 @@ public class ReportExportProperties {
     private int staleJobMinutes = 20;
     private int maxRetry = 2;
     private int assemblyTimeoutSeconds = 180;
+    /** Report render pool size, shared by release and export; 0 sizes it to the CPUs (at most 4). */
+    private int renderThreads = 0;
 }
@@ -13,6 +13,7 @@ import vacademy.io.assessment_service.features.assessment.repository.AssessmentR
 import vacademy.io.assessment_service.features.assessment.repository.AssessmentReportExportJobRepository;
 import vacademy.io.assessment_service.features.assessment.repository.AssessmentRepository;
 import vacademy.io.assessment_service.features.assessment.repository.StudentAttemptRepository;
+import vacademy.io.assessment_service.features.assessment.service.leaderboard.AssessmentLeaderboardService;
 import vacademy.io.assessment_service.features.assessment.service.ReportPdfUploadService;
 import vacademy.io.common.core.utils.DateUtil;
 import vacademy.io.common.exceptions.VacademyException;
@@ -55,6 +56,9 @@ public class ReportZipAssemblyService {
     @Autowired
     private AssessmentRepository assessmentRepository;
 
+    @Autowired
+    private AssessmentLeaderboardService assessmentLeaderboardService;
+
     @Autowired
     private StudentAttemptRepository studentAttemptRepository;
 
@@ -92,9 +96,8 @@ public class ReportZipAssemblyService {
         Map<String, vacademy.io.assessment_service.features.assessment.dto.LeaderBoardDto> statsByAttempt = new HashMap<>();
         Double totalMarks = null;
         try {
-            studentAttemptRepository
-                    .findLeaderBoardForAssessmentAndInstituteId(job.getAssessmentId(), job.getInstituteId(),
-                            List.of("ACTIVE"))
+            assessmentLeaderboardService
+                    .fullLeaderboard(job.getAssessmentId(), job.getInstituteId(), List.of("ACTIVE"))
                     .forEach(lb -> {
                         if (lb.getAttemptId() != null)
                             statsByAttempt.putIfAbsent(lb.getAttemptId(), lb);
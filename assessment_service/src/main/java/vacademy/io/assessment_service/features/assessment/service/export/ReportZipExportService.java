@@ -1,8 +1,8 @@
 package vacademy.io.assessment_service.features.assessment.service.export;
 
-import com.itextpdf.layout.font.FontProvider;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import vacademy.io.assessment_service.features.assessment.dto.export.RenderPacket;
@@ -15,13 +15,19 @@ import vacademy.io.assessment_service.features.assessment.repository.AssessmentR
 import vacademy.io.assessment_service.features.assessment.repository.AssessmentReportExportJobRepository;
 import vacademy.io.assessment_service.features.assessment.service.ReportPdfRenderService;
 import vacademy.io.assessment_service.features.assessment.service.ReportPdfUploadService;
-import vacademy.io.assessment_service.features.assessment.service.render.ReportFontProviderHolder;
+import vacademy.io.assessment_service.features.assessment.service.render.RenderWindow;
+import vacademy.io.assessment_service.features.assessment.service.render.ReportRenderMetrics;
 import vacademy.io.assessment_service.features.assessment.service.render.ReportRenderResources;
 import vacademy.io.assessment_service.features.learner_assessment.dto.ReportClassContext;
 import vacademy.io.assessment_service.features.learner_assessment.service.LearnerReportService;
 import vacademy.io.assessment_service.features.notification.service.NotificationService;
 
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * The bulk report export worker. Owns the batch loop and the status machine.
@@ -41,6 +47,12 @@ import java.util.List;
  * re-claimed here, it would always lose that race against itself. The
  * initiate path passes {@code false} (nothing has claimed it yet); the
  * continue path passes {@code true}.
+ *
+ * <p>Within a batch, packets are still loaded here one at a time, but each
+ * render + upload runs on {@code reportRenderExecutor} while the next packet
+ * loads; item results are recorded back on this thread. A rendered PDF goes
+ * to a spool file and is streamed to the presigned URL from there (fixed
+ * length, as S3 requires), so no report is held in memory as a byte array.
  */
 @Slf4j
 @Service
@@ -77,7 +89,11 @@ public class ReportZipExportService {
     private ReportExportProperties properties;
 
     @Autowired
-    private ReportFontProviderHolder fontProviderHolder;
+    @Qualifier("reportRenderExecutor")
+    private Executor renderExecutor;
+
+    @Autowired
+    private ReportRenderMetrics metrics;
 
     @Autowired
     private NotificationService notificationService;
@@ -102,7 +118,7 @@ public class ReportZipExportService {
             }
 
             ReportClassContext ctx = resolveContext(job);
-            ReportRenderResources resources = ReportRenderResources.forJob(ctx, fontProviderHolder.get());
+            ReportRenderResources resources = renderService.prepare(ctx);
 
             List<AssessmentReportExportItem> items = itemRepository.findProcessable(jobId, properties.getMaxRetry());
             runPhaseA(job, ctx, resources, items);
@@ -207,43 +223,97 @@ public class ReportZipExportService {
                 break;
             }
             List<AssessmentReportExportItem> batch = items.subList(i, Math.min(i + batchSize, items.size()));
+            RenderWindow<RenderedItem> window = new RenderWindow<>(renderExecutor, batchSize, this::recordRendered);
             for (AssessmentReportExportItem item : batch) {
-                processItem(job, ctx, resources, item);
+                processItem(job, ctx, resources, item, window);
             }
+            window.drain();
             progressWriter.checkpoint(job.getId());
             sleepQuietly(properties.getBatchPauseMs());
         }
     }
 
     private void processItem(AssessmentReportExportJob job, ReportClassContext ctx, ReportRenderResources resources,
-                              AssessmentReportExportItem item) {
+                              AssessmentReportExportItem item, RenderWindow<RenderedItem> window) {
+        RenderPacket packet;
         try {
-            RenderPacket packet = batchProcessor.loadRenderPacket(item.getAttemptId(), ctx);
-            if (packet.getSkipReason() != null) {
-                progressWriter.recordItemResult(item.getId(), ReportExportItemStatus.SKIPPED, null, null,
-                        packet.getSkipReason(), false);
-                return;
-            }
+            packet = batchProcessor.loadRenderPacket(item.getAttemptId(), ctx);
+        } catch (Exception e) {
+            recordRendered(RenderedItem.failed(item, e));
+            return;
+        }
+        if (packet.getSkipReason() != null) {
+            progressWriter.recordItemResult(item.getId(), ReportExportItemStatus.SKIPPED, null, null,
+                    packet.getSkipReason(), false);
+            return;
+        }
 
-            if (packet.getExistingReportPdfFileId() != null && !Boolean.TRUE.equals(job.getRegenerate())) {
-                progressWriter.recordItemResult(item.getId(), ReportExportItemStatus.DONE, ReportExportItemSource.REUSED,
-                        packet.getExistingReportPdfFileId(), null, false);
-                return;
-            }
+        if (packet.getExistingReportPdfFileId() != null && !Boolean.TRUE.equals(job.getRegenerate())) {
+            progressWriter.recordItemResult(item.getId(), ReportExportItemStatus.DONE, ReportExportItemSource.REUSED,
+                    packet.getExistingReportPdfFileId(), null, false);
+            return;
+        }
+
+        window.submit(() -> renderAndUpload(job, ctx, resources, item, packet));
+    }
 
-            byte[] bytes = renderService.render(packet.getDetail(), packet.getComparison(), ctx, resources);
+    /** Runs on the render pool: no transaction, no item writes — the outcome is recorded by the job thread. */
+    private RenderedItem renderAndUpload(AssessmentReportExportJob job, ReportClassContext ctx,
+                                          ReportRenderResources resources, AssessmentReportExportItem item,
+                                          RenderPacket packet) {
+        Path spool = null;
+        try {
+            spool = Files.createTempFile("report_" + item.getAttemptId(), ".pdf");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(spool))) {
+                renderService.renderTo(out, packet.getDetail(), packet.getComparison(), ctx, resources,
+                        new ReportPdfRenderService.StudentIdentity(packet.getStudentName(),
+                                packet.getRegistrationUsername(), packet.getStudentEmail()));
+            }
             String fileName = "report_" + item.getAttemptId() + ".pdf";
+            Path pdf = spool;
             // Throws on failure (ReportPdfUploadService contract) — caught below
             // so the item ends up FAILED, not silently DONE-with-no-file_id.
-            String fileId = uploadService.upload(bytes, fileName, "ASSESSMENT_REPORT_EXPORT", job.getAssessmentId());
-
-            progressWriter.recordItemResult(item.getId(), ReportExportItemStatus.DONE, ReportExportItemSource.GENERATED,
-                    fileId, null, false);
-            progressWriter.backfillAttemptReportFileId(item.getAttemptId(), fileId);
+            String fileId = metrics.time(ReportRenderMetrics.STAGE_UPLOAD, () -> uploadService.uploadStream(pdf,
+                    fileName, "application/pdf", "ASSESSMENT_REPORT_EXPORT", job.getAssessmentId()));
+            return new RenderedItem(item, fileId, null);
         } catch (Exception e) {
+            return RenderedItem.failed(item, e);
+        } finally {
+            deleteQuietly(spool);
+        }
+    }
+
+    private void recordRendered(RenderedItem rendered) {
+        AssessmentReportExportItem item = rendered.item();
+        if (rendered.error() != null) {
+            Exception e = rendered.error();
             log.warn("[report-export] item {} (attempt {}) failed: {}", item.getId(), item.getAttemptId(), e.getMessage());
             progressWriter.recordItemResult(item.getId(), ReportExportItemStatus.FAILED, null, null,
                     truncate(e.getClass().getSimpleName() + ": " + e.getMessage()), true);
+            return;
+        }
+        try {
+            progressWriter.recordItemResult(item.getId(), ReportExportItemStatus.DONE, ReportExportItemSource.GENERATED,
+                    rendered.fileId(), null, false);
+            progressWriter.backfillAttemptReportFileId(item.getAttemptId(), rendered.fileId());
+        } catch (Exception e) {
+            recordRendered(RenderedItem.failed(item, e));
+        }
+    }
+
+    private record RenderedItem(AssessmentReportExportItem item, String fileId, Exception error) {
+
+        static RenderedItem failed(AssessmentReportExportItem item, Exception error) {
+            return new RenderedItem(item, null, error);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) return;
+        try {
+            Files.deleteIfExists(path);
+        } catch (Exception e) {
+            log.warn("[report-export] could not delete spool file {}: {}", path, e.getMessage());
         }
     }
 
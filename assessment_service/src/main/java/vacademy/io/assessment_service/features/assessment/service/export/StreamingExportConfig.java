@@ -0,0 +1,48 @@
+package vacademy.io.assessment_service.features.assessment.service.export;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Async request handling for the streamed CSV/PDF exports ({@code StreamingResponseBody}),
+ * the only async MVC handlers in this service.
+ *
+ * <p>Without this, MVC writes response bodies on a {@code SimpleAsyncTaskExecutor} (a new
+ * thread per download: no {@code applicationTaskExecutor} exists once we declare our own
+ * executors) and Tomcat cuts the request off after its 30 s default async timeout, which a
+ * large participant export exceeds. Each stream only holds a connection for one page read at
+ * a time, so the pool bounds concurrent downloads rather than database load; past the queue
+ * the body is written on the Tomcat thread that served the request.
+ */
+@Configuration
+public class StreamingExportConfig implements WebMvcConfigurer {
+
+    @Value("${assessment.export.stream-timeout-seconds:600}")
+    private long streamTimeoutSeconds;
+
+    @Bean("exportStreamExecutor")
+    public ThreadPoolTaskExecutor exportStreamExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(20);
+        executor.setThreadNamePrefix("export-stream-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(exportStreamExecutor());
+        configurer.setDefaultTimeout(Duration.ofSeconds(streamTimeoutSeconds).toMillis());
+    }
+}
@@ -0,0 +1,192 @@
+package vacademy.io.assessment_service.features.assessment.service.export;
+
+import com.itextpdf.text.BaseColor;
+import com.itextpdf.text.Chunk;
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Element;
+import com.itextpdf.text.Font;
+import com.itextpdf.text.FontFactory;
+import com.itextpdf.text.Paragraph;
+import com.itextpdf.text.Phrase;
+import com.itextpdf.text.pdf.PdfPCell;
+import com.itextpdf.text.pdf.PdfPTable;
+import com.itextpdf.text.pdf.PdfWriter;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Streaming counterparts of {@code DataToCsvConverter.convertListToCsv} / {@code buildPdfResponse}:
+ * same columns (the row type's fields), same file names and PDF styling, but rows are pulled a
+ * page at a time from {@code pages} (an empty page ends the export) and written straight to the
+ * response, so heap use is one page whatever the row count.
+ *
+ * <p>The first page is read before the response is returned, so a failing query still surfaces
+ * as an error status, and an empty CSV keeps answering 204 as the buffered export did.
+ */
+public final class StreamingTableExporter {
+
+    // Rows per PdfPTable flush: about two rendered pages, so completed rows are written
+    // out and released instead of the table growing with the export.
+    private static final int PDF_ROWS_PER_FLUSH = 50;
+
+    private StreamingTableExporter() {
+    }
+
+    /** Pages supplier over an already-small list, e.g. the per-mark summary. */
+    public static <T> Supplier<List<T>> singlePage(List<T> rows) {
+        boolean[] served = {false};
+        return () -> {
+            if (served[0]) return List.of();
+            served[0] = true;
+            return rows;
+        };
+    }
+
+    public static <T> ResponseEntity<StreamingResponseBody> csv(Class<T> rowType, Supplier<List<T>> pages) {
+        List<T> firstPage = pages.get();
+        if (firstPage.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+        List<Field> fields = columns(rowType);
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(
+                    new OutputStreamWriter(StreamUtils.nonClosing(outputStream), StandardCharsets.UTF_8));
+            writer.write(String.join(",", fields.stream().map(Field::getName).toList()));
+            writer.write("\n");
+            for (List<T> page = firstPage; !page.isEmpty(); page = pages.get()) {
+                for (T row : page) {
+                    StringBuilder line = new StringBuilder();
+                    for (Field field : fields) {
+                        if (!line.isEmpty()) line.append(",");
+                        line.append(Objects.toString(read(field, row), ""));
+                    }
+                    writer.write(line.append("\n").toString());
+                }
+                writer.flush();
+            }
+        };
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentDisposition(ContentDisposition.attachment().filename("data.csv").build());
+        headers.setContentType(MediaType.TEXT_PLAIN);
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+
+    public static <T> ResponseEntity<StreamingResponseBody> pdf(String title, String subTitle, String lowercaseFilename,
+                                                                Class<T> rowType, Supplier<List<T>> pages) {
+        List<T> firstPage = pages.get();
+        List<Field> fields = columns(rowType);
+        StreamingResponseBody body = outputStream -> {
+            Document document = new Document();
+            try {
+                PdfWriter.getInstance(document, StreamUtils.nonClosing(outputStream));
+                document.open();
+                addHeading(document, title, subTitle);
+
+                PdfPTable table = new PdfPTable(fields.size());
+                table.setWidthPercentage(100);
+                int[] columnWidths = new int[fields.size()];
+                Arrays.fill(columnWidths, 2);
+                table.setWidths(columnWidths);
+                // the header repeats on every page; incomplete lets document.add() emit finished rows early
+                table.setHeaderRows(1);
+                table.setComplete(false);
+
+                Font headerFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12, BaseColor.WHITE);
+                BaseColor headerBgColor = new BaseColor(54, 69, 79);
+                for (Field field : fields) {
+                    PdfPCell header = new PdfPCell(new Phrase(field.getName().toUpperCase(), headerFont));
+                    header.setBackgroundColor(headerBgColor);
+                    header.setHorizontalAlignment(Element.ALIGN_CENTER);
+                    header.setPadding(8f);
+                    table.addCell(header);
+                }
+
+                Font bodyFont = FontFactory.getFont(FontFactory.HELVETICA, 11);
+                BaseColor altRowColor = new BaseColor(230, 230, 230);
+                boolean alternateRow = false;
+                int pendingRows = 0;
+                for (List<T> page = firstPage; !page.isEmpty(); page = pages.get()) {
+                    for (T row : page) {
+                        alternateRow = !alternateRow;
+                        for (Field field : fields) {
+                            PdfPCell cell = new PdfPCell(new Phrase(Objects.toString(read(field, row), ""), bodyFont));
+                            cell.setPadding(6f);
+                            cell.setHorizontalAlignment(Element.ALIGN_CENTER);
+                            if (alternateRow) {
+                                cell.setBackgroundColor(altRowColor);
+                            }
+                            table.addCell(cell);
+                        }
+                        if (++pendingRows == PDF_ROWS_PER_FLUSH) {
+                            document.add(table);
+                            outputStream.flush();
+                            pendingRows = 0;
+                        }
+                    }
+                }
+                table.setComplete(true);
+                document.add(table);
+                document.close();
+            } catch (DocumentException e) {
+                throw new IOException("Could not render " + lowercaseFilename + ".pdf", e);
+            }
+        };
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Content-Disposition", "inline; filename=" + lowercaseFilename + ".pdf");
+        return ResponseEntity.ok()
+                .headers(headers)
+                .contentType(MediaType.APPLICATION_PDF)
+                .body(body);
+    }
+
+    private static void addHeading(Document document, String title, String subTitle) throws DocumentException {
+        if (title != null && !title.isEmpty()) {
+            Paragraph paraTitle = new Paragraph(title, FontFactory.getFont(FontFactory.HELVETICA_BOLD, 16));
+            paraTitle.setAlignment(Element.ALIGN_CENTER);
+            document.add(paraTitle);
+            document.add(Chunk.NEWLINE);
+        }
+        if (subTitle != null && !subTitle.isEmpty()) {
+            Paragraph paraSubTitle = new Paragraph(subTitle,
+                    FontFactory.getFont(FontFactory.HELVETICA, 12, BaseColor.DARK_GRAY));
+            paraSubTitle.setAlignment(Element.ALIGN_CENTER);
+            document.add(paraSubTitle);
+            document.add(Chunk.NEWLINE);
+        }
+    }
+
+    private static List<Field> columns(Class<?> rowType) {
+        List<Field> fields = Arrays.stream(rowType.getDeclaredFields())
+                .filter(field -> !Modifier.isStatic(field.getModifiers()))
+                .toList();
+        fields.forEach(field -> field.setAccessible(true));
+        return fields;
+    }
+
+    private static Object read(Field field, Object row) {
+        try {
+            return field.get(row);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Unreadable export column " + field.getName(), e);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package vacademy.io.assessment_service.features.assessment.service.leaderboard;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+import vacademy.io.assessment_service.features.assessment.dto.LeaderBoardDto;
+import vacademy.io.assessment_service.features.assessment.entity.AssessmentUserRegistration;
+import vacademy.io.assessment_service.features.assessment.entity.StudentAttempt;
+import vacademy.io.assessment_service.features.assessment.repository.StudentAttemptRepository;
+import vacademy.io.assessment_service.features.learner_assessment.enums.AssessmentAttemptEnum;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Serves assessment leaderboards from per-assessment {@link LeaderboardIndex}es instead of
+ * re-running the ranking window queries on every page. An index is built from one scan of
+ * the participants' latest attempts the first time a view is read, then kept current by
+ * {@link #onAttemptSaved} / {@link #onScoreUpdated} as marks change on this instance.
+ *
+ * <p>Writes made by other instances are only picked up when the index is rebuilt, so indexes
+ * expire {@code assessment.leaderboard.ttl-seconds} after they were built; that bounds how
+ * stale a leaderboard can be, not how often the scan runs under steady reads.
+ */
+@Slf4j
+@Service
+public class AssessmentLeaderboardService {
+
+    private static final List<String> RANKED_STATUSES = List.of(
+            AssessmentAttemptEnum.LIVE.name(), AssessmentAttemptEnum.ENDED.name());
+
+    /** One leaderboard view: an assessment in an institute, optionally restricted to registration statuses. */
+    private record IndexKey(String assessmentId, String instituteId, List<String> statuses) {
+
+        static IndexKey of(String assessmentId, String instituteId, List<String> statusList) {
+            List<String> statuses = statusList == null ? null : statusList.stream().sorted().distinct().toList();
+            return new IndexKey(assessmentId, instituteId, statuses);
+        }
+
+        boolean includes(String registrationStatus) {
+            return statuses == null || statuses.contains(registrationStatus);
+        }
+    }
+
+    private final StudentAttemptRepository studentAttemptRepository;
+    private final Cache<IndexKey, LeaderboardIndex> indexes;
+
+    public AssessmentLeaderboardService(StudentAttemptRepository studentAttemptRepository,
+                                        @Value("${assessment.leaderboard.ttl-seconds:120}") long ttlSeconds,
+                                        @Value("${assessment.leaderboard.max-indexes:500}") long maxIndexes) {
+        this.studentAttemptRepository = studentAttemptRepository;
+        this.indexes = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxIndexes)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Page of the ranked leaderboard, as the admin leaderboard queries return it. With a name
+     * the page is taken from the matching rows, which keep their rank on the full board.
+     */
+    public Page<LeaderBoardDto> page(String assessmentId, String instituteId, List<String> statusList,
+                                     String name, Pageable pageable) {
+        LeaderboardIndex index = index(assessmentId, instituteId, statusList);
+        int from = (int) Math.min(pageable.getOffset(), Integer.MAX_VALUE);
+        if (StringUtils.hasText(name)) {
+            List<LeaderBoardDto> matches = index.matching(entry -> matchesName(entry.studentName(), name), false);
+            int to = Math.min(from + pageable.getPageSize(), matches.size());
+            List<LeaderBoardDto> content = from < to ? matches.subList(from, to) : List.of();
+            return new PageImpl<>(content, pageable, matches.size());
+        }
+        int total = index.size();
+        return new PageImpl<>(index.range(from, from + pageable.getPageSize(), false), pageable, total);
+    }
+
+    /** The whole ranked leaderboard with marks rounded to 2 places, as the exports and reports use it. */
+    public List<LeaderBoardDto> fullLeaderboard(String assessmentId, String instituteId, List<String> statusList) {
+        LeaderboardIndex index = index(assessmentId, instituteId, statusList);
+        return index.range(0, Integer.MAX_VALUE, true);
+    }
+
+    /** Positional access for callers that only need a few rows around a participant. */
+    public LeaderboardView view(String assessmentId, String instituteId, List<String> statusList) {
+        LeaderboardIndex index = index(assessmentId, instituteId, statusList);
+        return new LeaderboardView() {
+            @Override
+            public int size() {
+                return index.size();
+            }
+
+            @Override
+            public int positionOf(String userId) {
+                return index.positionOf(userId);
+            }
+
+            @Override
+            public List<LeaderBoardDto> range(int from, int to) {
+                return index.range(from, to, true);
+            }
+        };
+    }
+
+    /**
+     * Folds a saved attempt into the cached leaderboards of its assessment once the saving
+     * transaction commits. An attempt that leaves LIVE/ENDED while it is a participant's row
+     * drops the index, since the attempt that takes its place is only known to the database.
+     */
+    public void onAttemptSaved(StudentAttempt attempt) {
+        AssessmentUserRegistration registration = attempt != null ? attempt.getRegistration() : null;
+        if (registration == null || registration.getAssessment() == null) return;
+        String assessmentId = registration.getAssessment().getId();
+        String instituteId = registration.getInstituteId();
+        String registrationStatus = registration.getStatus();
+        boolean ranked = RANKED_STATUSES.contains(attempt.getStatus());
+        // created_at is filled by the database, so a just-inserted attempt has none yet: it is the newest
+        Date createdAt = attempt.getCreatedAt() != null ? attempt.getCreatedAt() : new Date();
+        LeaderboardIndex.Entry entry = new LeaderboardIndex.Entry(attempt.getId(), registration.getUserId(),
+                registration.getParticipantName(), registration.getSourceId(), attempt.getTotalTimeInSeconds(),
+                attempt.getTotalMarks(), createdAt);
+
+        afterCommit(() -> indexes.asMap().forEach((key, index) -> {
+            if (!key.assessmentId().equals(assessmentId) || !Objects.equals(key.instituteId(), instituteId)) return;
+            if (ranked && key.includes(registrationStatus)) {
+                index.upsert(entry);
+            } else if (index.holdsAttempt(entry.attemptId())) {
+                indexes.invalidate(key);
+            }
+        }));
+    }
+
+    /** Applies a rescored total written outside JPA (revaluation batches) to the cached leaderboards. */
+    public void onScoreUpdated(String assessmentId, String attemptId, Double totalMarks, Long totalTimeInSeconds) {
+        afterCommit(() -> indexes.asMap().forEach((key, index) -> {
+            if (key.assessmentId().equals(assessmentId)) {
+                index.updateScore(attemptId, totalMarks, totalTimeInSeconds);
+            }
+        }));
+    }
+
+    private LeaderboardIndex index(String assessmentId, String instituteId, List<String> statusList) {
+        return indexes.get(IndexKey.of(assessmentId, instituteId, statusList), this::build);
+    }
+
+    private LeaderboardIndex build(IndexKey key) {
+        long start = System.currentTimeMillis();
+        List<LeaderboardIndex.Entry> entries = studentAttemptRepository
+                .findLeaderboardEntries(key.assessmentId(), key.instituteId(), key.statuses())
+                .stream()
+                .map(row -> new LeaderboardIndex.Entry(row.getAttemptId(), row.getUserId(), row.getStudentName(),
+                        row.getBatchId(), row.getCompletionTimeInSeconds(), row.getAchievedMarks(), row.getCreatedAt()))
+                .toList();
+        LeaderboardIndex index = new LeaderboardIndex(entries);
+        log.debug("[leaderboard] built index for assessment {} ({} participants) in {} ms",
+                key.assessmentId(), entries.size(), System.currentTimeMillis() - start);
+        return index;
+    }
+
+    /**
+     * In-memory form of the leaderboard search predicate:
+     * {@code to_tsvector('simple', name) @@ plainto_tsquery('simple', :name) OR name ILIKE :name || '%'}.
+     */
+    static boolean matchesName(String studentName, String query) {
+        if (studentName == null || query == null) return false;
+        String name = studentName.toLowerCase(Locale.ROOT);
+        String prefix = query.toLowerCase(Locale.ROOT);
+        if (name.startsWith(prefix)) return true;
+        Set<String> queryWords = words(prefix);
+        return !queryWords.isEmpty() && words(name).containsAll(queryWords);
+    }
+
+    private static Set<String> words(String text) {
+        return Arrays.stream(text.split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package vacademy.io.assessment_service.features.assessment.service.leaderboard;
+
+import vacademy.io.assessment_service.features.assessment.dto.LeaderBoardDto;
+import vacademy.io.assessment_service.features.learner_assessment.dto.context.LeaderBoardSnapshot;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Ranked leaderboard of one assessment view, maintained in place as attempts are saved
+ * instead of re-ranked by a window query on every read. Ordering and ranking follow the
+ * leaderboard SQL: marks descending then time ascending (nulls last), DENSE_RANK over the
+ * participants' latest attempts, percentile {@code 100 * (1 - (rank - 1) / participants)}.
+ *
+ * <p>Two order-statistic trees back it: one over the entries (positions, pages) and one over
+ * the distinct (marks, time) scores (dense rank = distinct scores before this one + 1), so
+ * page, position-of-user and rank lookups are O(log n) and an update is O(log n).
+ */
+final class LeaderboardIndex {
+
+    record Entry(String attemptId, String userId, String studentName, String batchId,
+                 Long completionTimeInSeconds, Double achievedMarks, Date createdAt) {
+
+        Score score() {
+            return new Score(achievedMarks, completionTimeInSeconds);
+        }
+
+        Entry withScore(Double marks, Long timeInSeconds) {
+            return new Entry(attemptId, userId, studentName, batchId, timeInSeconds, marks, createdAt);
+        }
+    }
+
+    record Score(Double marks, Long timeInSeconds) {
+    }
+
+    static final Comparator<Score> SCORE_ORDER = Comparator
+            .comparing(Score::marks, Comparator.nullsLast(Comparator.<Double>reverseOrder()))
+            .thenComparing(Score::timeInSeconds, Comparator.nullsLast(Comparator.<Long>naturalOrder()));
+
+    // attemptId breaks score ties so every entry has a stable position
+    static final Comparator<Entry> ENTRY_ORDER = Comparator
+            .comparing(Entry::score, SCORE_ORDER)
+            .thenComparing(Entry::attemptId, Comparator.nullsLast(Comparator.<String>naturalOrder()));
+
+    private final OrderStatisticTree<Entry> entries = new OrderStatisticTree<>(ENTRY_ORDER);
+    private final OrderStatisticTree<Score> distinctScores = new OrderStatisticTree<>(SCORE_ORDER);
+    private final Map<Score, Integer> scoreCounts = new HashMap<>();
+    private final Map<String, Entry> byUser = new HashMap<>();
+    private final Map<String, String> userByAttempt = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    LeaderboardIndex(List<Entry> latestAttempts) {
+        latestAttempts.forEach(this::upsertLocked);
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    boolean holdsAttempt(String attemptId) {
+        lock.readLock().lock();
+        try {
+            return userByAttempt.containsKey(attemptId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Makes {@code entry} its user's leaderboard row, unless the user already has a row for a
+     * newer attempt (an older attempt being rescored does not displace it).
+     */
+    void upsert(Entry entry) {
+        lock.writeLock().lock();
+        try {
+            upsertLocked(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Rescores an attempt already on the leaderboard; a no-op for any other attempt. */
+    void updateScore(String attemptId, Double marks, Long timeInSeconds) {
+        lock.writeLock().lock();
+        try {
+            String userId = userByAttempt.get(attemptId);
+            if (userId == null) return;
+            Entry current = byUser.get(userId);
+            remove(current);
+            add(current.withScore(marks, timeInSeconds));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Zero-based position of the user's row, or -1 when the user is not on the leaderboard. */
+    int positionOf(String userId) {
+        lock.readLock().lock();
+        try {
+            Entry entry = byUser.get(userId);
+            return entry != null ? entries.countBefore(entry) : -1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Ranked rows at positions [from, to). */
+    List<LeaderBoardDto> range(int from, int to, boolean roundMarks) {
+        lock.readLock().lock();
+        try {
+            int total = entries.size();
+            List<LeaderBoardDto> out = new ArrayList<>();
+            for (Entry entry : entries.range(Math.max(0, from), Math.min(to, total))) {
+                out.add(ranked(entry, total, roundMarks));
+            }
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Ranked rows matching {@code filter}, in leaderboard order; ranks stay those of the full board. */
+    List<LeaderBoardDto> matching(Predicate<Entry> filter, boolean roundMarks) {
+        lock.readLock().lock();
+        try {
+            int total = entries.size();
+            List<LeaderBoardDto> out = new ArrayList<>();
+            for (Entry entry : entries.range(0, total)) {
+                if (filter.test(entry)) {
+                    out.add(ranked(entry, total, roundMarks));
+                }
+            }
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void upsertLocked(Entry entry) {
+        Entry current = byUser.get(entry.userId());
+        if (current != null) {
+            if (!entry.attemptId().equals(current.attemptId()) && current.createdAt() != null
+                    && entry.createdAt() != null && current.createdAt().after(entry.createdAt())) {
+                return;
+            }
+            remove(current);
+        }
+        add(entry);
+    }
+
+    private void add(Entry entry) {
+        entries.add(entry);
+        byUser.put(entry.userId(), entry);
+        userByAttempt.put(entry.attemptId(), entry.userId());
+        Score score = entry.score();
+        if (scoreCounts.merge(score, 1, Integer::sum) == 1) {
+            distinctScores.add(score);
+        }
+    }
+
+    private void remove(Entry entry) {
+        entries.remove(entry);
+        byUser.remove(entry.userId());
+        userByAttempt.remove(entry.attemptId());
+        Score score = entry.score();
+        Integer left = scoreCounts.computeIfPresent(score, (s, count) -> count > 1 ? count - 1 : null);
+        if (left == null) {
+            distinctScores.remove(score);
+        }
+    }
+
+    private LeaderBoardDto ranked(Entry entry, int total, boolean roundMarks) {
+        int rank = distinctScores.countBefore(entry.score()) + 1;
+        return LeaderBoardSnapshot.builder()
+                .attemptId(entry.attemptId())
+                .userId(entry.userId())
+                .studentName(entry.studentName())
+                .batchId(entry.batchId())
+                .completionTimeInSeconds(entry.completionTimeInSeconds())
+                .achievedMarks(roundMarks ? round2(entry.achievedMarks()) : entry.achievedMarks())
+                .rank(rank)
+                .percentile(round2(100.0 * (1.0 - (double) (rank - 1) / total)))
+                .build();
+    }
+
+    private static Double round2(Double value) {
+        if (value == null || value.isNaN() || value.isInfinite()) return value;
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP).doubleValue();
+    }
+}
@@ -0,0 +1,44 @@
+package vacademy.io.assessment_service.features.assessment.service.leaderboard;
+
+import vacademy.io.assessment_service.features.assessment.dto.LeaderBoardDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Positional read access to a ranked leaderboard, whether index-backed or an already-loaded list. */
+public interface LeaderboardView {
+
+    int size();
+
+    /** Zero-based position of the user's row, or -1 when the user is not on the leaderboard. */
+    int positionOf(String userId);
+
+    /** Rows at positions [from, to), clamped to the leaderboard. */
+    List<LeaderBoardDto> range(int from, int to);
+
+    /** @param leaderboard ranked rows in leaderboard order; null reads as empty */
+    static LeaderboardView of(List<LeaderBoardDto> leaderboard) {
+        List<LeaderBoardDto> rows = leaderboard != null ? leaderboard : List.of();
+        return new LeaderboardView() {
+            @Override
+            public int size() {
+                return rows.size();
+            }
+
+            @Override
+            public int positionOf(String userId) {
+                for (int i = 0; i < rows.size(); i++) {
+                    if (userId.equals(rows.get(i).getUserId())) return i;
+                }
+                return -1;
+            }
+
+            @Override
+            public List<LeaderBoardDto> range(int from, int to) {
+                int start = Math.max(0, from);
+                int end = Math.min(to, rows.size());
+                return start < end ? new ArrayList<>(rows.subList(start, end)) : new ArrayList<>();
+            }
+        };
+    }
+}
@@ -0,0 +1,177 @@
+package vacademy.io.assessment_service.features.assessment.service.leaderboard;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sorted set of distinct keys that also answers "how many keys sort before this one" and
+ * "which key is at position k" in O(log n): a treap whose nodes carry their subtree size.
+ * Not thread-safe; {@link LeaderboardIndex} guards it.
+ */
+final class OrderStatisticTree<K> {
+
+    private static final class Node<K> {
+        final K key;
+        final int priority;
+        Node<K> left;
+        Node<K> right;
+        int size = 1;
+
+        Node(K key) {
+            this.key = key;
+            this.priority = ThreadLocalRandom.current().nextInt();
+        }
+    }
+
+    private final Comparator<? super K> comparator;
+    private Node<K> root;
+
+    OrderStatisticTree(Comparator<? super K> comparator) {
+        this.comparator = comparator;
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    /** @return false when an equal key is already present */
+    boolean add(K key) {
+        if (contains(key)) return false;
+        root = insert(root, key);
+        return true;
+    }
+
+    /** @return false when no equal key was present */
+    boolean remove(K key) {
+        if (!contains(key)) return false;
+        root = delete(root, key);
+        return true;
+    }
+
+    boolean contains(K key) {
+        Node<K> node = root;
+        while (node != null) {
+            int cmp = comparator.compare(key, node.key);
+            if (cmp == 0) return true;
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return false;
+    }
+
+    /** Number of keys strictly before {@code key}, whether or not it is present. */
+    int countBefore(K key) {
+        int count = 0;
+        Node<K> node = root;
+        while (node != null) {
+            if (comparator.compare(key, node.key) <= 0) {
+                node = node.left;
+            } else {
+                count += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return count;
+    }
+
+    /** The key at zero-based position {@code index}. */
+    K get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size());
+        }
+        Node<K> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.key;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /** Keys at positions [from, to), in order, in O(log n + (to - from)). */
+    List<K> range(int from, int to) {
+        List<K> out = new ArrayList<>(Math.max(0, to - from));
+        collect(root, from, to, 0, out);
+        return out;
+    }
+
+    private void collect(Node<K> node, int from, int to, int offset, List<K> out) {
+        if (node == null || from >= to) return;
+        int position = offset + size(node.left);
+        if (from < position) {
+            collect(node.left, from, to, offset, out);
+        }
+        if (from <= position && position < to) {
+            out.add(node.key);
+        }
+        if (position + 1 < to) {
+            collect(node.right, from, to, position + 1, out);
+        }
+    }
+
+    private Node<K> insert(Node<K> node, K key) {
+        if (node == null) return new Node<>(key);
+        if (comparator.compare(key, node.key) < 0) {
+            node.left = insert(node.left, key);
+            if (node.left.priority > node.priority) node = rotateRight(node);
+        } else {
+            node.right = insert(node.right, key);
+            if (node.right.priority > node.priority) node = rotateLeft(node);
+        }
+        update(node);
+        return node;
+    }
+
+    private Node<K> delete(Node<K> node, K key) {
+        int cmp = comparator.compare(key, node.key);
+        if (cmp < 0) {
+            node.left = delete(node.left, key);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, key);
+        } else {
+            if (node.left == null) return node.right;
+            if (node.right == null) return node.left;
+            if (node.left.priority > node.right.priority) {
+                node = rotateRight(node);
+                node.right = delete(node.right, key);
+            } else {
+                node = rotateLeft(node);
+                node.left = delete(node.left, key);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private Node<K> rotateRight(Node<K> node) {
+        Node<K> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node<K> rotateLeft(Node<K> node) {
+        Node<K> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static <K> void update(Node<K> node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private static <K> int size(Node<K> node) {
+        return node == null ? 0 : node.size;
+    }
+}
@@ -1,7 +1,6 @@
 package vacademy.io.assessment_service.features.assessment.service.marking_strategy;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import vacademy.io.assessment_service.features.assessment.dto.AssessmentQuestionPreviewDto;
@@ -255,20 +254,17 @@ public class CodingQuestionTypeBasedStrategy extends IQuestionTypeBasedStrategy
 
     @Override
     public Object validateAndGetMarkingData(String markingJson) throws JsonProcessingException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        return objectMapper.readValue(markingJson, CodingMarkingDto.class);
+        return OBJECT_MAPPER.readValue(markingJson, CodingMarkingDto.class);
     }
 
     @Override
     public Object validateAndGetCorrectAnswerData(String correctAnswerJson) throws JsonProcessingException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        return objectMapper.readValue(correctAnswerJson, CodingCorrectAnswerDto.class);
+        return OBJECT_MAPPER.readValue(correctAnswerJson, CodingCorrectAnswerDto.class);
     }
 
     @Override
     public Object validateAndGetResponseData(String responseJson) throws JsonProcessingException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        return objectMapper.readValue(responseJson, CodingResponseDto.class);
+        return OBJECT_MAPPER.readValue(responseJson, CodingResponseDto.class);
     }
 
     @Override
@@ -1,7 +1,6 @@
 package vacademy.io.assessment_service.features.assessment.service.marking_strategy;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.util.Pair;
@@ -104,20 +103,17 @@ public class LongAnswerQuestionTypeBasedStrategy extends IQuestionTypeBasedStrat
 
     @Override
     public Object validateAndGetMarkingData(String markingJson) throws JsonProcessingException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        return objectMapper.readValue(markingJson, LongAnswerMarkingDto.class);
+        return OBJECT_MAPPER.readValue(markingJson, LongAnswerMarkingDto.class);
     }
 
     @Override
     public Object validateAndGetCorrectAnswerData(String correctAnswerJson) throws JsonProcessingException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        return objectMapper.readValue(correctAnswerJson, LongAanswerCorrectAnswerDto.class);
+        return OBJECT_MAPPER.readValue(correctAnswerJson, LongAanswerCorrectAnswerDto.class);
     }
 
     @Override
     public Object validateAndGetResponseData(String responseJson) throws JsonProcessingException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        return objectMapper.readValue(responseJson, LongAnswerResponseDto.class);
+        return OBJECT_MAPPER.readValue(responseJson, LongAnswerResponseDto.class);
     }
 
     @Override
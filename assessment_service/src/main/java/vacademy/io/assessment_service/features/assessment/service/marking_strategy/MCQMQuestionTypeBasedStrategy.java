@@ -2,7 +2,6 @@ package vacademy.io.assessment_service.features.assessment.service.marking_strat
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -96,20 +95,17 @@ public class MCQMQuestionTypeBasedStrategy extends IQuestionTypeBasedStrategy {
 
     @Override
     public Object validateAndGetMarkingData(String markingJson) throws JsonProcessingException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        return objectMapper.readValue(markingJson, MCQMMarkingDto.class);
+        return OBJECT_MAPPER.readValue(markingJson, MCQMMarkingDto.class);
     }
 
     @Override
     public Object validateAndGetCorrectAnswerData(String correctAnswerJson) throws JsonProcessingException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        return objectMapper.readValue(correctAnswerJson, MCQMCorrectAnswerDto.class);
+        return OBJECT_MAPPER.readValue(correctAnswerJson, MCQMCorrectAnswerDto.class);
     }
 
     @Override
     public Object validateAndGetResponseData(String responseJson) throws JsonProcessingException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        return objectMapper.readValue(responseJson, MCQMResponseDto.class);
+        return OBJECT_MAPPER.readValue(responseJson, MCQMResponseDto.class);
     }
 
     @Override
@@ -158,8 +154,7 @@ public class MCQMQuestionTypeBasedStrategy extends IQuestionTypeBasedStrategy {
     private List<String> extractValidAnswersForMCQM(String responseJson) {
         List<String> optionIds = new ArrayList<>();
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode root = mapper.readTree(responseJson);
+            JsonNode root = OBJECT_MAPPER.readTree(responseJson);
 
             JsonNode optionIdsNode = root.path("responseData").path("optionIds");
 
@@ -2,7 +2,6 @@ package vacademy.io.assessment_service.features.assessment.service.marking_strat
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import vacademy.io.assessment_service.features.assessment.dto.AssessmentQuestionPreviewDto;
@@ -82,20 +81,17 @@ public class MCQSQuestionTypeBasedStrategy extends IQuestionTypeBasedStrategy {
 
     @Override
     public Object validateAndGetMarkingData(String markingJson) throws JsonProcessingException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        return objectMapper.readValue(markingJson, MCQSMarkingDto.class);
+        return OBJECT_MAPPER.readValue(markingJson, MCQSMarkingDto.class);
     }
 
     @Override
     public Object validateAndGetCorrectAnswerData(String correctAnswerJson) throws JsonProcessingException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        return objectMapper.readValue(correctAnswerJson, MCQSCorrectAnswerDto.class);
+        return OBJECT_MAPPER.readValue(correctAnswerJson, MCQSCorrectAnswerDto.class);
     }
 
     @Override
     public Object validateAndGetResponseData(String responseJson) throws JsonProcessingException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        return objectMapper.readValue(responseJson, MCQSResponseDto.class);
+        return OBJECT_MAPPER.readValue(responseJson, MCQSResponseDto.class);
     }
 
     @Override
@@ -134,8 +130,7 @@ public class MCQSQuestionTypeBasedStrategy extends IQuestionTypeBasedStrategy {
 
     private String extractValidAnswerForMCQS(String responseJson) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            JsonNode root = mapper.readTree(responseJson);
+            JsonNode root = OBJECT_MAPPER.readTree(responseJson);
 
             // Navigate to responseData → optionIds[0]
             JsonNode optionIdsNode = root.path("responseData").path("optionIds");
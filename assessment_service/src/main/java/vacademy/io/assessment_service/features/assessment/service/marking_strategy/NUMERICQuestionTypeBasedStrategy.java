@@ -2,7 +2,6 @@ package vacademy.io.assessment_service.features.assessment.service.marking_strat
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -82,20 +81,17 @@ public class NUMERICQuestionTypeBasedStrategy extends IQuestionTypeBasedStrategy
 
     @Override
     public Object validateAndGetMarkingData(String markingJson) throws JsonProcessingException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        return objectMapper.readValue(markingJson, NUMERICMarkingDto.class);
+        return OBJECT_MAPPER.readValue(markingJson, NUMERICMarkingDto.class);
     }
 
     @Override
     public Object validateAndGetCorrectAnswerData(String correctAnswerJson) throws JsonProcessingException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        return objectMapper.readValue(correctAnswerJson, NUMERICCorrectAnswerDto.class);
+        return OBJECT_MAPPER.readValue(correctAnswerJson, NUMERICCorrectAnswerDto.class);
     }
 
     @Override
     public Object validateAndGetResponseData(String responseJson) throws JsonProcessingException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        return objectMapper.readValue(responseJson, NUMERICResponseDto.class);
+        return OBJECT_MAPPER.readValue(responseJson, NUMERICResponseDto.class);
     }
 
     @Override
@@ -132,8 +128,7 @@ public class NUMERICQuestionTypeBasedStrategy extends IQuestionTypeBasedStrategy
 
     public static double extractValidAnswer(String jsonString) {
         try {
-            ObjectMapper objectMapper = new ObjectMapper();
-            JsonNode rootNode = objectMapper.readTree(jsonString);
+            JsonNode rootNode = OBJECT_MAPPER.readTree(jsonString);
 
             // Navigate to responseData → validAnswer
             JsonNode validAnswerNode = rootNode.path("responseData").path("validAnswer");
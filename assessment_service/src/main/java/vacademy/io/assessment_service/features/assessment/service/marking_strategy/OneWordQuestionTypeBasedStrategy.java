@@ -1,7 +1,6 @@
 package vacademy.io.assessment_service.features.assessment.service.marking_strategy;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -81,20 +80,17 @@ public class OneWordQuestionTypeBasedStrategy extends IQuestionTypeBasedStrategy
 
     @Override
     public Object validateAndGetMarkingData(String markingJson) throws JsonProcessingException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        return objectMapper.readValue(markingJson, OneWordMarkingDto.class);
+        return OBJECT_MAPPER.readValue(markingJson, OneWordMarkingDto.class);
     }
 
     @Override
     public Object validateAndGetCorrectAnswerData(String correctAnswerJson) throws JsonProcessingException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        return objectMapper.readValue(correctAnswerJson, OneWordCorrectAnswerDto.class);
+        return OBJECT_MAPPER.readValue(correctAnswerJson, OneWordCorrectAnswerDto.class);
     }
 
     @Override
     public Object validateAndGetResponseData(String responseJson) throws JsonProcessingException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        return objectMapper.readValue(responseJson, OneWordResponseDto.class);
+        return OBJECT_MAPPER.readValue(responseJson, OneWordResponseDto.class);
     }
 
     @Override
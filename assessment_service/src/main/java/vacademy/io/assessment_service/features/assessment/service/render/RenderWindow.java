@@ -0,0 +1,47 @@
+package vacademy.io.assessment_service.features.assessment.service.render;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs report renders on the render pool while the caller keeps loading the
+ * next student, with at most {@code maxInFlight} renders outstanding.
+ * Results are handed back to {@code onDone} on the caller's thread, in
+ * submission order, so everything transactional (attempt updates, item
+ * status writes) stays where it ran before.
+ *
+ * <p>Tasks are expected to catch their own failures and report them in the
+ * result; an exception escaping a task is rethrown from {@link #submit} or
+ * {@link #drain}.
+ */
+public class RenderWindow<R> {
+
+    private final Executor executor;
+    private final int maxInFlight;
+    private final Consumer<R> onDone;
+    private final Deque<CompletableFuture<R>> inFlight = new ArrayDeque<>();
+
+    public RenderWindow(Executor executor, int maxInFlight, Consumer<R> onDone) {
+        this.executor = executor;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.onDone = onDone;
+    }
+
+    public void submit(Supplier<R> task) {
+        while (inFlight.size() >= maxInFlight) {
+            onDone.accept(inFlight.removeFirst().join());
+        }
+        inFlight.addLast(CompletableFuture.supplyAsync(task, executor));
+    }
+
+    /** Waits for every outstanding render and hands its result to {@code onDone}. */
+    public void drain() {
+        while (!inFlight.isEmpty()) {
+            onDone.accept(inFlight.removeFirst().join());
+        }
+    }
+}
@@ -7,6 +7,8 @@ import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Component;
 
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Process-wide singleton {@link FontProvider}, built once at startup.
@@ -22,8 +24,12 @@ import java.io.InputStream;
  * change — see the fallback behaviour below, which is what runs until they
  * are added.
  *
- * <p>{@code FontProvider} is safe to share for read after construction; it
- * is never mutated after {@code @PostConstruct}.
+ * <p>{@code FontProvider} is never mutated after {@code @PostConstruct}, but
+ * its font-selector cache is an unsynchronized map filled during conversion,
+ * so the shared instance is for one converting thread at a time (the
+ * sequential callers). The parallel render pool uses
+ * {@link #forCurrentThread()} instead: one provider per render thread, built
+ * from the same font bytes read once here.
  */
 @Slf4j
 @Component
@@ -36,6 +42,10 @@ public class ReportFontProviderHolder {
             "fonts/Inter-ExtraBold.ttf",
     };
 
+    private final List<byte[]> fontFiles = new ArrayList<>();
+
+    private final ThreadLocal<FontProvider> threadProviders = ThreadLocal.withInitial(this::newProvider);
+
     private FontProvider fontProvider;
 
     @PostConstruct
@@ -46,6 +56,7 @@ public class ReportFontProviderHolder {
             try (InputStream in = new ClassPathResource(path).getInputStream()) {
                 byte[] bytes = in.readAllBytes();
                 provider.addFont(bytes);
+                fontFiles.add(bytes);
                 registered++;
             } catch (Exception e) {
                 // Expected until the Inter font assets are bundled — fall through
@@ -68,4 +79,16 @@ public class ReportFontProviderHolder {
     public FontProvider get() {
         return fontProvider;
     }
+
+    /** The calling thread's own provider — for renders that run concurrently on the render pool. */
+    public FontProvider forCurrentThread() {
+        return threadProviders.get();
+    }
+
+    private FontProvider newProvider() {
+        FontProvider provider = new FontProvider();
+        fontFiles.forEach(provider::addFont);
+        provider.addStandardPdfFonts();
+        return provider;
+    }
 }
@@ -0,0 +1,52 @@
+package vacademy.io.assessment_service.features.assessment.service.render;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Per-stage timers for the student report pipeline, published as
+ * {@code assessment.report.render} with a {@code stage} tag:
+ * <ul>
+ *   <li>{@code prepare} — per-job precompute (assessment meta, document head, cohort analytics)</li>
+ *   <li>{@code html} — per-student analytics + HTML assembly</li>
+ *   <li>{@code pdf} — HTML to PDF conversion</li>
+ *   <li>{@code upload} — presigned PUT of the finished PDF</li>
+ * </ul>
+ * Stage time is what a bulk release is spent on, so this is where a slow
+ * release is diagnosed: a rising {@code pdf} share means the render pool is
+ * the limit, a rising {@code upload} share means the media service is.
+ */
+@Component
+public class ReportRenderMetrics {
+
+    public static final String STAGE_PREPARE = "prepare";
+    public static final String STAGE_HTML = "html";
+    public static final String STAGE_PDF = "pdf";
+    public static final String STAGE_UPLOAD = "upload";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public <T> T time(String stage, Supplier<T> work) {
+        return timer(stage).record(work);
+    }
+
+    public void timeRun(String stage, Runnable work) {
+        timer(stage).record(work);
+    }
+
+    private Timer timer(String stage) {
+        return timers.computeIfAbsent(stage, s -> Timer.builder("assessment.report.render")
+                .description("Student report pipeline time per stage")
+                .tag("stage", s)
+                .register(meterRegistry));
+    }
+}
@@ -2,9 +2,13 @@ package vacademy.io.assessment_service.features.assessment.service.render;
 
 import com.itextpdf.html2pdf.ConverterProperties;
 import com.itextpdf.layout.font.FontProvider;
+import lombok.Builder;
 import lombok.Getter;
+import vacademy.io.assessment_service.features.assessment.service.StudentReportAnalyticsService;
 import vacademy.io.assessment_service.features.learner_assessment.dto.ReportClassContext;
 
+import java.util.Date;
+
 /**
  * Per-job render inputs: a shared {@link ConverterProperties} (built once,
  * carrying the shared {@link FontProvider}) plus the invariant CSS block.
@@ -16,16 +20,40 @@ import vacademy.io.assessment_service.features.learner_assessment.dto.ReportClas
  * exposed here for a future HtmlBuilderService overload that accepts prebuilt
  * CSS, parameterised only by branding colour, without expanding today's
  * change surface on the byte-diff-sensitive report HTML.
+ *
+ * <p>{@link #getJobStatics()} carries the v2 report's per-assessment inputs
+ * (assessment meta, document head, cohort analytics), precomputed once by
+ * {@code ReportPdfRenderService.prepare}. It is null on values built through
+ * {@link #forJob} alone, in which case the render service derives them per
+ * report as before.
  */
 @Getter
 public class ReportRenderResources {
 
     private final ConverterProperties converterProperties;
     private final String cssBlock;
+    private final JobStatics jobStatics;
+
+    /** Inputs of the v2 report that are identical for every student of the job. Immutable. */
+    @Getter
+    @Builder
+    public static class JobStatics {
+        private final String evaluationType;
+        private final Date examDate;
+        private final Integer assessmentDurationMinutes;
+        /** {@code StudentReportHtmlV2Builder.buildHead} for the job's branding. */
+        private final String documentHead;
+        private final StudentReportAnalyticsService.CohortAnalytics cohortAnalytics;
+    }
 
-    private ReportRenderResources(ConverterProperties converterProperties, String cssBlock) {
+    private ReportRenderResources(ConverterProperties converterProperties, String cssBlock, JobStatics jobStatics) {
         this.converterProperties = converterProperties;
         this.cssBlock = cssBlock;
+        this.jobStatics = jobStatics;
+    }
+
+    public ReportRenderResources withJobStatics(JobStatics statics) {
+        return new ReportRenderResources(converterProperties, cssBlock, statics);
     }
 
     public static ReportRenderResources forJob(ReportClassContext ctx, FontProvider sharedFontProvider) {
@@ -41,6 +69,6 @@ public class ReportRenderResources {
                 + " .report-header { background-color: " + primaryColor + "; }"
                 + " .bar-fill-primary { background-color: " + primaryColor + "; }"
                 + " .bar-fill-secondary { background-color: " + secondaryColor + "; }";
-        return new ReportRenderResources(props, css);
+        return new ReportRenderResources(props, css, null);
     }
 }
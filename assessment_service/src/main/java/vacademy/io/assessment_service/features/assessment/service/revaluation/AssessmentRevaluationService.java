@@ -0,0 +1,336 @@
+package vacademy.io.assessment_service.features.assessment.service.revaluation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import vacademy.io.assessment_service.features.assessment.dto.admin_get_dto.request.RevaluateRequest;
+import vacademy.io.assessment_service.features.assessment.entity.Assessment;
+import vacademy.io.assessment_service.features.assessment.entity.AssessmentRevaluationJob;
+import vacademy.io.assessment_service.features.assessment.entity.StudentAttempt;
+import vacademy.io.assessment_service.features.assessment.enums.RevaluateRequestEnum;
+import vacademy.io.assessment_service.features.assessment.enums.RevaluationJobStatus;
+import vacademy.io.assessment_service.features.assessment.repository.AssessmentRepository;
+import vacademy.io.assessment_service.features.assessment.repository.AssessmentRevaluationJobRepository;
+import vacademy.io.assessment_service.features.assessment.repository.QuestionAssessmentSectionMappingRepository;
+import vacademy.io.assessment_service.features.assessment.repository.StudentAttemptRepository;
+import vacademy.io.assessment_service.features.assessment.repository.StudentAttemptRepository.RevaluationAttemptRow;
+import vacademy.io.assessment_service.features.assessment.service.AssessmentWorkflowEventPublisher;
+import vacademy.io.assessment_service.features.assessment.service.AttemptDataParserService;
+import vacademy.io.assessment_service.features.assessment.service.leaderboard.AssessmentLeaderboardService;
+import vacademy.io.assessment_service.features.assessment.service.revaluation.RevaluationScorer.AttemptOutcome;
+import vacademy.io.assessment_service.features.learner_assessment.repository.QuestionWiseMarksRepository;
+import vacademy.io.assessment_service.features.learner_assessment.repository.QuestionWiseMarksRepository.MarksKeyRow;
+import vacademy.io.assessment_service.features.notification.service.AssessmentNotificationService;
+import vacademy.io.assessment_service.features.question_core.enums.EvaluationTypes;
+import vacademy.io.common.core.utils.DateUtil;
+import vacademy.io.common.exceptions.VacademyException;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.StreamSupport;
+
+/**
+ * Revaluation as a chunked, resumable job. A run loads the assessment's marking schemes once,
+ * walks its attempts in id order one chunk at a time, scores each chunk on the bounded
+ * {@code revaluationWorkerExecutor} and commits it through {@link RevaluationBatchWriter}
+ * together with the resume cursor. Progress is the job row's counters.
+ *
+ * <p>Like {@code ReportZipExportService.run}, the run loop is NOT {@code @Transactional}: the
+ * only transactions are the short per-chunk writes and the repository reads, so a run holds
+ * one connection at a time however long it takes.
+ *
+ * <p>A run whose pod died stops checkpointing; {@link #resumeStaleJobs} takes it over (a
+ * conditional UPDATE, so one pod wins) and continues after the last committed chunk.
+ * Rescoring is idempotent, so the worst case after a crash is one chunk scored twice.
+ */
+@Slf4j
+@Service
+public class AssessmentRevaluationService {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Autowired
+    private AssessmentRevaluationJobRepository jobRepository;
+
+    @Autowired
+    private AssessmentRepository assessmentRepository;
+
+    @Autowired
+    private StudentAttemptRepository studentAttemptRepository;
+
+    @Autowired
+    private QuestionWiseMarksRepository questionWiseMarksRepository;
+
+    @Autowired
+    private QuestionAssessmentSectionMappingRepository questionAssessmentSectionMappingRepository;
+
+    @Autowired
+    private AttemptDataParserService attemptDataParserService;
+
+    @Autowired
+    private AssessmentWorkflowEventPublisher assessmentWorkflowEventPublisher;
+
+    @Autowired
+    private AssessmentNotificationService assessmentNotificationService;
+
+    @Autowired
+    private RevaluationBatchWriter batchWriter;
+
+    @Autowired
+    private RevaluationProperties properties;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private AssessmentLeaderboardService assessmentLeaderboardService;
+
+    @Autowired
+    @Qualifier("revaluationExecutor")
+    private Executor revaluationExecutor;
+
+    @Autowired
+    @Qualifier("revaluationWorkerExecutor")
+    private Executor workerExecutor;
+
+    /**
+     * Records a revaluation job and dispatches it; returns as soon as the job row exists.
+     *
+     * @param request attempt ids and questions for the participant-scoped methods, ignored for
+     *                {@code ENTIRE_ASSESSMENT}
+     */
+    public AssessmentRevaluationJob start(Assessment assessment, RevaluateRequestEnum methodType,
+                                          RevaluateRequest request, String instituteId) {
+        int total = methodType == RevaluateRequestEnum.ENTIRE_ASSESSMENT
+                ? (int) studentAttemptRepository.countRevaluationAttempts(assessment.getId())
+                : new TreeSet<>(request.getAttemptIds()).size();
+        String requestJson;
+        try {
+            requestJson = request != null ? MAPPER.writeValueAsString(request) : null;
+        } catch (Exception e) {
+            throw new VacademyException("Invalid Request");
+        }
+        AssessmentRevaluationJob job = jobRepository.save(AssessmentRevaluationJob.builder()
+                .assessmentId(assessment.getId())
+                .instituteId(instituteId)
+                .methodType(methodType.name())
+                .status(RevaluationJobStatus.PENDING.name())
+                .requestJson(requestJson)
+                .totalCount(total)
+                .updatedAt(DateUtil.getCurrentUtcTime())
+                .build());
+        revaluationExecutor.execute(() -> run(job.getId(), false));
+        return job;
+    }
+
+    public Optional<AssessmentRevaluationJob> getJob(String jobId) {
+        return jobRepository.findById(jobId);
+    }
+
+    public Optional<AssessmentRevaluationJob> getLatestJob(String assessmentId) {
+        return jobRepository.findFirstByAssessmentIdOrderByCreatedAtDesc(assessmentId);
+    }
+
+    /** Takes over runs that stopped checkpointing, on whichever pod gets there first. */
+    @Scheduled(fixedDelayString = "${assessment.revaluation.stale-sweep-ms:300000}",
+            initialDelayString = "${assessment.revaluation.stale-sweep-ms:300000}")
+    public void resumeStaleJobs() {
+        int staleMinutes = Math.max(1, properties.getStaleJobMinutes());
+        for (String jobId : jobRepository.findStaleJobIds(staleMinutes)) {
+            if (jobRepository.claimStale(jobId, staleMinutes) == 1) {
+                log.info("[revaluation] resuming stale job {}", jobId);
+                revaluationExecutor.execute(() -> run(jobId, true));
+            }
+        }
+    }
+
+    void run(String jobId, boolean alreadyClaimed) {
+        try {
+            if (!alreadyClaimed && jobRepository.claimPending(jobId) == 0) {
+                log.info("[revaluation] job {} already claimed by another run — skipping", jobId);
+                return;
+            }
+            AssessmentRevaluationJob job = jobRepository.findById(jobId).orElse(null);
+            if (job == null) {
+                log.warn("[revaluation] job {} vanished before the worker could read it", jobId);
+                return;
+            }
+            Assessment assessment = assessmentRepository.findById(job.getAssessmentId())
+                    .orElseThrow(() -> new VacademyException("Assessment Not Found"));
+            RevaluateRequestEnum methodType = RevaluateRequestEnum.valueOf(job.getMethodType());
+            RevaluateRequest request = job.getRequestJson() != null
+                    ? MAPPER.readValue(job.getRequestJson(), RevaluateRequest.class)
+                    : null;
+
+            RevaluationContext context = buildContext(assessment, methodType, request);
+            List<String> attemptIds = methodType == RevaluateRequestEnum.ENTIRE_ASSESSMENT
+                    ? null
+                    : new ArrayList<>(new TreeSet<>(request.getAttemptIds()));
+
+            long startedAt = System.currentTimeMillis();
+            String cursor = job.getLastAttemptId();
+            int processed = 0;
+            while (true) {
+                Chunk chunk = nextChunk(assessment.getId(), attemptIds, cursor);
+                if (chunk == null) {
+                    break;
+                }
+                processChunk(jobId, context, chunk);
+                cursor = chunk.cursor();
+                processed += chunk.rows().size();
+            }
+
+            finalizeJob(jobId, RevaluationJobStatus.COMPLETED, null);
+            log.info("[revaluation] job {} ({}, assessment {}) completed: {} attempts in {} ms (resume #{})",
+                    jobId, methodType, assessment.getId(), processed, System.currentTimeMillis() - startedAt,
+                    job.getResumeCount());
+            try {
+                assessmentNotificationService.sendNotificationsToAdminsAfterReevaluating(assessment, job.getInstituteId());
+            } catch (Exception e) {
+                log.warn("[revaluation] failed to notify admins for job {}: {}", jobId, e.getMessage());
+            }
+        } catch (Exception e) {
+            log.error("[revaluation] job {} failed: {}", jobId, e.getMessage(), e);
+            try {
+                finalizeJob(jobId, RevaluationJobStatus.FAILED, truncate(e.getMessage()));
+            } catch (Exception inner) {
+                log.error("[revaluation] failed to even record failure for job {}: {}", jobId, inner.getMessage());
+            }
+        }
+    }
+
+    /** Attempt rows of one chunk, and the cursor that follows it. */
+    private record Chunk(List<RevaluationAttemptRow> rows, String cursor) {
+    }
+
+    private Chunk nextChunk(String assessmentId, List<String> attemptIds, String cursor) {
+        int size = Math.max(1, properties.getChunkSize());
+        if (attemptIds == null) {
+            List<RevaluationAttemptRow> rows = studentAttemptRepository.findRevaluationPage(assessmentId,
+                    cursor != null ? cursor : "", size);
+            return rows.isEmpty() ? null : new Chunk(rows, rows.get(rows.size() - 1).getId());
+        }
+        // Explicit ids: page over the sorted id list itself, so ids that no longer match
+        // (deleted, other assessment) cannot stall the cursor
+        int from = 0;
+        while (from < attemptIds.size() && cursor != null && attemptIds.get(from).compareTo(cursor) <= 0) {
+            from++;
+        }
+        if (from >= attemptIds.size()) {
+            return null;
+        }
+        List<String> ids = attemptIds.subList(from, Math.min(from + size, attemptIds.size()));
+        return new Chunk(studentAttemptRepository.findRevaluationRowsByIds(assessmentId, ids),
+                ids.get(ids.size() - 1));
+    }
+
+    private void processChunk(String jobId, RevaluationContext context, Chunk chunk) {
+        List<String> ids = chunk.rows().stream().map(RevaluationAttemptRow::getId).toList();
+        Map<String, List<MarksKeyRow>> existingByAttempt = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (MarksKeyRow row : questionWiseMarksRepository.findMarksKeyRowsForAttempts(context.assessmentId(), ids)) {
+                existingByAttempt.computeIfAbsent(row.getAttemptId(), k -> new ArrayList<>()).add(row);
+            }
+        }
+
+        Date now = DateUtil.getCurrentUtcTime();
+        Map<String, CompletableFuture<AttemptOutcome>> scoring = new LinkedHashMap<>();
+        for (RevaluationAttemptRow row : chunk.rows()) {
+            List<MarksKeyRow> existing = existingByAttempt.getOrDefault(row.getId(), List.of());
+            scoring.put(row.getId(), CompletableFuture.supplyAsync(() -> RevaluationScorer.score(context, row,
+                    attemptDataParserService.parse(row.getAttemptData()), existing, now), workerExecutor));
+        }
+
+        List<AttemptOutcome> outcomes = new ArrayList<>();
+        int failed = 0;
+        for (Map.Entry<String, CompletableFuture<AttemptOutcome>> entry : scoring.entrySet()) {
+            try {
+                AttemptOutcome outcome = entry.getValue().join();
+                if (outcome != null) {
+                    outcomes.add(outcome);
+                }
+            } catch (Exception e) {
+                // Left exactly as it was; the per-attempt path used to zero the total instead
+                failed++;
+                log.warn("[revaluation] job {}: attempt {} could not be scored, left unchanged: {}",
+                        jobId, entry.getKey(), e.getMessage());
+            }
+        }
+
+        batchWriter.writeChunk(jobId, context.assessmentId(), outcomes, chunk.cursor(), chunk.rows().size(), failed);
+        afterChunkCommitted(context.assessmentId(), outcomes);
+    }
+
+    /** What the per-attempt calls did after each save: cache eviction, leaderboard update and release events. */
+    private void afterChunkCommitted(String assessmentId, List<AttemptOutcome> outcomes) {
+        Cache cache = cacheManager.getCache("comparisonData");
+        if (cache != null) {
+            cache.clear();
+        }
+        for (AttemptOutcome outcome : outcomes) {
+            assessmentLeaderboardService.onScoreUpdated(assessmentId, outcome.attemptId(), outcome.totalMarks(),
+                    outcome.totalTimeInSeconds());
+        }
+        List<String> released = outcomes.stream().filter(AttemptOutcome::justReleased)
+                .map(AttemptOutcome::attemptId).toList();
+        if (!released.isEmpty()) {
+            try {
+                List<StudentAttempt> attempts = StreamSupport
+                        .stream(studentAttemptRepository.findAllById(released).spliterator(), false)
+                        .toList();
+                assessmentWorkflowEventPublisher.publishResultReleased(attempts);
+            } catch (Exception e) {
+                log.warn("[revaluation] failed to publish result release for {} attempts: {}",
+                        released.size(), e.getMessage());
+            }
+        }
+    }
+
+    private RevaluationContext buildContext(Assessment assessment, RevaluateRequestEnum methodType,
+                                            RevaluateRequest request) {
+        Map<String, List<String>> questionIdsBySection = null;
+        if (methodType == RevaluateRequestEnum.PARTICIPANTS_AND_QUESTIONS) {
+            questionIdsBySection = new LinkedHashMap<>();
+            for (RevaluateRequest.RevaluateQuestionDto question : request.getQuestions()) {
+                if (question.getSectionId() != null && question.getQuestionIds() != null) {
+                    questionIdsBySection.computeIfAbsent(question.getSectionId(), s -> new ArrayList<>())
+                            .addAll(question.getQuestionIds());
+                }
+            }
+        }
+        return new RevaluationContext(assessment.getId(),
+                questionAssessmentSectionMappingRepository.findMarkingSchemeRowsByAssessmentId(assessment.getId()),
+                questionIdsBySection,
+                EvaluationTypes.MANUAL.name().equals(assessment.getEvaluationType()),
+                assessment.getResultType(),
+                assessment.getBoundEndTime());
+    }
+
+    private void finalizeJob(String jobId, RevaluationJobStatus status, String errorMessage) {
+        AssessmentRevaluationJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null) return;
+        job.setStatus(status.name());
+        job.setErrorMessage(errorMessage);
+        job.setCompletedAt(DateUtil.getCurrentUtcTime());
+        job.setUpdatedAt(DateUtil.getCurrentUtcTime());
+        jobRepository.save(job);
+    }
+
+    private String truncate(String s) {
+        if (s == null) return null;
+        return s.length() > 2000 ? s.substring(0, 2000) : s;
+    }
+}
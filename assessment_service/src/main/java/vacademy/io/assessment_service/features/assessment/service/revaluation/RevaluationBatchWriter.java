@@ -0,0 +1,88 @@
+package vacademy.io.assessment_service.features.assessment.service.revaluation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import vacademy.io.assessment_service.features.assessment.service.revaluation.RevaluationScorer.AttemptOutcome;
+import vacademy.io.assessment_service.features.assessment.service.revaluation.RevaluationScorer.MarkWrite;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Writes one scored chunk: question_wise_marks updates and inserts, the attempt columns, and
+ * the job's counters and resume cursor, all as JDBC batches in a single transaction. Either
+ * the whole chunk and its cursor commit or neither does, so a resumed run never skips or
+ * double-counts a chunk.
+ */
+@Slf4j
+@Service
+public class RevaluationBatchWriter {
+
+    private static final String UPDATE_MARKS_SQL = "UPDATE question_wise_marks SET marks = ?, status = ?, "
+            + "response_json = ?, time_taken_in_seconds = COALESCE(?, time_taken_in_seconds), updated_at = now() "
+            + "WHERE id = ?";
+
+    private static final String INSERT_MARKS_SQL = "INSERT INTO question_wise_marks (id, assessment_id, attempt_id, "
+            + "question_id, section_id, marks, status, time_taken_in_seconds, response_json) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_ATTEMPT_SQL = "UPDATE student_attempt SET total_marks = ?, "
+            + "total_time_in_seconds = ?, result_marks = ?, result_status = ?, report_release_status = ?, "
+            + "report_last_release_date = ? WHERE id = ?";
+
+    private static final String CHECKPOINT_SQL = "UPDATE assessment_revaluation_job SET "
+            + "processed_count = processed_count + ?, failed_count = failed_count + ?, last_attempt_id = ?, "
+            + "updated_at = now() WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public RevaluationBatchWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * @param lastAttemptId cursor to resume after once this chunk is committed
+     * @param processed     attempts handled in this chunk, including failed ones
+     * @param failed        attempts that could not be scored and were left unchanged
+     */
+    public void writeChunk(String jobId, String assessmentId, List<AttemptOutcome> outcomes, String lastAttemptId,
+                           int processed, int failed) {
+        List<Object[]> markUpdates = new ArrayList<>();
+        List<Object[]> markInserts = new ArrayList<>();
+        List<Object[]> attemptUpdates = new ArrayList<>();
+        for (AttemptOutcome outcome : outcomes) {
+            for (MarkWrite write : outcome.updates()) {
+                markUpdates.add(new Object[]{write.marks(), write.status(), write.responseJson(),
+                        write.timeTakenInSeconds(), write.id()});
+            }
+            for (MarkWrite write : outcome.inserts()) {
+                markInserts.add(new Object[]{write.id(), assessmentId, write.attemptId(), write.questionId(),
+                        write.sectionId(), write.marks(), write.status(), write.timeTakenInSeconds(),
+                        write.responseJson()});
+            }
+            attemptUpdates.add(new Object[]{outcome.totalMarks(), outcome.totalTimeInSeconds(), outcome.resultMarks(),
+                    outcome.resultStatus(), outcome.reportReleaseStatus(), toTimestamp(outcome.reportLastReleaseDate()),
+                    outcome.attemptId()});
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!markUpdates.isEmpty()) jdbcTemplate.batchUpdate(UPDATE_MARKS_SQL, markUpdates);
+            if (!markInserts.isEmpty()) jdbcTemplate.batchUpdate(INSERT_MARKS_SQL, markInserts);
+            if (!attemptUpdates.isEmpty()) jdbcTemplate.batchUpdate(UPDATE_ATTEMPT_SQL, attemptUpdates);
+            jdbcTemplate.update(CHECKPOINT_SQL, processed, failed, lastAttemptId, jobId);
+        });
+        log.debug("[revaluation] job {} wrote {} attempts ({} marks updated, {} inserted), cursor {}",
+                jobId, attemptUpdates.size(), markUpdates.size(), markInserts.size(), lastAttemptId);
+    }
+
+    private static Timestamp toTimestamp(Date date) {
+        return date != null ? new Timestamp(date.getTime()) : null;
+    }
+}
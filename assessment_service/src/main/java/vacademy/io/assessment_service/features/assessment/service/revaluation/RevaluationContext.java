@@ -0,0 +1,91 @@
+package vacademy.io.assessment_service.features.assessment.service.revaluation;
+
+import vacademy.io.assessment_service.features.assessment.repository.QuestionAssessmentSectionMappingRepository.MarkingSchemeRow;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Everything a revaluation run needs that does not vary per attempt, loaded once per run
+ * instead of once per attempt: the assessment's marking schemes, its evaluation/release
+ * settings and, for a question-scoped revaluation, the questions to rescore. Read-only once
+ * built, so the scoring workers share it without locking.
+ */
+final class RevaluationContext {
+
+    private final String assessmentId;
+    private final Map<String, MarkingSchemeRow> markingSchemeByQuestionAndSection = new HashMap<>();
+    private final Map<String, Set<String>> questionIdsBySection;
+    private final boolean manualEvaluation;
+    private final String resultType;
+    private final Date boundEndTime;
+
+    /**
+     * @param questionIdsBySection questions to rescore per section, or null to rescore every
+     *                             question the attempt answered
+     */
+    RevaluationContext(String assessmentId, List<MarkingSchemeRow> markingSchemes,
+                       Map<String, ? extends Iterable<String>> questionIdsBySection,
+                       boolean manualEvaluation, String resultType, Date boundEndTime) {
+        this.assessmentId = assessmentId;
+        for (MarkingSchemeRow row : markingSchemes) {
+            String key = key(row.getQuestionId(), row.getSectionId());
+            MarkingSchemeRow current = markingSchemeByQuestionAndSection.get(key);
+            // Same tie-break as the single-attempt calculation: newest mapping wins
+            if (current == null || (row.getCreatedAt() != null
+                    && (current.getCreatedAt() == null || row.getCreatedAt().after(current.getCreatedAt())))) {
+                markingSchemeByQuestionAndSection.put(key, row);
+            }
+        }
+        if (questionIdsBySection == null) {
+            this.questionIdsBySection = null;
+        } else {
+            Map<String, Set<String>> filter = new LinkedHashMap<>();
+            questionIdsBySection.forEach((sectionId, questionIds) -> {
+                Set<String> ids = filter.computeIfAbsent(sectionId, s -> new LinkedHashSet<>());
+                questionIds.forEach(ids::add);
+            });
+            this.questionIdsBySection = filter;
+        }
+        this.manualEvaluation = manualEvaluation;
+        this.resultType = resultType;
+        this.boundEndTime = boundEndTime;
+    }
+
+    static String key(String questionId, String sectionId) {
+        return questionId + "|" + sectionId;
+    }
+
+    String assessmentId() {
+        return assessmentId;
+    }
+
+    MarkingSchemeRow markingScheme(String questionId, String sectionId) {
+        return markingSchemeByQuestionAndSection.get(key(questionId, sectionId));
+    }
+
+    boolean questionScoped() {
+        return questionIdsBySection != null;
+    }
+
+    Map<String, Set<String>> questionIdsBySection() {
+        return questionIdsBySection;
+    }
+
+    boolean manualEvaluation() {
+        return manualEvaluation;
+    }
+
+    String resultType() {
+        return resultType;
+    }
+
+    Date boundEndTime() {
+        return boundEndTime;
+    }
+}
@@ -0,0 +1,49 @@
+package vacademy.io.assessment_service.features.assessment.service.revaluation;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Executors for revaluation runs, kept off the default {@code taskExecutor}: that pool
+ * carries the live-exam marks recalculations, and a 10k-attempt revaluation queued there
+ * would starve them.
+ *
+ * <p>{@code revaluationExecutor} runs one job at a time process-wide; the job thread owns
+ * every database read and write, so a run holds at most one connection. The worker pool only
+ * scores attempts. Its queue is one chunk deep and it runs overflow on the job thread, which
+ * throttles page loading to scoring speed instead of buffering attempts.
+ */
+@Configuration
+public class RevaluationExecutorConfig {
+
+    @Bean("revaluationExecutor")
+    public ThreadPoolTaskExecutor revaluationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(50);
+        executor.setThreadNamePrefix("revaluation-");
+        // Same reasoning as reportExportExecutor: never drop a job whose row says PENDING
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean("revaluationWorkerExecutor")
+    public ThreadPoolTaskExecutor revaluationWorkerExecutor(RevaluationProperties properties) {
+        int threads = Math.max(1, properties.getWorkerThreads());
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(Math.max(1, properties.getChunkSize()));
+        executor.setThreadNamePrefix("revaluation-worker-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,21 @@
+package vacademy.io.assessment_service.features.assessment.service.revaluation;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Revaluation run tuning. chunkSize bounds both the attempts held in memory and the rows per
+ * write transaction; workerThreads only covers scoring (CPU), since all database work stays on
+ * the single coordinator thread.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "assessment.revaluation")
+public class RevaluationProperties {
+    private int chunkSize = 200;
+    private int workerThreads = 4;
+    private int staleJobMinutes = 10;
+}
@@ -0,0 +1,179 @@
+package vacademy.io.assessment_service.features.assessment.service.revaluation;
+
+import vacademy.io.assessment_service.features.assessment.dto.QuestionWiseBasicDetailDto;
+import vacademy.io.assessment_service.features.assessment.enums.ReleaseResultStatusEnum;
+import vacademy.io.assessment_service.features.assessment.enums.ResultTypeEnum;
+import vacademy.io.assessment_service.features.assessment.repository.QuestionAssessmentSectionMappingRepository.MarkingSchemeRow;
+import vacademy.io.assessment_service.features.assessment.repository.StudentAttemptRepository.RevaluationAttemptRow;
+import vacademy.io.assessment_service.features.assessment.service.QuestionBasedStrategyFactory;
+import vacademy.io.assessment_service.features.learner_assessment.dto.status_json.ParsedAttemptData;
+import vacademy.io.assessment_service.features.learner_assessment.enums.AssessmentAttemptEnum;
+import vacademy.io.assessment_service.features.learner_assessment.enums.AssessmentAttemptResultEnum;
+import vacademy.io.assessment_service.features.learner_assessment.repository.QuestionWiseMarksRepository.MarksKeyRow;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Scores one attempt for a revaluation run without touching the database: the caller hands
+ * in the attempt row, its parsed data and its existing question_wise_marks keys, and gets
+ * back the rows and attempt columns to write. Pure, so a run can score a chunk on a worker
+ * pool and write it in one batch.
+ *
+ * <p>The rules are the ones the per-attempt calls applied:
+ * <ul>
+ *   <li>Whole attempt: every answered question with a marking scheme is rescored; LIVE
+ *       attempts get their running total, ENDED attempts their result too (with the
+ *       auto-release rules of the submit path). MANUAL assessments never get result marks,
+ *       only a PENDING result status unless an evaluator already completed them.</li>
+ *   <li>Question-scoped: only the given questions are rescored, then the total is re-summed
+ *       from all of the attempt's question_wise_marks rows, and copied to the result for
+ *       ENDED attempts.</li>
+ * </ul>
+ */
+final class RevaluationScorer {
+
+    /** A question_wise_marks row to update, or to insert under a fresh id when the attempt had none. */
+    record MarkWrite(String id, boolean insert, String attemptId, String questionId, String sectionId, double marks,
+                     String status, Long timeTakenInSeconds, String responseJson) {
+    }
+
+    /** What a revaluation writes for one attempt. */
+    record AttemptOutcome(String attemptId, double totalMarks, Long totalTimeInSeconds, Double resultMarks,
+                          String resultStatus, String reportReleaseStatus, Date reportLastReleaseDate,
+                          boolean justReleased, List<MarkWrite> updates, List<MarkWrite> inserts) {
+    }
+
+    private RevaluationScorer() {
+    }
+
+    /**
+     * @param existingRows the attempt's question_wise_marks rows, newest first
+     * @return the outcome, or null when the attempt is not revaluated in this mode
+     */
+    static AttemptOutcome score(RevaluationContext context, RevaluationAttemptRow attempt, ParsedAttemptData parsed,
+                                List<MarksKeyRow> existingRows, Date now) {
+        boolean ended = AssessmentAttemptEnum.ENDED.name().equals(attempt.getStatus());
+        boolean live = AssessmentAttemptEnum.LIVE.name().equals(attempt.getStatus());
+
+        Map<String, MarksKeyRow> existingByKey = new HashMap<>();
+        for (MarksKeyRow row : existingRows) {
+            existingByKey.putIfAbsent(RevaluationContext.key(row.getQuestionId(), row.getSectionId()), row);
+        }
+        Map<String, MarkWrite> writes = new LinkedHashMap<>();
+
+        if (context.questionScoped()) {
+            if (attempt.getAttemptData() != null) {
+                for (Map.Entry<String, Set<String>> section : context.questionIdsBySection().entrySet()) {
+                    for (String questionId : section.getValue()) {
+                        MarkingSchemeRow scheme = context.markingScheme(questionId, section.getKey());
+                        if (scheme != null) {
+                            scoreQuestion(attempt.getId(), section.getKey(), questionId, scheme.getQuestionType(),
+                                    null, parsed, scheme, existingByKey, writes);
+                        }
+                    }
+                }
+            }
+            double total = resum(existingRows, writes);
+            return outcome(attempt, total, attempt.getTotalTimeInSeconds(), ended ? total : attempt.getResultMarks(),
+                    attempt.getResultStatus(), attempt.getReportReleaseStatus(), attempt.getReportLastReleaseDate(),
+                    false, writes);
+        }
+
+        if (!ended && !live) {
+            return null;
+        }
+
+        double total = 0.0;
+        for (ParsedAttemptData.Section section : parsed.getSections()) {
+            for (ParsedAttemptData.Question question : section.questions()) {
+                MarkingSchemeRow scheme = context.markingScheme(question.questionId(), section.sectionId());
+                if (scheme != null) {
+                    total += scoreQuestion(attempt.getId(), section.sectionId(), question.questionId(),
+                            question.responseType(), question.timeTakenInSeconds(), parsed, scheme, existingByKey,
+                            writes);
+                }
+            }
+        }
+
+        if (live) {
+            return outcome(attempt, total, parsed.getTimeElapsedInSeconds(), attempt.getResultMarks(),
+                    attempt.getResultStatus(), attempt.getReportReleaseStatus(), attempt.getReportLastReleaseDate(),
+                    false, writes);
+        }
+        if (context.manualEvaluation()) {
+            String resultStatus = AssessmentAttemptResultEnum.COMPLETED.name().equals(attempt.getResultStatus())
+                    ? attempt.getResultStatus()
+                    : AssessmentAttemptResultEnum.PENDING.name();
+            return outcome(attempt, total, parsed.getTimeElapsedInSeconds(), attempt.getResultMarks(), resultStatus,
+                    attempt.getReportReleaseStatus(), attempt.getReportLastReleaseDate(), false, writes);
+        }
+
+        boolean releaseNow = ResultTypeEnum.AUTO_AFTER_SUBMISSION.name().equals(context.resultType())
+                || (ResultTypeEnum.AUTO_AFTER_ASSESSMENT_END.name().equals(context.resultType())
+                && context.boundEndTime() != null && now.after(context.boundEndTime()));
+        boolean alreadyReleased = ReleaseResultStatusEnum.RELEASED.name().equals(attempt.getReportReleaseStatus());
+        return outcome(attempt, total, parsed.getTimeElapsedInSeconds(), total,
+                AssessmentAttemptResultEnum.COMPLETED.name(),
+                releaseNow ? ReleaseResultStatusEnum.RELEASED.name() : attempt.getReportReleaseStatus(),
+                releaseNow ? now : attempt.getReportLastReleaseDate(),
+                releaseNow && !alreadyReleased, writes);
+    }
+
+    private static double scoreQuestion(String attemptId, String sectionId, String questionId, String type,
+                                        Long timeTakenInSeconds, ParsedAttemptData parsed, MarkingSchemeRow scheme,
+                                        Map<String, MarksKeyRow> existingByKey, Map<String, MarkWrite> writes) {
+        String responseJson = parsed.questionJson(questionId);
+        QuestionWiseBasicDetailDto result = QuestionBasedStrategyFactory.calculateMarks(
+                scheme.getMarkingJson(), scheme.getAutoEvaluationJson(), responseJson, type);
+
+        String key = RevaluationContext.key(questionId, sectionId);
+        MarkWrite previous = writes.get(key);
+        MarksKeyRow existing = existingByKey.get(key);
+        String id = previous != null ? previous.id()
+                : existing != null ? existing.getId() : UUID.randomUUID().toString();
+        boolean insert = previous != null ? previous.insert() : existing == null;
+        // A null time keeps the stored one, as the entity-based update did
+        Long time = timeTakenInSeconds != null ? timeTakenInSeconds
+                : previous != null ? previous.timeTakenInSeconds() : null;
+        writes.put(key, new MarkWrite(id, insert, attemptId, questionId, sectionId, result.getMarks(),
+                result.getAnswerStatus(), time, responseJson));
+        return result.getMarks();
+    }
+
+    /** Sum over every stored row (duplicates included, as before), with rescored rows replaced. */
+    private static double resum(List<MarksKeyRow> existingRows, Map<String, MarkWrite> writes) {
+        Map<String, Double> marksById = new HashMap<>();
+        for (MarkWrite write : writes.values()) {
+            marksById.put(write.id(), write.marks());
+        }
+        double total = 0.0;
+        for (MarksKeyRow row : existingRows) {
+            Double rescored = marksById.remove(row.getId());
+            total += rescored != null ? rescored : (row.getMarks() != null ? row.getMarks() : 0.0);
+        }
+        for (double inserted : marksById.values()) {
+            total += inserted;
+        }
+        return total;
+    }
+
+    private static AttemptOutcome outcome(RevaluationAttemptRow attempt, double totalMarks, Long totalTimeInSeconds,
+                                          Double resultMarks, String resultStatus, String reportReleaseStatus,
+                                          Date reportLastReleaseDate, boolean justReleased,
+                                          Map<String, MarkWrite> writes) {
+        List<MarkWrite> updates = new ArrayList<>();
+        List<MarkWrite> inserts = new ArrayList<>();
+        for (MarkWrite write : writes.values()) {
+            (write.insert() ? inserts : updates).add(write);
+        }
+        return new AttemptOutcome(attempt.getId(), totalMarks, totalTimeInSeconds, resultMarks, resultStatus,
+                reportReleaseStatus, reportLastReleaseDate, justReleased, updates, inserts);
+    }
+}
@@ -3,6 +3,7 @@ package vacademy.io.assessment_service.features.learner_assessment.controller;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import vacademy.io.assessment_service.features.learner_assessment.dto.AssessmentAttemptDeltaRequest;
 import vacademy.io.assessment_service.features.learner_assessment.dto.AssessmentAttemptUpdateRequest;
 import vacademy.io.assessment_service.features.learner_assessment.dto.response.AssessmentRestartResponse;
 import vacademy.io.assessment_service.features.learner_assessment.dto.response.LearnerUpdateStatusResponse;
@@ -26,6 +27,14 @@ public class StudentAssessmentStatusController {
 
     }
 
+    @PostMapping("/update-delta")
+    public ResponseEntity<LearnerUpdateStatusResponse> updateStatusDelta(@RequestAttribute("user") CustomUserDetails user,
+                                                                         @RequestParam(name = "assessmentId") String assessmentId,
+                                                                         @RequestParam(name = "attemptId") String attemptId,
+                                                                         @RequestBody AssessmentAttemptDeltaRequest request) {
+        return learnerAssessmentAttemptStatusManager.updateLearnerStatusDelta(user, assessmentId, attemptId, request);
+    }
+
     @PostMapping("/submit")
     public ResponseEntity<String> submitStatus(@RequestAttribute("user") CustomUserDetails user,
                                                @RequestParam(name = "assessmentId") String assessmentId,
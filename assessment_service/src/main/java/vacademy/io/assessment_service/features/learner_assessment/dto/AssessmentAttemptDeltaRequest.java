@@ -0,0 +1,45 @@
+package vacademy.io.assessment_service.features.learner_assessment.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Incremental live sync: only what changed since {@code baseRevision}. The patched nodes keep
+ * the attempt JSON's own shape (camelCase, as in the full {@code json_content}):
+ * <ul>
+ *   <li>{@code assessment}: fields merged into the attempt's {@code assessment} object (timers,
+ *       tab switches).</li>
+ *   <li>{@code sections[].fields}: fields merged into that section (its timers);
+ *       {@code sections[].questions}: whole question nodes, each replacing the question with the
+ *       same {@code questionId} or appended when new.</li>
+ * </ul>
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class AssessmentAttemptDeltaRequest {
+    String baseRevision;
+    String clientLastSync;
+    JsonNode assessment;
+    List<SectionPatch> sections;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Builder
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    public static class SectionPatch {
+        String sectionId;
+        JsonNode fields;
+        List<JsonNode> questions;
+    }
+}
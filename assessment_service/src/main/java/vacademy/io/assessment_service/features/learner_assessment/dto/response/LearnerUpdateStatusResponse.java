@@ -20,6 +20,15 @@ public class LearnerUpdateStatusResponse {
     private List<DurationResponse> duration = new ArrayList<>();
     private List<String> control = new ArrayList<>();
 
+    /**
+     * Server revision of the attempt data after this sync, sent back as {@code base_revision} by
+     * delta-capable clients. Old clients ignore it.
+     */
+    private String revision;
+
+    /** Set on a delta sync the server could not apply: send the full payload to /update instead. */
+    private boolean resyncRequired;
+
 
     @Getter
     @Setter
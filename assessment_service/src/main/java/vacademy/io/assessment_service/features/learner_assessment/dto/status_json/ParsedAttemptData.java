@@ -0,0 +1,59 @@
+package vacademy.io.assessment_service.features.learner_assessment.dto.status_json;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only view of a learner's attempt JSON, produced once per sync/submit by
+ * {@code AttemptDataParserService.parse} and shared by the status manager, marks calculation and
+ * question-wise marks. Each question keeps its own subtree serialised once, because that string
+ * is what the marking strategies score and what question_wise_marks stores as response_json.
+ *
+ * <p>Field semantics follow the per-field extractors this replaces: a missing or null id, type
+ * or time is {@code null}; {@code clientLastSync} is {@code ""} when absent and {@code null} only
+ * when the document could not be parsed at all.
+ */
+@Getter
+public final class ParsedAttemptData {
+
+    public static final ParsedAttemptData EMPTY = new ParsedAttemptData(null, null, List.of());
+
+    public record Question(String questionId, String responseType, Long timeTakenInSeconds, String json) {
+    }
+
+    public record Section(String sectionId, List<Question> questions) {
+    }
+
+    private final String clientLastSync;
+    private final Long timeElapsedInSeconds;
+    private final List<Section> sections;
+
+    @Getter(AccessLevel.NONE)
+    private final Map<String, String> questionJsonById;
+
+    public ParsedAttemptData(String clientLastSync, Long timeElapsedInSeconds, List<Section> sections) {
+        this.clientLastSync = clientLastSync;
+        this.timeElapsedInSeconds = timeElapsedInSeconds;
+        this.sections = Collections.unmodifiableList(sections);
+        Map<String, String> byId = new HashMap<>();
+        for (Section section : sections) {
+            for (Question question : section.questions()) {
+                // First occurrence wins, as in the section-by-section lookup this replaces
+                if (question.questionId() != null) {
+                    byId.putIfAbsent(question.questionId(), question.json());
+                }
+            }
+        }
+        this.questionJsonById = byId;
+    }
+
+    /** Serialised question node for {@code questionId}, or {@code "{}"} when the attempt has none. */
+    public String questionJson(String questionId) {
+        return questionId != null ? questionJsonById.getOrDefault(questionId, "{}") : "{}";
+    }
+}
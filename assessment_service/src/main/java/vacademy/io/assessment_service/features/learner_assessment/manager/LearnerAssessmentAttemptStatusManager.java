@@ -12,6 +12,7 @@ import vacademy.io.assessment_service.features.assessment.entity.StudentAttempt;
 import vacademy.io.assessment_service.features.assessment.enums.DurationDistributionEnum;
 import vacademy.io.assessment_service.features.assessment.repository.StudentAttemptRepository;
 import vacademy.io.assessment_service.features.assessment.service.AttemptDataParserService;
+import vacademy.io.assessment_service.features.learner_assessment.dto.AssessmentAttemptDeltaRequest;
 import vacademy.io.assessment_service.features.learner_assessment.dto.AssessmentAttemptUpdateRequest;
 import vacademy.io.assessment_service.features.learner_assessment.dto.DataDurationDistributionDto;
 import vacademy.io.assessment_service.features.learner_assessment.dto.LearnerAssessmentStartAssessmentResponse;
@@ -19,9 +20,11 @@ import vacademy.io.assessment_service.features.learner_assessment.dto.LearnerAss
 import vacademy.io.assessment_service.features.learner_assessment.dto.response.AssessmentRestartResponse;
 import vacademy.io.assessment_service.features.learner_assessment.dto.response.BasicLevelAnnouncementDto;
 import vacademy.io.assessment_service.features.learner_assessment.dto.response.LearnerUpdateStatusResponse;
+import vacademy.io.assessment_service.features.learner_assessment.dto.status_json.ParsedAttemptData;
 import vacademy.io.assessment_service.features.learner_assessment.enums.AssessmentAttemptEnum;
 import vacademy.io.assessment_service.features.learner_assessment.enums.AssessmentAttemptResultEnum;
 import vacademy.io.assessment_service.features.learner_assessment.service.AssessmentLLMAnalyticsService;
+import vacademy.io.assessment_service.features.learner_assessment.service.AttemptDraftStore;
 import vacademy.io.assessment_service.features.learner_assessment.service.RestartAssessmentService;
 import vacademy.io.assessment_service.features.question_core.enums.EvaluationTypes;
 import vacademy.io.assessment_service.features.assessment.service.StudentAttemptService;
@@ -54,6 +57,9 @@ public class LearnerAssessmentAttemptStatusManager {
         @Autowired
         AttemptDataParserService attemptDataParserService;
 
+        @Autowired
+        AttemptDraftStore attemptDraftStore;
+
         @Autowired
         LearnerAssessmentAttemptStartManager learnerAssessmentAttemptStartManager;
 
@@ -186,14 +192,21 @@ public class LearnerAssessmentAttemptStatusManager {
                         throw new VacademyException("Currently Assessment is in preview");
                 }
 
+                // The full payload supersedes any delta draft held for this attempt
+                attemptDraftStore.discard(attemptId);
+
                 StudentAttempt attempt = new StudentAttempt();
 
+                // Parsed once here and handed to the marks calculation below, which used to
+                // re-read the same document section by section and question by question.
+                ParsedAttemptData parsedAttempt = attemptDataParserService.parse(request.getJsonContent());
+
                 // Handle cases where the attempt status is either 'ENDED' or 'LIVE'
                 if (AssessmentAttemptEnum.ENDED.name().equals(studentAttempt.get().getStatus()))
-                        attempt = handleAttemptEndedStatus(studentAttempt, request.getJsonContent());
+                        attempt = handleAttemptEndedStatus(studentAttempt, request.getJsonContent(), parsedAttempt);
 
                 if (AssessmentAttemptEnum.LIVE.name().equals(studentAttempt.get().getStatus()))
-                        attempt = handleAttemptLiveStatus(studentAttempt, request.getJsonContent());
+                        attempt = handleAttemptLiveStatus(studentAttempt, request.getJsonContent(), parsedAttempt);
 
                 try {
                         // MANUAL-evaluation assessments (PDF answer-sheet upload, and
@@ -221,8 +234,13 @@ public class LearnerAssessmentAttemptStatusManager {
                                 // Update the student attempt asynchronously; the in-flight guard is
                                 // released when the async run finishes (or if enqueueing itself fails,
                                 // via the catch below).
+                                // The parsed document only applies if it is what the attempt now holds
+                                ParsedAttemptData parsedForAttempt = request.getJsonContent().equals(attempt.getAttemptData())
+                                                ? parsedAttempt
+                                                : null;
                                 studentAttemptService
-                                                .updateStudentAttemptWithTotalAfterMarksCalculationAsync(Optional.of(attempt))
+                                                .updateStudentAttemptWithTotalAfterMarksCalculationAsync(Optional.of(attempt),
+                                                                parsedForAttempt)
                                                 .whenComplete((result, error) -> attemptsWithRecalcInFlight.remove(attemptId));
                         } else {
                                 log.debug("Skipping duplicate live-sync marks calculation, one already in flight: attemptId={}",
@@ -247,6 +265,68 @@ public class LearnerAssessmentAttemptStatusManager {
                 // Create and return the response for update status
                 LearnerUpdateStatusResponse response = createResponseForUpdateStatus(Optional.of(assessment),
                                 Optional.of(attempt));
+                if (AssessmentAttemptEnum.LIVE.name().equals(attempt.getStatus()))
+                        response.setRevision(AttemptDraftStore.dbRevision(attempt.getServerLastSync()));
+                return ResponseEntity.ok(response);
+        }
+
+        /**
+         * Applies an incremental live sync: only the changed assessment fields, section timers
+         * and question nodes since the revision the client last received. The attempt entity
+         * (and its attempt_data) is not loaded; the change goes to {@link AttemptDraftStore},
+         * which writes the compacted attempt data back periodically.
+         *
+         * @param user         the custom user details
+         * @param assessmentId the ID of the assessment
+         * @param attemptId    the ID of the student attempt
+         * @param request      the changes since {@code base_revision}
+         * @return the update status response with the new revision, or with
+         * {@code resync_required} when the client has to send the full payload to /update
+         */
+        public ResponseEntity<LearnerUpdateStatusResponse> updateLearnerStatusDelta(CustomUserDetails user,
+                        String assessmentId,
+                        String attemptId, AssessmentAttemptDeltaRequest request) {
+                Optional<StudentAttemptRepository.SyncStateRow> syncState = studentAttemptRepository
+                                .findSyncStateById(attemptId);
+                if (syncState.isEmpty()) {
+                        // Expected client error — slf4j only, NOT Sentry (see updateLearnerStatus).
+                        log.warn("Student attempt not found during delta update: assessmentId={}, attemptId={}, userId={}",
+                                        assessmentId, attemptId, user.getId());
+                        throw new VacademyException("Student Attempt Not Found");
+                }
+
+                if (Objects.isNull(request)) {
+                        log.warn("Invalid request during assessment delta update: assessmentId={}, attemptId={}, userId={}",
+                                        assessmentId, attemptId, user.getId());
+                        throw new VacademyException("Invalid request");
+                }
+
+                if (!assessmentId.equals(syncState.get().getAssessmentId())) {
+                        log.warn("Student attempt not linked with assessment during delta update: assessmentId={}, attemptAssessmentId={}, attemptId={}, userId={}",
+                                        assessmentId, syncState.get().getAssessmentId(), attemptId, user.getId());
+                        throw new VacademyException("Student Not Linked with Assessment");
+                }
+
+                if (AssessmentAttemptEnum.PREVIEW.name().equals(syncState.get().getStatus())) {
+                        log.warn("Attempt to update preview assessment: assessmentId={}, attemptId={}, userId={}",
+                                        assessmentId, attemptId, user.getId());
+                        throw new VacademyException("Currently Assessment is in preview");
+                }
+
+                // ENDED attempts keep the full-payload path and its change detection
+                Optional<String> revision = AssessmentAttemptEnum.LIVE.name().equals(syncState.get().getStatus())
+                                ? attemptDraftStore.apply(attemptId, request)
+                                : Optional.empty();
+
+                LearnerUpdateStatusResponse response = createResponseForUpdateStatus(assessmentId,
+                                syncState.get().getDurationDistributionJson());
+                if (revision.isPresent()) {
+                        response.setRevision(revision.get());
+                } else {
+                        log.debug("Delta sync needs a full resync: attemptId={}, baseRevision={}", attemptId,
+                                        request.getBaseRevision());
+                        response.setResyncRequired(true);
+                }
                 return ResponseEntity.ok(response);
         }
 
@@ -277,14 +357,19 @@ public class LearnerAssessmentAttemptStatusManager {
                 if (studentAttemptOptional.isEmpty() || assessmentOptional.isEmpty())
                         throw new VacademyException("Invalid request");
 
+                return createResponseForUpdateStatus(assessmentOptional.get().getId(),
+                                studentAttemptOptional.get().getDurationDistributionJson());
+        }
+
+        private LearnerUpdateStatusResponse createResponseForUpdateStatus(String assessmentId,
+                        String durationDistribution) {
                 // Retrieve and map announcements
                 List<AssessmentAnnouncement> allAnnouncement = announcementService
-                                .getAnnouncementForAssessment(assessmentOptional.get().getId());
+                                .getAnnouncementForAssessment(assessmentId);
                 List<BasicLevelAnnouncementDto> allAnnouncementResponse = announcementService
                                 .createBasicLevelAnnouncementDto(allAnnouncement);
 
                 // Convert duration distribution to response format
-                String durationDistribution = studentAttemptOptional.get().getDurationDistributionJson();
                 List<LearnerUpdateStatusResponse.DurationResponse> durationResponses = convertToDurationList(
                                 durationDistribution);
 
@@ -300,10 +385,11 @@ public class LearnerAssessmentAttemptStatusManager {
          *
          * @param studentAttemptOptional the optional student attempt
          * @param attemptDataJson        the attempt data in JSON format
+         * @param parsedAttempt          {@code attemptDataJson} parsed
          * @return the updated student attempt
          */
         private StudentAttempt handleAttemptEndedStatus(Optional<StudentAttempt> studentAttemptOptional,
-                        String attemptDataJson) {
+                        String attemptDataJson, ParsedAttemptData parsedAttempt) {
                 // Check if student attempt data has changed
                 if (Objects.isNull(studentAttemptOptional.get().getAttemptData())
                                 || !studentAttemptOptional.get().getAttemptData().equals(attemptDataJson)) {
@@ -315,8 +401,7 @@ public class LearnerAssessmentAttemptStatusManager {
                         studentAttempt.setServerLastSync(utcDate); // Set server sync time
 
                         studentAttempt.setClientLastSync(
-                                        DateUtil.convertStringToUTCDate(attemptDataParserService
-                                                        .getClientLastSyncTime(attemptDataJson))); // Set
+                                        DateUtil.convertStringToUTCDate(parsedAttempt.getClientLastSync())); // Set
                                                                                                    // client
                                                                                                    // sync
                                                                                                    // time
@@ -331,10 +416,11 @@ public class LearnerAssessmentAttemptStatusManager {
          *
          * @param studentAttemptOptional the optional student attempt
          * @param attemptDataJson        the attempt data in JSON format
+         * @param parsedAttempt          {@code attemptDataJson} parsed
          * @return the updated student attempt
          */
         private StudentAttempt handleAttemptLiveStatus(Optional<StudentAttempt> studentAttemptOptional,
-                        String attemptDataJson) {
+                        String attemptDataJson, ParsedAttemptData parsedAttempt) {
                 StudentAttempt studentAttempt = studentAttemptOptional.get();
                 studentAttempt.setAttemptData(attemptDataJson);
 
@@ -344,7 +430,7 @@ public class LearnerAssessmentAttemptStatusManager {
 
                 studentAttempt.setClientLastSync(
                                 DateUtil.convertStringToDate(
-                                                attemptDataParserService.getClientLastSyncTime(attemptDataJson))); // Set
+                                                parsedAttempt.getClientLastSync())); // Set
                                                                                                                    // client
                                                                                                                    // sync
                                                                                                                    // time
@@ -381,6 +467,9 @@ public class LearnerAssessmentAttemptStatusManager {
                         throw new VacademyException("Currently Assessment is in preview");
                 }
 
+                // The submitted payload is final; a pending delta draft must not be flushed over it
+                attemptDraftStore.discard(attemptId);
+
                 StudentAttempt attempt = new StudentAttempt();
 
                 // Handle cases where the attempt status is either 'ENDED' or 'LIVE'
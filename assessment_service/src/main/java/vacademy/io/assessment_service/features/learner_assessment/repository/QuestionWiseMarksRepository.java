@@ -16,6 +16,31 @@ import java.util.Optional;
 
 @Repository
 public interface QuestionWiseMarksRepository extends JpaRepository<QuestionWiseMarks, String> {
+
+    /** Identity and marks of a question_wise_marks row, for batched revaluation. */
+    interface MarksKeyRow {
+        String getId();
+
+        String getAttemptId();
+
+        String getQuestionId();
+
+        String getSectionId();
+
+        Double getMarks();
+    }
+
+    /** Newest first, so callers keeping the first row per key pick the same duplicate as the single-row lookup. */
+    @Query(value = """
+            SELECT qwm.id AS "id", qwm.attempt_id AS "attemptId", qwm.question_id AS "questionId",
+                   qwm.section_id AS "sectionId", qwm.marks AS "marks"
+            FROM question_wise_marks qwm
+            WHERE qwm.assessment_id = :assessmentId
+            AND qwm.attempt_id IN (:attemptIds)
+            ORDER BY qwm.created_at DESC
+            """, nativeQuery = true)
+    List<MarksKeyRow> findMarksKeyRowsForAttempts(@Param("assessmentId") String assessmentId,
+                                                  @Param("attemptIds") List<String> attemptIds);
     /**
      * ORDER BY created_at DESC is required for correctness, not just tidiness.
      *
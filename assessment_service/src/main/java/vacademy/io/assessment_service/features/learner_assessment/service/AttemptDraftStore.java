@@ -0,0 +1,333 @@
+package vacademy.io.assessment_service.features.learner_assessment.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import vacademy.io.assessment_service.features.assessment.entity.StudentAttempt;
+import vacademy.io.assessment_service.features.assessment.repository.StudentAttemptRepository;
+import vacademy.io.assessment_service.features.assessment.service.StudentAttemptService;
+import vacademy.io.assessment_service.features.learner_assessment.constants.AttemptJsonConstants;
+import vacademy.io.assessment_service.features.learner_assessment.dto.AssessmentAttemptDeltaRequest;
+import vacademy.io.assessment_service.features.learner_assessment.enums.AssessmentAttemptEnum;
+import vacademy.io.assessment_service.features.question_core.enums.EvaluationTypes;
+import vacademy.io.common.core.utils.DateUtil;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server-side attempt state for delta live syncs. A delta is applied to the in-memory attempt
+ * JSON ("draft") and acknowledged with a new revision; dirty drafts are written back as one
+ * compacted attempt_data per attempt every {@code assessment.attempt-delta.flush-interval-ms}
+ * instead of on every sync.
+ *
+ * <p>Revisions are opaque to clients. {@code db.<millis>} names the attempt data persisted under
+ * that server_last_sync (handed out by the full-payload sync), so any replica can seed a draft
+ * from the row. {@code <draftId>.<seq>} names a draft held by one replica; any other replica, or
+ * this one after a restart, answers a delta against it with {@code resync_required} and the
+ * client falls back to a full payload, which stays the source of truth.
+ *
+ * <p>A compacted write only lands while the attempt is LIVE and server_last_sync still holds the
+ * value the draft last saw. A full sync or submit anywhere in between wins and the draft is
+ * dropped, so a late flush can never overwrite newer data.
+ */
+@Slf4j
+@Component
+public class AttemptDraftStore {
+
+    static final String DB_REVISION_PREFIX = "db.";
+
+    private static final String FLUSH_SQL = "UPDATE student_attempt SET attempt_data = ?, client_last_sync = ?, "
+            + "server_last_sync = ? WHERE id = ? AND status = 'LIVE' AND server_last_sync = ?";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final StudentAttemptRepository studentAttemptRepository;
+    private final StudentAttemptService studentAttemptService;
+    private final JdbcTemplate jdbcTemplate;
+    private final long idleMillis;
+
+    private final Map<String, Draft> drafts = new ConcurrentHashMap<>();
+
+    public AttemptDraftStore(StudentAttemptRepository studentAttemptRepository,
+                             StudentAttemptService studentAttemptService,
+                             JdbcTemplate jdbcTemplate,
+                             @Value("${assessment.attempt-delta.idle-minutes:15}") long idleMinutes) {
+        this.studentAttemptRepository = studentAttemptRepository;
+        this.studentAttemptService = studentAttemptService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.idleMillis = idleMinutes * 60_000L;
+    }
+
+    /** One attempt's in-memory JSON; every access holds the draft's monitor. */
+    private static final class Draft {
+        final String draftId = UUID.randomUUID().toString();
+        final ObjectNode document;
+        long seq;
+        Date persistedSync;
+        boolean dirty;
+        long lastTouched = System.currentTimeMillis();
+
+        Draft(ObjectNode document, Date persistedSync) {
+            this.document = document;
+            this.persistedSync = persistedSync;
+        }
+
+        String revision() {
+            return draftId + "." + seq;
+        }
+    }
+
+    /** Revision of attempt data persisted by a full sync, or null when the attempt was never synced. */
+    public static String dbRevision(Date serverLastSync) {
+        return serverLastSync != null ? DB_REVISION_PREFIX + serverLastSync.getTime() : null;
+    }
+
+    /**
+     * Applies a delta to the attempt's draft.
+     *
+     * @return the new revision, or empty when the base revision is unknown here or stale, i.e.
+     * the client must resync with a full payload
+     */
+    public Optional<String> apply(String attemptId, AssessmentAttemptDeltaRequest delta) {
+        String base = delta.getBaseRevision();
+        if (base == null) {
+            return Optional.empty();
+        }
+        Draft draft = drafts.get(attemptId);
+        if (draft != null) {
+            synchronized (draft) {
+                if (drafts.get(attemptId) == draft && base.equals(draft.revision())) {
+                    return Optional.of(applyTo(draft, delta));
+                }
+            }
+        }
+        if (!base.startsWith(DB_REVISION_PREFIX)) {
+            return Optional.empty();
+        }
+        Draft seeded = seed(attemptId, base);
+        if (seeded == null) {
+            return Optional.empty();
+        }
+        synchronized (seeded) {
+            drafts.put(attemptId, seeded);
+            return Optional.of(applyTo(seeded, delta));
+        }
+    }
+
+    /**
+     * Drops the attempt's draft without writing it. Called when a full payload replaces the
+     * attempt data, since that write supersedes anything the draft holds.
+     */
+    public void discard(String attemptId) {
+        drafts.remove(attemptId);
+    }
+
+    /** Writes every dirty draft back and forgets drafts that have been idle too long. */
+    @Scheduled(fixedDelayString = "${assessment.attempt-delta.flush-interval-ms:120000}",
+            initialDelayString = "${assessment.attempt-delta.flush-interval-ms:120000}")
+    public void flushDirty() {
+        List<String> ids = new ArrayList<>();
+        List<Draft> flushed = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        long now = System.currentTimeMillis();
+
+        for (Iterator<Map.Entry<String, Draft>> it = drafts.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, Draft> entry = it.next();
+            Draft draft = entry.getValue();
+            synchronized (draft) {
+                if (!draft.dirty) {
+                    if (now - draft.lastTouched > idleMillis) {
+                        it.remove();
+                    }
+                    continue;
+                }
+                Timestamp syncedAt = new Timestamp(now);
+                JsonNode clientLastSync = draft.document.get("clientLastSync");
+                rows.add(new Object[]{
+                        draft.document.toString(),
+                        clientLastSync != null ? clientSyncTimestamp(clientLastSync.asText()) : null,
+                        syncedAt,
+                        entry.getKey(),
+                        new Timestamp(draft.persistedSync.getTime())});
+                ids.add(entry.getKey());
+                flushed.add(draft);
+                draft.persistedSync = syncedAt;
+                draft.dirty = false;
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        int[] counts;
+        try {
+            counts = jdbcTemplate.batchUpdate(FLUSH_SQL, rows);
+        } catch (Exception e) {
+            // Nothing is lost: the drafts stay in memory, and their clients still hold the full data
+            log.error("Failed to flush {} attempt drafts, will retry: {}", rows.size(), e.getMessage());
+            for (int i = 0; i < flushed.size(); i++) {
+                Draft draft = flushed.get(i);
+                synchronized (draft) {
+                    draft.persistedSync = new Date(((Timestamp) rows.get(i)[4]).getTime());
+                    draft.dirty = true;
+                }
+            }
+            return;
+        }
+
+        int conflicts = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                // Superseded by a full sync/submit, or no longer LIVE
+                drafts.remove(ids.get(i), flushed.get(i));
+                conflicts++;
+            } else {
+                recalculateTotals(ids.get(i));
+            }
+        }
+        log.info("Flushed {} attempt drafts ({} superseded), {} drafts held", rows.size(), conflicts, drafts.size());
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushDirty();
+    }
+
+    private Draft seed(String attemptId, String base) {
+        long baseMillis;
+        try {
+            baseMillis = Long.parseLong(base.substring(DB_REVISION_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        Optional<StudentAttemptRepository.AttemptDataRow> row = studentAttemptRepository.findAttemptDataById(attemptId);
+        if (row.isEmpty() || !AssessmentAttemptEnum.LIVE.name().equals(row.get().getStatus())
+                || row.get().getServerLastSync() == null || row.get().getServerLastSync().getTime() != baseMillis
+                || row.get().getAttemptData() == null) {
+            return null;
+        }
+        try {
+            JsonNode document = MAPPER.readTree(row.get().getAttemptData());
+            return document instanceof ObjectNode object ? new Draft(object, row.get().getServerLastSync()) : null;
+        } catch (Exception e) {
+            log.warn("Cannot seed attempt draft for {}: {}", attemptId, e.getMessage());
+            return null;
+        }
+    }
+
+    private String applyTo(Draft draft, AssessmentAttemptDeltaRequest delta) {
+        ObjectNode document = draft.document;
+        if (delta.getClientLastSync() != null) {
+            document.put("clientLastSync", delta.getClientLastSync());
+        }
+        if (delta.getAssessment() instanceof ObjectNode assessmentPatch) {
+            JsonNode assessment = document.get("assessment");
+            if (assessment instanceof ObjectNode target) {
+                target.setAll(assessmentPatch);
+            } else {
+                document.set("assessment", assessmentPatch.deepCopy());
+            }
+        }
+        if (delta.getSections() != null) {
+            for (AssessmentAttemptDeltaRequest.SectionPatch patch : delta.getSections()) {
+                applySection(document, patch);
+            }
+        }
+        draft.seq++;
+        draft.dirty = true;
+        draft.lastTouched = System.currentTimeMillis();
+        return draft.revision();
+    }
+
+    private void applySection(ObjectNode document, AssessmentAttemptDeltaRequest.SectionPatch patch) {
+        if (patch == null || patch.getSectionId() == null) {
+            return;
+        }
+        ArrayNode sections = document.withArray(AttemptJsonConstants.sections);
+        ObjectNode section = null;
+        for (JsonNode candidate : sections) {
+            if (candidate instanceof ObjectNode object && patch.getSectionId().equals(object.path("sectionId").asText(null))) {
+                section = object;
+                break;
+            }
+        }
+        if (section == null) {
+            section = sections.addObject();
+            section.put("sectionId", patch.getSectionId());
+            section.putArray(AttemptJsonConstants.questions);
+        }
+        if (patch.getFields() instanceof ObjectNode fields) {
+            for (Iterator<Map.Entry<String, JsonNode>> it = fields.fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> field = it.next();
+                // Questions are patched one by one below, never replaced wholesale
+                if (!AttemptJsonConstants.questions.equals(field.getKey()) && !"sectionId".equals(field.getKey())) {
+                    section.set(field.getKey(), field.getValue());
+                }
+            }
+        }
+        if (patch.getQuestions() == null) {
+            return;
+        }
+        ArrayNode questions = section.withArray(AttemptJsonConstants.questions);
+        for (JsonNode question : patch.getQuestions()) {
+            String questionId = question != null ? question.path(AttemptJsonConstants.questionId).asText(null) : null;
+            if (questionId == null) {
+                continue;
+            }
+            int index = -1;
+            for (int i = 0; i < questions.size(); i++) {
+                if (questionId.equals(questions.get(i).path(AttemptJsonConstants.questionId).asText(null))) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index >= 0) {
+                questions.set(index, question);
+            } else {
+                questions.add(question);
+            }
+        }
+    }
+
+    /**
+     * Same live-total refresh a full sync triggers, once per compacted write instead of once per
+     * sync. MANUAL-evaluation attempts are skipped, as on the full path.
+     */
+    private void recalculateTotals(String attemptId) {
+        try {
+            Optional<StudentAttempt> attempt = studentAttemptRepository.findById(attemptId);
+            if (attempt.isEmpty() || EvaluationTypes.MANUAL.name()
+                    .equals(attempt.get().getRegistration().getAssessment().getEvaluationType())) {
+                return;
+            }
+            studentAttemptService.updateStudentAttemptWithTotalAfterMarksCalculationAsync(attempt);
+        } catch (Exception e) {
+            log.error("Failed to queue marks recalculation for attempt {}: {}", attemptId, e.getMessage());
+        }
+    }
+
+    /** Same conversion as the full live sync; an unparseable value must not hold up the other drafts. */
+    private static Timestamp clientSyncTimestamp(String clientLastSync) {
+        try {
+            Date date = DateUtil.convertStringToDate(clientLastSync);
+            return date != null ? new Timestamp(date.getTime()) : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
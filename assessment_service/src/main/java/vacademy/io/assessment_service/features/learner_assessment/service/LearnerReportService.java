@@ -23,6 +23,8 @@ import vacademy.io.assessment_service.features.assessment.repository.AssessmentR
 import vacademy.io.assessment_service.features.assessment.repository.AssessmentUserRegistrationRepository;
 import vacademy.io.assessment_service.features.assessment.repository.SectionRepository;
 import vacademy.io.assessment_service.features.assessment.repository.StudentAttemptRepository;
+import vacademy.io.assessment_service.features.assessment.service.leaderboard.AssessmentLeaderboardService;
+import vacademy.io.assessment_service.features.assessment.service.leaderboard.LeaderboardView;
 import vacademy.io.assessment_service.features.assessment.service.bulk_entry_services.QuestionAssessmentSectionMappingService;
 import vacademy.io.assessment_service.features.learner_assessment.dto.*;
 import vacademy.io.assessment_service.features.learner_assessment.dto.context.AssessmentOverviewSnapshot;
@@ -46,6 +48,9 @@ public class LearnerReportService {
     @Autowired
     private StudentAttemptRepository studentAttemptRepository;
 
+    @Autowired
+    private AssessmentLeaderboardService assessmentLeaderboardService;
+
     @Autowired
     private AssessmentUserRegistrationRepository registrationRepository;
 
@@ -260,8 +265,8 @@ public class LearnerReportService {
                 .map(m -> (MarksRankDto) MarksRankSnapshot.from(m))
                 .collect(Collectors.toList());
 
-        List<LeaderBoardDto> fullLeaderboardRaw = studentAttemptRepository
-                .findLeaderBoardForAssessmentAndInstituteId(assessmentId, instituteId, List.of("ACTIVE"));
+        List<LeaderBoardDto> fullLeaderboardRaw = assessmentLeaderboardService
+                .fullLeaderboard(assessmentId, instituteId, List.of("ACTIVE"));
         List<LeaderBoardDto> fullLeaderboard = fullLeaderboardRaw.stream()
                 .map(l -> (LeaderBoardDto) LeaderBoardSnapshot.from(l))
                 .collect(Collectors.toList());
@@ -401,7 +406,7 @@ public class LearnerReportService {
                 .findParticipantsQuestionOverallDetails(ctx.getAssessmentId(), ctx.getInstituteId(), attemptId);
         if (studentDetail == null) return null;
 
-        SmartLeaderboardDto smartLeaderboard = buildSmartLeaderboard(ctx.getFullLeaderboard(), userId);
+        SmartLeaderboardDto smartLeaderboard = buildSmartLeaderboard(LeaderboardView.of(ctx.getFullLeaderboard()), userId);
 
         List<SectionComparisonDto> sectionComparisons = buildSectionComparisonFromContext(ctx, attemptId);
 
@@ -438,9 +443,9 @@ public class LearnerReportService {
      */
     public ResponseEntity<SmartLeaderboardDto> getStudentLeaderboard(CustomUserDetails user, String assessmentId,
                                                                       String instituteId) {
-        List<LeaderBoardDto> fullLeaderboard = studentAttemptRepository
-                .findLeaderBoardForAssessmentAndInstituteId(assessmentId, instituteId, List.of("ACTIVE"));
-        SmartLeaderboardDto smartLeaderboard = buildSmartLeaderboard(fullLeaderboard, user.getUserId());
+        // Only the top rows and the window around the student are read off the index
+        LeaderboardView leaderboard = assessmentLeaderboardService.view(assessmentId, instituteId, List.of("ACTIVE"));
+        SmartLeaderboardDto smartLeaderboard = buildSmartLeaderboard(leaderboard, user.getUserId());
         return ResponseEntity.ok(smartLeaderboard);
     }
 
@@ -541,8 +546,9 @@ public class LearnerReportService {
     /**
      * Builds a smart leaderboard showing top 2 + ±3 around the student.
      */
-    private SmartLeaderboardDto buildSmartLeaderboard(List<LeaderBoardDto> fullLeaderboard, String userId) {
-        if (fullLeaderboard == null || fullLeaderboard.isEmpty()) {
+    private SmartLeaderboardDto buildSmartLeaderboard(LeaderboardView leaderboard, String userId) {
+        int totalParticipants = leaderboard.size();
+        if (totalParticipants == 0) {
             return SmartLeaderboardDto.builder()
                     .topRanks(Collections.emptyList())
                     .surroundingRanks(Collections.emptyList())
@@ -551,21 +557,10 @@ public class LearnerReportService {
                     .build();
         }
 
-        int studentIndex = -1;
-        for (int i = 0; i < fullLeaderboard.size(); i++) {
-            if (userId.equals(fullLeaderboard.get(i).getUserId())) {
-                studentIndex = i;
-                break;
-            }
-        }
-
-        long totalParticipants = fullLeaderboard.size();
-        Integer studentRank = studentIndex >= 0 ? fullLeaderboard.get(studentIndex).getRank() : null;
+        int studentIndex = leaderboard.positionOf(userId);
 
         // Top 2
-        List<LeaderBoardDto> topRanks = fullLeaderboard.stream()
-                .limit(TOP_RANKS_COUNT)
-                .collect(Collectors.toList());
+        List<LeaderBoardDto> topRanks = leaderboard.range(0, TOP_RANKS_COUNT);
 
         // ±3 around student
         List<LeaderBoardDto> surroundingRanks;
@@ -577,28 +572,32 @@ public class LearnerReportService {
             hasGap = false;
         } else if (studentIndex < TOP_RANKS_COUNT + SURROUNDING_WINDOW) {
             // Student is close to top, no gap needed — show from top to student+3
-            int end = Math.min(studentIndex + SURROUNDING_WINDOW + 1, fullLeaderboard.size());
+            int end = Math.min(studentIndex + SURROUNDING_WINDOW + 1, totalParticipants);
             // Clamp start so it never exceeds end (handles leaderboards smaller than TOP_RANKS_COUNT,
             // e.g. when only the current student has submitted so far — size=1)
             int start = Math.min(TOP_RANKS_COUNT, end);
-            surroundingRanks = fullLeaderboard.subList(start, end)
-                    .stream().collect(Collectors.toList());
+            surroundingRanks = leaderboard.range(start, end);
             hasGap = false;
         } else {
             // Gap between top 2 and student's window
             int start = Math.max(studentIndex - SURROUNDING_WINDOW, TOP_RANKS_COUNT);
-            int end = Math.min(studentIndex + SURROUNDING_WINDOW + 1, fullLeaderboard.size());
-            surroundingRanks = fullLeaderboard.subList(start, end)
-                    .stream().collect(Collectors.toList());
+            int end = Math.min(studentIndex + SURROUNDING_WINDOW + 1, totalParticipants);
+            surroundingRanks = leaderboard.range(start, end);
             hasGap = true;
         }
 
+        Integer studentRank = null;
+        if (studentIndex >= 0) {
+            List<LeaderBoardDto> studentRow = leaderboard.range(studentIndex, studentIndex + 1);
+            studentRank = studentRow.isEmpty() ? null : studentRow.get(0).getRank();
+        }
+
         return SmartLeaderboardDto.builder()
                 .topRanks(topRanks)
                 .surroundingRanks(surroundingRanks)
                 .hasGap(hasGap)
                 .studentRank(studentRank)
-                .totalParticipants(totalParticipants)
+                .totalParticipants((long) totalParticipants)
                 .build();
     }
 
@@ -1,7 +1,5 @@
 package vacademy.io.assessment_service.features.learner_assessment.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import vacademy.io.assessment_service.features.assessment.dto.admin_get_dto.response.Top3CorrectResponseDto;
@@ -10,8 +8,9 @@ import vacademy.io.assessment_service.features.assessment.entity.Section;
 import vacademy.io.assessment_service.features.assessment.entity.StudentAttempt;
 import vacademy.io.assessment_service.features.assessment.enums.QuestionResponseEnum;
 import vacademy.io.assessment_service.features.assessment.repository.SectionRepository;
-import vacademy.io.assessment_service.features.learner_assessment.constants.AttemptJsonConstants;
+import vacademy.io.assessment_service.features.assessment.service.AttemptDataParserService;
 import vacademy.io.assessment_service.features.learner_assessment.dto.QuestionStatusDto;
+import vacademy.io.assessment_service.features.learner_assessment.dto.status_json.ParsedAttemptData;
 import vacademy.io.assessment_service.features.learner_assessment.dto.status_json.manual.LearnerManualAttemptDataDto;
 import vacademy.io.assessment_service.features.learner_assessment.dto.status_json.manual.ManualQuestionAttemptDto;
 import vacademy.io.assessment_service.features.learner_assessment.dto.status_json.manual.ManualSectionAttemptDto;
@@ -38,6 +37,9 @@ public class QuestionWiseMarksService {
     @Autowired
     QuestionRepository questionRepository;
 
+    @Autowired
+    AttemptDataParserService attemptDataParserService;
+
 
     public QuestionWiseMarks updateQuestionWiseMarksForEveryQuestion(Assessment assessment,
                                                                      StudentAttempt attempt,
@@ -114,6 +116,8 @@ public class QuestionWiseMarksService {
     public List<QuestionWiseMarks> createOrUpdateQuestionWiseMarksDataForManualAssessment(Assessment assessment, StudentAttempt studentAttempt, String jsonContent, LearnerManualAttemptDataDto attemptData) {
         List<ManualSectionAttemptDto> sections = attemptData.getSections();
         List<QuestionWiseMarks> allQuestionAttempts = new ArrayList<>();
+        // Parsed once for all questions instead of a full re-parse per question
+        ParsedAttemptData parsedAttempt = attemptDataParserService.parse(jsonContent);
 
         sections.forEach(section -> {
             String sectionId = section.getSectionId();
@@ -124,7 +128,7 @@ public class QuestionWiseMarksService {
 
             for (ManualQuestionAttemptDto questionAttemptDto : questions) {
 
-                String questionResponse = getQuestionDetails(questionAttemptDto.getQuestionId(), jsonContent);
+                String questionResponse = parsedAttempt.questionJson(questionAttemptDto.getQuestionId());
 
                 Optional<QuestionWiseMarks> existingEntry = getQuestionWiseMarkForAssessmentIdAndSectionIdAndQuestionIdAndAttemptId(
                         assessment.getId(), studentAttempt.getId(), sectionId, questionAttemptDto.getQuestionId()
@@ -156,30 +160,6 @@ public class QuestionWiseMarksService {
 
     }
 
-    public String getQuestionDetails(String questionId, String attemptDataJson) {
-        try {
-            ObjectMapper objectMapper = new ObjectMapper();
-            JsonNode rootNode = objectMapper.readTree(attemptDataJson);
-
-            // Iterate over the sections array
-            JsonNode sections = rootNode.path(AttemptJsonConstants.sections);
-            for (JsonNode section : sections) {
-                JsonNode questions = section.path(AttemptJsonConstants.questions);
-
-                // Iterate over the questions in the current section
-                for (JsonNode question : questions) {
-                    // Compare question_id to find the correct question
-                    if (question.path(AttemptJsonConstants.questionId).asText().equals(questionId)) {
-                        return objectMapper.writeValueAsString(question); // Return question as JSON string
-                    }
-                }
-            }
-            return "{}"; // Return empty JSON if questionId not found
-        } catch (Exception e) {
-            return "{}"; // Return empty JSON in case of error
-        }
-    }
-
     public List<QuestionWiseMarks> getAllQuestionWiseAttemptsForAssessmentIdAndQuestionIdAndSectionId(String assessmentId, String questionId, String sectionId){
         return questionWiseMarksRepository.findByAssessmentIdAndQuestionIdAndSectionId(questionId,assessmentId,sectionId);
     }
@@ -5,8 +5,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import vacademy.io.assessment_service.features.question_bank.dto.AllQuestionPaperResponse;
+import vacademy.io.assessment_service.features.question_bank.dto.QuestionBankSearchRequest;
+import vacademy.io.assessment_service.features.question_bank.dto.QuestionBankSearchResponse;
 import vacademy.io.assessment_service.features.question_bank.dto.QuestionPaperFilter;
 import vacademy.io.assessment_service.features.question_bank.manager.GetPublicQuestionPaperManager;
+import vacademy.io.assessment_service.features.question_bank.manager.QuestionBankSearchManager;
 import vacademy.io.common.auth.model.CustomUserDetails;
 
 import static vacademy.io.common.core.constants.PageConstants.DEFAULT_PAGE_NUMBER;
@@ -20,10 +23,19 @@ public class GetPublicQuestionPaperBankController {
     @Autowired
     GetPublicQuestionPaperManager getQuestionPaperManager;
 
+    @Autowired
+    QuestionBankSearchManager questionBankSearchManager;
+
     @PostMapping("/get-with-filters")
     public ResponseEntity<AllQuestionPaperResponse> getQuestionPapers(@RequestAttribute("user") CustomUserDetails user, @RequestBody QuestionPaperFilter questionPaperFilter,
                                                                       @RequestParam(value = "pageNo", defaultValue = DEFAULT_PAGE_NUMBER, required = false) int pageNo,
                                                                       @RequestParam(value = "pageSize", defaultValue = DEFAULT_PAGE_SIZE, required = false) int pageSize) {
         return ResponseEntity.ok(getQuestionPaperManager.getQuestionPapers(user, questionPaperFilter, pageNo, pageSize));
     }
+
+    @PostMapping("/search")
+    public ResponseEntity<QuestionBankSearchResponse> searchQuestionPapers(@RequestAttribute("user") CustomUserDetails user, @RequestBody QuestionBankSearchRequest request,
+                                                                           @RequestParam(value = "pageSize", defaultValue = DEFAULT_PAGE_SIZE, required = false) int pageSize) {
+        return ResponseEntity.ok(questionBankSearchManager.searchPublicBank(request, pageSize));
+    }
 }
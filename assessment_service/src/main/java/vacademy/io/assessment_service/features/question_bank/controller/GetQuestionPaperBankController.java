@@ -5,8 +5,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import vacademy.io.assessment_service.features.question_bank.dto.AllQuestionPaperResponse;
+import vacademy.io.assessment_service.features.question_bank.dto.QuestionBankSearchRequest;
+import vacademy.io.assessment_service.features.question_bank.dto.QuestionBankSearchResponse;
 import vacademy.io.assessment_service.features.question_bank.dto.QuestionPaperFilter;
 import vacademy.io.assessment_service.features.question_bank.manager.GetQuestionPaperManager;
+import vacademy.io.assessment_service.features.question_bank.manager.QuestionBankSearchManager;
 import vacademy.io.assessment_service.features.tags.dto.TagDTO;
 import vacademy.io.common.auth.model.CustomUserDetails;
 
@@ -23,6 +26,9 @@ public class GetQuestionPaperBankController {
     @Autowired
     GetQuestionPaperManager getQuestionPaperManager;
 
+    @Autowired
+    QuestionBankSearchManager questionBankSearchManager;
+
     @PostMapping("/get-with-filters")
     public ResponseEntity<AllQuestionPaperResponse> getQuestionPapers(@RequestAttribute("user") CustomUserDetails user, @RequestBody QuestionPaperFilter questionPaperFilter,
                                                                       @RequestParam(value = "pageNo", defaultValue = DEFAULT_PAGE_NUMBER, required = false) int pageNo,
@@ -31,6 +37,13 @@ public class GetQuestionPaperBankController {
         return ResponseEntity.ok(getQuestionPaperManager.getQuestionPapers(user, questionPaperFilter, instituteId, pageNo, pageSize));
     }
 
+    @PostMapping("/search")
+    public ResponseEntity<QuestionBankSearchResponse> searchQuestionPapers(@RequestAttribute("user") CustomUserDetails user, @RequestBody QuestionBankSearchRequest request,
+                                                                           @RequestParam(value = "instituteId", required = true) String instituteId,
+                                                                           @RequestParam(value = "pageSize", defaultValue = DEFAULT_PAGE_SIZE, required = false) int pageSize) {
+        return ResponseEntity.ok(questionBankSearchManager.searchInstituteBank(request, instituteId, pageSize));
+    }
+
     @GetMapping("/question-tags")
     public ResponseEntity<List<TagDTO>> getQuestionTags(@RequestAttribute("user") CustomUserDetails user,
                                                         @RequestParam("instituteId") String instituteId,
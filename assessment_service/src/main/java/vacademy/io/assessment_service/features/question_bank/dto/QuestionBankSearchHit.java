@@ -0,0 +1,30 @@
+package vacademy.io.assessment_service.features.question_bank.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class QuestionBankSearchHit {
+    private String id;
+    private String title;
+    private String status;
+    private String levelId;
+    private String subjectId;
+    private Date createdOn;
+    private Date updatedOn;
+    private double score;
+    /** Strongest match source: TITLE, QUESTION or TAG. */
+    private String matchedIn;
+    /** Best-matching question of the paper; null when only the title matched. */
+    private String matchedQuestionId;
+}
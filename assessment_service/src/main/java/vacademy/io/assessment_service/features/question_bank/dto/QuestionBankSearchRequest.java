@@ -0,0 +1,26 @@
+package vacademy.io.assessment_service.features.question_bank.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ranked question bank search. The first page sends only {@code query}; later
+ * pages echo back the {@code next_after_score} / {@code next_after_id} of the
+ * previous response.
+ */
+@Getter
+@Setter
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class QuestionBankSearchRequest {
+
+    private String query;
+    /** Institute paper statuses to include; empty means all. Ignored for the public bank. */
+    private List<String> statuses = new ArrayList<>();
+    private Double afterScore;
+    private String afterId;
+}
@@ -0,0 +1,24 @@
+package vacademy.io.assessment_service.features.question_bank.dto;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class QuestionBankSearchResponse {
+    private List<QuestionBankSearchHit> content;
+    private int pageSize;
+    /** Cursor for the next page; null when {@code last}. */
+    private Double nextAfterScore;
+    private String nextAfterId;
+    private boolean last;
+}
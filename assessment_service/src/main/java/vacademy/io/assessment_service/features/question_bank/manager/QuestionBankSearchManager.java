@@ -0,0 +1,82 @@
+package vacademy.io.assessment_service.features.question_bank.manager;
+
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import vacademy.io.assessment_service.features.question_bank.dto.QuestionBankSearchHit;
+import vacademy.io.assessment_service.features.question_bank.dto.QuestionBankSearchRequest;
+import vacademy.io.assessment_service.features.question_bank.dto.QuestionBankSearchResponse;
+import vacademy.io.assessment_service.features.question_bank.repository.QuestionPaperRepository;
+import vacademy.io.common.exceptions.VacademyException;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Ranked search over the question bank. Pages are cut with a (score, id) cursor rather than
+ * an offset, so page N costs the same as page 1 however large the bank is.
+ */
+@Component
+public class QuestionBankSearchManager {
+
+    static final int MAX_PAGE_SIZE = 50;
+
+    @Autowired
+    QuestionPaperRepository questionPaperRepository;
+
+    public QuestionBankSearchResponse searchInstituteBank(QuestionBankSearchRequest request, String instituteId, int pageSize) {
+        if (!StringUtils.hasText(instituteId)) {
+            throw new VacademyException("Institute id is required");
+        }
+        return search(request, instituteId, pageSize);
+    }
+
+    public QuestionBankSearchResponse searchPublicBank(QuestionBankSearchRequest request, int pageSize) {
+        return search(request, null, pageSize);
+    }
+
+    private QuestionBankSearchResponse search(QuestionBankSearchRequest request, String instituteId, int pageSize) {
+        if (request == null || !StringUtils.hasText(request.getQuery())) {
+            throw new VacademyException("Search query is required");
+        }
+        int size = Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+        // a cursor is only meaningful as a pair
+        Double afterScore = request.getAfterId() == null ? null : request.getAfterScore();
+        String afterId = afterScore == null ? null : request.getAfterId();
+
+        // one extra row tells whether another page exists without a count query
+        List<Object[]> rows = questionPaperRepository.searchQuestionPapers(request.getQuery().trim(), instituteId,
+                request.getStatuses() == null ? List.of() : request.getStatuses(), afterScore, afterId, size + 1);
+
+        boolean last = rows.size() <= size;
+        List<QuestionBankSearchHit> content = new ArrayList<>();
+        for (Object[] row : rows.subList(0, Math.min(rows.size(), size))) {
+            content.add(toHit(row));
+        }
+        QuestionBankSearchHit tail = last || content.isEmpty() ? null : content.get(content.size() - 1);
+        return QuestionBankSearchResponse.builder()
+                .content(content)
+                .pageSize(size)
+                .nextAfterScore(tail == null ? null : tail.getScore())
+                .nextAfterId(tail == null ? null : tail.getId())
+                .last(last)
+                .build();
+    }
+
+    private QuestionBankSearchHit toHit(Object[] row) {
+        return QuestionBankSearchHit.builder()
+                .id((String) row[0])
+                .title((String) row[1])
+                .status((String) row[2])
+                .levelId((String) row[3])
+                .subjectId((String) row[4])
+                .createdOn((Date) row[5])
+                .updatedOn((Date) row[6])
+                .score(((Number) row[7]).doubleValue())
+                .matchedIn((String) row[8])
+                .matchedQuestionId((String) row[9])
+                .build();
+    }
+}
@@ -4,4 +4,15 @@ import java.util.List;
 
 public interface QuestionPaperCustomRepository {
     void bulkInsertQuestionsToQuestionPaper(String questionPaperId, List<String> questionIds);
-}
\ No newline at end of file
+
+    /**
+     * Ranked search over paper titles, question text and question tags, one row per paper:
+     * id, title, status, levelId, subjectId, createdOn, updatedOn, score, matchedIn, matchedQuestionId.
+     * Ordered by score descending then id; rows after the (afterScore, afterId) cursor only.
+     *
+     * @param instituteId the institute's bank, or null for the public bank
+     * @param statuses    institute paper statuses to include; empty for all (ignored for the public bank)
+     */
+    List<Object[]> searchQuestionPapers(String query, String instituteId, List<String> statuses,
+                                        Double afterScore, String afterId, int limit);
+}
@@ -3,6 +3,7 @@ package vacademy.io.assessment_service.features.question_bank.repository;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
 import jakarta.transaction.Transactional;
 
 import java.util.List;
@@ -10,6 +11,71 @@ import java.util.UUID;
 
 public class QuestionPaperCustomRepositoryImpl implements QuestionPaperCustomRepository {
 
+    /**
+     * Must stay identical to the expression of idx_rich_text_content_fts (V44), or the
+     * question text match falls back to a sequential scan of every rich text row.
+     */
+    static final String QUESTION_TEXT_VECTOR = "to_tsvector('simple', regexp_replace(rt.content, '<[^>]*>', ' ', 'g'))";
+
+    // Templated with String.format, hence %% for the pg_trgm similarity operator.
+    // Each source contributes its best hit per paper: a title substring match outranks any
+    // question or tag hit, similarity orders within a source, and ts_rank's normalisation 32
+    // keeps the text score in [0, 1) like the others.
+    private static final String SEARCH_SQL =
+            "WITH scope AS (%s), " +
+            "tsq AS (SELECT websearch_to_tsquery('simple', :query) AS q), " +
+            "title_hits AS (" +
+            "    SELECT qp.id AS paper_id, 'TITLE' AS source, CAST(NULL AS varchar) AS question_id, " +
+            "        CAST(similarity(qp.title, :query) + CASE WHEN qp.title ILIKE :pattern THEN 1 ELSE 0 END AS double precision) AS score " +
+            "    FROM question_paper qp JOIN scope s ON s.paper_id = qp.id " +
+            "    WHERE (qp.title ILIKE :pattern OR qp.title %% :query) %s), " +
+            "text_hits AS (" +
+            "    SELECT qqpm.question_paper_id AS paper_id, 'QUESTION' AS source, qu.id AS question_id, " +
+            "        CAST(ts_rank(" + QUESTION_TEXT_VECTOR + ", tsq.q, 32) AS double precision) AS score " +
+            "    FROM assessment_rich_text_data rt CROSS JOIN tsq " +
+            "    JOIN question qu ON qu.text_id = rt.id AND (qu.status IS NULL OR qu.status <> 'DELETED') " +
+            "    JOIN question_question_paper_mapping qqpm ON qqpm.question_id = qu.id " +
+            "    JOIN scope s ON s.paper_id = qqpm.question_paper_id " +
+            "    WHERE " + QUESTION_TEXT_VECTOR + " @@ tsq.q), " +
+            "tag_hits AS (" +
+            "    SELECT qqpm.question_paper_id AS paper_id, 'TAG' AS source, qqpm.question_id AS question_id, " +
+            "        CAST(0.5 * similarity(t.tag_name, :query) + CASE WHEN t.tag_name ILIKE :pattern THEN 0.5 ELSE 0 END AS double precision) AS score " +
+            "    FROM tags t " +
+            "    JOIN entity_tags et ON et.tag_id = t.tag_id AND et.entity_name = 'QUESTION' " +
+            "    JOIN question_question_paper_mapping qqpm ON qqpm.question_id = et.entity_id " +
+            "    JOIN scope s ON s.paper_id = qqpm.question_paper_id " +
+            "    WHERE (t.tag_name ILIKE :pattern OR t.tag_name %% :query) %s), " +
+            "best_per_source AS (" +
+            "    SELECT DISTINCT ON (paper_id, source) paper_id, source, question_id, score " +
+            "    FROM (SELECT * FROM title_hits UNION ALL SELECT * FROM text_hits UNION ALL SELECT * FROM tag_hits) hits " +
+            "    ORDER BY paper_id, source, score DESC), " +
+            "ranked AS (" +
+            "    SELECT paper_id, CAST(SUM(score) AS double precision) AS score, " +
+            "        (ARRAY_AGG(source ORDER BY score DESC))[1] AS matched_in, " +
+            "        (ARRAY_AGG(question_id ORDER BY score DESC) FILTER (WHERE question_id IS NOT NULL))[1] AS question_id " +
+            "    FROM best_per_source GROUP BY paper_id) " +
+            "SELECT qp.id, qp.title, s.status, s.level_id, s.subject_id, qp.created_on, qp.updated_on, " +
+            "    r.score, r.matched_in, r.question_id " +
+            "FROM ranked r " +
+            "JOIN question_paper qp ON qp.id = r.paper_id " +
+            "JOIN scope s ON s.paper_id = r.paper_id " +
+            "WHERE (CAST(:afterScore AS double precision) IS NULL OR r.score < :afterScore " +
+            "    OR (r.score = :afterScore AND qp.id > :afterId)) " +
+            "ORDER BY r.score DESC, qp.id " +
+            "LIMIT :limit";
+
+    private static final String INSTITUTE_SCOPE =
+            "SELECT iq.question_paper_id AS paper_id, iq.status, iq.level_id, iq.subject_id " +
+            "FROM institute_question_paper iq " +
+            "WHERE iq.institute_id = :instituteId " +
+            "AND (CAST(:statusesCsv AS varchar) IS NULL OR iq.status = ANY(string_to_array(:statusesCsv, ',')))";
+
+    // UPPER(access) = 'PUBLIC' rather than ILIKE so the partial trigram index applies
+    private static final String PUBLIC_SCOPE =
+            "SELECT qp.id AS paper_id, CAST(NULL AS varchar) AS status, CAST(NULL AS varchar) AS level_id, " +
+            "CAST(NULL AS varchar) AS subject_id " +
+            "FROM question_paper qp WHERE UPPER(qp.access) = 'PUBLIC'";
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -29,4 +95,31 @@ public class QuestionPaperCustomRepositoryImpl implements QuestionPaperCustomRep
 
         entityManager.createNativeQuery(sql.toString()).executeUpdate();
     }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Object[]> searchQuestionPapers(String query, String instituteId, List<String> statuses,
+                                               Double afterScore, String afterId, int limit) {
+        boolean publicBank = instituteId == null;
+        String sql = String.format(SEARCH_SQL,
+                publicBank ? PUBLIC_SCOPE : INSTITUTE_SCOPE,
+                publicBank ? "AND UPPER(qp.access) = 'PUBLIC'" : "",
+                publicBank ? "" : "AND (t.institute_id IS NULL OR t.institute_id = :instituteId)");
+
+        Query nativeQuery = entityManager.createNativeQuery(sql)
+                .setParameter("query", query)
+                .setParameter("pattern", "%" + escapeLike(query) + "%")
+                .setParameter("afterScore", afterScore)
+                .setParameter("afterId", afterId)
+                .setParameter("limit", limit);
+        if (!publicBank) {
+            nativeQuery.setParameter("instituteId", instituteId)
+                    .setParameter("statusesCsv", statuses == null || statuses.isEmpty() ? null : String.join(",", statuses));
+        }
+        return nativeQuery.getResultList();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
 }
@@ -76,10 +76,10 @@ public interface QuestionPaperRepository extends JpaRepository<QuestionPaper, St
                     "qp.updated_on AS updatedOn " +
                     "FROM question_paper qp " +
                     "WHERE (:title IS NULL OR qp.title ILIKE CONCAT('%', :title, '%')) " +
-                    "AND qp.access ILIKE 'PUBLIC' ",
+                    "AND UPPER(qp.access) = 'PUBLIC' ",
             countQuery = "SELECT COUNT(qp) FROM question_paper qp " +
                     "WHERE (:title IS NULL OR qp.title ILIKE CONCAT('%', :title, '%')) " +
-                    "AND qp.access ILIKE 'PUBLIC' ",
+                    "AND UPPER(qp.access) = 'PUBLIC' ",
             nativeQuery = true
     )
     Page<Object[]> findPublicQuestionPapersByFilters(
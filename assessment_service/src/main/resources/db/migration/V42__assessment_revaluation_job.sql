@@ -0,0 +1,30 @@
+-- Chunked revaluation jobs. One row per admin "Revaluate" request; the worker
+-- commits every chunk of attempts together with last_attempt_id, so a run that
+-- dies mid-way (deploy, OOM) resumes after the last committed chunk instead of
+-- starting the whole assessment over. Attempts are walked in id order.
+
+CREATE TABLE assessment_revaluation_job (
+    id                VARCHAR(36)  PRIMARY KEY,
+    assessment_id     VARCHAR(255) NOT NULL,
+    institute_id      VARCHAR(255),
+    method_type       VARCHAR(50)  NOT NULL,
+    status            VARCHAR(20)  NOT NULL,
+    request_json      TEXT,
+    total_count       INT          NOT NULL DEFAULT 0,
+    processed_count   INT          NOT NULL DEFAULT 0,
+    failed_count      INT          NOT NULL DEFAULT 0,
+    last_attempt_id   VARCHAR(255),
+    resume_count      INT          NOT NULL DEFAULT 0,
+    error_message     TEXT,
+    started_at        TIMESTAMP,
+    completed_at      TIMESTAMP,
+    created_at        TIMESTAMP    NOT NULL DEFAULT now(),
+    updated_at        TIMESTAMP    NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_arj_assessment_recent
+    ON assessment_revaluation_job (assessment_id, created_at DESC);
+
+CREATE INDEX idx_arj_inflight
+    ON assessment_revaluation_job (status, updated_at)
+    WHERE status IN ('PENDING', 'IN_PROGRESS');
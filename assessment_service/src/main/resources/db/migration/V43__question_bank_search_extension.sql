@@ -0,0 +1,8 @@
+-- Question bank search, part 1 of 2: the trigram extension.
+--
+-- pg_trgm backs substring and fuzzy matching on question paper titles and tag
+-- names (gin_trgm_ops indexes, similarity(), the % operator). It lives in its
+-- own migration because V44 builds its indexes CONCURRENTLY, and Flyway will
+-- not mix a transactional statement like this one into a non-transactional
+-- script (same split as admin_core V403/V404).
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
@@ -0,0 +1,62 @@
+-- Question bank search, part 2 of 2: the indexes behind QuestionBankSearchManager
+-- and the existing title filters.
+--
+-- Before this, every question paper listing with a name filter ran
+-- `title ILIKE '%...%'`, which no btree can serve, so each search was a
+-- sequential scan of question_paper -- and of the public bank on every visit,
+-- since `access ILIKE 'PUBLIC'` could not use an index either. Question text
+-- was not searchable at all.
+--
+--   question_paper.title      -> trigram GIN. Serves ILIKE '%x%' (3+ chars)
+--                                and similarity ranking with no query change.
+--                                A partial twin covers the public bank, whose
+--                                queries now filter on UPPER(access).
+--   tags.tag_name             -> trigram GIN, for tag-name matches.
+--   assessment_rich_text_data -> full-text GIN over the markup-stripped
+--                                content. The expression below must stay
+--                                byte-identical to
+--                                QuestionPaperCustomRepositoryImpl.QUESTION_TEXT_VECTOR
+--                                or the planner will not use it. 'simple'
+--                                rather than 'english': question text is
+--                                multilingual and full of formulae, so
+--                                stemming and stop words do more harm than good.
+--   join keys                 -> institute_question_paper (institute_id),
+--                                question_question_paper_mapping (question_id,
+--                                question_paper_id) and question (text_id) had
+--                                no index, so every hit was joined back to its
+--                                paper by scanning.
+--
+-- All GIN indexes are maintained by Postgres on every insert/update of their
+-- tables, so the search never lags behind question or paper writes.
+--
+-- CONCURRENTLY because question authoring and imports write to these tables
+-- during the day. Flyway runs an all-non-transactional script outside a
+-- transaction, so this file contains ONLY concurrent statements (same pattern
+-- as V25/V36). A failed concurrent build leaves an INVALID index that
+-- IF NOT EXISTS skips on re-run -- check pg_index.indisvalid if search is slow.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_question_paper_title_trgm
+    ON public.question_paper USING gin (title gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_question_paper_public_title_trgm
+    ON public.question_paper USING gin (title gin_trgm_ops)
+    WHERE UPPER(access) = 'PUBLIC';
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tags_tag_name_trgm
+    ON public.tags USING gin (tag_name gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_rich_text_content_fts
+    ON public.assessment_rich_text_data
+    USING gin (to_tsvector('simple', regexp_replace(content, '<[^>]*>', ' ', 'g')));
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_iqp_institute_paper
+    ON public.institute_question_paper (institute_id, question_paper_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_qqpm_question
+    ON public.question_question_paper_mapping (question_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_qqpm_question_paper
+    ON public.question_question_paper_mapping (question_paper_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_question_text_id
+    ON public.question (text_id);
@@ -3,6 +3,7 @@ package vacademy.io.assessment_service.features.assessment.manager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import vacademy.io.assessment_service.features.assessment.dto.AssessmentUserFilter;
 import vacademy.io.assessment_service.features.assessment.dto.ParticipantsDetailsDto;
 import vacademy.io.assessment_service.features.assessment.dto.RegistrationCustomFieldAnswerDto;
@@ -16,6 +17,9 @@ import vacademy.io.assessment_service.features.assessment.repository.AssessmentU
 import vacademy.io.assessment_service.features.assessment.repository.SectionRepository;
 import vacademy.io.common.exceptions.VacademyException;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.List;
@@ -23,8 +27,11 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -88,9 +95,10 @@ class AdminExportManagerResultCsvTest {
                 answer("reg-1", "field-college", "GEC, Kozhikode"),
                 answer("reg-2", "field-phone", "+918888888888"));
 
-        when(registrationRepository.findAllEndedParticipantsForResultExport(ASSESSMENT_ID, INSTITUTE_ID))
+        when(registrationRepository.findAllEndedParticipantsForResultExport(
+                eq(ASSESSMENT_ID), eq(INSTITUTE_ID), isNull(), isNull(), anyInt()))
                 .thenReturn(participants);
-        when(registrationRepository.findCustomFieldAnswersForAssessment(ASSESSMENT_ID, INSTITUTE_ID))
+        when(registrationRepository.findCustomFieldAnswersForRegistrations(List.of("reg-1", "reg-2")))
                 .thenReturn(answers);
     }
 
@@ -114,6 +122,19 @@ class AdminExportManagerResultCsvTest {
         assertThat(lines[2].split(",", -1)).hasSameSizeAs(lines[0].split(",", -1));
     }
 
+    @Test
+    void streamedFileIsByteForByteTheFormatTheBufferedExportWrote() {
+        // Spreadsheets and scripts downstream parse this file; paging the rows
+        // must not change a separator, a number format or the final newline.
+        assertThat(exportText(filterWithCustomFieldIds(null))).isEqualTo(
+                "Name,Email,Marks Obtained,Total Marks,Percentage,Rank,Duration,Attempt Date,"
+                        + "Phone Number,Email (Form),College Name\n"
+                        + "Anand M,anand@example.com,80.0,100.0,80.00%,1,10 min,01 Jan 1970 05:30 AM,"
+                        + "+919999999999,anand.form@example.com,\"GEC, Kozhikode\"\n"
+                        + "Adithya M,adithya@example.com,60.0,100.0,60.00%,2,11 min 40 sec,01 Jan 1970 05:30 AM,"
+                        + "+918888888888,,\n");
+    }
+
     @Test
     void exportsOnlyTheTickedFields() {
         String[] lines = exportLines(filterWithCustomFieldIds(List.of("field-college")));
@@ -132,7 +153,8 @@ class AdminExportManagerResultCsvTest {
 
     @Test
     void emptyAssessmentStillReturnsTheFullHeaderRow() {
-        when(registrationRepository.findAllEndedParticipantsForResultExport(ASSESSMENT_ID, INSTITUTE_ID))
+        when(registrationRepository.findAllEndedParticipantsForResultExport(
+                eq(ASSESSMENT_ID), eq(INSTITUTE_ID), isNull(), isNull(), anyInt()))
                 .thenReturn(List.of());
 
         String[] lines = exportLines(filterWithCustomFieldIds(null));
@@ -198,10 +220,20 @@ class AdminExportManagerResultCsvTest {
     }
 
     private String[] exportLines(AssessmentUserFilter filter) {
-        ResponseEntity<byte[]> response =
+        return exportText(filter).split("\n");
+    }
+
+    private String exportText(AssessmentUserFilter filter) {
+        ResponseEntity<StreamingResponseBody> response =
                 manager.getRegisteredCsvExport(null, INSTITUTE_ID, ASSESSMENT_ID, filter);
         assertThat(response.getBody()).isNotNull();
-        return new String(response.getBody(), StandardCharsets.UTF_8).split("\n");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            response.getBody().writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString(StandardCharsets.UTF_8);
     }
 
     // registration_source "" is what the submissions-tab export sends: every
@@ -0,0 +1,118 @@
+package vacademy.io.assessment_service.features.assessment.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import vacademy.io.assessment_service.features.learner_assessment.dto.status_json.ParsedAttemptData;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading everything marks calculation needs from one learner sync: the per-field extractors the
+ * scorer used to call (a parse or re-serialise per section and several per question) against the
+ * single-pass {@link AttemptDataParserService#parse}. Run through {@code main}, which adds the GC
+ * profiler so allocation per operation ({@code gc.alloc.rate.norm}) is reported next to latency.
+ * Not a unit test — run from the IDE or
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=...}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AttemptDataParserBenchmark {
+
+    @Param({"20", "100"})
+    public int questionCount;
+
+    private final AttemptDataParserService parser = new AttemptDataParserService();
+    private String attemptJson;
+
+    @Setup
+    public void setUp() {
+        attemptJson = realisticAttempt(4, questionCount);
+    }
+
+    @Benchmark
+    public void perFieldExtraction(Blackhole bh) {
+        bh.consume(parser.getClientLastSyncTime(attemptJson));
+        bh.consume(parser.getTimeElapsedInSecondsFromAttemptData(attemptJson));
+        for (String section : parser.extractSectionJsonStrings(attemptJson)) {
+            bh.consume(parser.extractSectionIdFromSectionJson(section));
+            for (String question : parser.extractQuestionJsonsFromSection(section)) {
+                bh.consume(parser.extractSectionIdFromSectionJson(section));
+                bh.consume(parser.extractQuestionIdFromQuestionJson(question));
+                bh.consume(parser.extractResponseTypeFromQuestionJson(question));
+                bh.consume(parser.extractTimeTakenInSecondsFromQuestionJson(question));
+                bh.consume(question);
+            }
+        }
+    }
+
+    @Benchmark
+    public void singlePass(Blackhole bh) {
+        ParsedAttemptData parsed = parser.parse(attemptJson);
+        bh.consume(parsed.getClientLastSync());
+        bh.consume(parsed.getTimeElapsedInSeconds());
+        for (ParsedAttemptData.Section section : parsed.getSections()) {
+            bh.consume(section.sectionId());
+            for (ParsedAttemptData.Question question : section.questions()) {
+                bh.consume(question.questionId());
+                bh.consume(question.responseType());
+                bh.consume(question.timeTakenInSeconds());
+                bh.consume(question.json());
+            }
+        }
+    }
+
+    /** Attempt JSON shaped like the learner app's sync payload, questions spread over sections. */
+    static String realisticAttempt(int sections, int questions) {
+        StringBuilder json = new StringBuilder(256 + questions * 220)
+                .append("{\"attemptId\":\"attempt-1\",\"clientLastSync\":\"2026-10-18T09:15:30.000Z\",")
+                .append("\"assessment\":{\"assessmentId\":\"assessment-1\",\"entireTestDurationLeftInSeconds\":1800,")
+                .append("\"timeElapsedInSeconds\":1620,\"status\":\"LIVE\",\"tabSwitchCount\":1},\"sections\":[");
+        int perSection = Math.max(1, questions / sections);
+        int q = 0;
+        for (int s = 0; s < sections; s++) {
+            if (s > 0) json.append(',');
+            json.append("{\"sectionId\":\"section-").append(s)
+                    .append("\",\"sectionDurationLeftInSeconds\":600,\"timeElapsedInSeconds\":400,\"questions\":[");
+            int end = s == sections - 1 ? questions : q + perSection;
+            for (boolean first = true; q < end; q++, first = false) {
+                if (!first) json.append(',');
+                String type = q % 3 == 0 ? "MCQM" : "MCQS";
+                json.append("{\"questionId\":\"question-").append(q)
+                        .append("\",\"isMarkedForReview\":").append(q % 7 == 0)
+                        .append(",\"isVisited\":true,\"questionDurationLeftInSeconds\":0,\"timeTakenInSeconds\":")
+                        .append(15 + q % 40)
+                        .append(",\"responseData\":{\"type\":\"").append(type)
+                        .append("\",\"optionIds\":[\"option-").append(q).append("-a\"")
+                        .append("MCQM".equals(type) ? ",\"option-" + q + "-c\"" : "")
+                        .append("]}}");
+            }
+            json.append("]}");
+        }
+        return json.append("]}").toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AttemptDataParserBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
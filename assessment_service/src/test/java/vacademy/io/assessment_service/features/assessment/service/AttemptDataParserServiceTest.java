@@ -0,0 +1,70 @@
+package vacademy.io.assessment_service.features.assessment.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import vacademy.io.assessment_service.features.learner_assessment.dto.status_json.ParsedAttemptData;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AttemptDataParserServiceTest {
+
+    private final AttemptDataParserService parser = new AttemptDataParserService();
+
+    @Test
+    @DisplayName("Single-pass parse matches the per-field extractors on a realistic attempt")
+    void matchesPerFieldExtractors() {
+        String json = AttemptDataParserBenchmark.realisticAttempt(3, 10);
+        ParsedAttemptData parsed = parser.parse(json);
+
+        assertThat(parsed.getClientLastSync()).isEqualTo(parser.getClientLastSyncTime(json));
+        assertThat(parsed.getTimeElapsedInSeconds()).isEqualTo(parser.getTimeElapsedInSecondsFromAttemptData(json));
+
+        List<String> sectionJsons = parser.extractSectionJsonStrings(json);
+        assertThat(parsed.getSections()).hasSize(sectionJsons.size());
+        for (int s = 0; s < sectionJsons.size(); s++) {
+            ParsedAttemptData.Section section = parsed.getSections().get(s);
+            assertThat(section.sectionId()).isEqualTo(parser.extractSectionIdFromSectionJson(sectionJsons.get(s)));
+
+            List<String> questionJsons = parser.extractQuestionJsonsFromSection(sectionJsons.get(s));
+            assertThat(section.questions()).hasSize(questionJsons.size());
+            for (int q = 0; q < questionJsons.size(); q++) {
+                String questionJson = questionJsons.get(q);
+                ParsedAttemptData.Question question = section.questions().get(q);
+                assertThat(question.json()).isEqualTo(questionJson);
+                assertThat(question.questionId()).isEqualTo(parser.extractQuestionIdFromQuestionJson(questionJson));
+                assertThat(question.responseType()).isEqualTo(parser.extractResponseTypeFromQuestionJson(questionJson));
+                assertThat(question.timeTakenInSeconds())
+                        .isEqualTo(parser.extractTimeTakenInSecondsFromQuestionJson(questionJson));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Missing and null fields, duplicate question ids and unknown ids")
+    void edgeCases() {
+        ParsedAttemptData parsed = parser.parse("{\"assessment\":{\"timeElapsedInSeconds\":null},\"extra\":[1,{\"a\":2}],"
+                + "\"sections\":[{\"sectionId\":null,\"questions\":[{\"questionId\":\"q1\",\"timeTakenInSeconds\":\"12\"},"
+                + "{\"questionId\":\"q1\",\"marker\":2}]},7]}");
+
+        assertThat(parsed.getClientLastSync()).isEmpty();
+        assertThat(parsed.getTimeElapsedInSeconds()).isNull();
+        assertThat(parsed.getSections()).hasSize(2);
+        assertThat(parsed.getSections().get(0).sectionId()).isNull();
+        ParsedAttemptData.Question first = parsed.getSections().get(0).questions().get(0);
+        assertThat(first.timeTakenInSeconds()).isEqualTo(12L);
+        assertThat(first.responseType()).isNull();
+        assertThat(parsed.questionJson("q1")).isEqualTo("{\"questionId\":\"q1\",\"timeTakenInSeconds\":\"12\"}");
+        assertThat(parsed.questionJson("missing")).isEqualTo("{}");
+    }
+
+    @Test
+    @DisplayName("Null, empty and malformed documents parse to the empty attempt")
+    void malformed() {
+        assertThat(parser.parse(null)).isSameAs(ParsedAttemptData.EMPTY);
+        assertThat(parser.parse("")).isSameAs(ParsedAttemptData.EMPTY);
+        assertThat(parser.parse("{\"sections\":[{\"questions\":[")).isSameAs(ParsedAttemptData.EMPTY);
+        assertThat(ParsedAttemptData.EMPTY.getSections()).isEmpty();
+    }
+}
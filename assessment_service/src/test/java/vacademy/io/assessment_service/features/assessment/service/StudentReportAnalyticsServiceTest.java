@@ -0,0 +1,119 @@
+package vacademy.io.assessment_service.features.assessment.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import vacademy.io.assessment_service.features.assessment.dto.LeaderBoardDto;
+import vacademy.io.assessment_service.features.assessment.dto.admin_get_dto.response.ParticipantsQuestionOverallDetailDto;
+import vacademy.io.assessment_service.features.assessment.dto.admin_get_dto.response.StudentReportAnswerReviewDto;
+import vacademy.io.assessment_service.features.assessment.dto.admin_get_dto.response.StudentReportOverallDetailDto;
+import vacademy.io.assessment_service.features.learner_assessment.dto.QuestionClassStatsDto;
+import vacademy.io.assessment_service.features.learner_assessment.repository.QuestionWiseMarksRepository;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StudentReportAnalyticsServiceTest {
+
+    private static final String ASSESSMENT_ID = "assessment-1";
+    private static final String INSTITUTE_ID = "institute-1";
+
+    private QuestionWiseMarksRepository questionWiseMarksRepository;
+    private StudentReportAnalyticsService service;
+
+    @BeforeEach
+    void setUp() {
+        questionWiseMarksRepository = mock(QuestionWiseMarksRepository.class);
+        List<QuestionClassStatsDto> stats = List.of(stats("q1", 5L, 4L, 4.0), stats("q2", 5L, 1L, 2.0));
+        when(questionWiseMarksRepository.findQuestionClassStatsForAssessment(ASSESSMENT_ID, INSTITUTE_ID))
+                .thenReturn(stats);
+
+        service = new StudentReportAnalyticsService();
+        ReflectionTestUtils.setField(service, "questionWiseMarksRepository", questionWiseMarksRepository);
+    }
+
+    @Test
+    @DisplayName("The class stats are read once per job, however many students are computed from it")
+    void prepareLoadsClassStatsOnce() {
+        StudentReportAnalyticsService.CohortAnalytics cohort =
+                service.prepare(ASSESSMENT_ID, INSTITUTE_ID, cohort(), true);
+
+        service.compute(cohort, "a1", report("a1", 10.0), 20.0);
+        service.compute(cohort, "a3", report("a3", 8.0), 20.0);
+
+        verify(questionWiseMarksRepository, times(1)).findQuestionClassStatsForAssessment(ASSESSMENT_ID, INSTITUTE_ID);
+        assertThat(cohort.getDistribution().getCohortSize()).isEqualTo(5);
+        assertThat(cohort.getDistribution().getMedian()).isEqualTo(10.0);
+    }
+
+    @Test
+    @DisplayName("Projected rank and percentile are counted against the others, excluding the student's own row")
+    void potentialUsesTheOtherStudentsMarks() {
+        StudentReportAnalyticsService.StudentReportAnalytics analytics = service.compute(
+                service.prepare(ASSESSMENT_ID, INSTITUTE_ID, cohort(), true), "a1", report("a1", 10.0), 20.0);
+
+        assertThat(analytics.getEasyMisses()).extracting(StudentReportAnalyticsService.QuestionInsightRow::getQuestionId)
+                .containsExactly("q1");
+        assertThat(analytics.getExpertise()).extracting(StudentReportAnalyticsService.QuestionInsightRow::getQuestionId)
+                .containsExactly("q2");
+        StudentReportAnalyticsService.PotentialProjection potential = analytics.getPotential();
+        // 10 + 4 marks x 80% of the class on the skipped q1; others scored 15, 12, 8 and 6
+        assertThat(potential.getPotentialScore()).isEqualTo(13.2);
+        assertThat(potential.getCurrentRank()).isEqualTo(3);
+        assertThat(potential.getPotentialRank()).isEqualTo(2);
+        assertThat(potential.getPotentialPercentile()).isEqualTo(75.0);
+    }
+
+    @Test
+    @DisplayName("A MANUAL assessment skips the class-stats query entirely")
+    void manualAssessmentSkipsQuestionInsights() {
+        StudentReportAnalyticsService.CohortAnalytics cohort =
+                service.prepare(ASSESSMENT_ID, INSTITUTE_ID, cohort(), false);
+
+        assertThat(service.compute(cohort, "a1", report("a1", 10.0), 20.0).isQuestionInsightsAvailable()).isFalse();
+        verify(questionWiseMarksRepository, never()).findQuestionClassStatsForAssessment(ASSESSMENT_ID, INSTITUTE_ID);
+    }
+
+    private static List<LeaderBoardDto> cohort() {
+        return List.of(row("a5", 15.0), row("a2", 12.0), row("a1", 10.0), row("a3", 8.0), row("a4", 6.0));
+    }
+
+    private static LeaderBoardDto row(String attemptId, Double marks) {
+        LeaderBoardDto row = mock(LeaderBoardDto.class);
+        when(row.getAttemptId()).thenReturn(attemptId);
+        when(row.getAchievedMarks()).thenReturn(marks);
+        return row;
+    }
+
+    private static StudentReportOverallDetailDto report(String attemptId, Double marks) {
+        ParticipantsQuestionOverallDetailDto overall = mock(ParticipantsQuestionOverallDetailDto.class);
+        when(overall.getAttemptId()).thenReturn(attemptId);
+        when(overall.getAchievedMarks()).thenReturn(marks);
+        // Mockito would answer 0 for these; no SQL rank/percentile means the projection derives its own
+        when(overall.getRank()).thenReturn(null);
+        when(overall.getPercentile()).thenReturn(null);
+        return StudentReportOverallDetailDto.builder()
+                .questionOverallDetailDto(overall)
+                .allSections(Map.of("section-1", List.of(
+                        StudentReportAnswerReviewDto.builder().questionId("q1").questionOrder(1).answerStatus("PENDING").build(),
+                        StudentReportAnswerReviewDto.builder().questionId("q2").questionOrder(2).answerStatus("CORRECT").build())))
+                .build();
+    }
+
+    private static QuestionClassStatsDto stats(String questionId, Long total, Long correct, Double maxMarks) {
+        QuestionClassStatsDto stats = mock(QuestionClassStatsDto.class);
+        when(stats.getQuestionId()).thenReturn(questionId);
+        when(stats.getTotalCount()).thenReturn(total);
+        when(stats.getCorrectCount()).thenReturn(correct);
+        when(stats.getMaxMarks()).thenReturn(maxMarks);
+        return stats;
+    }
+}
@@ -0,0 +1,91 @@
+package vacademy.io.assessment_service.features.assessment.service.export;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingTableExporterTest {
+
+    @SuppressWarnings("unused")
+    private static final class Row {
+        private final String name;
+        private final Integer marks;
+
+        private Row(String name, Integer marks) {
+            this.name = name;
+            this.marks = marks;
+        }
+    }
+
+    @Test
+    @DisplayName("Each page is read after the last row of the previous one, and a short page ends the walk")
+    void keysetPagerSeeksFromTheLastRow() {
+        List<Integer> source = List.of(1, 2, 3, 4, 5);
+        List<Integer> seenAfter = new ArrayList<>();
+        KeysetPager<Integer> pager = new KeysetPager<>(2, (after, limit) -> {
+            seenAfter.add(after);
+            return source.stream().filter(value -> after == null || value > after).limit(limit).toList();
+        });
+
+        assertThat(pager.next()).containsExactly(1, 2);
+        assertThat(pager.next()).containsExactly(3, 4);
+        assertThat(pager.next()).containsExactly(5);
+        assertThat(pager.next()).isEmpty();
+        assertThat(seenAfter).containsExactly(null, 2, 4);
+    }
+
+    @Test
+    @DisplayName("The CSV is written page by page with the row type's fields as header")
+    void csvStreamsEveryPage() throws Exception {
+        KeysetPager<Row> pager = new KeysetPager<>(1, (after, limit) -> {
+            if (after == null) return List.of(new Row("Asha", 10));
+            return after.name.equals("Asha") ? List.of(new Row("Ravi", null)) : List.of();
+        });
+
+        ResponseEntity<StreamingResponseBody> response = StreamingTableExporter.csv(Row.class, pager::next);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("name,marks\nAsha,10\nRavi,\n");
+    }
+
+    @Test
+    @DisplayName("An export with no rows answers 204 like the buffered export")
+    void emptyCsvIsNoContent() {
+        ResponseEntity<StreamingResponseBody> response =
+                StreamingTableExporter.csv(Row.class, StreamingTableExporter.singlePage(List.of()));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(response.getBody()).isNull();
+    }
+
+    @Test
+    @DisplayName("The PDF renders across table flushes without buffering the rows")
+    void pdfRendersManyPages() throws Exception {
+        List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < 240; i++) {
+            rows.add(new Row("Participant " + i, i));
+        }
+        int[] from = {0};
+        ResponseEntity<StreamingResponseBody> response = StreamingTableExporter.pdf("MOCK TEST", "LEADERBOARD",
+                "leaderboard", Row.class, () -> {
+                    List<Row> page = rows.subList(from[0], Math.min(from[0] + 100, rows.size()));
+                    from[0] += page.size();
+                    return page;
+                });
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertThat(response.getHeaders().getFirst("Content-Disposition")).isEqualTo("inline; filename=leaderboard.pdf");
+        assertThat(out.toString(StandardCharsets.ISO_8859_1)).startsWith("%PDF").contains("%%EOF");
+    }
+}
@@ -0,0 +1,117 @@
+package vacademy.io.assessment_service.features.assessment.service.leaderboard;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import vacademy.io.assessment_service.features.assessment.dto.LeaderBoardDto;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class LeaderboardIndexTest {
+
+    @Test
+    @DisplayName("Rows are ordered by marks then time, with dense ranks and SQL-style percentiles")
+    void ranksLikeTheLeaderboardQuery() {
+        LeaderboardIndex index = new LeaderboardIndex(List.of(
+                entry("a1", "u1", 10.0, 300L, 1),
+                entry("a2", "u2", 12.5, 400L, 1),
+                entry("a3", "u3", 10.0, 300L, 1),
+                entry("a4", "u4", 10.0, 200L, 1),
+                entry("a5", "u5", null, null, 1)));
+
+        assertThat(index.range(0, 10, false))
+                .extracting(LeaderBoardDto::getUserId, LeaderBoardDto::getRank, LeaderBoardDto::getPercentile)
+                .containsExactly(
+                        tuple("u2", 1, 100.0),
+                        tuple("u4", 2, 80.0),
+                        tuple("u1", 3, 60.0),
+                        tuple("u3", 3, 60.0),
+                        tuple("u5", 4, 40.0));
+        assertThat(index.positionOf("u1")).isEqualTo(2);
+        assertThat(index.positionOf("missing")).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("A newer attempt replaces the user's row, a rescored older attempt does not")
+    void latestAttemptWins() {
+        LeaderboardIndex index = new LeaderboardIndex(List.of(entry("a1", "u1", 5.0, 100L, 2)));
+
+        index.upsert(entry("a0", "u1", 9.0, 100L, 1));
+        assertThat(index.range(0, 1, false)).extracting(LeaderBoardDto::getAttemptId).containsExactly("a1");
+
+        index.upsert(entry("a2", "u1", 7.0, 100L, 3));
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.holdsAttempt("a1")).isFalse();
+        assertThat(index.range(0, 1, false)).extracting(LeaderBoardDto::getAchievedMarks).containsExactly(7.0);
+    }
+
+    @Test
+    @DisplayName("Rescoring moves a row and only touches attempts on the board")
+    void updateScoreReorders() {
+        LeaderboardIndex index = new LeaderboardIndex(List.of(
+                entry("a1", "u1", 10.0, 100L, 1),
+                entry("a2", "u2", 8.0, 100L, 1)));
+
+        index.updateScore("a2", 11.0, 90L);
+        index.updateScore("other", 50.0, 1L);
+
+        assertThat(index.range(0, 5, false))
+                .extracting(LeaderBoardDto::getUserId, LeaderBoardDto::getRank)
+                .containsExactly(tuple("u2", 1), tuple("u1", 2));
+    }
+
+    @Test
+    @DisplayName("Marks are rounded to two places only when asked")
+    void roundsMarksOnRequest() {
+        LeaderboardIndex index = new LeaderboardIndex(List.of(entry("a1", "u1", 3.14159, 10L, 1)));
+
+        assertThat(index.range(0, 1, true).get(0).getAchievedMarks()).isEqualTo(3.14);
+        assertThat(index.range(0, 1, false).get(0).getAchievedMarks()).isEqualTo(3.14159);
+    }
+
+    @Test
+    @DisplayName("Random inserts and removals keep the tree consistent with a sorted list")
+    void orderStatisticTreeMatchesSortedList() {
+        OrderStatisticTree<Integer> tree = new OrderStatisticTree<>(Comparator.naturalOrder());
+        List<Integer> expected = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 2_000; i++) {
+            int value = random.nextInt(500);
+            if (random.nextBoolean()) {
+                assertThat(tree.add(value)).isEqualTo(!expected.contains(value));
+                if (!expected.contains(value)) expected.add(value);
+            } else {
+                assertThat(tree.remove(value)).isEqualTo(expected.remove((Integer) value));
+            }
+        }
+        expected.sort(Comparator.naturalOrder());
+
+        assertThat(tree.size()).isEqualTo(expected.size());
+        assertThat(tree.range(0, tree.size())).isEqualTo(expected);
+        assertThat(tree.range(10, 20)).isEqualTo(expected.subList(10, 20));
+        for (int i = 0; i < expected.size(); i += 17) {
+            assertThat(tree.get(i)).isEqualTo(expected.get(i));
+            assertThat(tree.countBefore(expected.get(i))).isEqualTo(i);
+        }
+    }
+
+    @Test
+    @DisplayName("Name search mirrors the prefix and word match of the leaderboard query")
+    void nameMatching() {
+        assertThat(AssessmentLeaderboardService.matchesName("Asha Verma", "ash")).isTrue();
+        assertThat(AssessmentLeaderboardService.matchesName("Asha Verma", "verma")).isTrue();
+        assertThat(AssessmentLeaderboardService.matchesName("Asha Verma", "verma asha")).isTrue();
+        assertThat(AssessmentLeaderboardService.matchesName("Asha Verma", "erm")).isFalse();
+        assertThat(AssessmentLeaderboardService.matchesName(null, "asha")).isFalse();
+    }
+
+    private static LeaderboardIndex.Entry entry(String attemptId, String userId, Double marks, Long time, long createdAt) {
+        return new LeaderboardIndex.Entry(attemptId, userId, userId, "batch", time, marks, new Date(createdAt));
+    }
+}
@@ -0,0 +1,127 @@
+package vacademy.io.assessment_service.features.assessment.service.revaluation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import vacademy.io.assessment_service.features.assessment.repository.QuestionAssessmentSectionMappingRepository.MarkingSchemeRow;
+import vacademy.io.assessment_service.features.assessment.repository.StudentAttemptRepository.RevaluationAttemptRow;
+import vacademy.io.assessment_service.features.assessment.service.revaluation.RevaluationScorer.AttemptOutcome;
+import vacademy.io.assessment_service.features.assessment.service.revaluation.RevaluationScorer.MarkWrite;
+import vacademy.io.assessment_service.features.learner_assessment.dto.status_json.ParsedAttemptData;
+import vacademy.io.assessment_service.features.learner_assessment.repository.QuestionWiseMarksRepository.MarksKeyRow;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RevaluationScorerTest {
+
+    private static final String MARKING = "{\"type\":\"MCQS\",\"data\":{\"totalMark\":4,\"negativeMark\":1}}";
+    private static final String ANSWER_O1 = "{\"type\":\"MCQS\",\"data\":{\"correctOptionIds\":[\"o1\"]}}";
+    private static final Date NOW = new Date(1_760_000_000_000L);
+
+    private static final ParsedAttemptData PARSED = new ParsedAttemptData(null, 300L, List.of(
+            new ParsedAttemptData.Section("s1", List.of(
+                    question("q1", "o1", 30L),
+                    question("q2", "o2", 40L)))));
+
+    @Test
+    @DisplayName("Ended attempt is rescored in full, existing rows updated and missing ones inserted")
+    void endedAttemptWholeRescore() {
+        RevaluationContext context = context(null, false, "AUTO_AFTER_SUBMISSION");
+        List<MarksKeyRow> existing = List.of(marks("m1", "q1", 0.0));
+
+        AttemptOutcome outcome = RevaluationScorer.score(context, attempt("ENDED", null), PARSED, existing, NOW);
+
+        assertThat(outcome.totalMarks()).isEqualTo(3.0);
+        assertThat(outcome.resultMarks()).isEqualTo(3.0);
+        assertThat(outcome.resultStatus()).isEqualTo("COMPLETED");
+        assertThat(outcome.reportReleaseStatus()).isEqualTo("RELEASED");
+        assertThat(outcome.justReleased()).isTrue();
+        assertThat(outcome.totalTimeInSeconds()).isEqualTo(300L);
+        assertThat(outcome.updates()).extracting(MarkWrite::id, MarkWrite::marks, MarkWrite::status)
+                .containsExactly(tuple("m1", 4.0, "CORRECT"));
+        assertThat(outcome.inserts()).singleElement().satisfies(write -> {
+            assertThat(write.questionId()).isEqualTo("q2");
+            assertThat(write.marks()).isEqualTo(-1.0);
+            assertThat(write.timeTakenInSeconds()).isEqualTo(40L);
+        });
+    }
+
+    @Test
+    @DisplayName("Manual assessments keep their result marks and only move to PENDING")
+    void manualAssessmentKeepsResult() {
+        RevaluationContext context = context(null, true, "AUTO_AFTER_SUBMISSION");
+
+        AttemptOutcome outcome = RevaluationScorer.score(context, attempt("ENDED", 7.0), PARSED, List.of(), NOW);
+
+        assertThat(outcome.totalMarks()).isEqualTo(3.0);
+        assertThat(outcome.resultMarks()).isEqualTo(7.0);
+        assertThat(outcome.resultStatus()).isEqualTo("PENDING");
+        assertThat(outcome.justReleased()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Question-scoped revaluation re-sums every stored row with only the target replaced")
+    void questionScopedResum() {
+        RevaluationContext context = context(Map.of("s1", List.of("q2")), false, "MANUAL");
+        List<MarksKeyRow> existing = List.of(marks("m1", "q1", 4.0), marks("m2", "q2", 2.0), marks("m3", "q9", 1.5));
+
+        AttemptOutcome outcome = RevaluationScorer.score(context, attempt("ENDED", 7.5), PARSED, existing, NOW);
+
+        assertThat(outcome.updates()).extracting(MarkWrite::id).containsExactly("m2");
+        assertThat(outcome.inserts()).isEmpty();
+        assertThat(outcome.totalMarks()).isEqualTo(4.5);
+        assertThat(outcome.resultMarks()).isEqualTo(4.5);
+        assertThat(outcome.reportReleaseStatus()).isNull();
+    }
+
+    @Test
+    @DisplayName("Whole-attempt revaluation skips attempts that are neither live nor ended")
+    void skipsOtherStatuses() {
+        RevaluationContext context = context(null, false, "MANUAL");
+
+        assertThat(RevaluationScorer.score(context, attempt("PREVIEW", null), PARSED, List.of(), NOW)).isNull();
+    }
+
+    private static RevaluationContext context(Map<String, List<String>> filter, boolean manual, String resultType) {
+        return new RevaluationContext("as1", List.of(scheme("q1"), scheme("q2")), filter, manual, resultType, null);
+    }
+
+    private static MarkingSchemeRow scheme(String questionId) {
+        MarkingSchemeRow row = mock(MarkingSchemeRow.class);
+        when(row.getQuestionId()).thenReturn(questionId);
+        when(row.getSectionId()).thenReturn("s1");
+        when(row.getMarkingJson()).thenReturn(MARKING);
+        when(row.getAutoEvaluationJson()).thenReturn(ANSWER_O1);
+        when(row.getQuestionType()).thenReturn("MCQS");
+        return row;
+    }
+
+    private static RevaluationAttemptRow attempt(String status, Double resultMarks) {
+        RevaluationAttemptRow row = mock(RevaluationAttemptRow.class);
+        when(row.getId()).thenReturn("a1");
+        when(row.getStatus()).thenReturn(status);
+        when(row.getAttemptData()).thenReturn("{}");
+        when(row.getResultMarks()).thenReturn(resultMarks);
+        return row;
+    }
+
+    private static MarksKeyRow marks(String id, String questionId, Double value) {
+        MarksKeyRow row = mock(MarksKeyRow.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getQuestionId()).thenReturn(questionId);
+        when(row.getSectionId()).thenReturn("s1");
+        when(row.getMarks()).thenReturn(value);
+        return row;
+    }
+
+    private static ParsedAttemptData.Question question(String questionId, String optionId, Long time) {
+        String json = "{\"questionId\":\"" + questionId + "\",\"responseData\":{\"optionIds\":[\"" + optionId + "\"]}}";
+        return new ParsedAttemptData.Question(questionId, "MCQS", time, json);
+    }
+}
@@ -0,0 +1,131 @@
+package vacademy.io.assessment_service.features.learner_assessment.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import vacademy.io.assessment_service.features.assessment.repository.StudentAttemptRepository;
+import vacademy.io.assessment_service.features.assessment.service.StudentAttemptService;
+import vacademy.io.assessment_service.features.learner_assessment.dto.AssessmentAttemptDeltaRequest;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AttemptDraftStoreTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Date SYNCED_AT = new Date(1_760_000_000_000L);
+    private static final String ATTEMPT_DATA = """
+            {"clientLastSync":"2026-10-18T10:00:00Z","assessment":{"timeElapsedInSeconds":60,"tabSwitchCount":0},
+             "sections":[{"sectionId":"s1","timeElapsedInSeconds":60,"questions":[
+               {"questionId":"q1","responseData":{"optionIds":[]}},
+               {"questionId":"q2","responseData":{"optionIds":[]}}]}]}
+            """;
+
+    private final StudentAttemptRepository repository = mock(StudentAttemptRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final AttemptDraftStore store = new AttemptDraftStore(repository, mock(StudentAttemptService.class),
+            jdbcTemplate, 15);
+
+    @BeforeEach
+    void persistedAttempt() {
+        StudentAttemptRepository.AttemptDataRow row = mock(StudentAttemptRepository.AttemptDataRow.class);
+        when(row.getStatus()).thenReturn("LIVE");
+        when(row.getAttemptData()).thenReturn(ATTEMPT_DATA);
+        when(row.getServerLastSync()).thenReturn(SYNCED_AT);
+        when(repository.findAttemptDataById("a1")).thenReturn(Optional.of(row));
+    }
+
+    @Test
+    @DisplayName("Deltas chain on the returned revision and patch the persisted document")
+    void appliesDeltasInOrder() throws Exception {
+        String first = store.apply("a1", AssessmentAttemptDeltaRequest.builder()
+                .baseRevision(AttemptDraftStore.dbRevision(SYNCED_AT))
+                .assessment(json("{\"timeElapsedInSeconds\":120}"))
+                .sections(List.of(section("s1", "{\"timeElapsedInSeconds\":120}",
+                        "{\"questionId\":\"q2\",\"responseData\":{\"optionIds\":[\"o3\"]}}")))
+                .build()).orElseThrow();
+        String second = store.apply("a1", AssessmentAttemptDeltaRequest.builder()
+                .baseRevision(first)
+                .clientLastSync("2026-10-18T10:02:00Z")
+                .sections(List.of(section("s1", null, "{\"questionId\":\"q3\",\"responseData\":{}}")))
+                .build()).orElseThrow();
+        assertThat(second).isNotEqualTo(first);
+
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1});
+        store.flushDirty();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertThat(rows.getValue()).hasSize(1);
+        Object[] row = rows.getValue().get(0);
+        assertThat(row[3]).isEqualTo("a1");
+        assertThat(((Date) row[4]).getTime()).isEqualTo(SYNCED_AT.getTime());
+
+        JsonNode flushed = MAPPER.readTree((String) row[0]);
+        assertThat(flushed.at("/clientLastSync").asText()).isEqualTo("2026-10-18T10:02:00Z");
+        assertThat(flushed.at("/assessment/timeElapsedInSeconds").asInt()).isEqualTo(120);
+        assertThat(flushed.at("/assessment/tabSwitchCount").asInt()).isZero();
+        assertThat(flushed.at("/sections/0/timeElapsedInSeconds").asInt()).isEqualTo(120);
+        JsonNode questions = flushed.at("/sections/0/questions");
+        assertThat(questions).hasSize(3);
+        assertThat(questions.get(1).at("/responseData/optionIds/0").asText()).isEqualTo("o3");
+        assertThat(questions.get(2).path("questionId").asText()).isEqualTo("q3");
+    }
+
+    @Test
+    @DisplayName("Unknown, stale or replayed revisions ask for a full resync")
+    void staleRevisionsNeedResync() {
+        assertThat(store.apply("a1", delta(null))).isEmpty();
+        assertThat(store.apply("a1", delta("someone-else.3"))).isEmpty();
+        assertThat(store.apply("a1", delta(AttemptDraftStore.dbRevision(new Date(SYNCED_AT.getTime() - 1))))).isEmpty();
+
+        String base = AttemptDraftStore.dbRevision(SYNCED_AT);
+        String first = store.apply("a1", delta(base)).orElseThrow();
+        assertThat(store.apply("a1", delta(first))).isPresent();
+        assertThat(store.apply("a1", delta(first))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("A draft superseded by a full sync is dropped on flush instead of overwriting it")
+    void supersededDraftIsDropped() {
+        String revision = store.apply("a1", delta(AttemptDraftStore.dbRevision(SYNCED_AT))).orElseThrow();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{0});
+
+        store.flushDirty();
+
+        verify(repository, never()).findById(eq("a1"));
+        assertThat(store.apply("a1", delta(revision))).isEmpty();
+    }
+
+    private static AssessmentAttemptDeltaRequest delta(String baseRevision) {
+        return AssessmentAttemptDeltaRequest.builder().baseRevision(baseRevision).build();
+    }
+
+    private static AssessmentAttemptDeltaRequest.SectionPatch section(String sectionId, String fields, String question)
+            throws Exception {
+        return AssessmentAttemptDeltaRequest.SectionPatch.builder()
+                .sectionId(sectionId)
+                .fields(fields != null ? json(fields) : null)
+                .questions(List.of(json(question)))
+                .build();
+    }
+
+    private static JsonNode json(String json) throws Exception {
+        return MAPPER.readTree(json);
+    }
+}
@@ -0,0 +1,80 @@
+package vacademy.io.assessment_service.features.question_bank.manager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import vacademy.io.assessment_service.features.question_bank.dto.QuestionBankSearchRequest;
+import vacademy.io.assessment_service.features.question_bank.dto.QuestionBankSearchResponse;
+import vacademy.io.assessment_service.features.question_bank.repository.QuestionPaperRepository;
+import vacademy.io.common.exceptions.VacademyException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class QuestionBankSearchManagerTest {
+
+    private QuestionPaperRepository questionPaperRepository;
+    private QuestionBankSearchManager manager;
+
+    @BeforeEach
+    void setUp() {
+        questionPaperRepository = mock(QuestionPaperRepository.class);
+        manager = new QuestionBankSearchManager();
+        manager.questionPaperRepository = questionPaperRepository;
+    }
+
+    @Test
+    @DisplayName("One row beyond the page size yields the last returned hit as the next cursor")
+    void extraRowProducesCursor() {
+        when(questionPaperRepository.searchQuestionPapers("algebra", "institute-1", List.of(), null, null, 3))
+                .thenReturn(List.of(row("p1", 1.4), row("p2", 0.9), row("p3", 0.2)));
+
+        QuestionBankSearchResponse response = manager.searchInstituteBank(request(" algebra ", null, null), "institute-1", 2);
+
+        assertThat(response.getContent()).extracting("id").containsExactly("p1", "p2");
+        assertThat(response.isLast()).isFalse();
+        assertThat(response.getNextAfterScore()).isEqualTo(0.9);
+        assertThat(response.getNextAfterId()).isEqualTo("p2");
+    }
+
+    @Test
+    @DisplayName("A short page is the last one and carries no cursor; the public bank searches without an institute")
+    void shortPageIsLast() {
+        when(questionPaperRepository.searchQuestionPapers("algebra", null, List.of(), 0.9, "p2", 3))
+                .thenReturn(List.<Object[]>of(row("p3", 0.2)));
+
+        QuestionBankSearchResponse response = manager.searchPublicBank(request("algebra", 0.9, "p2"), 2);
+
+        assertThat(response.getContent()).extracting("id").containsExactly("p3");
+        assertThat(response.isLast()).isTrue();
+        assertThat(response.getNextAfterScore()).isNull();
+        assertThat(response.getNextAfterId()).isNull();
+        verify(questionPaperRepository).searchQuestionPapers("algebra", null, List.of(), 0.9, "p2", 3);
+    }
+
+    @Test
+    @DisplayName("A blank query is rejected before touching the database")
+    void blankQueryIsRejected() {
+        assertThatThrownBy(() -> manager.searchPublicBank(request("  ", null, null), 10))
+                .isInstanceOf(VacademyException.class);
+        verifyNoInteractions(questionPaperRepository);
+    }
+
+    private static QuestionBankSearchRequest request(String query, Double afterScore, String afterId) {
+        QuestionBankSearchRequest request = new QuestionBankSearchRequest();
+        request.setQuery(query);
+        request.setAfterScore(afterScore);
+        request.setAfterId(afterId);
+        return request;
+    }
+
+    private static Object[] row(String id, double score) {
+        return new Object[]{id, "Paper " + id, "ACTIVE", null, null, null, null, score, "TITLE", null};
+    }
+}
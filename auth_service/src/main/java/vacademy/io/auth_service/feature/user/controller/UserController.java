@@ -15,6 +15,7 @@ import vacademy.io.common.auth.model.CustomUserDetails;
 import vacademy.io.common.auth.service.UserService;
 import vacademy.io.common.exceptions.VacademyException;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,6 +25,8 @@ import java.util.Optional;
 @Validated
 public class UserController {
 
+    private static final int MAX_USERS_PER_BATCH = 500;
+
     @Autowired
     UserService userService;
 
@@ -61,6 +64,33 @@ public class UserController {
         }
     }
 
+    /**
+     * Batch twin of create-user-or-get-existing for bulk lead imports. Deliberately not
+     * @Transactional: each createUser call commits on its own, so one bad row does not roll
+     * back the chunk — its slot in the response is null, in request order.
+     */
+    @PostMapping("/internal/create-users-or-get-existing")
+    public ResponseEntity<List<UserDTO>> createUsersOrGetExisting(@RequestBody List<UserDTO> userDTOs,
+            @RequestParam(name = "instituteId", required = false) String instituteId,
+            @RequestParam(name = "isNotify", required = false, defaultValue = "true") boolean isNotify) {
+        if (userDTOs == null || userDTOs.size() > MAX_USERS_PER_BATCH) {
+            throw new VacademyException("Between 0 and " + MAX_USERS_PER_BATCH + " users are accepted per call");
+        }
+        List<UserDTO> results = new ArrayList<>(userDTOs.size());
+        for (UserDTO userDTO : userDTOs) {
+            try {
+                User user = authService.createUser(userDTO, instituteId, isNotify);
+                UserDTO res = new UserDTO(user, userDTO);
+                res.setPassword(user.getPassword());
+                results.add(res);
+            } catch (Exception e) {
+                log.warn("create-users-or-get-existing: skipped {}: {}", userDTO.getEmail(), e.getMessage());
+                results.add(null);
+            }
+        }
+        return ResponseEntity.ok(results);
+    }
+
     @PostMapping("/internal/create-or-get-existing-learner")
     @Transactional
     public ResponseEntity<UserDTO> createOrGetExistingLearner(@RequestBody UserDTO userDTO,
@@ -0,0 +1,170 @@
+package vacademy.io.common.auth.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import vacademy.io.common.auth.entity.UserActivityLog;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * The write-behind has to keep what the per-request writes recorded — the latest
+ * time per user and session, every log row — while issuing one statement per table
+ * per flush. Outside auth_service it must not touch the database at all.
+ */
+class UserActivityWriteBehindServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private UserActivityWriteBehindService service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        service = newService("auth_service", 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+    }
+
+    private UserActivityWriteBehindService newService(String applicationName, int maxPendingLogs) {
+        UserActivityWriteBehindService s = new UserActivityWriteBehindService();
+        ReflectionTestUtils.setField(s, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(s, "applicationName", applicationName);
+        // long enough that only the test's explicit flush() writes
+        ReflectionTestUtils.setField(s, "flushIntervalMs", 3_600_000L);
+        ReflectionTestUtils.setField(s, "maxPendingLogs", maxPendingLogs);
+        ReflectionTestUtils.setField(s, "maxPendingKeys", 100_000);
+        s.start();
+        return s;
+    }
+
+    @Test
+    void repeatedLoginsOfOneUserBecomeOneRowOfOneUpdate() {
+        service.recordLogin("user-1");
+        service.recordLogin("user-1");
+        service.recordLogin("user-2");
+
+        service.flush();
+
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).update(contains("UPDATE users"), args.capture());
+        // two (id, ts) pairs: one per distinct user
+        assertEquals(4, args.getValue().length);
+        verify(jdbcTemplate, never()).update(contains("UPDATE user_session"), any(Object[].class));
+    }
+
+    @Test
+    void rowsAreWrittenInKeyOrderSoReplicasLockThemInTheSameOrder() {
+        for (String user : List.of("user-c", "user-a", "user-d", "user-b")) {
+            service.recordLogin(user);
+        }
+
+        service.flush();
+
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).update(contains("UPDATE users"), args.capture());
+        Object[] values = args.getValue();
+        assertEquals(List.of("user-a", "user-b", "user-c", "user-d"),
+                List.of(values[0], values[2], values[4], values[6]));
+    }
+
+    @Test
+    void nothingPendingWritesNothing() {
+        service.flush();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void sessionActivityIsWrittenOncePerFlush() {
+        service.recordSessionActivity("jwt_session_a");
+        service.recordSessionActivity("jwt_session_a");
+        service.flush();
+        service.flush();
+
+        verify(jdbcTemplate, times(1)).update(contains("UPDATE user_session"), any(Object[].class));
+    }
+
+    @Test
+    void aSessionWithNoActivityYetStillGetsItsFirstTime() {
+        // NULL < ts is NULL in SQL, so a plain comparison would never stamp a new session.
+        service.recordSessionActivity("jwt_session_a");
+        service.flush();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).update(sql.capture(), any(Object[].class));
+        assertTrue(sql.getValue().contains(
+                "(s.last_activity_time IS NULL OR s.last_activity_time < v.ts)"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void logRowsAreInsertedInOneBatch() {
+        for (int i = 0; i < 3; i++) {
+            service.enqueueActivityLog(UserActivityLog.builder().userId("user-" + i).build());
+        }
+
+        service.flush();
+
+        ArgumentCaptor<List<UserActivityLog>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(contains("INSERT INTO user_activity_log"), rows.capture(), eq(3),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(3, rows.getValue().size());
+    }
+
+    @Test
+    void outsideAuthServiceNothingIsRecorded() {
+        service.stop();
+        service = newService("admin_core_service", 100);
+
+        service.recordLogin("user-1");
+        service.recordSessionActivity("jwt_session_a");
+        service.enqueueActivityLog(UserActivityLog.builder().userId("user-1").build());
+        service.flush();
+
+        assertFalse(service.isEnabled());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void aFullLogQueueDropsInsteadOfGrowing() {
+        service.stop();
+        service = newService("auth_service", 2);
+        assertTrue(service.isEnabled());
+
+        // early flushes may drain on the flusher thread meanwhile, so the number of
+        // batches varies; no batch can carry more than the queue holds
+        for (int i = 0; i < 5; i++) {
+            service.enqueueActivityLog(UserActivityLog.builder().userId("user-" + i).build());
+        }
+        service.flush();
+
+        ArgumentCaptor<List<UserActivityLog>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, atLeastOnce()).batchUpdate(anyString(), rows.capture(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertTrue(rows.getAllValues().stream().allMatch(batch -> batch.size() <= 2));
+        assertTrue(rows.getAllValues().stream().mapToInt(List::size).sum() <= 5);
+    }
+}
@@ -18,6 +18,7 @@ import vacademy.io.common.auth.repository.UserSessionRepository;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -38,11 +39,21 @@ public class UserActivityTrackingService {
         @Autowired
         private UserRepository userRepository;
 
+        @Autowired
+        private UserActivityWriteBehindService writeBehindService;
+
+        // Session tokens this instance has seen active recently, so the per-request
+        // createOrUpdateSession skips the lookup and only records activity.
+        private static final long KNOWN_SESSION_TTL_MS = 10 * 60 * 1000L;
+        private static final int MAX_KNOWN_SESSIONS = 100_000;
+        private final Map<String, Long> knownSessionExpiry = new ConcurrentHashMap<>();
+
         @Value("${spring.application.name:}")
         private String applicationName;
 
         /**
-         * Log user activity asynchronously
+         * Log user activity. In auth_service the row is queued for a batched insert and
+         * the session's activity time coalesced (see {@link UserActivityWriteBehindService}).
          */
         @Async
         public void logUserActivity(String userId, String instituteId, String serviceName,
@@ -68,6 +79,12 @@ public class UserActivityTrackingService {
                                         .createdAt(LocalDateTime.now())
                                         .build();
 
+                        if (writeBehindService.isEnabled()) {
+                                writeBehindService.enqueueActivityLog(log);
+                                writeBehindService.recordSessionActivity(sessionToken);
+                                return;
+                        }
+
                         activityLogRepository.save(log);
 
                         // Update session activity time
@@ -96,6 +113,11 @@ public class UserActivityTrackingService {
                         return;
                 }
 
+                if (isKnownSession(sessionToken) && writeBehindService.isEnabled()) {
+                        writeBehindService.recordSessionActivity(sessionToken);
+                        return;
+                }
+
                 try {
 
                         List<UserSession> existingSessions = sessionRepository
@@ -104,6 +126,7 @@ public class UserActivityTrackingService {
                         if (!existingSessions.isEmpty()) {
                                 // Update existing session
                                 sessionRepository.updateLastActivityTime(sessionToken, LocalDateTime.now());
+                                markKnownSession(sessionToken);
                         } else {
                                 // Create new session
                                 UserSession newSession = UserSession.builder()
@@ -120,6 +143,7 @@ public class UserActivityTrackingService {
                                                 .build();
 
                                 sessionRepository.save(newSession);
+                                markKnownSession(sessionToken);
                         }
                 } catch (Exception e) {
                         log.error("Error creating or updating user session", e);
@@ -131,9 +155,26 @@ public class UserActivityTrackingService {
          */
         @Transactional
         public void endSession(String sessionToken) {
+                knownSessionExpiry.remove(sessionToken);
                 sessionRepository.endSession(sessionToken, LocalDateTime.now());
         }
 
+        private boolean isKnownSession(String sessionToken) {
+                Long expiresAt = sessionToken == null ? null : knownSessionExpiry.get(sessionToken);
+                return expiresAt != null && expiresAt > System.currentTimeMillis();
+        }
+
+        private void markKnownSession(String sessionToken) {
+                if (sessionToken == null) {
+                        return;
+                }
+                if (knownSessionExpiry.size() >= MAX_KNOWN_SESSIONS) {
+                        // Bounded: dropping everything only costs one lookup per session.
+                        knownSessionExpiry.clear();
+                }
+                knownSessionExpiry.put(sessionToken, System.currentTimeMillis() + KNOWN_SESSION_TTL_MS);
+        }
+
         /**
          * Clean up inactive sessions
          */
@@ -0,0 +1,323 @@
+package vacademy.io.common.auth.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import vacademy.io.common.auth.entity.UserActivityLog;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind for the per-request activity writes JwtAuthFilter makes on every
+ * authenticated call: users.last_login_time, user_session.last_activity_time and the
+ * user_activity_log row.
+ *
+ * <p>Timestamps are coalesced in memory to the latest value per user / session and
+ * written every few seconds as one {@code UPDATE ... FROM (VALUES ...)} per table;
+ * log rows are appended in JDBC batches. A user hitting fifty endpoints in a flush
+ * window therefore costs one users row update instead of fifty find + full-row saves.
+ *
+ * <p>Memory is bounded: the timestamp maps hold one entry per distinct user / session
+ * and ask for an early flush past {@code max-pending-keys}; the log queue is
+ * fixed-size, asks for an early flush at half full, and drops (and counts) rows once
+ * full rather than block a request. Whatever is pending is flushed on shutdown. A
+ * crash loses at most one flush interval of "last seen" data, which these columns
+ * tolerate — they are analytics, not session state.
+ *
+ * <p>Only active in auth_service, which owns the tables (same rule as
+ * {@link UserActivityTrackingService}). Runs its own flush thread so it does not
+ * depend on the host service enabling scheduling.
+ */
+@Slf4j
+@Service
+public class UserActivityWriteBehindService {
+
+    private static final String AUTH_SERVICE_NAME = "auth_service";
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_ACTIVITY_LOG_SQL = """
+            INSERT INTO user_activity_log (id, user_id, institute_id, service_name, endpoint,
+                                           action_type, session_id, ip_address, user_agent,
+                                           device_type, response_status, response_time_ms, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    @Autowired(required = false)
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.application.name:}")
+    private String applicationName;
+
+    @Value("${auth.activity.write-behind.flush-interval-ms:5000}")
+    private long flushIntervalMs;
+
+    @Value("${auth.activity.write-behind.max-pending-logs:50000}")
+    private int maxPendingLogs;
+
+    @Value("${auth.activity.write-behind.max-pending-keys:100000}")
+    private int maxPendingKeys;
+
+    private final ConcurrentHashMap<String, Timestamp> lastLoginByUser = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Timestamp> lastActivityBySession = new ConcurrentHashMap<>();
+    private final AtomicLong droppedLogs = new AtomicLong();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private BlockingQueue<UserActivityLog> pendingLogs;
+    private ScheduledExecutorService flusher;
+    private volatile boolean enabled;
+
+    @PostConstruct
+    void start() {
+        enabled = jdbcTemplate != null && applicationName != null
+                && AUTH_SERVICE_NAME.equalsIgnoreCase(applicationName.trim());
+        if (!enabled) {
+            return;
+        }
+        pendingLogs = new ArrayBlockingQueue<>(maxPendingLogs);
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "user-activity-write-behind");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (!enabled) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Records that the user was just seen; written as users.last_login_time on the next flush. */
+    public void recordLogin(String userId) {
+        if (!enabled || userId == null) {
+            return;
+        }
+        lastLoginByUser.merge(userId, now(), UserActivityWriteBehindService::latest);
+        if (lastLoginByUser.size() > maxPendingKeys) {
+            requestFlush();
+        }
+    }
+
+    /** Records activity on an active session; written as user_session.last_activity_time on the next flush. */
+    public void recordSessionActivity(String sessionToken) {
+        if (!enabled || sessionToken == null) {
+            return;
+        }
+        lastActivityBySession.merge(sessionToken, now(), UserActivityWriteBehindService::latest);
+        if (lastActivityBySession.size() > maxPendingKeys) {
+            requestFlush();
+        }
+    }
+
+    /** Queues an activity log row for the next batch insert; dropped when the queue is full. */
+    public void enqueueActivityLog(UserActivityLog activityLog) {
+        if (!enabled || activityLog == null) {
+            return;
+        }
+        if (!pendingLogs.offer(activityLog)) {
+            droppedLogs.incrementAndGet();
+            requestFlush();
+        } else if (pendingLogs.size() >= maxPendingLogs / 2) {
+            requestFlush();
+        }
+    }
+
+    /** Writes everything pending. Called by the flush thread and on shutdown. */
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            flushRequested.set(false);
+
+            // Each table on its own, so one failing write does not hold the others back.
+            // Timestamps go back into the maps for the next flush.
+            List<Map.Entry<String, Timestamp>> logins = drain(lastLoginByUser);
+            try {
+                writeLastLogins(logins);
+            } catch (RuntimeException e) {
+                restore(lastLoginByUser, logins);
+                log.error("Flushing {} last-login times failed", logins.size(), e);
+            }
+
+            List<Map.Entry<String, Timestamp>> sessions = drain(lastActivityBySession);
+            try {
+                writeSessionActivity(sessions);
+            } catch (RuntimeException e) {
+                restore(lastActivityBySession, sessions);
+                log.error("Flushing {} session activity times failed", sessions.size(), e);
+            }
+
+            List<UserActivityLog> logs = new ArrayList<>();
+            pendingLogs.drainTo(logs);
+            insertActivityLogs(logs);
+
+            long dropped = droppedLogs.getAndSet(0);
+            if (dropped > 0) {
+                log.warn("Dropped {} user activity log rows: write-behind queue was full", dropped);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("User activity write-behind flush failed", e);
+        }
+    }
+
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true)) {
+            try {
+                flusher.execute(this::flushQuietly);
+            } catch (Exception e) {
+                // shutting down: the @PreDestroy flush picks it up
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    // Only ever moves the column forward, so a late flush from another replica can't
+    // overwrite a newer value.
+    private void writeLastLogins(List<Map.Entry<String, Timestamp>> entries) {
+        for (List<Map.Entry<String, Timestamp>> chunk : chunks(entries)) {
+            jdbcTemplate.update("""
+                    UPDATE users u
+                    SET last_login_time = v.ts
+                    FROM (VALUES %s) AS v(id, ts)
+                    WHERE u.id = v.id
+                      AND (u.last_login_time IS NULL OR u.last_login_time < v.ts)
+                    """.formatted(valuesRows(chunk.size())), flatten(chunk));
+        }
+    }
+
+    private void writeSessionActivity(List<Map.Entry<String, Timestamp>> entries) {
+        for (List<Map.Entry<String, Timestamp>> chunk : chunks(entries)) {
+            jdbcTemplate.update("""
+                    UPDATE user_session s
+                    SET last_activity_time = v.ts
+                    FROM (VALUES %s) AS v(token, ts)
+                    WHERE s.session_token = v.token
+                      AND s.is_active = true
+                      AND (s.last_activity_time IS NULL OR s.last_activity_time < v.ts)
+                    """.formatted(valuesRows(chunk.size())), flatten(chunk));
+        }
+    }
+
+    // A failed chunk is dropped, not retried: one bad row would otherwise wedge the
+    // queue. That is what the per-request save did with a failing row too.
+    private void insertActivityLogs(List<UserActivityLog> logs) {
+        for (List<UserActivityLog> chunk : chunks(logs)) {
+            try {
+                insertActivityLogChunk(chunk);
+            } catch (RuntimeException e) {
+                log.error("Inserting {} user activity log rows failed", chunk.size(), e);
+            }
+        }
+    }
+
+    private void insertActivityLogChunk(List<UserActivityLog> chunk) {
+        jdbcTemplate.batchUpdate(INSERT_ACTIVITY_LOG_SQL, chunk, chunk.size(), (ps, row) -> {
+            ps.setString(1, row.getId() != null ? row.getId() : UUID.randomUUID().toString());
+            ps.setString(2, row.getUserId());
+            ps.setString(3, row.getInstituteId());
+            ps.setString(4, row.getServiceName());
+            ps.setString(5, row.getEndpoint());
+            ps.setString(6, row.getActionType());
+            ps.setString(7, row.getSessionId());
+            ps.setString(8, row.getIpAddress());
+            ps.setString(9, row.getUserAgent());
+            ps.setString(10, row.getDeviceType());
+            ps.setObject(11, row.getResponseStatus());
+            ps.setObject(12, row.getResponseTimeMs());
+            ps.setTimestamp(13, Timestamp.valueOf(row.getCreatedAt() != null
+                    ? row.getCreatedAt() : java.time.LocalDateTime.now()));
+        });
+    }
+
+    private static String valuesRows(int rows) {
+        return String.join(", ", Collections.nCopies(rows, "(CAST(? AS varchar), CAST(? AS timestamp))"));
+    }
+
+    private static Object[] flatten(List<Map.Entry<String, Timestamp>> entries) {
+        Object[] args = new Object[entries.size() * 2];
+        int i = 0;
+        for (Map.Entry<String, Timestamp> e : entries) {
+            args[i++] = e.getKey();
+            args[i++] = e.getValue();
+        }
+        return args;
+    }
+
+    // remove(key) hands back the latest value atomically; a concurrent merge after it
+    // starts a fresh entry for the next flush, so no update is lost between the two.
+    // Sorted by key so every replica locks overlapping rows in the same order and two
+    // flushes of the same hot users/sessions queue instead of deadlocking.
+    private static List<Map.Entry<String, Timestamp>> drain(ConcurrentHashMap<String, Timestamp> pending) {
+        List<Map.Entry<String, Timestamp>> drained = new ArrayList<>();
+        for (String key : pending.keySet()) {
+            Timestamp ts = pending.remove(key);
+            if (ts != null) {
+                drained.add(Map.entry(key, ts));
+            }
+        }
+        drained.sort(Map.Entry.comparingByKey());
+        return drained;
+    }
+
+    private static void restore(ConcurrentHashMap<String, Timestamp> pending, List<Map.Entry<String, Timestamp>> entries) {
+        entries.forEach(e -> pending.merge(e.getKey(), e.getValue(), UserActivityWriteBehindService::latest));
+    }
+
+    private static <T> List<List<T>> chunks(List<T> items) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += BATCH_SIZE) {
+            chunks.add(items.subList(from, Math.min(from + BATCH_SIZE, items.size())));
+        }
+        return chunks;
+    }
+
+    private static Timestamp latest(Timestamp a, Timestamp b) {
+        return a.after(b) ? a : b;
+    }
+
+    private static Timestamp now() {
+        return new Timestamp(System.currentTimeMillis());
+    }
+}
@@ -37,6 +37,9 @@ public class UserService {
     @Autowired
     UserRoleRepository userRoleRepository;
 
+    @Autowired(required = false)
+    UserActivityWriteBehindService userActivityWriteBehindService;
+
     @Value("${spring.application.name:unknown}")
     private String applicationName;
 
@@ -679,6 +682,11 @@ public class UserService {
         if (!"auth_service".equals(applicationName)) {
             return;
         }
+        // Called on every authenticated request: coalesced and written in batches.
+        if (userActivityWriteBehindService != null && userActivityWriteBehindService.isEnabled()) {
+            userActivityWriteBehindService.recordLogin(userId);
+            return;
+        }
         try {
             User user = userRepository.findById(userId)
                     .orElseThrow(() -> new VacademyException("User Not Found with id " + userId));
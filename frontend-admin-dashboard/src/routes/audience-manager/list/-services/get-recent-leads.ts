@@ -120,6 +120,10 @@ export interface RecentLeadsRequest {
     sort_direction?: 'ASC' | 'DESC';
     page: number;
     size: number;
+    /** Keyset cursor — response_id of the last lead on the previous page. Only read in
+     *  the default newest-first order (SUBMITTED_AT DESC), where `page` then just labels
+     *  the result; any other sort pages by offset. Omitted = offset paging. */
+    after_response_id?: string;
 }
 
 export const fetchRecentLeads = async (
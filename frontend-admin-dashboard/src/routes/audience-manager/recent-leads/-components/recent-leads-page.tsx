@@ -500,30 +500,45 @@ const RecentLeadsContent = () => {
         [audienceFilters]
     );
 
+    // Everything that defines the list apart from the page; a change starts it over.
+    const listKey = [
+        'recent-leads',
+        instituteId,
+        appliedRange.from,
+        appliedRange.to,
+        audienceFilters.join(','),
+        appliedSearch,
+        tierFilters.join(','),
+        leadStatusFilters.join(','),
+        leadStatusId,
+        conversionFilter,
+        audienceStatusFilter,
+        slaFilters.join(','),
+        counsellorFilters.join(','),
+        sourceFilter,
+        callHistoryFilter,
+        callCountParam,
+        customFieldFiltersKey,
+        pageSize,
+        sortBy,
+        sortDirection,
+    ];
+    const listScope = JSON.stringify(listKey);
+
+    // Keyset cursors for the default newest-first order: page N -> response_id of the
+    // last lead on page N-1, learned as pages load. Stepping through the pager sends
+    // it as after_response_id, so a deep page costs the backend what the first does.
+    // A jump to a page with no known cursor, and every other sort, pages by offset.
+    const newestFirst = sortBy === 'SUBMITTED_AT' && sortDirection !== 'ASC';
+    const [pageCursors, setPageCursors] = useState<{
+        scope: string;
+        cursors: Record<number, string>;
+    }>({ scope: '', cursors: {} });
+    const afterResponseId =
+        newestFirst && pageCursors.scope === listScope ? pageCursors.cursors[page] : undefined;
+
     const { data, isLoading, error } = useQuery({
-        queryKey: [
-            'recent-leads',
-            instituteId,
-            appliedRange.from,
-            appliedRange.to,
-            audienceFilters.join(','),
-            appliedSearch,
-            tierFilters.join(','),
-            leadStatusFilters.join(','),
-            leadStatusId,
-            conversionFilter,
-            audienceStatusFilter,
-            slaFilters.join(','),
-            counsellorFilters.join(','),
-            sourceFilter,
-            callHistoryFilter,
-            callCountParam,
-            customFieldFiltersKey,
-            page,
-            pageSize,
-            sortBy,
-            sortDirection,
-        ],
+        queryKey: [...listKey, page, afterResponseId],
         queryFn: () =>
             fetchRecentLeads({
                 institute_id: instituteId ?? '',
@@ -552,11 +567,23 @@ const RecentLeadsContent = () => {
                 sort_direction: sortDirection,
                 page,
                 size: pageSize,
+                after_response_id: afterResponseId,
             }),
         enabled: !!instituteId,
         staleTime: 30 * 1000,
     });
 
+    useEffect(() => {
+        const lastResponseId = data?.content[data.content.length - 1]?.response_id;
+        if (!newestFirst || !data || data.last || !lastResponseId) return;
+        setPageCursors((prev) => {
+            const cursors = prev.scope === listScope ? prev.cursors : {};
+            if (cursors[page + 1] === lastResponseId) return prev;
+            return { scope: listScope, cursors: { ...cursors, [page + 1]: lastResponseId } };
+        });
+        // eslint-disable-next-line react-hooks/exhaustive-deps
+    }, [data]);
+
     const totalPages = data?.totalPages ?? 0;
     const totalElements = data?.totalElements ?? 0;
 
@@ -65,6 +65,31 @@ public class AsyncConfig {
         return executor;
     }
 
+    /**
+     * Side stages of announcement delivery (AnnouncementDeliveryService): prefetching and
+     * user-resolving the next page of recipients, and persisting the previous page's statuses
+     * (RecipientStatusWriter), while the delivery thread sends the current page. Each delivery
+     * has at most one task of each kind in flight. Kept apart from announcementDeliveryExecutor so
+     * these short tasks never queue behind whole deliveries; CallerRuns just drops the overlap.
+     */
+    @Bean(name = "announcementPipelineExecutor")
+    public Executor announcementPipelineExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("announcement-pipeline-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setKeepAliveSeconds(60);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        log.info("Initialized announcement pipeline executor: corePoolSize={}, maxPoolSize={}, queueCapacity={}",
+                executor.getCorePoolSize(), executor.getMaxPoolSize(), executor.getQueueCapacity());
+        return executor;
+    }
+
     /**
      * Dedicated executor for best-effort chat offline-push fan-out, kept SEPARATE from the announcement
      * delivery / SSE fan-out pool so FCM I/O can never starve live message delivery. On overflow it
@@ -88,5 +113,28 @@ public class AsyncConfig {
                 executor.getCorePoolSize(), executor.getMaxPoolSize(), executor.getQueueCapacity());
         return executor;
     }
-}
 
+    /**
+     * Writers for SSE outbound queues (SSEConnectionManager). Fan-out threads only enqueue; these
+     * threads do the blocking socket writes, at most one task per connection at a time, so the
+     * queue is naturally bounded by the number of open connections. A thread stuck on a dead
+     * client holds up only that client. Core == max because a ThreadPoolTaskExecutor only grows
+     * past core once the queue is full, and a few blocked writers must not leave the rest idle.
+     * CallerRuns is the last resort if the queue ever fills.
+     */
+    @Bean(name = "sseWriterExecutor")
+    public Executor sseWriterExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(32);
+        executor.setMaxPoolSize(32);
+        executor.setQueueCapacity(10_000);
+        executor.setThreadNamePrefix("sse-writer-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setKeepAliveSeconds(60);
+        executor.initialize();
+        log.info("Initialized SSE writer executor: corePoolSize={}, maxPoolSize={}, queueCapacity={}",
+                executor.getCorePoolSize(), executor.getMaxPoolSize(), executor.getQueueCapacity());
+        return executor;
+    }
+}
@@ -0,0 +1,46 @@
+package vacademy.io.notification_service.features.announcements.fanout;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Single-replica bus: publishing is a direct call into the local subscribers on the caller's
+ * thread, exactly what SSEConnectionManager did before the bus existed. Also serves as the local
+ * stand-in when testing code that publishes.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "sse.fanout.bus", havingValue = "in-jvm", matchIfMissing = true)
+public class InJvmSseFanoutBus implements SseFanoutBus {
+
+    private final String replicaId = "jvm-" + UUID.randomUUID();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(SseFanoutMessage message) {
+        message.setOriginReplicaId(replicaId);
+        List<SseFanoutMessage> batch = List.of(message);
+        for (Subscriber subscriber : subscribers) {
+            try {
+                subscriber.deliver(batch);
+            } catch (Exception e) {
+                log.error("SSE fan-out subscriber failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Subscriber subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    @Override
+    public String replicaId() {
+        return replicaId;
+    }
+}
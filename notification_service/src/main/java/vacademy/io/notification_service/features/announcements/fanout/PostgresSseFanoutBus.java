@@ -0,0 +1,222 @@
+package vacademy.io.notification_service.features.announcements.fanout;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Cross-replica bus on Postgres LISTEN/NOTIFY. No new infrastructure is needed because every
+ * replica already talks to the same database.
+ *
+ * <p>The publisher delivers to its own emitters straight away, then sends one NOTIFY per payload.
+ * Every replica (including the publisher) receives the NOTIFY on its listener connection and
+ * ignores messages whose origin is itself. Payloads over the NOTIFY cap are split by recipient,
+ * and a single event too large to fit is sent as ordered chunks that listeners reassemble (see
+ * {@link SseFanoutCodec}). Only an event over the codec's chunk limit is delivered locally only
+ * and counted under {@code sse.fanout.oversized}.
+ *
+ * <p>The listener holds a dedicated connection opened with DriverManager, not a pooled one. A
+ * LISTEN session must live forever, and the Hikari pool is only a few connections wide. If the
+ * connection drops, the listener reconnects with backoff. Notifications sent while it was down are
+ * lost. That is acceptable for SSE: clients re-fetch over REST when they reconnect.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "sse.fanout.bus", havingValue = "postgres")
+public class PostgresSseFanoutBus implements SseFanoutBus {
+
+    static final String CHANNEL = "sse_fanout";
+
+    /** NOTIFY rejects payloads of 8000 bytes or more; leave headroom for the protocol. */
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+
+    private static final long MAX_RECONNECT_BACKOFF_MS = 30_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SseFanoutCodec codec;
+    private final String replicaId;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    private final String jdbcUrl;
+    private final String username;
+    private final String password;
+    private final int pollTimeoutMs;
+
+    private final Counter publishedCounter;
+    private final Counter receivedCounter;
+    private final Counter oversizedCounter;
+    private final Counter publishFailedCounter;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public PostgresSseFanoutBus(JdbcTemplate jdbcTemplate,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${spring.datasource.url}") String jdbcUrl,
+                                @Value("${spring.datasource.username:}") String username,
+                                @Value("${spring.datasource.password:}") String password,
+                                @Value("${sse.fanout.postgres.poll-timeout-ms:500}") int pollTimeoutMs,
+                                @Value("${HOSTNAME:}") String hostname) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.codec = new SseFanoutCodec(objectMapper, MAX_PAYLOAD_BYTES);
+        this.replicaId = hostname == null || hostname.isBlank() ? "pg-" + UUID.randomUUID() : hostname;
+        this.jdbcUrl = jdbcUrl;
+        this.username = username;
+        this.password = password;
+        this.pollTimeoutMs = Math.max(50, pollTimeoutMs);
+        this.publishedCounter = Counter.builder("sse.fanout.notify.published")
+                .description("NOTIFY payloads sent by this replica").register(meterRegistry);
+        this.receivedCounter = Counter.builder("sse.fanout.notify.received")
+                .description("Fan-out messages from other replicas delivered locally").register(meterRegistry);
+        this.oversizedCounter = Counter.builder("sse.fanout.oversized")
+                .description("Messages too large even for chunked NOTIFY, delivered on the publishing replica only")
+                .register(meterRegistry);
+        this.publishFailedCounter = Counter.builder("sse.fanout.notify.failed")
+                .description("Messages whose NOTIFY could not be sent").register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        listenerThread = new Thread(this::listenLoop, "sse-fanout-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    @Override
+    public void publish(SseFanoutMessage message) {
+        message.setOriginReplicaId(replicaId);
+        dispatch(List.of(message));
+
+        List<String> payloads;
+        try {
+            payloads = codec.encode(message);
+        } catch (SseFanoutCodec.OversizedMessageException e) {
+            oversizedCounter.increment();
+            log.warn("SSE fan-out: {} event {} not sent to other replicas: {}",
+                    message.getTarget(), message.getEvent() != null ? message.getEvent().getType() : null,
+                    e.getMessage());
+            return;
+        } catch (Exception e) {
+            publishFailedCounter.increment();
+            log.error("SSE fan-out: could not encode message: {}", e.getMessage(), e);
+            return;
+        }
+
+        for (String payload : payloads) {
+            try {
+                jdbcTemplate.query("SELECT pg_notify(?, ?)", (ResultSetExtractor<Void>) rs -> null, CHANNEL, payload);
+                publishedCounter.increment();
+            } catch (Exception e) {
+                publishFailedCounter.increment();
+                log.error("SSE fan-out: NOTIFY failed, other replicas miss this event: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Subscriber subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    @Override
+    public String replicaId() {
+        return replicaId;
+    }
+
+    /** Decodes one batch of NOTIFY payloads and hands the foreign ones to the subscribers. */
+    void onNotifications(List<String> payloads) {
+        List<SseFanoutMessage> batch = new ArrayList<>(payloads.size());
+        for (String payload : payloads) {
+            try {
+                SseFanoutMessage message = codec.decode(payload);
+                if (message != null && !replicaId.equals(message.getOriginReplicaId())) {
+                    batch.add(message);
+                }
+            } catch (Exception e) {
+                log.warn("SSE fan-out: dropping undecodable payload: {}", e.getMessage());
+            }
+        }
+        if (!batch.isEmpty()) {
+            receivedCounter.increment(batch.size());
+            dispatch(batch);
+        }
+    }
+
+    private void dispatch(List<SseFanoutMessage> batch) {
+        for (Subscriber subscriber : subscribers) {
+            try {
+                subscriber.deliver(batch);
+            } catch (Exception e) {
+                log.error("SSE fan-out subscriber failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void listenLoop() {
+        long backoffMs = 1_000;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(jdbcUrl, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                log.info("SSE fan-out: replica {} listening on '{}'", replicaId, CHANNEL);
+                backoffMs = 1_000;
+
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(pollTimeoutMs);
+                    if (notifications == null || notifications.length == 0) {
+                        continue;
+                    }
+                    List<String> payloads = new ArrayList<>(notifications.length);
+                    for (PGNotification notification : notifications) {
+                        payloads.add(notification.getParameter());
+                    }
+                    onNotifications(payloads);
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("SSE fan-out: listener connection lost ({}), reconnecting in {} ms",
+                        e.getMessage(), backoffMs);
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoffMs = Math.min(backoffMs * 2, MAX_RECONNECT_BACKOFF_MS);
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package vacademy.io.notification_service.features.announcements.fanout;
+
+import java.util.List;
+
+/**
+ * Carries SSE deliveries to every notification-service replica. SSE streams are pinned to the pod
+ * that accepted them, so a sender can't reach every recipient's emitter on its own. Instead it
+ * publishes once, and each replica hands the message to its local
+ * {@link vacademy.io.notification_service.features.announcements.service.SSEConnectionManager}.
+ *
+ * <p>Selected with {@code sse.fanout.bus}: {@code in-jvm} (default, single replica) or
+ * {@code postgres} (LISTEN/NOTIFY on the service's own database).
+ */
+public interface SseFanoutBus {
+
+    /**
+     * Delivers the message to this replica's subscribers and to every other replica's.
+     * Stamps {@code originReplicaId}; never throws for transport problems.
+     */
+    void publish(SseFanoutMessage message);
+
+    /**
+     * Registers the local delivery callback. Messages arrive in batches (whatever the transport
+     * received together) so the subscriber can write several events to one emitter in one flush.
+     */
+    void subscribe(Subscriber subscriber);
+
+    /** Identifies this replica in published messages and metrics. */
+    String replicaId();
+
+    @FunctionalInterface
+    interface Subscriber {
+        void deliver(List<SseFanoutMessage> batch);
+    }
+}
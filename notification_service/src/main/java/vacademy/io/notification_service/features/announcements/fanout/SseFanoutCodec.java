@@ -0,0 +1,171 @@
+package vacademy.io.notification_service.features.announcements.fanout;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * JSON wire format for transports with a payload cap (Postgres NOTIFY rejects payloads of 8000
+ * bytes or more). A USERS message over the cap is split into several messages with smaller
+ * recipient lists. A message that still doesn't fit (one large event, or an INSTITUTE broadcast)
+ * is cut into ordered chunk frames, {@code #<id>:<index>/<count>:<slice of the JSON>}, which
+ * {@link #decode} buffers until the last one arrives. Chunks of a message that never completes
+ * (a listener reconnecting mid-message) are dropped after {@link #ASSEMBLY_TIMEOUT_MS}. Only a
+ * message over {@link #MAX_CHUNKS} frames is refused with {@link OversizedMessageException}.
+ *
+ * <p>Decoding keeps per-message state, so each receiving bus needs its own codec instance.
+ */
+class SseFanoutCodec {
+
+    static final String CHUNK_PREFIX = "#";
+
+    /** About 500 KB of JSON at the NOTIFY cap. */
+    static final int MAX_CHUNKS = 64;
+
+    static final long ASSEMBLY_TIMEOUT_MS = 60_000;
+
+    /** Room for the chunk header: prefix, a UUID and two indexes. */
+    private static final int CHUNK_HEADER_BYTES = 64;
+
+    private final ObjectMapper objectMapper;
+    private final int maxPayloadBytes;
+    private final Map<String, Partial> partials = new HashMap<>();
+
+    SseFanoutCodec(ObjectMapper objectMapper, int maxPayloadBytes) {
+        this.objectMapper = objectMapper;
+        this.maxPayloadBytes = maxPayloadBytes;
+    }
+
+    List<String> encode(SseFanoutMessage message) throws JsonProcessingException {
+        List<String> payloads = new ArrayList<>();
+        encodeInto(message, payloads);
+        return payloads;
+    }
+
+    /**
+     * The message carried by {@code payload}, or null when it is a chunk and the rest of its
+     * message has not arrived yet.
+     */
+    SseFanoutMessage decode(String payload) throws JsonProcessingException {
+        if (!payload.startsWith(CHUNK_PREFIX)) {
+            return objectMapper.readValue(payload, SseFanoutMessage.class);
+        }
+        String json = assemble(payload);
+        return json == null ? null : objectMapper.readValue(json, SseFanoutMessage.class);
+    }
+
+    private void encodeInto(SseFanoutMessage message, List<String> out) throws JsonProcessingException {
+        String json = objectMapper.writeValueAsString(message);
+        if (json.getBytes(StandardCharsets.UTF_8).length < maxPayloadBytes) {
+            out.add(json);
+            return;
+        }
+        List<String> userIds = message.getUserIds();
+        if (message.getTarget() != SseFanoutMessage.Target.USERS || userIds == null || userIds.size() < 2) {
+            chunkInto(json, out);
+            return;
+        }
+        int half = userIds.size() / 2;
+        encodeInto(message.toBuilder().userIds(new ArrayList<>(userIds.subList(0, half))).build(), out);
+        encodeInto(message.toBuilder().userIds(new ArrayList<>(userIds.subList(half, userIds.size()))).build(), out);
+    }
+
+    private void chunkInto(String json, List<String> out) {
+        // Cut on code point boundaries so every frame is valid text on its own.
+        int budget = maxPayloadBytes - CHUNK_HEADER_BYTES;
+        List<String> slices = new ArrayList<>();
+        int start = 0;
+        int bytes = 0;
+        for (int i = 0; i < json.length(); ) {
+            int codePoint = json.codePointAt(i);
+            int codePointBytes = utf8Length(codePoint);
+            if (bytes + codePointBytes > budget) {
+                slices.add(json.substring(start, i));
+                start = i;
+                bytes = 0;
+            }
+            bytes += codePointBytes;
+            i += Character.charCount(codePoint);
+        }
+        slices.add(json.substring(start));
+        if (slices.size() > MAX_CHUNKS) {
+            throw new OversizedMessageException(json.length());
+        }
+
+        String id = UUID.randomUUID().toString();
+        for (int i = 0; i < slices.size(); i++) {
+            out.add(CHUNK_PREFIX + id + ":" + i + "/" + slices.size() + ":" + slices.get(i));
+        }
+    }
+
+    /** Buffers one chunk frame; returns the whole JSON once every chunk of its message is in. */
+    private String assemble(String frame) {
+        int idEnd = frame.indexOf(':');
+        int slash = frame.indexOf('/', idEnd);
+        int headerEnd = frame.indexOf(':', slash);
+        if (idEnd < 0 || slash < 0 || headerEnd < 0) {
+            throw new IllegalArgumentException("malformed chunk header");
+        }
+        String id = frame.substring(CHUNK_PREFIX.length(), idEnd);
+        int index = Integer.parseInt(frame.substring(idEnd + 1, slash));
+        int count = Integer.parseInt(frame.substring(slash + 1, headerEnd));
+        if (count < 1 || count > MAX_CHUNKS || index < 0 || index >= count) {
+            throw new IllegalArgumentException("chunk " + index + "/" + count + " out of range");
+        }
+
+        long now = System.currentTimeMillis();
+        Partial partial;
+        synchronized (partials) {
+            for (Iterator<Partial> it = partials.values().iterator(); it.hasNext(); ) {
+                if (now - it.next().startedAt > ASSEMBLY_TIMEOUT_MS) {
+                    it.remove();
+                }
+            }
+            partial = partials.computeIfAbsent(id, k -> new Partial(count, now));
+            if (partial.slices.length != count) {
+                throw new IllegalArgumentException("chunk count changed for message " + id);
+            }
+            if (partial.slices[index] == null) {
+                partial.slices[index] = frame.substring(headerEnd + 1);
+                partial.received++;
+            }
+            if (partial.received < count) {
+                return null;
+            }
+            partials.remove(id);
+        }
+        return String.join("", partial.slices);
+    }
+
+    private static int utf8Length(int codePoint) {
+        if (codePoint < 0x80) return 1;
+        if (codePoint < 0x800) return 2;
+        if (codePoint < 0x10000) return 3;
+        return 4;
+    }
+
+    private static final class Partial {
+        final String[] slices;
+        final long startedAt;
+        int received;
+
+        Partial(int count, long startedAt) {
+            this.slices = new String[count];
+            this.startedAt = startedAt;
+        }
+    }
+
+    static class OversizedMessageException extends RuntimeException {
+        OversizedMessageException(int length) {
+            super("SSE fan-out message of " + length + " chars needs more than " + MAX_CHUNKS
+                    + " chunks under the transport limit");
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package vacademy.io.notification_service.features.announcements.fanout;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import vacademy.io.notification_service.features.announcements.dto.AnnouncementEvent;
+
+import java.util.List;
+
+/**
+ * One SSE delivery as it travels over the {@link SseFanoutBus}: which local emitters should get
+ * the event on every replica that receives it.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class SseFanoutMessage {
+
+    public enum Target {
+        /** Every connection of each user in {@link #userIds}. */
+        USERS,
+        /** Every connected user of {@link #instituteId}. */
+        INSTITUTE
+    }
+
+    private Target target;
+
+    private String instituteId;
+
+    private List<String> userIds;
+
+    private AnnouncementEvent event;
+
+    /** Replica that published the message; it has already delivered to its own emitters. */
+    private String originReplicaId;
+
+    /** Wall-clock publish time, for the delivery-lag timer. */
+    private long publishedAtMillis;
+
+    public static SseFanoutMessage toUsers(List<String> userIds, AnnouncementEvent event) {
+        return SseFanoutMessage.builder()
+                .target(Target.USERS)
+                .userIds(userIds)
+                .event(event)
+                .publishedAtMillis(System.currentTimeMillis())
+                .build();
+    }
+
+    public static SseFanoutMessage toInstitute(String instituteId, AnnouncementEvent event) {
+        return SseFanoutMessage.builder()
+                .target(Target.INSTITUTE)
+                .instituteId(instituteId)
+                .event(event)
+                .publishedAtMillis(System.currentTimeMillis())
+                .build();
+    }
+}
@@ -53,6 +53,18 @@ public interface RecipientMessageRepository extends JpaRepository<RecipientMessa
         Pageable pageable
     );
     
+    /**
+     * Keyset page for delivery: unlike offset pages, rows moved out of PENDING by the previous page
+     * can't shift later rows out of view, and the next page can be fetched before this one is saved.
+     */
+    List<RecipientMessage> findByAnnouncementIdAndStatusAndMediumTypeAndIdGreaterThanOrderByIdAsc(
+        String announcementId,
+        MessageStatus status,
+        MediumType mediumType,
+        String afterId,
+        Pageable pageable
+    );
+
     // Recovery/restart queries
     
     /**
@@ -3,10 +3,10 @@ package vacademy.io.notification_service.features.announcements.service;
 import com.google.common.util.concurrent.RateLimiter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
@@ -43,6 +43,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Service
 @RequiredArgsConstructor
@@ -64,6 +66,13 @@ public class AnnouncementDeliveryService {
 
     // Service clients for user resolution
     private final AuthServiceClient authServiceClient;
+
+    // Batched status/log persistence and the executor for the prefetch stage
+    private final RecipientStatusWriter statusWriter;
+
+    @Autowired
+    @Qualifier("announcementPipelineExecutor")
+    private Executor pipelineExecutor;
     
     // Configuration for batch processing
     @Value("${notification.user.batch.size:100}")
@@ -220,158 +229,157 @@ public class AnnouncementDeliveryService {
         int totalFailed = 0;
         long overallStartTime = System.currentTimeMillis();
         
-        // Process in batches (pagination)
+        // Pipelined batches: while this page is sent, the next page is fetched and its users
+        // resolved on the pipeline executor, and the previous page's statuses are written by the
+        // status writer. Keyset paging keeps the prefetch independent of those writes.
         int pageNumber = 0;
-        Page<RecipientMessage> page;
-        
-        do {
-            Pageable pageable = PageRequest.of(pageNumber, deliveryBatchSize);
-            page = recipientMessageRepository.findByAnnouncementIdAndStatusAndMediumType(
-                announcement.getId(), 
-                MessageStatus.PENDING, 
-                MediumType.EMAIL,
-                pageable
-            );
-            
-            List<RecipientMessage> batch = page.getContent();
-            if (batch.isEmpty()) {
-                break;
-            }
-            
-            log.debug("Processing batch {} with {} messages for announcement {}", 
-                    pageNumber + 1, batch.size(), announcement.getId());
+        try (RecipientStatusWriter.Run statuses = statusWriter.open(announcement.getId())) {
+            CompletableFuture<PreparedPage> nextPage = prefetchPage(announcement.getId(), MediumType.EMAIL, "", needsPasswords);
+
+            while (true) {
+                PreparedPage prepared = nextPage.join();
+                List<RecipientMessage> batch = prepared.messages();
+                if (batch.isEmpty()) {
+                    break;
+                }
+                boolean hasMore = batch.size() == deliveryBatchSize;
+                if (hasMore) {
+                    nextPage = prefetchPage(announcement.getId(), MediumType.EMAIL,
+                            batch.get(batch.size() - 1).getId(), needsPasswords);
+                }
             
-            // Batch resolve user emails for this batch only (not all users at once)
-            List<String> userIds = batch.stream()
-                    .map(RecipientMessage::getUserId)
-                    .distinct()
-                    .toList();
+                log.debug("Processing batch {} with {} messages for announcement {}", 
+                        pageNumber + 1, batch.size(), announcement.getId());
             
-            Map<String, User> userEmailMap = batchResolveUsers(userIds);
-            Map<String, String> passwordByUserId = needsPasswords
-                    ? batchResolvePasswords(userIds)
-                    : Map.of();
-
-            // Process each message in this batch
-            int batchSuccess = 0;
-            int batchFailed = 0;
+                Map<String, User> userEmailMap = prepared.users();
+                Map<String, String> passwordByUserId = prepared.passwords();
+
+                // Process each message in this batch
+                int batchSuccess = 0;
+                int batchFailed = 0;
             
-            // Resolve the institute-side from-address once per batch (used for unsubscribe checks
-            // AND as sender_business_channel_id on notification_log rows for institute-scoped queries).
-            String resolvedFromAddress = determineFromAddress(fromEmail, announcement.getInstituteId(), resolvedEmailType);
+                // Resolve the institute-side from-address once per batch (used for unsubscribe checks
+                // AND as sender_business_channel_id on notification_log rows for institute-scoped queries).
+                String resolvedFromAddress = determineFromAddress(fromEmail, announcement.getInstituteId(), resolvedEmailType);
 
-            for (RecipientMessage message : batch) {
-            try {
-                message.setMediumType(MediumType.EMAIL);
-
-                String userEmail = forceToEmail != null && !forceToEmail.isBlank()
-                    ? forceToEmail
-                    : (userEmailMap.containsKey(message.getUserId())
-                        ? userEmailMap.get(message.getUserId()).getEmail()
-                        : null);
-
-                if (userEmail != null) {
-                String resolvedUsername = resolveUsername(message, userEmailMap);
-                String fromForPreference = resolvedFromAddress;
-
-                        // Check unsubscribe preferences
-                    if (fromForPreference != null &&
-                            userAnnouncementPreferenceService.isEmailSenderUnsubscribed(
-                                    message.getUserId(), announcement.getInstituteId(), resolvedEmailType, fromForPreference)) {
+                for (RecipientMessage message : batch) {
+                    try {
+                        message.setMediumType(MediumType.EMAIL);
+
+                        String userEmail = forceToEmail != null && !forceToEmail.isBlank()
+                            ? forceToEmail
+                            : (userEmailMap.containsKey(message.getUserId())
+                                ? userEmailMap.get(message.getUserId()).getEmail()
+                                : null);
+
+                        if (userEmail != null) {
+                            String resolvedUsername = resolveUsername(message, userEmailMap);
+                            String fromForPreference = resolvedFromAddress;
+
+                            // Check unsubscribe preferences
+                            if (fromForPreference != null &&
+                                    userAnnouncementPreferenceService.isEmailSenderUnsubscribed(
+                                            message.getUserId(), announcement.getInstituteId(), resolvedEmailType, fromForPreference)) {
+                                batchFailed++;
+                                message.setStatus(MessageStatus.FAILED);
+                                message.setErrorMessage("User unsubscribed from emails sent from " + fromForPreference + " (" + resolvedEmailType + ")");
+                                statuses.record(message);
+                                statuses.log(emailNotificationLog(announcement, message, userEmail, resolvedFromAddress));
+                                log.debug("Skipping email delivery to user {} (message {}) due to unsubscribe preference",
+                                        resolvedUsername, message.getId());
+                                continue;
+                            }
+
+                            // Process HTML content with variables (use cached users - no additional API calls)
+                            String processedContent = processHtmlVariables(content.getContent(), message, announcement, userEmailMap, passwordByUserId, resolvedInstituteEmail);
+
+                            // RATE LIMITING: Acquire permit before sending (blocks if limit exceeded)
+                            rateLimiter.acquire();
+
+                            // Send email via unified send for consistent logging
+                            // previewText and fromEmail/fromName come directly from the announcement's
+                            // email medium config (populated from the template at announcement creation time).
+                            // We do NOT pass templateName here because admin_core_service templates
+                            // are in a different table than notification_service's notification_template.
+                            unifiedSendService.routeSync(UnifiedSendRequest.builder()
+                                    .instituteId(instituteId)
+                                    .channel("EMAIL")
+                                    .recipients(List.of(UnifiedSendRequest.Recipient.builder()
+                                            .email(userEmail).userId(message.getUserId()).build()))
+                                    .options(UnifiedSendRequest.SendOptions.builder()
+                                            .emailSubject(subject)
+                                            .emailBody(processedContent)
+                                            .emailType(resolvedEmailType)
+                                            .fromEmail(fromEmail)
+                                            .fromName(fromName)
+                                            .previewText(previewText)
+                                            .source("announcement-service")
+                                            .sourceId(announcement.getId())
+                                            .build())
+                                    .build());
+
+                            // Only mark DELIVERED after successful send
+                            message.setStatus(MessageStatus.DELIVERED);
+                            message.setSentAt(LocalDateTime.now());
+                            message.setDeliveredAt(LocalDateTime.now());
+
+                            // Create email-specific notification log entry
+                            log.trace("Creating EMAIL notification log for announcement: {}, user: {}",
+                                    announcement.getId(), message.getUserId());
+                            statuses.log(emailNotificationLog(announcement, message, userEmail, resolvedFromAddress));
+
+                            batchSuccess++;
+
+                        } else {
                             batchFailed++;
-                        message.setStatus(MessageStatus.FAILED);
-                        message.setErrorMessage("User unsubscribed from emails sent from " + fromForPreference + " (" + resolvedEmailType + ")");
-                        recipientMessageRepository.save(message);
-                        createEmailNotificationLog(announcement, message, userEmail, "FAILED", message.getErrorMessage(), resolvedFromAddress);
-                            log.debug("Skipping email delivery to user {} (message {}) due to unsubscribe preference",
-                                    resolvedUsername, message.getId());
-                        continue;
-                    }
+                            message.setStatus(MessageStatus.FAILED);
+                            message.setErrorMessage("User email not found");
+                            statuses.log(emailNotificationLog(announcement, message, "unknown@email.com", resolvedFromAddress));
+                        }
+
+                        statuses.record(message);
 
-                    // Process HTML content with variables (use cached users - no additional API calls)
-                    String processedContent = processHtmlVariables(content.getContent(), message, announcement, userEmailMap, passwordByUserId, resolvedInstituteEmail);
-
-                        // RATE LIMITING: Acquire permit before sending (blocks if limit exceeded)
-                        rateLimiter.acquire();
-
-                    // Send email via unified send for consistent logging
-                    // previewText and fromEmail/fromName come directly from the announcement's
-                    // email medium config (populated from the template at announcement creation time).
-                    // We do NOT pass templateName here because admin_core_service templates
-                    // are in a different table than notification_service's notification_template.
-                    unifiedSendService.routeSync(UnifiedSendRequest.builder()
-                            .instituteId(instituteId)
-                            .channel("EMAIL")
-                            .recipients(List.of(UnifiedSendRequest.Recipient.builder()
-                                    .email(userEmail).userId(message.getUserId()).build()))
-                            .options(UnifiedSendRequest.SendOptions.builder()
-                                    .emailSubject(subject)
-                                    .emailBody(processedContent)
-                                    .emailType(resolvedEmailType)
-                                    .fromEmail(fromEmail)
-                                    .fromName(fromName)
-                                    .previewText(previewText)
-                                    .source("announcement-service")
-                                    .sourceId(announcement.getId())
-                                    .build())
-                            .build());
-
-                    // Only mark DELIVERED after successful send
-                    message.setStatus(MessageStatus.DELIVERED);
-                    message.setSentAt(LocalDateTime.now());
-                    message.setDeliveredAt(LocalDateTime.now());
-                    
-                    // Create email-specific notification log entry
-                        log.trace("Creating EMAIL notification log for announcement: {}, user: {}", 
-                            announcement.getId(), message.getUserId());
-                    createEmailNotificationLog(announcement, message, userEmail, "SUCCESS", null, resolvedFromAddress);
-
-                        batchSuccess++;
-
-                } else {
+                    } catch (Exception e) {
                         batchFailed++;
-                    message.setStatus(MessageStatus.FAILED);
-                    message.setErrorMessage("User email not found");
-                    createEmailNotificationLog(announcement, message, "unknown@email.com", "FAILED", "User email not found", resolvedFromAddress);
-                }
-                
-                recipientMessageRepository.save(message);
-                
-            } catch (Exception e) {
-                    batchFailed++;
-                String detailed = extractSmtpDetails(e);
-                
-                // Check if it's a rate limiting error from SES
-                if (detailed.contains("Throttling") || detailed.contains("Rate") || detailed.contains("limit")) {
-                        log.warn("Rate limit error detected for message {}: {}. Will retry in next batch.", message.getId(), detailed);
-                        message.setStatus(MessageStatus.PENDING); // Keep as PENDING for retry
-                    message.setErrorMessage("Rate limited - will retry: " + detailed);
-                } else {
-                        log.error("Error sending email for message: {} -> {}", message.getId(), detailed);
-                    message.setStatus(MessageStatus.FAILED);
-                    message.setErrorMessage(detailed);
+                        String detailed = extractSmtpDetails(e);
+
+                        // Check if it's a rate limiting error from SES
+                        if (detailed.contains("Throttling") || detailed.contains("Rate") || detailed.contains("limit")) {
+                            log.warn("Rate limit error detected for message {}: {}. Left PENDING for the next delivery run.", message.getId(), detailed);
+                            message.setStatus(MessageStatus.PENDING); // Keep as PENDING for retry
+                            message.setErrorMessage("Rate limited - will retry: " + detailed);
+                        } else {
+                            log.error("Error sending email for message: {} -> {}", message.getId(), detailed);
+                            message.setStatus(MessageStatus.FAILED);
+                            message.setErrorMessage(detailed);
+                        }
+                        statuses.record(message);
+                        statuses.log(emailNotificationLog(announcement, message, "error@email.com", resolvedFromAddress));
+                    }
                 }
-                recipientMessageRepository.save(message);
-                createEmailNotificationLog(announcement, message, "error@email.com", "FAILED", detailed, resolvedFromAddress);
-            }
-        }
-            
-            // Update totals
-            totalSuccess += batchSuccess;
-            totalFailed += batchFailed;
+
+                // Persist this page in the background while the next one is sent
+                statuses.flushAsync();
             
-            // Log batch progress
-            long elapsedSeconds = (System.currentTimeMillis() - overallStartTime) / 1000;
-            double currentRate = totalSuccess / (double) Math.max(elapsedSeconds, 1);
+                // Update totals
+                totalSuccess += batchSuccess;
+                totalFailed += batchFailed;
             
-            log.info("Batch {} completed for announcement {}: {}/{} messages processed ({} success, {} failed). " +
-                    "Overall: {}/{} sent. Current rate: {:.1f} emails/sec", 
-                    pageNumber + 1, announcement.getId(), batch.size(), batch.size(), 
-                    batchSuccess, batchFailed, totalSuccess, totalRecipients, currentRate);
+                // Log batch progress
+                long elapsedSeconds = (System.currentTimeMillis() - overallStartTime) / 1000;
+                double currentRate = totalSuccess / (double) Math.max(elapsedSeconds, 1);
             
-            pageNumber++;
+                log.info("Batch {} completed for announcement {}: {}/{} messages processed ({} success, {} failed). " +
+                        "Overall: {}/{} sent. Current rate: {:.1f} emails/sec", 
+                        pageNumber + 1, announcement.getId(), batch.size(), batch.size(), 
+                        batchSuccess, batchFailed, totalSuccess, totalRecipients, currentRate);
             
-        } while (page.hasNext());
+                pageNumber++;
+                if (!hasMore) {
+                    break;
+                }
+            }
+        }
         
         // Final summary
         long totalTimeSeconds = (System.currentTimeMillis() - overallStartTime) / 1000;
@@ -416,130 +424,137 @@ public class AnnouncementDeliveryService {
         int pageNumber = 0;
         int totalSuccess = 0;
         int totalFailed = 0;
-        Page<RecipientMessage> page;
 
-        do {
-            Pageable pageable = PageRequest.of(pageNumber, deliveryBatchSize);
-            page = recipientMessageRepository.findByAnnouncementIdAndStatusAndMediumType(
-                    announcement.getId(), MessageStatus.PENDING, MediumType.WHATSAPP, pageable);
+        try (RecipientStatusWriter.Run statuses = statusWriter.open(announcement.getId())) {
+            CompletableFuture<PreparedPage> nextPage = prefetchPage(announcement.getId(), MediumType.WHATSAPP, "", false);
+
+            while (true) {
+                PreparedPage prepared = nextPage.join();
+                List<RecipientMessage> batch = prepared.messages();
+                if (batch.isEmpty()) break;
+                boolean hasMore = batch.size() == deliveryBatchSize;
+                if (hasMore) {
+                    nextPage = prefetchPage(announcement.getId(), MediumType.WHATSAPP,
+                            batch.get(batch.size() - 1).getId(), false);
+                }
 
-            List<RecipientMessage> batch = page.getContent();
-            if (batch.isEmpty()) break;
+                // The recipients' user records were resolved once per page with the prefetch, mirroring
+                // the email path. Without this, dynamic_values could only ever carry the announcement's
+                // own fields, so a template asking for {{name}} or {{email}} received the literal placeholder.
+                Map<String, User> userCache = prepared.users();
 
-            // Resolve the recipients' user records once per page, mirroring the email path. Without
-            // this, dynamic_values could only ever carry the announcement's own fields, so a
-            // template asking for {{name}} or {{email}} received the literal placeholder.
-            Map<String, User> userCache = batchResolveUsers(
-                    batch.stream().map(RecipientMessage::getUserId).distinct().toList());
+                // Build unified send recipients for this batch
+                List<UnifiedSendRequest.Recipient> recipients = new java.util.ArrayList<>();
+                Map<String, RecipientMessage> messageByPhone = new HashMap<>();
 
-            // Build unified send recipients for this batch
-            List<UnifiedSendRequest.Recipient> recipients = new java.util.ArrayList<>();
-            Map<String, RecipientMessage> messageByPhone = new HashMap<>();
+                for (RecipientMessage message : batch) {
+                    try {
+                        User cachedUser = userCache.get(message.getUserId());
+                        String userPhone = cachedUser != null ? cachedUser.getMobileNumber() : resolveUserPhone(message.getUserId());
+
+                        // Check unsubscribe
+                        if (userAnnouncementPreferenceService.isWhatsAppUnsubscribed(
+                                message.getUserId(), announcement.getInstituteId(), userPhone)) {
+                            message.setMediumType(MediumType.WHATSAPP);
+                            message.setStatus(MessageStatus.FAILED);
+                            message.setErrorMessage("User unsubscribed from WhatsApp notifications");
+                            statuses.record(message);
+                            statuses.log(notificationLog(announcement, message, "WHATSAPP"));
+                            totalFailed++;
+                            continue;
+                        }
 
-            for (RecipientMessage message : batch) {
-                try {
-                    String userPhone = resolveUserPhone(message.getUserId());
+                        if (userPhone == null) {
+                            message.setMediumType(MediumType.WHATSAPP);
+                            message.setStatus(MessageStatus.FAILED);
+                            message.setErrorMessage("User phone not found");
+                            statuses.record(message);
+                            statuses.log(notificationLog(announcement, message, "WHATSAPP"));
+                            totalFailed++;
+                            continue;
+                        }
 
-                    // Check unsubscribe
-                    if (userAnnouncementPreferenceService.isWhatsAppUnsubscribed(
-                            message.getUserId(), announcement.getInstituteId(), userPhone)) {
-                        message.setMediumType(MediumType.WHATSAPP);
-                        message.setStatus(MessageStatus.FAILED);
-                        message.setErrorMessage("User unsubscribed from WhatsApp notifications");
-                        recipientMessageRepository.save(message);
-                        createNotificationLog(announcement, message, "WHATSAPP", "FAILED", message.getErrorMessage());
-                        totalFailed++;
-                        continue;
-                    }
+                        Map<String, String> userSpecificValues = prepareDynamicValues(
+                                dynamicValues, message, announcement, content,
+                                cachedUser, userPhone);
+
+                        recipients.add(UnifiedSendRequest.Recipient.builder()
+                                .phone(userPhone)
+                                .userId(message.getUserId())
+                                .variables(userSpecificValues)
+                                .build());
+                        messageByPhone.put(userPhone.replaceAll("[^0-9]", ""), message);
 
-                    if (userPhone == null) {
                         message.setMediumType(MediumType.WHATSAPP);
+                        message.setSentAt(LocalDateTime.now());
+
+                    } catch (Exception e) {
+                        log.error("Error preparing WhatsApp for message {}: {}", message.getId(), e.getMessage());
                         message.setStatus(MessageStatus.FAILED);
-                        message.setErrorMessage("User phone not found");
-                        recipientMessageRepository.save(message);
-                        createNotificationLog(announcement, message, "WHATSAPP", "FAILED", "User phone not found");
+                        message.setErrorMessage(e.getMessage());
+                        statuses.record(message);
                         totalFailed++;
-                        continue;
                     }
-
-                    Map<String, String> userSpecificValues = prepareDynamicValues(
-                            dynamicValues, message, announcement, content,
-                            userCache.get(message.getUserId()), userPhone);
-
-                    recipients.add(UnifiedSendRequest.Recipient.builder()
-                            .phone(userPhone)
-                            .userId(message.getUserId())
-                            .variables(userSpecificValues)
-                            .build());
-                    messageByPhone.put(userPhone.replaceAll("[^0-9]", ""), message);
-
-                    message.setMediumType(MediumType.WHATSAPP);
-                    message.setSentAt(LocalDateTime.now());
-
-                } catch (Exception e) {
-                    log.error("Error preparing WhatsApp for message {}: {}", message.getId(), e.getMessage());
-                    message.setStatus(MessageStatus.FAILED);
-                    message.setErrorMessage(e.getMessage());
-                    recipientMessageRepository.save(message);
-                    totalFailed++;
                 }
-            }
 
-            // Send batch via unified send
-            if (!recipients.isEmpty()) {
-                try {
-                    UnifiedSendResponse response = unifiedSendService.send(UnifiedSendRequest.builder()
-                            .instituteId(instituteId)
-                            .channel("WHATSAPP")
-                            .templateName(templateName)
-                            .languageCode(languageCode)
-                            .recipients(recipients)
-                            .options(UnifiedSendRequest.SendOptions.builder()
-                                    .headerType(headerType)
-                                    .headerUrl(headerUrl)
-                                    .source("announcement-service")
-                                    .sourceId(announcement.getId())
-                                    .build())
-                            .build());
-
-                    // Update message statuses from response
-                    if (response.getResults() != null) {
-                        for (UnifiedSendResponse.RecipientResult result : response.getResults()) {
-                            String normalizedPhone = result.getPhone() != null
-                                    ? result.getPhone().replaceAll("[^0-9]", "") : "";
-                            RecipientMessage msg = messageByPhone.get(normalizedPhone);
-                            if (msg != null) {
-                                if (result.isSuccess()) {
-                                    msg.setStatus(MessageStatus.DELIVERED);
-                                    msg.setDeliveredAt(LocalDateTime.now());
-                                    createNotificationLog(announcement, msg, "WHATSAPP", "SUCCESS", null);
-                                    totalSuccess++;
-                                } else {
-                                    msg.setStatus(MessageStatus.FAILED);
-                                    msg.setErrorMessage(result.getError());
-                                    createNotificationLog(announcement, msg, "WHATSAPP", "FAILED", result.getError());
-                                    totalFailed++;
+                // Send batch via unified send
+                if (!recipients.isEmpty()) {
+                    try {
+                        UnifiedSendResponse response = unifiedSendService.send(UnifiedSendRequest.builder()
+                                .instituteId(instituteId)
+                                .channel("WHATSAPP")
+                                .templateName(templateName)
+                                .languageCode(languageCode)
+                                .recipients(recipients)
+                                .options(UnifiedSendRequest.SendOptions.builder()
+                                        .headerType(headerType)
+                                        .headerUrl(headerUrl)
+                                        .source("announcement-service")
+                                        .sourceId(announcement.getId())
+                                        .build())
+                                .build());
+
+                        // Update message statuses from response
+                        if (response.getResults() != null) {
+                            for (UnifiedSendResponse.RecipientResult result : response.getResults()) {
+                                String normalizedPhone = result.getPhone() != null
+                                        ? result.getPhone().replaceAll("[^0-9]", "") : "";
+                                RecipientMessage msg = messageByPhone.get(normalizedPhone);
+                                if (msg != null) {
+                                    if (result.isSuccess()) {
+                                        msg.setStatus(MessageStatus.DELIVERED);
+                                        msg.setDeliveredAt(LocalDateTime.now());
+                                        totalSuccess++;
+                                    } else {
+                                        msg.setStatus(MessageStatus.FAILED);
+                                        msg.setErrorMessage(result.getError());
+                                        totalFailed++;
+                                    }
+                                    statuses.record(msg);
+                                    statuses.log(notificationLog(announcement, msg, "WHATSAPP"));
                                 }
-                                recipientMessageRepository.save(msg);
                             }
                         }
-                    }
-                } catch (Exception e) {
-                    log.error("Batch WhatsApp send failed for announcement {}: {}", announcement.getId(), e.getMessage());
-                    for (RecipientMessage msg : messageByPhone.values()) {
-                        msg.setStatus(MessageStatus.FAILED);
-                        msg.setErrorMessage("Batch send failed: " + e.getMessage());
-                        recipientMessageRepository.save(msg);
-                        totalFailed++;
+                    } catch (Exception e) {
+                        log.error("Batch WhatsApp send failed for announcement {}: {}", announcement.getId(), e.getMessage());
+                        for (RecipientMessage msg : messageByPhone.values()) {
+                            msg.setStatus(MessageStatus.FAILED);
+                            msg.setErrorMessage("Batch send failed: " + e.getMessage());
+                            statuses.record(msg);
+                            totalFailed++;
+                        }
                     }
                 }
-            }
 
-            log.info("WhatsApp batch {} completed for announcement {}: {} success, {} failed",
-                    pageNumber + 1, announcement.getId(), totalSuccess, totalFailed);
-            pageNumber++;
+                // Persist this page in the background while the next one is sent
+                statuses.flushAsync();
 
-        } while (page.hasNext());
+                log.info("WhatsApp batch {} completed for announcement {}: {} success, {} failed",
+                        pageNumber + 1, announcement.getId(), totalSuccess, totalFailed);
+                pageNumber++;
+                if (!hasMore) break;
+            }
+        }
 
         log.info("WhatsApp delivery completed for announcement {}: {} success, {} failed out of {}",
                 announcement.getId(), totalSuccess, totalFailed, totalRecipients);
@@ -561,6 +576,7 @@ public class AnnouncementDeliveryService {
         customData.put("announcement_id", announcement.getId());
         customData.put("type", "announcement");
         
+        try (RecipientStatusWriter.Run statuses = statusWriter.open(announcement.getId())) {
         for (RecipientMessage message : pendingMessages) {
             if (message.getMediumType() != null && message.getMediumType() != MediumType.PUSH_NOTIFICATION) continue; // skip others
             try {
@@ -575,22 +591,53 @@ public class AnnouncementDeliveryService {
                 message.setStatus(MessageStatus.DELIVERED);
                 message.setDeliveredAt(LocalDateTime.now());
                 
-                createNotificationLog(announcement, message, "PUSH_NOTIFICATION", "SUCCESS", null);
-                recipientMessageRepository.save(message);
+                statuses.log(notificationLog(announcement, message, "PUSH_NOTIFICATION"));
+                statuses.record(message);
                 
             } catch (Exception e) {
                 log.error("Error sending push notification for message: {}", message.getId(), e);
                 message.setStatus(MessageStatus.FAILED);
                 message.setErrorMessage(e.getMessage());
-                recipientMessageRepository.save(message);
-                createNotificationLog(announcement, message, "PUSH_NOTIFICATION", "FAILED", e.getMessage());
+                statuses.record(message);
+                statuses.log(notificationLog(announcement, message, "PUSH_NOTIFICATION"));
+            }
+            if (statuses.buffered() >= deliveryBatchSize) {
+                statuses.flushAsync();
             }
         }
+        }
     }
 
     // Helper methods
-    private void createNotificationLog(Announcement announcement, RecipientMessage message, 
-                                     String notificationType, String status, String errorMessage) {
+
+    /** Recipients of one delivery page with their users (and passwords, when needed) resolved. */
+    private record PreparedPage(List<RecipientMessage> messages, Map<String, User> users,
+                                Map<String, String> passwords) {
+    }
+
+    /**
+     * Fetches the page of PENDING messages after {@code afterId} and resolves its users on the
+     * pipeline executor, so it is ready by the time the current page has been sent.
+     */
+    private CompletableFuture<PreparedPage> prefetchPage(String announcementId, MediumType mediumType,
+                                                         String afterId, boolean needsPasswords) {
+        return CompletableFuture.supplyAsync(() -> {
+            List<RecipientMessage> messages = recipientMessageRepository
+                    .findByAnnouncementIdAndStatusAndMediumTypeAndIdGreaterThanOrderByIdAsc(
+                            announcementId, MessageStatus.PENDING, mediumType, afterId,
+                            PageRequest.of(0, deliveryBatchSize));
+            if (messages.isEmpty()) {
+                return new PreparedPage(messages, Map.of(), Map.of());
+            }
+            // Batch resolve users for this page only (not all users at once)
+            List<String> userIds = messages.stream().map(RecipientMessage::getUserId).distinct().toList();
+            return new PreparedPage(messages, batchResolveUsers(userIds),
+                    needsPasswords ? batchResolvePasswords(userIds) : Map.of());
+        }, pipelineExecutor);
+    }
+
+    private NotificationLog notificationLog(Announcement announcement, RecipientMessage message,
+                                            String notificationType) {
         NotificationLog log = new NotificationLog();
         log.setNotificationType(notificationType);
         log.setChannelId(message.getUserId()); // This will be updated to email address
@@ -600,42 +647,30 @@ public class AnnouncementDeliveryService {
         log.setUserId(message.getUserId());
         log.setInstituteId(announcement.getInstituteId());
         log.setNotificationDate(Instant.now());
-
-        notificationLogRepository.save(log);
+        return log;
     }
     
     // Enhanced method for email-specific logging
-    private void createEmailNotificationLog(Announcement announcement, RecipientMessage message,
-                                          String userEmail, String status, String errorMessage, String fromAddress) {
-        try {
-            NotificationLog notificationLog = new NotificationLog();
-            notificationLog.setNotificationType("EMAIL");
-            notificationLog.setChannelId(userEmail); // Use email address as channelId for email tracking
-            notificationLog.setBody(announcement.getTitle());
-            notificationLog.setSource("announcement-service");
-            notificationLog.setSourceId(announcement.getId());
-            notificationLog.setUserId(message.getUserId()); // Keep user ID for reference
-            // Institute-side address (the sender). Lets us scope inbox/stats by institute
-            // via the institute's configured from-addresses. Normalize "Display Name <email>" → email
-            // so it matches the list from EmailConfigurationService.getInstituteConfiguredFromAddresses.
-            String normalizedFrom = EmailService.normalizeFromAddress(fromAddress);
-            if (normalizedFrom != null) {
-                notificationLog.setSenderBusinessChannelId(normalizedFrom);
-            }
-            notificationLog.setInstituteId(announcement.getInstituteId());
-            notificationLog.setNotificationDate(Instant.now());
-
-            log.info("Saving EMAIL notification log: sourceId={}, channelId={}, userId={}",
-                notificationLog.getSourceId(), notificationLog.getChannelId(), notificationLog.getUserId());
-
-            notificationLogRepository.save(notificationLog);
-
-            log.info("Successfully saved EMAIL notification log with ID: {}", notificationLog.getId());
-        } catch (Exception e) {
-            log.error("Failed to create EMAIL notification log for announcement: {}, user: {}, email: {}",
-                announcement.getId(), message.getUserId(), userEmail, e);
-            throw e; // Re-throw to be caught by the calling method
+    private NotificationLog emailNotificationLog(Announcement announcement, RecipientMessage message,
+                                                 String userEmail, String fromAddress) {
+        NotificationLog notificationLog = new NotificationLog();
+        notificationLog.setNotificationType("EMAIL");
+        notificationLog.setChannelId(userEmail); // Use email address as channelId for email tracking
+        notificationLog.setBody(announcement.getTitle());
+        notificationLog.setSource("announcement-service");
+        notificationLog.setSourceId(announcement.getId());
+        notificationLog.setUserId(message.getUserId()); // Keep user ID for reference
+        // Institute-side address (the sender). Lets us scope inbox/stats by institute
+        // via the institute's configured from-addresses. Normalize "Display Name <email>" → email
+        // so it matches the list from EmailConfigurationService.getInstituteConfiguredFromAddresses.
+        String normalizedFrom = EmailService.normalizeFromAddress(fromAddress);
+        if (normalizedFrom != null) {
+            notificationLog.setSenderBusinessChannelId(normalizedFrom);
         }
+        notificationLog.setInstituteId(announcement.getInstituteId());
+        notificationLog.setNotificationDate(Instant.now());
+
+        return notificationLog;
     }
 
     private String resolveUserPhone(String userId) {
@@ -0,0 +1,187 @@
+package vacademy.io.notification_service.features.announcements.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import vacademy.io.notification_service.features.announcements.entity.RecipientMessage;
+import vacademy.io.notification_service.features.announcements.enums.MediumType;
+import vacademy.io.notification_service.features.announcements.enums.MessageStatus;
+import vacademy.io.notification_service.features.notification_log.entity.NotificationLog;
+import vacademy.io.notification_service.features.notification_log.repository.NotificationLogRepository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Batched persistence of recipient-message status transitions and their notification_log rows
+ * for announcement delivery. Senders {@link Run#record} transitions and {@link Run#log} rows as
+ * they go; {@link Run#flushAsync} hands everything buffered to a writer thread, which writes the
+ * transitions as one JDBC batch UPDATE and the logs with one {@code saveAll}. A 40k-recipient
+ * announcement thus costs a few hundred round trips instead of tens of thousands of single-row
+ * merges (each a SELECT plus an UPDATE, since the paged entities are detached).
+ *
+ * <p>Each run keeps at most one flush in flight, so writes stay in order and memory stays bounded
+ * to two pages. A failed batch is retried row by row so one bad row can't lose the rest.
+ */
+@Slf4j
+@Component
+public class RecipientStatusWriter {
+
+    private static final String UPDATE_SQL = "UPDATE recipient_messages SET status = ?, medium_type = ?, "
+            + "error_message = ?, sent_at = ?, delivered_at = ?, updated_at = ? WHERE id = ?";
+
+    /** Snapshot of the fields delivery changes on a recipient message. */
+    record Transition(String id, MessageStatus status, MediumType mediumType, String errorMessage,
+                      LocalDateTime sentAt, LocalDateTime deliveredAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NotificationLogRepository notificationLogRepository;
+    private final Executor executor;
+    private final int jdbcBatchSize;
+
+    private final Counter transitionsWritten;
+    private final Counter logsWritten;
+    private final Counter writeFailures;
+    private final Timer flushTimer;
+
+    public RecipientStatusWriter(JdbcTemplate jdbcTemplate,
+                                 NotificationLogRepository notificationLogRepository,
+                                 @Qualifier("announcementPipelineExecutor") Executor executor,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${announcement.delivery.status.jdbc-batch-size:500}") int jdbcBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.notificationLogRepository = notificationLogRepository;
+        this.executor = executor;
+        this.jdbcBatchSize = Math.max(1, jdbcBatchSize);
+        this.transitionsWritten = Counter.builder("announcement.delivery.status.written")
+                .description("Recipient message status transitions persisted").register(meterRegistry);
+        this.logsWritten = Counter.builder("announcement.delivery.logs.written")
+                .description("Notification log rows persisted by announcement delivery").register(meterRegistry);
+        this.writeFailures = Counter.builder("announcement.delivery.status.failed")
+                .description("Status transitions or log rows that could not be persisted").register(meterRegistry);
+        this.flushTimer = Timer.builder("announcement.delivery.status.flush")
+                .description("Time to persist one buffered page of transitions and logs").register(meterRegistry);
+    }
+
+    /** Starts a buffer for one delivery; close it (try-with-resources) to flush the remainder. */
+    public Run open(String announcementId) {
+        return new Run(announcementId);
+    }
+
+    /** Per-delivery buffer. Not thread-safe: owned by the delivering thread. */
+    public final class Run implements AutoCloseable {
+
+        private final String announcementId;
+        private List<Transition> transitions = new ArrayList<>();
+        private List<NotificationLog> logs = new ArrayList<>();
+        private CompletableFuture<Void> inFlight = CompletableFuture.completedFuture(null);
+
+        private Run(String announcementId) {
+            this.announcementId = announcementId;
+        }
+
+        /** Buffers the message's current status fields; later records of the same id win. */
+        public void record(RecipientMessage message) {
+            transitions.add(new Transition(message.getId(), message.getStatus(), message.getMediumType(),
+                    message.getErrorMessage(), message.getSentAt(), message.getDeliveredAt()));
+        }
+
+        public void log(NotificationLog notificationLog) {
+            logs.add(notificationLog);
+        }
+
+        public int buffered() {
+            return transitions.size() + logs.size();
+        }
+
+        /**
+         * Hands the buffer to the writer thread and returns straight away, after waiting for the
+         * previous flush of this run (at most one in flight).
+         */
+        public void flushAsync() {
+            if (transitions.isEmpty() && logs.isEmpty()) {
+                return;
+            }
+            List<Transition> pendingTransitions = transitions;
+            List<NotificationLog> pendingLogs = logs;
+            transitions = new ArrayList<>();
+            logs = new ArrayList<>();
+            inFlight.join();
+            inFlight = CompletableFuture.runAsync(() -> write(announcementId, pendingTransitions, pendingLogs), executor);
+        }
+
+        /** Flushes what is left and waits until everything of this run is persisted. */
+        @Override
+        public void close() {
+            flushAsync();
+            inFlight.join();
+        }
+    }
+
+    private void write(String announcementId, List<Transition> transitions, List<NotificationLog> logs) {
+        flushTimer.record(() -> {
+            writeTransitions(announcementId, transitions);
+            writeLogs(announcementId, logs);
+        });
+    }
+
+    private void writeTransitions(String announcementId, List<Transition> transitions) {
+        if (transitions.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, transitions, jdbcBatchSize, (ps, t) -> bind(ps, t, now));
+            transitionsWritten.increment(transitions.size());
+        } catch (Exception batchError) {
+            log.warn("Batch status update failed for announcement {} ({} rows), retrying row by row: {}",
+                    announcementId, transitions.size(), batchError.getMessage());
+            for (Transition t : transitions) {
+                try {
+                    jdbcTemplate.update(UPDATE_SQL, ps -> bind(ps, t, now));
+                    transitionsWritten.increment();
+                } catch (Exception e) {
+                    writeFailures.increment();
+                    log.error("Failed to persist status {} for recipient message {}: {}",
+                            t.status(), t.id(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void writeLogs(String announcementId, List<NotificationLog> logs) {
+        if (logs.isEmpty()) {
+            return;
+        }
+        try {
+            notificationLogRepository.saveAll(logs);
+            logsWritten.increment(logs.size());
+        } catch (Exception e) {
+            writeFailures.increment(logs.size());
+            log.error("Failed to save {} notification logs for announcement {}: {}",
+                    logs.size(), announcementId, e.getMessage(), e);
+        }
+    }
+
+    private static void bind(PreparedStatement ps, Transition t, Timestamp now) throws SQLException {
+        ps.setString(1, t.status() != null ? t.status().name() : MessageStatus.PENDING.name());
+        ps.setString(2, t.mediumType() != null ? t.mediumType().name() : null);
+        ps.setString(3, t.errorMessage());
+        ps.setTimestamp(4, t.sentAt() != null ? Timestamp.valueOf(t.sentAt()) : null);
+        ps.setTimestamp(5, t.deliveredAt() != null ? Timestamp.valueOf(t.deliveredAt()) : null);
+        ps.setTimestamp(6, now);
+        ps.setString(7, t.id());
+    }
+}
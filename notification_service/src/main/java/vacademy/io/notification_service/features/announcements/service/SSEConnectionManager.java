@@ -1,29 +1,68 @@
 package vacademy.io.notification_service.features.announcements.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import vacademy.io.notification_service.features.announcements.dto.AnnouncementEvent;
+import vacademy.io.notification_service.features.announcements.fanout.SseFanoutBus;
+import vacademy.io.notification_service.features.announcements.fanout.SseFanoutMessage;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Manages Server-Sent Events (SSE) connections for real-time notifications
+ * Manages Server-Sent Events (SSE) connections for real-time notifications.
+ *
+ * Connections are local to this replica, but sends are not: sendToUser / sendToUsers /
+ * broadcastToInstitute publish on the {@link SseFanoutBus}, and every replica delivers the
+ * message to the emitters it holds.
+ *
+ * Delivery never writes to a client on the sending thread. Each connection has a bounded
+ * {@link SseOutboundQueue}; a writer on {@code sseWriterExecutor} drains whatever has queued up and
+ * writes it in one flush, so one slow or half-dead client can't stall a community broadcast. A
+ * connection whose queue overflows is dropped or loses its oldest event, per
+ * {@code sse.outbound.overflow-policy}.
  */
 @Slf4j
 @Service
 public class SSEConnectionManager {
     
+    private final SseFanoutBus fanoutBus;
+    private final Executor writerExecutor;
+    private final Timer deliveryLagTimer;
+    private final DistributionSummary queueDepthSummary;
+    private final DistributionSummary flushSizeSummary;
+    private final Counter droppedCounter;
+    private final Counter slowDisconnectCounter;
+    
     @Value("${sse.timeout:300000}")
     private long sseTimeout;
     
     @Value("${sse.max.connections.per.user:5}")
     private int maxConnectionsPerUser;
     
+    @Value("${sse.event.queue.size:1000}")
+    private int outboundQueueCapacity;
+    
+    @Value("${sse.outbound.overflow-policy:DISCONNECT}")
+    private SseOutboundQueue.OverflowPolicy overflowPolicy;
+    
+    // Upper bound on events coalesced into one flush, so one backlog can't hog a writer
+    @Value("${sse.outbound.max-batch:64}")
+    private int maxEventsPerFlush;
+    
     // Store active connections per user
     private final Map<String, Set<SseEmitter>> userConnections = new ConcurrentHashMap<>();
     
@@ -33,6 +72,39 @@ public class SSEConnectionManager {
     // Store connections per institute for broadcast messages
     private final Map<String, Set<String>> instituteUsers = new ConcurrentHashMap<>();
     
+    public SSEConnectionManager(SseFanoutBus fanoutBus,
+                                @Qualifier("sseWriterExecutor") Executor writerExecutor,
+                                MeterRegistry meterRegistry) {
+        this.fanoutBus = fanoutBus;
+        this.writerExecutor = writerExecutor;
+        Tags replica = Tags.of("replica", fanoutBus.replicaId());
+        this.deliveryLagTimer = Timer.builder("sse.fanout.delivery.lag")
+                .description("Publish-to-local-delivery time of fan-out messages")
+                .tags(replica)
+                .register(meterRegistry);
+        meterRegistry.gauge("sse.connections", replica, connectionMetadata, Map::size);
+        meterRegistry.gauge("sse.connections.users", replica, userConnections, Map::size);
+        meterRegistry.gauge("sse.outbound.queued", replica, connectionMetadata,
+                m -> m.values().stream().mapToInt(c -> c.getOutbound().depth()).sum());
+        this.queueDepthSummary = DistributionSummary.builder("sse.outbound.queue.depth")
+                .description("Per-connection outbound queue depth, sampled at each drain")
+                .tags(replica)
+                .register(meterRegistry);
+        this.flushSizeSummary = DistributionSummary.builder("sse.outbound.flush.events")
+                .description("Events coalesced into one write")
+                .tags(replica)
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("sse.outbound.dropped")
+                .description("Events discarded from full queues (DROP_OLDEST)")
+                .tags(replica)
+                .register(meterRegistry);
+        this.slowDisconnectCounter = Counter.builder("sse.outbound.slow.disconnects")
+                .description("Connections closed because their queue overflowed (DISCONNECT)")
+                .tags(replica)
+                .register(meterRegistry);
+        fanoutBus.subscribe(this::deliverLocal);
+    }
+    
     /**
      * Create a new SSE connection for a user
      */
@@ -66,7 +138,8 @@ public class SSEConnectionManager {
         
         // Store connection
         userConnections.computeIfAbsent(userId, k -> new CopyOnWriteArraySet<>()).add(emitter);
-        connectionMetadata.put(emitter, new ConnectionMetadata(userId, instituteId));
+        connectionMetadata.put(emitter, new ConnectionMetadata(userId, instituteId,
+                new SseOutboundQueue(outboundQueueCapacity)));
         
         // Track institute users
         instituteUsers.computeIfAbsent(instituteId, k -> new CopyOnWriteArraySet<>()).add(userId);
@@ -89,53 +162,133 @@ public class SSEConnectionManager {
     }
     
     /**
-     * Send event to a specific user
+     * Send event to a specific user, on whichever replica holds their connections
      */
     public void sendToUser(String userId, AnnouncementEvent event) {
-        Set<SseEmitter> connections = userConnections.get(userId);
-        if (connections == null || connections.isEmpty()) {
-            log.debug("No active connections for user: {}", userId);
-            return;
-        }
-        
         log.debug("Sending event {} to user: {}", event.getType(), userId);
-        
-        // Send to all user's connections
-        Iterator<SseEmitter> iterator = connections.iterator();
-        while (iterator.hasNext()) {
-            SseEmitter emitter = iterator.next();
-            try {
-                // Apply per-connection subscription filter
-                ConnectionMetadata metadata = connectionMetadata.get(emitter);
-                if (metadata != null && !metadata.shouldSend(event)) {
+        fanoutBus.publish(SseFanoutMessage.toUsers(List.of(userId), event));
+    }
+
+    /**
+     * Delivers one bus batch to this replica's emitters. All events bound for the same emitter are
+     * collected first and written with one send, so a burst costs each client one flush.
+     */
+    private void deliverLocal(List<SseFanoutMessage> batch) {
+        long now = System.currentTimeMillis();
+        Map<SseEmitter, List<AnnouncementEvent>> outbound = new LinkedHashMap<>();
+        Map<SseEmitter, String> owners = new HashMap<>();
+
+        for (SseFanoutMessage message : batch) {
+            if (message.getOriginReplicaId() != null && message.getPublishedAtMillis() > 0) {
+                deliveryLagTimer.record(Math.max(0, now - message.getPublishedAtMillis()), TimeUnit.MILLISECONDS);
+            }
+            for (String userId : localRecipients(message)) {
+                Set<SseEmitter> connections = userConnections.get(userId);
+                if (connections == null) {
                     continue;
                 }
-                emitter.send(SseEmitter.event()
-                        .name(event.getType().toString())
-                        .id(event.getEventId())
-                        .data(event));
-                
-                // Update last activity
-                if (metadata != null) metadata.updateLastActivity();
+                for (SseEmitter emitter : connections) {
+                    // Apply per-connection subscription filter
+                    ConnectionMetadata metadata = connectionMetadata.get(emitter);
+                    if (metadata != null && !metadata.shouldSend(message.getEvent())) {
+                        continue;
+                    }
+                    outbound.computeIfAbsent(emitter, k -> new ArrayList<>(1)).add(message.getEvent());
+                    owners.put(emitter, userId);
+                }
+            }
+        }
+
+        outbound.forEach((emitter, events) -> writeEvents(owners.get(emitter), emitter, events));
+    }
+
+    private Collection<String> localRecipients(SseFanoutMessage message) {
+        if (message.getTarget() == SseFanoutMessage.Target.INSTITUTE) {
+            Set<String> users = instituteUsers.get(message.getInstituteId());
+            if (users == null || users.isEmpty()) {
+                log.debug("No active users for institute: {}", message.getInstituteId());
+                return List.of();
+            }
+            return users;
+        }
+        return message.getUserIds() != null ? message.getUserIds() : List.of();
+    }
 
-            } catch (Exception e) {
-                // Routine churn: a dead/closed emitter throws here — IOException on a broken pipe, OR
-                // IllegalStateException("ResponseBodyEmitter has already completed", a RuntimeException
-                // with a frequently-null message) for a stale/timed-out connection. Catch BOTH (not
-                // just IOException): an uncaught RuntimeException here would propagate out of
-                // broadcastToInstitute, abort delivery to every remaining user in the loop, and trip
-                // the *Manager tracing aspect into an ERROR Sentry event. Drop this one emitter and
-                // continue; debug-level since a disconnected client is expected, not an error.
-                log.debug("Dropping unsendable SSE connection for user {}: {}", userId, e.toString());
-                iterator.remove();
-                connectionMetadata.remove(emitter);
+    /** Queues the events on the connection and makes sure a writer will drain them. */
+    private void writeEvents(String userId, SseEmitter emitter, List<AnnouncementEvent> events) {
+        ConnectionMetadata metadata = connectionMetadata.get(emitter);
+        if (metadata == null) {
+            return;
+        }
+        SseOutboundQueue outbound = metadata.getOutbound();
+        for (AnnouncementEvent event : events) {
+            switch (outbound.offer(toSseEvent(event).build(), overflowPolicy)) {
+                case DROPPED_OLDEST -> droppedCounter.increment();
+                case OVERFLOWED -> {
+                    slowDisconnectCounter.increment();
+                    log.info("Disconnecting slow SSE consumer for user {}: {} events queued",
+                            userId, outboundQueueCapacity);
+                    removeConnection(userId, emitter);
+                    // complete() waits on the emitter's lock, which a blocked write may hold.
+                    writerExecutor.execute(emitter::complete);
+                    return;
+                }
+                case CLOSED -> {
+                    return;
+                }
+                default -> {
+                }
             }
         }
+        if (outbound.trySchedule()) {
+            writerExecutor.execute(() -> drain(userId, emitter, metadata));
+        }
+    }
+
+    /**
+     * Writer side: everything queued on the connection (up to {@code maxEventsPerFlush}) goes out
+     * as one send, i.e. one flush. Reschedules rather than looping so connections share writers.
+     */
+    private void drain(String userId, SseEmitter emitter, ConnectionMetadata metadata) {
+        SseOutboundQueue outbound = metadata.getOutbound();
+        queueDepthSummary.record(outbound.depth());
+        List<Set<ResponseBodyEmitter.DataWithMediaType>> batch = outbound.take(maxEventsPerFlush);
+        try {
+            if (!batch.isEmpty()) {
+                Set<ResponseBodyEmitter.DataWithMediaType> items = new LinkedHashSet<>();
+                batch.forEach(items::addAll);
+                emitter.send(items);
+                flushSizeSummary.record(batch.size());
+
+                // Update last activity
+                metadata.updateLastActivity();
+            }
+        } catch (Exception e) {
+            // Routine churn: a dead/closed emitter throws here — IOException on a broken pipe, OR
+            // IllegalStateException("ResponseBodyEmitter has already completed", a RuntimeException
+            // with a frequently-null message) for a stale/timed-out connection. Catch BOTH (not
+            // just IOException) so the *Manager tracing aspect doesn't turn it into an ERROR
+            // Sentry event. Drop this one connection; debug-level since a disconnected client is
+            // expected, not an error.
+            log.debug("Dropping unsendable SSE connection for user {}: {}", userId, e.toString());
+            removeConnection(userId, emitter);
+        }
+        if (outbound.finishDrain()) {
+            writerExecutor.execute(() -> drain(userId, emitter, metadata));
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder toSseEvent(AnnouncementEvent event) {
+        return SseEmitter.event()
+                .name(event.getType().toString())
+                .id(event.getEventId())
+                .data(event);
     }
 
     /**
      * Whether the user currently has at least one live SSE connection. Read-only; used to decide
-     * whether a chat message needs an offline push fallback.
+     * whether a chat message needs an offline push fallback. Only sees this replica's connections,
+     * so with a cross-replica bus it errs towards sending a push the user may not need.
      */
     public boolean isUserOnline(String userId) {
         Set<SseEmitter> connections = userConnections.get(userId);
@@ -163,29 +316,25 @@ public class SSEConnectionManager {
      */
     public void sendToUsers(List<String> userIds, AnnouncementEvent event) {
         log.debug("Sending event {} to {} users", event.getType(), userIds.size());
-        userIds.forEach(userId -> sendToUser(userId, event));
+        fanoutBus.publish(SseFanoutMessage.toUsers(new ArrayList<>(userIds), event));
     }
     
     /**
      * Broadcast event to all users in an institute
      */
     public void broadcastToInstitute(String instituteId, AnnouncementEvent event) {
-        Set<String> users = instituteUsers.get(instituteId);
-        if (users == null || users.isEmpty()) {
-            log.debug("No active users for institute: {}", instituteId);
-            return;
-        }
-        
-        log.debug("Broadcasting event {} to institute: {} ({} users)", 
-                event.getType(), instituteId, users.size());
-        
-        users.forEach(userId -> sendToUser(userId, event));
+        log.debug("Broadcasting event {} to institute: {}", event.getType(), instituteId);
+        fanoutBus.publish(SseFanoutMessage.toInstitute(instituteId, event));
     }
     
     /**
      * Remove a specific connection
      */
     private void removeConnection(String userId, SseEmitter emitter) {
+        ConnectionMetadata removed = connectionMetadata.get(emitter);
+        if (removed != null) {
+            removed.getOutbound().close();
+        }
         Set<SseEmitter> connections = userConnections.get(userId);
         if (connections != null) {
             connections.remove(emitter);
@@ -239,7 +388,8 @@ public class SSEConnectionManager {
     }
     
     /**
-     * Send heartbeat to all active connections
+     * Send heartbeat to all active connections of this replica (not via the bus: every replica
+     * runs its own heartbeat)
      */
     @Scheduled(fixedRateString = "${sse.heartbeat.interval:30000}")
     public void sendHeartbeat() {
@@ -250,9 +400,11 @@ public class SSEConnectionManager {
         log.debug("Sending heartbeat to {} users", userConnections.size());
         AnnouncementEvent heartbeat = AnnouncementEvent.heartbeat();
         
-        userConnections.forEach((userId, connections) -> {
-            sendToUser(userId, heartbeat);
-        });
+        deliverLocal(List.of(SseFanoutMessage.builder()
+                .target(SseFanoutMessage.Target.USERS)
+                .userIds(new ArrayList<>(userConnections.keySet()))
+                .event(heartbeat)
+                .build()));
     }
     
     /**
@@ -299,12 +451,14 @@ public class SSEConnectionManager {
         private final String userId;
         private final String instituteId;
         private final long createdAt;
-        private long lastActivity;
+        private final SseOutboundQueue outbound;
+        private volatile long lastActivity;
         private Set<String> subscribedModes; // Optional mode subscriptions
         
-        public ConnectionMetadata(String userId, String instituteId) {
+        public ConnectionMetadata(String userId, String instituteId, SseOutboundQueue outbound) {
             this.userId = userId;
             this.instituteId = instituteId;
+            this.outbound = outbound;
             this.createdAt = System.currentTimeMillis();
             this.lastActivity = this.createdAt;
             this.subscribedModes = new HashSet<>();
@@ -329,6 +483,7 @@ public class SSEConnectionManager {
         public String getInstituteId() { return instituteId; }
         public long getCreatedAt() { return createdAt; }
         public long getLastActivity() { return lastActivity; }
+        public SseOutboundQueue getOutbound() { return outbound; }
     }
     
     /**
@@ -0,0 +1,94 @@
+package vacademy.io.notification_service.features.announcements.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bounded outbound buffer of one SSE connection. Senders only {@link #offer}; a writer thread
+ * later takes everything queued and writes it in one flush. A slow client therefore backs up its
+ * own queue instead of the thread that is fanning out to everyone else.
+ *
+ * <p>{@code scheduled} guarantees at most one drain task per connection is queued or running, so
+ * events keep their order and the writer pool holds at most one task per connection.
+ */
+final class SseOutboundQueue {
+
+    enum OverflowPolicy {
+        /** Discard the oldest queued event to make room (client misses it silently). */
+        DROP_OLDEST,
+        /** Close the connection; the client reconnects and catches up over REST. */
+        DISCONNECT
+    }
+
+    enum Offer { QUEUED, DROPPED_OLDEST, OVERFLOWED, CLOSED }
+
+    private final Deque<Set<ResponseBodyEmitter.DataWithMediaType>> pending = new ArrayDeque<>();
+    private final int capacity;
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    private boolean closed;
+
+    SseOutboundQueue(int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    synchronized Offer offer(Set<ResponseBodyEmitter.DataWithMediaType> event, OverflowPolicy policy) {
+        if (closed) {
+            return Offer.CLOSED;
+        }
+        if (pending.size() < capacity) {
+            pending.addLast(event);
+            return Offer.QUEUED;
+        }
+        if (policy == OverflowPolicy.DROP_OLDEST) {
+            pending.pollFirst();
+            pending.addLast(event);
+            return Offer.DROPPED_OLDEST;
+        }
+        close();
+        return Offer.OVERFLOWED;
+    }
+
+    /** True if the caller won the right to submit the drain task. */
+    boolean trySchedule() {
+        return scheduled.compareAndSet(false, true);
+    }
+
+    /** Removes and returns up to {@code max} queued events, oldest first. */
+    synchronized List<Set<ResponseBodyEmitter.DataWithMediaType>> take(int max) {
+        int n = Math.min(max, pending.size());
+        List<Set<ResponseBodyEmitter.DataWithMediaType>> batch = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            batch.add(pending.pollFirst());
+        }
+        return batch;
+    }
+
+    /**
+     * Ends a drain. Returns true if events arrived meanwhile and the caller has re-acquired the
+     * schedule and must submit another drain; checking after the reset closes the lost-wakeup gap.
+     */
+    boolean finishDrain() {
+        scheduled.set(false);
+        synchronized (this) {
+            if (closed || pending.isEmpty()) {
+                return false;
+            }
+        }
+        return trySchedule();
+    }
+
+    synchronized void close() {
+        closed = true;
+        pending.clear();
+    }
+
+    synchronized int depth() {
+        return pending.size();
+    }
+}
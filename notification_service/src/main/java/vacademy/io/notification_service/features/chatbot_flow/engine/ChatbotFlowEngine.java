@@ -7,10 +7,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import vacademy.io.notification_service.features.chatbot_flow.entity.*;
-import vacademy.io.notification_service.features.chatbot_flow.enums.ChatbotFlowStatus;
 import vacademy.io.notification_service.features.chatbot_flow.enums.ChatbotNodeType;
 import vacademy.io.notification_service.features.chatbot_flow.enums.ChatbotSessionStatus;
-import vacademy.io.notification_service.features.chatbot_flow.repository.*;
+import vacademy.io.notification_service.features.chatbot_flow.repository.ChatbotDelayTaskRepository;
+import vacademy.io.notification_service.features.chatbot_flow.repository.ChatbotFlowSessionRepository;
 import vacademy.io.notification_service.features.chatbot_flow.service.UserLookupService;
 import vacademy.io.notification_service.features.notification_log.entity.NotificationLog;
 import vacademy.io.notification_service.features.notification_log.repository.NotificationLogRepository;
@@ -27,9 +27,7 @@ public class ChatbotFlowEngine {
 
     private static final int MAX_TRAVERSAL_DEPTH = 50;
 
-    private final ChatbotFlowRepository flowRepository;
-    private final ChatbotFlowNodeRepository nodeRepository;
-    private final ChatbotFlowEdgeRepository edgeRepository;
+    private final ChatbotFlowGraphCache graphCache;
     private final ChatbotFlowSessionRepository sessionRepository;
     private final ChatbotDelayTaskRepository delayTaskRepository;
     private final NotificationLogRepository notificationLogRepository;
@@ -63,7 +61,7 @@ public class ChatbotFlowEngine {
 
                 // Check if current node is a CONDITION or AI_RESPONSE (waiting for input)
                 ChatbotFlowNode currentNode = session.getCurrentNodeId() != null
-                        ? nodeRepository.findById(session.getCurrentNodeId()).orElse(null) : null;
+                        ? graphCache.node(session.getFlowId(), session.getCurrentNodeId()) : null;
                 boolean isWaitingNode = currentNode != null && (
                         ChatbotNodeType.CONDITION.name().equals(currentNode.getNodeType())
                         || ChatbotNodeType.AI_RESPONSE.name().equals(currentNode.getNodeType()));
@@ -158,79 +156,20 @@ public class ChatbotFlowEngine {
                 }
             }
 
-            // 2. No active session — check if any ACTIVE flow has a matching trigger
-            // Search across all WhatsApp channel types for this institute:
-            // exact match first, then generic "WHATSAPP", then other WA variants
-            List<ChatbotFlow> activeFlows = new ArrayList<>(flowRepository
-                    .findByInstituteIdAndChannelTypeAndStatus(instituteId, channelType,
-                            ChatbotFlowStatus.ACTIVE.name()));
-
-            // Also check flows with generic "WHATSAPP" channel type
-            if (!channelType.equals("WHATSAPP")) {
-                activeFlows.addAll(flowRepository.findByInstituteIdAndChannelTypeAndStatus(
-                        instituteId, "WHATSAPP", ChatbotFlowStatus.ACTIVE.name()));
-            }
-
-            // Cross-provider fallback: a flow built for WATI should also fire for META and vice versa
-            // (the flow logic is provider-agnostic, only the send mechanism differs)
-            for (String fallbackType : List.of("WHATSAPP_META", "WHATSAPP_WATI", "WHATSAPP_COMBOT")) {
-                if (!fallbackType.equals(channelType)) {
-                    activeFlows.addAll(flowRepository.findByInstituteIdAndChannelTypeAndStatus(
-                            instituteId, fallbackType, ChatbotFlowStatus.ACTIVE.name()));
-                }
-            }
-
-            // Deduplicate by flow ID (in case same flow was found through multiple channel type queries)
-            Set<String> seenFlowIds = new HashSet<>();
-            activeFlows.removeIf(f -> !seenFlowIds.add(f.getId()));
-
-            log.info("Found {} active flows for institute={}, channelType={}", activeFlows.size(), instituteId, channelType);
-
-            // Collect all matching triggers with their priority, then pick the highest
-            record MatchedTrigger(ChatbotFlow flow, ChatbotFlowNode triggerNode, int priority,
-                                  boolean isSpecific) {}
-            List<MatchedTrigger> matchedTriggers = new ArrayList<>();
-
-            for (ChatbotFlow flow : activeFlows) {
-                List<ChatbotFlowNode> triggerNodes = nodeRepository
-                        .findByFlowIdAndNodeType(flow.getId(), ChatbotNodeType.TRIGGER.name());
-
-                for (ChatbotFlowNode triggerNode : triggerNodes) {
-                    ChatbotNodeExecutor executor = findExecutor(triggerNode.getNodeType());
-                    if (executor == null) continue;
-
-                    FlowExecutionContext context = buildContext(instituteId, channelType, userPhone,
-                            userText, businessChannelId, messageType, buttonId, buttonPayload,
-                            listReplyId, null);
-
-                    NodeExecutionResult result = executor.execute(triggerNode, null, userText, context);
-                    if (result.isSuccess()) {
-                        Map<String, Object> triggerConfig = parseJson(triggerNode.getConfig());
-                        int priority = 0;
-                        boolean isSpecific = false;
-                        if (triggerConfig != null) {
-                            Object p = triggerConfig.get("priority");
-                            if (p instanceof Number) priority = ((Number) p).intValue();
-                            // A trigger with actual keywords is "specific"; one without is catch-all
-                            Object keywords = triggerConfig.get("keywords");
-                            isSpecific = keywords instanceof List && !((List<?>) keywords).isEmpty();
-                        }
-                        matchedTriggers.add(new MatchedTrigger(flow, triggerNode, priority, isSpecific));
-                    }
-                }
-            }
-
-            if (!matchedTriggers.isEmpty()) {
-                // Sort: specific triggers first, then by priority descending
-                matchedTriggers.sort((a, b) -> {
-                    if (a.isSpecific() != b.isSpecific()) return a.isSpecific() ? -1 : 1;
-                    return Integer.compare(b.priority(), a.priority());
-                });
-
-                MatchedTrigger best = matchedTriggers.get(0);
+            // 2. No active session — check if any ACTIVE flow has a matching trigger.
+            // The cached routes cover every WhatsApp channel type for this institute (exact
+            // match first, then generic "WHATSAPP", then other WA variants), pre-ranked so the
+            // first matching trigger is the best one.
+            FlowExecutionContext triggerContext = buildContext(instituteId, channelType, userPhone,
+                    userText, businessChannelId, messageType, buttonId, buttonPayload,
+                    listReplyId, null);
+            ChatbotFlowGraphCache.RankedTrigger best = graphCache.bestTrigger(instituteId, channelType,
+                    userText, triggerContext);
+
+            if (best != null) {
                 log.info("Trigger matched for flow: flowId={}, trigger={}, priority={}, specific={}",
-                        best.flow().getId(), best.triggerNode().getName(),
-                        best.priority(), best.isSpecific());
+                        best.flow().getFlowId(), best.node().getName(),
+                        best.matcher().getPriority(), best.matcher().isSpecific());
 
                 // Fetch user details once. Persist them into the new session's initial
                 // context JSON so subsequent turns hit the cache instead of re-fetching.
@@ -241,12 +180,12 @@ public class ChatbotFlowEngine {
                 }
 
                 ChatbotFlowSession session = ChatbotFlowSession.builder()
-                        .flowId(best.flow().getId())
+                        .flowId(best.flow().getFlowId())
                         .instituteId(instituteId)
                         .userPhone(userPhone)
                         .channelType(channelType)
                         .businessChannelId(businessChannelId)
-                        .currentNodeId(best.triggerNode().getId())
+                        .currentNodeId(best.node().getId())
                         .status(ChatbotSessionStatus.ACTIVE.name())
                         .context(toJson(initialSessionVars))
                         .lastActivityAt(new Timestamp(System.currentTimeMillis()))
@@ -268,7 +207,7 @@ public class ChatbotFlowEngine {
                         .build();
 
                 // Advance past the trigger node to the next node(s)
-                advanceToNextNodes(session, best.triggerNode().getId(), null, context, 0);
+                advanceToNextNodes(session, best.node().getId(), null, context, 0);
                 return true;
             }
 
@@ -289,7 +228,7 @@ public class ChatbotFlowEngine {
      */
     private void resumeSession(ChatbotFlowSession session, FlowExecutionContext context) {
         String currentNodeId = session.getCurrentNodeId();
-        ChatbotFlowNode currentNode = nodeRepository.findById(currentNodeId).orElse(null);
+        ChatbotFlowNode currentNode = graphCache.node(session.getFlowId(), currentNodeId);
         if (currentNode == null) {
             log.error("Current node not found: nodeId={}, sessionId={}, flowId={} — "
                     + "likely flow was edited while session was active. Completing session.",
@@ -361,35 +300,10 @@ public class ChatbotFlowEngine {
             return;
         }
 
-        List<ChatbotFlowEdge> outgoingEdges = edgeRepository.findBySourceNodeIdOrderBySortOrder(fromNodeId);
-
-        if (outgoingEdges.isEmpty()) {
-            // No more edges — flow complete
-            completeSession(session);
-            return;
-        }
-
-        // For CONDITION nodes: filter edges by branch ID
-        ChatbotFlowEdge nextEdge = null;
-        if (selectedBranchId != null) {
-            nextEdge = outgoingEdges.stream()
-                    .filter(e -> {
-                        Map<String, Object> config = parseJson(e.getConditionConfig());
-                        return config != null && selectedBranchId.equals(config.get("branchId"));
-                    })
-                    .findFirst()
-                    // Fallback to default branch
-                    .orElseGet(() -> outgoingEdges.stream()
-                            .filter(e -> {
-                                Map<String, Object> config = parseJson(e.getConditionConfig());
-                                return config != null && Boolean.TRUE.equals(config.get("isDefault"));
-                            })
-                            .findFirst()
-                            .orElse(outgoingEdges.isEmpty() ? null : outgoingEdges.get(0)));
-        } else {
-            // Non-branching node: take the first (and usually only) edge
-            nextEdge = outgoingEdges.get(0);
-        }
+        // CONDITION nodes pick the edge of their branch (else the default one); linear nodes
+        // take the first (and usually only) edge. No edge means the flow is complete.
+        CompiledChatbotFlow graph = graphCache.flow(session.getFlowId());
+        ChatbotFlowEdge nextEdge = graph != null ? graph.nextEdge(fromNodeId, selectedBranchId) : null;
 
         if (nextEdge == null) {
             completeSession(session);
@@ -397,7 +311,7 @@ public class ChatbotFlowEngine {
         }
 
         String nextNodeId = nextEdge.getTargetNodeId();
-        ChatbotFlowNode nextNode = nodeRepository.findById(nextNodeId).orElse(null);
+        ChatbotFlowNode nextNode = graphCache.node(session.getFlowId(), nextNodeId);
         if (nextNode == null) {
             log.error("Next node not found: {}", nextNodeId);
             completeSession(session);
@@ -508,64 +422,13 @@ public class ChatbotFlowEngine {
     private String findMatchingTriggerFlowId(String instituteId, String channelType,
                                              String userText, String messageType,
                                              String buttonId, String buttonPayload, String listReplyId) {
-        // Collect all active flows (same logic as main trigger scan)
-        List<ChatbotFlow> activeFlows = new ArrayList<>(flowRepository
-                .findByInstituteIdAndChannelTypeAndStatus(instituteId, channelType,
-                        ChatbotFlowStatus.ACTIVE.name()));
-        if (!channelType.equals("WHATSAPP")) {
-            activeFlows.addAll(flowRepository.findByInstituteIdAndChannelTypeAndStatus(
-                    instituteId, "WHATSAPP", ChatbotFlowStatus.ACTIVE.name()));
-        }
-        for (String fallbackType : List.of("WHATSAPP_META", "WHATSAPP_WATI", "WHATSAPP_COMBOT")) {
-            if (!fallbackType.equals(channelType)) {
-                activeFlows.addAll(flowRepository.findByInstituteIdAndChannelTypeAndStatus(
-                        instituteId, fallbackType, ChatbotFlowStatus.ACTIVE.name()));
-            }
-        }
-
         FlowExecutionContext ctx = FlowExecutionContext.builder()
                 .messageType(messageType).buttonId(buttonId)
                 .buttonPayload(buttonPayload).listReplyId(listReplyId)
                 .build();
 
-        // Track the best matching trigger: prefer specific (has keywords) over catch-all,
-        // then by priority
-        String bestFlowId = null;
-        int bestPriority = Integer.MIN_VALUE;
-        boolean bestIsSpecific = false;
-
-        for (ChatbotFlow flow : activeFlows) {
-            List<ChatbotFlowNode> triggerNodes = nodeRepository
-                    .findByFlowIdAndNodeType(flow.getId(), ChatbotNodeType.TRIGGER.name());
-            for (ChatbotFlowNode triggerNode : triggerNodes) {
-                ChatbotNodeExecutor executor = findExecutor(triggerNode.getNodeType());
-                if (executor != null) {
-                    NodeExecutionResult result = executor.execute(triggerNode, null, userText, ctx);
-                    if (result.isSuccess()) {
-                        Map<String, Object> triggerConfig = parseJson(triggerNode.getConfig());
-                        int priority = 0;
-                        boolean isSpecific = false;
-                        if (triggerConfig != null) {
-                            Object p = triggerConfig.get("priority");
-                            if (p instanceof Number) priority = ((Number) p).intValue();
-                            Object keywords = triggerConfig.get("keywords");
-                            isSpecific = keywords instanceof List && !((List<?>) keywords).isEmpty();
-                        }
-
-                        // Better match if: (a) this is specific and best isn't, or
-                        // (b) same specificity but higher priority
-                        if ((!bestIsSpecific && isSpecific)
-                                || (isSpecific == bestIsSpecific && priority > bestPriority)
-                                || bestFlowId == null) {
-                            bestFlowId = flow.getId();
-                            bestPriority = priority;
-                            bestIsSpecific = isSpecific;
-                        }
-                    }
-                }
-            }
-        }
-        return bestFlowId;
+        ChatbotFlowGraphCache.RankedTrigger best = graphCache.bestTrigger(instituteId, channelType, userText, ctx);
+        return best != null ? best.flow().getFlowId() : null;
     }
 
     /**
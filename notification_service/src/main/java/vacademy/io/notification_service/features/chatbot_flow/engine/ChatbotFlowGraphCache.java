@@ -0,0 +1,256 @@
+package vacademy.io.notification_service.features.chatbot_flow.engine;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import vacademy.io.notification_service.features.chatbot_flow.entity.ChatbotFlow;
+import vacademy.io.notification_service.features.chatbot_flow.entity.ChatbotFlowEdge;
+import vacademy.io.notification_service.features.chatbot_flow.entity.ChatbotFlowNode;
+import vacademy.io.notification_service.features.chatbot_flow.enums.ChatbotFlowStatus;
+import vacademy.io.notification_service.features.chatbot_flow.enums.ChatbotNodeType;
+import vacademy.io.notification_service.features.chatbot_flow.repository.ChatbotFlowEdgeRepository;
+import vacademy.io.notification_service.features.chatbot_flow.repository.ChatbotFlowNodeRepository;
+import vacademy.io.notification_service.features.chatbot_flow.repository.ChatbotFlowRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory compiled chatbot flow graphs, so routing an inbound WhatsApp message costs no queries
+ * apart from session state. Two caches:
+ * <ul>
+ *   <li>{@code graphs}: flow id → {@link CompiledChatbotFlow}, used to resume sessions.</li>
+ *   <li>{@code routes}: (institute, channel type) → every trigger of the ACTIVE flows reachable
+ *       from that channel, pre-ranked so the first trigger that matches is the best one.</li>
+ * </ul>
+ *
+ * <p>Invalidation: {@code ChatbotFlowCrudService} calls {@link #evictAfterCommit} whenever a save
+ * can change a graph or the set of ACTIVE flows. The eviction is deferred to after commit so a
+ * message racing the save can't re-cache the pre-save graph. The TTL only bounds staleness on
+ * other replicas, whose caches this replica can't reach.
+ */
+@Slf4j
+@Component
+public class ChatbotFlowGraphCache {
+
+    /**
+     * Channel types searched besides the inbound one: a flow built for one WhatsApp provider also
+     * fires for the others (the flow logic is provider-agnostic, only the send mechanism differs).
+     */
+    private static final List<String> WHATSAPP_CHANNEL_TYPES =
+            List.of("WHATSAPP", "WHATSAPP_META", "WHATSAPP_WATI", "WHATSAPP_COMBOT");
+
+    private record RouteKey(String instituteId, String channelType) {
+    }
+
+    public record RankedTrigger(CompiledChatbotFlow flow, ChatbotFlowNode node, TriggerMatcher matcher) {
+    }
+
+    private final ChatbotFlowRepository flowRepository;
+    private final ChatbotFlowNodeRepository nodeRepository;
+    private final ChatbotFlowEdgeRepository edgeRepository;
+    private final ObjectMapper objectMapper;
+
+    private final Cache<String, CompiledChatbotFlow> graphs;
+    private final Cache<RouteKey, List<RankedTrigger>> routes;
+
+    public ChatbotFlowGraphCache(ChatbotFlowRepository flowRepository,
+                                 ChatbotFlowNodeRepository nodeRepository,
+                                 ChatbotFlowEdgeRepository edgeRepository,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${chatbot.flow-cache.max-size:2000}") long maxSize,
+                                 @Value("${chatbot.flow-cache.ttl-minutes:5}") long ttlMinutes) {
+        this.flowRepository = flowRepository;
+        this.nodeRepository = nodeRepository;
+        this.edgeRepository = edgeRepository;
+        this.objectMapper = objectMapper;
+        this.graphs = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        this.routes = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, graphs, "chatbot.flow.graphs");
+        CaffeineCacheMetrics.monitor(meterRegistry, routes, "chatbot.flow.routes");
+    }
+
+    /** Compiled graph of any flow regardless of status, or null if the flow doesn't exist. */
+    public CompiledChatbotFlow flow(String flowId) {
+        if (flowId == null) {
+            return null;
+        }
+        return graphs.get(flowId, id -> flowRepository.findById(id).map(this::compile).orElse(null));
+    }
+
+    /**
+     * Node of a session's flow. A miss re-reads the flow once: another replica may have saved it
+     * since this one cached it, and the session may already point at a node of the new version.
+     */
+    public ChatbotFlowNode node(String flowId, String nodeId) {
+        CompiledChatbotFlow compiled = flow(flowId);
+        ChatbotFlowNode node = compiled != null ? compiled.node(nodeId) : null;
+        if (node == null && nodeId != null) {
+            graphs.invalidate(flowId);
+            compiled = flow(flowId);
+            node = compiled != null ? compiled.node(nodeId) : null;
+        }
+        return node;
+    }
+
+    /**
+     * Best trigger for an inbound message across the ACTIVE flows reachable from
+     * {@code channelType}: specific triggers (with keywords) before catch-alls, then higher
+     * priority, then search order (exact channel type first). Null when nothing matches.
+     */
+    public RankedTrigger bestTrigger(String instituteId, String channelType, String userText,
+                                     FlowExecutionContext context) {
+        for (RankedTrigger trigger : routes(instituteId, channelType)) {
+            if (trigger.matcher().matches(userText, context, false)) {
+                return trigger;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Evicts the flow's graph and every cached route of its institute. Runs after the surrounding
+     * transaction commits, or immediately when there is none.
+     */
+    public void evictAfterCommit(String flowId, String instituteId) {
+        Runnable task = () -> {
+            graphs.invalidate(flowId);
+            if (instituteId != null) {
+                routes.asMap().keySet().removeIf(k -> instituteId.equals(k.instituteId()));
+            }
+            log.debug("Evicted compiled chatbot flow {} (institute {})", flowId, instituteId);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    private List<RankedTrigger> routes(String instituteId, String channelType) {
+        return routes.get(new RouteKey(instituteId, channelType), this::buildRoutes);
+    }
+
+    /**
+     * One query for all ACTIVE flows of the institute, ordered by channel type the way the engine
+     * used to query them: the inbound type, then generic WHATSAPP, then the other providers.
+     */
+    private List<RankedTrigger> buildRoutes(RouteKey key) {
+        Set<String> channelOrder = new LinkedHashSet<>();
+        channelOrder.add(key.channelType());
+        channelOrder.addAll(WHATSAPP_CHANNEL_TYPES);
+
+        Map<String, List<ChatbotFlow>> flowsByChannel = new HashMap<>();
+        for (ChatbotFlow flow : flowRepository.findByInstituteIdAndStatusOrderByUpdatedAtDesc(
+                key.instituteId(), ChatbotFlowStatus.ACTIVE.name())) {
+            flowsByChannel.computeIfAbsent(flow.getChannelType(), c -> new ArrayList<>()).add(flow);
+        }
+
+        List<RankedTrigger> ranked = new ArrayList<>();
+        int flowCount = 0;
+        for (String channel : channelOrder) {
+            for (ChatbotFlow flow : flowsByChannel.getOrDefault(channel, List.of())) {
+                CompiledChatbotFlow compiled = graphs.get(flow.getId(), id -> compile(flow));
+                flowCount++;
+                for (CompiledChatbotFlow.Trigger trigger : compiled.triggers()) {
+                    ranked.add(new RankedTrigger(compiled, trigger.node(), trigger.matcher()));
+                }
+            }
+        }
+        // Stable sort: ties keep search order
+        ranked.sort(Comparator
+                .comparing((RankedTrigger t) -> !t.matcher().isSpecific())
+                .thenComparing(t -> -t.matcher().getPriority()));
+
+        log.info("Compiled chatbot routes for institute={}, channelType={}: {} active flows, {} triggers",
+                key.instituteId(), key.channelType(), flowCount, ranked.size());
+        return List.copyOf(ranked);
+    }
+
+    private CompiledChatbotFlow compile(ChatbotFlow flow) {
+        List<ChatbotFlowNode> nodes = nodeRepository.findByFlowId(flow.getId());
+        List<ChatbotFlowEdge> edges = new ArrayList<>(edgeRepository.findByFlowId(flow.getId()));
+
+        Map<String, ChatbotFlowNode> nodesById = new LinkedHashMap<>();
+        List<CompiledChatbotFlow.Trigger> triggers = new ArrayList<>();
+        for (ChatbotFlowNode node : nodes) {
+            nodesById.put(node.getId(), node);
+            if (ChatbotNodeType.TRIGGER.name().equals(node.getNodeType())) {
+                triggers.add(new CompiledChatbotFlow.Trigger(node, TriggerMatcher.compile(parseConfig(node.getConfig()))));
+            }
+        }
+
+        edges.sort(Comparator.comparingInt(ChatbotFlowEdge::getSortOrder));
+        Map<String, List<ChatbotFlowEdge>> edgesBySource = new LinkedHashMap<>();
+        for (ChatbotFlowEdge edge : edges) {
+            edgesBySource.computeIfAbsent(edge.getSourceNodeId(), s -> new ArrayList<>()).add(edge);
+        }
+        Map<String, CompiledChatbotFlow.Outgoing> outgoing = new HashMap<>();
+        edgesBySource.forEach((source, list) -> outgoing.put(source, compileOutgoing(list)));
+
+        log.debug("Compiled chatbot flow {}: {} nodes, {} edges, {} triggers",
+                flow.getId(), nodesById.size(), edges.size(), triggers.size());
+        return new CompiledChatbotFlow(flow, Collections.unmodifiableMap(nodesById),
+                Collections.unmodifiableMap(outgoing), List.copyOf(triggers));
+    }
+
+    private CompiledChatbotFlow.Outgoing compileOutgoing(List<ChatbotFlowEdge> edges) {
+        Map<String, ChatbotFlowEdge> byBranchId = new HashMap<>();
+        ChatbotFlowEdge defaultEdge = null;
+        for (ChatbotFlowEdge edge : edges) {
+            Map<String, Object> config = parseConfig(edge.getConditionConfig());
+            if (config == null) {
+                continue;
+            }
+            if (config.get("branchId") instanceof String branchId) {
+                byBranchId.putIfAbsent(branchId, edge);
+            }
+            if (defaultEdge == null && Boolean.TRUE.equals(config.get("isDefault"))) {
+                defaultEdge = edge;
+            }
+        }
+        return new CompiledChatbotFlow.Outgoing(List.copyOf(edges), Collections.unmodifiableMap(byBranchId),
+                defaultEdge);
+    }
+
+    /** Null for blank or malformed JSON, matching how TriggerNodeExecutor treats such configs. */
+    private Map<String, Object> parseConfig(String json) {
+        if (json == null || json.isBlank()) return null;
+        try {
+            return objectMapper.readValue(json, new TypeReference<Map<String, Object>>() {});
+        } catch (Exception e) {
+            log.warn("Failed to parse chatbot flow config: {}", e.getMessage());
+            return null;
+        }
+    }
+}
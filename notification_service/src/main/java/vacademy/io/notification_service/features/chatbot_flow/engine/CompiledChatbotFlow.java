@@ -0,0 +1,86 @@
+package vacademy.io.notification_service.features.chatbot_flow.engine;
+
+import vacademy.io.notification_service.features.chatbot_flow.entity.ChatbotFlow;
+import vacademy.io.notification_service.features.chatbot_flow.entity.ChatbotFlowEdge;
+import vacademy.io.notification_service.features.chatbot_flow.entity.ChatbotFlowNode;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, pre-indexed graph of one chatbot flow: nodes by id, outgoing edges per node with
+ * their branch ids already parsed, and the flow's trigger nodes with compiled matchers.
+ * Built by {@link ChatbotFlowGraphCache}; node and edge entities are shared read-only.
+ */
+public final class CompiledChatbotFlow {
+
+    public record Trigger(ChatbotFlowNode node, TriggerMatcher matcher) {
+    }
+
+    /**
+     * Outgoing edges of one node in sort order, with the branch lookup done at compile time:
+     * the first edge per {@code branchId} and the first edge flagged {@code isDefault}.
+     */
+    record Outgoing(List<ChatbotFlowEdge> edges, Map<String, ChatbotFlowEdge> byBranchId,
+                    ChatbotFlowEdge defaultEdge) {
+    }
+
+    private final ChatbotFlow flow;
+    private final Map<String, ChatbotFlowNode> nodesById;
+    private final Map<String, Outgoing> outgoingBySource;
+    private final List<Trigger> triggers;
+
+    CompiledChatbotFlow(ChatbotFlow flow, Map<String, ChatbotFlowNode> nodesById,
+                        Map<String, Outgoing> outgoingBySource, List<Trigger> triggers) {
+        this.flow = flow;
+        this.nodesById = nodesById;
+        this.outgoingBySource = outgoingBySource;
+        this.triggers = triggers;
+    }
+
+    public String getFlowId() {
+        return flow.getId();
+    }
+
+    public String getInstituteId() {
+        return flow.getInstituteId();
+    }
+
+    public String getChannelType() {
+        return flow.getChannelType();
+    }
+
+    public String getStatus() {
+        return flow.getStatus();
+    }
+
+    public ChatbotFlowNode node(String nodeId) {
+        return nodeId != null ? nodesById.get(nodeId) : null;
+    }
+
+    public List<Trigger> triggers() {
+        return triggers;
+    }
+
+    /**
+     * Edge to follow out of {@code fromNodeId}: the edge of the selected branch, else the default
+     * branch, else the first edge. Without a branch (linear nodes) the first edge. Null when the
+     * node has no outgoing edges, i.e. the flow ends here.
+     */
+    public ChatbotFlowEdge nextEdge(String fromNodeId, String selectedBranchId) {
+        Outgoing outgoing = outgoingBySource.get(fromNodeId);
+        if (outgoing == null || outgoing.edges().isEmpty()) {
+            return null;
+        }
+        if (selectedBranchId != null) {
+            ChatbotFlowEdge branch = outgoing.byBranchId().get(selectedBranchId);
+            if (branch != null) {
+                return branch;
+            }
+            if (outgoing.defaultEdge() != null) {
+                return outgoing.defaultEdge();
+            }
+        }
+        return outgoing.edges().get(0);
+    }
+}
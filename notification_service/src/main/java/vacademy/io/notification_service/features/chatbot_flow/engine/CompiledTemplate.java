@@ -0,0 +1,248 @@
+package vacademy.io.notification_service.features.chatbot_flow.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A {{placeholder}} template tokenised once into literal and value segments. Each value segment
+ * is bound at compile time to its resolver: the node-config {@code variables} entry it maps to
+ * (with field-name variants and default precomputed) or the built-in placeholder it names.
+ * Rendering for a recipient is then a single append loop, with no regex and no list scans.
+ *
+ * <p>Resolution rules are documented on {@link VariableResolver}.
+ */
+public final class CompiledTemplate {
+
+    private static final Pattern VARIABLE_PATTERN = Pattern.compile("\\{\\{(.+?)}}");
+
+    @FunctionalInterface
+    private interface Segment {
+        void appendTo(StringBuilder out, FlowExecutionContext ctx);
+    }
+
+    private final String template;
+    private final Segment[] segments;
+    private final int literalLength;
+
+    private CompiledTemplate(String template, Segment[] segments, int literalLength) {
+        this.template = template;
+        this.segments = segments;
+        this.literalLength = literalLength;
+    }
+
+    /**
+     * @param template       raw string (may contain 0+ placeholders; null and empty render as-is)
+     * @param variableConfig the node config's "variables" list (may be null)
+     */
+    public static CompiledTemplate compile(String template, List<Map<String, Object>> variableConfig) {
+        if (template == null || template.isEmpty()) {
+            return new CompiledTemplate(template, new Segment[0], 0);
+        }
+        List<Segment> segments = new ArrayList<>();
+        int literalLength = 0;
+        int last = 0;
+        Matcher m = VARIABLE_PATTERN.matcher(template);
+        while (m.find()) {
+            if (m.start() > last) {
+                String literal = template.substring(last, m.start());
+                segments.add((out, ctx) -> out.append(literal));
+                literalLength += literal.length();
+            }
+            Function<FlowExecutionContext, String> resolver = bind(m.group(1).trim(), variableConfig);
+            segments.add((out, ctx) -> {
+                String value = resolver.apply(ctx);
+                if (value != null) out.append(value);
+            });
+            last = m.end();
+        }
+        if (segments.isEmpty()) {
+            return new CompiledTemplate(template, new Segment[0], template.length());
+        }
+        if (last < template.length()) {
+            String tail = template.substring(last);
+            segments.add((out, ctx) -> out.append(tail));
+            literalLength += tail.length();
+        }
+        return new CompiledTemplate(template, segments.toArray(new Segment[0]), literalLength);
+    }
+
+    public String render(FlowExecutionContext ctx) {
+        if (segments.length == 0) return template;
+        StringBuilder out = new StringBuilder(literalLength + 16 * segments.length);
+        for (Segment segment : segments) {
+            segment.appendTo(out, ctx);
+        }
+        return out.toString();
+    }
+
+    // ==================== Binding ====================
+
+    private static Function<FlowExecutionContext, String> bind(String name, List<Map<String, Object>> variableConfig) {
+        // 1) Node-config explicit mapping: the first entry with this name wins
+        if (variableConfig != null) {
+            for (Map<String, Object> var : variableConfig) {
+                if (var == null) continue;
+                Object nameObj = var.get("name");
+                if (nameObj != null && name.equals(nameObj.toString())) {
+                    return bindConfigured(var);
+                }
+            }
+        }
+        // 2) Built-in fallback
+        return bindBuiltin(name);
+    }
+
+    private static Function<FlowExecutionContext, String> bindConfigured(Map<String, Object> var) {
+        String defaultVal = var.get("defaultValue") != null ? var.get("defaultValue").toString() : "";
+        Function<FlowExecutionContext, String> source = bindSource(var);
+        return ctx -> {
+            String resolved = source.apply(ctx);
+            return (resolved == null || resolved.isBlank()) ? defaultVal : resolved;
+        };
+    }
+
+    private static Function<FlowExecutionContext, String> bindSource(Map<String, Object> var) {
+        String source = var.get("source") != null ? var.get("source").toString() : "SYSTEM_FIELD";
+        Object fieldObj = var.get("field");
+        String field = fieldObj != null ? fieldObj.toString() : null;
+        if (field == null || field.isBlank()) return ctx -> null;
+
+        switch (source) {
+            case "SYSTEM_FIELD": {
+                String snake = toSnakeCase(field);
+                String camel = toCamelCase(field);
+                return ctx -> {
+                    Object val = userField(ctx, field, snake, camel);
+                    return val != null ? val.toString() : null;
+                };
+            }
+            case "CUSTOM_FIELD":
+                return ctx -> {
+                    Object val = customField(ctx, field);
+                    return val != null ? val.toString() : null;
+                };
+            case "SESSION":
+                return ctx -> {
+                    if (ctx.getSessionVariables() == null) return null;
+                    Object val = ctx.getSessionVariables().get(field);
+                    return val != null ? val.toString() : null;
+                };
+            case "CONTEXT":
+                return bindBuiltin(field);
+            case "FIXED":
+                return ctx -> field;
+            default:
+                return ctx -> null;
+        }
+    }
+
+    private static Function<FlowExecutionContext, String> bindBuiltin(String name) {
+        if (name.startsWith("fixed:")) {
+            String literal = name.substring(6);
+            return ctx -> literal;
+        }
+        // Prefixed placeholders fall through to a session lookup of the full name when the
+        // map they read from is absent.
+        Function<FlowExecutionContext, String> sessionFallback = ctx -> sessionValue(ctx, name);
+        if (name.startsWith("session.")) {
+            String key = name.substring(8);
+            return ctx -> ctx.getSessionVariables() != null ? sessionValue(ctx, key) : "";
+        }
+        if (name.startsWith("user.")) {
+            String key = name.substring(5);
+            String snake = toSnakeCase(key);
+            String camel = toCamelCase(key);
+            return ctx -> {
+                if (ctx.getUserDetails() == null) return sessionFallback.apply(ctx);
+                Object val = userField(ctx, key, snake, camel);
+                return val != null ? val.toString() : "";
+            };
+        }
+        if (name.startsWith("customField.")) {
+            String key = name.substring(12);
+            return ctx -> {
+                if (ctx.getUserDetails() == null) return sessionFallback.apply(ctx);
+                Object val = customField(ctx, key);
+                return val != null ? val.toString() : "";
+            };
+        }
+        switch (name) {
+            case "phone":
+            case "phoneNumber":
+                return ctx -> ctx.getPhoneNumber() != null ? ctx.getPhoneNumber() : "";
+            case "instituteId":
+                return ctx -> ctx.getInstituteId() != null ? ctx.getInstituteId() : "";
+            case "userId":
+                return ctx -> ctx.getUserId() != null ? ctx.getUserId() : "";
+            case "messageText":
+                return ctx -> ctx.getMessageText() != null ? ctx.getMessageText() : "";
+            default:
+                return sessionFallback;
+        }
+    }
+
+    private static String sessionValue(FlowExecutionContext ctx, String key) {
+        if (ctx.getSessionVariables() == null) return "";
+        Object val = ctx.getSessionVariables().get(key);
+        return val != null ? val.toString() : "";
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object userField(FlowExecutionContext ctx, String field, String snake, String camel) {
+        Map<String, Object> details = ctx.getUserDetails();
+        if (details == null) return null;
+        Object u = details.get("user");
+        if (!(u instanceof Map)) return null;
+        Map<String, Object> user = (Map<String, Object>) u;
+        // Try as given, then snake_case, then camelCase for convenience
+        Object val = user.get(field);
+        if (val == null) val = user.get(snake);
+        if (val == null) val = user.get(camel);
+        return val;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object customField(FlowExecutionContext ctx, String field) {
+        Map<String, Object> details = ctx.getUserDetails();
+        if (details == null) return null;
+        Object cf = details.get("customFields");
+        return cf instanceof Map ? ((Map<String, Object>) cf).get(field) : null;
+    }
+
+    static String toSnakeCase(String camel) {
+        if (camel == null || camel.isEmpty()) return camel;
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < camel.length(); i++) {
+            char c = camel.charAt(i);
+            if (Character.isUpperCase(c)) {
+                if (i > 0) sb.append('_');
+                sb.append(Character.toLowerCase(c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    static String toCamelCase(String snake) {
+        if (snake == null || !snake.contains("_")) return snake;
+        StringBuilder sb = new StringBuilder();
+        boolean upper = false;
+        for (int i = 0; i < snake.length(); i++) {
+            char c = snake.charAt(i);
+            if (c == '_') {
+                upper = true;
+            } else if (upper) {
+                sb.append(Character.toUpperCase(c));
+                upper = false;
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,178 @@
+package vacademy.io.notification_service.features.chatbot_flow.engine;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Compiled form of a TRIGGER node config: keywords normalised and regexes compiled once, instead
+ * of re-parsing the config JSON and re-compiling patterns for every inbound message.
+ *
+ * <p>Semantics are those of {@code TriggerNodeExecutor}, which delegates here.
+ */
+@Slf4j
+public final class TriggerMatcher {
+
+    /** Bounded thread pool for regex execution — prevents backtracking from starving ForkJoinPool.commonPool */
+    private static final ExecutorService REGEX_POOL = Executors.newFixedThreadPool(2, r -> {
+        Thread t = new Thread(r, "chatbot-regex-safety");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final TriggerMatcher NEVER = new TriggerMatcher("INVALID", "contains",
+            List.of(), List.of(), List.of(), 0, false);
+
+    private final String triggerType;
+    private final String matchType;
+    private final List<String> keywords;
+    /** Index-aligned with {@link #keywords}; null where the regex failed to compile. */
+    private final List<Pattern> patterns;
+    private final List<String> buttonIds;
+    private final int priority;
+    private final boolean specific;
+
+    private TriggerMatcher(String triggerType, String matchType, List<String> keywords,
+                           List<Pattern> patterns, List<String> buttonIds, int priority, boolean specific) {
+        this.triggerType = triggerType;
+        this.matchType = matchType;
+        this.keywords = keywords;
+        this.patterns = patterns;
+        this.buttonIds = buttonIds;
+        this.priority = priority;
+        this.specific = specific;
+    }
+
+    /** Compiles a parsed trigger config; a null config yields a matcher that never matches. */
+    public static TriggerMatcher compile(Map<String, Object> config) {
+        if (config == null) {
+            return NEVER;
+        }
+        String triggerType = String.valueOf(config.getOrDefault("triggerType", "KEYWORD_MATCH"));
+        String matchType = String.valueOf(config.getOrDefault("matchType", "contains"));
+
+        List<String> keywords = new ArrayList<>();
+        List<Pattern> patterns = new ArrayList<>();
+        Object rawKeywords = config.get("keywords");
+        if (rawKeywords instanceof List<?> list) {
+            for (Object keyword : list) {
+                String normalized = String.valueOf(keyword).trim().toLowerCase();
+                keywords.add(normalized);
+                patterns.add("regex".equals(matchType) ? compileRegex(normalized) : null);
+            }
+        }
+
+        List<String> buttonIds = new ArrayList<>();
+        if (config.get("buttonIds") instanceof List<?> list) {
+            list.forEach(b -> buttonIds.add(String.valueOf(b)));
+        }
+
+        int priority = config.get("priority") instanceof Number p ? p.intValue() : 0;
+        // A trigger with actual keywords is "specific"; one without is catch-all
+        boolean specific = rawKeywords instanceof List<?> list && !list.isEmpty();
+
+        return new TriggerMatcher(triggerType, matchType, Collections.unmodifiableList(keywords),
+                Collections.unmodifiableList(patterns), List.copyOf(buttonIds), priority, specific);
+    }
+
+    /**
+     * @param hasSession whether the user is already in a session (FIRST_CONTACT only fires without one)
+     */
+    public boolean matches(String userText, FlowExecutionContext context, boolean hasSession) {
+        switch (triggerType) {
+            case "KEYWORD_MATCH":
+                return matchesKeyword(userText);
+            case "FIRST_CONTACT":
+                return !hasSession;
+            case "BUTTON_REPLY":
+                return matchesButton(context);
+            case "INVALID":
+                return false;
+            default:
+                log.warn("Unknown trigger type: {}", triggerType);
+                return false;
+        }
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public boolean isSpecific() {
+        return specific;
+    }
+
+    private boolean matchesKeyword(String userText) {
+        if (userText == null || userText.isBlank()) {
+            return false;
+        }
+        if (keywords.isEmpty()) {
+            // No keywords means match everything (catch-all trigger)
+            return true;
+        }
+
+        String normalizedInput = userText.trim().toLowerCase();
+        for (int i = 0; i < keywords.size(); i++) {
+            String keyword = keywords.get(i);
+            boolean matched = switch (matchType) {
+                case "exact" -> normalizedInput.equals(keyword);
+                case "regex" -> safeRegexMatch(patterns.get(i), userText);
+                default -> normalizedInput.contains(keyword);
+            };
+            if (matched) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matchesButton(FlowExecutionContext context) {
+        if (buttonIds.isEmpty() || context == null) {
+            return false;
+        }
+        String incomingButtonId = context.getButtonId();
+        String incomingPayload = context.getButtonPayload();
+        return buttonIds.stream().anyMatch(bid ->
+                bid.equalsIgnoreCase(incomingButtonId) || bid.equalsIgnoreCase(incomingPayload));
+    }
+
+    private static Pattern compileRegex(String pattern) {
+        try {
+            return Pattern.compile(pattern, Pattern.CASE_INSENSITIVE);
+        } catch (PatternSyntaxException e) {
+            log.warn("Invalid regex in trigger: {}", pattern);
+            return null;
+        }
+    }
+
+    /**
+     * Regex match with timeout to prevent ReDoS from catastrophic backtracking patterns.
+     */
+    private static boolean safeRegexMatch(Pattern pattern, String input) {
+        if (pattern == null) {
+            return false;
+        }
+        Future<Boolean> future = null;
+        try {
+            future = REGEX_POOL.submit(() -> pattern.matcher(input).find());
+            return future.get(2, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Regex timed out (possible ReDoS): pattern={}", pattern.pattern());
+            future.cancel(true); // Interrupt the backtracking thread
+            return false;
+        } catch (Exception e) {
+            log.warn("Regex evaluation failed in trigger: {}", pattern.pattern());
+            return false;
+        }
+    }
+}
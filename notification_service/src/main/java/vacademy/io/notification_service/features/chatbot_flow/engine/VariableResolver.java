@@ -1,11 +1,18 @@
 package vacademy.io.notification_service.features.chatbot_flow.engine;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import vacademy.io.notification_service.features.chatbot_flow.entity.ChatbotFlowNode;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Shared resolver for {{placeholder}} tokens in SEND_MESSAGE and SEND_TEMPLATE
@@ -22,173 +29,68 @@ import java.util.regex.Pattern;
  *        {{customField.name}}      -> userDetails.customFields[name]
  *        {{phone}} / {{phoneNumber}}, {{instituteId}}, {{userId}}, {{messageText}}
  *        (unqualified names)       -> sessionVariables[name]
+ *
+ * Templates are compiled once into a {@link CompiledTemplate} and cached per node id, so a
+ * template sent to thousands of users is tokenised once rather than on every send. A cached
+ * entry is dropped as soon as the node's config string changes.
  */
 @Component
 public class VariableResolver {
 
-    private static final Pattern VARIABLE_PATTERN = Pattern.compile("\\{\\{(.+?)}}");
+    /** Compiled templates of one node, valid for exactly the config they were compiled from. */
+    private record NodeTemplates(String config, Map<String, CompiledTemplate> byTemplate) {
+    }
+
+    private final Cache<String, NodeTemplates> byNodeId;
+
+    public VariableResolver(MeterRegistry meterRegistry,
+                            @Value("${chatbot.template-cache.max-size:5000}") long maxSize) {
+        this.byNodeId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(Duration.ofHours(1))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byNodeId, "chatbot.templates");
+    }
 
     /**
-     * Resolve all {{placeholder}} tokens in the template.
+     * Resolve all {{placeholder}} tokens in a template taken from {@code node}'s config, reusing
+     * the node's compiled form of it.
      *
+     * @param node           node whose config contains {@code template} and {@code variableConfig}
      * @param template       raw string (may contain 0+ placeholders)
      * @param variableConfig the node config's "variables" list (may be null)
      * @param context        flow execution context
      */
-    public String resolve(String template, List<Map<String, Object>> variableConfig,
+    public String resolve(ChatbotFlowNode node, String template, List<Map<String, Object>> variableConfig,
                           FlowExecutionContext context) {
         if (template == null || template.isEmpty()) return template;
-        Matcher m = VARIABLE_PATTERN.matcher(template);
-        StringBuilder out = new StringBuilder();
-        while (m.find()) {
-            String name = m.group(1).trim();
-            String value = resolveOne(name, variableConfig, context);
-            m.appendReplacement(out, Matcher.quoteReplacement(value == null ? "" : value));
-        }
-        m.appendTail(out);
-        return out.toString();
-    }
-
-    private String resolveOne(String name, List<Map<String, Object>> variableConfig,
-                              FlowExecutionContext ctx) {
-        // 1) Node-config explicit mapping
-        if (variableConfig != null) {
-            for (Map<String, Object> var : variableConfig) {
-                if (var == null) continue;
-                Object nameObj = var.get("name");
-                if (nameObj != null && name.equals(nameObj.toString())) {
-                    String resolved = resolveFromSource(var, ctx);
-                    String defaultVal = var.get("defaultValue") != null
-                            ? var.get("defaultValue").toString() : "";
-                    return (resolved == null || resolved.isBlank()) ? defaultVal : resolved;
-                }
-            }
-        }
-        // 2) Built-in fallback
-        return resolveBuiltin(name, ctx);
-    }
-
-    @SuppressWarnings("unchecked")
-    private String resolveFromSource(Map<String, Object> var, FlowExecutionContext ctx) {
-        String source = var.get("source") != null ? var.get("source").toString() : "SYSTEM_FIELD";
-        Object fieldObj = var.get("field");
-        String field = fieldObj != null ? fieldObj.toString() : null;
-        if (field == null || field.isBlank()) return null;
-
-        Map<String, Object> details = ctx.getUserDetails();
-        switch (source) {
-            case "SYSTEM_FIELD": {
-                if (details == null) return null;
-                Object u = details.get("user");
-                if (!(u instanceof Map)) return null;
-                Map<String, Object> user = (Map<String, Object>) u;
-                // Try snake_case then camelCase for convenience
-                Object val = user.get(field);
-                if (val == null) val = user.get(toSnakeCase(field));
-                if (val == null) val = user.get(toCamelCase(field));
-                return val != null ? val.toString() : null;
-            }
-            case "CUSTOM_FIELD": {
-                if (details == null) return null;
-                Object cf = details.get("customFields");
-                if (!(cf instanceof Map)) return null;
-                Object val = ((Map<String, Object>) cf).get(field);
-                return val != null ? val.toString() : null;
-            }
-            case "SESSION": {
-                if (ctx.getSessionVariables() == null) return null;
-                Object val = ctx.getSessionVariables().get(field);
-                return val != null ? val.toString() : null;
-            }
-            case "CONTEXT":
-                return resolveBuiltin(field, ctx);
-            case "FIXED":
-                return field;
-            default:
-                return null;
-        }
-    }
-
-    @SuppressWarnings("unchecked")
-    private String resolveBuiltin(String name, FlowExecutionContext ctx) {
-        if (name.startsWith("fixed:")) return name.substring(6);
-
-        if (name.startsWith("session.") && ctx.getSessionVariables() != null) {
-            Object val = ctx.getSessionVariables().get(name.substring(8));
-            return val != null ? val.toString() : "";
-        }
-
-        if (name.startsWith("user.") && ctx.getUserDetails() != null) {
-            String key = name.substring(5);
-            Object u = ctx.getUserDetails().get("user");
-            if (u instanceof Map) {
-                Map<String, Object> user = (Map<String, Object>) u;
-                Object val = user.get(key);
-                if (val == null) val = user.get(toSnakeCase(key));
-                if (val == null) val = user.get(toCamelCase(key));
-                if (val != null) return val.toString();
-            }
-            return "";
-        }
-
-        if (name.startsWith("customField.") && ctx.getUserDetails() != null) {
-            Object cf = ctx.getUserDetails().get("customFields");
-            if (cf instanceof Map) {
-                Object val = ((Map<String, Object>) cf).get(name.substring(12));
-                if (val != null) return val.toString();
-            }
-            return "";
-        }
-
-        switch (name) {
-            case "phone":
-            case "phoneNumber":
-                return ctx.getPhoneNumber() != null ? ctx.getPhoneNumber() : "";
-            case "instituteId":
-                return ctx.getInstituteId() != null ? ctx.getInstituteId() : "";
-            case "userId":
-                return ctx.getUserId() != null ? ctx.getUserId() : "";
-            case "messageText":
-                return ctx.getMessageText() != null ? ctx.getMessageText() : "";
-            default:
-                if (ctx.getSessionVariables() != null) {
-                    Object val = ctx.getSessionVariables().get(name);
-                    if (val != null) return val.toString();
-                }
-                return "";
-        }
+        if (node == null || node.getId() == null) return resolve(template, variableConfig, context);
+        return compiled(node, template, variableConfig).render(context);
     }
 
-    private static String toSnakeCase(String camel) {
-        if (camel == null || camel.isEmpty()) return camel;
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < camel.length(); i++) {
-            char c = camel.charAt(i);
-            if (Character.isUpperCase(c)) {
-                if (i > 0) sb.append('_');
-                sb.append(Character.toLowerCase(c));
-            } else {
-                sb.append(c);
-            }
-        }
-        return sb.toString();
+    /**
+     * Resolve all {{placeholder}} tokens in the template, compiling it for this call only.
+     *
+     * @param template       raw string (may contain 0+ placeholders)
+     * @param variableConfig the node config's "variables" list (may be null)
+     * @param context        flow execution context
+     */
+    public String resolve(String template, List<Map<String, Object>> variableConfig,
+                          FlowExecutionContext context) {
+        if (template == null || template.isEmpty()) return template;
+        return CompiledTemplate.compile(template, variableConfig).render(context);
     }
 
-    private static String toCamelCase(String snake) {
-        if (snake == null || !snake.contains("_")) return snake;
-        StringBuilder sb = new StringBuilder();
-        boolean upper = false;
-        for (int i = 0; i < snake.length(); i++) {
-            char c = snake.charAt(i);
-            if (c == '_') {
-                upper = true;
-            } else if (upper) {
-                sb.append(Character.toUpperCase(c));
-                upper = false;
-            } else {
-                sb.append(c);
-            }
+    private CompiledTemplate compiled(ChatbotFlowNode node, String template,
+                                      List<Map<String, Object>> variableConfig) {
+        String config = node.getConfig();
+        NodeTemplates entry = byNodeId.get(node.getId(), id -> new NodeTemplates(config, new ConcurrentHashMap<>()));
+        if (!Objects.equals(entry.config(), config)) {
+            // The node was edited (flow saves keep node ids): start over from the new config
+            entry = new NodeTemplates(config, new ConcurrentHashMap<>());
+            byNodeId.put(node.getId(), entry);
         }
-        return sb.toString();
+        return entry.byTemplate().computeIfAbsent(template, t -> CompiledTemplate.compile(t, variableConfig));
     }
 }
@@ -75,7 +75,7 @@ public class SendMessageNodeExecutor implements ChatbotNodeExecutor {
 
             if ("text".equals(messageType)) {
                 String text = (String) config.getOrDefault("text", "");
-                String resolved = variableResolver.resolve(text, variables, context);
+                String resolved = variableResolver.resolve(node, text, variables, context);
                 log.info("SEND_MESSAGE node: phone={}, rawText=[{}], resolved=[{}], configKeys={}",
                         context.getPhoneNumber(), text, resolved, config.keySet());
                 if (resolved == null || resolved.isBlank()) {
@@ -88,9 +88,9 @@ public class SendMessageNodeExecutor implements ChatbotNodeExecutor {
 
             } else {
                 // Media message: image, video, document, audio
-                String mediaUrl = variableResolver.resolve(
+                String mediaUrl = variableResolver.resolve(node,
                         (String) config.getOrDefault("mediaUrl", ""), variables, context);
-                String caption = variableResolver.resolve(
+                String caption = variableResolver.resolve(node,
                         (String) config.getOrDefault("mediaCaption", ""), variables, context);
                 String filename = (String) config.get("filename");
 
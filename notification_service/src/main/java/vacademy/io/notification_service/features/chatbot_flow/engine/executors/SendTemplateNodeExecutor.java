@@ -65,7 +65,7 @@ public class SendTemplateNodeExecutor implements ChatbotNodeExecutor {
             // Resolve body parameters
             @SuppressWarnings("unchecked")
             List<Map<String, Object>> bodyParams = (List<Map<String, Object>>) config.get("bodyParams");
-            List<String> resolvedBodyParams = resolveBodyParams(bodyParams, variables, context);
+            List<String> resolvedBodyParams = resolveBodyParams(node, bodyParams, variables, context);
 
             // Resolve header config
             @SuppressWarnings("unchecked")
@@ -81,10 +81,10 @@ public class SendTemplateNodeExecutor implements ChatbotNodeExecutor {
             templatePayload.put("languageCode", languageCode);
             templatePayload.put("bodyParams", resolvedBodyParams);
             if (headerConfig != null) {
-                templatePayload.put("headerConfig", resolveHeaderConfig(headerConfig, variables, context));
+                templatePayload.put("headerConfig", resolveHeaderConfig(node, headerConfig, variables, context));
             }
             if (buttonConfig != null) {
-                templatePayload.put("buttonConfig", resolveButtonConfig(buttonConfig, variables, context));
+                templatePayload.put("buttonConfig", resolveButtonConfig(node, buttonConfig, variables, context));
             }
 
             // Send via provider
@@ -103,7 +103,7 @@ public class SendTemplateNodeExecutor implements ChatbotNodeExecutor {
         }
     }
 
-    private List<String> resolveBodyParams(List<Map<String, Object>> bodyParams,
+    private List<String> resolveBodyParams(ChatbotFlowNode node, List<Map<String, Object>> bodyParams,
                                             List<Map<String, Object>> variables,
                                             FlowExecutionContext context) {
         if (bodyParams == null) return List.of();
@@ -115,23 +115,23 @@ public class SendTemplateNodeExecutor implements ChatbotNodeExecutor {
         }));
         for (Map<String, Object> param : bodyParams) {
             String value = (String) param.get("value");
-            resolved.add(variableResolver.resolve(value, variables, context));
+            resolved.add(variableResolver.resolve(node, value, variables, context));
         }
         return resolved;
     }
 
-    private Map<String, Object> resolveHeaderConfig(Map<String, Object> headerConfig,
+    private Map<String, Object> resolveHeaderConfig(ChatbotFlowNode node, Map<String, Object> headerConfig,
                                                      List<Map<String, Object>> variables,
                                                      FlowExecutionContext context) {
         Map<String, Object> resolved = new LinkedHashMap<>(headerConfig);
         String url = (String) resolved.get("url");
         if (url != null) {
-            resolved.put("url", variableResolver.resolve(url, variables, context));
+            resolved.put("url", variableResolver.resolve(node, url, variables, context));
         }
         return resolved;
     }
 
-    private List<Map<String, Object>> resolveButtonConfig(List<Map<String, Object>> buttonConfig,
+    private List<Map<String, Object>> resolveButtonConfig(ChatbotFlowNode node, List<Map<String, Object>> buttonConfig,
                                                            List<Map<String, Object>> variables,
                                                            FlowExecutionContext context) {
         List<Map<String, Object>> resolved = new ArrayList<>();
@@ -139,7 +139,7 @@ public class SendTemplateNodeExecutor implements ChatbotNodeExecutor {
             Map<String, Object> resolvedBtn = new LinkedHashMap<>(btn);
             String urlSuffix = (String) resolvedBtn.get("urlSuffix");
             if (urlSuffix != null) {
-                resolvedBtn.put("urlSuffix", variableResolver.resolve(urlSuffix, variables, context));
+                resolvedBtn.put("urlSuffix", variableResolver.resolve(node, urlSuffix, variables, context));
             }
             resolved.add(resolvedBtn);
         }
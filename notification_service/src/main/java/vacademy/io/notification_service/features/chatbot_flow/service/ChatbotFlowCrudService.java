@@ -10,6 +10,7 @@ import vacademy.io.common.exceptions.VacademyException;
 import vacademy.io.notification_service.features.chatbot_flow.dto.ChatbotFlowDTO;
 import vacademy.io.notification_service.features.chatbot_flow.dto.ChatbotFlowEdgeDTO;
 import vacademy.io.notification_service.features.chatbot_flow.dto.ChatbotFlowNodeDTO;
+import vacademy.io.notification_service.features.chatbot_flow.engine.ChatbotFlowGraphCache;
 import vacademy.io.notification_service.features.chatbot_flow.entity.ChatbotFlow;
 import vacademy.io.notification_service.features.chatbot_flow.entity.ChatbotFlowEdge;
 import vacademy.io.notification_service.features.chatbot_flow.entity.ChatbotFlowNode;
@@ -35,6 +36,7 @@ public class ChatbotFlowCrudService {
     private final ChatbotFlowEdgeRepository edgeRepository;
     private final ChatbotFlowSessionRepository sessionRepository;
     private final ObjectMapper objectMapper;
+    private final ChatbotFlowGraphCache graphCache;
 
     @Transactional
     public ChatbotFlowDTO createFlow(ChatbotFlowDTO dto) {
@@ -98,6 +100,7 @@ public class ChatbotFlowCrudService {
         edgeRepository.deleteByFlowId(flowId);
         nodeRepository.deleteByFlowId(flowId);
         saveNodesAndEdges(flowId, dto.getNodes(), dto.getEdges());
+        graphCache.evictAfterCommit(flowId, flow.getInstituteId());
 
         return getFlow(flowId);
     }
@@ -108,6 +111,7 @@ public class ChatbotFlowCrudService {
                 .orElseThrow(() -> new VacademyException("Flow not found: " + flowId));
         flow.setStatus(ChatbotFlowStatus.ARCHIVED.name());
         flowRepository.save(flow);
+        graphCache.evictAfterCommit(flowId, flow.getInstituteId());
     }
 
     @Transactional
@@ -122,6 +126,7 @@ public class ChatbotFlowCrudService {
 
         flow.setStatus(ChatbotFlowStatus.ACTIVE.name());
         flowRepository.save(flow);
+        graphCache.evictAfterCommit(flowId, flow.getInstituteId());
 
         return toDTO(flow, nodes, edges);
     }
@@ -132,6 +137,7 @@ public class ChatbotFlowCrudService {
                 .orElseThrow(() -> new VacademyException("Flow not found: " + flowId));
         flow.setStatus(ChatbotFlowStatus.INACTIVE.name());
         flowRepository.save(flow);
+        graphCache.evictAfterCommit(flowId, flow.getInstituteId());
 
         // Complete all active sessions — nodes will be deleted on next save,
         // so sessions pointing to old node IDs would cause "node not found" errors
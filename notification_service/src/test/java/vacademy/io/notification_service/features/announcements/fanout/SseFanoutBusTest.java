@@ -0,0 +1,161 @@
+package vacademy.io.notification_service.features.announcements.fanout;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import vacademy.io.notification_service.features.announcements.dto.AnnouncementEvent;
+import vacademy.io.notification_service.features.announcements.enums.EventType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exercises the Postgres bus without a database: a recording JdbcTemplate stands in for NOTIFY,
+ * and the captured payloads are handed to another bus instance as its listener would.
+ */
+class SseFanoutBusTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    @DisplayName("In-JVM bus delivers to local subscribers and stamps the origin")
+    void inJvmDeliversLocally() {
+        InJvmSseFanoutBus bus = new InJvmSseFanoutBus();
+        List<SseFanoutMessage> received = new ArrayList<>();
+        bus.subscribe(received::addAll);
+
+        bus.publish(SseFanoutMessage.toInstitute("inst-1", event("e-1")));
+
+        assertThat(received).hasSize(1);
+        assertThat(received.get(0).getOriginReplicaId()).isEqualTo(bus.replicaId());
+    }
+
+    @Test
+    @DisplayName("Postgres bus: publisher delivers locally once, other replicas via NOTIFY")
+    void postgresFanOutAcrossReplicas() {
+        RecordingJdbcTemplate notify = new RecordingJdbcTemplate();
+        PostgresSseFanoutBus replicaA = bus(notify, "replica-a");
+        PostgresSseFanoutBus replicaB = bus(notify, "replica-b");
+        List<SseFanoutMessage> onA = new ArrayList<>();
+        List<SseFanoutMessage> onB = new ArrayList<>();
+        replicaA.subscribe(onA::addAll);
+        replicaB.subscribe(onB::addAll);
+
+        replicaA.publish(SseFanoutMessage.toUsers(List.of("u-1", "u-2"), event("e-2")));
+        assertThat(onA).hasSize(1);
+        assertThat(notify.payloads).hasSize(1);
+
+        // Every replica listens, including the publisher: A must ignore its own echo.
+        replicaA.onNotifications(notify.payloads);
+        replicaB.onNotifications(notify.payloads);
+
+        assertThat(onA).hasSize(1);
+        assertThat(onB).hasSize(1);
+        assertThat(onB.get(0).getUserIds()).containsExactly("u-1", "u-2");
+        assertThat(onB.get(0).getEvent().getEventId()).isEqualTo("e-2");
+        assertThat(onB.get(0).getPublishedAtMillis()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Large recipient lists are split under the NOTIFY limit without losing anyone")
+    void splitsLargeRecipientLists() throws Exception {
+        SseFanoutCodec codec = new SseFanoutCodec(objectMapper, 7900);
+        List<String> users = IntStream.range(0, 2000)
+                .mapToObj(i -> "user-" + i + "-0000-0000-0000-000000000000")
+                .collect(Collectors.toList());
+
+        List<String> payloads = codec.encode(SseFanoutMessage.toUsers(users, event("e-3")));
+
+        assertThat(payloads).hasSizeGreaterThan(1);
+        List<String> decodedUsers = new ArrayList<>();
+        for (String payload : payloads) {
+            assertThat(payload.getBytes(StandardCharsets.UTF_8).length).isLessThan(7900);
+            decodedUsers.addAll(codec.decode(payload).getUserIds());
+        }
+        assertThat(decodedUsers).containsExactlyElementsOf(users);
+    }
+
+    @Test
+    @DisplayName("An event too large for one NOTIFY reaches other replicas in chunks, in any arrival order")
+    void oversizedEventIsChunkedAcrossReplicas() {
+        RecordingJdbcTemplate notify = new RecordingJdbcTemplate();
+        PostgresSseFanoutBus replicaA = bus(notify, "replica-a");
+        PostgresSseFanoutBus replicaB = bus(notify, "replica-b");
+        List<SseFanoutMessage> onA = new ArrayList<>();
+        List<SseFanoutMessage> onB = new ArrayList<>();
+        replicaA.subscribe(onA::addAll);
+        replicaB.subscribe(onB::addAll);
+
+        AnnouncementEvent huge = event("e-4");
+        String body = "Ünïcödé announcement 📣 ".repeat(1_000);
+        huge.setData(body);
+        replicaA.publish(SseFanoutMessage.toInstitute("inst-1", huge));
+
+        assertThat(notify.payloads).hasSizeGreaterThan(1);
+        for (String payload : notify.payloads) {
+            assertThat(payload.getBytes(StandardCharsets.UTF_8).length).isLessThan(7900);
+        }
+
+        replicaA.onNotifications(notify.payloads);
+        List<String> reversed = new ArrayList<>(notify.payloads);
+        Collections.reverse(reversed);
+        for (String payload : reversed) {
+            replicaB.onNotifications(List.of(payload));
+        }
+
+        assertThat(onA).hasSize(1);
+        assertThat(onB).hasSize(1);
+        assertThat(onB.get(0).getTarget()).isEqualTo(SseFanoutMessage.Target.INSTITUTE);
+        assertThat(onB.get(0).getEvent().getEventId()).isEqualTo("e-4");
+        assertThat(onB.get(0).getEvent().getData()).isEqualTo(body);
+    }
+
+    @Test
+    @DisplayName("An event over the chunk limit is still delivered on the publishing replica")
+    void eventOverTheChunkLimitStaysLocal() {
+        RecordingJdbcTemplate notify = new RecordingJdbcTemplate();
+        PostgresSseFanoutBus replica = bus(notify, "replica-a");
+        List<SseFanoutMessage> received = new ArrayList<>();
+        replica.subscribe(received::addAll);
+
+        AnnouncementEvent huge = event("e-5");
+        huge.setData("x".repeat(SseFanoutCodec.MAX_CHUNKS * 7_900));
+        replica.publish(SseFanoutMessage.toInstitute("inst-1", huge));
+
+        assertThat(received).hasSize(1);
+        assertThat(notify.payloads).isEmpty();
+    }
+
+    private PostgresSseFanoutBus bus(JdbcTemplate jdbcTemplate, String replicaId) {
+        return new PostgresSseFanoutBus(jdbcTemplate, objectMapper, new SimpleMeterRegistry(),
+                "jdbc:postgresql://localhost/unused", "", "", 500, replicaId);
+    }
+
+    private static AnnouncementEvent event(String id) {
+        return AnnouncementEvent.builder()
+                .type(EventType.NEW_ANNOUNCEMENT)
+                .eventId(id)
+                .instituteId("inst-1")
+                .build();
+    }
+
+    /** Local stand-in for Postgres NOTIFY: records the payload of every pg_notify call. */
+    private static class RecordingJdbcTemplate extends JdbcTemplate {
+        final List<String> payloads = new ArrayList<>();
+
+        @Override
+        public <T> T query(String sql, ResultSetExtractor<T> rse, Object... args) {
+            payloads.add((String) args[1]);
+            return null;
+        }
+    }
+}
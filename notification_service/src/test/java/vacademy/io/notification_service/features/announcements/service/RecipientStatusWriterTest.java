@@ -0,0 +1,78 @@
+package vacademy.io.notification_service.features.announcements.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import vacademy.io.notification_service.features.announcements.entity.RecipientMessage;
+import vacademy.io.notification_service.features.announcements.enums.MessageStatus;
+import vacademy.io.notification_service.features.notification_log.entity.NotificationLog;
+import vacademy.io.notification_service.features.notification_log.repository.NotificationLogRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class RecipientStatusWriterTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final NotificationLogRepository logRepository = mock(NotificationLogRepository.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RecipientStatusWriter writer =
+            new RecipientStatusWriter(jdbcTemplate, logRepository, Runnable::run, registry, 100);
+
+    @Test
+    @DisplayName("Buffered transitions and logs are written once per flush")
+    @SuppressWarnings("unchecked")
+    void flushWritesBatch() {
+        NotificationLog log = new NotificationLog();
+        try (RecipientStatusWriter.Run run = writer.open("a1")) {
+            run.record(message("m1", MessageStatus.DELIVERED));
+            run.record(message("m2", MessageStatus.FAILED));
+            run.log(log);
+            assertThat(run.buffered()).isEqualTo(3);
+            run.flushAsync();
+            assertThat(run.buffered()).isZero();
+        }
+
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), (Collection<Object>) any(Collection.class), eq(100),
+                any(ParameterizedPreparedStatementSetter.class));
+        verify(logRepository, times(1)).saveAll(List.of(log));
+        assertThat(registry.counter("announcement.delivery.status.written").count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("A failed batch is retried row by row")
+    @SuppressWarnings("unchecked")
+    void fallsBackToSingleRows() {
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class))).thenThrow(new RuntimeException("boom"));
+
+        try (RecipientStatusWriter.Run run = writer.open("a1")) {
+            run.record(message("m1", MessageStatus.DELIVERED));
+            run.record(message("m2", MessageStatus.DELIVERED));
+        }
+
+        verify(jdbcTemplate, times(2)).update(anyString(), any(PreparedStatementSetter.class));
+        verifyNoInteractions(logRepository);
+    }
+
+    private static RecipientMessage message(String id, MessageStatus status) {
+        RecipientMessage message = new RecipientMessage();
+        message.setId(id);
+        message.setStatus(status);
+        return message;
+    }
+}
@@ -0,0 +1,69 @@
+package vacademy.io.notification_service.features.announcements.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SseOutboundQueueTest {
+
+    @Test
+    @DisplayName("DISCONNECT closes the queue on overflow and refuses further events")
+    void disconnectOnOverflow() {
+        SseOutboundQueue queue = new SseOutboundQueue(2);
+
+        assertThat(queue.offer(event("a"), SseOutboundQueue.OverflowPolicy.DISCONNECT))
+                .isEqualTo(SseOutboundQueue.Offer.QUEUED);
+        assertThat(queue.offer(event("b"), SseOutboundQueue.OverflowPolicy.DISCONNECT))
+                .isEqualTo(SseOutboundQueue.Offer.QUEUED);
+        assertThat(queue.offer(event("c"), SseOutboundQueue.OverflowPolicy.DISCONNECT))
+                .isEqualTo(SseOutboundQueue.Offer.OVERFLOWED);
+        assertThat(queue.offer(event("d"), SseOutboundQueue.OverflowPolicy.DISCONNECT))
+                .isEqualTo(SseOutboundQueue.Offer.CLOSED);
+        assertThat(queue.depth()).isZero();
+    }
+
+    @Test
+    @DisplayName("DROP_OLDEST keeps the newest events in order")
+    void dropOldestOnOverflow() {
+        SseOutboundQueue queue = new SseOutboundQueue(2);
+        Set<ResponseBodyEmitter.DataWithMediaType> a = event("a");
+        Set<ResponseBodyEmitter.DataWithMediaType> b = event("b");
+        Set<ResponseBodyEmitter.DataWithMediaType> c = event("c");
+
+        queue.offer(a, SseOutboundQueue.OverflowPolicy.DROP_OLDEST);
+        queue.offer(b, SseOutboundQueue.OverflowPolicy.DROP_OLDEST);
+        assertThat(queue.offer(c, SseOutboundQueue.OverflowPolicy.DROP_OLDEST))
+                .isEqualTo(SseOutboundQueue.Offer.DROPPED_OLDEST);
+
+        assertThat(queue.take(10)).containsExactly(b, c);
+    }
+
+    @Test
+    @DisplayName("Only one drain is scheduled at a time, and events arriving mid-drain reschedule it")
+    void singleDrainWithoutLostWakeups() {
+        SseOutboundQueue queue = new SseOutboundQueue(10);
+        queue.offer(event("a"), SseOutboundQueue.OverflowPolicy.DISCONNECT);
+
+        assertThat(queue.trySchedule()).isTrue();
+        assertThat(queue.trySchedule()).isFalse();
+
+        List<Set<ResponseBodyEmitter.DataWithMediaType>> first = queue.take(10);
+        assertThat(first).hasSize(1);
+        queue.offer(event("b"), SseOutboundQueue.OverflowPolicy.DISCONNECT);
+
+        assertThat(queue.finishDrain()).isTrue();
+        assertThat(queue.take(10)).hasSize(1);
+        assertThat(queue.finishDrain()).isFalse();
+        assertThat(queue.trySchedule()).isTrue();
+    }
+
+    private static Set<ResponseBodyEmitter.DataWithMediaType> event(String name) {
+        return SseEmitter.event().name(name).data(name).build();
+    }
+}
@@ -0,0 +1,68 @@
+package vacademy.io.notification_service.features.chatbot_flow.engine;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import vacademy.io.notification_service.features.chatbot_flow.entity.ChatbotFlow;
+import vacademy.io.notification_service.features.chatbot_flow.entity.ChatbotFlowEdge;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompiledChatbotFlowTest {
+
+    @Test
+    @DisplayName("Keyword triggers: exact, contains and regex match like the trigger executor")
+    void keywordMatching() {
+        TriggerMatcher exact = TriggerMatcher.compile(Map.of("keywords", List.of(" Hi "), "matchType", "exact"));
+        TriggerMatcher contains = TriggerMatcher.compile(Map.of("keywords", List.of("fees")));
+        TriggerMatcher regex = TriggerMatcher.compile(Map.of("keywords", List.of("^order\\s+\\d+$"), "matchType", "regex"));
+
+        assertThat(exact.matches("hi", null, false)).isTrue();
+        assertThat(exact.matches("hi there", null, false)).isFalse();
+        assertThat(contains.matches("What are the FEES?", null, false)).isTrue();
+        assertThat(regex.matches("ORDER 42", null, false)).isTrue();
+        assertThat(regex.matches("my order 42", null, false)).isFalse();
+        assertThat(exact.isSpecific()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Catch-all, first-contact, button and invalid triggers")
+    void otherTriggerTypes() {
+        TriggerMatcher catchAll = TriggerMatcher.compile(Map.of("priority", 5));
+        TriggerMatcher firstContact = TriggerMatcher.compile(Map.of("triggerType", "FIRST_CONTACT"));
+        TriggerMatcher button = TriggerMatcher.compile(Map.of("triggerType", "BUTTON_REPLY", "buttonIds", List.of("YES")));
+        FlowExecutionContext yes = FlowExecutionContext.builder().buttonPayload("yes").build();
+
+        assertThat(catchAll.matches("anything", null, false)).isTrue();
+        assertThat(catchAll.matches("  ", null, false)).isFalse();
+        assertThat(catchAll.isSpecific()).isFalse();
+        assertThat(catchAll.getPriority()).isEqualTo(5);
+        assertThat(firstContact.matches(null, null, false)).isTrue();
+        assertThat(firstContact.matches(null, null, true)).isFalse();
+        assertThat(button.matches(null, yes, false)).isTrue();
+        assertThat(TriggerMatcher.compile(null).matches("hi", yes, false)).isFalse();
+    }
+
+    @Test
+    @DisplayName("nextEdge picks the selected branch, then the default branch, then the first edge")
+    void branchSelection() {
+        ChatbotFlowEdge first = edge("e1", "{\"branchId\":\"a\"}");
+        ChatbotFlowEdge fallback = edge("e2", "{\"branchId\":\"b\",\"isDefault\":true}");
+        CompiledChatbotFlow.Outgoing outgoing = new CompiledChatbotFlow.Outgoing(List.of(first, fallback),
+                Map.of("a", first, "b", fallback), fallback);
+        CompiledChatbotFlow flow = new CompiledChatbotFlow(ChatbotFlow.builder().id("f").build(),
+                Map.of(), Map.of("n1", outgoing), List.of());
+
+        assertThat(flow.nextEdge("n1", "a")).isSameAs(first);
+        assertThat(flow.nextEdge("n1", "unknown")).isSameAs(fallback);
+        assertThat(flow.nextEdge("n1", null)).isSameAs(first);
+        assertThat(flow.nextEdge("n2", null)).isNull();
+    }
+
+    private static ChatbotFlowEdge edge(String id, String conditionConfig) {
+        return ChatbotFlowEdge.builder().id(id).sourceNodeId("n1").targetNodeId("t-" + id)
+                .conditionConfig(conditionConfig).build();
+    }
+}
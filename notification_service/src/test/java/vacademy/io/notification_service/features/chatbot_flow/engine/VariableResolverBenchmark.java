@@ -0,0 +1,98 @@
+package vacademy.io.notification_service.features.chatbot_flow.engine;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import vacademy.io.notification_service.features.chatbot_flow.entity.ChatbotFlowNode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering one SEND_MESSAGE template for a campaign of 1000 recipients: tokenising the template
+ * on every send (the pre-cache cost: regex scan plus a scan of the node's variables per
+ * placeholder) against {@link VariableResolver}'s per-node compiled template. Not a unit test —
+ * run with {@code main} from the IDE or
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=...}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VariableResolverBenchmark {
+
+    @Param({
+            "Hi {{name}}, your fee of {{amount}} for {{session.batch}} is due on {{dueDate}}.",
+            "Hello {{user.full_name}}! Reply YES to confirm your seat. Call {{fixed:+91 98765 43210}} for help."
+    })
+    public String template;
+
+    private VariableResolver resolver;
+    private ChatbotFlowNode node;
+    private List<Map<String, Object>> variables;
+    private List<FlowExecutionContext> recipients;
+
+    @Setup
+    public void setUp() {
+        resolver = new VariableResolver(new SimpleMeterRegistry(), 5000);
+        node = ChatbotFlowNode.builder().id("node-1").config("{\"text\":\"" + template + "\"}").build();
+        variables = new ArrayList<>();
+        variables.add(Map.of("name", "name", "source", "SYSTEM_FIELD", "field", "fullName", "defaultValue", "there"));
+        variables.add(Map.of("name", "amount", "source", "CUSTOM_FIELD", "field", "Fee Amount", "defaultValue", "-"));
+        variables.add(Map.of("name", "dueDate", "source", "SESSION", "field", "due_date"));
+        variables.add(Map.of("name", "course", "source", "CUSTOM_FIELD", "field", "Course"));
+
+        recipients = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Map<String, Object> session = new HashMap<>();
+            session.put("batch", "Batch " + (i % 12));
+            session.put("due_date", "2026-11-" + (10 + i % 20));
+            recipients.add(FlowExecutionContext.builder()
+                    .phoneNumber("9198765" + String.format("%05d", i))
+                    .instituteId("inst-1")
+                    .sessionVariables(session)
+                    .userDetails(Map.of(
+                            "user", Map.of("full_name", "Learner " + i),
+                            "customFields", Map.of("Fee Amount", "INR " + (1000 + i), "Course", "JEE")))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public void tokenisePerSend(Blackhole bh) {
+        for (FlowExecutionContext ctx : recipients) {
+            bh.consume(resolver.resolve(template, variables, ctx));
+        }
+    }
+
+    @Benchmark
+    public void compiledPerNode(Blackhole bh) {
+        for (FlowExecutionContext ctx : recipients) {
+            bh.consume(resolver.resolve(node, template, variables, ctx));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(VariableResolverBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,71 @@
+package vacademy.io.notification_service.features.chatbot_flow.engine;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import vacademy.io.notification_service.features.chatbot_flow.entity.ChatbotFlowNode;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VariableResolverTest {
+
+    private final VariableResolver resolver = new VariableResolver(new SimpleMeterRegistry(), 100);
+
+    private final FlowExecutionContext ctx = FlowExecutionContext.builder()
+            .phoneNumber("919876543210")
+            .sessionVariables(Map.of("batch", "Batch A", "score", 42))
+            .userDetails(Map.of(
+                    "user", Map.of("full_name", "Asha"),
+                    "customFields", Map.of("City", "Pune")))
+            .build();
+
+    @Test
+    @DisplayName("Configured variables win over built-ins, with defaults for blank values")
+    void configuredVariables() {
+        List<Map<String, Object>> vars = List.of(
+                Map.of("name", "name", "source", "SYSTEM_FIELD", "field", "fullName"),
+                Map.of("name", "city", "source", "CUSTOM_FIELD", "field", "City"),
+                Map.of("name", "phone", "source", "FIXED", "field", "support"),
+                Map.of("name", "missing", "source", "SESSION", "field", "nope", "defaultValue", "n/a"));
+
+        assertThat(resolver.resolve("Hi {{ name }} from {{city}}, call {{phone}} ({{missing}})", vars, ctx))
+                .isEqualTo("Hi Asha from Pune, call support (n/a)");
+    }
+
+    @Test
+    @DisplayName("Built-in placeholders, including the session fallback for unknown names")
+    void builtins() {
+        assertThat(resolver.resolve("{{phone}}|{{session.batch}}|{{user.fullName}}|{{customField.City}}"
+                + "|{{fixed:x y}}|{{score}}|{{unknown}}", null, ctx))
+                .isEqualTo("919876543210|Batch A|Asha|Pune|x y|42|");
+        assertThat(resolver.resolve("no placeholders", null, ctx)).isEqualTo("no placeholders");
+        assertThat(resolver.resolve(null, null, ctx)).isNull();
+    }
+
+    @Test
+    @DisplayName("Prefixed placeholders fall back to a session lookup when user details are absent")
+    void prefixedWithoutUserDetails() {
+        FlowExecutionContext bare = FlowExecutionContext.builder()
+                .sessionVariables(Map.of("user.name", "from-session"))
+                .build();
+
+        assertThat(resolver.resolve("{{user.name}}/{{customField.x}}", null, bare)).isEqualTo("from-session/");
+    }
+
+    @Test
+    @DisplayName("Node-cached templates are recompiled when the node config changes")
+    void nodeCacheFollowsConfig() {
+        ChatbotFlowNode node = ChatbotFlowNode.builder().id("n1").config("{\"v\":1}").build();
+        List<Map<String, Object>> v1 = List.of(Map.of("name", "x", "source", "FIXED", "field", "one"));
+        List<Map<String, Object>> v2 = List.of(Map.of("name", "x", "source", "FIXED", "field", "two"));
+
+        assertThat(resolver.resolve(node, "{{x}}", v1, ctx)).isEqualTo("one");
+        assertThat(resolver.resolve(node, "{{x}}", v2, ctx)).isEqualTo("one");
+
+        node.setConfig("{\"v\":2}");
+        assertThat(resolver.resolve(node, "{{x}}", v2, ctx)).isEqualTo("two");
+    }
+}